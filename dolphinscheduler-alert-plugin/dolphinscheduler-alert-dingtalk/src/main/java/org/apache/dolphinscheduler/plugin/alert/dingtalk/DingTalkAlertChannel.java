@@ -22,13 +22,21 @@ import org.apache.dolphinscheduler.spi.alert.AlertData;
 import org.apache.dolphinscheduler.spi.alert.AlertInfo;
 import org.apache.dolphinscheduler.spi.alert.AlertResult;
 
+import java.io.IOException;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * DingTalkAlertChannel
  */
 public class DingTalkAlertChannel implements AlertChannel {
 
+    private static final Logger logger = LoggerFactory.getLogger(DingTalkAlertChannel.class);
+
+    private DingTalkSender sender;
+
     @Override
     public AlertResult process(AlertInfo alertInfo) {
 
@@ -37,6 +45,30 @@ public class DingTalkAlertChannel implements AlertChannel {
         if (null == paramsMap) {
             return new AlertResult("false", "ding talk params is null");
         }
-        return new DingTalkSender(paramsMap).sendDingTalkMsg(alertData.getTitle(), alertData.getContent());
+        return getSender(paramsMap).sendDingTalkMsg(alertData.getTitle(), alertData.getContent());
+    }
+
+    /**
+     * get the sender, created with the params of the first message.
+     * the alert server creates the channel again when the params of the plugin instance change
+     */
+    private synchronized DingTalkSender getSender(Map<String, String> paramsMap) {
+        if (sender == null) {
+            sender = new DingTalkSender(paramsMap);
+        }
+        return sender;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sender == null) {
+            return;
+        }
+        try {
+            sender.close();
+        } catch (IOException e) {
+            logger.error("close ding talk sender error", e);
+        }
+        sender = null;
     }
 }
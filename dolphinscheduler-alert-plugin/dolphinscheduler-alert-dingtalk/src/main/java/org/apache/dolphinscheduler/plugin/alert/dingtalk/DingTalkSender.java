@@ -32,22 +32,35 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Ding Talk Sender
+ * Ding Talk Sender, the http client is kept until the sender is closed
  */
-public class DingTalkSender {
+public class DingTalkSender implements Closeable {
     private static final Logger logger = LoggerFactory.getLogger(DingTalkSender.class);
 
+    /**
+     * max connections of the http client
+     */
+    private static final int MAX_CONNECTIONS = 20;
+
+    /**
+     * idle time after which a connection is closed, in seconds
+     */
+    private static final long MAX_IDLE_SECONDS = 60;
+
     private String url;
 
     private String keyword;
@@ -62,6 +75,11 @@ public class DingTalkSender {
 
     private String password;
 
+    /**
+     * created on the first message and kept for the later ones
+     */
+    private CloseableHttpClient httpClient;
+
     DingTalkSender(Map<String, String> config) {
         url = config.get(DingTalkParamsConstants.NAME_DING_TALK_WEB_HOOK);
         keyword = config.get(DingTalkParamsConstants.NAME_DING_TALK_KEYWORD);
@@ -72,7 +90,6 @@ public class DingTalkSender {
             user = config.get(DingTalkParamsConstants.DING_TALK_USER);
             password = config.get(DingTalkParamsConstants.NAME_DING_TALK_PASSWORD);
         }
-
     }
 
     private static HttpPost constructHttpPost(String url, String msg, String charset) {
@@ -87,11 +104,18 @@ public class DingTalkSender {
         HttpHost httpProxy = new HttpHost(proxy, port);
         CredentialsProvider provider = new BasicCredentialsProvider();
         provider.setCredentials(new AuthScope(httpProxy), new UsernamePasswordCredentials(user, password));
-        return HttpClients.custom().setDefaultCredentialsProvider(provider).build();
+        return pooledClientBuilder().setDefaultCredentialsProvider(provider).build();
     }
 
     private static CloseableHttpClient getDefaultClient() {
-        return HttpClients.createDefault();
+        return pooledClientBuilder().build();
+    }
+
+    private static HttpClientBuilder pooledClientBuilder() {
+        return HttpClients.custom()
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .setMaxConnPerRoute(MAX_CONNECTIONS)
+                .evictIdleConnections(MAX_IDLE_SECONDS, TimeUnit.SECONDS);
     }
 
     private static RequestConfig getProxyConfig(String proxy, int port) {
@@ -153,30 +177,31 @@ public class DingTalkSender {
 
         String msgToJson = textToJsonString(title + content + "#" + keyword);
         HttpPost httpPost = constructHttpPost(url, msgToJson, "UTF-8");
-
-        CloseableHttpClient httpClient;
         if (Boolean.TRUE.equals(enableProxy)) {
-            httpClient = getProxyClient(proxy, port, user, password);
-            RequestConfig rcf = getProxyConfig(proxy, port);
-            httpPost.setConfig(rcf);
-        } else {
-            httpClient = getDefaultClient();
+            httpPost.setConfig(getProxyConfig(proxy, port));
         }
 
-        try {
-            CloseableHttpResponse response = httpClient.execute(httpPost);
-            String resp;
-            try {
-                HttpEntity entity = response.getEntity();
-                resp = EntityUtils.toString(entity, "UTF-8");
-                EntityUtils.consume(entity);
-            } finally {
-                response.close();
-            }
+        try (CloseableHttpResponse response = getHttpClient().execute(httpPost)) {
+            HttpEntity entity = response.getEntity();
+            String resp = EntityUtils.toString(entity, "UTF-8");
+            EntityUtils.consume(entity);
             logger.info("Ding Talk send title :{},content : {}, resp: {}", title, content, resp);
             return resp;
-        } finally {
+        }
+    }
+
+    private synchronized CloseableHttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = Boolean.TRUE.equals(enableProxy) ? getProxyClient(proxy, port, user, password) : getDefaultClient();
+        }
+        return httpClient;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (httpClient != null) {
             httpClient.close();
+            httpClient = null;
         }
     }
 
@@ -33,6 +33,8 @@ import org.slf4j.LoggerFactory;
 public class EmailAlertChannel implements AlertChannel {
     private static final Logger logger = LoggerFactory.getLogger(EmailAlertChannel.class);
 
+    private MailSender sender;
+
     @Override
     public AlertResult process(AlertInfo info) {
 
@@ -41,8 +43,7 @@ public class EmailAlertChannel implements AlertChannel {
         if (null == paramsMap) {
             return new AlertResult("false", "mail params is null");
         }
-        MailSender mailSender = new MailSender(paramsMap);
-        AlertResult alertResult = mailSender.sendMails(alert.getTitle(), alert.getContent());
+        AlertResult alertResult = getSender(paramsMap).sendMails(alert.getTitle(), alert.getContent());
 
         //send flag
         boolean flag = false;
@@ -67,4 +68,23 @@ public class EmailAlertChannel implements AlertChannel {
 
         return alertResult;
     }
+
+    /**
+     * get the sender, created with the params of the first message.
+     * the alert server creates the channel again when the params of the plugin instance change
+     */
+    private synchronized MailSender getSender(Map<String, String> paramsMap) {
+        if (sender == null) {
+            sender = new MailSender(paramsMap);
+        }
+        return sender;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sender != null) {
+            sender.close();
+            sender = null;
+        }
+    }
 }
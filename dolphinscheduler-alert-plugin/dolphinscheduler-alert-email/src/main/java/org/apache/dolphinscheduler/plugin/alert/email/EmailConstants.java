@@ -75,5 +75,26 @@ public class EmailConstants {
 
     public static final String EXCEL_SUFFIX_XLS = ".xls";
 
+    public static final String CSV_SUFFIX = ".csv";
+
+    public static final String CSV_LINE_SEPARATOR = "\r\n";
+
+    /**
+     * contents longer than this are attached as csv instead of xls, as a xls workbook is built in memory
+     */
+    public static final int EXCEL_MAX_CONTENT_LENGTH = 1024 * 1024;
+
+    /**
+     * max rows of a xls sheet
+     */
+    public static final int EXCEL_MAX_ROWS = 65536;
+
+    public static final int EXCEL_MAX_COLUMN_WIDTH = 255 * 256;
+
+    /**
+     * max rows of an attachment
+     */
+    public static final int ATTACHMENT_MAX_ROWS = 100000;
+
     public static final String SINGLE_SLASH = "/";
 }
@@ -18,9 +18,7 @@
 package org.apache.dolphinscheduler.plugin.alert.email;
 
 import org.apache.dolphinscheduler.plugin.alert.email.exception.AlertEmailException;
-import org.apache.dolphinscheduler.spi.utils.JSONUtils;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.poi.hssf.usermodel.HSSFCell;
 import org.apache.poi.hssf.usermodel.HSSFRow;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
@@ -28,11 +26,15 @@ import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -58,29 +60,69 @@ public class ExcelUtils {
      * @param xlsFilePath the xls path
      */
     public static void genExcelFile(String content, String title, String xlsFilePath) {
-        List<LinkedHashMap> itemsList;
-
-        //The JSONUtils.toList has been try catch ex
-        itemsList = JSONUtils.toList(content, LinkedHashMap.class);
-
-        if (CollectionUtils.isEmpty(itemsList)) {
-            logger.error("itemsList is null");
-            throw new AlertEmailException("itemsList is null");
+        File file = new File(xlsFilePath);
+        if (!file.exists()) {
+            file.mkdirs();
         }
+        writeExcelFile(content, new File(xlsFilePath + EmailConstants.SINGLE_SLASH + title + EmailConstants.EXCEL_SUFFIX_XLS),
+                EmailConstants.ATTACHMENT_MAX_ROWS);
+    }
 
-        LinkedHashMap<String, Object> headerMap = itemsList.get(0);
-
-        List<String> headerList = new ArrayList<>();
-
-        for (Map.Entry<String, Object> en : headerMap.entrySet()) {
-            headerList.add(en.getKey());
+    /**
+     * generate the attachment file of an alert in a temp file, an excel file for a small content and a csv file
+     * written row by row for a large one, the caller deletes the file after use
+     *
+     * @param content the content
+     * @param filePath the directory of the file
+     * @return attachment file
+     */
+    public static File genAttachmentFile(String content, String filePath) {
+        File dir = new File(filePath);
+        if (!dir.exists()) {
+            dir.mkdirs();
         }
-
-        HSSFWorkbook wb = null;
-        FileOutputStream fos = null;
+        boolean excel = content.length() <= EmailConstants.EXCEL_MAX_CONTENT_LENGTH;
+        File file;
         try {
-            // declare a workbook
-            wb = new HSSFWorkbook();
+            file = File.createTempFile("alert_", excel ? EmailConstants.EXCEL_SUFFIX_XLS : EmailConstants.CSV_SUFFIX, dir);
+        } catch (IOException e) {
+            throw new AlertEmailException("create attachment file error", e);
+        }
+        try {
+            if (excel) {
+                writeExcelFile(content, file, EmailConstants.ATTACHMENT_MAX_ROWS);
+            } else {
+                writeCsvFile(content, file, EmailConstants.ATTACHMENT_MAX_ROWS);
+            }
+        } catch (RuntimeException e) {
+            if (!file.delete()) {
+                logger.warn("delete attachment file {} fail", file.getAbsolutePath());
+            }
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * write the content as an excel file
+     *
+     * @param content json array of objects
+     * @param file file
+     * @param maxRows max rows written, the rest are left out
+     */
+    static void writeExcelFile(String content, File file, int maxRows) {
+        // the last row of a xls sheet is kept for the note of the left out rows
+        maxRows = Math.min(maxRows, EmailConstants.EXCEL_MAX_ROWS - 2);
+        try (JsonRowReader rows = new JsonRowReader(content);
+             HSSFWorkbook wb = new HSSFWorkbook();
+             OutputStream fos = new FileOutputStream(file)) {
+            if (!rows.hasNext()) {
+                logger.error("itemsList is null");
+                throw new AlertEmailException("itemsList is null");
+            }
+            Map<String, String> firstRow = rows.next();
+            List<String> headerList = new ArrayList<>(firstRow.keySet());
+
             // generate a table
             HSSFSheet sheet = wb.createSheet();
             HSSFRow row = sheet.createRow(0);
@@ -100,51 +142,100 @@ public class ExcelUtils {
 
             //setting excel body
             int rowIndex = 1;
-            for (LinkedHashMap<String, Object> itemsMap : itemsList) {
-                Object[] values = itemsMap.values().toArray();
+            Map<String, String> itemsMap = firstRow;
+            while (itemsMap != null && rowIndex <= maxRows) {
                 row = sheet.createRow(rowIndex);
                 //setting excel body height
                 row.setHeight((short) 500);
                 rowIndex++;
-                for (int j = 0; j < values.length; j++) {
-                    HSSFCell cell1 = row.createCell(j);
+                int j = 0;
+                for (String value : itemsMap.values()) {
+                    HSSFCell cell1 = row.createCell(j++);
                     cell1.setCellStyle(cellStyle);
-                    cell1.setCellValue(String.valueOf(values[j]));
+                    cell1.setCellValue(value);
                 }
+                itemsMap = rows.hasNext() ? rows.next() : null;
             }
-
-            for (int i = 0; i < headerList.size(); i++) {
-                sheet.setColumnWidth(i, headerList.get(i).length() * 800);
+            if (itemsMap != null) {
+                sheet.createRow(rowIndex).createCell(0).setCellValue(leftOutNote(maxRows));
             }
 
-            File file = new File(xlsFilePath);
-            if (!file.exists()) {
-                file.mkdirs();
+            for (int i = 0; i < headerList.size(); i++) {
+                sheet.setColumnWidth(i, Math.min(headerList.get(i).length() * 800, EmailConstants.EXCEL_MAX_COLUMN_WIDTH));
             }
 
-            //setting file output
-            fos = new FileOutputStream(xlsFilePath + EmailConstants.SINGLE_SLASH + title + EmailConstants.EXCEL_SUFFIX_XLS);
-
             wb.write(fos);
-
+        } catch (AlertEmailException e) {
+            throw e;
         } catch (Exception e) {
             throw new AlertEmailException("generate excel error", e);
-        } finally {
-            if (wb != null) {
-                try {
-                    wb.close();
-                } catch (IOException e) {
-                    logger.error(e.getMessage(), e);
-                }
+        }
+    }
+
+    /**
+     * write the content as a csv file, row by row
+     *
+     * @param content json array of objects
+     * @param file file
+     * @param maxRows max rows written, the rest are left out
+     */
+    static void writeCsvFile(String content, File file, int maxRows) {
+        try (JsonRowReader rows = new JsonRowReader(content);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            if (!rows.hasNext()) {
+                logger.error("itemsList is null");
+                throw new AlertEmailException("itemsList is null");
             }
-            if (fos != null) {
-                try {
-                    fos.close();
-                } catch (IOException e) {
-                    logger.error(e.getMessage(), e);
+            // byte order mark, so that excel opens the file as utf-8
+            writer.write('\ufeff');
+            int rowIndex = 0;
+            while (rows.hasNext() && rowIndex < maxRows) {
+                Map<String, String> itemsMap = rows.next();
+                if (rowIndex == 0) {
+                    writeCsvLine(writer, itemsMap.keySet());
                 }
+                writeCsvLine(writer, itemsMap.values());
+                rowIndex++;
+            }
+            if (rows.hasNext()) {
+                writer.write(escapeCsv(leftOutNote(maxRows)));
+                writer.write(EmailConstants.CSV_LINE_SEPARATOR);
+            }
+        } catch (AlertEmailException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AlertEmailException("generate csv error", e);
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, Iterable<String> values) throws IOException {
+        boolean first = true;
+        for (String value : values) {
+            if (!first) {
+                writer.write(',');
             }
+            first = false;
+            writer.write(escapeCsv(value));
+        }
+        writer.write(EmailConstants.CSV_LINE_SEPARATOR);
+    }
+
+    /**
+     * quote a csv value if it holds a separator, a quote or a line break
+     */
+    static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
         }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String leftOutNote(int maxRows) {
+        logger.warn("alert content has more than {} rows, the rest are left out of the attachment", maxRows);
+        return "only the first " + maxRows + " rows are shown";
     }
 
 }
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.alert.email;
+
+import org.apache.dolphinscheduler.plugin.alert.email.exception.AlertEmailException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * read the rows of a json array of objects one by one, so that the whole content is never held as objects
+ */
+public class JsonRowReader implements Iterator<Map<String, String>>, Closeable {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JsonParser parser;
+
+    private Map<String, String> nextRow;
+
+    /**
+     * @param content json array of objects
+     */
+    public JsonRowReader(String content) {
+        try {
+            this.parser = objectMapper.getFactory().createParser(content);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                throw new AlertEmailException("itemsList is null");
+            }
+            this.nextRow = readRow();
+        } catch (IOException e) {
+            throw new AlertEmailException("itemsList is null", e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRow != null;
+    }
+
+    @Override
+    public Map<String, String> next() {
+        if (nextRow == null) {
+            throw new NoSuchElementException();
+        }
+        Map<String, String> row = nextRow;
+        try {
+            nextRow = readRow();
+        } catch (IOException e) {
+            throw new AlertEmailException("parse alert content error", e);
+        }
+        return row;
+    }
+
+    /**
+     * read the next object of the array, other values are skipped
+     *
+     * @return column name -> value, null if the array ends
+     */
+    private Map<String, String> readRow() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            Map<String, String> row = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                if (valueToken == JsonToken.START_OBJECT || valueToken == JsonToken.START_ARRAY) {
+                    row.put(name, parser.readValueAsTree().toString());
+                } else if (valueToken == JsonToken.VALUE_NULL) {
+                    row.put(name, "null");
+                } else {
+                    row.put(name, parser.getText());
+                }
+            }
+            return row;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        try {
+            parser.close();
+        } catch (IOException ignore) {
+            // nothing to release for a string source
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.mail.EmailException;
 import org.apache.commons.mail.HtmlEmail;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -43,6 +44,7 @@ import javax.mail.Authenticator;
 import javax.mail.Message;
 import javax.mail.MessagingException;
 import javax.mail.PasswordAuthentication;
+import javax.mail.SendFailedException;
 import javax.mail.Session;
 import javax.mail.Transport;
 import javax.mail.internet.InternetAddress;
@@ -57,9 +59,9 @@ import org.slf4j.LoggerFactory;
 import com.sun.mail.smtp.SMTPProvider;
 
 /**
- * mail utils
+ * mail utils, the session and the smtp connection are kept until the sender is closed
  */
-public class MailSender {
+public class MailSender implements Closeable {
 
     public static final Logger logger = LoggerFactory.getLogger(MailSender.class);
 
@@ -80,6 +82,16 @@ public class MailSender {
     private AlertTemplate alertTemplate;
     private String mustNotNull = "must not be null";
 
+    /**
+     * created on the first mail and kept for the later ones
+     */
+    private Session session;
+
+    /**
+     * connection kept open for the later mails
+     */
+    private Transport transport;
+
     public MailSender(Map<String, String> config) {
 
         String receiversConfig = config.get(MailParamsConstants.NAME_PLUGIN_DEFAULT_EMAIL_RECEIVERS);
@@ -200,17 +212,25 @@ public class MailSender {
                 handleException(alertResult, e);
             }
         } else if (showType.equals(ShowType.ATTACHMENT.getDescp()) || showType.equals(ShowType.TABLEATTACHMENT.getDescp())) {
+            File file = null;
             try {
+                // make the attachment file
+                file = ExcelUtils.genAttachmentFile(content, xlsFilePath);
+                String fileName = title + file.getName().substring(file.getName().lastIndexOf('.'));
 
-                String partContent = (showType.equals(ShowType.ATTACHMENT.getDescp()) ? "Please see the attachment " + title + EmailConstants.EXCEL_SUFFIX_XLS : htmlTable(content, false));
+                String partContent = (showType.equals(ShowType.ATTACHMENT.getDescp()) ? "Please see the attachment " + fileName : htmlTable(content, false));
 
-                attachment(title, content, partContent);
+                attachment(title, file, fileName, partContent);
 
                 alertResult.setStatus("true");
                 return alertResult;
             } catch (Exception e) {
                 handleException(alertResult, e);
                 return alertResult;
+            } finally {
+                if (file != null) {
+                    deleteFile(file);
+                }
             }
         }
         return alertResult;
@@ -249,12 +269,12 @@ public class MailSender {
     }
 
     /**
-     * send mail as Excel attachment
+     * send mail with the attachment file
      */
-    private void attachment(String title, String content, String partContent) throws Exception {
+    private void attachment(String title, File file, String fileName, String partContent) throws Exception {
         MimeMessage msg = getMimeMessage();
 
-        attachContent(title, content, partContent, msg);
+        attachContent(title, file, fileName, partContent, msg);
     }
 
     /**
@@ -281,9 +301,12 @@ public class MailSender {
     /**
      * get session
      *
-     * @return the new Session
+     * @return the Session, created on the first call
      */
-    private Session getSession() {
+    private synchronized Session getSession() {
+        if (session != null) {
+            return session;
+        }
         Properties props = new Properties();
         props.setProperty(MailParamsConstants.MAIL_SMTP_HOST, mailSmtpHost);
         props.setProperty(MailParamsConstants.MAIL_SMTP_PORT, mailSmtpPort);
@@ -301,15 +324,55 @@ public class MailSender {
             }
         };
 
-        Session session = Session.getInstance(props, auth);
+        session = Session.getInstance(props, auth);
         session.addProvider(new SMTPProvider());
         return session;
     }
 
+    /**
+     * send a message through the kept connection, connected again if the server has closed it
+     *
+     * @param msg message with the headers saved
+     */
+    private synchronized void sendMessage(MimeMessage msg) throws MessagingException {
+        if (transport != null && transport.isConnected()) {
+            try {
+                transport.sendMessage(msg, msg.getAllRecipients());
+                return;
+            } catch (SendFailedException e) {
+                throw e;
+            } catch (MessagingException e) {
+                logger.warn("send mail through the kept connection failed, connect again : {}", e.getMessage());
+                closeTransport();
+            }
+        }
+        closeTransport();
+        transport = getSession().getTransport("smtp");
+        transport.connect();
+        transport.sendMessage(msg, msg.getAllRecipients());
+    }
+
+    private void closeTransport() {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            logger.warn("close mail transport error : {}", e.getMessage());
+        }
+        transport = null;
+    }
+
+    @Override
+    public synchronized void close() {
+        closeTransport();
+    }
+
     /**
      * attach content
      */
-    private void attachContent(String title, String content, String partContent, MimeMessage msg) throws MessagingException, IOException {
+    private void attachContent(String title, File file, String fileName, String partContent, MimeMessage msg) throws MessagingException, IOException {
         /*
          * set receiverCc
          */
@@ -327,24 +390,15 @@ public class MailSender {
         part1.setContent(partContent, EmailConstants.TEXT_HTML_CHARSET_UTF_8);
         // set attach file
         MimeBodyPart part2 = new MimeBodyPart();
-        File file = new File(xlsFilePath + EmailConstants.SINGLE_SLASH + title + EmailConstants.EXCEL_SUFFIX_XLS);
-        if (!file.getParentFile().exists()) {
-            file.getParentFile().mkdirs();
-        }
-        // make excel file
-
-        ExcelUtils.genExcelFile(content, title, xlsFilePath);
-
         part2.attachFile(file);
-        part2.setFileName(MimeUtility.encodeText(title + EmailConstants.EXCEL_SUFFIX_XLS, EmailConstants.UTF_8, "B"));
+        part2.setFileName(MimeUtility.encodeText(fileName, EmailConstants.UTF_8, "B"));
         // add components to collection
         partList.addBodyPart(part1);
         partList.addBodyPart(part2);
         msg.setContent(partList);
         // 5. send Transport
-        Transport.send(msg);
-        // 6. delete saved file
-        deleteFile(file);
+        msg.saveChanges();
+        sendMessage(msg);
     }
 
     /**
@@ -368,7 +422,12 @@ public class MailSender {
         // send
         email.setDebug(true);
         Thread.currentThread().setContextClassLoader(getClass().getClassLoader());
-        email.send();
+        email.buildMimeMessage();
+        try {
+            sendMessage(email.getMimeMessage());
+        } catch (MessagingException e) {
+            throw new EmailException("Sending the email to the following server failed : " + mailSmtpHost + ":" + mailSmtpPort, e);
+        }
 
         alertResult.setStatus("true");
 
@@ -20,15 +20,13 @@ package org.apache.dolphinscheduler.plugin.alert.email.template;
 import static java.util.Objects.requireNonNull;
 
 import org.apache.dolphinscheduler.plugin.alert.email.EmailConstants;
+import org.apache.dolphinscheduler.plugin.alert.email.JsonRowReader;
+import org.apache.dolphinscheduler.plugin.alert.email.exception.AlertEmailException;
 import org.apache.dolphinscheduler.spi.alert.ShowType;
 import org.apache.dolphinscheduler.spi.utils.JSONUtils;
 import org.apache.dolphinscheduler.spi.utils.StringUtils;
 
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,39 +64,31 @@ public class DefaultHTMLTemplate implements AlertTemplate {
     private String getTableTypeMessage(String content, boolean showAll) {
 
         if (StringUtils.isNotEmpty(content)) {
-            List<LinkedHashMap> mapItemsList = JSONUtils.toList(content, LinkedHashMap.class);
-
-            if (!showAll && mapItemsList.size() > EmailConstants.NUMBER_1000) {
-                mapItemsList = mapItemsList.subList(0, EmailConstants.NUMBER_1000);
-            }
-
             StringBuilder contents = new StringBuilder(200);
 
-            boolean flag = true;
-
             String title = "";
-            for (LinkedHashMap<String, Object> mapItems : mapItemsList) {
-
-                Set<Map.Entry<String, Object>> entries = mapItems.entrySet();
-
-                Iterator<Map.Entry<String, Object>> iterator = entries.iterator();
-
-                StringBuilder t = new StringBuilder(EmailConstants.TR);
-                StringBuilder cs = new StringBuilder(EmailConstants.TR);
-                while (iterator.hasNext()) {
-
-                    Map.Entry<String, Object> entry = iterator.next();
-                    t.append(EmailConstants.TH).append(entry.getKey()).append(EmailConstants.TH_END);
-                    cs.append(EmailConstants.TD).append(String.valueOf(entry.getValue())).append(EmailConstants.TD_END);
-
-                }
-                t.append(EmailConstants.TR_END);
-                cs.append(EmailConstants.TR_END);
-                if (flag) {
-                    title = t.toString();
+            int rowCount = 0;
+            // rows are read one by one, so only the shown ones are held
+            try (JsonRowReader rows = new JsonRowReader(content)) {
+                while (rows.hasNext() && (showAll || rowCount < EmailConstants.NUMBER_1000)) {
+                    Map<String, String> mapItems = rows.next();
+
+                    StringBuilder t = new StringBuilder(EmailConstants.TR);
+                    StringBuilder cs = new StringBuilder(EmailConstants.TR);
+                    for (Map.Entry<String, String> entry : mapItems.entrySet()) {
+                        t.append(EmailConstants.TH).append(entry.getKey()).append(EmailConstants.TH_END);
+                        cs.append(EmailConstants.TD).append(entry.getValue()).append(EmailConstants.TD_END);
+                    }
+                    t.append(EmailConstants.TR_END);
+                    cs.append(EmailConstants.TR_END);
+                    if (rowCount == 0) {
+                        title = t.toString();
+                    }
+                    rowCount++;
+                    contents.append(cs);
                 }
-                flag = false;
-                contents.append(cs);
+            } catch (AlertEmailException e) {
+                logger.error("parse alert content error, only the rows before the error are shown", e);
             }
 
             return getMessageFromHtmlTemplate(title, contents.toString());
@@ -32,19 +32,34 @@ import org.apache.dolphinscheduler.spi.params.base.PluginParams;
 import org.apache.dolphinscheduler.spi.params.base.Validate;
 import org.apache.dolphinscheduler.spi.utils.JSONUtils;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * EmailAlertChannel Tester.
  */
 public class EmailAlertChannelTest {
 
+    private static final Logger logger = LoggerFactory.getLogger(EmailAlertChannelTest.class);
+
     /**
      * Method: process(AlertInfo info)
      */
@@ -76,6 +91,127 @@ public class EmailAlertChannelTest {
         Assert.assertEquals("false", alertResult.getStatus());
     }
 
+    @Test
+    public void testProcessStubServer() throws Exception {
+        // the server closes a connection after 20 mails
+        try (StubSmtpServer server = new StubSmtpServer(20)) {
+            Map<String, String> paramsMap = new HashMap<>();
+            paramsMap.put(MailParamsConstants.NAME_PLUGIN_DEFAULT_EMAIL_RECEIVERS, "receiver@dolphinscheduler.com");
+            paramsMap.put(MailParamsConstants.NAME_MAIL_SMTP_HOST, "127.0.0.1");
+            paramsMap.put(MailParamsConstants.NAME_MAIL_SMTP_PORT, String.valueOf(server.getPort()));
+            paramsMap.put(MailParamsConstants.NAME_MAIL_SENDER, "sender@dolphinscheduler.com");
+            paramsMap.put(MailParamsConstants.NAME_MAIL_SMTP_AUTH, "false");
+            paramsMap.put(MailParamsConstants.NAME_MAIL_USER, "sender");
+            paramsMap.put(MailParamsConstants.NAME_MAIL_PASSWD, "passwd");
+            paramsMap.put(MailParamsConstants.NAME_MAIL_SMTP_STARTTLS_ENABLE, "false");
+            paramsMap.put(MailParamsConstants.NAME_MAIL_SMTP_SSL_ENABLE, "false");
+            paramsMap.put(MailParamsConstants.NAME_MAIL_SMTP_SSL_TRUST, "*");
+            paramsMap.put(AlertConstants.SHOW_TYPE, ShowType.TEXT.getDescp());
+
+            EmailAlertChannel emailAlertChannel = new EmailAlertChannel();
+            int mails = 50;
+            long startTime = System.nanoTime();
+            for (int i = 0; i < mails; i++) {
+                AlertData alertData = new AlertData();
+                alertData.setId(i).setTitle("test" + i).setContent("[{\"state\":\"FAILURE\"}]");
+                AlertInfo alertInfo = new AlertInfo();
+                alertInfo.setAlertData(alertData);
+                alertInfo.setAlertParams(paramsMap);
+                Assert.assertEquals("true", emailAlertChannel.process(alertInfo).getStatus());
+            }
+            long costMillis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+            logger.info("sent {} mails in {} ms, {} mails/s", mails, costMillis, mails * 1000 / costMillis);
+            emailAlertChannel.close();
+
+            Assert.assertEquals(mails, server.getMessages());
+            Assert.assertEquals(3, server.getConnections());
+        }
+    }
+
+    /**
+     * smtp server accepting every mail
+     */
+    private static class StubSmtpServer implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+
+        private final int messagesPerConnection;
+
+        private final AtomicInteger connections = new AtomicInteger();
+
+        private final AtomicInteger messages = new AtomicInteger();
+
+        StubSmtpServer(int messagesPerConnection) throws IOException {
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            this.messagesPerConnection = messagesPerConnection;
+            Thread thread = new Thread(this::accept, "Stub-Smtp-Server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    connections.incrementAndGet();
+                    serve(socket);
+                } catch (IOException e) {
+                    // closed
+                }
+            }
+        }
+
+        private void serve(Socket socket) throws IOException {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+            reply(writer, "220 stub ESMTP");
+            int served = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.length() < 4 ? line : line.substring(0, 4).toUpperCase();
+                if ("EHLO".equals(command) || "HELO".equals(command)) {
+                    reply(writer, "250 stub");
+                } else if ("DATA".equals(command)) {
+                    reply(writer, "354 end with .");
+                    while ((line = reader.readLine()) != null && !".".equals(line)) {
+                        // skip the mail
+                    }
+                    messages.incrementAndGet();
+                    reply(writer, "250 OK");
+                    if (++served == messagesPerConnection) {
+                        return;
+                    }
+                } else if ("QUIT".equals(command)) {
+                    reply(writer, "221 bye");
+                    return;
+                } else {
+                    reply(writer, "250 OK");
+                }
+            }
+        }
+
+        private static void reply(Writer writer, String reply) throws IOException {
+            writer.write(reply + "\r\n");
+            writer.flush();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        int getMessages() {
+            return messages.get();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+
     public String getEmailAlertParams() {
         List<PluginParams> paramsList = new ArrayList<>();
         InputParam receivesParam = InputParam.newBuilder("receivers", "receivers")
@@ -17,9 +17,19 @@
 
 package org.apache.dolphinscheduler.plugin.alert.email;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import org.apache.poi.hssf.usermodel.HSSFSheet;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
 
 import org.junit.After;
 import org.junit.Before;
@@ -101,4 +111,56 @@ public class ExcelUtilsTest {
         File file = new File("/tmp/xls" + EmailConstants.SINGLE_SLASH + "t" + EmailConstants.EXCEL_SUFFIX_XLS);
         file.delete();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGenAttachmentFile() {
+        File xlsFile = ExcelUtils.genAttachmentFile("[{\"a\": \"a\"}]", rootPath);
+        assertTrue(xlsFile.getName().endsWith(EmailConstants.EXCEL_SUFFIX_XLS));
+
+        File csvFile = ExcelUtils.genAttachmentFile(rowsContent(20000), rootPath);
+        assertTrue(csvFile.getName().endsWith(EmailConstants.CSV_SUFFIX));
+        assertTrue(csvFile.exists());
+    }
+
+    @Test
+    public void testWriteCsvFile() throws IOException {
+        File file = new File(rootPath, "t.csv");
+        ExcelUtils.writeCsvFile("[{\"name\":\"a,b\",\"value\":\"say \\\"hi\\\"\"},{\"name\":null,\"value\":{\"k\":1}}]", file, 100);
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals("\ufeffname,value", lines.get(0));
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\"", lines.get(1));
+        assertEquals("null,\"{\"\"k\"\":1}\"", lines.get(2));
+        assertEquals(3, lines.size());
+
+        ExcelUtils.writeCsvFile(rowsContent(10), file, 5);
+        lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        // header, 5 rows and the note of the left out rows
+        assertEquals(7, lines.size());
+        assertEquals("only the first 5 rows are shown", lines.get(6));
+    }
+
+    @Test
+    public void testWriteExcelFileMaxRows() throws IOException {
+        File file = new File(rootPath, "t.xls");
+        ExcelUtils.writeExcelFile(rowsContent(10), file, 5);
+        try (InputStream in = new FileInputStream(file); HSSFWorkbook wb = new HSSFWorkbook(in)) {
+            HSSFSheet sheet = wb.getSheetAt(0);
+            assertEquals("id", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("4", sheet.getRow(5).getCell(0).getStringCellValue());
+            assertEquals("only the first 5 rows are shown", sheet.getRow(6).getCell(0).getStringCellValue());
+            assertEquals(6, sheet.getLastRowNum());
+        }
+    }
+
+    private static String rowsContent(int rows) {
+        StringBuilder content = new StringBuilder("[");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                content.append(',');
+            }
+            content.append("{\"id\":").append(i).append(",\"name\":\"task name ").append(i)
+                    .append("\",\"state\":\"FAILURE\",\"host\":\"192.168.xx.xx\",\"log\":\"/opt/logs/").append(i).append(".log\"}");
+        }
+        return content.append(']').toString();
+    }
+}
@@ -22,9 +22,18 @@ import org.apache.dolphinscheduler.spi.alert.AlertData;
 import org.apache.dolphinscheduler.spi.alert.AlertInfo;
 import org.apache.dolphinscheduler.spi.alert.AlertResult;
 
+import java.io.IOException;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public class FeiShuAlertChannel implements AlertChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeiShuAlertChannel.class);
+
+    private FeiShuSender sender;
+
     @Override
     public AlertResult process(AlertInfo alertInfo) {
 
@@ -33,6 +42,30 @@ public class FeiShuAlertChannel implements AlertChannel {
         if (null == paramsMap) {
             return new AlertResult("false", "fei shu params is null");
         }
-        return new FeiShuSender(paramsMap).sendFeiShuMsg(alertData);
+        return getSender(paramsMap).sendFeiShuMsg(alertData);
+    }
+
+    /**
+     * get the sender, created with the params of the first message.
+     * the alert server creates the channel again when the params of the plugin instance change
+     */
+    private synchronized FeiShuSender getSender(Map<String, String> paramsMap) {
+        if (sender == null) {
+            sender = new FeiShuSender(paramsMap);
+        }
+        return sender;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sender == null) {
+            return;
+        }
+        try {
+            sender.close();
+        } catch (IOException e) {
+            logger.error("close fei shu sender error", e);
+        }
+        sender = null;
     }
 }
@@ -29,6 +29,7 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.util.EntityUtils;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -41,7 +42,10 @@ import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-public class FeiShuSender {
+/**
+ * fei shu sender, the http client is kept until the sender is closed
+ */
+public class FeiShuSender implements Closeable {
 
     private static final Logger logger = LoggerFactory.getLogger(FeiShuSender.class);
 
@@ -57,6 +61,11 @@ public class FeiShuSender {
 
     private String password;
 
+    /**
+     * created on the first message and kept for the later ones
+     */
+    private CloseableHttpClient httpClient;
+
     FeiShuSender(Map<String, String> config) {
         url = config.get(FeiShuParamsConstants.NAME_WEB_HOOK);
         enableProxy = Boolean.valueOf(config.get(FeiShuParamsConstants.NAME_FEI_SHU_PROXY_ENABLE));
@@ -152,29 +161,32 @@ public class FeiShuSender {
 
         HttpPost httpPost = HttpRequestUtil.constructHttpPost(url, msgToJson);
 
-        CloseableHttpClient httpClient;
-
-        httpClient = HttpRequestUtil.getHttpClient(enableProxy, proxy, port, user, password);
-
-        try {
-            CloseableHttpResponse response = httpClient.execute(httpPost);
+        try (CloseableHttpResponse response = getHttpClient().execute(httpPost)) {
 
             int statusCode = response.getStatusLine().getStatusCode();
             if (statusCode != HttpStatus.SC_OK) {
                 logger.error("send feishu message error, return http status code: {} ", statusCode);
             }
-            String resp;
-            try {
-                HttpEntity entity = response.getEntity();
-                resp = EntityUtils.toString(entity, "utf-8");
-                EntityUtils.consume(entity);
-            } finally {
-                response.close();
-            }
+            HttpEntity entity = response.getEntity();
+            String resp = EntityUtils.toString(entity, "utf-8");
+            EntityUtils.consume(entity);
             logger.info("Fei Shu send title :{} ,content :{}, resp: {}", alertData.getTitle(), alertData.getContent(), resp);
             return resp;
-        } finally {
+        }
+    }
+
+    private synchronized CloseableHttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = HttpRequestUtil.getHttpClient(enableProxy, proxy, port, user, password);
+        }
+        return httpClient;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (httpClient != null) {
             httpClient.close();
+            httpClient = null;
         }
     }
 
@@ -26,21 +26,41 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 
+import java.util.concurrent.TimeUnit;
+
 public class HttpRequestUtil {
 
+    /**
+     * max connections of a client
+     */
+    private static final int MAX_CONNECTIONS = 20;
+
+    /**
+     * idle time after which a connection is closed, in seconds
+     */
+    private static final long MAX_IDLE_SECONDS = 60;
+
     public static CloseableHttpClient getHttpClient(boolean enableProxy, String proxy, Integer port, String user, String password) {
         if (enableProxy) {
             HttpHost httpProxy = new HttpHost(proxy, port);
             CredentialsProvider provider = new BasicCredentialsProvider();
             provider.setCredentials(new AuthScope(httpProxy), new UsernamePasswordCredentials(user, password));
-            return HttpClients.custom().setDefaultCredentialsProvider(provider).build();
+            return pooledClientBuilder().setDefaultCredentialsProvider(provider).build();
         } else {
-            return HttpClients.createDefault();
+            return pooledClientBuilder().build();
         }
     }
 
+    private static HttpClientBuilder pooledClientBuilder() {
+        return HttpClients.custom()
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .setMaxConnPerRoute(MAX_CONNECTIONS)
+                .evictIdleConnections(MAX_IDLE_SECONDS, TimeUnit.SECONDS);
+    }
+
     public static HttpPost constructHttpPost(String url, String msg) {
         HttpPost post = new HttpPost(url);
         StringEntity entity = new StringEntity(msg, ContentType.APPLICATION_JSON);
@@ -22,12 +22,26 @@ import org.apache.dolphinscheduler.spi.alert.AlertData;
 import org.apache.dolphinscheduler.spi.alert.AlertInfo;
 import org.apache.dolphinscheduler.spi.alert.AlertResult;
 
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * http alert channel,use sms message to seed the alertInfo
  */
 public class HttpAlertChannel implements AlertChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpAlertChannel.class);
+
+    /**
+     * client shared by all messages, so that the connections are kept alive
+     */
+    private final CloseableHttpClient httpClient = HttpSender.createPooledHttpClient();
+
     @Override
     public AlertResult process(AlertInfo alertInfo) {
 
@@ -37,6 +51,15 @@ public class HttpAlertChannel implements AlertChannel {
             return new AlertResult("false", "http params is null");
         }
 
-        return new HttpSender(paramsMap).send(alertData.getContent());
+        return new HttpSender(paramsMap, httpClient).send(alertData.getContent());
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            logger.error("close http client error", e);
+        }
     }
 }
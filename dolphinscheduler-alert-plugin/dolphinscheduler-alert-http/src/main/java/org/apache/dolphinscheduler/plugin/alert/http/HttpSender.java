@@ -32,6 +32,7 @@ import org.apache.http.util.EntityUtils;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +58,7 @@ public class HttpSender {
 
     private HttpRequestBase httpRequest;
 
+    private final CloseableHttpClient httpClient;
 
     private static final String URL_SPLICE_CHAR = "?";
 
@@ -72,7 +74,26 @@ public class HttpSender {
 
     private static final String DEFAULT_CHARSET = "utf-8";
 
+    /**
+     * max connections of a pooled client
+     */
+    private static final int MAX_CONNECTIONS = 20;
+
+    /**
+     * idle time after which a pooled connection is closed, in seconds
+     */
+    private static final long MAX_IDLE_SECONDS = 60;
+
     public HttpSender(Map<String, String> paramsMap) {
+        this(paramsMap, HttpClientBuilder.create().build());
+    }
+
+    /**
+     * @param paramsMap params of the plugin instance
+     * @param httpClient client shared by the messages of the plugin instance
+     */
+    public HttpSender(Map<String, String> paramsMap, CloseableHttpClient httpClient) {
+        this.httpClient = httpClient;
 
         url = paramsMap.get(HttpAlertConstants.URL);
         headerParams = paramsMap.get(HttpAlertConstants.HEADER_PARAMS);
@@ -93,9 +114,7 @@ public class HttpSender {
             return alertResult;
         }
 
-        try {
-            CloseableHttpClient httpClient = HttpClientBuilder.create().build();
-            CloseableHttpResponse response = httpClient.execute(httpRequest);
+        try (CloseableHttpResponse response = httpClient.execute(httpRequest)) {
             HttpEntity entity = response.getEntity();
             String resp = EntityUtils.toString(entity, DEFAULT_CHARSET);
             alertResult.setStatus("true");
@@ -109,6 +128,19 @@ public class HttpSender {
         return alertResult;
     }
 
+    /**
+     * create a client keeping the connections alive for the later messages
+     *
+     * @return pooled client
+     */
+    public static CloseableHttpClient createPooledHttpClient() {
+        return HttpClientBuilder.create()
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .setMaxConnPerRoute(MAX_CONNECTIONS)
+                .evictIdleConnections(MAX_IDLE_SECONDS, TimeUnit.SECONDS)
+                .build();
+    }
+
     private void createHttpRequest(String msg) {
 
         if (REQUEST_TYPE_POST.equals(requestType)) {
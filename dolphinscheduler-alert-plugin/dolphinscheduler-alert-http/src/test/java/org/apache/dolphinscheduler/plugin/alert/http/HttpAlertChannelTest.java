@@ -26,18 +26,30 @@ import org.apache.dolphinscheduler.spi.params.base.PluginParams;
 import org.apache.dolphinscheduler.spi.params.base.Validate;
 import org.apache.dolphinscheduler.spi.utils.JSONUtils;
 
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpServer;
 
 /**
  * HttpAlertChannel UT
  */
 public class HttpAlertChannelTest {
 
+    private static final Logger logger = LoggerFactory.getLogger(HttpAlertChannelTest.class);
+
     @Test
     public void processTest() {
 
@@ -64,6 +76,48 @@ public class HttpAlertChannelTest {
         Assert.assertEquals("true", alertResult.getStatus());
     }
 
+    @Test
+    public void processStubServerTest() throws Exception {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] resp = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, resp.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(resp);
+            }
+        });
+        server.start();
+
+        HttpAlertChannel alertChannel = new HttpAlertChannel();
+        try {
+            Map<String, String> paramsMap = new HashMap<>();
+            paramsMap.put(HttpAlertConstants.URL, "http://127.0.0.1:" + server.getAddress().getPort() + "/alert");
+            paramsMap.put(HttpAlertConstants.REQUEST_TYPE, "GET");
+            paramsMap.put(HttpAlertConstants.HEADER_PARAMS, "{}");
+            paramsMap.put(HttpAlertConstants.CONTENT_FIELD, "content");
+            int messages = 200;
+            long startTime = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                AlertInfo alertInfo = new AlertInfo();
+                AlertData alertData = new AlertData();
+                alertData.setContent("warning" + i);
+                alertInfo.setAlertData(alertData);
+                alertInfo.setAlertParams(paramsMap);
+                AlertResult alertResult = alertChannel.process(alertInfo);
+                Assert.assertEquals("true", alertResult.getStatus());
+            }
+            long costMillis = Math.max(1, (System.nanoTime() - startTime) / 1000000);
+            logger.info("sent {} http alerts in {} ms, {} alerts/s", messages, costMillis, messages * 1000 / costMillis);
+            // the connection is kept alive for the later messages
+            Assert.assertEquals(1, clientPorts.size());
+        } finally {
+            alertChannel.close();
+            server.stop(0);
+        }
+    }
+
     /**
      * create params
      */
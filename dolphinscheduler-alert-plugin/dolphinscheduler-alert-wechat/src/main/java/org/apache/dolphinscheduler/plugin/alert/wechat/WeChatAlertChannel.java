@@ -22,13 +22,21 @@ import org.apache.dolphinscheduler.spi.alert.AlertData;
 import org.apache.dolphinscheduler.spi.alert.AlertInfo;
 import org.apache.dolphinscheduler.spi.alert.AlertResult;
 
+import java.io.IOException;
 import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * WeChatAlertChannel
  */
 public class WeChatAlertChannel implements AlertChannel {
 
+    private static final Logger logger = LoggerFactory.getLogger(WeChatAlertChannel.class);
+
+    private WeChatSender sender;
+
     @Override
     public AlertResult process(AlertInfo info) {
         AlertData alertData = info.getAlertData();
@@ -36,7 +44,30 @@ public class WeChatAlertChannel implements AlertChannel {
         if (null == paramsMap) {
             return new AlertResult("false", "we chat params is null");
         }
-        return new WeChatSender(paramsMap).sendEnterpriseWeChat(alertData.getTitle(), alertData.getContent());
+        return getSender(paramsMap).sendEnterpriseWeChat(alertData.getTitle(), alertData.getContent());
+    }
+
+    /**
+     * get the sender, created with the params of the first message.
+     * the alert server creates the channel again when the params of the plugin instance change
+     */
+    private synchronized WeChatSender getSender(Map<String, String> paramsMap) {
+        if (sender == null) {
+            sender = new WeChatSender(paramsMap);
+        }
+        return sender;
+    }
 
+    @Override
+    public synchronized void close() {
+        if (sender == null) {
+            return;
+        }
+        try {
+            sender.close();
+        } catch (IOException e) {
+            logger.error("close we chat sender error", e);
+        }
+        sender = null;
     }
 }
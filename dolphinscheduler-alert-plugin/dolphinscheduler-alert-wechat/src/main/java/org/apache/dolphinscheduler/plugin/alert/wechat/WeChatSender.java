@@ -35,6 +35,7 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
@@ -45,14 +46,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * WeChatSender
+ * WeChatSender, the access token and the http client are kept until the sender is closed
  */
-public class WeChatSender {
+public class WeChatSender implements Closeable {
 
     private static Logger logger = LoggerFactory.getLogger(WeChatSender.class);
 
@@ -64,10 +66,22 @@ public class WeChatSender {
 
     private String weChatTokenUrlReplace;
 
-    private String weChatToken;
+    private String weChatPushUrl;
 
     private String showType;
 
+    /**
+     * created on the first message and kept for the later ones
+     */
+    private CloseableHttpClient httpClient;
+
+    /**
+     * access token, fetched again when it expires
+     */
+    private String weChatToken;
+
+    private long weChatTokenExpireTime;
+
 
     private static final String MUST_NOT_NULL = " must not null";
     private static final String ALERT_STATUS = "false";
@@ -78,19 +92,47 @@ public class WeChatSender {
     private static final String SECRET_REGEX = "{secret}";
     private static final String TOKEN_REGEX = "{token}";
 
+    /**
+     * max connections of the http client
+     */
+    private static final int MAX_CONNECTIONS = 20;
+
+    /**
+     * idle time after which a connection is closed, in seconds
+     */
+    private static final long MAX_IDLE_SECONDS = 60;
+
+    /**
+     * expire time of a token whose response has no expires_in, in seconds
+     */
+    private static final long DEFAULT_TOKEN_EXPIRE_SECONDS = 7200;
+
+    /**
+     * a token is fetched again this long before it expires, in seconds
+     */
+    private static final long TOKEN_REFRESH_AHEAD_SECONDS = 300;
+
+    /**
+     * error codes of an invalid or expired access token
+     */
+    private static final List<Integer> TOKEN_ERROR_CODES = Arrays.asList(40001, 40014, 42001);
+
     WeChatSender(Map<String, String> config) {
+        this(config, WeChatAlertConstants.WE_CHAT_TOKEN_URL, WeChatAlertConstants.WE_CHAT_PUSH_URL);
+    }
+
+    WeChatSender(Map<String, String> config, String weChatTokenUrl, String weChatPushUrl) {
         weChatAgentId = config.get(WeChatAlertParamsConstants.NAME_ENTERPRISE_WE_CHAT_AGENT_ID);
         weChatUsers = config.get(WeChatAlertParamsConstants.NAME_ENTERPRISE_WE_CHAT_USERS);
         String weChatCorpId = config.get(WeChatAlertParamsConstants.NAME_ENTERPRISE_WE_CHAT_CORP_ID);
         String weChatSecret = config.get(WeChatAlertParamsConstants.NAME_ENTERPRISE_WE_CHAT_SECRET);
-        String weChatTokenUrl = WeChatAlertConstants.WE_CHAT_TOKEN_URL;
         weChatUserSendMsg = config.get(WeChatAlertParamsConstants.NAME_ENTERPRISE_WE_CHAT_USER_SEND_MSG);
         showType = config.get(AlertConstants.SHOW_TYPE);
         requireNonNull(showType, AlertConstants.SHOW_TYPE + MUST_NOT_NULL);
         weChatTokenUrlReplace = weChatTokenUrl
             .replace(CORP_ID_REGEX, weChatCorpId)
             .replace(SECRET_REGEX, weChatSecret);
-        weChatToken = getToken();
+        this.weChatPushUrl = weChatPushUrl;
     }
 
     /**
@@ -118,16 +160,23 @@ public class WeChatSender {
         List<String> userList = Arrays.asList(weChatUsers.split(","));
         String data = markdownByAlert(title, content);
         String msg = makeUserSendMsg(userList, weChatAgentId, data);
-        if (null == weChatToken) {
-            alertResult = new AlertResult();
-            alertResult.setMessage("send we chat alert fail,get weChat token error");
-            alertResult.setStatus(ALERT_STATUS);
-            return alertResult;
-        }
-        String enterpriseWeChatPushUrlReplace = WeChatAlertConstants.WE_CHAT_PUSH_URL.replace(TOKEN_REGEX, weChatToken);
 
         try {
-            return checkWeChatSendMsgResult(post(enterpriseWeChatPushUrlReplace, msg));
+            String token = getToken();
+            if (null == token) {
+                return tokenErrorResult();
+            }
+            String resp = post(weChatPushUrl.replace(TOKEN_REGEX, token), msg);
+            if (isTokenError(resp)) {
+                // the token is revoked or expired earlier than told
+                invalidateToken(token);
+                token = getToken();
+                if (null == token) {
+                    return tokenErrorResult();
+                }
+                resp = post(weChatPushUrl.replace(TOKEN_REGEX, token), msg);
+            }
+            return checkWeChatSendMsgResult(resp);
         } catch (Exception e) {
             logger.info("send we chat alert msg  exception : {}", e.getMessage());
             alertResult = new AlertResult();
@@ -137,23 +186,25 @@ public class WeChatSender {
         return alertResult;
     }
 
-    private static String post(String url, String data) throws IOException {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpPost httpPost = new HttpPost(url);
-            httpPost.setEntity(new StringEntity(data, WeChatAlertConstants.CHARSET));
-            CloseableHttpResponse response = httpClient.execute(httpPost);
-            String resp;
-            try {
-                HttpEntity entity = response.getEntity();
-                resp = EntityUtils.toString(entity, WeChatAlertConstants.CHARSET);
-                EntityUtils.consume(entity);
-            } finally {
-                response.close();
-            }
-            logger.info("Enterprise WeChat send [{}], param:{}, resp:{}",
-                url, data, resp);
-            return resp;
+    private static AlertResult tokenErrorResult() {
+        AlertResult alertResult = new AlertResult();
+        alertResult.setMessage("send we chat alert fail,get weChat token error");
+        alertResult.setStatus(ALERT_STATUS);
+        return alertResult;
+    }
+
+    private String post(String url, String data) throws IOException {
+        HttpPost httpPost = new HttpPost(url);
+        httpPost.setEntity(new StringEntity(data, WeChatAlertConstants.CHARSET));
+        String resp;
+        try (CloseableHttpResponse response = getHttpClient().execute(httpPost)) {
+            HttpEntity entity = response.getEntity();
+            resp = EntityUtils.toString(entity, WeChatAlertConstants.CHARSET);
+            EntityUtils.consume(entity);
         }
+        logger.info("Enterprise WeChat send [{}], param:{}, resp:{}",
+            url, data, resp);
+        return resp;
     }
 
     /**
@@ -236,32 +287,68 @@ public class WeChatSender {
 
     }
 
-    private String getToken() {
+    /**
+     * get the access token, fetched only when there is none or it expires
+     *
+     * @return access token, null if it can not be fetched
+     */
+    private synchronized String getToken() {
+        if (weChatToken != null && System.currentTimeMillis() < weChatTokenExpireTime) {
+            return weChatToken;
+        }
+        weChatToken = null;
         try {
-            return get(weChatTokenUrlReplace);
-        } catch (IOException e) {
+            HashMap<String, Object> map = JSONUtils.parseObject(get(weChatTokenUrlReplace), HashMap.class);
+            if (map != null && null != map.get("access_token")) {
+                long expireSeconds = map.get("expires_in") == null
+                    ? DEFAULT_TOKEN_EXPIRE_SECONDS : Long.parseLong(map.get("expires_in").toString());
+                weChatToken = map.get("access_token").toString();
+                weChatTokenExpireTime = System.currentTimeMillis()
+                    + TimeUnit.SECONDS.toMillis(Math.max(0, expireSeconds - TOKEN_REFRESH_AHEAD_SECONDS));
+            }
+        } catch (IOException | NumberFormatException e) {
             logger.info("we chat alert get token error{}", e.getMessage());
         }
-        return null;
+        return weChatToken;
     }
 
-    private static String get(String url) throws IOException {
-        String resp;
+    private synchronized void invalidateToken(String token) {
+        if (token.equals(weChatToken)) {
+            weChatToken = null;
+        }
+    }
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpGet httpGet = new HttpGet(url);
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                HttpEntity entity = response.getEntity();
-                resp = EntityUtils.toString(entity, WeChatAlertConstants.CHARSET);
-                EntityUtils.consume(entity);
-            }
+    private static boolean isTokenError(String resp) {
+        WeChatSendMsgResponse sendMsgResponse = resp == null ? null : JSONUtils.parseObject(resp, WeChatSendMsgResponse.class);
+        return sendMsgResponse != null && TOKEN_ERROR_CODES.contains(sendMsgResponse.getErrcode());
+    }
 
-            HashMap<String, Object> map = JSONUtils.parseObject(resp, HashMap.class);
-            if (map != null && null != map.get("access_token")) {
-                return map.get("access_token").toString();
-            } else {
-                return null;
-            }
+    private String get(String url) throws IOException {
+        HttpGet httpGet = new HttpGet(url);
+        try (CloseableHttpResponse response = getHttpClient().execute(httpGet)) {
+            HttpEntity entity = response.getEntity();
+            String resp = EntityUtils.toString(entity, WeChatAlertConstants.CHARSET);
+            EntityUtils.consume(entity);
+            return resp;
+        }
+    }
+
+    private synchronized CloseableHttpClient getHttpClient() {
+        if (httpClient == null) {
+            httpClient = HttpClients.custom()
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .setMaxConnPerRoute(MAX_CONNECTIONS)
+                .evictIdleConnections(MAX_IDLE_SECONDS, TimeUnit.SECONDS)
+                .build();
+        }
+        return httpClient;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+            httpClient = null;
         }
     }
 
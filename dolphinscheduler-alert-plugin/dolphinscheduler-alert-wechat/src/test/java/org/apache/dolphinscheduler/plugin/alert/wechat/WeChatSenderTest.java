@@ -21,13 +21,21 @@ import org.apache.dolphinscheduler.spi.alert.AlertConstants;
 import org.apache.dolphinscheduler.spi.alert.AlertResult;
 import org.apache.dolphinscheduler.spi.alert.ShowType;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
 /**
  * WeChatSenderTest
  */
@@ -86,4 +94,44 @@ public class WeChatSenderTest {
         Assert.assertEquals("false", alertResult.getStatus());
     }
 
+    @Test
+    public void testTokenReused() throws Exception {
+        AtomicInteger tokenRequests = new AtomicInteger();
+        AtomicInteger sendRequests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/token", exchange -> {
+            int token = tokenRequests.incrementAndGet();
+            respond(exchange, "{\"errcode\":0,\"access_token\":\"token" + token + "\",\"expires_in\":7200}");
+        });
+        server.createContext("/send", exchange -> {
+            // the first token is revoked after two messages
+            boolean revoked = sendRequests.incrementAndGet() > 2 && exchange.getRequestURI().getQuery().endsWith("token1");
+            respond(exchange, revoked ? "{\"errcode\":42001,\"errmsg\":\"access_token expired\"}" : "{\"errcode\":0,\"errmsg\":\"ok\"}");
+        });
+        server.start();
+
+        String address = "http://127.0.0.1:" + server.getAddress().getPort();
+        WeChatSender weChatSender = new WeChatSender(weChatConfig, address + "/token?corpid={corpId}&corpsecret={secret}",
+                address + "/send?access_token={token}");
+        try {
+            Assert.assertEquals("true", weChatSender.sendEnterpriseWeChat("test", content).getStatus());
+            Assert.assertEquals("true", weChatSender.sendEnterpriseWeChat("test", content).getStatus());
+            Assert.assertEquals(1, tokenRequests.get());
+
+            Assert.assertEquals("true", weChatSender.sendEnterpriseWeChat("test", content).getStatus());
+            Assert.assertEquals(2, tokenRequests.get());
+            Assert.assertEquals(4, sendRequests.get());
+        } finally {
+            weChatSender.close();
+            server.stop(0);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] resp = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, resp.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(resp);
+        }
+    }
 }
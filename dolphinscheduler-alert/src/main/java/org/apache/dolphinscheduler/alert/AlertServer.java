@@ -23,7 +23,7 @@ import org.apache.dolphinscheduler.alert.plugin.AlertPluginManager;
 import org.apache.dolphinscheduler.alert.plugin.DolphinPluginLoader;
 import org.apache.dolphinscheduler.alert.plugin.DolphinPluginManagerConfig;
 import org.apache.dolphinscheduler.alert.processor.AlertRequestProcessor;
-import org.apache.dolphinscheduler.alert.runner.AlertSender;
+import org.apache.dolphinscheduler.alert.runner.AlertDeliveryPipeline;
 import org.apache.dolphinscheduler.alert.utils.Constants;
 import org.apache.dolphinscheduler.alert.utils.PropertyUtils;
 import org.apache.dolphinscheduler.common.thread.Stopper;
@@ -52,7 +52,7 @@ public class AlertServer {
      */
     private AlertDao alertDao = DaoFactory.getDaoInstance(AlertDao.class);
 
-    private AlertSender alertSender;
+    private AlertDeliveryPipeline alertDeliveryPipeline;
 
     private static AlertServer instance;
 
@@ -119,6 +119,8 @@ public class AlertServer {
      * Cyclic alert info sending alert
      */
     private void runSender() {
+        alertDeliveryPipeline = new AlertDeliveryPipeline(alertDao, alertPluginManager);
+        alertDeliveryPipeline.start();
         while (Stopper.isRunning()) {
             try {
                 Thread.sleep(Constants.ALERT_SCAN_INTERVAL);
@@ -129,9 +131,9 @@ public class AlertServer {
             if (alertPluginManager == null || alertPluginManager.getAlertChannelMap().size() == 0) {
                 logger.warn("No Alert Plugin . Can not send alert info. ");
             } else {
+                long generation = alertDeliveryPipeline.beginScan();
                 List<Alert> alerts = alertDao.listWaitExecutionAlert();
-                alertSender = new AlertSender(alerts, alertDao, alertPluginManager);
-                alertSender.run();
+                alertDeliveryPipeline.submit(generation, alerts);
             }
         }
     }
@@ -151,6 +153,12 @@ public class AlertServer {
      */
     public void stop() {
         this.server.close();
+        if (alertDeliveryPipeline != null) {
+            alertDeliveryPipeline.stop();
+        }
+        if (alertPluginManager != null) {
+            alertPluginManager.closeAlertChannels();
+        }
         logger.info("alert server shut down");
     }
 
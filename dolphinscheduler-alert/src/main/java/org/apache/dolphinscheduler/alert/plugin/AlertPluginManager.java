@@ -23,6 +23,7 @@ import static java.util.Objects.requireNonNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import org.apache.dolphinscheduler.common.enums.PluginType;
+import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
 import org.apache.dolphinscheduler.dao.entity.PluginDefine;
 import org.apache.dolphinscheduler.spi.DolphinSchedulerPlugin;
 import org.apache.dolphinscheduler.spi.alert.AlertChannel;
@@ -34,7 +35,9 @@ import org.apache.dolphinscheduler.spi.params.base.PluginParams;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +51,16 @@ public class AlertPluginManager extends AbstractDolphinPluginManager {
     private final Map<String, AlertChannelFactory> alertChannelFactoryMap = new ConcurrentHashMap<>();
     private final Map<String, AlertChannel> alertChannelMap = new ConcurrentHashMap<>();
 
+    /**
+     * k->pluginInstanceId v->channel of the plugin instance, so that the clients a channel holds are reused
+     */
+    private final Map<Integer, InstanceChannel> instanceChannelMap = new ConcurrentHashMap<>();
+
+    /**
+     * k->channel v->channel of the plugin instance, for the channels not closed yet including the replaced ones
+     */
+    private final Map<AlertChannel, InstanceChannel> openChannelMap = new ConcurrentHashMap<>();
+
     /**
      * k->pluginDefineId v->pluginDefineName
      */
@@ -89,6 +102,81 @@ public class AlertPluginManager extends AbstractDolphinPluginManager {
         return alertChannelMap;
     }
 
+    /**
+     * get the channel of a plugin instance, the channel is created once and created again when the params change.
+     * the channel is held until {@link #releaseAlertChannel(AlertChannel)}, a replaced channel is closed
+     * after it is released by all its holders
+     *
+     * @param pluginName plugin name
+     * @param instance plugin instance
+     * @return channel, null if the plugin is not registered
+     */
+    public AlertChannel getAlertChannel(String pluginName, AlertPluginInstance instance) {
+        AlertChannelFactory alertChannelFactory = pluginName == null ? null : alertChannelFactoryMap.get(pluginName);
+        if (alertChannelFactory == null) {
+            return null;
+        }
+        InstanceChannel instanceChannel = instanceChannelMap.get(instance.getId());
+        if (instanceChannel != null && instanceChannel.matches(pluginName, instance.getPluginInstanceParams()) && instanceChannel.acquire()) {
+            return instanceChannel.alertChannel;
+        }
+        synchronized (instanceChannelMap) {
+            instanceChannel = instanceChannelMap.get(instance.getId());
+            if (instanceChannel != null && instanceChannel.matches(pluginName, instance.getPluginInstanceParams()) && instanceChannel.acquire()) {
+                return instanceChannel.alertChannel;
+            }
+            AlertChannel alertChannel;
+            try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(alertChannelFactory.getClass().getClassLoader())) {
+                alertChannel = alertChannelFactory.create();
+            }
+            InstanceChannel created = new InstanceChannel(pluginName, instance.getPluginInstanceParams(), alertChannel);
+            created.acquire();
+            openChannelMap.put(alertChannel, created);
+            instanceChannelMap.put(instance.getId(), created);
+            if (instanceChannel != null) {
+                release(instanceChannel);
+            }
+            logger.info("create channel of alert plugin instance {}", instance.getInstanceName());
+            return alertChannel;
+        }
+    }
+
+    /**
+     * release a channel got by {@link #getAlertChannel(String, AlertPluginInstance)}
+     *
+     * @param alertChannel channel
+     */
+    public void releaseAlertChannel(AlertChannel alertChannel) {
+        InstanceChannel instanceChannel = alertChannel == null ? null : openChannelMap.get(alertChannel);
+        if (instanceChannel != null) {
+            release(instanceChannel);
+        }
+    }
+
+    /**
+     * close the channels of all plugin instances, a channel still sending is closed when it is released
+     */
+    public void closeAlertChannels() {
+        synchronized (instanceChannelMap) {
+            for (InstanceChannel instanceChannel : instanceChannelMap.values()) {
+                release(instanceChannel);
+            }
+            instanceChannelMap.clear();
+        }
+    }
+
+    private void release(InstanceChannel instanceChannel) {
+        if (!instanceChannel.release()) {
+            return;
+        }
+        openChannelMap.remove(instanceChannel.alertChannel);
+        try {
+            instanceChannel.alertChannel.close();
+        } catch (Exception e) {
+            logger.error("close alert channel error", e);
+        }
+    }
+
     public String getPluginNameById(int id) {
         return pluginDefineMap.get(id);
     }
@@ -107,4 +195,52 @@ public class AlertPluginManager extends AbstractDolphinPluginManager {
             pluginDefineMap.put(id, pluginDefine.getPluginName());
         }
     }
+
+    /**
+     * channel of a plugin instance and the params it is created for
+     */
+    private static class InstanceChannel {
+
+        private final String pluginName;
+
+        private final String params;
+
+        private final AlertChannel alertChannel;
+
+        /**
+         * holders of the channel, one of them is the instance channel map until the channel is replaced
+         */
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        InstanceChannel(String pluginName, String params, AlertChannel alertChannel) {
+            this.pluginName = pluginName;
+            this.params = params;
+            this.alertChannel = alertChannel;
+        }
+
+        boolean matches(String pluginName, String params) {
+            return this.pluginName.equals(pluginName) && Objects.equals(this.params, params);
+        }
+
+        /**
+         * @return false if the channel is closed or being closed
+         */
+        boolean acquire() {
+            int current;
+            do {
+                current = references.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        /**
+         * @return true if the last holder released the channel
+         */
+        boolean release() {
+            return references.decrementAndGet() == 0;
+        }
+    }
 }
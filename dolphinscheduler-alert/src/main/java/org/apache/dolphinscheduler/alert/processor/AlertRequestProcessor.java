@@ -39,12 +39,10 @@ import io.netty.channel.Channel;
 public class AlertRequestProcessor implements NettyRequestProcessor {
 
     private final Logger logger = LoggerFactory.getLogger(AlertRequestProcessor.class);
-    private AlertDao alertDao;
-    private AlertPluginManager alertPluginManager;
+    private AlertSender alertSender;
 
     public AlertRequestProcessor(AlertDao alertDao, AlertPluginManager alertPluginManager) {
-        this.alertDao = alertDao;
-        this.alertPluginManager = alertPluginManager;
+        this.alertSender = new AlertSender(alertDao, alertPluginManager);
     }
 
     @Override
@@ -56,7 +54,6 @@ public class AlertRequestProcessor implements NettyRequestProcessor {
                 command.getBody(), AlertSendRequestCommand.class);
         logger.info("received command : {}", alertSendRequestCommand);
 
-        AlertSender alertSender = new AlertSender(alertDao, alertPluginManager);
         AlertSendResponseCommand alertSendResponseCommand = alertSender.syncHandler(alertSendRequestCommand.getGroupId(), alertSendRequestCommand.getTitle(), alertSendRequestCommand.getContent());
         channel.writeAndFlush(alertSendResponseCommand.convert2Command(command.getOpaque()));
 
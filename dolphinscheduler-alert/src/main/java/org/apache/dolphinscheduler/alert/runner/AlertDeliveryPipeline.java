@@ -0,0 +1,546 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.alert.runner;
+
+import org.apache.dolphinscheduler.alert.plugin.AlertPluginManager;
+import org.apache.dolphinscheduler.alert.utils.Constants;
+import org.apache.dolphinscheduler.alert.utils.PropertyUtils;
+import org.apache.dolphinscheduler.common.enums.AlertStatus;
+import org.apache.dolphinscheduler.common.utils.CollectionUtils;
+import org.apache.dolphinscheduler.dao.AlertDao;
+import org.apache.dolphinscheduler.dao.entity.Alert;
+import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+import org.apache.dolphinscheduler.spi.alert.AlertData;
+import org.apache.dolphinscheduler.spi.alert.AlertResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * alert delivery pipeline
+ * <p>
+ * every plugin instance sends alerts with its own bounded thread pool, so that a slow channel only holds up
+ * the alerts sent through it. a delivery that fails or times out is retried later, and the status of the
+ * alerts whose deliveries are all done is written back in batches.
+ */
+public class AlertDeliveryPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertDeliveryPipeline.class);
+
+    /**
+     * interval of writing back alert status, in millis
+     */
+    private static final long STATUS_FLUSH_INTERVAL = 1000;
+
+    /**
+     * max alerts updated by one statement
+     */
+    private static final int STATUS_FLUSH_BATCH_SIZE = 100;
+
+    /**
+     * interval of logging channel stats, in seconds
+     */
+    private static final long STATS_LOG_INTERVAL = 60;
+
+    private final AlertDao alertDao;
+
+    private final AlertSender alertSender;
+
+    private final AlertPluginInstanceCache alertPluginInstanceCache;
+
+    private final int channelThreads;
+
+    private final int channelQueueCapacity;
+
+    private final long timeoutMillis;
+
+    private final int maxRetries;
+
+    private final long retryIntervalMillis;
+
+    /**
+     * plugin instance id -> channel
+     */
+    private final Map<Integer, Channel> channels = new ConcurrentHashMap<>();
+
+    /**
+     * ids of the alerts being delivered or whose status is not written back yet, not taken again by the scan
+     */
+    private final Set<Integer> inflightAlerts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * alert id -> scan generation when its status was written back.
+     * a scan started before the write back may still list the alert as waiting, so the id stays inflight
+     * until a later scan is submitted
+     */
+    private final Map<Integer, Long> writtenAlerts = new ConcurrentHashMap<>();
+
+    /**
+     * generation of the last started scan
+     */
+    private final AtomicLong scanGeneration = new AtomicLong();
+
+    /**
+     * alerts whose status is to be written back
+     */
+    private final ConcurrentLinkedQueue<Alert> finishedAlerts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * retries, timeouts, status write back and stats
+     */
+    private final ScheduledExecutorService scheduler;
+
+    public AlertDeliveryPipeline(AlertDao alertDao, AlertPluginManager alertPluginManager) {
+        this(alertDao, alertPluginManager, new AlertPluginInstanceCache(alertDao),
+            PropertyUtils.getInt(Constants.ALERT_DELIVERY_CHANNEL_THREADS, Constants.DEFAULT_ALERT_DELIVERY_CHANNEL_THREADS),
+            PropertyUtils.getInt(Constants.ALERT_DELIVERY_CHANNEL_QUEUE_CAPACITY, Constants.DEFAULT_ALERT_DELIVERY_CHANNEL_QUEUE_CAPACITY),
+            TimeUnit.SECONDS.toMillis(PropertyUtils.getInt(Constants.ALERT_DELIVERY_TIMEOUT, Constants.DEFAULT_ALERT_DELIVERY_TIMEOUT)),
+            PropertyUtils.getInt(Constants.ALERT_DELIVERY_MAX_RETRIES, Constants.DEFAULT_ALERT_DELIVERY_MAX_RETRIES),
+            TimeUnit.SECONDS.toMillis(PropertyUtils.getInt(Constants.ALERT_DELIVERY_RETRY_INTERVAL, Constants.DEFAULT_ALERT_DELIVERY_RETRY_INTERVAL)));
+    }
+
+    AlertDeliveryPipeline(AlertDao alertDao, AlertPluginManager alertPluginManager, AlertPluginInstanceCache alertPluginInstanceCache,
+                          int channelThreads, int channelQueueCapacity, long timeoutMillis, int maxRetries, long retryIntervalMillis) {
+        this.alertDao = alertDao;
+        this.alertPluginInstanceCache = alertPluginInstanceCache;
+        this.alertSender = new AlertSender(alertDao, alertPluginManager, alertPluginInstanceCache);
+        this.channelThreads = Math.max(1, channelThreads);
+        this.channelQueueCapacity = Math.max(1, channelQueueCapacity);
+        this.timeoutMillis = timeoutMillis;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryIntervalMillis = retryIntervalMillis;
+        this.scheduler = Executors.newScheduledThreadPool(2, new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("Alert-Delivery-Scheduler-%d")
+            .build());
+    }
+
+    /**
+     * start writing back alert status and logging channel stats
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::flushStatus, STATUS_FLUSH_INTERVAL, STATUS_FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::logStats, STATS_LOG_INTERVAL, STATS_LOG_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /**
+     * stop delivering, the status of finished alerts is written back
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+        for (Channel channel : channels.values()) {
+            channel.executor.shutdownNow();
+        }
+        flushStatus();
+    }
+
+    /**
+     * start a scan of the waiting alerts, called before listing them
+     *
+     * @return scan generation to submit the listed alerts with
+     */
+    public long beginScan() {
+        evictDeletedChannels();
+        return scanGeneration.incrementAndGet();
+    }
+
+    /**
+     * remove the channels of the deleted plugin instances, the alerts queued already are still sent
+     */
+    private void evictDeletedChannels() {
+        Set<Integer> instanceIds;
+        try {
+            instanceIds = alertPluginInstanceCache.evictDeletedInstances();
+        } catch (Exception e) {
+            logger.error("list plugin instances error", e);
+            return;
+        }
+        if (instanceIds == null) {
+            return;
+        }
+        channels.entrySet().removeIf(entry -> {
+            if (instanceIds.contains(entry.getKey())) {
+                return false;
+            }
+            logger.info("alert channel {} is removed, its plugin instance is deleted", entry.getValue().instanceName);
+            entry.getValue().executor.shutdown();
+            return true;
+        });
+    }
+
+    /**
+     * deliver alerts, an alert being delivered already is skipped
+     *
+     * @param generation scan generation returned by {@link #beginScan()} before the alerts were listed
+     * @param alerts alerts waiting for execution
+     */
+    public void submit(long generation, List<Alert> alerts) {
+        // alerts written back before this scan started are not listed as waiting any more
+        writtenAlerts.entrySet().removeIf(entry -> {
+            if (entry.getValue() < generation) {
+                inflightAlerts.remove(entry.getKey());
+                return true;
+            }
+            return false;
+        });
+        if (CollectionUtils.isEmpty(alerts)) {
+            return;
+        }
+        for (Alert alert : alerts) {
+            if (!inflightAlerts.add(alert.getId())) {
+                continue;
+            }
+            List<AlertPluginInstance> instances;
+            try {
+                instances = alertPluginInstanceCache.getInstances(alert.getAlertGroupId());
+            } catch (Exception e) {
+                logger.error("get plugin instances of alert group {} error", alert.getAlertGroupId(), e);
+                inflightAlerts.remove(alert.getId());
+                continue;
+            }
+            if (instances.isEmpty()) {
+                logger.error("send alert msg fail,no bind plugin instance.");
+                finish(alert, AlertStatus.EXECUTION_FAILURE, "no bind plugin instance");
+                continue;
+            }
+            AlertData alertData = new AlertData();
+            alertData.setId(alert.getId())
+                    .setContent(alert.getContent())
+                    .setLog(alert.getLog())
+                    .setTitle(alert.getTitle());
+            AlertDelivery delivery = new AlertDelivery(alert, instances.size());
+            for (AlertPluginInstance instance : instances) {
+                deliver(new ChannelTask(delivery, instance, alertData));
+            }
+        }
+    }
+
+    private void deliver(ChannelTask task) {
+        Channel channel = getChannel(task.instance);
+        try {
+            channel.executor.execute(() -> attempt(channel, task));
+        } catch (RejectedExecutionException e) {
+            if (channel.executor.isShutdown() && !scheduler.isShutdown()) {
+                // the channel was removed meanwhile, the binding of the alert group is not reloaded yet
+                deliver(task);
+                return;
+            }
+            onResult(channel, task, new AlertResult(String.valueOf(false),
+                String.format("Alert Plugin %s send error : delivery queue is full", task.instance.getInstanceName())), 0, true);
+        }
+    }
+
+    /**
+     * a timed out attempt is not retried, the channel may still be sending it
+     */
+    private void attempt(Channel channel, ChannelTask task) {
+        Attempt attempt = new Attempt(Thread.currentThread());
+        long startTime = System.currentTimeMillis();
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            if (attempt.timeout()) {
+                onResult(channel, task, new AlertResult(String.valueOf(false),
+                    String.format("Alert Plugin %s send error : timeout after %s ms", task.instance.getInstanceName(), timeoutMillis)),
+                    System.currentTimeMillis() - startTime, false);
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+
+        AlertResult alertResult = alertSender.alertResultHandler(task.instance, task.alertData);
+        timer.cancel(false);
+        if (attempt.finish()) {
+            onResult(channel, task, alertResult, System.currentTimeMillis() - startTime, true);
+        }
+    }
+
+    private void onResult(Channel channel, ChannelTask task, AlertResult alertResult, long latencyMillis, boolean retryable) {
+        boolean success = Boolean.parseBoolean(alertResult.getStatus());
+        channel.stats.record(success, latencyMillis);
+        if (!success && retryable && task.attempts < maxRetries) {
+            task.attempts++;
+            long delay = retryIntervalMillis << (task.attempts - 1);
+            logger.warn("alert {} send through {} failed, retry {} after {} ms : {}", task.alertData.getId(),
+                task.instance.getInstanceName(), task.attempts, delay, alertResult.getMessage());
+            channel.retrying.incrementAndGet();
+            try {
+                scheduler.schedule(() -> {
+                    channel.retrying.decrementAndGet();
+                    deliver(task);
+                }, delay, TimeUnit.MILLISECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                // stopped
+                channel.retrying.decrementAndGet();
+            }
+        }
+        AlertDelivery delivery = task.delivery;
+        if (delivery.complete(success, alertResult.getMessage())) {
+            finish(delivery.alert, delivery.getStatus(), delivery.getLog());
+        }
+    }
+
+    private void finish(Alert alert, AlertStatus alertStatus, String log) {
+        alert.setAlertStatus(alertStatus);
+        alert.setLog(log);
+        finishedAlerts.offer(alert);
+    }
+
+    /**
+     * write back the status of finished alerts
+     */
+    void flushStatus() {
+        List<Alert> alerts = new ArrayList<>(STATUS_FLUSH_BATCH_SIZE);
+        Alert alert;
+        while (true) {
+            alerts.clear();
+            while (alerts.size() < STATUS_FLUSH_BATCH_SIZE && (alert = finishedAlerts.poll()) != null) {
+                alerts.add(alert);
+            }
+            if (alerts.isEmpty()) {
+                return;
+            }
+            try {
+                alertDao.updateAlerts(alerts);
+            } catch (Exception e) {
+                logger.error("update alert status error, retry later", e);
+                finishedAlerts.addAll(alerts);
+                return;
+            }
+            long generation = scanGeneration.get();
+            for (Alert updated : alerts) {
+                writtenAlerts.put(updated.getId(), generation);
+            }
+        }
+    }
+
+    private void logStats() {
+        for (Channel channel : channels.values()) {
+            logger.info("alert channel {} : backlog {}, retrying {}, {}", channel.instanceName,
+                channel.executor.getQueue().size(), channel.retrying.get(), channel.stats);
+        }
+    }
+
+    /**
+     * get the stats of every plugin instance
+     *
+     * @return plugin instance name -> stats
+     */
+    public Map<String, ChannelStats> getChannelStats() {
+        Map<String, ChannelStats> stats = new ConcurrentHashMap<>();
+        for (Channel channel : channels.values()) {
+            channel.stats.backlog = channel.executor.getQueue().size() + channel.retrying.get();
+            stats.put(channel.instanceName, channel.stats);
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private Channel getChannel(AlertPluginInstance instance) {
+        Channel channel = channels.computeIfAbsent(instance.getId(), id -> new Channel(instance.getInstanceName()));
+        channel.instanceName = instance.getInstanceName();
+        return channel;
+    }
+
+    /**
+     * delivery queue and stats of a plugin instance
+     */
+    private class Channel {
+
+        private volatile String instanceName;
+
+        private final ThreadPoolExecutor executor;
+
+        private final AtomicInteger retrying = new AtomicInteger();
+
+        private final ChannelStats stats = new ChannelStats();
+
+        Channel(String instanceName) {
+            this.instanceName = instanceName;
+            this.executor = new ThreadPoolExecutor(channelThreads, channelThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(channelQueueCapacity),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("Alert-Channel-" + instanceName + "-%d").build());
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    /**
+     * delivery of an alert through one plugin instance
+     */
+    private static class ChannelTask {
+
+        private final AlertDelivery delivery;
+
+        private final AlertPluginInstance instance;
+
+        private final AlertData alertData;
+
+        private int attempts;
+
+        ChannelTask(AlertDelivery delivery, AlertPluginInstance instance, AlertData alertData) {
+            this.delivery = delivery;
+            this.instance = instance;
+            this.alertData = alertData;
+        }
+    }
+
+    /**
+     * one attempt of a delivery, finished either by the channel or by the timeout
+     */
+    private static class Attempt {
+
+        private final Thread thread;
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Attempt(Thread thread) {
+            this.thread = thread;
+        }
+
+        synchronized boolean timeout() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            thread.interrupt();
+            return true;
+        }
+
+        boolean finish() {
+            if (done.compareAndSet(false, true)) {
+                return true;
+            }
+            // the interrupt of the timeout is for this attempt only
+            synchronized (this) {
+                Thread.interrupted();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * deliveries of an alert through all plugin instances of its group
+     */
+    private static class AlertDelivery {
+
+        private final Alert alert;
+
+        private final AtomicInteger remaining;
+
+        private volatile boolean success = true;
+
+        private final List<String> messages = new ArrayList<>();
+
+        AlertDelivery(Alert alert, int deliveries) {
+            this.alert = alert;
+            this.remaining = new AtomicInteger(deliveries);
+        }
+
+        /**
+         * @return true if all deliveries are done
+         */
+        boolean complete(boolean delivered, String message) {
+            synchronized (messages) {
+                success &= delivered;
+                messages.add(message);
+            }
+            return remaining.decrementAndGet() == 0;
+        }
+
+        AlertStatus getStatus() {
+            return success ? AlertStatus.EXECUTION_SUCCESS : AlertStatus.EXECUTION_FAILURE;
+        }
+
+        String getLog() {
+            synchronized (messages) {
+                return String.join("; ", messages);
+            }
+        }
+    }
+
+    /**
+     * delivery stats of a plugin instance
+     */
+    public static class ChannelStats {
+
+        private final AtomicLong sent = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final AtomicLong totalLatencyMillis = new AtomicLong();
+
+        private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+        private volatile int backlog;
+
+        void record(boolean success, long latencyMillis) {
+            if (success) {
+                sent.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+            totalLatencyMillis.addAndGet(latencyMillis);
+            maxLatencyMillis.accumulateAndGet(latencyMillis, Math::max);
+        }
+
+        public long getSent() {
+            return sent.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public long getAvgLatencyMillis() {
+            long attempts = sent.get() + failed.get();
+            return attempts == 0 ? 0 : totalLatencyMillis.get() / attempts;
+        }
+
+        public long getMaxLatencyMillis() {
+            return maxLatencyMillis.get();
+        }
+
+        /**
+         * @return deliveries waiting for a thread or a retry, as of the last {@link AlertDeliveryPipeline#getChannelStats()}
+         */
+        public int getBacklog() {
+            return backlog;
+        }
+
+        @Override
+        public String toString() {
+            return "sent " + getSent() + ", failed " + getFailed()
+                + ", avg latency " + getAvgLatencyMillis() + " ms, max latency " + getMaxLatencyMillis() + " ms";
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.alert.runner;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.dao.AlertDao;
+import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * cache of the plugin instances bound to alert groups and of the parsed plugin instance params.
+ * bindings are edited by the api server, so they are reloaded after a short time instead of being invalidated
+ */
+public class AlertPluginInstanceCache {
+
+    /**
+     * expire time of the plugin instances of an alert group
+     */
+    private static final long BINDING_EXPIRE_SECONDS = 30;
+
+    private final AlertDao alertDao;
+
+    /**
+     * interval of forgetting the deleted plugin instances, in millis
+     */
+    private final long evictIntervalMillis;
+
+    /**
+     * last time of forgetting the deleted plugin instances
+     */
+    private long lastEvictTime;
+
+    /**
+     * alert group id -> plugin instances
+     */
+    private final Cache<Integer, List<AlertPluginInstance>> groupInstances = CacheBuilder.newBuilder()
+            .expireAfterWrite(BINDING_EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    /**
+     * plugin instance id -> parsed params
+     */
+    private final Map<Integer, InstanceParams> instanceParams = new ConcurrentHashMap<>();
+
+    public AlertPluginInstanceCache(AlertDao alertDao) {
+        this(alertDao, TimeUnit.SECONDS.toMillis(BINDING_EXPIRE_SECONDS));
+    }
+
+    AlertPluginInstanceCache(AlertDao alertDao, long evictIntervalMillis) {
+        this.alertDao = alertDao;
+        this.evictIntervalMillis = evictIntervalMillis;
+    }
+
+    /**
+     * get the plugin instances bound to an alert group
+     *
+     * @param alertGroupId alert group id
+     * @return plugin instances, empty if none
+     */
+    public List<AlertPluginInstance> getInstances(int alertGroupId) {
+        try {
+            return groupInstances.get(alertGroupId, () -> {
+                List<AlertPluginInstance> instances = alertDao.listInstanceByAlertGroupId(alertGroupId);
+                return instances == null ? Collections.emptyList() : instances;
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("load plugin instances of alert group " + alertGroupId + " error", e.getCause());
+        }
+    }
+
+    /**
+     * get the params of a plugin instance, parsed again only when they change
+     *
+     * @param instance plugin instance
+     * @return params, read only
+     */
+    public Map<String, String> getParams(AlertPluginInstance instance) {
+        String params = instance.getPluginInstanceParams();
+        InstanceParams cached = instanceParams.get(instance.getId());
+        if (cached != null && Objects.equals(cached.json, params)) {
+            return cached.params;
+        }
+        Map<String, String> paramsMap = JSONUtils.toMap(params);
+        paramsMap = paramsMap == null ? null : Collections.unmodifiableMap(paramsMap);
+        instanceParams.put(instance.getId(), new InstanceParams(params, paramsMap));
+        return paramsMap;
+    }
+
+    /**
+     * forget the params of the deleted plugin instances, checked at most once in an interval
+     *
+     * @return ids of the existing plugin instances, null if not checked this time
+     */
+    public synchronized Set<Integer> evictDeletedInstances() {
+        long now = System.currentTimeMillis();
+        if (now - lastEvictTime < evictIntervalMillis) {
+            return null;
+        }
+        lastEvictTime = now;
+        Set<Integer> instanceIds = new HashSet<>();
+        List<AlertPluginInstance> instances = alertDao.listAllInstance();
+        if (instances != null) {
+            for (AlertPluginInstance instance : instances) {
+                instanceIds.add(instance.getId());
+            }
+        }
+        instanceParams.keySet().retainAll(instanceIds);
+        return instanceIds;
+    }
+
+    private static class InstanceParams {
+
+        private final String json;
+
+        private final Map<String, String> params;
+
+        InstanceParams(String json, Map<String, String> params) {
+            this.json = json;
+            this.params = params;
+        }
+    }
+}
@@ -20,7 +20,6 @@ package org.apache.dolphinscheduler.alert.runner;
 import org.apache.dolphinscheduler.alert.plugin.AlertPluginManager;
 import org.apache.dolphinscheduler.common.enums.AlertStatus;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.entity.Alert;
 import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
@@ -33,7 +32,6 @@ import org.apache.dolphinscheduler.spi.alert.AlertResult;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,22 +46,27 @@ public class AlertSender {
     private List<Alert> alertList;
     private AlertDao alertDao;
     private AlertPluginManager alertPluginManager;
+    private AlertPluginInstanceCache alertPluginInstanceCache;
 
     public AlertSender(AlertPluginManager alertPluginManager) {
         this.alertPluginManager = alertPluginManager;
+        this.alertPluginInstanceCache = new AlertPluginInstanceCache(null);
     }
 
     public AlertSender(AlertDao alertDao, AlertPluginManager alertPluginManager) {
+        this(alertDao, alertPluginManager, new AlertPluginInstanceCache(alertDao));
+    }
+
+    public AlertSender(AlertDao alertDao, AlertPluginManager alertPluginManager, AlertPluginInstanceCache alertPluginInstanceCache) {
         super();
         this.alertDao = alertDao;
         this.alertPluginManager = alertPluginManager;
+        this.alertPluginInstanceCache = alertPluginInstanceCache;
     }
 
     public AlertSender(List<Alert> alertList, AlertDao alertDao, AlertPluginManager alertPluginManager) {
-        super();
+        this(alertDao, alertPluginManager);
         this.alertList = alertList;
-        this.alertDao = alertDao;
-        this.alertPluginManager = alertPluginManager;
     }
 
     public void run() {
@@ -140,9 +143,9 @@ public class AlertSender {
      * @param alertData alertData
      * @return AlertResult
      */
-    private AlertResult alertResultHandler(AlertPluginInstance instance, AlertData alertData) {
+    AlertResult alertResultHandler(AlertPluginInstance instance, AlertData alertData) {
         String pluginName = alertPluginManager.getPluginNameById(instance.getPluginDefineId());
-        AlertChannel alertChannel = alertPluginManager.getAlertChannelMap().get(pluginName);
+        AlertChannel alertChannel = alertPluginManager.getAlertChannel(pluginName, instance);
         AlertResult alertResultExtend = new AlertResult();
         String pluginInstanceName = instance.getInstanceName();
         if (alertChannel == null) {
@@ -153,16 +156,17 @@ public class AlertSender {
             return alertResultExtend;
         }
 
-        AlertInfo alertInfo = new AlertInfo();
-        alertInfo.setAlertData(alertData);
-        Map<String, String> paramsMap = JSONUtils.toMap(instance.getPluginInstanceParams());
-        alertInfo.setAlertParams(paramsMap);
         AlertResult alertResult;
         try {
+            AlertInfo alertInfo = new AlertInfo();
+            alertInfo.setAlertData(alertData);
+            alertInfo.setAlertParams(alertPluginInstanceCache.getParams(instance));
             alertResult = alertChannel.process(alertInfo);
         } catch (Exception e) {
             alertResult = new AlertResult("false", e.getMessage());
             logger.error("send alert error alert data id :{},", alertData.getId(), e);
+        } finally {
+            alertPluginManager.releaseAlertChannel(alertChannel);
         }
 
 
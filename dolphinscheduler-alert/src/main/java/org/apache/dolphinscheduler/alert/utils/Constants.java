@@ -35,4 +35,39 @@ public class Constants {
 
     public static final int ALERT_SCAN_INTERVAL = 5000;
 
+    /**
+     * delivery threads of each alert plugin instance
+     */
+    public static final String ALERT_DELIVERY_CHANNEL_THREADS = "alert.delivery.channel.threads";
+
+    public static final int DEFAULT_ALERT_DELIVERY_CHANNEL_THREADS = 2;
+
+    /**
+     * deliveries waiting for a thread of each alert plugin instance
+     */
+    public static final String ALERT_DELIVERY_CHANNEL_QUEUE_CAPACITY = "alert.delivery.channel.queue.capacity";
+
+    public static final int DEFAULT_ALERT_DELIVERY_CHANNEL_QUEUE_CAPACITY = 1000;
+
+    /**
+     * timeout of one delivery, in seconds
+     */
+    public static final String ALERT_DELIVERY_TIMEOUT = "alert.delivery.timeout";
+
+    public static final int DEFAULT_ALERT_DELIVERY_TIMEOUT = 30;
+
+    /**
+     * retries of a failed delivery
+     */
+    public static final String ALERT_DELIVERY_MAX_RETRIES = "alert.delivery.max.retries";
+
+    public static final int DEFAULT_ALERT_DELIVERY_MAX_RETRIES = 3;
+
+    /**
+     * interval before the first retry, in seconds, doubled for each further retry
+     */
+    public static final String ALERT_DELIVERY_RETRY_INTERVAL = "alert.delivery.retry.interval";
+
+    public static final int DEFAULT_ALERT_DELIVERY_RETRY_INTERVAL = 10;
+
 }
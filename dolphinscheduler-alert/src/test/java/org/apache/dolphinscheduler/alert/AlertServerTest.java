@@ -20,7 +20,7 @@ package org.apache.dolphinscheduler.alert;
 import org.apache.dolphinscheduler.alert.plugin.AlertPluginManager;
 import org.apache.dolphinscheduler.alert.plugin.DolphinPluginLoader;
 import org.apache.dolphinscheduler.alert.plugin.DolphinPluginManagerConfig;
-import org.apache.dolphinscheduler.alert.runner.AlertSender;
+import org.apache.dolphinscheduler.alert.runner.AlertDeliveryPipeline;
 import org.apache.dolphinscheduler.alert.utils.Constants;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.DaoFactory;
@@ -71,8 +71,8 @@ public class AlertServerTest {
 
         NettyRemotingServer nettyRemotingServer = PowerMockito.mock(NettyRemotingServer.class);
         PowerMockito.whenNew(NettyRemotingServer.class).withAnyArguments().thenReturn(nettyRemotingServer);
-        AlertSender alertSender = PowerMockito.mock(AlertSender.class);
-        PowerMockito.whenNew(AlertSender.class).withAnyArguments().thenReturn(alertSender);
+        AlertDeliveryPipeline alertDeliveryPipeline = PowerMockito.mock(AlertDeliveryPipeline.class);
+        PowerMockito.whenNew(AlertDeliveryPipeline.class).withAnyArguments().thenReturn(alertDeliveryPipeline);
 
         DolphinPluginLoader dolphinPluginLoader = PowerMockito.mock(DolphinPluginLoader.class);
         PowerMockito.whenNew(DolphinPluginLoader.class).withAnyArguments().thenReturn(dolphinPluginLoader);
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.alert.plugin;
+
+import org.apache.dolphinscheduler.dao.DaoFactory;
+import org.apache.dolphinscheduler.dao.PluginDao;
+import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+import org.apache.dolphinscheduler.spi.alert.AlertChannel;
+import org.apache.dolphinscheduler.spi.alert.AlertChannelFactory;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+/**
+ * channels of the plugin instances
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({DaoFactory.class})
+public class AlertPluginManagerChannelTest {
+
+    private static final String PLUGIN_NAME = "test alert";
+
+    private AlertPluginManager alertPluginManager;
+
+    @Before
+    public void before() {
+        PowerMockito.mockStatic(DaoFactory.class);
+        PowerMockito.when(DaoFactory.getDaoInstance(PluginDao.class)).thenReturn(Mockito.mock(PluginDao.class));
+        alertPluginManager = new AlertPluginManager();
+
+        AlertChannelFactory alertChannelFactory = Mockito.mock(AlertChannelFactory.class);
+        Mockito.when(alertChannelFactory.getName()).thenReturn(PLUGIN_NAME);
+        Mockito.when(alertChannelFactory.create()).thenAnswer(invocation -> Mockito.mock(AlertChannel.class));
+        alertPluginManager.addAlertChannelFactory(alertChannelFactory);
+    }
+
+    @Test
+    public void testChannelReused() {
+        AlertPluginInstance instance = instance("{\"a\":1}");
+        AlertChannel alertChannel = alertPluginManager.getAlertChannel(PLUGIN_NAME, instance);
+        alertPluginManager.releaseAlertChannel(alertChannel);
+
+        Assert.assertSame(alertChannel, alertPluginManager.getAlertChannel(PLUGIN_NAME, instance));
+        alertPluginManager.releaseAlertChannel(alertChannel);
+        Mockito.verify(alertChannel, Mockito.never()).close();
+        Assert.assertNull(alertPluginManager.getAlertChannel("not registered", instance));
+    }
+
+    @Test
+    public void testReplacedChannelClosedAfterRelease() {
+        AlertChannel oldChannel = alertPluginManager.getAlertChannel(PLUGIN_NAME, instance("{\"a\":1}"));
+
+        // the params change while the old channel is still sending
+        AlertChannel newChannel = alertPluginManager.getAlertChannel(PLUGIN_NAME, instance("{\"a\":2}"));
+        Assert.assertNotSame(oldChannel, newChannel);
+        Mockito.verify(oldChannel, Mockito.never()).close();
+
+        alertPluginManager.releaseAlertChannel(oldChannel);
+        Mockito.verify(oldChannel).close();
+
+        alertPluginManager.releaseAlertChannel(newChannel);
+        Mockito.verify(newChannel, Mockito.never()).close();
+        alertPluginManager.closeAlertChannels();
+        Mockito.verify(newChannel).close();
+    }
+
+    @Test
+    public void testCloseAfterSending() {
+        AlertChannel alertChannel = alertPluginManager.getAlertChannel(PLUGIN_NAME, instance("{\"a\":1}"));
+
+        alertPluginManager.closeAlertChannels();
+        Mockito.verify(alertChannel, Mockito.never()).close();
+        alertPluginManager.releaseAlertChannel(alertChannel);
+        Mockito.verify(alertChannel).close();
+    }
+
+    private static AlertPluginInstance instance(String params) {
+        AlertPluginInstance instance = new AlertPluginInstance(1, params, "instance-1");
+        instance.setId(1);
+        return instance;
+    }
+}
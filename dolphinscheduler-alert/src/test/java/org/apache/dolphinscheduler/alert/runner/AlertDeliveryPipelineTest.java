@@ -0,0 +1,347 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.alert.runner;
+
+import org.apache.dolphinscheduler.alert.plugin.AlertPluginManager;
+import org.apache.dolphinscheduler.common.enums.AlertStatus;
+import org.apache.dolphinscheduler.dao.AlertDao;
+import org.apache.dolphinscheduler.dao.entity.Alert;
+import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+import org.apache.dolphinscheduler.spi.alert.AlertChannel;
+import org.apache.dolphinscheduler.spi.alert.AlertResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * alert delivery pipeline test
+ */
+public class AlertDeliveryPipelineTest {
+
+    private AlertDao alertDao;
+
+    private AlertPluginManager alertPluginManager;
+
+    private final Map<String, AlertChannel> alertChannelMap = new ConcurrentHashMap<>();
+
+    private final List<Alert> updatedAlerts = Collections.synchronizedList(new ArrayList<>());
+
+    private AlertDeliveryPipeline alertDeliveryPipeline;
+
+    @Before
+    public void before() {
+        alertDao = Mockito.mock(AlertDao.class);
+        alertPluginManager = Mockito.mock(AlertPluginManager.class);
+        Mockito.when(alertPluginManager.getAlertChannel(Mockito.anyString(), Mockito.any()))
+                .thenAnswer(invocation -> alertChannelMap.get(invocation.<String>getArgument(0)));
+        Mockito.when(alertPluginManager.getPluginNameById(Mockito.anyInt()))
+                .thenAnswer(invocation -> "plugin-" + invocation.getArgument(0));
+        Mockito.when(alertDao.updateAlerts(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Alert> alerts = invocation.getArgument(0);
+            updatedAlerts.addAll(alerts);
+            return alerts.size();
+        });
+    }
+
+    @After
+    public void after() {
+        if (alertDeliveryPipeline != null) {
+            alertDeliveryPipeline.stop();
+        }
+    }
+
+    @Test
+    public void testSlowChannelNotBlockOthers() throws Exception {
+        CountDownLatch slowChannelRelease = new CountDownLatch(1);
+        bindChannel(1, info -> {
+            await(slowChannelRelease);
+            return result(true);
+        });
+        bindChannel(2, info -> result(true));
+        bindGroup(1, 1);
+        bindGroup(2, 2);
+        alertDeliveryPipeline = newPipeline(60000, 0);
+
+        submit(Arrays.asList(alert(1, 1), alert(2, 2), alert(3, 2)));
+
+        waitUpdated(2);
+        Assert.assertEquals(Arrays.asList(2, 3), updatedIds());
+        Assert.assertEquals(2, alertDeliveryPipeline.getChannelStats().get("instance-2").getSent());
+        Assert.assertEquals(0, alertDeliveryPipeline.getChannelStats().get("instance-1").getSent());
+
+        slowChannelRelease.countDown();
+        waitUpdated(3);
+        Assert.assertEquals(AlertStatus.EXECUTION_SUCCESS, updatedAlerts.get(2).getAlertStatus());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        bindChannel(1, info -> {
+            try {
+                Thread.sleep(60000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result(true);
+        });
+        bindGroup(1, 1);
+        alertDeliveryPipeline = newPipeline(100, 0);
+
+        submit(Collections.singletonList(alert(1, 1)));
+
+        waitUpdated(1);
+        Alert alert = updatedAlerts.get(0);
+        Assert.assertEquals(AlertStatus.EXECUTION_FAILURE, alert.getAlertStatus());
+        Assert.assertTrue(alert.getLog().contains("timeout"));
+        Assert.assertEquals(1, alertDeliveryPipeline.getChannelStats().get("instance-1").getFailed());
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        bindChannel(1, info -> result(attempts.incrementAndGet() == 3));
+        bindGroup(1, 1);
+        alertDeliveryPipeline = newPipeline(60000, 3);
+
+        submit(Collections.singletonList(alert(1, 1)));
+
+        waitUpdated(1);
+        Assert.assertEquals(3, attempts.get());
+        Assert.assertEquals(AlertStatus.EXECUTION_SUCCESS, updatedAlerts.get(0).getAlertStatus());
+        AlertDeliveryPipeline.ChannelStats stats = alertDeliveryPipeline.getChannelStats().get("instance-1");
+        Assert.assertEquals(1, stats.getSent());
+        Assert.assertEquals(2, stats.getFailed());
+        Assert.assertEquals(0, stats.getBacklog());
+    }
+
+    @Test
+    public void testAllInstancesMustSucceed() throws Exception {
+        bindChannel(1, info -> result(true));
+        bindChannel(2, info -> result(false));
+        bindGroup(1, 1, 2);
+        alertDeliveryPipeline = newPipeline(60000, 0);
+
+        submit(Collections.singletonList(alert(1, 1)));
+
+        waitUpdated(1);
+        Assert.assertEquals(AlertStatus.EXECUTION_FAILURE, updatedAlerts.get(0).getAlertStatus());
+    }
+
+    @Test
+    public void testNoBindInstance() {
+        Mockito.when(alertDao.listInstanceByAlertGroupId(1)).thenReturn(null);
+        alertDeliveryPipeline = newPipeline(60000, 0);
+
+        submit(Collections.singletonList(alert(1, 1)));
+        alertDeliveryPipeline.flushStatus();
+
+        Assert.assertEquals(1, updatedAlerts.size());
+        Assert.assertEquals(AlertStatus.EXECUTION_FAILURE, updatedAlerts.get(0).getAlertStatus());
+    }
+
+    @Test
+    public void testBatchStatusUpdateAndInflightAlerts() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger processed = new AtomicInteger();
+        bindChannel(1, info -> {
+            await(release);
+            processed.incrementAndGet();
+            return result(true);
+        });
+        bindGroup(1, 1);
+        alertDeliveryPipeline = newPipeline(60000, 0);
+
+        List<Alert> alerts = new ArrayList<>();
+        for (int i = 1; i <= 150; i++) {
+            alerts.add(alert(i, 1));
+        }
+        submit(alerts);
+        // the next scan finds the same alerts waiting
+        submit(alerts);
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (processed.get() < 150 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        Assert.assertEquals(150, processed.get());
+
+        alertDeliveryPipeline.flushStatus();
+        Assert.assertEquals(150, updatedAlerts.size());
+        Mockito.verify(alertDao, Mockito.times(2)).updateAlerts(Mockito.anyList());
+
+        // written back, so they can be taken again
+        submit(Collections.singletonList(alert(1, 1)));
+        waitProcessed(processed, 151);
+    }
+
+    @Test
+    public void testStaleScanAfterFlush() throws Exception {
+        AtomicInteger processed = new AtomicInteger();
+        bindChannel(1, info -> {
+            processed.incrementAndGet();
+            return result(true);
+        });
+        bindGroup(1, 1);
+        alertDeliveryPipeline = newPipeline(60000, 0);
+
+        submit(Collections.singletonList(alert(1, 1)));
+        waitProcessed(processed, 1);
+        // a scan lists the alert as waiting, then the status is written back before the scan submits
+        long staleGeneration = alertDeliveryPipeline.beginScan();
+        waitUpdated(1);
+        alertDeliveryPipeline.submit(staleGeneration, Collections.singletonList(alert(1, 1)));
+        Thread.sleep(100);
+        Assert.assertEquals(1, processed.get());
+
+        // a scan started after the write back does not list it, a new alert with the id would be sent again
+        submit(Collections.emptyList());
+        submit(Collections.singletonList(alert(1, 1)));
+        waitProcessed(processed, 2);
+    }
+
+    @Test
+    public void testTimeoutNotRetried() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        bindChannel(1, info -> {
+            attempts.incrementAndGet();
+            await(release);
+            return result(true);
+        });
+        bindGroup(1, 1);
+        alertDeliveryPipeline = newPipeline(100, 3);
+
+        submit(Collections.singletonList(alert(1, 1)));
+
+        waitUpdated(1);
+        Thread.sleep(100);
+        Assert.assertEquals(1, attempts.get());
+        Assert.assertEquals(AlertStatus.EXECUTION_FAILURE, updatedAlerts.get(0).getAlertStatus());
+        release.countDown();
+    }
+
+    @Test
+    public void testDeletedInstanceEvicted() throws Exception {
+        bindChannel(1, info -> result(true));
+        bindChannel(2, info -> result(true));
+        bindGroup(1, 1, 2);
+        List<AlertPluginInstance> instances = new ArrayList<>(alertDao.listInstanceByAlertGroupId(1));
+        Mockito.when(alertDao.listAllInstance()).thenReturn(instances);
+        alertDeliveryPipeline = new AlertDeliveryPipeline(alertDao, alertPluginManager, new AlertPluginInstanceCache(alertDao, 0),
+                2, 1000, 60000, 0, 10);
+
+        submit(Collections.singletonList(alert(1, 1)));
+        waitUpdated(1);
+        Assert.assertEquals(2, alertDeliveryPipeline.getChannelStats().size());
+
+        // instance 2 is deleted
+        Mockito.when(alertDao.listAllInstance()).thenReturn(instances.subList(0, 1));
+        submit(Collections.emptyList());
+        Assert.assertEquals(Collections.singleton("instance-1"), alertDeliveryPipeline.getChannelStats().keySet());
+    }
+
+    private void submit(List<Alert> alerts) {
+        alertDeliveryPipeline.submit(alertDeliveryPipeline.beginScan(), alerts);
+    }
+
+    private AlertDeliveryPipeline newPipeline(long timeoutMillis, int maxRetries) {
+        return new AlertDeliveryPipeline(alertDao, alertPluginManager, new AlertPluginInstanceCache(alertDao),
+                2, 1000, timeoutMillis, maxRetries, 10);
+    }
+
+    private void bindChannel(int pluginDefineId, AlertChannel alertChannel) {
+        alertChannelMap.put("plugin-" + pluginDefineId, alertChannel);
+    }
+
+    private void bindGroup(int alertGroupId, int... pluginDefineIds) {
+        List<AlertPluginInstance> instances = new ArrayList<>();
+        for (int pluginDefineId : pluginDefineIds) {
+            AlertPluginInstance instance = new AlertPluginInstance(pluginDefineId, "{}", "instance-" + pluginDefineId);
+            instance.setId(pluginDefineId);
+            instances.add(instance);
+        }
+        Mockito.when(alertDao.listInstanceByAlertGroupId(alertGroupId)).thenReturn(instances);
+    }
+
+    private static Alert alert(int id, int alertGroupId) {
+        Alert alert = new Alert();
+        alert.setId(id);
+        alert.setAlertGroupId(alertGroupId);
+        alert.setTitle("title");
+        alert.setContent("content");
+        return alert;
+    }
+
+    private static AlertResult result(boolean success) {
+        return new AlertResult(String.valueOf(success), success ? "success" : "fail");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void waitUpdated(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            alertDeliveryPipeline.flushStatus();
+            if (updatedAlerts.size() >= count) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        Assert.fail("alerts not updated");
+    }
+
+    private static void waitProcessed(AtomicInteger processed, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (processed.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(count, processed.get());
+    }
+
+    private List<Integer> updatedIds() {
+        List<Integer> ids = new ArrayList<>();
+        synchronized (updatedAlerts) {
+            for (Alert alert : updatedAlerts) {
+                ids.add(alert.getId());
+            }
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+}
@@ -58,6 +58,10 @@ public class AlertSenderTest {
         alertDao = PowerMockito.mock(AlertDao.class);
         pluginDao = PowerMockito.mock(PluginDao.class);
         alertPluginManager = PowerMockito.mock(AlertPluginManager.class);
+        PowerMockito.when(alertPluginManager.getAlertChannel(Mockito.any(), Mockito.any())).thenAnswer(invocation -> {
+            String pluginName = invocation.getArgument(0);
+            return pluginName == null ? null : alertPluginManager.getAlertChannelMap().get(pluginName);
+        });
 
     }
 
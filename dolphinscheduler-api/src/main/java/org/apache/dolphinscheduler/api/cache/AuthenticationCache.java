@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.api.cache;
+
+import org.apache.dolphinscheduler.dao.entity.User;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * cache of authenticated users, by session id and by access token.
+ * entries are removed on sign out, token update or deletion and user update or deletion, and
+ * expire after a short time so that changes made through another api server become visible.
+ */
+@Component
+public class AuthenticationCache {
+
+    private final Cache<String, User> sessionUsers;
+
+    private final Cache<String, User> tokenUsers;
+
+    public AuthenticationCache(@Value("${security.authentication.cache.expire.seconds:60}") long expireSeconds,
+                               @Value("${security.authentication.cache.max.size:10000}") long maximumSize) {
+        this.sessionUsers = buildCache(expireSeconds, maximumSize);
+        this.tokenUsers = buildCache(expireSeconds, maximumSize);
+    }
+
+    private static Cache<String, User> buildCache(long expireSeconds, long maximumSize) {
+        return CacheBuilder.newBuilder()
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * get the user of a session, loading it if absent. a null user is not cached
+     *
+     * @param sessionId session id
+     * @param loader user loader
+     * @return user, null if the session does not exist
+     */
+    public User getSessionUser(String sessionId, Function<String, User> loader) {
+        return get(sessionUsers, sessionId, loader);
+    }
+
+    /**
+     * get the user of an access token, loading it if absent. a null user is not cached
+     *
+     * @param token access token
+     * @param loader user loader
+     * @return user, null if the token does not exist or has expired
+     */
+    public User getTokenUser(String token, Function<String, User> loader) {
+        return get(tokenUsers, token, loader);
+    }
+
+    private static User get(Cache<String, User> cache, String key, Function<String, User> loader) {
+        User user = cache.getIfPresent(key);
+        if (user == null) {
+            user = loader.apply(key);
+            if (user != null) {
+                cache.put(key, user);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * invalidate a session
+     *
+     * @param sessionId session id
+     */
+    public void invalidateSession(String sessionId) {
+        if (sessionId != null) {
+            sessionUsers.invalidate(sessionId);
+        }
+    }
+
+    /**
+     * invalidate an access token
+     *
+     * @param token access token
+     */
+    public void invalidateToken(String token) {
+        if (token != null) {
+            tokenUsers.invalidate(token);
+        }
+    }
+
+    /**
+     * invalidate all sessions and access tokens of a user
+     *
+     * @param userId user id
+     */
+    public void invalidateUser(int userId) {
+        sessionUsers.asMap().values().removeIf(user -> user.getId() == userId);
+        tokenUsers.asMap().values().removeIf(user -> user.getId() == userId);
+    }
+
+    /**
+     * cache statistics
+     *
+     * @return session and token cache statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("session", toMap(sessionUsers));
+        stats.put("token", toMap(tokenUsers));
+        return stats;
+    }
+
+    private static Map<String, Object> toMap(Cache<String, User> cache) {
+        CacheStats cacheStats = cache.stats();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("size", cache.size());
+        map.put("hitCount", cacheStats.hitCount());
+        map.put("missCount", cacheStats.missCount());
+        map.put("hitRate", cacheStats.hitRate());
+        map.put("evictionCount", cacheStats.evictionCount());
+        return map;
+    }
+}
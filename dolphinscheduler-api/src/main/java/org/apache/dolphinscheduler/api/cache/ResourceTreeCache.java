@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.api.cache;
+
+import org.apache.dolphinscheduler.api.dto.resources.Directory;
+import org.apache.dolphinscheduler.api.dto.resources.FileLeaf;
+import org.apache.dolphinscheduler.api.dto.resources.ResourceComponent;
+import org.apache.dolphinscheduler.api.dto.resources.visitor.ResourceTreeVisitor;
+import org.apache.dolphinscheduler.common.enums.ResourceType;
+import org.apache.dolphinscheduler.dao.entity.Resource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * cache of the resource trees shown to each user.
+ * any write to resources or resource permissions invalidates every tree, because renaming or
+ * deleting a directory changes the trees of all users the directory is granted to. trees also
+ * expire after a short time so that writes done by another api server become visible.
+ */
+@Component
+public class ResourceTreeCache {
+
+    /**
+     * expire time of a cached tree
+     */
+    private static final long EXPIRE_SECONDS = 60;
+
+    /**
+     * max number of cached trees
+     */
+    private static final long MAXIMUM_SIZE = 1000;
+
+    /**
+     * the generation is part of the key, so that a tree loaded before an invalidation is never served after it
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Cache<String, ResourceTree> cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    /**
+     * get the resource tree of a user, loading it if absent
+     *
+     * @param userId user id, 0 for admin
+     * @param type resource type
+     * @param suffix file suffix filter, null for all files
+     * @param loader resource list loader
+     * @return resource tree
+     */
+    public ResourceTree getResourceTree(int userId, ResourceType type, String suffix, Supplier<List<Resource>> loader) {
+        String key = String.format("%d_%d_%s_%s", generation.get(), userId, type, suffix);
+        try {
+            return cache.get(key, () -> new ResourceTree(loader.get()));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("load resource tree error", e.getCause());
+        }
+    }
+
+    /**
+     * invalidate all resource trees, and again after the current transaction commits
+     * so that a tree loaded before the commit is not kept
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    cache.invalidateAll();
+                }
+            });
+        }
+    }
+
+    /**
+     * resource tree with an id index for lazy expansion
+     */
+    public static class ResourceTree {
+
+        /**
+         * root directory
+         */
+        private final ResourceComponent root;
+
+        /**
+         * resource id -> component
+         */
+        private final Map<Integer, ResourceComponent> resourceComponentMap = new HashMap<>();
+
+        public ResourceTree(List<Resource> resourceList) {
+            this.root = new ResourceTreeVisitor(resourceList).visit();
+            Deque<ResourceComponent> stack = new ArrayDeque<>(root.getChildren());
+            while (!stack.isEmpty()) {
+                ResourceComponent resourceComponent = stack.pop();
+                resourceComponentMap.put(resourceComponent.getId(), resourceComponent);
+                stack.addAll(resourceComponent.getChildren());
+            }
+        }
+
+        /**
+         * get the whole tree
+         *
+         * @return top level resource components
+         */
+        public List<ResourceComponent> getChildren() {
+            return root.getChildren();
+        }
+
+        /**
+         * get the direct children of a directory, without their own children
+         *
+         * @param pid directory id, -1 for the top level
+         * @return direct children, null if the directory is not in the tree
+         */
+        public List<ResourceComponent> getDirectChildren(int pid) {
+            ResourceComponent parent = pid == -1 ? root : resourceComponentMap.get(pid);
+            if (parent == null) {
+                return null;
+            }
+            List<ResourceComponent> children = new ArrayList<>(parent.getChildren().size());
+            for (ResourceComponent child : parent.getChildren()) {
+                children.add(shallowCopy(child));
+            }
+            return children;
+        }
+
+        private static ResourceComponent shallowCopy(ResourceComponent resourceComponent) {
+            ResourceComponent copy = resourceComponent.isDirctory() ? new Directory() : new FileLeaf();
+            copy.setId(resourceComponent.getId());
+            copy.setPid(resourceComponent.getPid());
+            copy.setName(resourceComponent.getName());
+            copy.setFullName(resourceComponent.getFullName());
+            copy.setDescription(resourceComponent.getDescription());
+            copy.setIdValue(resourceComponent.getId(), resourceComponent.isDirctory());
+            copy.setType(resourceComponent.getType());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.api.cache;
+
+import org.apache.dolphinscheduler.api.dto.treeview.TreeViewDto;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * cache of the tree views of process definitions whose shown instances are all finished.
+ * the key holds the definition version and the id and end time of every shown instance, so a new
+ * run, a rerun or a definition update leads to a new key instead of an invalidation.
+ */
+@Component
+public class TreeViewCache {
+
+    /**
+     * expire time of a cached tree view
+     */
+    private static final long EXPIRE_SECONDS = 600;
+
+    /**
+     * max number of cached tree views
+     */
+    private static final long MAXIMUM_SIZE = 200;
+
+    private final Cache<String, TreeViewDto> cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    /**
+     * get the tree view of a process definition, building it if absent.
+     * the tree view is only cached when every instance is finished
+     *
+     * @param processDefinition process definition
+     * @param processInstances shown process instances
+     * @param builder tree view builder
+     * @return tree view
+     */
+    public TreeViewDto getTreeView(ProcessDefinition processDefinition,
+                                   List<ProcessInstance> processInstances,
+                                   Supplier<TreeViewDto> builder) {
+        String key = key(processDefinition, processInstances);
+        if (key == null) {
+            return builder.get();
+        }
+        try {
+            return cache.get(key, builder::get);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("build tree view error", e.getCause());
+        }
+    }
+
+    private static String key(ProcessDefinition processDefinition, List<ProcessInstance> processInstances) {
+        StringBuilder key = new StringBuilder()
+                .append(processDefinition.getId())
+                .append('_')
+                .append(processDefinition.getVersion());
+        for (ProcessInstance processInstance : processInstances) {
+            if (processInstance.getState() == null || !processInstance.getState().typeIsFinished()
+                    || processInstance.getEndTime() == null) {
+                return null;
+            }
+            key.append('_').append(processInstance.getId())
+                    .append(':').append(processInstance.getEndTime().getTime());
+        }
+        return key.toString();
+    }
+}
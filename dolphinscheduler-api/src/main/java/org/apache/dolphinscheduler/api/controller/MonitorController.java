@@ -19,6 +19,7 @@ package org.apache.dolphinscheduler.api.controller;
 
 import static org.apache.dolphinscheduler.api.enums.Status.LIST_MASTERS_ERROR;
 import static org.apache.dolphinscheduler.api.enums.Status.LIST_WORKERS_ERROR;
+import static org.apache.dolphinscheduler.api.enums.Status.QUERY_AUTHENTICATION_CACHE_STATS_ERROR;
 import static org.apache.dolphinscheduler.api.enums.Status.QUERY_DATABASE_STATE_ERROR;
 import static org.apache.dolphinscheduler.api.enums.Status.QUERY_ZOOKEEPER_STATE_ERROR;
 
@@ -122,4 +123,20 @@ public class MonitorController extends BaseController {
         return returnDataList(result);
     }
 
+    /**
+     * query authentication cache statistics
+     *
+     * @param loginUser login user
+     * @return session and token cache statistics
+     */
+    @ApiOperation(value = "queryAuthenticationCacheStats", notes = "QUERY_AUTHENTICATION_CACHE_STATS_NOTES")
+    @GetMapping(value = "/auth-cache")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(QUERY_AUTHENTICATION_CACHE_STATS_ERROR)
+    public Result queryAuthenticationCacheStats(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser) {
+        logger.info("login user: {}, query authentication cache stats", loginUser.getUserName());
+        Map<String, Object> result = monitorService.queryAuthenticationCacheStats(loginUser);
+        return returnDataList(result);
+    }
+
 }
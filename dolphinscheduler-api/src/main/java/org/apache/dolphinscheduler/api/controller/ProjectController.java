@@ -267,21 +267,24 @@ public class ProjectController extends BaseController {
      * @param loginUser   login user
      * @param file        resource file
      * @param projectName project name
+     * @param skipCount number of process definitions at the beginning of the file to skip, to resume a failed import
      * @return import result code
      */
 
     @ApiOperation(value = "importProcessDefinition", notes= "EXPORT_PROCESS_DEFINITION_NOTES")
     @ApiImplicitParams({
-            @ApiImplicitParam(name = "file", value = "RESOURCE_FILE", required = true, dataType = "MultipartFile")
+            @ApiImplicitParam(name = "file", value = "RESOURCE_FILE", required = true, dataType = "MultipartFile"),
+            @ApiImplicitParam(name = "skipCount", value = "SKIP_COUNT", dataType = "Int", example = "0")
     })
     @PostMapping(value = "/import-definition")
     @ApiException(IMPORT_PROCESS_DEFINE_ERROR)
     public Result importProcessDefinition(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
                                           @RequestParam("file") MultipartFile file,
-                                          @RequestParam("projectName") String projectName) {
-        logger.info("import process definition by id, login user:{}, project: {}",
-                loginUser.getUserName(), projectName);
-        Map<String, Object> result = processDefinitionService.importProcessDefinition(loginUser, file, projectName);
+                                          @RequestParam("projectName") String projectName,
+                                          @RequestParam(value = "skipCount", required = false, defaultValue = "0") int skipCount) {
+        logger.info("import process definition by id, login user:{}, project: {}, skip count: {}",
+                loginUser.getUserName(), projectName, skipCount);
+        Map<String, Object> result = processDefinitionService.importProcessDefinition(loginUser, file, projectName, skipCount);
         return returnDataList(result);
     }
 
@@ -213,6 +213,31 @@ public class ResourcesController extends BaseController {
         return returnDataList(result);
     }
 
+    /**
+     * query the direct children of a resource directory
+     *
+     * @param loginUser login user
+     * @param type resource type
+     * @param pid directory id, -1 for the top level
+     * @return resource list
+     */
+    @ApiOperation(value = "queryResourceChildren", notes = "QUERY_RESOURCE_CHILDREN_NOTES")
+    @ApiImplicitParams({
+            @ApiImplicitParam(name = "type", value = "RESOURCE_TYPE", required = true, dataType = "ResourceType"),
+            @ApiImplicitParam(name = "pid", value = "RESOURCE_PID", dataType = "Int", example = "-1")
+    })
+    @GetMapping(value = "/list/children")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(QUERY_RESOURCES_LIST_ERROR)
+    public Result queryResourceChildren(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                        @RequestParam(value = "type") ResourceType type,
+                                        @RequestParam(value = "pid", required = false, defaultValue = "-1") int pid
+    ) {
+        logger.info("query resource children, login user:{}, resource type:{}, pid:{}", loginUser.getUserName(), type, pid);
+        Map<String, Object> result = resourceService.queryResourceChildren(loginUser, type, pid);
+        return returnDataList(result);
+    }
+
     /**
      * query resources list paging
      *
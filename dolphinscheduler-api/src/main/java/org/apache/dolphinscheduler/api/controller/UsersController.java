@@ -309,6 +309,102 @@ public class UsersController extends BaseController {
         return returnDataList(result);
     }
 
+    /**
+     * grant projects to many users
+     *
+     * @param loginUser  login user
+     * @param userIds    user id list
+     * @param projectIds project id list
+     * @return grant result of each user
+     */
+    @ApiOperation(value = "batchGrantProject", notes = "BATCH_GRANT_PROJECT_NOTES")
+    @ApiImplicitParams({
+            @ApiImplicitParam(name = "userIds", value = "USER_IDS", type = "String"),
+            @ApiImplicitParam(name = "projectIds", value = "PROJECT_IDS", type = "String")
+    })
+    @PostMapping(value = "/batch/grant-project")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(GRANT_PROJECT_ERROR)
+    public Result batchGrantProject(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                    @RequestParam(value = "userIds") String userIds,
+                                    @RequestParam(value = "projectIds") String projectIds) {
+        logger.info("login user {}, batch grant projects, userIds: {}, projectIds: {}", loginUser.getUserName(), userIds, projectIds);
+        Map<String, Object> result = usersService.batchGrantProject(loginUser, userIds, projectIds);
+        return returnDataList(result);
+    }
+
+    /**
+     * grant resources to many users
+     *
+     * @param loginUser   login user
+     * @param userIds     user id list
+     * @param resourceIds resource id list
+     * @return grant result of each user
+     */
+    @ApiOperation(value = "batchGrantResource", notes = "BATCH_GRANT_RESOURCE_NOTES")
+    @ApiImplicitParams({
+            @ApiImplicitParam(name = "userIds", value = "USER_IDS", type = "String"),
+            @ApiImplicitParam(name = "resourceIds", value = "RESOURCE_IDS", type = "String")
+    })
+    @PostMapping(value = "/batch/grant-file")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(GRANT_RESOURCE_ERROR)
+    public Result batchGrantResource(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                     @RequestParam(value = "userIds") String userIds,
+                                     @RequestParam(value = "resourceIds") String resourceIds) {
+        logger.info("login user {}, batch grant resources, userIds: {}, resourceIds: {}", loginUser.getUserName(), userIds, resourceIds);
+        Map<String, Object> result = usersService.batchGrantResources(loginUser, userIds, resourceIds);
+        return returnDataList(result);
+    }
+
+    /**
+     * grant udf functions to many users
+     *
+     * @param loginUser login user
+     * @param userIds   user id list
+     * @param udfIds    udf id list
+     * @return grant result of each user
+     */
+    @ApiOperation(value = "batchGrantUDFFunc", notes = "BATCH_GRANT_UDF_FUNC_NOTES")
+    @ApiImplicitParams({
+            @ApiImplicitParam(name = "userIds", value = "USER_IDS", type = "String"),
+            @ApiImplicitParam(name = "udfIds", value = "UDF_IDS", type = "String")
+    })
+    @PostMapping(value = "/batch/grant-udf-func")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(GRANT_UDF_FUNCTION_ERROR)
+    public Result batchGrantUDFFunc(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                    @RequestParam(value = "userIds") String userIds,
+                                    @RequestParam(value = "udfIds") String udfIds) {
+        logger.info("login user {}, batch grant udf functions, userIds: {}, udfIds: {}", loginUser.getUserName(), userIds, udfIds);
+        Map<String, Object> result = usersService.batchGrantUDFFunction(loginUser, userIds, udfIds);
+        return returnDataList(result);
+    }
+
+    /**
+     * grant data sources to many users
+     *
+     * @param loginUser     login user
+     * @param userIds       user id list
+     * @param datasourceIds data source id list
+     * @return grant result of each user
+     */
+    @ApiOperation(value = "batchGrantDataSource", notes = "BATCH_GRANT_DATASOURCE_NOTES")
+    @ApiImplicitParams({
+            @ApiImplicitParam(name = "userIds", value = "USER_IDS", type = "String"),
+            @ApiImplicitParam(name = "datasourceIds", value = "DATASOURCE_IDS", type = "String")
+    })
+    @PostMapping(value = "/batch/grant-datasource")
+    @ResponseStatus(HttpStatus.OK)
+    @ApiException(GRANT_DATASOURCE_ERROR)
+    public Result batchGrantDataSource(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                                       @RequestParam(value = "userIds") String userIds,
+                                       @RequestParam(value = "datasourceIds") String datasourceIds) {
+        logger.info("login user {}, batch grant data sources, userIds: {}, datasourceIds: {}", loginUser.getUserName(), userIds, datasourceIds);
+        Map<String, Object> result = usersService.batchGrantDataSource(loginUser, userIds, datasourceIds);
+        return returnDataList(result);
+    }
+
 
     /**
      * get user info
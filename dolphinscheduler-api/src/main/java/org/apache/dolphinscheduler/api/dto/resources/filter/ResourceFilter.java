@@ -19,8 +19,10 @@ package org.apache.dolphinscheduler.api.dto.resources.filter;
 import org.apache.dolphinscheduler.dao.entity.Resource;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -69,26 +71,29 @@ public class ResourceFilter implements IFilter {
      */
     Set<Resource> listAllParent(){
         Set<Resource> parentList =  new HashSet<>();
+        Map<Integer, Resource> resourceMap = new HashMap<>(resourceList.size() * 2);
+        for (Resource resource : resourceList) {
+            resourceMap.put(resource.getId(), resource);
+        }
         Set<Resource> filterFileList = fileFilter();
         for(Resource file:filterFileList){
             parentList.add(file);
-            setAllParent(file,parentList);
+            setAllParent(file,parentList,resourceMap);
         }
         return parentList;
 
     }
 
     /**
-     * list all parent dir
+     * list all parent dir, stops at the first parent already listed
      * @param resource  resource
-     * @return parent resource dir set
+     * @param parentList parent resource dir set
+     * @param resourceMap id -> resource
      */
-    private void setAllParent(Resource resource,Set<Resource> parentList){
-        for (Resource resourceTemp : resourceList) {
-            if (resourceTemp.getId() == resource.getPid()) {
-                parentList.add(resourceTemp);
-                setAllParent(resourceTemp,parentList);
-            }
+    private void setAllParent(Resource resource,Set<Resource> parentList,Map<Integer, Resource> resourceMap){
+        Resource parent = resourceMap.get(resource.getPid());
+        while (parent != null && parentList.add(parent)) {
+            parent = resourceMap.get(parent.getPid());
         }
     }
 
@@ -23,7 +23,13 @@ import org.apache.dolphinscheduler.api.dto.resources.ResourceComponent;
 import org.apache.dolphinscheduler.dao.entity.Resource;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * resource tree visitor
@@ -35,6 +41,11 @@ public class ResourceTreeVisitor implements Visitor{
      */
     private List<Resource> resourceList;
 
+    /**
+     * ids of the resources in the resource list
+     */
+    private Set<Integer> resourceIds;
+
     public ResourceTreeVisitor() {
     }
 
@@ -47,18 +58,26 @@ public class ResourceTreeVisitor implements Visitor{
     }
 
     /**
-     * visit
+     * visit, the tree is built in one pass over the resource list with an id index
      * @return resoruce component
      */
     @Override
     public ResourceComponent visit() {
         ResourceComponent rootDirectory = new Directory();
+        Map<Integer, ResourceComponent> resourceComponentMap = new HashMap<>(resourceList.size() * 2);
+        List<ResourceComponent> resourceComponents = new ArrayList<>(resourceList.size());
         for (Resource resource : resourceList) {
+            ResourceComponent resourceComponent = getResourceComponent(resource);
+            resourceComponentMap.put(resource.getId(), resourceComponent);
+            resourceComponents.add(resourceComponent);
+        }
+        for (ResourceComponent resourceComponent : resourceComponents) {
             // judge whether is root node
-            if (rootNode(resource)){
-                ResourceComponent tempResourceComponent = getResourceComponent(resource);
-                rootDirectory.add(tempResourceComponent);
-                tempResourceComponent.setChildren(setChildren(tempResourceComponent.getId(),resourceList));
+            ResourceComponent parent = resourceComponent.getPid() == -1 ? null : resourceComponentMap.get(resourceComponent.getPid());
+            if (parent == null) {
+                rootDirectory.add(resourceComponent);
+            } else {
+                parent.add(resourceComponent);
             }
         }
         return rootDirectory;
@@ -71,19 +90,29 @@ public class ResourceTreeVisitor implements Visitor{
      * @return resource component list
      */
     public static List<ResourceComponent> setChildren(int id, List<Resource> list ){
-        List<ResourceComponent> childList = new ArrayList<>();
+        Map<Integer, List<Resource>> childrenMap = new HashMap<>();
         for (Resource resource : list) {
-            if (id == resource.getPid()){
+            childrenMap.computeIfAbsent(resource.getPid(), k -> new ArrayList<>()).add(resource);
+        }
+        return setChildren(id, childrenMap, new HashSet<>());
+    }
+
+    /**
+     * set children from the pid index
+     * @param id            id
+     * @param childrenMap   pid -> resources
+     * @param visited       ids already added to the tree
+     * @return resource component list
+     */
+    private static List<ResourceComponent> setChildren(int id, Map<Integer, List<Resource>> childrenMap, Set<Integer> visited) {
+        List<ResourceComponent> childList = new ArrayList<>();
+        for (Resource resource : childrenMap.getOrDefault(id, Collections.emptyList())) {
+            if (visited.add(resource.getId())) {
                 ResourceComponent tempResourceComponent = getResourceComponent(resource);
+                tempResourceComponent.setChildren(setChildren(resource.getId(), childrenMap, visited));
                 childList.add(tempResourceComponent);
             }
         }
-        for (ResourceComponent resourceComponent : childList) {
-            resourceComponent.setChildren(setChildren(resourceComponent.getId(),list));
-        }
-        if (childList.size()==0){
-            return new ArrayList<>();
-        }
         return childList;
     }
 
@@ -93,17 +122,13 @@ public class ResourceTreeVisitor implements Visitor{
      * @return true if it is the root node
      */
     public boolean rootNode(Resource resource) {
-
-        boolean isRootNode = true;
-        if(resource.getPid() != -1 ){
-            for (Resource parent : resourceList) {
-                if (resource.getPid() == parent.getId()) {
-                    isRootNode = false;
-                    break;
-                }
-            }
+        if (resource.getPid() == -1) {
+            return true;
+        }
+        if (resourceIds == null) {
+            resourceIds = resourceList.stream().map(Resource::getId).collect(Collectors.toSet());
         }
-        return isRootNode;
+        return !resourceIds.contains(resource.getPid());
     }
 
     /**
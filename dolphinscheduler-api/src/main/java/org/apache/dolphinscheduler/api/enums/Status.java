@@ -253,6 +253,8 @@ public enum Status {
     EXPORT_PROCESS_DEFINE_BY_ID_ERROR(50028, "export process definition by id error", "导出工作流定义错误"),
     BATCH_EXPORT_PROCESS_DEFINE_BY_IDS_ERROR(50028,"batch export process definition by ids error", "批量导出工作流定义错误"),
     IMPORT_PROCESS_DEFINE_ERROR(50029, "import process definition error", "导入工作流定义错误"),
+    PROCESS_DEFINITION_SUB_PROCESS_CYCLE(50030, "sub process of process definition [{0}] refers to its parent process", "工作流定义[{0}]的子流程存在循环引用"),
+    PROCESS_DEFINITION_SUB_PROCESS_TOO_MANY(50031, "process definition [{0}] has more than {1} sub processes", "工作流定义[{0}]的子流程数量超过{1}个"),
 
     HDFS_NOT_STARTUP(60001, "hdfs not startup", "hdfs未启用"),
 
@@ -261,6 +263,7 @@ public enum Status {
      */
     QUERY_DATABASE_STATE_ERROR(70001, "query database state error", "查询数据库状态错误"),
     QUERY_ZOOKEEPER_STATE_ERROR(70002, "query zookeeper state error", "查询zookeeper状态错误"),
+    QUERY_AUTHENTICATION_CACHE_STATS_ERROR(70003, "query authentication cache stats error", "查询认证缓存统计错误"),
 
 
     CREATE_ACCESS_TOKEN_ERROR(70010, "create access token error", "创建访问token错误"),
@@ -21,6 +21,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.httpclient.HttpStatus;
 import org.apache.commons.lang.StringUtils;
+import org.apache.dolphinscheduler.api.cache.AuthenticationCache;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.security.Authenticator;
 import org.apache.dolphinscheduler.common.Constants;
@@ -44,6 +45,9 @@ public class LoginHandlerInterceptor implements HandlerInterceptor {
   @Autowired
   private Authenticator authenticator;
 
+  @Autowired
+  private AuthenticationCache authenticationCache;
+
   /**
    * Intercept the execution of a handler. Called after HandlerMapping determined
    * @param request   current HTTP request
@@ -66,7 +70,7 @@ public class LoginHandlerInterceptor implements HandlerInterceptor {
         return false;
       }
     }else {
-       user = userMapper.queryUserByToken(token);
+      user = authenticationCache.getTokenUser(token, userMapper::queryUserByToken);
       if (user == null) {
         response.setStatus(HttpStatus.SC_UNAUTHORIZED);
         logger.info("user token has expired");
@@ -17,6 +17,7 @@
 
 package org.apache.dolphinscheduler.api.security.impl;
 
+import org.apache.dolphinscheduler.api.cache.AuthenticationCache;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.security.Authenticator;
 import org.apache.dolphinscheduler.api.service.SessionService;
@@ -43,6 +44,8 @@ public abstract class AbstractAuthenticator implements Authenticator {
     private UsersService userService;
     @Autowired
     private SessionService sessionService;
+    @Autowired
+    private AuthenticationCache authenticationCache;
 
     /**
      * user login and return user in db
@@ -87,13 +90,20 @@ public abstract class AbstractAuthenticator implements Authenticator {
 
     @Override
     public User getAuthUser(HttpServletRequest request) {
-        Session session = sessionService.getSession(request);
-        if (session == null) {
+        String sessionId = sessionService.getSessionId(request);
+        if (sessionId == null) {
             logger.info("session info is null ");
             return null;
         }
-        //get user object from session
-        return userService.queryUser(session.getUserId());
+        return authenticationCache.getSessionUser(sessionId, id -> {
+            Session session = sessionService.getSession(request);
+            if (session == null) {
+                logger.info("session info is null ");
+                return null;
+            }
+            //get user object from session
+            return userService.queryUser(session.getUserId());
+        });
     }
 
 }
@@ -59,6 +59,14 @@ public interface MonitorService {
      * @return worker information list
      */
     Map<String,Object> queryWorker(User loginUser);
+
+    /**
+     * query authentication cache statistics
+     *
+     * @param loginUser login user
+     * @return session and token cache statistics
+     */
+    Map<String,Object> queryAuthenticationCacheStats(User loginUser);
     
     List<Server> getServerListFromZK(boolean isMaster);
 }
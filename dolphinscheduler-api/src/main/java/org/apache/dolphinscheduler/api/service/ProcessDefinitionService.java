@@ -212,11 +212,13 @@ public interface ProcessDefinitionService {
      * @param loginUser login user
      * @param file process metadata json file
      * @param currentProjectName current project name
+     * @param skipCount number of process definitions at the beginning of the file to skip
      * @return import process
      */
     Map<String, Object> importProcessDefinition(User loginUser,
                                                 MultipartFile file,
-                                                String currentProjectName);
+                                                String currentProjectName,
+                                                int skipCount);
 
     /**
      * check the process definition node meets the specifications
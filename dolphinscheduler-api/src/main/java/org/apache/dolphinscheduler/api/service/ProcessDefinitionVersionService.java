@@ -21,6 +21,7 @@ import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinitionVersion;
 import org.apache.dolphinscheduler.dao.entity.User;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -36,6 +37,13 @@ public interface ProcessDefinitionVersionService {
      */
     long addProcessDefinitionVersion(ProcessDefinition processDefinition);
 
+    /**
+     * add the first version of new process definitions in one statement
+     *
+     * @param processDefinitions new process definitions with their ids
+     */
+    void addFirstProcessDefinitionVersions(List<ProcessDefinition> processDefinitions);
+
     /**
      * query the pagination versions info by one certain process definition id
      *
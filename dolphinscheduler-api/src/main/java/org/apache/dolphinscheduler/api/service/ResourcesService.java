@@ -108,6 +108,16 @@ public interface ResourcesService {
      */
     Map<String, Object> queryResourceList(User loginUser, ResourceType type);
 
+    /**
+     * query the direct children of a directory
+     *
+     * @param loginUser login user
+     * @param type resource type
+     * @param pid directory id, -1 for the top level
+     * @return resource list
+     */
+    Map<String, Object> queryResourceChildren(User loginUser, ResourceType type, int pid);
+
     /**
      * query resource list by program type
      *
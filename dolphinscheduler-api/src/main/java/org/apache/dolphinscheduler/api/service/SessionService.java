@@ -35,6 +35,14 @@ public interface SessionService {
    */
   Session getSession(HttpServletRequest request);
 
+  /**
+   * get session id from request header or cookie
+   *
+   * @param request request
+   * @return session id, null if absent
+   */
+  String getSessionId(HttpServletRequest request);
+
   /**
    * create session
    *
@@ -177,6 +177,46 @@ public interface UsersService {
      */
     Map<String, Object> grantDataSource(User loginUser, int userId, String datasourceIds);
 
+    /**
+     * grant projects to many users
+     *
+     * @param loginUser login user
+     * @param userIds user id list, separated by comma
+     * @param projectIds project id list, separated by comma
+     * @return grant result of each user
+     */
+    Map<String, Object> batchGrantProject(User loginUser, String userIds, String projectIds);
+
+    /**
+     * grant resources to many users
+     *
+     * @param loginUser login user
+     * @param userIds user id list, separated by comma
+     * @param resourceIds resource id list
+     * @return grant result of each user
+     */
+    Map<String, Object> batchGrantResources(User loginUser, String userIds, String resourceIds);
+
+    /**
+     * grant udf functions to many users
+     *
+     * @param loginUser login user
+     * @param userIds user id list, separated by comma
+     * @param udfIds udf id list, separated by comma
+     * @return grant result of each user
+     */
+    Map<String, Object> batchGrantUDFFunction(User loginUser, String userIds, String udfIds);
+
+    /**
+     * grant data sources to many users
+     *
+     * @param loginUser login user
+     * @param userIds user id list, separated by comma
+     * @param datasourceIds data source id list, separated by comma
+     * @return grant result of each user
+     */
+    Map<String, Object> batchGrantDataSource(User loginUser, String userIds, String datasourceIds);
+
     /**
      * query user info
      *
@@ -17,6 +17,9 @@
 
 package org.apache.dolphinscheduler.api.service;
 
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -29,4 +32,25 @@ public interface WorkFlowLineageService {
 
     Map<String, Object> queryWorkFlowLineageByIds(Set<Integer> ids,int projectId);
 
+    /**
+     * rebuild the lineage edges of the process definition from its json
+     *
+     * @param processDefinition process definition
+     */
+    void updateProcessLineage(ProcessDefinition processDefinition);
+
+    /**
+     * add the lineage edges of new process definitions in one statement
+     *
+     * @param processDefinitions new process definitions with their ids
+     */
+    void addProcessLineages(List<ProcessDefinition> processDefinitions);
+
+    /**
+     * delete the lineage edges of the process definition
+     *
+     * @param processDefinitionId process definition id
+     */
+    void deleteProcessLineage(int processDefinitionId);
+
 }
@@ -17,6 +17,7 @@
 
 package org.apache.dolphinscheduler.api.service.impl;
 
+import org.apache.dolphinscheduler.api.cache.AuthenticationCache;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.AccessTokenService;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
@@ -51,6 +52,9 @@ public class AccessTokenServiceImpl extends BaseServiceImpl implements AccessTok
     @Autowired
     private AccessTokenMapper accessTokenMapper;
 
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
     /**
      * query access token list
      *
@@ -164,6 +168,7 @@ public class AccessTokenServiceImpl extends BaseServiceImpl implements AccessTok
         }
 
         accessTokenMapper.deleteById(id);
+        authenticationCache.invalidateToken(accessToken.getToken());
         putMsg(result, Status.SUCCESS);
         return result;
     }
@@ -190,12 +195,14 @@ public class AccessTokenServiceImpl extends BaseServiceImpl implements AccessTok
             putMsg(result, Status.ACCESS_TOKEN_NOT_EXIST);
             return result;
         }
+        String originToken = accessToken.getToken();
         accessToken.setUserId(userId);
         accessToken.setExpireTime(DateUtils.stringToDate(expireTime));
         accessToken.setToken(token);
         accessToken.setUpdateTime(new Date());
 
         accessTokenMapper.updateById(accessToken);
+        authenticationCache.invalidateToken(originToken);
 
         putMsg(result, Status.SUCCESS);
         return result;
@@ -34,6 +34,7 @@ import org.apache.dolphinscheduler.dao.entity.DataSource;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.DataSourceMapper;
 import org.apache.dolphinscheduler.dao.mapper.DataSourceUserMapper;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
 
 import java.sql.Connection;
 import java.util.ArrayList;
@@ -79,6 +80,9 @@ public class DataSourceServiceImpl extends BaseServiceImpl implements DataSource
     @Autowired
     private DataSourceUserMapper datasourceUserMapper;
 
+    @Autowired
+    private AuthorizationCache authorizationCache;
+
     /**
      * create data source
      *
@@ -116,6 +120,7 @@ public class DataSourceServiceImpl extends BaseServiceImpl implements DataSource
         dataSource.setCreateTime(now);
         dataSource.setUpdateTime(now);
         dataSourceMapper.insert(dataSource);
+        authorizationCache.invalidateUser(loginUser.getId());
 
         putMsg(result, Status.SUCCESS);
 
@@ -575,6 +580,7 @@ public class DataSourceServiceImpl extends BaseServiceImpl implements DataSource
             }
             dataSourceMapper.deleteById(datasourceId);
             datasourceUserMapper.deleteByDatasourceId(datasourceId);
+            authorizationCache.invalidateAll();
             putMsg(result, Status.SUCCESS);
         } catch (Exception e) {
             logger.error("delete datasource error", e);
@@ -19,6 +19,7 @@ package org.apache.dolphinscheduler.api.service.impl;
 
 import static org.apache.dolphinscheduler.common.utils.Preconditions.checkNotNull;
 
+import org.apache.dolphinscheduler.api.cache.AuthenticationCache;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.MonitorService;
 import org.apache.dolphinscheduler.api.utils.ZookeeperMonitor;
@@ -54,6 +55,9 @@ public class MonitorServiceImpl extends BaseServiceImpl implements MonitorServic
     @Autowired
     private MonitorDBDao monitorDBDao;
 
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
     /**
      * query database state
      *
@@ -154,6 +158,25 @@ public class MonitorServiceImpl extends BaseServiceImpl implements MonitorServic
         return result;
     }
 
+    /**
+     * query authentication cache statistics
+     *
+     * @param loginUser login user
+     * @return session and token cache statistics
+     */
+    @Override
+    public Map<String,Object> queryAuthenticationCacheStats(User loginUser) {
+        Map<String, Object> result = new HashMap<>();
+        if (isNotAdmin(loginUser, result)) {
+            return result;
+        }
+
+        result.put(Constants.DATA_LIST, authenticationCache.getStats());
+        putMsg(result, Status.SUCCESS);
+
+        return result;
+    }
+
     @Override
     public List<Server> getServerListFromZK(boolean isMaster) {
 
@@ -19,6 +19,7 @@ package org.apache.dolphinscheduler.api.service.impl;
 
 import static org.apache.dolphinscheduler.common.Constants.CMD_PARAM_SUB_PROCESS_DEFINE_ID;
 
+import org.apache.dolphinscheduler.api.cache.TreeViewCache;
 import org.apache.dolphinscheduler.api.dto.ProcessMeta;
 import org.apache.dolphinscheduler.api.dto.treeview.Instance;
 import org.apache.dolphinscheduler.api.dto.treeview.TreeViewDto;
@@ -28,8 +29,8 @@ import org.apache.dolphinscheduler.api.service.ProcessDefinitionVersionService;
 import org.apache.dolphinscheduler.api.service.ProcessInstanceService;
 import org.apache.dolphinscheduler.api.service.ProjectService;
 import org.apache.dolphinscheduler.api.service.SchedulerService;
+import org.apache.dolphinscheduler.api.service.WorkFlowLineageService;
 import org.apache.dolphinscheduler.api.utils.CheckUtils;
-import org.apache.dolphinscheduler.api.utils.FileUtils;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
 import org.apache.dolphinscheduler.api.utils.exportprocess.ProcessAddTaskParam;
 import org.apache.dolphinscheduler.api.utils.exportprocess.TaskNodeParamFactory;
@@ -71,24 +72,24 @@ import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.utils.DagHelper;
 import org.apache.dolphinscheduler.service.permission.PermissionCheck;
 import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.apache.dolphinscheduler.service.process.SubProcessClosure;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
@@ -97,14 +98,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.Lists;
 
 /**
  * process definition service impl
@@ -120,6 +126,16 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
 
     private static final String TASKS = "tasks";
 
+    /**
+     * process definitions read from the db and written to the export file at a time
+     */
+    private static final int EXPORT_BATCH_SIZE = 100;
+
+    /**
+     * process definitions imported in one transaction
+     */
+    private static final int IMPORT_BATCH_SIZE = 100;
+
     @Autowired
     private ProjectMapper projectMapper;
 
@@ -147,6 +163,15 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
     @Autowired
     private SchedulerService schedulerService;
 
+    @Autowired
+    private WorkFlowLineageService workFlowLineageService;
+
+    @Autowired
+    private TreeViewCache treeViewCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     /**
      * create process definition
      *
@@ -178,6 +203,51 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         }
 
         ProcessDefinition processDefine = new ProcessDefinition();
+        Map<String, Object> checkProcessResult = buildProcessDefinition(loginUser, project, name, processDefinitionJson,
+                desc, locations, connects, processDefine);
+        if (checkProcessResult.get(Constants.STATUS) != Status.SUCCESS) {
+            return checkProcessResult;
+        }
+
+        // save the new process definition
+        processDefineMapper.insert(processDefine);
+
+        // add process definition version
+        long version = processDefinitionVersionService.addProcessDefinitionVersion(processDefine);
+
+        processDefine.setVersion(version);
+
+        processDefineMapper.updateVersionByProcessDefinitionId(processDefine.getId(), version);
+
+        workFlowLineageService.updateProcessLineage(processDefine);
+
+        // return processDefinition object with ID
+        result.put(Constants.DATA_LIST, processDefine.getId());
+        putMsg(result, Status.SUCCESS);
+        return result;
+    }
+
+    /**
+     * check the json of a new process definition and fill the process definition with it
+     *
+     * @param loginUser login user
+     * @param project project
+     * @param name process definition name
+     * @param processDefinitionJson process definition json
+     * @param desc description
+     * @param locations locations for nodes
+     * @param connects connects for nodes
+     * @param processDefine process definition to fill
+     * @return check result code
+     */
+    private Map<String, Object> buildProcessDefinition(User loginUser,
+                                                       Project project,
+                                                       String name,
+                                                       String processDefinitionJson,
+                                                       String desc,
+                                                       String locations,
+                                                       String connects,
+                                                       ProcessDefinition processDefine) {
         Date now = new Date();
 
         ProcessData processData = JSONUtils.parseObject(processDefinitionJson, ProcessData.class);
@@ -185,6 +255,10 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         if (checkProcessJson.get(Constants.STATUS) != Status.SUCCESS) {
             return checkProcessJson;
         }
+        Map<String, Object> checkSubProcess = checkSubProcessClosure(0, name, processData);
+        if (checkSubProcess.get(Constants.STATUS) != Status.SUCCESS) {
+            return checkSubProcess;
+        }
 
         processDefine.setName(name);
         processDefine.setReleaseState(ReleaseState.OFFLINE);
@@ -209,21 +283,7 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         processDefine.setCreateTime(now);
         processDefine.setUpdateTime(now);
         processDefine.setFlag(Flag.YES);
-
-        // save the new process definition
-        processDefineMapper.insert(processDefine);
-
-        // add process definition version
-        long version = processDefinitionVersionService.addProcessDefinitionVersion(processDefine);
-
-        processDefine.setVersion(version);
-
-        processDefineMapper.updateVersionByProcessDefinitionId(processDefine.getId(), version);
-
-        // return processDefinition object with ID
-        result.put(Constants.DATA_LIST, processDefine.getId());
-        putMsg(result, Status.SUCCESS);
-        return result;
+        return checkSubProcess;
     }
 
     /**
@@ -414,6 +474,10 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         if ((checkProcessJson.get(Constants.STATUS) != Status.SUCCESS)) {
             return checkProcessJson;
         }
+        Map<String, Object> checkSubProcess = checkSubProcessClosure(id, name, processData);
+        if (checkSubProcess.get(Constants.STATUS) != Status.SUCCESS) {
+            return checkSubProcess;
+        }
         ProcessDefinition processDefine = processService.findProcessDefineById(id);
         // check process definition exists
         if (processDefine == null) {
@@ -467,6 +531,7 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         processDefine.setVersion(version);
 
         if (processDefineMapper.updateById(processDefine) > 0) {
+            workFlowLineageService.updateProcessLineage(processDefine);
             putMsg(result, Status.SUCCESS);
             result.put(Constants.DATA_LIST, processDefineMapper.queryByDefineId(id));
         } else {
@@ -568,6 +633,7 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         int delete = processDefineMapper.deleteById(processDefinitionId);
 
         if (delete > 0) {
+            workFlowLineageService.deleteProcessLineage(processDefinitionId);
             putMsg(result, Status.SUCCESS);
         } else {
             putMsg(result, Status.DELETE_PROCESS_DEFINE_BY_ID_ERROR);
@@ -622,10 +688,12 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
 
                 processDefinition.setReleaseState(releaseState);
                 processDefineMapper.updateById(processDefinition);
+                workFlowLineageService.updateProcessLineage(processDefinition);
                 break;
             case OFFLINE:
                 processDefinition.setReleaseState(releaseState);
                 processDefineMapper.updateById(processDefinition);
+                workFlowLineageService.updateProcessLineage(processDefinition);
                 List<Schedule> scheduleList = scheduleMapper.selectAllByProcessDefineArray(
                         new int[]{processDefinition.getId()}
                 );
@@ -668,63 +736,69 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
             return;
         }
 
-        List<ProcessMeta> processDefinitionList =
-                getProcessDefinitionList(processDefinitionIds);
-
-        if (CollectionUtils.isNotEmpty(processDefinitionList)) {
-            downloadProcessDefinitionFile(response, processDefinitionList);
-        }
+        downloadProcessDefinitionFile(response, project, processDefinitionIds);
     }
 
     /**
-     * get process definition list by ids
+     * write the process definitions to the response, they are read and written in batches so that
+     * only one batch is held in memory
      */
-    private List<ProcessMeta> getProcessDefinitionList(String processDefinitionIds) {
-        List<ProcessMeta> processDefinitionList = new ArrayList<>();
-        String[] processDefinitionIdArray = processDefinitionIds.split(",");
-        for (String strProcessDefinitionId : processDefinitionIdArray) {
-            //get workflow info
-            int processDefinitionId = Integer.parseInt(strProcessDefinitionId);
-            ProcessDefinition processDefinition = processDefineMapper.queryByDefineId(processDefinitionId);
-            if (null != processDefinition) {
-                processDefinitionList.add(exportProcessMetaData(processDefinitionId, processDefinition));
-            }
+    private void downloadProcessDefinitionFile(HttpServletResponse response, Project project, String processDefinitionIds) {
+        List<Integer> processDefinitionIdList = new ArrayList<>();
+        for (String strProcessDefinitionId : processDefinitionIds.split(",")) {
+            processDefinitionIdList.add(Integer.parseInt(strProcessDefinitionId));
         }
 
-        return processDefinitionList;
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        try (JsonGenerator generator = JSONUtils.createGenerator(new BufferedOutputStream(response.getOutputStream()))) {
+            generator.writeStartArray();
+            for (List<Integer> ids : Lists.partition(processDefinitionIdList, EXPORT_BATCH_SIZE)) {
+                for (ProcessMeta processMeta : getProcessMetaList(project, ids)) {
+                    generator.writeObject(processMeta);
+                }
+                generator.flush();
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            logger.warn("export process fail", e);
+        }
     }
 
     /**
-     * download the process definition file
+     * get the export metadata of the process definitions of a project
+     *
+     * @param project project
+     * @param processDefinitionIds process definition ids
+     * @return process metadata list in the order of the ids
      */
-    private void downloadProcessDefinitionFile(HttpServletResponse response, List<ProcessMeta> processDefinitionList) {
-        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
-        BufferedOutputStream buff = null;
-        ServletOutputStream out = null;
-        try {
-            out = response.getOutputStream();
-            buff = new BufferedOutputStream(out);
-            buff.write(JSONUtils.toJsonString(processDefinitionList).getBytes(StandardCharsets.UTF_8));
-            buff.flush();
-            buff.close();
-        } catch (IOException e) {
-            logger.warn("export process fail", e);
-        } finally {
-            if (null != buff) {
-                try {
-                    buff.close();
-                } catch (Exception e) {
-                    logger.warn("export process buffer not close", e);
-                }
+    private List<ProcessMeta> getProcessMetaList(Project project, List<Integer> processDefinitionIds) {
+        Map<Integer, ProcessDefinition> processDefinitionMap = new HashMap<>();
+        for (ProcessDefinition processDefinition
+                : processDefineMapper.queryDefinitionListByIdList(processDefinitionIds.toArray(new Integer[0]))) {
+            // only the process definitions of the checked project are exported
+            if (processDefinition.getProjectId() == project.getId()) {
+                processDefinitionMap.put(processDefinition.getId(), processDefinition);
             }
-            if (null != out) {
-                try {
-                    out.close();
-                } catch (Exception e) {
-                    logger.warn("export process output stream not close", e);
-                }
+        }
+        if (processDefinitionMap.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Integer, Schedule> scheduleMap = new HashMap<>();
+        int[] ids = processDefinitionMap.keySet().stream().mapToInt(Integer::intValue).toArray();
+        for (Schedule schedule : scheduleMapper.selectAllByProcessDefineArray(ids)) {
+            scheduleMap.putIfAbsent(schedule.getProcessDefinitionId(), schedule);
+        }
+
+        List<ProcessMeta> processMetaList = new ArrayList<>(processDefinitionMap.size());
+        for (Integer processDefinitionId : processDefinitionIds) {
+            ProcessDefinition processDefinition = processDefinitionMap.remove(processDefinitionId);
+            if (processDefinition != null) {
+                processDefinition.setProjectName(project.getName());
+                processMetaList.add(exportProcessMetaData(processDefinition, scheduleMap.get(processDefinitionId)));
             }
         }
+        return processMetaList;
     }
 
     /**
@@ -747,6 +821,18 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
      * @return export process metadata string
      */
     public ProcessMeta exportProcessMetaData(Integer processDefinitionId, ProcessDefinition processDefinition) {
+        List<Schedule> schedules = scheduleMapper.queryByProcessDefinitionId(processDefinitionId);
+        return exportProcessMetaData(processDefinition, schedules.isEmpty() ? null : schedules.get(0));
+    }
+
+    /**
+     * get export process metadata
+     *
+     * @param processDefinition process definition
+     * @param schedule schedule of the process definition, null if it has none
+     * @return export process metadata
+     */
+    private ProcessMeta exportProcessMetaData(ProcessDefinition processDefinition, Schedule schedule) {
         //correct task param which has data source or dependent param
         String correctProcessDefinitionJson = addExportTaskNodeSpecialParam(processDefinition.getProcessDefinitionJson());
         processDefinition.setProcessDefinitionJson(correctProcessDefinitionJson);
@@ -761,9 +847,7 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         exportProcessMeta.setProcessDefinitionConnects(processDefinition.getConnects());
 
         //schedule info
-        List<Schedule> schedules = scheduleMapper.queryByProcessDefinitionId(processDefinitionId);
-        if (!schedules.isEmpty()) {
-            Schedule schedule = schedules.get(0);
+        if (schedule != null) {
             exportProcessMeta.setScheduleWarningType(schedule.getWarningType().toString());
             exportProcessMeta.setScheduleWarningGroupId(schedule.getWarningGroupId());
             exportProcessMeta.setScheduleStartTime(DateUtils.dateToString(schedule.getStartTime()));
@@ -814,117 +898,173 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
     }
 
     /**
-     * import process definition
+     * import process definition.
+     * the file is read one process definition at a time and imported in batches, each batch in its own transaction,
+     * so an import that fails can be resumed by skipping the definitions imported before
      *
      * @param loginUser login user
      * @param file process metadata json file
      * @param currentProjectName current project name
-     * @return import process
+     * @param skipCount number of process definitions at the beginning of the file to skip
+     * @return import process, with the number of process definitions of the file imported so far
      */
     @Override
-    @Transactional(rollbackFor = RuntimeException.class)
-    public Map<String, Object> importProcessDefinition(User loginUser, MultipartFile file, String currentProjectName) {
+    public Map<String, Object> importProcessDefinition(User loginUser, MultipartFile file, String currentProjectName, int skipCount) {
         Map<String, Object> result = new HashMap<>();
-        String processMetaJson = FileUtils.file2String(file);
-        List<ProcessMeta> processMetaList = JSONUtils.toList(processMetaJson, ProcessMeta.class);
+        Project targetProject = projectMapper.queryByName(currentProjectName);
+        Map<String, Object> checkResult = projectService.checkProjectAndAuth(loginUser, targetProject, currentProjectName);
+        if (checkResult.get(Constants.STATUS) != Status.SUCCESS) {
+            return checkResult;
+        }
+        // the names are checked in memory instead of by a query per process definition
+        Set<String> processDefinitionNames = new HashSet<>(processDefineMapper.queryDefineNameListByProjectId(targetProject.getId()));
+        // plain names of the imported process definitions, which are inserted with an import suffix
+        Set<String> reservedNames = new HashSet<>();
+
+        // process definitions read from the file and the ones of them imported or skipped
+        int readCount = 0;
+        int importedCount = 0;
+        List<ProcessMeta> processMetaList = new ArrayList<>(IMPORT_BATCH_SIZE);
+        try (InputStream in = file.getInputStream(); JsonParser parser = JSONUtils.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                putMsg(result, Status.DATA_IS_NULL, "fileContent");
+                return result;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                readCount++;
+                if (readCount <= skipCount) {
+                    parser.skipChildren();
+                    importedCount = readCount;
+                    continue;
+                }
+                processMetaList.add(parser.readValueAs(ProcessMeta.class));
+                if (processMetaList.size() < IMPORT_BATCH_SIZE) {
+                    continue;
+                }
+                if (!importProcessDefinitionBatch(loginUser, targetProject, processMetaList, processDefinitionNames, reservedNames, result)) {
+                    result.put(Constants.DATA_LIST, importedCount);
+                    return result;
+                }
+                importedCount = readCount;
+                processMetaList.clear();
+                logger.info("import process definition, project: {}, imported: {}", currentProjectName, importedCount);
+            }
+        } catch (IOException e) {
+            logger.error("import process meta json data: {}", e.getMessage(), e);
+            if (readCount == 0) {
+                putMsg(result, Status.DATA_IS_NULL, "fileContent");
+            } else {
+                putMsg(result, Status.IMPORT_PROCESS_DEFINE_ERROR);
+                result.put(Constants.DATA_LIST, importedCount);
+            }
+            return result;
+        }
 
         //check file content
-        if (CollectionUtils.isEmpty(processMetaList)) {
+        if (readCount == 0) {
             putMsg(result, Status.DATA_IS_NULL, "fileContent");
             return result;
         }
-
-        for (ProcessMeta processMeta : processMetaList) {
-
-            if (!checkAndImportProcessDefinition(loginUser, currentProjectName, result, processMeta)) {
-                return result;
-            }
+        if (!processMetaList.isEmpty()
+                && !importProcessDefinitionBatch(loginUser, targetProject, processMetaList, processDefinitionNames, reservedNames, result)) {
+            result.put(Constants.DATA_LIST, importedCount);
+            return result;
         }
-
+        logger.info("import process definition, project: {}, imported: {}", currentProjectName, readCount);
+        result.put(Constants.DATA_LIST, readCount);
+        putMsg(result, Status.SUCCESS);
         return result;
     }
 
     /**
-     * check and import process definition
+     * import a batch of process definitions in one transaction
+     *
+     * @return true if the batch is imported, otherwise nothing of it is
      */
-    private boolean checkAndImportProcessDefinition(User loginUser, String currentProjectName, Map<String, Object> result, ProcessMeta processMeta) {
-
-        if (!checkImportanceParams(processMeta, result)) {
-            return false;
-        }
-
-        //deal with process name
-        String processDefinitionName = processMeta.getProcessDefinitionName();
-        //use currentProjectName to query
-        Project targetProject = projectMapper.queryByName(currentProjectName);
-        if (null != targetProject) {
-            processDefinitionName = recursionProcessDefinitionName(targetProject.getId(),
-                    processDefinitionName, 1);
-        }
-
-        //unique check
-        Map<String, Object> checkResult = verifyProcessDefinitionName(loginUser, currentProjectName, processDefinitionName);
-        Status status = (Status) checkResult.get(Constants.STATUS);
-        if (Status.SUCCESS.equals(status)) {
-            putMsg(result, Status.SUCCESS);
-        } else {
-            result.putAll(checkResult);
-            return false;
-        }
-
-        // get create process result
-        Map<String, Object> createProcessResult =
-                getCreateProcessResult(loginUser,
-                        currentProjectName,
-                        result,
-                        processMeta,
-                        processDefinitionName,
-                        addImportTaskNodeParam(loginUser, processMeta.getProcessDefinitionJson(), targetProject));
-
-        if (createProcessResult == null) {
+    private boolean importProcessDefinitionBatch(User loginUser,
+                                                 Project targetProject,
+                                                 List<ProcessMeta> processMetaList,
+                                                 Set<String> processDefinitionNames,
+                                                 Set<String> reservedNames,
+                                                 Map<String, Object> result) {
+        try {
+            Boolean imported = transactionTemplate.execute(status -> {
+                if (checkAndImportProcessDefinitions(loginUser, targetProject, processMetaList, processDefinitionNames, reservedNames, result)) {
+                    return true;
+                }
+                status.setRollbackOnly();
+                return false;
+            });
+            return Boolean.TRUE.equals(imported);
+        } catch (Exception e) {
+            logger.error("import process meta json data: {}", e.getMessage(), e);
+            putMsg(result, Status.IMPORT_PROCESS_DEFINE_ERROR);
             return false;
         }
-
-        //create process definition
-        Integer processDefinitionId =
-                Objects.isNull(createProcessResult.get(Constants.DATA_LIST))
-                        ? null : Integer.parseInt(createProcessResult.get(Constants.DATA_LIST).toString());
-
-        //scheduler param
-        return getImportProcessScheduleResult(loginUser,
-                currentProjectName,
-                result,
-                processMeta,
-                processDefinitionName,
-                processDefinitionId);
-
     }
 
     /**
-     * get create process result
+     * check and import process definitions, the definitions, their versions and lineages are inserted in bulk
+     *
+     * @param processDefinitionNames names of the process definitions of the target project, including the inserted ones
+     * @param reservedNames plain names taken by the imported process definitions
      */
-    private Map<String, Object> getCreateProcessResult(User loginUser,
-                                                       String currentProjectName,
-                                                       Map<String, Object> result,
-                                                       ProcessMeta processMeta,
-                                                       String processDefinitionName,
-                                                       String importProcessParam) {
-        Map<String, Object> createProcessResult = null;
-        try {
-            createProcessResult = createProcessDefinition(loginUser
-                    , currentProjectName,
-                    processDefinitionName + "_import_" + DateUtils.getCurrentTimeStamp(),
-                    importProcessParam,
+    private boolean checkAndImportProcessDefinitions(User loginUser,
+                                                     Project targetProject,
+                                                     List<ProcessMeta> processMetaList,
+                                                     Set<String> processDefinitionNames,
+                                                     Set<String> reservedNames,
+                                                     Map<String, Object> result) {
+        List<ProcessDefinition> processDefinitions = new ArrayList<>(processMetaList.size());
+        for (ProcessMeta processMeta : processMetaList) {
+            if (!checkImportanceParams(processMeta, result)) {
+                return false;
+            }
+
+            //deal with process name
+            String processDefinitionName = getUniqueProcessDefinitionName(processDefinitionNames, reservedNames, processMeta.getProcessDefinitionName());
+            String importProcessDefinitionName = processDefinitionName + "_import_" + DateUtils.getCurrentTimeStamp();
+            // the plain name is reserved, so that definitions of the same name imported in the same millisecond differ,
+            // but only the inserted name is a process definition of the project when looking for sub processes
+            reservedNames.add(processDefinitionName);
+            processDefinitionNames.add(importProcessDefinitionName);
+
+            ProcessDefinition processDefinition = new ProcessDefinition();
+            Map<String, Object> checkResult = buildProcessDefinition(loginUser,
+                    targetProject,
+                    importProcessDefinitionName,
+                    addImportTaskNodeParam(loginUser, processMeta.getProcessDefinitionJson(), targetProject, processDefinitionNames),
                     processMeta.getProcessDefinitionDescription(),
                     processMeta.getProcessDefinitionLocations(),
-                    processMeta.getProcessDefinitionConnects());
-            putMsg(result, Status.SUCCESS);
-        } catch (Exception e) {
-            logger.error("import process meta json data: {}", e.getMessage(), e);
-            putMsg(result, Status.IMPORT_PROCESS_DEFINE_ERROR);
+                    processMeta.getProcessDefinitionConnects(),
+                    processDefinition);
+            if (checkResult.get(Constants.STATUS) != Status.SUCCESS) {
+                result.putAll(checkResult);
+                return false;
+            }
+            // a new process definition starts from the first version
+            processDefinition.setVersion(1);
+            processDefinitions.add(processDefinition);
         }
 
-        return createProcessResult;
+        processDefineMapper.batchInsert(processDefinitions);
+        processDefinitionVersionService.addFirstProcessDefinitionVersions(processDefinitions);
+        workFlowLineageService.addProcessLineages(processDefinitions);
+
+        //scheduler param
+        for (int i = 0; i < processMetaList.size(); i++) {
+            ProcessDefinition processDefinition = processDefinitions.get(i);
+            if (!getImportProcessScheduleResult(loginUser,
+                    targetProject.getName(),
+                    result,
+                    processMetaList.get(i),
+                    processDefinition.getName(),
+                    processDefinition.getId())) {
+                return false;
+            }
+        }
+        putMsg(result, Status.SUCCESS);
+        return true;
     }
 
     /**
@@ -977,9 +1117,10 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
      * @param loginUser login user
      * @param processDefinitionJson process definition json
      * @param targetProject target project
+     * @param processDefinitionNames names of the process definitions of the target project
      * @return import process param
      */
-    private String addImportTaskNodeParam(User loginUser, String processDefinitionJson, Project targetProject) {
+    private String addImportTaskNodeParam(User loginUser, String processDefinitionJson, Project targetProject, Set<String> processDefinitionNames) {
         ObjectNode jsonObject = JSONUtils.parseObject(processDefinitionJson);
         ArrayNode jsonArray = (ArrayNode) jsonObject.get(TASKS);
         //add sql and dependent param
@@ -1000,7 +1141,7 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
                 .collect(Collectors.toList());
 
         if (CollectionUtils.isNotEmpty(subProcessList)) {
-            importSubProcess(loginUser, targetProject, jsonArray, subProcessIdMap);
+            importSubProcess(loginUser, targetProject, jsonArray, subProcessIdMap, processDefinitionNames);
         }
 
         jsonObject.set(TASKS, jsonArray);
@@ -1068,8 +1209,10 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
      * @param targetProject target project
      * @param jsonArray process task array
      * @param subProcessIdMap correct sub process id map
+     * @param processDefinitionNames names of the process definitions of the target project
      */
-    private void importSubProcess(User loginUser, Project targetProject, ArrayNode jsonArray, Map<Integer, Integer> subProcessIdMap) {
+    private void importSubProcess(User loginUser, Project targetProject, ArrayNode jsonArray, Map<Integer, Integer> subProcessIdMap,
+                                  Set<String> processDefinitionNames) {
         for (int i = 0; i < jsonArray.size(); i++) {
             ObjectNode taskNode = (ObjectNode) jsonArray.path(i);
             String taskType = taskNode.path("type").asText();
@@ -1087,9 +1230,7 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
             }
             String subProcessJson = subProcess.getProcessDefinitionJson();
             //check current project has sub process
-            ProcessDefinition currentProjectSubProcess = processDefineMapper.queryByDefineName(targetProject.getId(), subProcess.getName());
-
-            if (null == currentProjectSubProcess) {
+            if (!processDefinitionNames.contains(subProcess.getName())) {
                 ArrayNode subJsonArray = (ArrayNode) JSONUtils.parseObject(subProcess.getProcessDefinitionJson()).get(TASKS);
 
                 List<Object> subProcessList = StreamUtils.asStream(subJsonArray.elements())
@@ -1097,7 +1238,7 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
                         .collect(Collectors.toList());
 
                 if (CollectionUtils.isNotEmpty(subProcessList)) {
-                    importSubProcess(loginUser, targetProject, subJsonArray, subProcessIdMap);
+                    importSubProcess(loginUser, targetProject, subJsonArray, subProcessIdMap, processDefinitionNames);
                     //sub process processId correct
                     if (!subProcessIdMap.isEmpty()) {
 
@@ -1132,17 +1273,15 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
                 processDefine.setFlag(subProcess.getFlag());
                 processDefine.setWarningGroupId(subProcess.getWarningGroupId());
                 processDefineMapper.insert(processDefine);
+                workFlowLineageService.updateProcessLineage(processDefine);
+                processDefinitionNames.add(processDefine.getName());
 
                 logger.info("create sub process, project: {}, process name: {}", targetProject.getName(), processDefine.getName());
 
                 //modify task node
-                ProcessDefinition newSubProcessDefine = processDefineMapper.queryByDefineName(processDefine.getProjectId(), processDefine.getName());
-
-                if (null != newSubProcessDefine) {
-                    subProcessIdMap.put(subProcessId, newSubProcessDefine.getId());
-                    subParams.put(PROCESSDEFINITIONID, newSubProcessDefine.getId());
-                    taskNode.set("params", subParams);
-                }
+                subProcessIdMap.put(subProcessId, processDefine.getId());
+                subParams.put(PROCESSDEFINITIONID, processDefine.getId());
+                taskNode.set("params", subParams);
             }
         }
     }
@@ -1200,6 +1339,32 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         return result;
     }
 
+    /**
+     * check the sub processes reachable from the process definition neither refer back to it
+     * nor exceed the max sub process num, otherwise its instances could never be started
+     *
+     * @param processDefinitionId process definition id, 0 for a new process definition
+     * @param name process definition name
+     * @param processData process data
+     * @return check result code
+     */
+    private Map<String, Object> checkSubProcessClosure(int processDefinitionId, String name, ProcessData processData) {
+        Map<String, Object> result = new HashMap<>();
+        SubProcessClosure closure = processService.buildSubProcessClosure(processDefinitionId, processData);
+        if (closure.isCyclic()) {
+            logger.error("sub process of process definition {} has cycle", name);
+            putMsg(result, Status.PROCESS_DEFINITION_SUB_PROCESS_CYCLE, name);
+            return result;
+        }
+        if (closure.getSubProcessIds().size() > Constants.MAX_SUB_PROCESS_NUM) {
+            logger.error("process definition {} has {} sub processes", name, closure.getSubProcessIds().size());
+            putMsg(result, Status.PROCESS_DEFINITION_SUB_PROCESS_TOO_MANY, name, Constants.MAX_SUB_PROCESS_NUM);
+            return result;
+        }
+        putMsg(result, Status.SUCCESS);
+        return result;
+    }
+
     /**
      * get task node details based on process definition
      *
@@ -1311,17 +1476,6 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
             putMsg(result, Status.PROCESS_DEFINE_NOT_EXIST, processDefinition);
             return result;
         }
-        DAG<String, TaskNode, TaskNodeRelation> dag = genDagGraph(processDefinition);
-        /**
-         * nodes that is running
-         */
-        Map<String, List<TreeViewDto>> runningNodeMap = new ConcurrentHashMap<>();
-
-        /**
-         * nodes that is waiting torun
-         */
-        Map<String, List<TreeViewDto>> waitingRunningNodeMap = new ConcurrentHashMap<>();
-
         /**
          * List of process instances
          */
@@ -1331,16 +1485,35 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
             processInstance.setDuration(DateUtils.format2Duration(processInstance.getStartTime(), processInstance.getEndTime()));
         }
 
-        if (limit > processInstanceList.size()) {
-            limit = processInstanceList.size();
-        }
+        List<ProcessInstance> shownProcessInstanceList = limit < processInstanceList.size()
+                ? processInstanceList.subList(0, limit) : processInstanceList;
+
+        TreeViewDto parentTreeViewDto = treeViewCache.getTreeView(processDefinition, shownProcessInstanceList,
+                () -> buildTreeView(processDefinition, shownProcessInstanceList));
+
+        result.put(Constants.DATA_LIST, parentTreeViewDto);
+        result.put(Constants.STATUS, Status.SUCCESS);
+        result.put(Constants.MSG, Status.SUCCESS.getMsg());
+        return result;
+    }
+
+    /**
+     * build the tree view of a process definition, the task instances of all shown
+     * process instances are loaded with one query
+     *
+     * @param processDefinition process definition
+     * @param processInstanceList shown process instances, latest first
+     * @return tree view
+     */
+    private TreeViewDto buildTreeView(ProcessDefinition processDefinition, List<ProcessInstance> processInstanceList) {
+        DAG<String, TaskNode, TaskNodeRelation> dag = genDagGraph(processDefinition);
 
         TreeViewDto parentTreeViewDto = new TreeViewDto();
         parentTreeViewDto.setName("DAG");
         parentTreeViewDto.setType("");
         // Specify the process definition, because it is a TreeView for a process definition
 
-        for (int i = limit - 1; i >= 0; i--) {
+        for (int i = processInstanceList.size() - 1; i >= 0; i--) {
             ProcessInstance processInstance = processInstanceList.get(i);
 
             Date endTime = processInstance.getEndTime() == null ? new Date() : processInstance.getEndTime();
@@ -1348,6 +1521,28 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
                     , processInstance.getStartTime(), endTime, processInstance.getHost(), DateUtils.format2Readable(endTime.getTime() - processInstance.getStartTime().getTime())));
         }
 
+        /**
+         * process instance id -> task name -> task instance
+         */
+        Map<Integer, Map<String, TaskInstance>> taskInstanceMap = new HashMap<>();
+        if (!processInstanceList.isEmpty()) {
+            List<Integer> processInstanceIds = processInstanceList.stream().map(ProcessInstance::getId).collect(Collectors.toList());
+            for (TaskInstance taskInstance : taskInstanceMapper.findValidTaskListByProcessIds(processInstanceIds)) {
+                taskInstanceMap.computeIfAbsent(taskInstance.getProcessInstanceId(), k -> new HashMap<>())
+                        .putIfAbsent(taskInstance.getName(), taskInstance);
+            }
+        }
+
+        /**
+         * task name -> instances, a node reached through several paths is only computed once
+         */
+        Map<String, List<Instance>> nodeInstancesMap = new HashMap<>();
+
+        /**
+         * nodes of the current level -> parent tree views
+         */
+        Map<String, List<TreeViewDto>> runningNodeMap = new LinkedHashMap<>();
+
         List<TreeViewDto> parentTreeViewDtoList = new ArrayList<>();
         parentTreeViewDtoList.add(parentTreeViewDto);
         // Here is the encapsulation task instance
@@ -1355,70 +1550,71 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
             runningNodeMap.put(startNode, parentTreeViewDtoList);
         }
 
-        while (Stopper.isRunning()) {
-            Set<String> postNodeList = null;
-            Iterator<Map.Entry<String, List<TreeViewDto>>> iter = runningNodeMap.entrySet().iterator();
-            while (iter.hasNext()) {
-                Map.Entry<String, List<TreeViewDto>> en = iter.next();
+        while (Stopper.isRunning() && !runningNodeMap.isEmpty()) {
+            /**
+             * nodes of the next level -> parent tree views
+             */
+            Map<String, List<TreeViewDto>> waitingRunningNodeMap = new LinkedHashMap<>();
+            for (Map.Entry<String, List<TreeViewDto>> en : runningNodeMap.entrySet()) {
                 String nodeName = en.getKey();
-                parentTreeViewDtoList = en.getValue();
 
                 TreeViewDto treeViewDto = new TreeViewDto();
                 treeViewDto.setName(nodeName);
-                TaskNode taskNode = dag.getNode(nodeName);
-                treeViewDto.setType(taskNode.getType());
-
-                //set treeViewDto instances
-                for (int i = limit - 1; i >= 0; i--) {
-                    ProcessInstance processInstance = processInstanceList.get(i);
-                    TaskInstance taskInstance = taskInstanceMapper.queryByInstanceIdAndName(processInstance.getId(), nodeName);
-                    if (taskInstance == null) {
-                        treeViewDto.getInstances().add(new Instance(-1, "not running", "null"));
-                    } else {
-                        Date startTime = taskInstance.getStartTime() == null ? new Date() : taskInstance.getStartTime();
-                        Date endTime = taskInstance.getEndTime() == null ? new Date() : taskInstance.getEndTime();
-
-                        int subProcessId = 0;
-                        /**
-                         * if process is sub process, the return sub id, or sub id=0
-                         */
-                        if (taskInstance.getTaskType().equals(TaskType.SUB_PROCESS.name())) {
-                            String taskJson = taskInstance.getTaskJson();
-                            taskNode = JSONUtils.parseObject(taskJson, TaskNode.class);
-                            subProcessId = Integer.parseInt(JSONUtils.parseObject(
-                                    taskNode.getParams()).path(CMD_PARAM_SUB_PROCESS_DEFINE_ID).asText());
-                        }
-                        treeViewDto.getInstances().add(new Instance(taskInstance.getId(), taskInstance.getName(), taskInstance.getTaskType(), taskInstance.getState().toString()
-                                , taskInstance.getStartTime(), taskInstance.getEndTime(), taskInstance.getHost(), DateUtils.format2Readable(endTime.getTime() - startTime.getTime()), subProcessId));
-                    }
-                }
-                for (TreeViewDto pTreeViewDto : parentTreeViewDtoList) {
+                treeViewDto.setType(dag.getNode(nodeName).getType());
+                treeViewDto.getInstances().addAll(nodeInstancesMap.computeIfAbsent(nodeName,
+                        name -> getNodeInstances(name, processInstanceList, taskInstanceMap)));
+
+                for (TreeViewDto pTreeViewDto : en.getValue()) {
                     pTreeViewDto.getChildren().add(treeViewDto);
                 }
-                postNodeList = dag.getSubsequentNodes(nodeName);
+                Set<String> postNodeList = dag.getSubsequentNodes(nodeName);
                 if (CollectionUtils.isNotEmpty(postNodeList)) {
                     for (String nextNodeName : postNodeList) {
-                        List<TreeViewDto> treeViewDtoList = waitingRunningNodeMap.get(nextNodeName);
-                        if (CollectionUtils.isEmpty(treeViewDtoList)) {
-                            treeViewDtoList = new ArrayList<>();
-                        }
-                        treeViewDtoList.add(treeViewDto);
-                        waitingRunningNodeMap.put(nextNodeName, treeViewDtoList);
+                        waitingRunningNodeMap.computeIfAbsent(nextNodeName, k -> new ArrayList<>()).add(treeViewDto);
                     }
                 }
-                runningNodeMap.remove(nodeName);
             }
-            if (waitingRunningNodeMap == null || waitingRunningNodeMap.size() == 0) {
-                break;
+            runningNodeMap = waitingRunningNodeMap;
+        }
+        return parentTreeViewDto;
+    }
+
+    /**
+     * get the instances of a task node in the shown process instances, oldest first
+     *
+     * @param nodeName task node name
+     * @param processInstanceList shown process instances, latest first
+     * @param taskInstanceMap process instance id -> task name -> task instance
+     * @return instances
+     */
+    private List<Instance> getNodeInstances(String nodeName,
+                                            List<ProcessInstance> processInstanceList,
+                                            Map<Integer, Map<String, TaskInstance>> taskInstanceMap) {
+        List<Instance> instances = new ArrayList<>(processInstanceList.size());
+        for (int i = processInstanceList.size() - 1; i >= 0; i--) {
+            ProcessInstance processInstance = processInstanceList.get(i);
+            TaskInstance taskInstance = taskInstanceMap.getOrDefault(processInstance.getId(), Collections.emptyMap()).get(nodeName);
+            if (taskInstance == null) {
+                instances.add(new Instance(-1, "not running", "null"));
             } else {
-                runningNodeMap.putAll(waitingRunningNodeMap);
-                waitingRunningNodeMap.clear();
+                Date startTime = taskInstance.getStartTime() == null ? new Date() : taskInstance.getStartTime();
+                Date endTime = taskInstance.getEndTime() == null ? new Date() : taskInstance.getEndTime();
+
+                int subProcessId = 0;
+                /**
+                 * if process is sub process, the return sub id, or sub id=0
+                 */
+                if (taskInstance.getTaskType().equals(TaskType.SUB_PROCESS.name())) {
+                    String taskJson = taskInstance.getTaskJson();
+                    TaskNode taskNode = JSONUtils.parseObject(taskJson, TaskNode.class);
+                    subProcessId = Integer.parseInt(JSONUtils.parseObject(
+                            taskNode.getParams()).path(CMD_PARAM_SUB_PROCESS_DEFINE_ID).asText());
+                }
+                instances.add(new Instance(taskInstance.getId(), taskInstance.getName(), taskInstance.getTaskType(), taskInstance.getState().toString()
+                        , taskInstance.getStartTime(), taskInstance.getEndTime(), taskInstance.getHost(), DateUtils.format2Readable(endTime.getTime() - startTime.getTime()), subProcessId));
             }
         }
-        result.put(Constants.DATA_LIST, parentTreeViewDto);
-        result.put(Constants.STATUS, Status.SUCCESS);
-        result.put(Constants.MSG, Status.SUCCESS.getMsg());
-        return result;
+        return instances;
     }
 
     /**
@@ -1476,19 +1672,20 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         return graph.hasCycle();
     }
 
-    private String recursionProcessDefinitionName(Integer projectId, String processDefinitionName, int num) {
-        ProcessDefinition processDefinition = processDefineMapper.queryByDefineName(projectId, processDefinitionName);
-        if (processDefinition != null) {
-            if (num > 1) {
-                String str = processDefinitionName.substring(0, processDefinitionName.length() - 3);
-                processDefinitionName = str + "(" + num + ")";
-            } else {
-                processDefinitionName = processDefinition.getName() + "(" + num + ")";
-            }
-        } else {
-            return processDefinitionName;
+    /**
+     * get a name not used by the process definitions, by appending (1), (2)... to the name
+     *
+     * @param processDefinitionNames names of the process definitions
+     * @param reservedNames names reserved by the import
+     * @param processDefinitionName process definition name
+     * @return unused name
+     */
+    private String getUniqueProcessDefinitionName(Set<String> processDefinitionNames, Set<String> reservedNames, String processDefinitionName) {
+        String name = processDefinitionName;
+        for (int num = 1; processDefinitionNames.contains(name) || reservedNames.contains(name); num++) {
+            name = processDefinitionName + "(" + num + ")";
         }
-        return recursionProcessDefinitionName(projectId, processDefinitionName, num + 1);
+        return name;
     }
 
     private Map<String, Object> copyProcessDefinition(User loginUser,
@@ -1662,6 +1859,7 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         processDefinition.setResourceIds(processDefinitionVersion.getResourceIds());
 
         if (processDefineMapper.updateById(processDefinition) > 0) {
+            workFlowLineageService.updateProcessLineage(processDefinition);
             putMsg(result, Status.SUCCESS);
         } else {
             putMsg(result, Status.SWITCH_PROCESS_DEFINITION_VERSION_ERROR);
@@ -1769,6 +1967,7 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         processDefinition.setProjectId(targetProject.getId());
         processDefinition.setUpdateTime(new Date());
         if (processDefineMapper.updateById(processDefinition) > 0) {
+            workFlowLineageService.updateProcessLineage(processDefinition);
             putMsg(result, Status.SUCCESS);
         } else {
             putMsg(result, Status.UPDATE_PROCESS_DEFINITION_ERROR);
@@ -28,7 +28,9 @@ import org.apache.dolphinscheduler.dao.entity.Project;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionVersionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
+import org.apache.dolphinscheduler.service.process.ProcessJsonSnapshotStore;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +58,9 @@ public class ProcessDefinitionVersionServiceImpl extends BaseServiceImpl impleme
     @Autowired
     private ProjectMapper projectMapper;
 
+    @Autowired
+    private ProcessJsonSnapshotStore processJsonSnapshotStore;
+
     /**
      * add the newest version of one process definition
      *
@@ -81,12 +86,46 @@ public class ProcessDefinitionVersionServiceImpl extends BaseServiceImpl impleme
             .warningGroupId(processDefinition.getWarningGroupId())
                 .resourceIds(processDefinition.getResourceIds())
                 .build();
+        // the json is kept once per content in the snapshot table
+        processDefinitionVersion.setProcessDefinitionJsonHash(
+                processJsonSnapshotStore.save(processDefinition.getProcessDefinitionJson(), null));
 
         processDefinitionVersionMapper.insert(processDefinitionVersion);
 
         return version;
     }
 
+    /**
+     * add the first version of new process definitions in one statement
+     *
+     * @param processDefinitions new process definitions with their ids
+     */
+    @Override
+    public void addFirstProcessDefinitionVersions(List<ProcessDefinition> processDefinitions) {
+        if (processDefinitions.isEmpty()) {
+            return;
+        }
+        List<ProcessDefinitionVersion> processDefinitionVersions = new ArrayList<>(processDefinitions.size());
+        for (ProcessDefinition processDefinition : processDefinitions) {
+            ProcessDefinitionVersion processDefinitionVersion = ProcessDefinitionVersion
+                .newBuilder()
+                .processDefinitionId(processDefinition.getId())
+                .version(1)
+                .description(processDefinition.getDescription())
+                .locations(processDefinition.getLocations())
+                .connects(processDefinition.getConnects())
+                .timeout(processDefinition.getTimeout())
+                .globalParams(processDefinition.getGlobalParams())
+                .createTime(processDefinition.getUpdateTime())
+                .resourceIds(processDefinition.getResourceIds())
+                .build();
+            processDefinitionVersion.setProcessDefinitionJsonHash(
+                    processJsonSnapshotStore.save(processDefinition.getProcessDefinitionJson(), null));
+            processDefinitionVersions.add(processDefinitionVersion);
+        }
+        processDefinitionVersionMapper.batchInsert(processDefinitionVersions);
+    }
+
     /**
      * query the max version number by the process definition id
      *
@@ -156,7 +195,13 @@ public class ProcessDefinitionVersionServiceImpl extends BaseServiceImpl impleme
      */
     @Override
     public ProcessDefinitionVersion queryByProcessDefinitionIdAndVersion(int processDefinitionId, long version) {
-        return processDefinitionVersionMapper.queryByProcessDefinitionIdAndVersion(processDefinitionId, version);
+        ProcessDefinitionVersion processDefinitionVersion =
+                processDefinitionVersionMapper.queryByProcessDefinitionIdAndVersion(processDefinitionId, version);
+        if (processDefinitionVersion != null && processDefinitionVersion.getProcessDefinitionJson() == null) {
+            processDefinitionVersion.setProcessDefinitionJson(
+                    processJsonSnapshotStore.load(processDefinitionVersion.getProcessDefinitionJsonHash()));
+        }
+        return processDefinitionVersion;
     }
 
     /**
@@ -34,6 +34,7 @@ import org.apache.dolphinscheduler.api.service.ProcessDefinitionVersionService;
 import org.apache.dolphinscheduler.api.service.ProcessInstanceService;
 import org.apache.dolphinscheduler.api.service.ProjectService;
 import org.apache.dolphinscheduler.api.service.UsersService;
+import org.apache.dolphinscheduler.api.service.WorkFlowLineageService;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
@@ -129,6 +130,9 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
     @Autowired
     UsersService usersService;
 
+    @Autowired
+    WorkFlowLineageService workFlowLineageService;
+
     /**
      * return top n SUCCESS process instance order by running time which started between startTime and endTime
      */
@@ -194,6 +198,7 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
 
         ProcessDefinition processDefinition = processService.findProcessDefineById(processInstance.getProcessDefinitionId());
         processInstance.setWarningGroupId(processDefinition.getWarningGroupId());
+        processService.getProcessInstanceJson(processInstance);
         result.put(DATA_LIST, processInstance);
         putMsg(result, Status.SUCCESS);
 
@@ -469,7 +474,7 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
                 processInstance.setTenantCode(tenant.getTenantCode());
             }
             // get the processinstancejson before saving,and then save the name and taskid
-            String oldJson = processInstance.getProcessInstanceJson();
+            String oldJson = processService.getProcessInstanceJson(processInstance);
             if (StringUtils.isNotEmpty(oldJson)) {
                 processInstanceJson = processService.changeJson(processData,oldJson);
             }
@@ -491,6 +496,9 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
             long version = processDefinitionVersionService.addProcessDefinitionVersion(processDefinition);
             processDefinition.setVersion(version);
             updateDefine = processDefineMapper.updateById(processDefinition);
+            if (updateDefine > 0) {
+                workFlowLineageService.updateProcessLineage(processDefinition);
+            }
         }
         if (update > 0 && updateDefine > 0) {
             putMsg(result, Status.SUCCESS);
@@ -605,7 +613,7 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
                 .getBusinessTime(processInstance.getCmdTypeIfComplement(),
                         processInstance.getScheduleTime());
 
-        String workflowInstanceJson = processInstance.getProcessInstanceJson();
+        String workflowInstanceJson = processService.getProcessInstanceJson(processInstance);
 
         ProcessData workflowData = JSONUtils.parseObject(workflowInstanceJson, ProcessData.class);
 
@@ -683,9 +691,15 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
 
         ganttDto.setTaskNames(nodeList);
 
+        // task name -> latest valid task instance
+        Map<String, TaskInstance> taskInstanceMap = new HashMap<>();
+        for (TaskInstance taskInstance : taskInstanceMapper.findValidTaskListByProcessId(processInstanceId, Flag.YES)) {
+            taskInstanceMap.putIfAbsent(taskInstance.getName(), taskInstance);
+        }
+
         List<Task> taskList = new ArrayList<>();
         for (String node : nodeList) {
-            TaskInstance taskInstance = taskInstanceMapper.queryByInstanceIdAndName(processInstanceId, node);
+            TaskInstance taskInstance = taskInstanceMap.get(node);
             if (taskInstance == null) {
                 continue;
             }
@@ -715,9 +729,9 @@ public class ProcessInstanceServiceImpl extends BaseServiceImpl implements Proce
      * @param processInstance input process instance
      * @return process instance dag.
      */
-    private static DAG<String, TaskNode, TaskNodeRelation> processInstance2DAG(ProcessInstance processInstance) {
+    private DAG<String, TaskNode, TaskNodeRelation> processInstance2DAG(ProcessInstance processInstance) {
 
-        String processDefinitionJson = processInstance.getProcessInstanceJson();
+        String processDefinitionJson = processService.getProcessInstanceJson(processInstance);
 
         ProcessData processData = JSONUtils.parseObject(processDefinitionJson, ProcessData.class);
 
@@ -26,11 +26,10 @@ import org.apache.dolphinscheduler.common.enums.UserType;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.Project;
-import org.apache.dolphinscheduler.dao.entity.ProjectUser;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
-import org.apache.dolphinscheduler.dao.mapper.ProjectUserMapper;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -56,10 +55,10 @@ public class ProjectServiceImpl extends BaseServiceImpl implements ProjectServic
     private ProjectMapper projectMapper;
 
     @Autowired
-    private ProjectUserMapper projectUserMapper;
+    private ProcessDefinitionMapper processDefinitionMapper;
 
     @Autowired
-    private ProcessDefinitionMapper processDefinitionMapper;
+    private AuthorizationCache authorizationCache;
 
     /**
      * create project
@@ -97,6 +96,7 @@ public class ProjectServiceImpl extends BaseServiceImpl implements ProjectServic
                 .build();
 
         if (projectMapper.insert(project) > 0) {
+            authorizationCache.invalidateUser(loginUser.getId());
             Project insertedProject = projectMapper.queryByName(name);
             result.put(Constants.DATA_LIST, insertedProject);
             putMsg(result, Status.SUCCESS);
@@ -225,6 +225,7 @@ public class ProjectServiceImpl extends BaseServiceImpl implements ProjectServic
         }
         int delete = projectMapper.deleteById(projectId);
         if (delete > 0) {
+            authorizationCache.invalidateAll();
             putMsg(result, Status.SUCCESS);
         } else {
             putMsg(result, Status.DELETE_PROJECT_ERROR);
@@ -436,14 +437,7 @@ public class ProjectServiceImpl extends BaseServiceImpl implements ProjectServic
             return Constants.ALL_PERMISSIONS;
         }
 
-        ProjectUser projectUser = projectUserMapper.queryProjectRelation(project.getId(), user.getId());
-
-        if (projectUser == null) {
-            return 0;
-        }
-
-        return projectUser.getPerm();
-
+        return authorizationCache.getUserAuthorization(user.getId()).getProjectPerm(project.getId());
     }
 
     /**
@@ -21,6 +21,8 @@ import static org.apache.dolphinscheduler.common.Constants.ALIAS;
 import static org.apache.dolphinscheduler.common.Constants.CONTENT;
 import static org.apache.dolphinscheduler.common.Constants.JAR;
 
+import org.apache.dolphinscheduler.api.cache.ResourceTreeCache;
+import org.apache.dolphinscheduler.api.cache.ResourceTreeCache.ResourceTree;
 import org.apache.dolphinscheduler.api.dto.resources.ResourceComponent;
 import org.apache.dolphinscheduler.api.dto.resources.filter.ResourceFilter;
 import org.apache.dolphinscheduler.api.dto.resources.visitor.ResourceTreeVisitor;
@@ -37,7 +39,6 @@ import org.apache.dolphinscheduler.common.enums.ResourceType;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.common.utils.FileUtils;
 import org.apache.dolphinscheduler.common.utils.HadoopUtils;
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.dao.entity.Resource;
@@ -52,6 +53,7 @@ import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UdfFuncMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
 import org.apache.dolphinscheduler.dao.utils.ResourceProcessDefinitionUtils;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
 
 import org.apache.commons.beanutils.BeanMap;
 
@@ -79,7 +81,6 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
-import com.fasterxml.jackson.databind.SerializationFeature;
 
 /**
  * resources service impl
@@ -107,6 +108,12 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
     @Autowired
     private ProcessDefinitionMapper processDefinitionMapper;
 
+    @Autowired
+    private ResourceTreeCache resourceTreeCache;
+
+    @Autowired
+    private AuthorizationCache authorizationCache;
+
     /**
      * create directory
      *
@@ -148,6 +155,8 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
 
         try {
             resourcesMapper.insert(resource);
+            resourceTreeCache.invalidateAll();
+            authorizationCache.invalidateUser(loginUser.getId());
             putMsg(result, Status.SUCCESS);
             Map<Object, Object> dataMap = new BeanMap(resource);
             Map<String, Object> resultMap = new HashMap<>();
@@ -219,6 +228,8 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
 
         try {
             resourcesMapper.insert(resource);
+            resourceTreeCache.invalidateAll();
+            authorizationCache.invalidateUser(loginUser.getId());
             putMsg(result, Status.SUCCESS);
             Map<Object, Object> dataMap = new BeanMap(resource);
             Map<String, Object> resultMap = new HashMap<>();
@@ -371,6 +382,8 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
 
         try {
             resourcesMapper.updateById(resource);
+            resourceTreeCache.invalidateAll();
+            authorizationCache.invalidateAll();
             if (resource.isDirectory()) {
                 List<Integer> childrenResource = listAllChildren(resource,false);
                 if (CollectionUtils.isNotEmpty(childrenResource)) {
@@ -618,9 +631,40 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
         if (isAdmin(loginUser)) {
             userId = 0;
         }
-        List<Resource> allResourceList = resourcesMapper.queryResourceListAuthored(userId, type.ordinal(),0);
-        Visitor resourceTreeVisitor = new ResourceTreeVisitor(allResourceList);
-        result.put(Constants.DATA_LIST, resourceTreeVisitor.visit().getChildren());
+        int authedUserId = userId;
+        ResourceTree resourceTree = resourceTreeCache.getResourceTree(userId, type, null,
+            () -> resourcesMapper.queryResourceListAuthored(authedUserId, type.ordinal(), 0));
+        result.put(Constants.DATA_LIST, resourceTree.getChildren());
+        putMsg(result,Status.SUCCESS);
+
+        return result;
+    }
+
+    /**
+     * query the direct children of a directory, for directories too large to be expanded at once
+     *
+     * @param loginUser login user
+     * @param type resource type
+     * @param pid directory id, -1 for the top level
+     * @return resource list
+     */
+    @Override
+    public Map<String, Object> queryResourceChildren(User loginUser, ResourceType type, int pid) {
+        Map<String, Object> result = new HashMap<>();
+
+        int userId = loginUser.getId();
+        if (isAdmin(loginUser)) {
+            userId = 0;
+        }
+        int authedUserId = userId;
+        ResourceTree resourceTree = resourceTreeCache.getResourceTree(userId, type, null,
+            () -> resourcesMapper.queryResourceListAuthored(authedUserId, type.ordinal(), 0));
+        List<ResourceComponent> children = resourceTree.getDirectChildren(pid);
+        if (children == null) {
+            putMsg(result, Status.RESOURCE_NOT_EXIST);
+            return result;
+        }
+        result.put(Constants.DATA_LIST, children);
         putMsg(result,Status.SUCCESS);
 
         return result;
@@ -652,10 +696,13 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
                 default:
             }
         }
-        List<Resource> allResourceList = resourcesMapper.queryResourceListAuthored(userId, type.ordinal(),0);
-        List<Resource> resources = new ResourceFilter(suffix,new ArrayList<>(allResourceList)).filter();
-        Visitor resourceTreeVisitor = new ResourceTreeVisitor(resources);
-        result.put(Constants.DATA_LIST, resourceTreeVisitor.visit().getChildren());
+        int authedUserId = userId;
+        String fileSuffix = suffix;
+        ResourceTree resourceTree = resourceTreeCache.getResourceTree(userId, type, suffix, () -> {
+            List<Resource> allResourceList = resourcesMapper.queryResourceListAuthored(authedUserId, type.ordinal(),0);
+            return new ResourceFilter(fileSuffix,new ArrayList<>(allResourceList)).filter();
+        });
+        result.put(Constants.DATA_LIST, resourceTree.getChildren());
         putMsg(result,Status.SUCCESS);
 
         return result;
@@ -732,6 +779,8 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
         //delete data in database
         resourcesMapper.deleteIds(needDeleteResourceIdArray);
         resourceUserMapper.deleteResourceUserArray(0, needDeleteResourceIdArray);
+        resourceTreeCache.invalidateAll();
+        authorizationCache.invalidateAll();
 
         //delete file on hdfs
         HadoopUtils.getInstance().delete(hdfsFilename, true);
@@ -926,6 +975,8 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
         Resource resource = new Resource(pid,name,fullName,false,desc,name,loginUser.getId(),type,content.getBytes().length,now,now);
 
         resourcesMapper.insert(resource);
+        resourceTreeCache.invalidateAll();
+        authorizationCache.invalidateUser(loginUser.getId());
 
         putMsg(result, Status.SUCCESS);
         Map<Object, Object> dataMap = new BeanMap(resource);
@@ -1249,10 +1300,6 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
         }
         List<Resource> authedResources = resourcesMapper.queryAuthorizedResourceList(userId);
         Visitor visitor = new ResourceTreeVisitor(authedResources);
-        String visit = JSONUtils.toJsonString(visitor.visit(), SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
-        logger.info(visit);
-        String jsonTreeStr = JSONUtils.toJsonString(visitor.visit().getChildren(), SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
-        logger.info(jsonTreeStr);
         result.put(Constants.DATA_LIST, visitor.visit().getChildren());
         putMsg(result,Status.SUCCESS);
         return result;
@@ -373,8 +373,9 @@ public class SchedulerServiceImpl extends BaseServiceImpl implements SchedulerSe
             return result;
         }
 
-        // set status
+        // set status, the update time tells the trigger engine when the schedule was put online
         scheduleObj.setReleaseState(scheduleStatus);
+        scheduleObj.setUpdateTime(new Date());
 
         scheduleMapper.updateById(scheduleObj);
 
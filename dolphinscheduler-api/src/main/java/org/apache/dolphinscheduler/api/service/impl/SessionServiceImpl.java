@@ -17,6 +17,7 @@
 
 package org.apache.dolphinscheduler.api.service.impl;
 
+import org.apache.dolphinscheduler.api.cache.AuthenticationCache;
 import org.apache.dolphinscheduler.api.controller.BaseController;
 import org.apache.dolphinscheduler.api.service.SessionService;
 import org.apache.dolphinscheduler.common.Constants;
@@ -51,6 +52,9 @@ public class SessionServiceImpl extends BaseServiceImpl implements SessionServic
     @Autowired
     private SessionMapper sessionMapper;
 
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
     /**
      * get user session from request
      *
@@ -59,6 +63,26 @@ public class SessionServiceImpl extends BaseServiceImpl implements SessionServic
      */
     @Override
     public Session getSession(HttpServletRequest request) {
+        String sessionId = getSessionId(request);
+
+        if (sessionId == null) {
+            return null;
+        }
+
+        String ip = BaseController.getClientIpAddress(request);
+        logger.debug("get session: {}, ip: {}", sessionId, ip);
+
+        return sessionMapper.selectById(sessionId);
+    }
+
+    /**
+     * get session id from request header or cookie
+     *
+     * @param request request
+     * @return session id, null if absent
+     */
+    @Override
+    public String getSessionId(HttpServletRequest request) {
         String sessionId = request.getHeader(Constants.SESSION_ID);
 
         if (StringUtils.isBlank(sessionId)) {
@@ -69,14 +93,7 @@ public class SessionServiceImpl extends BaseServiceImpl implements SessionServic
             }
         }
 
-        if (StringUtils.isBlank(sessionId)) {
-            return null;
-        }
-
-        String ip = BaseController.getClientIpAddress(request);
-        logger.debug("get session: {}, ip: {}", sessionId, ip);
-
-        return sessionMapper.selectById(sessionId);
+        return StringUtils.isBlank(sessionId) ? null : sessionId;
     }
 
     /**
@@ -104,6 +121,7 @@ public class SessionServiceImpl extends BaseServiceImpl implements SessionServic
             if (sessionList.size() > 1) {
                 for (int i = 1; i < sessionList.size(); i++) {
                     sessionMapper.deleteById(sessionList.get(i).getId());
+                    authenticationCache.invalidateSession(sessionList.get(i).getId());
                 }
             }
             session = sessionList.get(0);
@@ -121,6 +139,7 @@ public class SessionServiceImpl extends BaseServiceImpl implements SessionServic
                  * session expired, then delete this session first
                  */
                 sessionMapper.deleteById(session.getId());
+                authenticationCache.invalidateSession(session.getId());
             }
         }
 
@@ -154,6 +173,7 @@ public class SessionServiceImpl extends BaseServiceImpl implements SessionServic
 
             //delete session
             sessionMapper.deleteById(session.getId());
+            authenticationCache.invalidateSession(session.getId());
         } catch (Exception e) {
             logger.warn("userId : {} , ip : {} , find more one session", loginUser.getId(), ip);
         }
@@ -31,6 +31,7 @@ import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ResourceMapper;
 import org.apache.dolphinscheduler.dao.mapper.UDFUserMapper;
 import org.apache.dolphinscheduler.dao.mapper.UdfFuncMapper;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
 
 import java.util.Date;
 import java.util.HashMap;
@@ -63,6 +64,9 @@ public class UdfFuncServiceImpl extends BaseServiceImpl implements UdfFuncServic
     @Autowired
     private UDFUserMapper udfUserMapper;
 
+    @Autowired
+    private AuthorizationCache authorizationCache;
+
     /**
      * create udf function
      *
@@ -128,6 +132,7 @@ public class UdfFuncServiceImpl extends BaseServiceImpl implements UdfFuncServic
         udf.setUpdateTime(now);
 
         udfFuncMapper.insert(udf);
+        authorizationCache.invalidateUser(loginUser.getId());
         putMsg(result, Status.SUCCESS);
         return result;
     }
@@ -308,6 +313,7 @@ public class UdfFuncServiceImpl extends BaseServiceImpl implements UdfFuncServic
         Result<Object> result = new Result<>();
         udfFuncMapper.deleteById(id);
         udfUserMapper.deleteByUdfFuncId(id);
+        authorizationCache.invalidateAll();
         putMsg(result, Status.SUCCESS);
         return result;
     }
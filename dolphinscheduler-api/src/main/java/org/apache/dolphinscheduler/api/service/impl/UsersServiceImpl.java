@@ -17,6 +17,8 @@
 
 package org.apache.dolphinscheduler.api.service.impl;
 
+import org.apache.dolphinscheduler.api.cache.AuthenticationCache;
+import org.apache.dolphinscheduler.api.cache.ResourceTreeCache;
 import org.apache.dolphinscheduler.api.dto.resources.ResourceComponent;
 import org.apache.dolphinscheduler.api.dto.resources.visitor.ResourceTreeVisitor;
 import org.apache.dolphinscheduler.api.enums.Status;
@@ -24,6 +26,7 @@ import org.apache.dolphinscheduler.api.exceptions.ServiceException;
 import org.apache.dolphinscheduler.api.service.UsersService;
 import org.apache.dolphinscheduler.api.utils.CheckUtils;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
+import org.apache.dolphinscheduler.api.utils.RelationDiff;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.Flag;
@@ -52,6 +55,7 @@ import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UDFUserMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
 import org.apache.dolphinscheduler.dao.utils.ResourceProcessDefinitionUtils;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
 
 import java.io.IOException;
 import java.text.MessageFormat;
@@ -62,6 +66,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -72,6 +77,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.google.common.collect.Lists;
 
 /**
  * users service impl
@@ -81,6 +87,11 @@ public class UsersServiceImpl extends BaseServiceImpl implements UsersService {
 
     private static final Logger logger = LoggerFactory.getLogger(UsersServiceImpl.class);
 
+    /**
+     * max number of relations written by one insert or delete statement of a grant
+     */
+    private static final int GRANT_BATCH_SIZE = 1000;
+
     @Autowired
     private UserMapper userMapper;
 
@@ -108,6 +119,15 @@ public class UsersServiceImpl extends BaseServiceImpl implements UsersService {
     @Autowired
     private ProcessDefinitionMapper processDefinitionMapper;
 
+    @Autowired
+    private ResourceTreeCache resourceTreeCache;
+
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
+    @Autowired
+    private AuthorizationCache authorizationCache;
+
 
     /**
      * create user, only system admin have permission
@@ -456,6 +476,7 @@ public class UsersServiceImpl extends BaseServiceImpl implements UsersService {
 
         // updateProcessInstance user
         userMapper.updateById(user);
+        authenticationCache.invalidateUser(userId);
         putMsg(result, Status.SUCCESS);
         return result;
     }
@@ -495,6 +516,8 @@ public class UsersServiceImpl extends BaseServiceImpl implements UsersService {
         }
 
         userMapper.deleteById(id);
+        authenticationCache.invalidateUser(id);
+        authorizationCache.invalidateUser(id);
         putMsg(result, Status.SUCCESS);
 
         return result;
@@ -525,24 +548,32 @@ public class UsersServiceImpl extends BaseServiceImpl implements UsersService {
             putMsg(result, Status.USER_NOT_EXIST, userId);
             return result;
         }
-        //if the selected projectIds are empty, delete all items associated with the user
-        projectUserMapper.deleteProjectRelation(0, userId);
 
-        if (check(result, StringUtils.isEmpty(projectIds), Status.SUCCESS)) {
-            return result;
-        }
+        //only the relations that change are written, so an unchanged grant does not lock any row
+        List<Integer> currentProjectIds = projectUserMapper.queryProjectRelationByUserId(userId).stream()
+                .map(ProjectUser::getProjectId)
+                .collect(Collectors.toList());
+        RelationDiff diff = RelationDiff.of(currentProjectIds, RelationDiff.parseIds(projectIds, ","));
 
-        String[] projectIdArr = projectIds.split(",");
-
-        for (String projectId : projectIdArr) {
-            Date now = new Date();
-            ProjectUser projectUser = new ProjectUser();
-            projectUser.setUserId(userId);
-            projectUser.setProjectId(Integer.parseInt(projectId));
-            projectUser.setPerm(7);
-            projectUser.setCreateTime(now);
-            projectUser.setUpdateTime(now);
-            projectUserMapper.insert(projectUser);
+        for (List<Integer> removed : Lists.partition(diff.getRemoved(), GRANT_BATCH_SIZE)) {
+            projectUserMapper.deleteProjectRelations(userId, removed);
+        }
+        Date now = new Date();
+        for (List<Integer> added : Lists.partition(diff.getAdded(), GRANT_BATCH_SIZE)) {
+            List<ProjectUser> projectUsers = new ArrayList<>(added.size());
+            for (int projectId : added) {
+                ProjectUser projectUser = new ProjectUser();
+                projectUser.setUserId(userId);
+                projectUser.setProjectId(projectId);
+                projectUser.setPerm(Constants.ALL_PERMISSIONS);
+                projectUser.setCreateTime(now);
+                projectUser.setUpdateTime(now);
+                projectUsers.add(projectUser);
+            }
+            projectUserMapper.batchInsert(projectUsers);
+        }
+        if (!diff.isEmpty()) {
+            authorizationCache.invalidateUser(userId);
         }
 
         putMsg(result, Status.SUCCESS);
@@ -572,73 +603,71 @@ public class UsersServiceImpl extends BaseServiceImpl implements UsersService {
             return result;
         }
 
-        Set<Integer> needAuthorizeResIds = new HashSet<>();
-        if (StringUtils.isNotBlank(resourceIds)) {
-            String[] resourceFullIdArr = resourceIds.split(",");
-            // need authorize resource id set
-            for (String resourceFullId : resourceFullIdArr) {
-                String[] resourceIdArr = resourceFullId.split("-");
-                for (int i = 0; i <= resourceIdArr.length - 1; i++) {
-                    int resourceIdValue = Integer.parseInt(resourceIdArr[i]);
-                    needAuthorizeResIds.add(resourceIdValue);
-                }
-            }
-        }
+        // need authorize resource id set, every id of a "1-2-3" path is authorized
+        Set<Integer> needAuthorizeResIds = RelationDiff.parseIds(resourceIds, "[,-]");
+        RelationDiff diff = RelationDiff.of(resourceUserMapper.queryResourceIdsByUserId(userId), needAuthorizeResIds);
 
-        //get the authorized resource id list by user id
-        List<Resource> oldAuthorizedRes = resourceMapper.queryAuthorizedResourceList(userId);
-        //if resource type is UDF,need check whether it is bound by UDF function
-        Set<Integer> oldAuthorizedResIds = oldAuthorizedRes.stream().map(Resource::getId).collect(Collectors.toSet());
+        if (CollectionUtils.isNotEmpty(diff.getRemoved())) {
+            //get the authorized resource id list by user id
+            List<Resource> oldAuthorizedRes = resourceMapper.queryAuthorizedResourceList(userId);
+            //if resource type is UDF,need check whether it is bound by UDF function
+            Set<Integer> oldAuthorizedResIds = oldAuthorizedRes.stream().map(Resource::getId).collect(Collectors.toSet());
 
-        //get the unauthorized resource id list
-        oldAuthorizedResIds.removeAll(needAuthorizeResIds);
+            //get the unauthorized resource id list
+            oldAuthorizedResIds.retainAll(diff.getRemoved());
 
-        if (CollectionUtils.isNotEmpty(oldAuthorizedResIds)) {
+            if (CollectionUtils.isNotEmpty(oldAuthorizedResIds)) {
 
-            // get all resource id of process definitions those is released
-            List<Map<String, Object>> list = processDefinitionMapper.listResourcesByUser(userId);
-            Map<Integer, Set<Integer>> resourceProcessMap = ResourceProcessDefinitionUtils.getResourceProcessDefinitionMap(list);
-            Set<Integer> resourceIdSet = resourceProcessMap.keySet();
+                // get all resource id of process definitions those is released
+                List<Map<String, Object>> list = processDefinitionMapper.listResourcesByUser(userId);
+                Map<Integer, Set<Integer>> resourceProcessMap = ResourceProcessDefinitionUtils.getResourceProcessDefinitionMap(list);
+                Set<Integer> resourceIdSet = resourceProcessMap.keySet();
 
-            resourceIdSet.retainAll(oldAuthorizedResIds);
-            if (CollectionUtils.isNotEmpty(resourceIdSet)) {
-                logger.error("can't be deleted,because it is used of process definition");
-                for (Integer resId : resourceIdSet) {
-                    logger.error("resource id:{} is used of process definition {}", resId, resourceProcessMap.get(resId));
+                resourceIdSet.retainAll(oldAuthorizedResIds);
+                if (CollectionUtils.isNotEmpty(resourceIdSet)) {
+                    logger.error("can't be deleted,because it is used of process definition");
+                    for (Integer resId : resourceIdSet) {
+                        logger.error("resource id:{} is used of process definition {}", resId, resourceProcessMap.get(resId));
+                    }
+                    putMsg(result, Status.RESOURCE_IS_USED);
+                    return result;
                 }
-                putMsg(result, Status.RESOURCE_IS_USED);
-                return result;
             }
-
-        }
-
-        resourceUserMapper.deleteResourceUser(userId, 0);
-
-        if (check(result, StringUtils.isEmpty(resourceIds), Status.SUCCESS)) {
-            return result;
         }
 
-        for (int resourceIdValue : needAuthorizeResIds) {
-            Resource resource = resourceMapper.selectById(resourceIdValue);
-            if (resource == null) {
+        // check every new resource before writing anything
+        List<ResourcesUser> resourcesUsers = new ArrayList<>(diff.getAdded().size());
+        Date now = new Date();
+        for (List<Integer> added : Lists.partition(diff.getAdded(), GRANT_BATCH_SIZE)) {
+            List<Resource> resources = resourceMapper.listResourceByIds(added.toArray(new Integer[0]));
+            if (resources == null || resources.size() != added.size()) {
                 putMsg(result, Status.RESOURCE_NOT_EXIST);
                 return result;
             }
-
-            Date now = new Date();
-            ResourcesUser resourcesUser = new ResourcesUser();
-            resourcesUser.setUserId(userId);
-            resourcesUser.setResourcesId(resourceIdValue);
-            if (resource.isDirectory()) {
-                resourcesUser.setPerm(Constants.AUTHORIZE_READABLE_PERM);
-            } else {
-                resourcesUser.setPerm(Constants.AUTHORIZE_WRITABLE_PERM);
+            for (Resource resource : resources) {
+                ResourcesUser resourcesUser = new ResourcesUser();
+                resourcesUser.setUserId(userId);
+                resourcesUser.setResourcesId(resource.getId());
+                if (resource.isDirectory()) {
+                    resourcesUser.setPerm(Constants.AUTHORIZE_READABLE_PERM);
+                } else {
+                    resourcesUser.setPerm(Constants.AUTHORIZE_WRITABLE_PERM);
+                }
+                resourcesUser.setCreateTime(now);
+                resourcesUser.setUpdateTime(now);
+                resourcesUsers.add(resourcesUser);
             }
+        }
 
-            resourcesUser.setCreateTime(now);
-            resourcesUser.setUpdateTime(now);
-            resourceUserMapper.insert(resourcesUser);
-
+        for (List<Integer> removed : Lists.partition(diff.getRemoved(), GRANT_BATCH_SIZE)) {
+            resourceUserMapper.deleteResourceUserArray(userId, removed.toArray(new Integer[0]));
+        }
+        for (List<ResourcesUser> added : Lists.partition(resourcesUsers, GRANT_BATCH_SIZE)) {
+            resourceUserMapper.batchInsert(added);
+        }
+        if (!diff.isEmpty()) {
+            resourceTreeCache.invalidateAll();
+            authorizationCache.invalidateUser(userId);
         }
 
         putMsg(result, Status.SUCCESS);
@@ -669,23 +698,27 @@ public class UsersServiceImpl extends BaseServiceImpl implements UsersService {
             return result;
         }
 
-        udfUserMapper.deleteByUserId(userId);
+        RelationDiff diff = RelationDiff.of(udfUserMapper.queryUdfIdsByUserId(userId), RelationDiff.parseIds(udfIds, ","));
 
-        if (check(result, StringUtils.isEmpty(udfIds), Status.SUCCESS)) {
-            return result;
+        for (List<Integer> removed : Lists.partition(diff.getRemoved(), GRANT_BATCH_SIZE)) {
+            udfUserMapper.deleteByUserIdAndUdfIds(userId, removed);
         }
-
-        String[] resourcesIdArr = udfIds.split(",");
-
-        for (String udfId : resourcesIdArr) {
-            Date now = new Date();
-            UDFUser udfUser = new UDFUser();
-            udfUser.setUserId(userId);
-            udfUser.setUdfId(Integer.parseInt(udfId));
-            udfUser.setPerm(7);
-            udfUser.setCreateTime(now);
-            udfUser.setUpdateTime(now);
-            udfUserMapper.insert(udfUser);
+        Date now = new Date();
+        for (List<Integer> added : Lists.partition(diff.getAdded(), GRANT_BATCH_SIZE)) {
+            List<UDFUser> udfUsers = new ArrayList<>(added.size());
+            for (int udfId : added) {
+                UDFUser udfUser = new UDFUser();
+                udfUser.setUserId(userId);
+                udfUser.setUdfId(udfId);
+                udfUser.setPerm(Constants.ALL_PERMISSIONS);
+                udfUser.setCreateTime(now);
+                udfUser.setUpdateTime(now);
+                udfUsers.add(udfUser);
+            }
+            udfUserMapper.batchInsert(udfUsers);
+        }
+        if (!diff.isEmpty()) {
+            authorizationCache.invalidateUser(userId);
         }
 
         putMsg(result, Status.SUCCESS);
@@ -717,28 +750,127 @@ public class UsersServiceImpl extends BaseServiceImpl implements UsersService {
             return result;
         }
 
-        datasourceUserMapper.deleteByUserId(userId);
+        RelationDiff diff = RelationDiff.of(datasourceUserMapper.queryDatasourceIdsByUserId(userId),
+                RelationDiff.parseIds(datasourceIds, ","));
 
-        if (check(result, StringUtils.isEmpty(datasourceIds), Status.SUCCESS)) {
-            return result;
+        for (List<Integer> removed : Lists.partition(diff.getRemoved(), GRANT_BATCH_SIZE)) {
+            datasourceUserMapper.deleteByUserIdAndDatasourceIds(userId, removed);
+        }
+        Date now = new Date();
+        for (List<Integer> added : Lists.partition(diff.getAdded(), GRANT_BATCH_SIZE)) {
+            List<DatasourceUser> datasourceUsers = new ArrayList<>(added.size());
+            for (int datasourceId : added) {
+                DatasourceUser datasourceUser = new DatasourceUser();
+                datasourceUser.setUserId(userId);
+                datasourceUser.setDatasourceId(datasourceId);
+                datasourceUser.setPerm(Constants.ALL_PERMISSIONS);
+                datasourceUser.setCreateTime(now);
+                datasourceUser.setUpdateTime(now);
+                datasourceUsers.add(datasourceUser);
+            }
+            datasourceUserMapper.batchInsert(datasourceUsers);
         }
+        if (!diff.isEmpty()) {
+            authorizationCache.invalidateUser(userId);
+        }
+
+        putMsg(result, Status.SUCCESS);
+
+        return result;
+    }
 
-        String[] datasourceIdArr = datasourceIds.split(",");
+    /**
+     * grant projects to many users, the projects of each user are replaced by the given ones
+     *
+     * @param loginUser login user
+     * @param userIds user id list, separated by comma
+     * @param projectIds project id list, separated by comma
+     * @return grant result of each user
+     */
+    @Override
+    @Transactional(rollbackFor = RuntimeException.class)
+    public Map<String, Object> batchGrantProject(User loginUser, String userIds, String projectIds) {
+        return batchGrant(loginUser, userIds, userId -> grantProject(loginUser, userId, projectIds));
+    }
 
-        for (String datasourceId : datasourceIdArr) {
-            Date now = new Date();
+    /**
+     * grant resources to many users, the resources of each user are replaced by the given ones
+     *
+     * @param loginUser login user
+     * @param userIds user id list, separated by comma
+     * @param resourceIds resource id list
+     * @return grant result of each user
+     */
+    @Override
+    @Transactional(rollbackFor = RuntimeException.class)
+    public Map<String, Object> batchGrantResources(User loginUser, String userIds, String resourceIds) {
+        return batchGrant(loginUser, userIds, userId -> grantResources(loginUser, userId, resourceIds));
+    }
+
+    /**
+     * grant udf functions to many users, the udf functions of each user are replaced by the given ones
+     *
+     * @param loginUser login user
+     * @param userIds user id list, separated by comma
+     * @param udfIds udf id list, separated by comma
+     * @return grant result of each user
+     */
+    @Override
+    @Transactional(rollbackFor = RuntimeException.class)
+    public Map<String, Object> batchGrantUDFFunction(User loginUser, String userIds, String udfIds) {
+        return batchGrant(loginUser, userIds, userId -> grantUDFFunction(loginUser, userId, udfIds));
+    }
 
-            DatasourceUser datasourceUser = new DatasourceUser();
-            datasourceUser.setUserId(userId);
-            datasourceUser.setDatasourceId(Integer.parseInt(datasourceId));
-            datasourceUser.setPerm(7);
-            datasourceUser.setCreateTime(now);
-            datasourceUser.setUpdateTime(now);
-            datasourceUserMapper.insert(datasourceUser);
+    /**
+     * grant data sources to many users, the data sources of each user are replaced by the given ones
+     *
+     * @param loginUser login user
+     * @param userIds user id list, separated by comma
+     * @param datasourceIds data source id list, separated by comma
+     * @return grant result of each user
+     */
+    @Override
+    @Transactional(rollbackFor = RuntimeException.class)
+    public Map<String, Object> batchGrantDataSource(User loginUser, String userIds, String datasourceIds) {
+        return batchGrant(loginUser, userIds, userId -> grantDataSource(loginUser, userId, datasourceIds));
+    }
+
+    /**
+     * apply a grant to every user and collect the results like batchActivateUser does
+     */
+    private Map<String, Object> batchGrant(User loginUser, String userIds, Function<Integer, Map<String, Object>> grant) {
+        Map<String, Object> result = new HashMap<>();
+
+        //only admin can operate
+        if (check(result, !isAdmin(loginUser), Status.USER_NO_OPERATION_PERM)) {
+            return result;
         }
 
+        List<Integer> successUserIds = new ArrayList<>();
+        List<Map<String, Object>> failedInfo = new ArrayList<>();
+        for (int userId : RelationDiff.parseIds(userIds, ",")) {
+            Map<String, Object> tmpResult = grant.apply(userId);
+            Status status = (Status) tmpResult.get(Constants.STATUS);
+            if (status != Status.SUCCESS) {
+                Map<String, Object> failedBody = new HashMap<>();
+                failedBody.put("userId", userId);
+                failedBody.put("msg", tmpResult.get(Constants.MSG));
+                failedInfo.add(failedBody);
+            } else {
+                successUserIds.add(userId);
+            }
+        }
+        Map<String, Object> successRes = new HashMap<>();
+        successRes.put("sum", successUserIds.size());
+        successRes.put("userId", successUserIds);
+        Map<String, Object> failedRes = new HashMap<>();
+        failedRes.put("sum", failedInfo.size());
+        failedRes.put("info", failedInfo);
+        Map<String, Object> res = new HashMap<>();
+        res.put("success", successRes);
+        res.put("failed", failedRes);
         putMsg(result, Status.SUCCESS);
-
+        result.put(Constants.DATA_LIST, res);
         return result;
     }
 
@@ -1037,6 +1169,7 @@ public class UsersServiceImpl extends BaseServiceImpl implements UsersService {
         Date now = new Date();
         user.setUpdateTime(now);
         userMapper.updateById(user);
+        authenticationCache.invalidateUser(user.getId());
         User responseUser = userMapper.queryByUserNameAccurately(userName);
         putMsg(result, Status.SUCCESS);
         result.put(Constants.DATA_LIST, responseUser);
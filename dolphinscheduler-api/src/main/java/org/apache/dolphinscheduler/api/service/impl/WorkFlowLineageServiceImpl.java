@@ -20,16 +20,25 @@ package org.apache.dolphinscheduler.api.service.impl;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.WorkFlowLineageService;
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.utils.CollectionUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.dao.entity.ProcessLineage;
 import org.apache.dolphinscheduler.dao.entity.WorkFlowLineage;
 import org.apache.dolphinscheduler.dao.entity.WorkFlowRelation;
+import org.apache.dolphinscheduler.dao.mapper.ProcessLineageMapper;
 import org.apache.dolphinscheduler.dao.mapper.WorkFlowLineageMapper;
+import org.apache.dolphinscheduler.dao.utils.ProcessLineageUtils;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -40,9 +49,22 @@ import org.springframework.stereotype.Service;
 @Service
 public class WorkFlowLineageServiceImpl extends BaseServiceImpl implements WorkFlowLineageService {
 
+    /**
+     * the relation graph is reloaded after it expires, to pick up changes made by other api servers
+     */
+    private static final long RELATION_GRAPH_EXPIRE_MILLIS = 60 * 1000L;
+
     @Autowired
     private WorkFlowLineageMapper workFlowLineageMapper;
 
+    @Autowired
+    private ProcessLineageMapper processLineageMapper;
+
+    /**
+     * cached relation graph of all work flows, null if it need reload
+     */
+    private volatile WorkFlowRelationGraph relationGraph;
+
     @Override
     public Map<String, Object> queryWorkFlowLineageByName(String workFlowName, int projectId) {
         Map<String, Object> result = new HashMap<>();
@@ -52,21 +74,26 @@ public class WorkFlowLineageServiceImpl extends BaseServiceImpl implements WorkF
         return result;
     }
 
-    private void getWorkFlowRelationRecursion(Set<Integer> ids, List<WorkFlowRelation> workFlowRelations, Set<Integer> sourceIds) {
-        for (int id : ids) {
-            sourceIds.addAll(ids);
-            List<WorkFlowRelation> workFlowRelationsTmp = workFlowLineageMapper.querySourceTarget(id);
-            if (workFlowRelationsTmp != null && !workFlowRelationsTmp.isEmpty()) {
-                Set<Integer> idsTmp = new HashSet<>();
-                for (WorkFlowRelation workFlowRelation:workFlowRelationsTmp) {
-                    if (!sourceIds.contains(workFlowRelation.getTargetWorkFlowId())) {
-                        idsTmp.add(workFlowRelation.getTargetWorkFlowId());
-                    }
+    /**
+     * walk the downstream relations from the ids
+     *
+     * @param graph relation graph
+     * @param ids start work flow ids
+     * @return relations reachable from the ids
+     */
+    private List<WorkFlowRelation> getDownstreamRelations(WorkFlowRelationGraph graph, Set<Integer> ids) {
+        List<WorkFlowRelation> workFlowRelations = new ArrayList<>();
+        Set<Integer> visited = new HashSet<>(ids);
+        Deque<Integer> queue = new ArrayDeque<>(ids);
+        while (!queue.isEmpty()) {
+            for (WorkFlowRelation workFlowRelation : graph.getDownstream(queue.poll())) {
+                workFlowRelations.add(workFlowRelation);
+                if (visited.add(workFlowRelation.getTargetWorkFlowId())) {
+                    queue.add(workFlowRelation.getTargetWorkFlowId());
                 }
-                workFlowRelations.addAll(workFlowRelationsTmp);
-                getWorkFlowRelationRecursion(idsTmp, workFlowRelations,sourceIds);
             }
         }
+        return workFlowRelations;
     }
 
     @Override
@@ -82,9 +109,8 @@ public class WorkFlowLineageServiceImpl extends BaseServiceImpl implements WorkF
         } else {
             idsV = ids;
         }
-        List<WorkFlowRelation> workFlowRelations = new ArrayList<>();
-        Set<Integer> sourceIds = new HashSet<>();
-        getWorkFlowRelationRecursion(idsV, workFlowRelations, sourceIds);
+        WorkFlowRelationGraph graph = getRelationGraph();
+        List<WorkFlowRelation> workFlowRelations = getDownstreamRelations(graph, idsV);
 
         Set<Integer> idSet = new HashSet<>();
         //If the incoming parameter is not empty, you need to add downstream workflow detail attributes
@@ -99,6 +125,14 @@ public class WorkFlowLineageServiceImpl extends BaseServiceImpl implements WorkF
                 workFlowLineageList.addAll(workFlowLineageMapper.queryByIds(idSet, projectId));
             }
         }
+        for (WorkFlowLineage workFlowLineage : workFlowLineageList) {
+            List<WorkFlowRelation> upstream = graph.getUpstream(workFlowLineage.getWorkFlowId());
+            if (!upstream.isEmpty()) {
+                workFlowLineage.setSourceWorkFlowId(upstream.stream()
+                        .map(workFlowRelation -> String.valueOf(workFlowRelation.getSourceWorkFlowId()))
+                        .collect(Collectors.joining(",")));
+            }
+        }
 
         workFlowLists.put(Constants.WORKFLOW_LIST, workFlowLineageList);
         workFlowLists.put(Constants.WORKFLOW_RELATION_LIST, workFlowRelations);
@@ -107,4 +141,78 @@ public class WorkFlowLineageServiceImpl extends BaseServiceImpl implements WorkF
         return result;
     }
 
+    @Override
+    public void updateProcessLineage(ProcessDefinition processDefinition) {
+        processLineageMapper.deleteByProcessDefinitionId(processDefinition.getId());
+        List<ProcessLineage> processLineages = ProcessLineageUtils.parseProcessLineage(processDefinition.getProjectId(),
+                processDefinition.getId(), processDefinition.getProcessDefinitionJson());
+        if (CollectionUtils.isNotEmpty(processLineages)) {
+            processLineageMapper.batchInsert(processLineages);
+        }
+        relationGraph = null;
+    }
+
+    @Override
+    public void addProcessLineages(List<ProcessDefinition> processDefinitions) {
+        List<ProcessLineage> processLineages = new ArrayList<>();
+        for (ProcessDefinition processDefinition : processDefinitions) {
+            processLineages.addAll(ProcessLineageUtils.parseProcessLineage(processDefinition.getProjectId(),
+                    processDefinition.getId(), processDefinition.getProcessDefinitionJson()));
+        }
+        if (CollectionUtils.isNotEmpty(processLineages)) {
+            processLineageMapper.batchInsert(processLineages);
+        }
+        relationGraph = null;
+    }
+
+    @Override
+    public void deleteProcessLineage(int processDefinitionId) {
+        processLineageMapper.deleteByProcessDefinitionId(processDefinitionId);
+        relationGraph = null;
+    }
+
+    /**
+     * get the cached relation graph, reload it from the lineage edges if it is absent or expired
+     *
+     * @return relation graph
+     */
+    private WorkFlowRelationGraph getRelationGraph() {
+        WorkFlowRelationGraph graph = relationGraph;
+        if (graph == null || System.currentTimeMillis() - graph.loadTime > RELATION_GRAPH_EXPIRE_MILLIS) {
+            graph = new WorkFlowRelationGraph(workFlowLineageMapper.queryWorkFlowRelations());
+            relationGraph = graph;
+        }
+        return graph;
+    }
+
+    /**
+     * adjacency lists of the work flow relations in both directions
+     */
+    static class WorkFlowRelationGraph {
+
+        private final long loadTime = System.currentTimeMillis();
+
+        private final Map<Integer, List<WorkFlowRelation>> downstream = new HashMap<>();
+
+        private final Map<Integer, List<WorkFlowRelation>> upstream = new HashMap<>();
+
+        WorkFlowRelationGraph(List<WorkFlowRelation> workFlowRelations) {
+            if (workFlowRelations == null) {
+                return;
+            }
+            for (WorkFlowRelation workFlowRelation : workFlowRelations) {
+                downstream.computeIfAbsent(workFlowRelation.getSourceWorkFlowId(), k -> new ArrayList<>()).add(workFlowRelation);
+                upstream.computeIfAbsent(workFlowRelation.getTargetWorkFlowId(), k -> new ArrayList<>()).add(workFlowRelation);
+            }
+        }
+
+        List<WorkFlowRelation> getDownstream(int workFlowId) {
+            return downstream.getOrDefault(workFlowId, Collections.emptyList());
+        }
+
+        List<WorkFlowRelation> getUpstream(int workFlowId) {
+            return upstream.getOrDefault(workFlowId, Collections.emptyList());
+        }
+    }
+
 }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.api.utils;
+
+import org.apache.dolphinscheduler.common.utils.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * difference between the ids a relation currently holds and the ids it should hold,
+ * so that a grant only deletes and inserts the rows that change
+ */
+public class RelationDiff {
+
+    /**
+     * ids to insert, in target order
+     */
+    private final List<Integer> added;
+
+    /**
+     * ids to delete, in current order
+     */
+    private final List<Integer> removed;
+
+    private RelationDiff(List<Integer> added, List<Integer> removed) {
+        this.added = added;
+        this.removed = removed;
+    }
+
+    /**
+     * compute the difference
+     *
+     * @param current ids currently held, may be null
+     * @param target ids that should be held, may be null
+     * @return difference
+     */
+    public static RelationDiff of(Collection<Integer> current, Collection<Integer> target) {
+        Set<Integer> currentSet = current == null ? new LinkedHashSet<>() : new LinkedHashSet<>(current);
+        Set<Integer> targetSet = target == null ? new LinkedHashSet<>() : new LinkedHashSet<>(target);
+
+        List<Integer> added = new ArrayList<>();
+        for (Integer id : targetSet) {
+            if (!currentSet.contains(id)) {
+                added.add(id);
+            }
+        }
+        List<Integer> removed = new ArrayList<>();
+        for (Integer id : currentSet) {
+            if (!targetSet.contains(id)) {
+                removed.add(id);
+            }
+        }
+        return new RelationDiff(added, removed);
+    }
+
+    /**
+     * parse an id list such as "1,2,3" or, for resources, "1-2-3,1-4" where every id of a path is granted
+     *
+     * @param ids id list, may be empty
+     * @param separators regex of the id separators
+     * @return distinct ids in the order of the list
+     */
+    public static Set<Integer> parseIds(String ids, String separators) {
+        Set<Integer> idSet = new LinkedHashSet<>();
+        if (StringUtils.isBlank(ids)) {
+            return idSet;
+        }
+        for (String id : ids.split(separators)) {
+            if (StringUtils.isNotBlank(id)) {
+                idSet.add(Integer.parseInt(id.trim()));
+            }
+        }
+        return idSet;
+    }
+
+    public List<Integer> getAdded() {
+        return added;
+    }
+
+    public List<Integer> getRemoved() {
+        return removed;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.api.cache;
+
+import org.apache.dolphinscheduler.dao.entity.User;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * authentication cache test
+ */
+public class AuthenticationCacheTest {
+
+    @Test
+    public void testGetSessionUser() {
+        AuthenticationCache authenticationCache = new AuthenticationCache(60, 100);
+        AtomicInteger loadCount = new AtomicInteger();
+        User user = getUser(1);
+
+        Assert.assertSame(user, authenticationCache.getSessionUser("session1", id -> {
+            loadCount.incrementAndGet();
+            return user;
+        }));
+        Assert.assertSame(user, authenticationCache.getSessionUser("session1", id -> null));
+        Assert.assertEquals(1, loadCount.get());
+
+        // unknown session is not cached
+        Assert.assertNull(authenticationCache.getSessionUser("session2", id -> null));
+        Assert.assertSame(user, authenticationCache.getSessionUser("session2", id -> user));
+
+        authenticationCache.invalidateSession("session1");
+        Assert.assertNull(authenticationCache.getSessionUser("session1", id -> null));
+    }
+
+    @Test
+    public void testGetTokenUser() {
+        AuthenticationCache authenticationCache = new AuthenticationCache(60, 100);
+        User user = getUser(1);
+
+        Assert.assertSame(user, authenticationCache.getTokenUser("token1", token -> user));
+        Assert.assertSame(user, authenticationCache.getTokenUser("token1", token -> null));
+
+        authenticationCache.invalidateToken("token1");
+        Assert.assertNull(authenticationCache.getTokenUser("token1", token -> null));
+    }
+
+    @Test
+    public void testInvalidateUser() {
+        AuthenticationCache authenticationCache = new AuthenticationCache(60, 100);
+        User user1 = getUser(1);
+        User user2 = getUser(2);
+        authenticationCache.getSessionUser("session1", id -> user1);
+        authenticationCache.getSessionUser("session2", id -> user2);
+        authenticationCache.getTokenUser("token1", token -> user1);
+
+        authenticationCache.invalidateUser(1);
+        Assert.assertNull(authenticationCache.getSessionUser("session1", id -> null));
+        Assert.assertNull(authenticationCache.getTokenUser("token1", token -> null));
+        Assert.assertSame(user2, authenticationCache.getSessionUser("session2", id -> null));
+    }
+
+    @Test
+    public void testGetStats() {
+        AuthenticationCache authenticationCache = new AuthenticationCache(60, 100);
+        User user = getUser(1);
+        authenticationCache.getSessionUser("session1", id -> user);
+        authenticationCache.getSessionUser("session1", id -> user);
+
+        Map<String, Object> stats = authenticationCache.getStats();
+        Map<String, Object> sessionStats = (Map<String, Object>) stats.get("session");
+        Assert.assertEquals(1L, sessionStats.get("size"));
+        Assert.assertEquals(1L, sessionStats.get("hitCount"));
+        Assert.assertEquals(1L, sessionStats.get("missCount"));
+        Assert.assertNotNull(stats.get("token"));
+    }
+
+    private User getUser(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setUserName("user" + id);
+        return user;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.api.cache;
+
+import org.apache.dolphinscheduler.api.cache.ResourceTreeCache.ResourceTree;
+import org.apache.dolphinscheduler.api.dto.resources.ResourceComponent;
+import org.apache.dolphinscheduler.common.enums.ResourceType;
+import org.apache.dolphinscheduler.dao.entity.Resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * resource tree cache test
+ */
+public class ResourceTreeCacheTest {
+
+    @Test
+    public void testGetResourceTree() {
+        ResourceTreeCache resourceTreeCache = new ResourceTreeCache();
+        AtomicInteger loadCount = new AtomicInteger();
+
+        ResourceTree resourceTree = resourceTreeCache.getResourceTree(1, ResourceType.FILE, null, () -> {
+            loadCount.incrementAndGet();
+            return getResourceList();
+        });
+        Assert.assertEquals(1, resourceTree.getChildren().size());
+        Assert.assertSame(resourceTree, resourceTreeCache.getResourceTree(1, ResourceType.FILE, null, ArrayList::new));
+        Assert.assertEquals(1, loadCount.get());
+
+        // other user or type is loaded separately
+        Assert.assertTrue(resourceTreeCache.getResourceTree(2, ResourceType.FILE, null, ArrayList::new).getChildren().isEmpty());
+        Assert.assertTrue(resourceTreeCache.getResourceTree(1, ResourceType.UDF, null, ArrayList::new).getChildren().isEmpty());
+
+        resourceTreeCache.invalidateAll();
+        Assert.assertTrue(resourceTreeCache.getResourceTree(1, ResourceType.FILE, null, ArrayList::new).getChildren().isEmpty());
+    }
+
+    @Test
+    public void testGetDirectChildren() {
+        ResourceTree resourceTree = new ResourceTree(getResourceList());
+
+        List<ResourceComponent> topLevel = resourceTree.getDirectChildren(-1);
+        Assert.assertEquals(1, topLevel.size());
+        Assert.assertTrue(topLevel.get(0).getChildren().isEmpty());
+
+        List<ResourceComponent> children = resourceTree.getDirectChildren(2);
+        Assert.assertEquals(1, children.size());
+        Assert.assertEquals("c.jar", children.get(0).getName());
+        Assert.assertEquals("2_1", resourceTree.getDirectChildren(1).get(0).getIdValue());
+
+        Assert.assertNull(resourceTree.getDirectChildren(100));
+    }
+
+    private List<Resource> getResourceList() {
+        List<Resource> resourceList = new ArrayList<>();
+        resourceList.add(new Resource(1, -1, "a", "/a", true));
+        resourceList.add(new Resource(3, 2, "c.jar", "/a/b/c.jar", false));
+        resourceList.add(new Resource(2, 1, "b", "/a/b", true));
+        return resourceList;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.api.cache;
+
+import org.apache.dolphinscheduler.api.dto.treeview.TreeViewDto;
+import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * tree view cache test
+ */
+public class TreeViewCacheTest {
+
+    @Test
+    public void testGetTreeView() {
+        TreeViewCache treeViewCache = new TreeViewCache();
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        processDefinition.setId(1);
+        processDefinition.setVersion(1);
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(10);
+        processInstance.setState(ExecutionStatus.RUNNING_EXECUTION);
+        List<ProcessInstance> processInstances = Collections.singletonList(processInstance);
+
+        // running instances are not cached
+        TreeViewDto treeViewDto = treeViewCache.getTreeView(processDefinition, processInstances, TreeViewDto::new);
+        Assert.assertNotSame(treeViewDto, treeViewCache.getTreeView(processDefinition, processInstances, TreeViewDto::new));
+
+        processInstance.setState(ExecutionStatus.SUCCESS);
+        processInstance.setEndTime(new Date(1000));
+        treeViewDto = treeViewCache.getTreeView(processDefinition, processInstances, TreeViewDto::new);
+        Assert.assertSame(treeViewDto, treeViewCache.getTreeView(processDefinition, processInstances, TreeViewDto::new));
+
+        // rerun instance
+        processInstance.setEndTime(new Date(2000));
+        Assert.assertNotSame(treeViewDto, treeViewCache.getTreeView(processDefinition, processInstances, TreeViewDto::new));
+
+        // updated definition
+        processInstance.setEndTime(new Date(1000));
+        processDefinition.setVersion(2);
+        Assert.assertNotSame(treeViewDto, treeViewCache.getTreeView(processDefinition, processInstances, TreeViewDto::new));
+    }
+}
@@ -165,6 +165,24 @@ public class UsersControllerTest extends AbstractControllerTest{
         logger.info(mvcResult.getResponse().getContentAsString());
     }
 
+    @Test
+    public void testBatchGrantDataSource() throws Exception {
+        MultiValueMap<String, String> paramsMap = new LinkedMultiValueMap<>();
+        paramsMap.add("userIds","32,33");
+        paramsMap.add("datasourceIds","5");
+
+        MvcResult mvcResult = mockMvc.perform(post("/users/batch/grant-datasource")
+                .header(SESSION_ID, sessionId)
+                .params(paramsMap))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andReturn();
+
+        Result result = JSONUtils.parseObject(mvcResult.getResponse().getContentAsString(), Result.class);
+        Assert.assertEquals(Status.SUCCESS.getCode(),result.getCode().intValue());
+        logger.info(mvcResult.getResponse().getContentAsString());
+    }
+
     @Test
     public void testGetUserInfo() throws Exception {
         MvcResult mvcResult = mockMvc.perform(get("/users/get-user-info")
@@ -51,6 +51,19 @@ public class ResourceTreeVisitorTest {
         ResourceTreeVisitor resourceTreeVisitor = new ResourceTreeVisitor(resourceList);
         ResourceComponent resourceComponent = resourceTreeVisitor.visit();
         Assert.assertNotNull(resourceComponent.getChildren());
+
+        // b, a1.txt (parent not listed), b2, b/b2
+        List<ResourceComponent> rootChildren = resourceComponent.getChildren();
+        Assert.assertEquals(4, rootChildren.size());
+        Assert.assertEquals(3, rootChildren.get(0).getId());
+        Assert.assertEquals(2, rootChildren.get(0).getChildren().size());
+        Assert.assertEquals(6, rootChildren.get(0).getChildren().get(1).getId());
+        Assert.assertEquals(4, rootChildren.get(1).getId());
+        Assert.assertEquals(9, rootChildren.get(3).getChildren().get(0).getId());
+
+        List<ResourceComponent> children = ResourceTreeVisitor.setChildren(3, resourceList);
+        Assert.assertEquals(2, children.size());
+        Assert.assertEquals(5, children.get(0).getId());
     }
 
     @Test
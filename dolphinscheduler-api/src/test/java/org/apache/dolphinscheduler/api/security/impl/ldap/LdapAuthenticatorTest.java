@@ -130,11 +130,13 @@ public class LdapAuthenticatorTest {
     public void testGetAuthUser() {
         HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
         when(usersService.queryUser(mockUser.getId())).thenReturn(mockUser);
+        when(sessionService.getSessionId(request)).thenReturn(mockSession.getId());
         when(sessionService.getSession(request)).thenReturn(mockSession);
 
         User user = ldapAuthenticator.getAuthUser(request);
         Assert.assertNotNull(user);
 
+        when(sessionService.getSessionId(request)).thenReturn(UUID.randomUUID().toString());
         when(sessionService.getSession(request)).thenReturn(null);
         user = ldapAuthenticator.getAuthUser(request);
         Assert.assertNull(user);
@@ -108,6 +108,7 @@ public class PasswordAuthenticatorTest {
     public void testGetAuthUser() {
         HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
         when(usersService.queryUser(mockUser.getId())).thenReturn(mockUser);
+        when(sessionService.getSessionId(request)).thenReturn(mockSession.getId());
         when(sessionService.getSession(request)).thenReturn(mockSession);
 
         User user = authenticator.getAuthUser(request);
@@ -19,8 +19,10 @@ package org.apache.dolphinscheduler.api.service;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.apache.dolphinscheduler.api.cache.AuthenticationCache;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.impl.AccessTokenServiceImpl;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
@@ -63,6 +65,9 @@ public class AccessTokenServiceTest {
     @Mock
     private AccessTokenMapper accessTokenMapper;
 
+    @Mock
+    private AuthenticationCache authenticationCache;
+
     @Test
     @SuppressWarnings("unchecked")
     public void testQueryAccessTokenList() {
@@ -118,6 +123,7 @@ public class AccessTokenServiceTest {
         result = accessTokenService.delAccessTokenById(userLogin, 1);
         logger.info(result.toString());
         Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+        verify(authenticationCache).invalidateToken(any());
     }
 
     @Test
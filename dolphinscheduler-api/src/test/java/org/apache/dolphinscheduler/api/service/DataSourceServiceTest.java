@@ -34,6 +34,7 @@ import org.apache.dolphinscheduler.dao.entity.DataSource;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.DataSourceMapper;
 import org.apache.dolphinscheduler.dao.mapper.DataSourceUserMapper;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
 
 import java.sql.Connection;
 import java.util.ArrayList;
@@ -68,6 +69,9 @@ public class DataSourceServiceTest {
     @Mock
     private DataSourceUserMapper datasourceUserMapper;
 
+    @Mock
+    private AuthorizationCache authorizationCache;
+
     public void createDataSourceTest() {
         User loginUser = getAdminUser();
 
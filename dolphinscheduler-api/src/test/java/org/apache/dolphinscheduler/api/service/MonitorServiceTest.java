@@ -17,16 +17,20 @@
 
 package org.apache.dolphinscheduler.api.service;
 
+import org.apache.dolphinscheduler.api.cache.AuthenticationCache;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.impl.MonitorServiceImpl;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.DbType;
+import org.apache.dolphinscheduler.common.enums.UserType;
 import org.apache.dolphinscheduler.common.model.Server;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.dao.MonitorDBDao;
 import org.apache.dolphinscheduler.dao.entity.MonitorRecord;
+import org.apache.dolphinscheduler.dao.entity.User;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -54,6 +58,9 @@ public class MonitorServiceTest {
     @Mock
     private MonitorDBDao monitorDBDao;
 
+    @Mock
+    private AuthenticationCache authenticationCache;
+
     @Test
     public  void testQueryDatabaseState(){
 
@@ -64,6 +71,19 @@ public class MonitorServiceTest {
         List<MonitorRecord> monitorRecordList = (List<MonitorRecord>) result.get(Constants.DATA_LIST);
         Assert.assertTrue(CollectionUtils.isNotEmpty(monitorRecordList));
     }
+    @Test
+    public void testQueryAuthenticationCacheStats() {
+        User loginUser = new User();
+        loginUser.setUserType(UserType.GENERAL_USER);
+        Map<String,Object> result = monitorService.queryAuthenticationCacheStats(loginUser);
+        Assert.assertEquals(Status.USER_NO_OPERATION_PERM, result.get(Constants.STATUS));
+
+        loginUser.setUserType(UserType.ADMIN_USER);
+        Mockito.when(authenticationCache.getStats()).thenReturn(new HashMap<>());
+        result = monitorService.queryAuthenticationCacheStats(loginUser);
+        Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+    }
+
     @Test
     public  void testQueryMaster(){
         //TODO need zk
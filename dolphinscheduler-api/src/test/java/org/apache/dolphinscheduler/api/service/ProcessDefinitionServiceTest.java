@@ -21,7 +21,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.powermock.api.mockito.PowerMockito.mock;
 import static org.powermock.api.mockito.PowerMockito.when;
 
+import org.apache.dolphinscheduler.api.cache.TreeViewCache;
 import org.apache.dolphinscheduler.api.dto.ProcessMeta;
+import org.apache.dolphinscheduler.api.dto.treeview.TreeViewDto;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.impl.ProcessDefinitionServiceImpl;
 import org.apache.dolphinscheduler.api.service.impl.ProjectServiceImpl;
@@ -52,13 +54,16 @@ import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.apache.dolphinscheduler.service.process.SubProcessClosure;
 
 import org.apache.http.entity.ContentType;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -69,21 +74,28 @@ import java.util.List;
 import java.util.Map;
 
 import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletResponse;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
  * process definition service test
@@ -251,6 +263,12 @@ public class ProcessDefinitionServiceTest {
     private TaskInstanceMapper taskInstanceMapper;
     @Mock
     private ProcessDefinitionVersionService processDefinitionVersionService;
+    @Mock
+    private WorkFlowLineageService workFlowLineageService;
+    @Spy
+    private TreeViewCache treeViewCache = new TreeViewCache();
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @Test
     public void testQueryProcessDefinitionList() {
@@ -443,6 +461,8 @@ public class ProcessDefinitionServiceTest {
         definition.setConnects("[]");
 
         Mockito.when(processDefineMapper.selectById(46)).thenReturn(definition);
+        Mockito.when(processService.buildSubProcessClosure(Mockito.anyInt(), Mockito.any(ProcessData.class)))
+                .thenReturn(new SubProcessClosure(0, new ArrayList<>(), new HashMap<>(), false));
 
         Map<String, Object> map3 = processDefinitionService.batchCopyProcessDefinition(
                 loginUser, projectName, "46", 1);
@@ -769,22 +789,34 @@ public class ProcessDefinitionServiceTest {
         taskInstance.setEndTime(new Date());
         taskInstance.setTaskType("SHELL");
         taskInstance.setId(1);
-        taskInstance.setName("test_task_instance");
+        taskInstance.setName("shell-1");
+        taskInstance.setProcessInstanceId(processInstance.getId());
         taskInstance.setState(ExecutionStatus.RUNNING_EXECUTION);
         taskInstance.setHost("192.168.xx.xx");
 
         //task instance not exist
         Mockito.when(processDefineMapper.selectById(46)).thenReturn(processDefinition);
         Mockito.when(processInstanceService.queryByProcessDefineId(46, 10)).thenReturn(processInstanceList);
-        Mockito.when(taskInstanceMapper.queryByInstanceIdAndName(processInstance.getId(), "shell-1")).thenReturn(null);
+        Mockito.when(taskInstanceMapper.findValidTaskListByProcessIds(Collections.singletonList(processInstance.getId())))
+                .thenReturn(Collections.emptyList());
         Map<String, Object> taskNullRes = processDefinitionService.viewTree(46, 10);
         Assert.assertEquals(Status.SUCCESS, taskNullRes.get(Constants.STATUS));
+        TreeViewDto treeViewDto = (TreeViewDto) taskNullRes.get(Constants.DATA_LIST);
+        Assert.assertEquals(-1, treeViewDto.getChildren().get(0).getInstances().get(0).getId());
 
         //task instance exist
-        Mockito.when(taskInstanceMapper.queryByInstanceIdAndName(processInstance.getId(), "shell-1")).thenReturn(taskInstance);
+        Mockito.when(taskInstanceMapper.findValidTaskListByProcessIds(Collections.singletonList(processInstance.getId())))
+                .thenReturn(Collections.singletonList(taskInstance));
         Map<String, Object> taskNotNuLLRes = processDefinitionService.viewTree(46, 10);
         Assert.assertEquals(Status.SUCCESS, taskNotNuLLRes.get(Constants.STATUS));
-
+        treeViewDto = (TreeViewDto) taskNotNuLLRes.get(Constants.DATA_LIST);
+        Assert.assertEquals(1, treeViewDto.getChildren().get(0).getInstances().get(0).getId());
+
+        //finished instances are cached
+        processInstance.setState(ExecutionStatus.SUCCESS);
+        processDefinitionService.viewTree(46, 10);
+        processDefinitionService.viewTree(46, 10);
+        Mockito.verify(taskInstanceMapper, Mockito.times(3)).findValidTaskListByProcessIds(Mockito.anyList());
     }
 
     @Test
@@ -807,7 +839,8 @@ public class ProcessDefinitionServiceTest {
         taskInstance.setEndTime(new Date());
         taskInstance.setTaskType("SUB_PROCESS");
         taskInstance.setId(1);
-        taskInstance.setName("test_task_instance");
+        taskInstance.setName("shell-1");
+        taskInstance.setProcessInstanceId(processInstance.getId());
         taskInstance.setState(ExecutionStatus.RUNNING_EXECUTION);
         taskInstance.setHost("192.168.xx.xx");
         taskInstance.setTaskJson("{\n"
@@ -844,9 +877,12 @@ public class ProcessDefinitionServiceTest {
         //task instance exist
         Mockito.when(processDefineMapper.selectById(46)).thenReturn(processDefinition);
         Mockito.when(processInstanceService.queryByProcessDefineId(46, 10)).thenReturn(processInstanceList);
-        Mockito.when(taskInstanceMapper.queryByInstanceIdAndName(processInstance.getId(), "shell-1")).thenReturn(taskInstance);
+        Mockito.when(taskInstanceMapper.findValidTaskListByProcessIds(Collections.singletonList(processInstance.getId())))
+                .thenReturn(Collections.singletonList(taskInstance));
         Map<String, Object> taskNotNuLLRes = processDefinitionService.viewTree(46, 10);
         Assert.assertEquals(Status.SUCCESS, taskNotNuLLRes.get(Constants.STATUS));
+        TreeViewDto treeViewDto = (TreeViewDto) taskNotNuLLRes.get(Constants.DATA_LIST);
+        Assert.assertEquals(222, treeViewDto.getChildren().get(0).getInstances().get(0).getSubflowId());
 
     }
 
@@ -945,10 +981,22 @@ public class ProcessDefinitionServiceTest {
         Mockito.when(projectMapper.queryByName(currentProjectName)).thenReturn(getProject(currentProjectName));
         Mockito.when(projectService.checkProjectAndAuth(loginUser, getProject(currentProjectName), currentProjectName)).thenReturn(result);
         Mockito.when(processDefineMapper.queryByDefineId(46)).thenReturn(shellDefinition2);
+        Mockito.when(processService.buildSubProcessClosure(Mockito.anyInt(), Mockito.any(ProcessData.class)))
+                .thenReturn(new SubProcessClosure(0, new ArrayList<>(), new HashMap<>(), false));
+        Mockito.when(processDefineMapper.insert(Mockito.any(ProcessDefinition.class))).thenAnswer(invocation -> {
+            invocation.<ProcessDefinition>getArgument(0).setId(47);
+            return 1;
+        });
+        mockTransactionTemplate();
 
-        Map<String, Object> importProcessResult = processDefinitionService.importProcessDefinition(loginUser, multipartFile, currentProjectName);
+        Map<String, Object> importProcessResult = processDefinitionService.importProcessDefinition(loginUser, multipartFile, currentProjectName, 0);
 
         Assert.assertEquals(Status.SUCCESS, importProcessResult.get(Constants.STATUS));
+        Assert.assertEquals(1, importProcessResult.get(Constants.DATA_LIST));
+        // the sub process task refers to the sub process created in the current project
+        ArgumentCaptor<List<ProcessDefinition>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(processDefineMapper).batchInsert(captor.capture());
+        Assert.assertTrue(captor.getValue().get(0).getProcessDefinitionJson().contains("\"processDefinitionId\":47"));
 
         boolean delete = file.delete();
 
@@ -973,6 +1021,8 @@ public class ProcessDefinitionServiceTest {
         Mockito.when(projectService.checkProjectAndAuth(loginUser, project, projectName)).thenReturn(result);
         Mockito.when(processService.findProcessDefineById(1)).thenReturn(processDefinition);
         Mockito.when(processDefinitionVersionService.addProcessDefinitionVersion(processDefinition)).thenReturn(1L);
+        Mockito.when(processService.buildSubProcessClosure(Mockito.eq(1), Mockito.any(ProcessData.class)))
+                .thenReturn(new SubProcessClosure(1, new ArrayList<>(), new HashMap<>(), false));
 
         String sqlDependentJson = "{\n"
                 + "    \"globalParams\": [\n"
@@ -1069,6 +1119,38 @@ public class ProcessDefinitionServiceTest {
         Assert.assertEquals(Status.UPDATE_PROCESS_DEFINITION_ERROR, updateResult.get(Constants.STATUS));
     }
 
+    @Test
+    public void testUpdateProcessDefinitionWithSubProcessCycle() {
+        User loginUser = new User();
+        loginUser.setId(1);
+        loginUser.setUserType(UserType.ADMIN_USER);
+
+        Map<String, Object> result = new HashMap<>();
+        putMsg(result, Status.SUCCESS);
+
+        String projectName = "project_test1";
+        Project project = getProject(projectName);
+
+        Mockito.when(projectMapper.queryByName(projectName)).thenReturn(getProject(projectName));
+        Mockito.when(projectService.checkProjectAndAuth(loginUser, project, projectName)).thenReturn(result);
+        Mockito.when(processService.buildSubProcessClosure(Mockito.eq(1), Mockito.any(ProcessData.class)))
+                .thenReturn(new SubProcessClosure(1, Collections.singletonList(2), new HashMap<>(), true));
+
+        Map<String, Object> updateResult = processDefinitionService.updateProcessDefinition(loginUser, projectName, 1, "test",
+                SHELL_JSON, "", "", "");
+        Assert.assertEquals(Status.PROCESS_DEFINITION_SUB_PROCESS_CYCLE, updateResult.get(Constants.STATUS));
+
+        List<Integer> subProcessIds = new ArrayList<>();
+        for (int i = 0; i <= Constants.MAX_SUB_PROCESS_NUM; i++) {
+            subProcessIds.add(2);
+        }
+        Mockito.when(processService.buildSubProcessClosure(Mockito.eq(1), Mockito.any(ProcessData.class)))
+                .thenReturn(new SubProcessClosure(1, subProcessIds, new HashMap<>(), false));
+        updateResult = processDefinitionService.updateProcessDefinition(loginUser, projectName, 1, "test",
+                SHELL_JSON, "", "", "");
+        Assert.assertEquals(Status.PROCESS_DEFINITION_SUB_PROCESS_TOO_MANY, updateResult.get(Constants.STATUS));
+    }
+
     @Test
     public void testBatchExportProcessDefinitionByIds() throws IOException {
         processDefinitionService.batchExportProcessDefinitionByIds(
@@ -1102,14 +1184,143 @@ public class ProcessDefinitionServiceTest {
         checkResult.put(Constants.STATUS, Status.SUCCESS);
         Mockito.when(projectMapper.queryByName(projectName)).thenReturn(project);
         Mockito.when(projectService.checkProjectAndAuth(loginUser, project, projectName)).thenReturn(checkResult);
-        Mockito.when(processDefineMapper.queryByDefineId(1)).thenReturn(processDefinition);
+        processDefinition.setProjectId(project.getId());
+        processDefinition.setName("shell");
+        ProcessDefinition otherProjectDefinition = new ProcessDefinition();
+        otherProjectDefinition.setId(2);
+        otherProjectDefinition.setProjectId(project.getId() + 1);
+        Mockito.when(processDefineMapper.queryDefinitionListByIdList(new Integer[] {1, 2}))
+                .thenReturn(Arrays.asList(processDefinition, otherProjectDefinition));
         HttpServletResponse response = mock(HttpServletResponse.class);
 
-        ServletOutputStream outputStream = mock(ServletOutputStream.class);
-        when(response.getOutputStream()).thenReturn(outputStream);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+
+            @Override
+            public void write(int b) {
+                out.write(b);
+            }
+        });
         processDefinitionService.batchExportProcessDefinitionByIds(
-                loginUser, projectName, "1", response);
+                loginUser, projectName, "1,2", response);
+
+        // the process definition of another project is not exported
+        List<ProcessMeta> processMetaList = JSONUtils.toList(out.toString("UTF-8"), ProcessMeta.class);
+        Assert.assertEquals(1, processMetaList.size());
+        Assert.assertEquals("shell", processMetaList.get(0).getProcessDefinitionName());
+        Assert.assertEquals(projectName, processMetaList.get(0).getProjectName());
+    }
 
+    @Test
+    public void testImportProcessDefinitionInBatches() {
+        User loginUser = new User();
+        loginUser.setId(1);
+        loginUser.setUserType(UserType.ADMIN_USER);
+        String projectName = "project_test1";
+        Project project = getProject(projectName);
+        Map<String, Object> checkResult = new HashMap<>();
+        putMsg(checkResult, Status.SUCCESS);
+        Mockito.when(projectMapper.queryByName(projectName)).thenReturn(project);
+        Mockito.when(projectService.checkProjectAndAuth(loginUser, project, projectName)).thenReturn(checkResult);
+        Mockito.when(processDefineMapper.queryDefineNameListByProjectId(project.getId())).thenReturn(Collections.singletonList("shell"));
+        Mockito.when(processService.buildSubProcessClosure(Mockito.anyInt(), Mockito.any(ProcessData.class)))
+                .thenReturn(new SubProcessClosure(0, new ArrayList<>(), new HashMap<>(), false));
+        mockTransactionTemplate();
+
+        List<ProcessMeta> processMetaList = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            ProcessMeta processMeta = new ProcessMeta();
+            processMeta.setProjectName(projectName);
+            processMeta.setProcessDefinitionName("shell");
+            processMeta.setProcessDefinitionJson(SHELL_JSON);
+            processMetaList.add(processMeta);
+        }
+        MultipartFile file = new MockMultipartFile("process.json", JSONUtils.toJsonString(processMetaList).getBytes(StandardCharsets.UTF_8));
+
+        // resume after the first 50
+        Map<String, Object> result = processDefinitionService.importProcessDefinition(loginUser, file, projectName, 50);
+        Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+        Assert.assertEquals(250, result.get(Constants.DATA_LIST));
+        ArgumentCaptor<List<ProcessDefinition>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(processDefineMapper, Mockito.times(2)).batchInsert(captor.capture());
+        Assert.assertEquals(100, captor.getAllValues().get(0).size());
+        Assert.assertEquals(100, captor.getAllValues().get(1).size());
+        // names are made unique in memory
+        Assert.assertTrue(captor.getAllValues().get(0).get(0).getName().startsWith("shell(1)_import_"));
+        Assert.assertTrue(captor.getAllValues().get(0).get(1).getName().startsWith("shell(2)_import_"));
+        Mockito.verify(processDefineMapper, Mockito.never()).queryByDefineName(Mockito.anyInt(), Mockito.anyString());
+
+        // the import stops at the definition without name, the batches before it are kept
+        processMetaList.get(180).setProcessDefinitionName(null);
+        file = new MockMultipartFile("process.json", JSONUtils.toJsonString(processMetaList).getBytes(StandardCharsets.UTF_8));
+        result = processDefinitionService.importProcessDefinition(loginUser, file, projectName, 0);
+        Assert.assertEquals(Status.DATA_IS_NULL, result.get(Constants.STATUS));
+        Assert.assertEquals(100, result.get(Constants.DATA_LIST));
+    }
+
+    @Test
+    public void testImportSubProcessOfSameFile() {
+        User loginUser = new User();
+        loginUser.setId(1);
+        loginUser.setUserType(UserType.ADMIN_USER);
+        String projectName = "project_test1";
+        Project project = getProject(projectName);
+        Map<String, Object> checkResult = new HashMap<>();
+        putMsg(checkResult, Status.SUCCESS);
+        Mockito.when(projectMapper.queryByName(projectName)).thenReturn(project);
+        Mockito.when(projectService.checkProjectAndAuth(loginUser, project, projectName)).thenReturn(checkResult);
+        Mockito.when(processDefineMapper.queryDefineNameListByProjectId(project.getId())).thenReturn(new ArrayList<>());
+        Mockito.when(processService.buildSubProcessClosure(Mockito.anyInt(), Mockito.any(ProcessData.class)))
+                .thenReturn(new SubProcessClosure(0, new ArrayList<>(), new HashMap<>(), false));
+        mockTransactionTemplate();
+
+        // the child of the source project
+        ProcessDefinition sourceChild = new ProcessDefinition();
+        sourceChild.setId(46);
+        sourceChild.setName("child");
+        sourceChild.setProjectId(2);
+        sourceChild.setProcessDefinitionJson(SHELL_JSON);
+        Mockito.when(processDefineMapper.queryByDefineId(46)).thenReturn(sourceChild);
+        Mockito.when(processDefineMapper.insert(Mockito.any(ProcessDefinition.class))).thenAnswer(invocation -> {
+            invocation.<ProcessDefinition>getArgument(0).setId(47);
+            return 1;
+        });
+
+        // the child is exported before its parent
+        ProcessMeta child = new ProcessMeta();
+        child.setProjectName(projectName);
+        child.setProcessDefinitionName("child");
+        child.setProcessDefinitionJson(SHELL_JSON);
+        ObjectNode parentJson = JSONUtils.parseObject(SHELL_JSON);
+        ObjectNode subProcessTask = (ObjectNode) parentJson.get("tasks").get(0);
+        subProcessTask.put("type", "SUB_PROCESS");
+        subProcessTask.set("params", JSONUtils.parseObject("{\"processDefinitionId\":46}"));
+        ProcessMeta parent = new ProcessMeta();
+        parent.setProjectName(projectName);
+        parent.setProcessDefinitionName("parent");
+        parent.setProcessDefinitionJson(parentJson.toString());
+        MultipartFile file = new MockMultipartFile("process.json", JSONUtils.toJsonString(Arrays.asList(child, parent)).getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Object> result = processDefinitionService.importProcessDefinition(loginUser, file, projectName, 0);
+        Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+
+        // the imported child is inserted as child_import_..., so the child is copied for the parent
+        ArgumentCaptor<ProcessDefinition> subProcessCaptor = ArgumentCaptor.forClass(ProcessDefinition.class);
+        Mockito.verify(processDefineMapper).insert(subProcessCaptor.capture());
+        Assert.assertEquals("child", subProcessCaptor.getValue().getName());
+        ArgumentCaptor<List<ProcessDefinition>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(processDefineMapper).batchInsert(captor.capture());
+        Assert.assertTrue(captor.getValue().get(0).getName().startsWith("child_import_"));
+        Assert.assertTrue(captor.getValue().get(1).getName().startsWith("parent_import_"));
+        Assert.assertTrue(captor.getValue().get(1).getProcessDefinitionJson().contains("\"processDefinitionId\":47"));
     }
 
     @Test
@@ -1293,6 +1504,12 @@ public class ProcessDefinitionServiceTest {
         return scheduleList;
     }
 
+    @SuppressWarnings("unchecked")
+    private void mockTransactionTemplate() {
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(new SimpleTransactionStatus()));
+    }
+
     private void putMsg(Map<String, Object> result, Status status, Object... statusParams) {
         result.put(Constants.STATUS, status);
         if (statusParams != null && statusParams.length > 0) {
@@ -29,6 +29,7 @@ import org.apache.dolphinscheduler.dao.entity.Project;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionVersionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
+import org.apache.dolphinscheduler.service.process.ProcessJsonSnapshotStore;
 
 import java.text.MessageFormat;
 import java.util.HashMap;
@@ -63,6 +64,9 @@ public class ProcessDefinitionVersionServiceTest {
     @Mock
     private ProjectServiceImpl projectService;
 
+    @Mock
+    private ProcessJsonSnapshotStore processJsonSnapshotStore;
+
     @Test
     public void testAddProcessDefinitionVersion() {
         long expectedVersion = 5L;
@@ -71,9 +75,14 @@ public class ProcessDefinitionVersionServiceTest {
                 .queryMaxVersionByProcessDefinitionId(processDefinition.getId()))
                 .thenReturn(expectedVersion);
 
+        Mockito.when(processJsonSnapshotStore.save(processDefinition.getProcessDefinitionJson(), null))
+                .thenReturn("hash");
+
         long version = processDefinitionVersionService.addProcessDefinitionVersion(processDefinition);
 
         Assert.assertEquals(expectedVersion + 1, version);
+        Mockito.verify(processDefinitionVersionMapper).insert(Mockito.argThat(
+                processDefinitionVersion -> "hash".equals(processDefinitionVersion.getProcessDefinitionJsonHash())));
     }
 
     @Test
@@ -169,6 +178,25 @@ public class ProcessDefinitionVersionServiceTest {
         Assert.assertEquals(expectedProcessDefinitionVersion, processDefinitionVersion);
     }
 
+    @Test
+    public void testQueryByProcessDefinitionIdAndVersionFromSnapshot() {
+        ProcessDefinition processDefinition = getProcessDefinition();
+        ProcessDefinitionVersion expectedProcessDefinitionVersion = getProcessDefinitionVersion(processDefinition);
+        expectedProcessDefinitionVersion.setProcessDefinitionJson(null);
+        expectedProcessDefinitionVersion.setProcessDefinitionJsonHash("hash");
+
+        int processDefinitionId = 66;
+        long version = 10;
+        Mockito.when(processDefinitionVersionMapper.queryByProcessDefinitionIdAndVersion(processDefinitionId, version))
+                .thenReturn(expectedProcessDefinitionVersion);
+        Mockito.when(processJsonSnapshotStore.load("hash")).thenReturn(processDefinition.getProcessDefinitionJson());
+
+        ProcessDefinitionVersion processDefinitionVersion = processDefinitionVersionService
+                .queryByProcessDefinitionIdAndVersion(processDefinitionId, version);
+
+        Assert.assertEquals(processDefinition.getProcessDefinitionJson(), processDefinitionVersion.getProcessDefinitionJson());
+    }
+
     @Test
     public void testDeleteByProcessDefinitionIdAndVersion() {
         String projectName = "project_test1";
@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.api.service;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
+import org.apache.dolphinscheduler.api.dto.gantt.GanttDto;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.impl.LoggerServiceImpl;
 import org.apache.dolphinscheduler.api.service.impl.ProcessInstanceServiceImpl;
@@ -50,6 +51,7 @@ import java.io.IOException;
 import java.text.MessageFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -104,6 +106,9 @@ public class ProcessInstanceServiceTest {
     @Mock
     UsersService usersService;
 
+    @Mock
+    WorkFlowLineageService workFlowLineageService;
+
     private String shellJson = "{\"globalParams\":[],\"tasks\":[{\"type\":\"SHELL\",\"id\":\"tasks-9527\",\"name\":\"shell-1\","
             + "\"params\":{\"resourceList\":[],\"localParams\":[],\"rawScript\":\"#!/bin/bash\\necho \\\"shell-1\\\"\"},"
             + "\"description\":\"\",\"runFlag\":\"NORMAL\",\"dependence\":{},\"maxRetryTimes\":\"0\",\"retryInterval\":\"1\","
@@ -222,6 +227,8 @@ public class ProcessInstanceServiceTest {
         when(processService.findProcessDefineById(processInstance.getProcessDefinitionId())).thenReturn(processDefinition);
         Map<String, Object> successRes = processInstanceService.queryProcessInstanceById(loginUser, projectName, 1);
         Assert.assertEquals(Status.SUCCESS, successRes.get(Constants.STATUS));
+        // the detail view loads the json snapshot
+        Mockito.verify(processService).getProcessInstanceJson(processInstance);
 
         //worker group null
         Map<String, Object> workerNullRes = processInstanceService.queryProcessInstanceById(loginUser, projectName, 1);
@@ -449,7 +456,7 @@ public class ProcessInstanceServiceTest {
         ProcessInstance processInstance = getProcessInstance();
         processInstance.setCommandType(CommandType.SCHEDULER);
         processInstance.setScheduleTime(new Date());
-        processInstance.setProcessInstanceJson(shellJson);
+        when(processService.getProcessInstanceJson(processInstance)).thenReturn(shellJson);
         processInstance.setGlobalParams("");
         when(processInstanceMapper.queryDetailById(1)).thenReturn(processInstance);
         Map<String, Object> successRes = processInstanceService.viewVariables(1);
@@ -459,14 +466,18 @@ public class ProcessInstanceServiceTest {
     @Test
     public void testViewGantt() throws Exception {
         ProcessInstance processInstance = getProcessInstance();
-        processInstance.setProcessInstanceJson(shellJson);
+        when(processService.getProcessInstanceJson(processInstance)).thenReturn(shellJson);
         TaskInstance taskInstance = getTaskInstance();
         taskInstance.setState(ExecutionStatus.RUNNING_EXECUTION);
         taskInstance.setStartTime(new Date());
         when(processInstanceMapper.queryDetailById(1)).thenReturn(processInstance);
-        when(taskInstanceMapper.queryByInstanceIdAndName(Mockito.anyInt(), Mockito.any())).thenReturn(taskInstance);
+        taskInstance.setName("shell-1");
+        when(taskInstanceMapper.findValidTaskListByProcessId(1, Flag.YES)).thenReturn(Collections.singletonList(taskInstance));
         Map<String, Object> successRes = processInstanceService.viewGantt(1);
         Assert.assertEquals(Status.SUCCESS, successRes.get(Constants.STATUS));
+        GanttDto ganttDto = (GanttDto) successRes.get(Constants.DATA_LIST);
+        Assert.assertEquals(1, ganttDto.getTasks().size());
+        Assert.assertEquals("shell-1", ganttDto.getTasks().get(0).getTaskName());
     }
 
     /**
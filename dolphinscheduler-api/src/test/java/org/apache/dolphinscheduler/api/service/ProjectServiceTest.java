@@ -25,11 +25,11 @@ import org.apache.dolphinscheduler.common.enums.UserType;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.Project;
-import org.apache.dolphinscheduler.dao.entity.ProjectUser;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
-import org.apache.dolphinscheduler.dao.mapper.ProjectUserMapper;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache.UserAuthorization;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -65,7 +65,7 @@ public class ProjectServiceTest {
     private ProjectMapper projectMapper;
 
     @Mock
-    private ProjectUserMapper projectUserMapper;
+    private AuthorizationCache authorizationCache;
 
     @Mock
     private ProcessDefinitionMapper processDefinitionMapper;
@@ -116,7 +116,7 @@ public class ProjectServiceTest {
     @Test
     public void testCheckProjectAndAuth() {
 
-        Mockito.when(projectUserMapper.queryProjectRelation(1, 1)).thenReturn(getProjectUser());
+        Mockito.when(authorizationCache.getUserAuthorization(1)).thenReturn(getUserAuthorization(2, Constants.READ_PERMISSION));
         User loginUser = getLoginUser();
 
         Map<String, Object> result = projectService.checkProjectAndAuth(loginUser, null, projectName);
@@ -152,12 +152,18 @@ public class ProjectServiceTest {
         project1.setUserId(1);
         projectService.checkProjectAndAuth(loginUser, project1, projectName);
 
+        //granted project
+        Project project2 = getProject();
+        project2.setId(2);
+        project2.setUserId(2);
+        result2 = projectService.checkProjectAndAuth(loginUser, project2, projectName);
+        Assert.assertEquals(Status.SUCCESS, result2.get(Constants.STATUS));
     }
 
     @Test
     public void testHasProjectAndPerm() {
 
-        // Mockito.when(projectUserMapper.queryProjectRelation(1, 1)).thenReturn(getProjectUser());
+        Mockito.when(authorizationCache.getUserAuthorization(Integer.MAX_VALUE)).thenReturn(getUserAuthorization(2, Constants.READ_PERMISSION));
         User loginUser = getLoginUser();
         Project project = getProject();
         Map<String, Object> result = new HashMap<>();
@@ -211,6 +217,7 @@ public class ProjectServiceTest {
         Assert.assertEquals(Status.PROJECT_NOT_FOUNT, result.get(Constants.STATUS));
         loginUser.setId(2);
         //USER_NO_OPERATION_PROJECT_PERM
+        Mockito.when(authorizationCache.getUserAuthorization(2)).thenReturn(getUserAuthorization(2, Constants.READ_PERMISSION));
         result = projectService.deleteProject(loginUser, 1);
         logger.info(result.toString());
         Assert.assertEquals(Status.USER_NO_OPERATION_PROJECT_PERM, result.get(Constants.STATUS));
@@ -228,6 +235,7 @@ public class ProjectServiceTest {
         result = projectService.deleteProject(loginUser, 1);
         logger.info(result.toString());
         Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+        Mockito.verify(authorizationCache).invalidateAll();
 
     }
 
@@ -374,11 +382,8 @@ public class ProjectServiceTest {
     /**
      * get project user
      */
-    private ProjectUser getProjectUser() {
-        ProjectUser projectUser = new ProjectUser();
-        projectUser.setProjectId(1);
-        projectUser.setUserId(1);
-        return projectUser;
+    private UserAuthorization getUserAuthorization(int projectId, int perm) {
+        return new UserAuthorization(Collections.singletonMap(projectId, perm), new int[0], new String[0], new int[0], new int[0]);
     }
 
     private List<ProcessDefinition> getProcessDefinitions() {
@@ -17,6 +17,8 @@
 
 package org.apache.dolphinscheduler.api.service;
 
+import org.apache.dolphinscheduler.api.cache.ResourceTreeCache;
+import org.apache.dolphinscheduler.api.dto.resources.ResourceComponent;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.impl.ResourcesServiceImpl;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
@@ -38,6 +40,7 @@ import org.apache.dolphinscheduler.dao.mapper.ResourceUserMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UdfFuncMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -52,6 +55,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -97,6 +101,12 @@ public class ResourcesServiceTest {
     @Mock
     private ResourceUserMapper resourceUserMapper;
 
+    @Spy
+    private ResourceTreeCache resourceTreeCache = new ResourceTreeCache();
+
+    @Mock
+    private AuthorizationCache authorizationCache;
+
     @Before
     public void setUp() {
 
@@ -287,6 +297,33 @@ public class ResourcesServiceTest {
         Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
         List<Resource> resourceList = (List<Resource>) result.get(Constants.DATA_LIST);
         Assert.assertTrue(CollectionUtils.isNotEmpty(resourceList));
+
+        // served from the resource tree cache
+        resourcesService.queryResourceList(loginUser, ResourceType.FILE);
+        Mockito.verify(resourcesMapper, Mockito.times(1)).queryResourceListAuthored(0, 0, 0);
+    }
+
+    @Test
+    public void testQueryResourceChildren() {
+        User loginUser = new User();
+        loginUser.setId(0);
+        loginUser.setUserType(UserType.ADMIN_USER);
+        List<Resource> resourceList = new ArrayList<>();
+        resourceList.add(new Resource(1, -1, "dir", "/dir", true));
+        resourceList.add(new Resource(2, 1, "a.txt", "/dir/a.txt", false));
+        resourceList.add(new Resource(3, 1, "sub", "/dir/sub", true));
+        resourceList.add(new Resource(4, 3, "b.txt", "/dir/sub/b.txt", false));
+        Mockito.when(resourcesMapper.queryResourceListAuthored(0, 0, 0)).thenReturn(resourceList);
+
+        Map<String, Object> result = resourcesService.queryResourceChildren(loginUser, ResourceType.FILE, 1);
+        Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+        List<ResourceComponent> children = (List<ResourceComponent>) result.get(Constants.DATA_LIST);
+        Assert.assertEquals(2, children.size());
+        Assert.assertEquals(3, children.get(1).getId());
+        Assert.assertTrue(children.get(1).getChildren().isEmpty());
+
+        result = resourcesService.queryResourceChildren(loginUser, ResourceType.FILE, 10);
+        Assert.assertEquals(Status.RESOURCE_NOT_EXIST, result.get(Constants.STATUS));
     }
 
     @Test
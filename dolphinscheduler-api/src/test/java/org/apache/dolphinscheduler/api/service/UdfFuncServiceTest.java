@@ -32,6 +32,7 @@ import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ResourceMapper;
 import org.apache.dolphinscheduler.dao.mapper.UDFUserMapper;
 import org.apache.dolphinscheduler.dao.mapper.UdfFuncMapper;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -75,6 +76,9 @@ public class UdfFuncServiceTest {
     @Mock
     private UDFUserMapper udfUserMapper;
 
+    @Mock
+    private AuthorizationCache authorizationCache;
+
     @Before
     public void setUp() {
         PowerMockito.mockStatic(PropertyUtils.class);
@@ -21,6 +21,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
+import org.apache.dolphinscheduler.api.cache.AuthenticationCache;
+import org.apache.dolphinscheduler.api.cache.ResourceTreeCache;
 import org.apache.dolphinscheduler.api.enums.Status;
 import org.apache.dolphinscheduler.api.service.impl.UsersServiceImpl;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
@@ -31,6 +33,7 @@ import org.apache.dolphinscheduler.common.enums.UserType;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.common.utils.EncryptionUtils;
 import org.apache.dolphinscheduler.dao.entity.AlertGroup;
+import org.apache.dolphinscheduler.dao.entity.ProjectUser;
 import org.apache.dolphinscheduler.dao.entity.Resource;
 import org.apache.dolphinscheduler.dao.entity.Tenant;
 import org.apache.dolphinscheduler.dao.entity.User;
@@ -42,8 +45,11 @@ import org.apache.dolphinscheduler.dao.mapper.ResourceUserMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UDFUserMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -52,6 +58,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -97,6 +104,15 @@ public class UsersServiceTest {
     @Mock
     private UDFUserMapper udfUserMapper;
 
+    @Mock
+    private ResourceTreeCache resourceTreeCache;
+
+    @Mock
+    private AuthenticationCache authenticationCache;
+
+    @Mock
+    private AuthorizationCache authorizationCache;
+
     private String queueName = "UsersServiceTestQueue";
 
     @Before
@@ -305,10 +321,24 @@ public class UsersServiceTest {
         logger.info(result.toString());
         Assert.assertEquals(Status.USER_NOT_EXIST, result.get(Constants.STATUS));
         //success
-        when(projectUserMapper.deleteProjectRelation(Mockito.anyInt(), Mockito.anyInt())).thenReturn(1);
+        ProjectUser projectUser = new ProjectUser();
+        projectUser.setUserId(1);
+        projectUser.setProjectId(100000);
+        ProjectUser projectUser1 = new ProjectUser();
+        projectUser1.setUserId(1);
+        projectUser1.setProjectId(110000);
+        when(projectUserMapper.queryProjectRelationByUserId(1)).thenReturn(Arrays.asList(projectUser, projectUser1));
         result = usersService.grantProject(loginUser, 1, projectIds);
         logger.info(result.toString());
         Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+        // only the changed relations are written
+        Mockito.verify(projectUserMapper).deleteProjectRelations(1, Collections.singletonList(110000));
+        ArgumentCaptor<List<ProjectUser>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(projectUserMapper).batchInsert(captor.capture());
+        Assert.assertEquals(1, captor.getValue().size());
+        Assert.assertEquals(120000, captor.getValue().get(0).getProjectId());
+        Mockito.verify(projectUserMapper, Mockito.never()).insert(Mockito.any(ProjectUser.class));
+        Mockito.verify(authorizationCache).invalidateUser(1);
     }
 
     @Test
@@ -325,12 +355,24 @@ public class UsersServiceTest {
         logger.info(result.toString());
         Assert.assertEquals(Status.USER_NOT_EXIST, result.get(Constants.STATUS));
         //success
+        when(resourceUserMapper.queryResourceIdsByUserId(1)).thenReturn(Arrays.asList(100000, 110000));
         when(resourceMapper.queryAuthorizedResourceList(1)).thenReturn(new ArrayList<Resource>());
-        when(resourceMapper.selectById(Mockito.anyInt())).thenReturn(getResource());
-        when(resourceUserMapper.deleteResourceUser(1, 0)).thenReturn(1);
+        Resource resource = getResource();
+        resource.setId(120000);
+        when(resourceMapper.listResourceByIds(new Integer[]{120000})).thenReturn(Collections.singletonList(resource));
         result = usersService.grantResources(loginUser, 1, resourceIds);
         logger.info(result.toString());
         Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+        Mockito.verify(resourceUserMapper).deleteResourceUserArray(1, new Integer[]{110000});
+        Mockito.verify(resourceUserMapper).batchInsert(Mockito.anyList());
+        Mockito.verify(resourceTreeCache).invalidateAll();
+        Mockito.verify(authorizationCache).invalidateUser(1);
+
+        //resource not exist, nothing is written
+        when(resourceMapper.listResourceByIds(new Integer[]{130000})).thenReturn(new ArrayList<>());
+        result = usersService.grantResources(loginUser, 1, "100000,110000-130000");
+        Assert.assertEquals(Status.RESOURCE_NOT_EXIST, result.get(Constants.STATUS));
+        Mockito.verify(resourceUserMapper, Mockito.times(1)).batchInsert(Mockito.anyList());
 
     }
 
@@ -349,10 +391,20 @@ public class UsersServiceTest {
         logger.info(result.toString());
         Assert.assertEquals(Status.USER_NOT_EXIST, result.get(Constants.STATUS));
         //success
-        when(udfUserMapper.deleteByUserId(1)).thenReturn(1);
+        when(udfUserMapper.queryUdfIdsByUserId(1)).thenReturn(Arrays.asList(100000, 110000));
         result = usersService.grantUDFFunction(loginUser, 1, udfIds);
         logger.info(result.toString());
         Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+        Mockito.verify(udfUserMapper).deleteByUserIdAndUdfIds(1, Collections.singletonList(110000));
+        Mockito.verify(udfUserMapper).batchInsert(Mockito.anyList());
+        Mockito.verify(authorizationCache).invalidateUser(1);
+
+        //unchanged grant writes nothing
+        when(udfUserMapper.queryUdfIdsByUserId(1)).thenReturn(Arrays.asList(100000, 120000));
+        result = usersService.grantUDFFunction(loginUser, 1, udfIds);
+        Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+        Mockito.verify(udfUserMapper, Mockito.times(1)).batchInsert(Mockito.anyList());
+        Mockito.verify(authorizationCache, Mockito.times(1)).invalidateUser(1);
     }
 
     @Test
@@ -369,13 +421,38 @@ public class UsersServiceTest {
         logger.info(result.toString());
         Assert.assertEquals(Status.USER_NOT_EXIST, result.get(Constants.STATUS));
         //success
-        when(datasourceUserMapper.deleteByUserId(Mockito.anyInt())).thenReturn(1);
+        when(datasourceUserMapper.queryDatasourceIdsByUserId(1)).thenReturn(new ArrayList<>());
         result = usersService.grantDataSource(loginUser, 1, datasourceIds);
         logger.info(result.toString());
         Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+        Mockito.verify(datasourceUserMapper, Mockito.never()).deleteByUserIdAndDatasourceIds(Mockito.anyInt(), Mockito.anyCollection());
+        Mockito.verify(datasourceUserMapper).batchInsert(Mockito.anyList());
+        Mockito.verify(authorizationCache).invalidateUser(1);
 
     }
 
+    @Test
+    public void testBatchGrantDataSource() {
+        String datasourceIds = "100000,120000";
+        User loginUser = new User();
+        Map<String, Object> result = usersService.batchGrantDataSource(loginUser, "1,2", datasourceIds);
+        Assert.assertEquals(Status.USER_NO_OPERATION_PERM, result.get(Constants.STATUS));
+
+        loginUser.setUserType(UserType.ADMIN_USER);
+        when(userMapper.selectById(1)).thenReturn(getUser());
+        when(datasourceUserMapper.queryDatasourceIdsByUserId(1)).thenReturn(new ArrayList<>());
+        result = usersService.batchGrantDataSource(loginUser, "1,2", datasourceIds);
+        logger.info(result.toString());
+        Assert.assertEquals(Status.SUCCESS, result.get(Constants.STATUS));
+        Map<String, Object> data = (Map<String, Object>) result.get(Constants.DATA_LIST);
+        Map<String, Object> success = (Map<String, Object>) data.get("success");
+        Map<String, Object> failed = (Map<String, Object>) data.get("failed");
+        Assert.assertEquals(1, success.get("sum"));
+        Assert.assertEquals(Collections.singletonList(1), success.get("userId"));
+        Assert.assertEquals(1, failed.get("sum"));
+        Mockito.verify(datasourceUserMapper, Mockito.times(1)).batchInsert(Mockito.anyList());
+    }
+
     private User getLoginUser(){
         User loginUser = new User();
         loginUser.setId(1);
@@ -21,11 +21,14 @@ import static org.mockito.Mockito.when;
 
 import org.apache.dolphinscheduler.api.service.impl.WorkFlowLineageServiceImpl;
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.WorkFlowLineage;
 import org.apache.dolphinscheduler.dao.entity.WorkFlowRelation;
+import org.apache.dolphinscheduler.dao.mapper.ProcessLineageMapper;
 import org.apache.dolphinscheduler.dao.mapper.WorkFlowLineageMapper;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +39,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
 /**
@@ -50,6 +54,9 @@ public class WorkFlowLineageServiceTest {
     @Mock
     private WorkFlowLineageMapper workFlowLineageMapper;
 
+    @Mock
+    private ProcessLineageMapper processLineageMapper;
+
     @Test
     public void testQueryWorkFlowLineageByName() {
         String searchVal = "test";
@@ -67,7 +74,7 @@ public class WorkFlowLineageServiceTest {
         ids.add(2);
 
         when(workFlowLineageMapper.queryByIds(ids, 1)).thenReturn(getWorkFlowLineages());
-        when(workFlowLineageMapper.querySourceTarget(1)).thenReturn(getWorkFlowRelation());
+        when(workFlowLineageMapper.queryWorkFlowRelations()).thenReturn(getWorkFlowRelation());
         Map<String, Object> result = workFlowLineageService.queryWorkFlowLineageByIds(ids,1);
         Map<String, Object> workFlowLists = (Map<String, Object>)result.get(Constants.DATA_LIST);
         List<WorkFlowLineage> workFlowLineages = (List<WorkFlowLineage>)workFlowLists.get("workFlowList");
@@ -76,6 +83,42 @@ public class WorkFlowLineageServiceTest {
         Assert.assertTrue(workFlowRelations.size()>0);
     }
 
+    @Test
+    public void testQueryWorkFlowLineageByIdsDownstream() {
+        Set<Integer> ids = new HashSet<>();
+        ids.add(1);
+
+        List<WorkFlowRelation> workFlowRelations = getWorkFlowRelation();
+        WorkFlowRelation workFlowRelation = new WorkFlowRelation();
+        workFlowRelation.setSourceWorkFlowId(2);
+        workFlowRelation.setTargetWorkFlowId(3);
+        workFlowRelations.add(workFlowRelation);
+        workFlowRelation = new WorkFlowRelation();
+        workFlowRelation.setSourceWorkFlowId(4);
+        workFlowRelation.setTargetWorkFlowId(5);
+        workFlowRelations.add(workFlowRelation);
+        when(workFlowLineageMapper.queryByIds(ids, 1)).thenReturn(getWorkFlowLineages());
+        when(workFlowLineageMapper.queryWorkFlowRelations()).thenReturn(workFlowRelations);
+
+        Map<String, Object> result = workFlowLineageService.queryWorkFlowLineageByIds(ids, 1);
+        Map<String, Object> workFlowLists = (Map<String, Object>) result.get(Constants.DATA_LIST);
+        List<WorkFlowRelation> downstream = (List<WorkFlowRelation>) workFlowLists.get("workFlowRelationList");
+        Assert.assertEquals(2, downstream.size());
+        Mockito.verify(workFlowLineageMapper).queryByIds(new HashSet<>(Arrays.asList(2, 3)), 1);
+
+        // the cached graph is used until a process definition changes its lineage
+        workFlowLineageService.queryWorkFlowLineageByIds(ids, 1);
+        Mockito.verify(workFlowLineageMapper, Mockito.times(1)).queryWorkFlowRelations();
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        processDefinition.setId(1);
+        processDefinition.setProjectId(1);
+        processDefinition.setProcessDefinitionJson("{\"globalParams\":[],\"tasks\":[],\"tenantId\":1,\"timeout\":0}");
+        workFlowLineageService.updateProcessLineage(processDefinition);
+        Mockito.verify(processLineageMapper).deleteByProcessDefinitionId(1);
+        workFlowLineageService.queryWorkFlowLineageByIds(ids, 1);
+        Mockito.verify(workFlowLineageMapper, Mockito.times(2)).queryWorkFlowRelations();
+    }
+
     private List<WorkFlowLineage> getWorkFlowLineages() {
         List<WorkFlowLineage> workFlowLineages = new ArrayList<>();
         WorkFlowLineage workFlowLineage = new WorkFlowLineage();
@@ -76,7 +76,7 @@ public class WorkerGroupServiceTest {
 
         Mockito.when(zookeeperCachedOperator.getChildrenKeys(workerPath + "/default")).thenReturn(defaultIpList);
 
-        Mockito.when(zookeeperCachedOperator.get(workerPath + "/default" + "/" + defaultIpList.get(0))).thenReturn("0.01,0.17,0.03,25.83,8.0,1.0,2020-07-21 11:17:59,2020-07-21 14:39:20,0,13238");
+        Mockito.when(zookeeperCachedOperator.get(workerPath + "/default" + "/" + defaultIpList.get(0))).thenReturn("2,1595301479000,1595313560000,0.01,0.17,0.03,25.83,8.0,1.0,0,13238,100,0,0,120,1024,0");
     }
 
     /**
@@ -90,6 +90,7 @@ public class WorkerGroupServiceTest {
         Map<String, Object> result = workerGroupService.queryAllGroupPaging(user, 1, 10, null);
         PageInfo<WorkerGroup> pageInfo = (PageInfo) result.get(Constants.DATA_LIST);
         Assert.assertEquals(pageInfo.getLists().size(), 1);
+        Assert.assertEquals(1595301479000L, pageInfo.getLists().get(0).getCreateTime().getTime());
     }
 
     @Test
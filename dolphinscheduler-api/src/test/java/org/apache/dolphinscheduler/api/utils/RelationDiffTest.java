@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.api.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RelationDiffTest {
+
+    @Test
+    public void testOf() {
+        RelationDiff diff = RelationDiff.of(Arrays.asList(1, 2, 3), Arrays.asList(3, 4, 1, 5));
+        Assert.assertEquals(Arrays.asList(4, 5), diff.getAdded());
+        Assert.assertEquals(Collections.singletonList(2), diff.getRemoved());
+        Assert.assertFalse(diff.isEmpty());
+
+        Assert.assertTrue(RelationDiff.of(Arrays.asList(1, 2), Arrays.asList(2, 1)).isEmpty());
+        Assert.assertEquals(Arrays.asList(1, 2), RelationDiff.of(null, Arrays.asList(1, 2)).getAdded());
+        Assert.assertEquals(Arrays.asList(1, 2), RelationDiff.of(Arrays.asList(1, 2), null).getRemoved());
+    }
+
+    @Test
+    public void testParseIds() {
+        Set<Integer> ids = RelationDiff.parseIds("1-2-3,1-4,5", "[,-]");
+        Assert.assertEquals(Arrays.asList(1, 2, 3, 4, 5), Arrays.asList(ids.toArray(new Integer[0])));
+        Assert.assertEquals(2, RelationDiff.parseIds("7, 8,", ",").size());
+        Assert.assertTrue(RelationDiff.parseIds("", ",").isEmpty());
+        Assert.assertTrue(RelationDiff.parseIds(null, ",").isEmpty());
+    }
+}
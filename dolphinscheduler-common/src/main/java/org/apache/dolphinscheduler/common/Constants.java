@@ -206,6 +206,11 @@ public final class Constants {
      */
     public static final String ZOOKEEPER_DOLPHINSCHEDULER_LOCK_FAILOVER_STARTUP_MASTERS = "/lock/failover/startup-masters";
 
+    /**
+     * failover claims directory, one child per dead server which is being failed over
+     */
+    public static final String ZOOKEEPER_DOLPHINSCHEDULER_FAILOVER_CLAIMS = "/failover-claims";
+
 
     /**
      * comma ,
@@ -461,6 +466,11 @@ public final class Constants {
 
     public static final String CMD_PARAM_SUB_PROCESS_DEFINE_ID = "processDefinitionId";
 
+    /**
+     * max number of sub process nodes reachable from one process definition
+     */
+    public static final int MAX_SUB_PROCESS_NUM = 100;
+
     public static final String CMD_PARAM_START_NODE_NAMES = "StartNodeNameList";
 
     public static final String CMD_PARAM_START_PARAMS = "StartParams";
@@ -538,11 +548,6 @@ public final class Constants {
      */
     public static final int SLEEP_TIME_MILLIS = 1000;
 
-    /**
-     * heartbeat for zk info length
-     */
-    public static final int HEARTBEAT_FOR_ZOOKEEPER_INFO_LENGTH = 10;
-
 
 
     /**
@@ -1045,6 +1050,16 @@ public final class Constants {
     public static final String DATASOURCE_ENCRYPTION_ENABLE = "datasource.encryption.enable";
     public static final String DATASOURCE_ENCRYPTION_SALT = "datasource.encryption.salt";
 
+    /**
+     * whether process json snapshots are gzip compressed
+     */
+    public static final String PROCESS_JSON_SNAPSHOT_COMPRESS = "process.json.snapshot.compress";
+
+    /**
+     * whether json databinding uses the afterburner module when it is on the classpath
+     */
+    public static final String JSON_AFTERBURNER_ENABLE = "json.afterburner.enable";
+
     /**
      * Network IP gets priority, default inner outer
      */
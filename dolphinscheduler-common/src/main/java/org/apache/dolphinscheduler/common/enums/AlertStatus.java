@@ -23,11 +23,12 @@ import com.baomidou.mybatisplus.annotation.EnumValue;
  */
 public enum AlertStatus {
     /**
-     * 0 waiting executed; 1 execute successfully，2 execute failed
+     * 0 waiting executed; 1 execute successfully，2 execute failed; 3 held back to be coalesced into a digest alert
      */
     WAIT_EXECUTION(0, "waiting executed"),
     EXECUTION_SUCCESS(1, "execute successfully"),
-    EXECUTION_FAILURE(2, "execute failed");
+    EXECUTION_FAILURE(2, "execute failed"),
+    WAIT_COALESCE(3, "waiting coalesced");
 
 
     AlertStatus(int code, String descp){
@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.common.model;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.common.utils.StringUtils;
+
+import java.util.Date;
+
+/**
+ * heartbeat of master and worker registered in zookeeper
+ * <p>
+ * encoded as a versioned record of typed fields, the first field is the format version,
+ * timestamps are epoch millis so that neither side formats or parses dates
+ */
+public class HeartBeat {
+
+    /**
+     * current heartbeat format version
+     */
+    public static final int VERSION = 3;
+
+    /**
+     * field count of the current heartbeat format
+     */
+    public static final int FIELD_COUNT = 19;
+
+    /**
+     * previous heartbeat format version, without the worker admission counters
+     */
+    private static final int PREVIOUS_VERSION = 2;
+
+    private static final int PREVIOUS_FIELD_COUNT = 17;
+
+    /**
+     * field count of the heartbeat written before the format was versioned
+     */
+    private static final int LEGACY_FIELD_COUNT = 10;
+
+    private long startupTime;
+    private long reportTime;
+    private double cpuUsage;
+    private double memoryUsage;
+    private double loadAverage;
+    private double availablePhysicalMemorySize;
+    private double maxCpuloadAvg;
+    private double reservedMemory;
+    private int serverStatus;
+    private int processId;
+
+    /**
+     * execute slots of the worker, 0 for master
+     */
+    private int workerExecThreads;
+
+    /**
+     * tasks held by the worker, running or waiting for a slot
+     */
+    private int workerExecTaskCount;
+
+    /**
+     * tasks waiting for a slot
+     */
+    private int workerWaitingTaskCount;
+
+    /**
+     * jvm heap used in MB
+     */
+    private long heapUsed;
+
+    /**
+     * jvm max heap in MB
+     */
+    private long heapMax;
+
+    /**
+     * gc pause in millis since the previous heartbeat
+     */
+    private long gcPauseMillis;
+
+    /**
+     * tasks admitted by the worker since it started
+     */
+    private long workerAdmittedTaskCount;
+
+    /**
+     * tasks rejected by the worker since it started due to its admission queue is full
+     */
+    private long workerRejectedTaskCount;
+
+    public long getStartupTime() {
+        return startupTime;
+    }
+
+    public void setStartupTime(long startupTime) {
+        this.startupTime = startupTime;
+    }
+
+    public long getReportTime() {
+        return reportTime;
+    }
+
+    public void setReportTime(long reportTime) {
+        this.reportTime = reportTime;
+    }
+
+    public double getCpuUsage() {
+        return cpuUsage;
+    }
+
+    public void setCpuUsage(double cpuUsage) {
+        this.cpuUsage = cpuUsage;
+    }
+
+    public double getMemoryUsage() {
+        return memoryUsage;
+    }
+
+    public void setMemoryUsage(double memoryUsage) {
+        this.memoryUsage = memoryUsage;
+    }
+
+    public double getLoadAverage() {
+        return loadAverage;
+    }
+
+    public void setLoadAverage(double loadAverage) {
+        this.loadAverage = loadAverage;
+    }
+
+    public double getAvailablePhysicalMemorySize() {
+        return availablePhysicalMemorySize;
+    }
+
+    public void setAvailablePhysicalMemorySize(double availablePhysicalMemorySize) {
+        this.availablePhysicalMemorySize = availablePhysicalMemorySize;
+    }
+
+    public double getMaxCpuloadAvg() {
+        return maxCpuloadAvg;
+    }
+
+    public void setMaxCpuloadAvg(double maxCpuloadAvg) {
+        this.maxCpuloadAvg = maxCpuloadAvg;
+    }
+
+    public double getReservedMemory() {
+        return reservedMemory;
+    }
+
+    public void setReservedMemory(double reservedMemory) {
+        this.reservedMemory = reservedMemory;
+    }
+
+    public int getServerStatus() {
+        return serverStatus;
+    }
+
+    public void setServerStatus(int serverStatus) {
+        this.serverStatus = serverStatus;
+    }
+
+    public int getProcessId() {
+        return processId;
+    }
+
+    public void setProcessId(int processId) {
+        this.processId = processId;
+    }
+
+    public int getWorkerExecThreads() {
+        return workerExecThreads;
+    }
+
+    public void setWorkerExecThreads(int workerExecThreads) {
+        this.workerExecThreads = workerExecThreads;
+    }
+
+    public int getWorkerExecTaskCount() {
+        return workerExecTaskCount;
+    }
+
+    public void setWorkerExecTaskCount(int workerExecTaskCount) {
+        this.workerExecTaskCount = workerExecTaskCount;
+    }
+
+    public int getWorkerWaitingTaskCount() {
+        return workerWaitingTaskCount;
+    }
+
+    public void setWorkerWaitingTaskCount(int workerWaitingTaskCount) {
+        this.workerWaitingTaskCount = workerWaitingTaskCount;
+    }
+
+    public long getHeapUsed() {
+        return heapUsed;
+    }
+
+    public void setHeapUsed(long heapUsed) {
+        this.heapUsed = heapUsed;
+    }
+
+    public long getHeapMax() {
+        return heapMax;
+    }
+
+    public void setHeapMax(long heapMax) {
+        this.heapMax = heapMax;
+    }
+
+    public long getGcPauseMillis() {
+        return gcPauseMillis;
+    }
+
+    public void setGcPauseMillis(long gcPauseMillis) {
+        this.gcPauseMillis = gcPauseMillis;
+    }
+
+    public long getWorkerAdmittedTaskCount() {
+        return workerAdmittedTaskCount;
+    }
+
+    public void setWorkerAdmittedTaskCount(long workerAdmittedTaskCount) {
+        this.workerAdmittedTaskCount = workerAdmittedTaskCount;
+    }
+
+    public long getWorkerRejectedTaskCount() {
+        return workerRejectedTaskCount;
+    }
+
+    public void setWorkerRejectedTaskCount(long workerRejectedTaskCount) {
+        this.workerRejectedTaskCount = workerRejectedTaskCount;
+    }
+
+    /**
+     * whether the server is in normal status
+     *
+     * @return true if normal
+     */
+    public boolean isNormal() {
+        return serverStatus == Constants.NORMAL_NODE_STATUS;
+    }
+
+    /**
+     * get the used execute slots of the worker
+     *
+     * @return used slots
+     */
+    public int getWorkerUsedSlots() {
+        return workerExecTaskCount - workerWaitingTaskCount;
+    }
+
+    /**
+     * get the free execute slots of the worker
+     *
+     * @return free slots
+     */
+    public int getWorkerFreeSlots() {
+        return Math.max(0, workerExecThreads - workerExecTaskCount);
+    }
+
+    /**
+     * encode heartbeat
+     *
+     * @return heartbeat info
+     */
+    public String encodeHeartBeat() {
+        StringBuilder builder = new StringBuilder(128);
+        builder.append(VERSION).append(Constants.COMMA);
+        builder.append(startupTime).append(Constants.COMMA);
+        builder.append(reportTime).append(Constants.COMMA);
+        builder.append(cpuUsage).append(Constants.COMMA);
+        builder.append(memoryUsage).append(Constants.COMMA);
+        builder.append(loadAverage).append(Constants.COMMA);
+        builder.append(availablePhysicalMemorySize).append(Constants.COMMA);
+        builder.append(maxCpuloadAvg).append(Constants.COMMA);
+        builder.append(reservedMemory).append(Constants.COMMA);
+        builder.append(serverStatus).append(Constants.COMMA);
+        builder.append(processId).append(Constants.COMMA);
+        builder.append(workerExecThreads).append(Constants.COMMA);
+        builder.append(workerExecTaskCount).append(Constants.COMMA);
+        builder.append(workerWaitingTaskCount).append(Constants.COMMA);
+        builder.append(heapUsed).append(Constants.COMMA);
+        builder.append(heapMax).append(Constants.COMMA);
+        builder.append(gcPauseMillis).append(Constants.COMMA);
+        builder.append(workerAdmittedTaskCount).append(Constants.COMMA);
+        builder.append(workerRejectedTaskCount);
+        return builder.toString();
+    }
+
+    /**
+     * decode heartbeat, the heartbeats of older servers are accepted during a rolling upgrade:
+     * the legacy heartbeat without version, the previous version, and newer versions appending fields
+     *
+     * @param heartBeatInfo heartbeat info
+     * @return heartbeat, null if empty or malformed
+     */
+    public static HeartBeat decodeHeartBeat(String heartBeatInfo) {
+        if (StringUtils.isEmpty(heartBeatInfo)) {
+            return null;
+        }
+        String[] parts = heartBeatInfo.split(Constants.COMMA);
+        try {
+            if (parts.length == LEGACY_FIELD_COUNT) {
+                return decodeLegacyHeartBeat(parts);
+            }
+            int version = Integer.parseInt(parts[0]);
+            if (version < PREVIOUS_VERSION
+                    || (version == PREVIOUS_VERSION && parts.length != PREVIOUS_FIELD_COUNT)
+                    || (version > PREVIOUS_VERSION && parts.length < FIELD_COUNT)) {
+                return null;
+            }
+            HeartBeat heartBeat = new HeartBeat();
+            heartBeat.setStartupTime(Long.parseLong(parts[1]));
+            heartBeat.setReportTime(Long.parseLong(parts[2]));
+            heartBeat.setCpuUsage(Double.parseDouble(parts[3]));
+            heartBeat.setMemoryUsage(Double.parseDouble(parts[4]));
+            heartBeat.setLoadAverage(Double.parseDouble(parts[5]));
+            heartBeat.setAvailablePhysicalMemorySize(Double.parseDouble(parts[6]));
+            heartBeat.setMaxCpuloadAvg(Double.parseDouble(parts[7]));
+            heartBeat.setReservedMemory(Double.parseDouble(parts[8]));
+            heartBeat.setServerStatus(Integer.parseInt(parts[9]));
+            heartBeat.setProcessId(Integer.parseInt(parts[10]));
+            heartBeat.setWorkerExecThreads(Integer.parseInt(parts[11]));
+            heartBeat.setWorkerExecTaskCount(Integer.parseInt(parts[12]));
+            heartBeat.setWorkerWaitingTaskCount(Integer.parseInt(parts[13]));
+            heartBeat.setHeapUsed(Long.parseLong(parts[14]));
+            heartBeat.setHeapMax(Long.parseLong(parts[15]));
+            heartBeat.setGcPauseMillis(Long.parseLong(parts[16]));
+            if (version > PREVIOUS_VERSION) {
+                heartBeat.setWorkerAdmittedTaskCount(Long.parseLong(parts[17]));
+                heartBeat.setWorkerRejectedTaskCount(Long.parseLong(parts[18]));
+            }
+            return heartBeat;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * decode the heartbeat written by servers before the versioned format,
+     * the execute slots of such a worker are unknown
+     *
+     * @param parts cpuUsage,memoryUsage,loadAverage,availablePhysicalMemorySize,maxCpuloadAvg,reservedMemory,
+     *              startupTime,reportTime,serverStatus,processId with dates in yyyy-MM-dd HH:mm:ss
+     * @return heartbeat, null if malformed
+     */
+    private static HeartBeat decodeLegacyHeartBeat(String[] parts) {
+        Date startupTime = DateUtils.stringToDate(parts[6]);
+        Date reportTime = DateUtils.stringToDate(parts[7]);
+        if (startupTime == null || reportTime == null) {
+            return null;
+        }
+        HeartBeat heartBeat = new HeartBeat();
+        heartBeat.setCpuUsage(Double.parseDouble(parts[0]));
+        heartBeat.setMemoryUsage(Double.parseDouble(parts[1]));
+        heartBeat.setLoadAverage(Double.parseDouble(parts[2]));
+        heartBeat.setAvailablePhysicalMemorySize(Double.parseDouble(parts[3]));
+        heartBeat.setMaxCpuloadAvg(Double.parseDouble(parts[4]));
+        heartBeat.setReservedMemory(Double.parseDouble(parts[5]));
+        heartBeat.setStartupTime(startupTime.getTime());
+        heartBeat.setReportTime(reportTime.getTime());
+        heartBeat.setServerStatus(Integer.parseInt(parts[8]));
+        heartBeat.setProcessId(Integer.parseInt(parts[9]));
+        return heartBeat;
+    }
+}
@@ -20,9 +20,11 @@ import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.Priority;
 import org.apache.dolphinscheduler.common.enums.TaskTimeoutStrategy;
 import org.apache.dolphinscheduler.common.enums.TaskType;
+import org.apache.dolphinscheduler.common.task.AbstractParameters;
 import org.apache.dolphinscheduler.common.task.TaskTimeoutParameter;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.common.utils.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -141,6 +143,12 @@ public class TaskNode {
      */
     private int delayTime;
 
+  /**
+   * params parsed once, dropped when the params or the type change
+   */
+  @JsonIgnore
+  private AbstractParameters taskParameters;
+
   public String getId() {
     return id;
   }
@@ -171,6 +179,7 @@ public class TaskNode {
 
   public void setType(String type) {
     this.type = type;
+    this.taskParameters = null;
   }
 
   public String getParams() {
@@ -179,6 +188,7 @@ public class TaskNode {
 
   public void setParams(String params) {
     this.params = params;
+    this.taskParameters = null;
   }
 
   public String getPreTasks() {
@@ -309,6 +319,30 @@ public class TaskNode {
     return new TaskTimeoutParameter(false);
   }
 
+  /**
+   * get the params parsed by the task type, the params are parsed once for all the callers,
+   * so the returned parameters are shared and should not be modified
+   * @return task parameters, null if the task type is not supported
+   */
+  @JsonIgnore
+  public AbstractParameters getTaskParameters() {
+    Class<? extends AbstractParameters> parametersClass = TaskParametersUtils.getParametersClass(type);
+    return parametersClass == null ? null : getTaskParameters(parametersClass);
+  }
+
+  /**
+   * get the params parsed as the given class, the params parsed once are reused if they are of this class
+   * @param parametersClass class of the parameters
+   * @param <T> parameters type
+   * @return task parameters
+   */
+  public <T extends AbstractParameters> T getTaskParameters(Class<T> parametersClass) {
+    if (!parametersClass.isInstance(taskParameters)) {
+      taskParameters = JSONUtils.parseObject(params, parametersClass);
+    }
+    return parametersClass.cast(taskParameters);
+  }
+
   public boolean isConditionsTask(){
     return TaskType.CONDITIONS.toString().equalsIgnoreCase(this.getType());
   }
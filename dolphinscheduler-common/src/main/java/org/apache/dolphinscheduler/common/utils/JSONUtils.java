@@ -17,23 +17,28 @@
 
 package org.apache.dolphinscheduler.common.utils;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
 import static com.fasterxml.jackson.databind.DeserializationFeature.ACCEPT_EMPTY_ARRAY_AS_NULL_OBJECT;
 import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
 import static com.fasterxml.jackson.databind.DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL;
 import static com.fasterxml.jackson.databind.MapperFeature.REQUIRE_SETTERS_FOR_GETTERS;
 
+import org.apache.dolphinscheduler.common.Constants;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -41,7 +46,9 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
@@ -67,10 +74,68 @@ public class JSONUtils {
             .configure(REQUIRE_SETTERS_FOR_GETTERS, true)
             .setTimeZone(TimeZone.getDefault());
 
+    private static final String AFTERBURNER_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
+    /**
+     * readers and writers are immutable and thread safe, they are cached per type
+     * so that the root deserializer or serializer is not looked up on each call
+     */
+    private static final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    static {
+        if (PropertyUtils.getBoolean(Constants.JSON_AFTERBURNER_ENABLE, false)) {
+            registerAfterburner();
+        }
+    }
+
     private JSONUtils() {
         throw new UnsupportedOperationException("Construct JSONUtils");
     }
 
+    /**
+     * the afterburner module is not a dependency, it is registered only when it is on the classpath
+     */
+    private static void registerAfterburner() {
+        try {
+            objectMapper.registerModule((Module) Class.forName(AFTERBURNER_MODULE).getDeclaredConstructor().newInstance());
+            logger.info("json databinding uses the afterburner module");
+        } catch (ClassNotFoundException e) {
+            logger.warn("{} is true but the afterburner module is not on the classpath", Constants.JSON_AFTERBURNER_ENABLE);
+        } catch (Exception e) {
+            logger.warn("register the afterburner module exception", e);
+        }
+    }
+
+    /**
+     * cached reader of a type
+     *
+     * @param type class, type reference type or java type
+     * @return reader
+     */
+    private static ObjectReader reader(Type type) {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            reader = readers.computeIfAbsent(type, t -> objectMapper.readerFor(objectMapper.getTypeFactory().constructType(t)));
+        }
+        return reader;
+    }
+
+    /**
+     * cached writer of a class
+     *
+     * @param clazz runtime class of the written objects
+     * @return writer
+     */
+    private static ObjectWriter writer(Class<?> clazz) {
+        ObjectWriter writer = writers.get(clazz);
+        if (writer == null) {
+            writer = writers.computeIfAbsent(clazz, objectMapper::writerFor);
+        }
+        return writer;
+    }
+
     public static ArrayNode createArrayNode() {
         return objectMapper.createArrayNode();
     }
@@ -83,6 +148,28 @@ public class JSONUtils {
         return objectMapper.valueToTree(obj);
     }
 
+    /**
+     * create a parser reading json from a stream, the objects read by the parser have the settings of this class
+     *
+     * @param in input stream
+     * @return json parser
+     * @throws IOException if the stream can not be read
+     */
+    public static JsonParser createParser(InputStream in) throws IOException {
+        return objectMapper.getFactory().createParser(in);
+    }
+
+    /**
+     * create a generator writing utf-8 json to a stream, the objects written by the generator have the settings of this class
+     *
+     * @param out output stream
+     * @return json generator
+     * @throws IOException if the stream can not be written
+     */
+    public static JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+    }
+
     /**
      * json representation of object
      *
@@ -121,7 +208,7 @@ public class JSONUtils {
         }
 
         try {
-            return objectMapper.readValue(json, clazz);
+            return reader(clazz).readValue(json);
         } catch (Exception e) {
             logger.error("parse object exception!", e);
         }
@@ -129,7 +216,7 @@ public class JSONUtils {
     }
 
     /**
-     *  deserialize
+     *  deserialize utf-8 json bytes, without decoding them to a string first
      *
      * @param src byte array
      * @param clazz class
@@ -137,11 +224,16 @@ public class JSONUtils {
      * @return deserialize type
      */
     public static <T> T parseObject(byte[] src, Class<T> clazz) {
-        if (src == null) {
+        if (src == null || src.length == 0) {
             return null;
         }
-        String json = new String(src, UTF_8);
-        return parseObject(json, clazz);
+
+        try {
+            return reader(clazz).readValue(src);
+        } catch (Exception e) {
+            logger.error("parse object exception!", e);
+        }
+        return null;
     }
 
     /**
@@ -160,7 +252,7 @@ public class JSONUtils {
         try {
 
             CollectionType listType = objectMapper.getTypeFactory().constructCollectionType(ArrayList.class, clazz);
-            return objectMapper.readValue(json, listType);
+            return reader(listType).readValue(json);
         } catch (Exception e) {
             logger.error("parse list exception!", e);
         }
@@ -248,7 +340,7 @@ public class JSONUtils {
         }
 
         try {
-            return objectMapper.readValue(json, type);
+            return reader(type.getType()).readValue(json);
         } catch (Exception e) {
             logger.error("json to map exception!", e);
         }
@@ -263,15 +355,18 @@ public class JSONUtils {
      * @return json string
      */
     public static String toJsonString(Object object) {
+        if (object == null) {
+            return "null";
+        }
         try {
-            return objectMapper.writeValueAsString(object);
+            return writer(object.getClass()).writeValueAsString(object);
         } catch (Exception e) {
             throw new RuntimeException("Object json deserialization exception.", e);
         }
     }
 
     /**
-     * serialize to json byte
+     * serialize to utf-8 json bytes, without encoding an intermediate string
      *
      * @param obj object
      * @param <T> object type
@@ -281,14 +376,13 @@ public class JSONUtils {
         if (obj == null) {
             return null;
         }
-        String json = "";
         try {
-            json = toJsonString(obj);
+            return writer(obj.getClass()).writeValueAsBytes(obj);
         } catch (Exception e) {
             logger.error("json serialize exception.", e);
         }
 
-        return json.getBytes(UTF_8);
+        return new byte[0];
     }
 
     public static ObjectNode parseObject(String text) {
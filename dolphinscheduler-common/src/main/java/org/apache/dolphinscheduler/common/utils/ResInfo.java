@@ -15,9 +15,11 @@
  * limitations under the License.
  */
 package org.apache.dolphinscheduler.common.utils;
-import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.model.HeartBeat;
 import org.apache.dolphinscheduler.common.model.Server;
 
+import java.util.Date;
+
 /**
  *  heartbeat for ZK reigster res info
  */
@@ -93,22 +95,18 @@ public class ResInfo {
      * @return heartbeat info to Server
      */
     public static Server parseHeartbeatForZKInfo(String heartBeatInfo){
-        if (StringUtils.isEmpty(heartBeatInfo)) {
-            return null;
-        }
-        String[] masterArray = heartBeatInfo.split(Constants.COMMA);
-        if(masterArray.length != Constants.HEARTBEAT_FOR_ZOOKEEPER_INFO_LENGTH){
+        HeartBeat heartBeat = HeartBeat.decodeHeartBeat(heartBeatInfo);
+        if (heartBeat == null) {
             return null;
-
         }
         Server masterServer = new Server();
-        masterServer.setResInfo(getResInfoJson(Double.parseDouble(masterArray[0]),
-                Double.parseDouble(masterArray[1]),
-                Double.parseDouble(masterArray[2])));
-        masterServer.setCreateTime(DateUtils.stringToDate(masterArray[6]));
-        masterServer.setLastHeartbeatTime(DateUtils.stringToDate(masterArray[7]));
+        masterServer.setResInfo(getResInfoJson(heartBeat.getCpuUsage(),
+                heartBeat.getMemoryUsage(),
+                heartBeat.getLoadAverage()));
+        masterServer.setCreateTime(new Date(heartBeat.getStartupTime()));
+        masterServer.setLastHeartbeatTime(new Date(heartBeat.getReportTime()));
         //set process id
-        masterServer.setId(Integer.parseInt(masterArray[9]));
+        masterServer.setId(heartBeat.getProcessId());
         return masterServer;
     }
 
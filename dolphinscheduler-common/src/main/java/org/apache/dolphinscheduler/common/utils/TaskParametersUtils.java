@@ -55,6 +55,20 @@ public class TaskParametersUtils {
      * @return task parameters
      */
     public static AbstractParameters getParameters(String taskType, String parameter) {
+        Class<? extends AbstractParameters> parametersClass = getParametersClass(taskType);
+        if (parametersClass == null) {
+            return null;
+        }
+        return JSONUtils.parseObject(parameter, parametersClass);
+    }
+
+    /**
+     * get the class of the task parameters
+     *
+     * @param taskType task type
+     * @return class of the task parameters, null if the task type is not supported
+     */
+    public static Class<? extends AbstractParameters> getParametersClass(String taskType) {
         TaskType anEnum = EnumUtils.getEnum(TaskType.class, taskType);
         if (anEnum == null) {
             logger.error("not support task type: {}", taskType);
@@ -62,32 +76,32 @@ public class TaskParametersUtils {
         }
         switch (anEnum) {
             case SUB_PROCESS:
-                return JSONUtils.parseObject(parameter, SubProcessParameters.class);
+                return SubProcessParameters.class;
             case SHELL:
             case WATERDROP:
-                return JSONUtils.parseObject(parameter, ShellParameters.class);
+                return ShellParameters.class;
             case PROCEDURE:
-                return JSONUtils.parseObject(parameter, ProcedureParameters.class);
+                return ProcedureParameters.class;
             case SQL:
-                return JSONUtils.parseObject(parameter, SqlParameters.class);
+                return SqlParameters.class;
             case MR:
-                return JSONUtils.parseObject(parameter, MapreduceParameters.class);
+                return MapreduceParameters.class;
             case SPARK:
-                return JSONUtils.parseObject(parameter, SparkParameters.class);
+                return SparkParameters.class;
             case PYTHON:
-                return JSONUtils.parseObject(parameter, PythonParameters.class);
+                return PythonParameters.class;
             case DEPENDENT:
-                return JSONUtils.parseObject(parameter, DependentParameters.class);
+                return DependentParameters.class;
             case FLINK:
-                return JSONUtils.parseObject(parameter, FlinkParameters.class);
+                return FlinkParameters.class;
             case HTTP:
-                return JSONUtils.parseObject(parameter, HttpParameters.class);
+                return HttpParameters.class;
             case DATAX:
-                return JSONUtils.parseObject(parameter, DataxParameters.class);
+                return DataxParameters.class;
             case CONDITIONS:
-                return JSONUtils.parseObject(parameter, ConditionsParameters.class);
+                return ConditionsParameters.class;
             case SQOOP:
-                return JSONUtils.parseObject(parameter, SqoopParameters.class);
+                return SqoopParameters.class;
             default:
                 return null;
         }
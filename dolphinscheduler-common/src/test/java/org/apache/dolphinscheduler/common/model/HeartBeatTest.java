@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.common.model;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeartBeatTest {
+
+    @Test
+    public void testEncodeAndDecodeHeartBeat() {
+        HeartBeat heartBeat = new HeartBeat();
+        heartBeat.setStartupTime(1595301479000L);
+        heartBeat.setReportTime(1595313560000L);
+        heartBeat.setCpuUsage(0.01);
+        heartBeat.setMemoryUsage(0.17);
+        heartBeat.setLoadAverage(0.03);
+        heartBeat.setAvailablePhysicalMemorySize(25.83);
+        heartBeat.setMaxCpuloadAvg(8.0);
+        heartBeat.setReservedMemory(1.0);
+        heartBeat.setServerStatus(Constants.NORMAL_NODE_STATUS);
+        heartBeat.setProcessId(13238);
+        heartBeat.setWorkerExecThreads(10);
+        heartBeat.setWorkerExecTaskCount(12);
+        heartBeat.setWorkerWaitingTaskCount(2);
+        heartBeat.setHeapUsed(120);
+        heartBeat.setHeapMax(1024);
+        heartBeat.setGcPauseMillis(15);
+        heartBeat.setWorkerAdmittedTaskCount(300);
+        heartBeat.setWorkerRejectedTaskCount(5);
+
+        String heartBeatInfo = heartBeat.encodeHeartBeat();
+        Assert.assertEquals("3,1595301479000,1595313560000,0.01,0.17,0.03,25.83,8.0,1.0,0,13238,10,12,2,120,1024,15,300,5", heartBeatInfo);
+
+        HeartBeat decoded = HeartBeat.decodeHeartBeat(heartBeatInfo);
+        Assert.assertNotNull(decoded);
+        Assert.assertEquals(heartBeatInfo, decoded.encodeHeartBeat());
+        Assert.assertTrue(decoded.isNormal());
+        Assert.assertEquals(10, decoded.getWorkerUsedSlots());
+        Assert.assertEquals(0, decoded.getWorkerFreeSlots());
+        Assert.assertEquals(5, decoded.getWorkerRejectedTaskCount());
+    }
+
+    @Test
+    public void testDecodeIllegalHeartBeat() {
+        Assert.assertNull(HeartBeat.decodeHeartBeat(null));
+        Assert.assertNull(HeartBeat.decodeHeartBeat(""));
+        Assert.assertNull(HeartBeat.decodeHeartBeat("1,1595301479000,1595313560000,0.01,0.17,0.03,25.83,8.0,1.0,0,13238,10,12,2,120,1024,15"));
+        Assert.assertNull(HeartBeat.decodeHeartBeat("3,1595301479000,1595313560000,0.01,0.17,0.03,25.83,8.0,1.0,0,13238,10,12,2,120,1024,15"));
+        Assert.assertNull(HeartBeat.decodeHeartBeat("3,1595301479000,1595313560000,0.01,0.17,0.03,25.83,8.0,1.0,0,13238,10,12,2,120,1024,15,300,x"));
+        Assert.assertNull(HeartBeat.decodeHeartBeat("0.01,0.17,0.03,25.83,8.0,1.0,2020-07-21,2020-07-21 14:39:20,0,13238"));
+    }
+
+    @Test
+    public void testDecodeOlderHeartBeat() {
+        // heartbeat of the previous version
+        HeartBeat previous = HeartBeat.decodeHeartBeat("2,1595301479000,1595313560000,0.01,0.17,0.03,25.83,8.0,1.0,0,13238,10,12,2,120,1024,15");
+        Assert.assertNotNull(previous);
+        Assert.assertEquals(10, previous.getWorkerExecThreads());
+        Assert.assertEquals(0, previous.getWorkerAdmittedTaskCount());
+
+        // heartbeat without version written by an old server
+        HeartBeat legacy = HeartBeat.decodeHeartBeat("0.01,0.17,0.03,25.83,8.0,1.0,2020-07-21 11:17:59,2020-07-21 14:39:20,0,13238");
+        Assert.assertNotNull(legacy);
+        Assert.assertEquals(DateUtils.stringToDate("2020-07-21 11:17:59").getTime(), legacy.getStartupTime());
+        Assert.assertEquals(13238, legacy.getProcessId());
+        Assert.assertTrue(legacy.isNormal());
+        Assert.assertEquals(0, legacy.getWorkerExecThreads());
+    }
+
+    @Test
+    public void testDecodeNewerHeartBeat() {
+        HeartBeat heartBeat = HeartBeat.decodeHeartBeat("4,1595301479000,1595313560000,0.01,0.17,0.03,25.83,8.0,1.0,0,13238,10,12,2,120,1024,15,300,5,7");
+        Assert.assertNotNull(heartBeat);
+        Assert.assertEquals(5, heartBeat.getWorkerRejectedTaskCount());
+    }
+}
@@ -156,6 +156,13 @@ public class JSONUtilsTest {
         serializeByte = JSONUtils.toJsonByteArray(str);
         deserialize = JSONUtils.parseObject(serializeByte, String.class);
         Assert.assertNull(deserialize);
+        Assert.assertNull(JSONUtils.parseObject(new byte[0], String.class));
+
+        Property property = new Property("foo", Direct.IN, DataType.VARCHAR, "测试");
+        Property parsed = JSONUtils.parseObject(JSONUtils.toJsonByteArray(property), Property.class);
+        Assert.assertEquals(property, parsed);
+        // the cached reader and writer give the same result on the next call
+        Assert.assertEquals(property, JSONUtils.parseObject(JSONUtils.toJsonByteArray(parsed), Property.class));
     }
 
     @Test
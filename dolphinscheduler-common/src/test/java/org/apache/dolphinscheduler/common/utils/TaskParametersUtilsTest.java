@@ -16,6 +16,10 @@
  */
 package org.apache.dolphinscheduler.common.utils;
 
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.task.shell.ShellParameters;
+import org.apache.dolphinscheduler.common.task.sql.SqlParameters;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -42,4 +46,31 @@ public class TaskParametersUtilsTest {
         Assert.assertNotNull(TaskParametersUtils.getParameters("FLINK", "{}"));
         Assert.assertNotNull(TaskParametersUtils.getParameters("HTTP", "{}"));
     }
+
+    @Test
+    public void testGetParametersClass() {
+        Assert.assertNull(TaskParametersUtils.getParametersClass("xx"));
+        Assert.assertEquals(ShellParameters.class, TaskParametersUtils.getParametersClass("WATERDROP"));
+        Assert.assertEquals(SqlParameters.class, TaskParametersUtils.getParametersClass("SQL"));
+    }
+
+    @Test
+    public void testTaskNodeParameters() {
+        TaskNode taskNode = new TaskNode();
+        taskNode.setType("SQL");
+        taskNode.setParams("{\"type\":\"MYSQL\",\"datasource\":1,\"sql\":\"select 1\"}");
+
+        SqlParameters sqlParameters = taskNode.getTaskParameters(SqlParameters.class);
+        Assert.assertEquals(1, sqlParameters.getDatasource());
+        // the params are parsed once
+        Assert.assertSame(sqlParameters, taskNode.getTaskParameters());
+        Assert.assertSame(sqlParameters, taskNode.getTaskParameters(SqlParameters.class));
+
+        taskNode.setParams("{\"type\":\"MYSQL\",\"datasource\":2,\"sql\":\"select 1\"}");
+        Assert.assertEquals(2, taskNode.getTaskParameters(SqlParameters.class).getDatasource());
+
+        taskNode.setType("SHELL");
+        Assert.assertTrue(taskNode.getTaskParameters() instanceof ShellParameters);
+        Assert.assertFalse(JSONUtils.toJsonString(taskNode).contains("taskParameters"));
+    }
 }
@@ -35,8 +35,10 @@ import org.apache.dolphinscheduler.dao.mapper.AlertPluginInstanceMapper;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -91,6 +93,43 @@ public class AlertDao extends AbstractBaseDao {
         return alertMapper.updateById(alert);
     }
 
+    /**
+     * update the status and log of alerts in batch
+     *
+     * @param alerts alerts with status and log
+     * @return update alert result
+     */
+    public int updateAlerts(List<Alert> alerts) {
+        if (alerts.isEmpty()) {
+            return 0;
+        }
+        return alertMapper.batchUpdateAlertStatus(alerts, new Date());
+    }
+
+    /**
+     * claim alerts by moving them from a status to another, so that each alert is claimed by one caller
+     *
+     * @param ids alert ids
+     * @param fromStatus status of the alerts to claim
+     * @param toStatus status of the claimed alerts
+     * @return ids of the alerts claimed, the alerts moved by another caller meanwhile are left out
+     */
+    public List<Integer> claimAlerts(List<Integer> ids, AlertStatus fromStatus, AlertStatus toStatus) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // the log tells the alerts updated by this claim apart from the ones claimed by another caller
+        String claim = "claimed by " + UUID.randomUUID();
+        int claimed = alertMapper.updateAlertStatusIfMatch(ids, fromStatus, toStatus, claim, new Date());
+        if (claimed == 0) {
+            return Collections.emptyList();
+        }
+        if (claimed == ids.size()) {
+            return ids;
+        }
+        return alertMapper.queryIdsByLog(ids, claim);
+    }
+
     /**
      * MasterServer or WorkerServer stoped
      *
@@ -117,6 +156,17 @@ public class AlertDao extends AbstractBaseDao {
      * @param processDefinition processDefinition
      */
     public void sendProcessTimeoutAlert(ProcessInstance processInstance, ProcessDefinition processDefinition) {
+        alertMapper.insert(createProcessTimeoutAlert(processInstance, processDefinition));
+    }
+
+    /**
+     * create the process time out alert without saving it
+     *
+     * @param processInstance processInstance
+     * @param processDefinition processDefinition
+     * @return alert
+     */
+    public Alert createProcessTimeoutAlert(ProcessInstance processInstance, ProcessDefinition processDefinition) {
         int alertGroupId = processInstance.getWarningGroupId();
         Alert alert = new Alert();
         List<ProcessAlertContent> processAlertContentList = new ArrayList<>(1);
@@ -127,9 +177,30 @@ public class AlertDao extends AbstractBaseDao {
                 .warningLevel(AlertWarnLevel.MIDDLE)
                 .build();
         processAlertContentList.add(processAlertContent);
-        String content = JSONUtils.toJsonString(processAlertContentList);
         alert.setTitle("Process Timeout Warn");
-        saveTaskTimeoutAlert(alert, content, alertGroupId);
+        alert.setAlertGroupId(alertGroupId);
+        alert.setContent(JSONUtils.toJsonString(processAlertContentList));
+        alert.setCreateTime(new Date());
+        alert.setUpdateTime(new Date());
+        return alert;
+    }
+
+    /**
+     * insert alerts in one statement, the ids of the alerts are set
+     *
+     * @param alerts alerts
+     * @return insert count
+     */
+    public int addAlerts(List<Alert> alerts) {
+        if (alerts.isEmpty()) {
+            return 0;
+        }
+        for (Alert alert : alerts) {
+            if (alert.getAlertStatus() == null) {
+                alert.setAlertStatus(AlertStatus.WAIT_EXECUTION);
+            }
+        }
+        return alertMapper.batchInsert(alerts);
     }
 
     private void saveTaskTimeoutAlert(Alert alert, String content, int alertGroupId) {
@@ -176,6 +247,15 @@ public class AlertDao extends AbstractBaseDao {
         return alertMapper.listAlertByStatus(AlertStatus.WAIT_EXECUTION);
     }
 
+    /**
+     * list the alerts held back to be coalesced
+     *
+     * @return alerts waiting to be coalesced
+     */
+    public List<Alert> listWaitCoalesceAlert() {
+        return alertMapper.listAlertByStatus(AlertStatus.WAIT_COALESCE);
+    }
+
     /**
      * for test
      *
@@ -185,6 +265,15 @@ public class AlertDao extends AbstractBaseDao {
         return alertMapper;
     }
 
+    /**
+     * list all alert plugin instances
+     *
+     * @return AlertPluginInstance list
+     */
+    public List<AlertPluginInstance> listAllInstance() {
+        return alertPluginInstanceMapper.queryAllAlertPluginInstanceList();
+    }
+
     /**
      * list all alert plugin instance by alert group id
      *
@@ -19,6 +19,7 @@ package org.apache.dolphinscheduler.dao.entity;
 
 import java.util.Date;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
@@ -49,10 +50,17 @@ public class ProcessDefinitionVersion {
     private long version;
 
     /**
-     * definition json string
+     * definition json string, kept once per content in t_ds_process_json_snapshot and referenced by
+     * processDefinitionJsonHash. only versions created before snapshots existed have it in this column
      */
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private String processDefinitionJson;
 
+    /**
+     * hash of the definition json snapshot
+     */
+    private String processDefinitionJsonHash;
+
     /**
      * description
      */
@@ -136,6 +144,14 @@ public class ProcessDefinitionVersion {
         this.processDefinitionJson = processDefinitionJson;
     }
 
+    public String getProcessDefinitionJsonHash() {
+        return processDefinitionJsonHash;
+    }
+
+    public void setProcessDefinitionJsonHash(String processDefinitionJsonHash) {
+        this.processDefinitionJsonHash = processDefinitionJsonHash;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -199,6 +215,7 @@ public class ProcessDefinitionVersion {
             + ", processDefinitionId=" + processDefinitionId
             + ", version=" + version
             + ", processDefinitionJson='" + processDefinitionJson + '\''
+            + ", processDefinitionJsonHash='" + processDefinitionJsonHash + '\''
             + ", description='" + description + '\''
             + ", globalParams='" + globalParams + '\''
             + ", createTime=" + createTime
@@ -29,6 +29,7 @@ import org.apache.dolphinscheduler.common.utils.DateUtils;
 import java.util.Date;
 import java.util.Objects;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
@@ -144,10 +145,19 @@ public class ProcessInstance {
     private String globalParams;
 
     /**
-     * process instance json
+     * process instance json, kept once per content in t_ds_process_json_snapshot and referenced by
+     * processInstanceJsonHash. it is never written, only instances created before snapshots existed
+     * have it in this column and are queried with it until their first update moves it to a snapshot,
+     * for the others it is null until loaded from the snapshot
      */
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private String processInstanceJson;
 
+    /**
+     * hash of the process instance json snapshot
+     */
+    private String processInstanceJsonHash;
+
     /**
      * executor id
      */
@@ -429,6 +439,14 @@ public class ProcessInstance {
         this.processInstanceJson = processInstanceJson;
     }
 
+    public String getProcessInstanceJsonHash() {
+        return processInstanceJsonHash;
+    }
+
+    public void setProcessInstanceJsonHash(String processInstanceJsonHash) {
+        this.processInstanceJsonHash = processInstanceJsonHash;
+    }
+
     public String getTenantCode() {
         return tenantCode;
     }
@@ -618,6 +636,9 @@ public class ProcessInstance {
                 + ", processInstanceJson='"
                 + processInstanceJson
                 + '\''
+                + ", processInstanceJsonHash='"
+                + processInstanceJsonHash
+                + '\''
                 + ", executorId="
                 + executorId
                 + ", tenantCode='"
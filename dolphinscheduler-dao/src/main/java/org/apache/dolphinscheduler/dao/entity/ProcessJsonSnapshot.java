@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.dao.entity;
+
+import java.util.Date;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+/**
+ * t_ds_process_json_snapshot, one row for each distinct process definition json that process
+ * instances or process definition versions were created from, keyed by the sha-256 hash of the json
+ */
+@TableName("t_ds_process_json_snapshot")
+public class ProcessJsonSnapshot {
+
+    /**
+     * sha-256 hex of the json
+     */
+    @TableId(value = "hash", type = IdType.INPUT)
+    private String hash;
+
+    /**
+     * whether content is gzip compressed
+     */
+    @TableField("compressed")
+    private boolean compressed;
+
+    /**
+     * utf-8 bytes of the json, gzip compressed if compressed is true
+     */
+    @TableField("content")
+    private byte[] content;
+
+    /**
+     * create time
+     */
+    @TableField("create_time")
+    private Date createTime;
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime) {
+        this.createTime = createTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessJsonSnapshot{"
+                + "hash='" + hash + '\''
+                + ", compressed=" + compressed
+                + ", contentLength=" + (content == null ? 0 : content.length)
+                + ", createTime=" + createTime
+                + '}';
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.entity;
+
+import java.util.Date;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+/**
+ * t_ds_process_lineage, one edge for each dependent item of the dependent tasks in a process definition
+ */
+@TableName("t_ds_process_lineage")
+public class ProcessLineage {
+
+    /**
+     * id
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private int id;
+
+    /**
+     * project id of the process definition
+     */
+    @TableField("project_id")
+    private int projectId;
+
+    /**
+     * process definition id, the downstream work flow
+     */
+    @TableField("process_definition_id")
+    private int processDefinitionId;
+
+    /**
+     * name of the dependent task in the process definition
+     */
+    @TableField("task_name")
+    private String taskName;
+
+    /**
+     * depended process definition id, the upstream work flow
+     */
+    @TableField("depend_process_definition_id")
+    private int dependProcessDefinitionId;
+
+    /**
+     * depended tasks of the upstream work flow, ALL or a task name
+     */
+    @TableField("depend_tasks")
+    private String dependTasks;
+
+    /**
+     * create time
+     */
+    @TableField("create_time")
+    private Date createTime;
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(int projectId) {
+        this.projectId = projectId;
+    }
+
+    public int getProcessDefinitionId() {
+        return processDefinitionId;
+    }
+
+    public void setProcessDefinitionId(int processDefinitionId) {
+        this.processDefinitionId = processDefinitionId;
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    public void setTaskName(String taskName) {
+        this.taskName = taskName;
+    }
+
+    public int getDependProcessDefinitionId() {
+        return dependProcessDefinitionId;
+    }
+
+    public void setDependProcessDefinitionId(int dependProcessDefinitionId) {
+        this.dependProcessDefinitionId = dependProcessDefinitionId;
+    }
+
+    public String getDependTasks() {
+        return dependTasks;
+    }
+
+    public void setDependTasks(String dependTasks) {
+        this.dependTasks = dependTasks;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime) {
+        this.createTime = createTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessLineage{"
+                + "id=" + id
+                + ", projectId=" + projectId
+                + ", processDefinitionId=" + processDefinitionId
+                + ", taskName='" + taskName + '\''
+                + ", dependProcessDefinitionId=" + dependProcessDefinitionId
+                + ", dependTasks='" + dependTasks + '\''
+                + ", createTime=" + createTime
+                + '}';
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.entity;
+
+import java.util.Date;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+/**
+ * t_ds_schedule_trigger_state, the last fire of each schedule triggered by the sharded trigger engine,
+ * a master taking over a schedule catches up the fires after it
+ */
+@TableName("t_ds_schedule_trigger_state")
+public class ScheduleTriggerState {
+
+    /**
+     * schedule id
+     */
+    @TableId(value = "schedule_id", type = IdType.INPUT)
+    private int scheduleId;
+
+    /**
+     * scheduled time of the last fire
+     */
+    @TableField("last_fire_time")
+    private Date lastFireTime;
+
+    /**
+     * update time
+     */
+    @TableField("update_time")
+    private Date updateTime;
+
+    public ScheduleTriggerState() {
+    }
+
+    public ScheduleTriggerState(int scheduleId, Date lastFireTime, Date updateTime) {
+        this.scheduleId = scheduleId;
+        this.lastFireTime = lastFireTime;
+        this.updateTime = updateTime;
+    }
+
+    public int getScheduleId() {
+        return scheduleId;
+    }
+
+    public void setScheduleId(int scheduleId) {
+        this.scheduleId = scheduleId;
+    }
+
+    public Date getLastFireTime() {
+        return lastFireTime;
+    }
+
+    public void setLastFireTime(Date lastFireTime) {
+        this.lastFireTime = lastFireTime;
+    }
+
+    public Date getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Date updateTime) {
+        this.updateTime = updateTime;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleTriggerState{"
+                + "scheduleId=" + scheduleId
+                + ", lastFireTime=" + lastFireTime
+                + ", updateTime=" + updateTime
+                + '}';
+    }
+}
@@ -21,6 +21,7 @@ import org.apache.dolphinscheduler.dao.entity.Alert;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -35,4 +36,42 @@ public interface AlertMapper extends BaseMapper<Alert> {
      */
     List<Alert> listAlertByStatus(@Param("alertStatus") AlertStatus alertStatus);
 
+    /**
+     * update the status and log of alerts in one statement
+     * @param alerts alerts with status and log
+     * @param updateTime updateTime
+     * @return update num
+     */
+    int batchUpdateAlertStatus(@Param("alerts") List<Alert> alerts, @Param("updateTime") Date updateTime);
+
+    /**
+     * insert alerts in one statement
+     * @param alerts alerts
+     * @return insert num
+     */
+    int batchInsert(@Param("alerts") List<Alert> alerts);
+
+    /**
+     * move alerts from a status to another, the alerts not in the status any more are not updated
+     * @param ids alert ids
+     * @param fromStatus current status
+     * @param toStatus new status
+     * @param log log of the updated alerts
+     * @param updateTime updateTime
+     * @return update num
+     */
+    int updateAlertStatusIfMatch(@Param("ids") List<Integer> ids,
+                                 @Param("fromStatus") AlertStatus fromStatus,
+                                 @Param("toStatus") AlertStatus toStatus,
+                                 @Param("log") String log,
+                                 @Param("updateTime") Date updateTime);
+
+    /**
+     * query the ids of alerts with a log
+     * @param ids alert ids
+     * @param log log
+     * @return ids of the alerts with the log
+     */
+    List<Integer> queryIdsByLog(@Param("ids") List<Integer> ids, @Param("log") String log);
+
 }
@@ -50,6 +50,11 @@ public interface CommandMapper extends BaseMapper<Command> {
             @Param("endTime") Date endTime,
             @Param("projectIdArray") Integer[] projectIdArray);
 
-
+    /**
+     * insert commands in one statement
+     * @param commands commands
+     * @return insert count
+     */
+    int batchInsert(@Param("commands") List<Command> commands);
 
 }
@@ -20,12 +20,14 @@ import org.apache.dolphinscheduler.dao.entity.DatasourceUser;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * datasource user realtion mapper interface
  */
 public interface DataSourceUserMapper extends BaseMapper<DatasourceUser> {
 
-
     /**
      * delete datasource by userId
      * @param userId userId
@@ -40,5 +42,26 @@ public interface DataSourceUserMapper extends BaseMapper<DatasourceUser> {
      */
     int deleteByDatasourceId(@Param("datasourceId") int datasourceId);
 
+    /**
+     * query the ids of the data sources granted to a user
+     * @param userId userId
+     * @return datasource id list
+     */
+    List<Integer> queryDatasourceIdsByUserId(@Param("userId") int userId);
+
+    /**
+     * delete the relations between a user and some data sources
+     * @param userId userId
+     * @param datasourceIds datasourceIds
+     * @return delete result
+     */
+    int deleteByUserIdAndDatasourceIds(@Param("userId") int userId,
+                                       @Param("datasourceIds") Collection<Integer> datasourceIds);
 
+    /**
+     * insert datasource user relations with one statement
+     * @param datasourceUsers datasource user relations
+     * @return insert result
+     */
+    int batchInsert(@Param("datasourceUsers") List<DatasourceUser> datasourceUsers);
 }
@@ -23,6 +23,7 @@ import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -94,6 +95,14 @@ public interface ProcessDefinitionMapper extends BaseMapper<ProcessDefinition> {
      */
     List<ProcessDefinition> queryDefinitionListByIdList(@Param("ids") Integer[] ids);
 
+    /**
+     * query id and version of process definitions, without the definition json
+     *
+     * @param ids ids
+     * @return process definition list, only id and version are filled
+     */
+    List<ProcessDefinition> queryVersionByIdList(@Param("ids") Collection<Integer> ids);
+
     /**
      * query process definition by tenant
      *
@@ -144,4 +153,20 @@ public interface ProcessDefinitionMapper extends BaseMapper<ProcessDefinition> {
      * @return project ids list
      */
     List<Integer> listProjectIds();
+
+    /**
+     * query the names of all process definitions of a project
+     *
+     * @param projectId project id
+     * @return process definition names
+     */
+    List<String> queryDefineNameListByProjectId(@Param("projectId") int projectId);
+
+    /**
+     * insert process definitions in one statement, the generated ids are set to the definitions
+     *
+     * @param processDefinitions process definitions
+     * @return insert count
+     */
+    int batchInsert(@Param("processDefinitions") List<ProcessDefinition> processDefinitions);
 }
@@ -21,6 +21,8 @@ import org.apache.dolphinscheduler.dao.entity.ProcessDefinitionVersion;
 
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -66,4 +68,12 @@ public interface ProcessDefinitionVersionMapper extends BaseMapper<ProcessDefini
      */
     int deleteByProcessDefinitionIdAndVersion(@Param("processDefinitionId") int processDefinitionId, @Param("version") long version);
 
+    /**
+     * insert process definition versions in one statement
+     *
+     * @param processDefinitionVersions process definition versions
+     * @return insert count
+     */
+    int batchInsert(@Param("processDefinitionVersions") List<ProcessDefinitionVersion> processDefinitionVersions);
+
 }
@@ -115,6 +115,15 @@ public interface ProcessInstanceMapper extends BaseMapper<ProcessInstance> {
     int setFailoverByHostAndStateArray(@Param("host") String host,
                                        @Param("states") int[] stateArray);
 
+    /**
+     * update host of process instances
+     * @param ids process instance ids
+     * @param host host
+     * @return update result
+     */
+    int updateHostByIds(@Param("ids") List<Integer> ids,
+                        @Param("host") String host);
+
     /**
      * update process instance by state
      * @param originState  originState
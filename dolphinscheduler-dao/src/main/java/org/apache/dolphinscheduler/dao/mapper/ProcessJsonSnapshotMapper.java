@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.dao.mapper;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessJsonSnapshot;
+
+import org.apache.ibatis.annotations.Param;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+/**
+ * process json snapshot mapper interface
+ */
+public interface ProcessJsonSnapshotMapper extends BaseMapper<ProcessJsonSnapshot> {
+
+    /**
+     * insert a snapshot unless one with the same hash exists,
+     * so that concurrent writers of the same json never fail the enclosing transaction
+     *
+     * @param snapshot snapshot
+     * @return insert result, 0 if the snapshot exists
+     */
+    int insertIfAbsent(@Param("snapshot") ProcessJsonSnapshot snapshot);
+}
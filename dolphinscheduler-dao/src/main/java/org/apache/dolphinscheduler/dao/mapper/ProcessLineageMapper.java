@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.mapper;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessLineage;
+
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+/**
+ * process lineage mapper interface
+ */
+public interface ProcessLineageMapper extends BaseMapper<ProcessLineage> {
+
+    /**
+     * query lineage edges of the process definition
+     *
+     * @param processDefinitionId process definition id
+     * @return lineage edge list
+     */
+    List<ProcessLineage> queryByProcessDefinitionId(@Param("processDefinitionId") int processDefinitionId);
+
+    /**
+     * delete lineage edges of the process definition
+     *
+     * @param processDefinitionId process definition id
+     * @return delete result
+     */
+    int deleteByProcessDefinitionId(@Param("processDefinitionId") int processDefinitionId);
+
+    /**
+     * batch insert lineage edges
+     *
+     * @param processLineages lineage edge list
+     * @return insert result
+     */
+    int batchInsert(@Param("processLineages") List<ProcessLineage> processLineages);
+}
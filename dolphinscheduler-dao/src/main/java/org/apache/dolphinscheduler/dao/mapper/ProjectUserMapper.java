@@ -20,6 +20,9 @@ import org.apache.dolphinscheduler.dao.entity.ProjectUser;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * project user mapper interface
  */
@@ -42,4 +45,27 @@ public interface ProjectUserMapper extends BaseMapper<ProjectUser> {
      */
     ProjectUser queryProjectRelation(@Param("projectId") int projectId,
                                      @Param("userId") int userId);
+
+    /**
+     * query all project relations of a user
+     * @param userId userId
+     * @return project user relation list
+     */
+    List<ProjectUser> queryProjectRelationByUserId(@Param("userId") int userId);
+
+    /**
+     * delete the relations between a user and some projects
+     * @param userId userId
+     * @param projectIds projectIds
+     * @return delete result
+     */
+    int deleteProjectRelations(@Param("userId") int userId,
+                               @Param("projectIds") Collection<Integer> projectIds);
+
+    /**
+     * insert project user relations with one statement
+     * @param projectUsers project user relations
+     * @return insert result
+     */
+    int batchInsert(@Param("projectUsers") List<ProjectUser> projectUsers);
 }
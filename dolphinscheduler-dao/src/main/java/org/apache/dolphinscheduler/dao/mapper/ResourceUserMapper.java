@@ -20,6 +20,8 @@ import org.apache.dolphinscheduler.dao.entity.ResourcesUser;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.List;
+
 /**
  * resource user relation mapper interface
  */
@@ -43,4 +45,17 @@ public interface ResourceUserMapper extends BaseMapper<ResourcesUser> {
     int deleteResourceUserArray(@Param("userId") int userId,
                            @Param("resIds") Integer[] resIds);
 
+    /**
+     * query the ids of the resources granted to a user
+     * @param userId userId
+     * @return resource id list
+     */
+    List<Integer> queryResourceIdsByUserId(@Param("userId") int userId);
+
+    /**
+     * insert resource user relations with one statement
+     * @param resourcesUsers resource user relations
+     * @return insert result
+     */
+    int batchInsert(@Param("resourcesUsers") List<ResourcesUser> resourcesUsers);
 }
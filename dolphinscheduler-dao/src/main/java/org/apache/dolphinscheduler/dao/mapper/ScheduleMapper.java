@@ -21,6 +21,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -67,4 +68,19 @@ public interface ScheduleMapper extends BaseMapper<Schedule> {
      */
     List<Schedule> queryReleaseSchedulerListByProcessDefinitionId(@Param("processDefinitionId") int processDefinitionId);
 
+    /**
+     * query online schedules of online process definitions
+     * @param scheduleIds schedule ids, all schedules if null
+     * @return schedule list
+     */
+    List<Schedule> queryOnlineSchedules(@Param("scheduleIds") Collection<Integer> scheduleIds);
+
+    /**
+     * lock schedules until the end of the transaction, so that a schedule is fired once when two masters briefly own it.
+     * the schedules are locked in id order, two masters locking overlapping schedules do not deadlock
+     * @param scheduleIds schedule ids
+     * @return ids of the locked schedules
+     */
+    List<Integer> lockSchedules(@Param("scheduleIds") Collection<Integer> scheduleIds);
+
 }
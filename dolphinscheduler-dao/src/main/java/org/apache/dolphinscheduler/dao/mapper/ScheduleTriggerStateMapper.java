@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.mapper;
+
+import org.apache.dolphinscheduler.dao.entity.ScheduleTriggerState;
+
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+/**
+ * schedule trigger state mapper interface
+ */
+public interface ScheduleTriggerStateMapper extends BaseMapper<ScheduleTriggerState> {
+
+    /**
+     * query the trigger states of schedules
+     *
+     * @param scheduleIds schedule ids
+     * @return trigger state list, schedules never fired have no state
+     */
+    List<ScheduleTriggerState> queryByScheduleIds(@Param("scheduleIds") Collection<Integer> scheduleIds);
+
+    /**
+     * query and lock the trigger states of schedules until the end of the transaction,
+     * schedules never fired have no state to lock, the schedules themselves are locked beforehand
+     *
+     * @param scheduleIds schedule ids
+     * @return trigger state list, schedules never fired have no state
+     */
+    List<ScheduleTriggerState> queryByScheduleIdsForUpdate(@Param("scheduleIds") Collection<Integer> scheduleIds);
+
+    /**
+     * insert or update the trigger states of schedules in one statement
+     *
+     * @param states trigger states
+     * @return affected rows
+     */
+    int batchUpsert(@Param("states") List<ScheduleTriggerState> states);
+}
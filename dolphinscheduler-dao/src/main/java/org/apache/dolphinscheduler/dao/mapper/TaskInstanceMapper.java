@@ -24,6 +24,7 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -41,6 +42,8 @@ public interface TaskInstanceMapper extends BaseMapper<TaskInstance> {
     List<TaskInstance> findValidTaskListByProcessId(@Param("processInstanceId") Integer processInstanceId,
                                                     @Param("flag") Flag flag);
 
+    List<TaskInstance> findValidTaskListByProcessIds(@Param("processInstanceIds") Collection<Integer> processInstanceIds);
+
     List<TaskInstance> queryByHostAndStatus(@Param("host") String host,
                                             @Param("states") int[] stateArray);
 
@@ -48,6 +51,11 @@ public interface TaskInstanceMapper extends BaseMapper<TaskInstance> {
                                        @Param("states") int[] stateArray,
                                        @Param("destStatus") ExecutionStatus destStatus);
 
+    int updateStateByIds(@Param("ids") List<Integer> ids,
+                         @Param("destStatus") ExecutionStatus destStatus);
+
+    int batchInsert(@Param("taskInstances") List<TaskInstance> taskInstances);
+
     TaskInstance queryByInstanceIdAndName(@Param("processInstanceId") int processInstanceId,
                                           @Param("name") String name);
 
@@ -20,6 +20,9 @@ import org.apache.dolphinscheduler.dao.entity.UDFUser;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * udf user realtion mapper interface
  */
@@ -39,5 +42,26 @@ public interface UDFUserMapper extends BaseMapper<UDFUser> {
      */
     int deleteByUdfFuncId(@Param("udfFuncId") int udfFuncId);
 
-}
+    /**
+     * query the ids of the udf functions granted to a user
+     * @param userId userId
+     * @return udf id list
+     */
+    List<Integer> queryUdfIdsByUserId(@Param("userId") int userId);
 
+    /**
+     * delete the relations between a user and some udf functions
+     * @param userId userId
+     * @param udfIds udfIds
+     * @return delete result
+     */
+    int deleteByUserIdAndUdfIds(@Param("userId") int userId,
+                                @Param("udfIds") Collection<Integer> udfIds);
+
+    /**
+     * insert udf user relations with one statement
+     * @param udfUsers udf user relations
+     * @return insert result
+     */
+    int batchInsert(@Param("udfUsers") List<UDFUser> udfUsers);
+}
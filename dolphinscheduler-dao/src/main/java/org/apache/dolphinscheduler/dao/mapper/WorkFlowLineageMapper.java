@@ -28,5 +28,5 @@ public interface WorkFlowLineageMapper {
 
     List<WorkFlowLineage> queryByIds(@Param("ids") Set<Integer> ids, @Param("projectId") int projectId);
 
-    List<WorkFlowRelation> querySourceTarget(@Param("id") int id);
+    List<WorkFlowRelation> queryWorkFlowRelations();
 }
@@ -107,6 +107,8 @@ public class DolphinSchedulerManager {
                 logger.error("Unable to determine current software version, so cannot upgrade");
                 throw new RuntimeException("Unable to determine current software version, so cannot upgrade");
             }
+            // Finish the data migrations interrupted by the previous upgrade
+            upgradeDao.resumeUnfinishedMigrations();
             // The target version of the upgrade
             String schemaVersion = "";
             for(String schemaDir : schemaList) {
@@ -119,6 +121,8 @@ public class DolphinSchedulerManager {
                         upgradeDao.upgradeDolphinSchedulerWorkerGroup();
                     } else if ("1.3.2".equals(schemaVersion)) {
                         upgradeDao.upgradeDolphinSchedulerResourceList();
+                    } else if ("1.4.0".equals(schemaVersion)) {
+                        upgradeDao.upgradeDolphinSchedulerProcessLineage();
                     }
                     version = schemaVersion;
                 }
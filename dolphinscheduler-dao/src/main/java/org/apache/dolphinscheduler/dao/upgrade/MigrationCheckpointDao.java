@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.upgrade;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * checkpoint dao of the data migrations run by the upgrade.
+ * the checkpoint table is created by the first migration, it is not part of the schema of any version
+ */
+public class MigrationCheckpointDao {
+
+    static final String TABLE_NAME = "t_ds_upgrade_checkpoint";
+
+    /**
+     * create the checkpoint table if it does not exist
+     *
+     * @param conn jdbc connection, it is not released
+     * @throws SQLException if the table can not be created
+     */
+    void createTableIfAbsent(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS " + TABLE_NAME + " ("
+                + "name varchar(64) NOT NULL,"
+                + "last_id int NOT NULL,"
+                + "processed bigint NOT NULL,"
+                + "finished int NOT NULL,"
+                + "update_time timestamp NULL,"
+                + "PRIMARY KEY (name))";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    /**
+     * query the checkpoint of a migration
+     *
+     * @param conn jdbc connection, it is not released
+     * @param name migration name
+     * @return checkpoint, null if the migration never ran
+     * @throws SQLException if the query fails
+     */
+    Checkpoint queryCheckpoint(Connection conn, String name) throws SQLException {
+        String sql = "SELECT last_id,processed,finished FROM " + TABLE_NAME + " WHERE name = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Checkpoint(name, rs.getInt(1), rs.getLong(2), rs.getInt(3) == 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * query the names of the migrations that started and did not finish
+     *
+     * @param conn jdbc connection, it is not released
+     * @return migration names
+     * @throws SQLException if the query fails
+     */
+    List<String> queryUnfinishedMigrations(Connection conn) throws SQLException {
+        List<String> names = new ArrayList<>();
+        String sql = "SELECT name FROM " + TABLE_NAME + " WHERE finished = 0";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                names.add(rs.getString(1));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * save the checkpoint of a migration, it is committed with the page it follows
+     *
+     * @param conn jdbc connection, it is not released
+     * @param checkpoint checkpoint
+     * @throws SQLException if the checkpoint can not be saved
+     */
+    void saveCheckpoint(Connection conn, Checkpoint checkpoint) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        String updateSql = "UPDATE " + TABLE_NAME + " SET last_id=?,processed=?,finished=?,update_time=? WHERE name=?";
+        try (PreparedStatement pstmt = conn.prepareStatement(updateSql)) {
+            pstmt.setInt(1, checkpoint.getLastId());
+            pstmt.setLong(2, checkpoint.getProcessed());
+            pstmt.setInt(3, checkpoint.isFinished() ? 1 : 0);
+            pstmt.setTimestamp(4, now);
+            pstmt.setString(5, checkpoint.getName());
+            if (pstmt.executeUpdate() > 0) {
+                return;
+            }
+        }
+        String insertSql = "INSERT INTO " + TABLE_NAME + " (name,last_id,processed,finished,update_time) VALUES (?,?,?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(insertSql)) {
+            pstmt.setString(1, checkpoint.getName());
+            pstmt.setInt(2, checkpoint.getLastId());
+            pstmt.setLong(3, checkpoint.getProcessed());
+            pstmt.setInt(4, checkpoint.isFinished() ? 1 : 0);
+            pstmt.setTimestamp(5, now);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * progress of a migration
+     */
+    static class Checkpoint {
+
+        private final String name;
+
+        /**
+         * id of the last migrated process definition
+         */
+        private final int lastId;
+
+        /**
+         * number of migrated process definitions
+         */
+        private final long processed;
+
+        private final boolean finished;
+
+        Checkpoint(String name, int lastId, long processed, boolean finished) {
+            this.name = name;
+            this.lastId = lastId;
+            this.processed = processed;
+            this.finished = finished;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getLastId() {
+            return lastId;
+        }
+
+        long getProcessed() {
+            return processed;
+        }
+
+        boolean isFinished() {
+            return finished;
+        }
+    }
+}
@@ -18,6 +18,8 @@
 package org.apache.dolphinscheduler.dao.upgrade;
 
 import org.apache.dolphinscheduler.common.utils.ConnectionUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.dao.entity.ProcessLineage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,6 +27,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.*;
 
 public class ProcessDefinitionDao {
@@ -65,6 +68,103 @@ public class ProcessDefinitionDao {
     }
 
 
+    /**
+     * query a page of process definitions ordered by id, the page starts after the given id so that
+     * a page costs the same wherever it is in the table
+     * @param conn jdbc connection, it is not released
+     * @param lastId id of the last process definition of the previous page
+     * @param limit page size
+     * @return process definitions with id, project id and json
+     * @throws SQLException if the query fails
+     */
+    List<ProcessDefinition> queryProcessDefinitionPage(Connection conn, int lastId, int limit) throws SQLException {
+        List<ProcessDefinition> processDefinitions = new ArrayList<>(limit);
+        String sql = "SELECT id,project_id,process_definition_json FROM t_ds_process_definition WHERE id > ? ORDER BY id LIMIT ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, lastId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ProcessDefinition processDefinition = new ProcessDefinition();
+                    processDefinition.setId(rs.getInt(1));
+                    processDefinition.setProjectId(rs.getInt(2));
+                    processDefinition.setProcessDefinitionJson(rs.getString(3));
+                    processDefinitions.add(processDefinition);
+                }
+            }
+        }
+        return processDefinitions;
+    }
+
+    /**
+     * queryAllProcessDefinitionProjectId
+     * @param conn jdbc connection
+     * @return project id of each process definition
+     */
+    public Map<Integer,Integer> queryAllProcessDefinitionProjectId(Connection conn){
+
+        Map<Integer,Integer> processDefinitionProjectMap = new HashMap<>();
+
+        String sql = "SELECT id,project_id FROM t_ds_process_definition";
+        ResultSet rs = null;
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = conn.prepareStatement(sql);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()){
+                processDefinitionProjectMap.put(rs.getInt(1),rs.getInt(2));
+            }
+
+        } catch (Exception e) {
+            logger.error(e.getMessage(),e);
+            throw new RuntimeException("sql: " + sql, e);
+        } finally {
+            ConnectionUtils.releaseResource(rs, pstmt, conn);
+        }
+
+        return processDefinitionProjectMap;
+    }
+
+    /**
+     * insertProcessLineage
+     * @param conn jdbc connection
+     * @param processLineages lineage edges of the process definitions
+     */
+    public void insertProcessLineage(Connection conn,List<ProcessLineage> processLineages){
+        try {
+            batchInsertProcessLineage(conn, processLineages);
+        } catch (Exception e) {
+            logger.error(e.getMessage(),e);
+            throw new RuntimeException("insert process lineage error", e);
+        } finally {
+            ConnectionUtils.releaseResource(conn);
+        }
+    }
+
+    /**
+     * insert process lineages with a jdbc batch
+     * @param conn jdbc connection, it is not released
+     * @param processLineages lineage edges of the process definitions
+     * @throws SQLException if the insert fails
+     */
+    void batchInsertProcessLineage(Connection conn, List<ProcessLineage> processLineages) throws SQLException {
+        String sql = "INSERT INTO t_ds_process_lineage (project_id,process_definition_id,task_name,"
+                + "depend_process_definition_id,depend_tasks,create_time) VALUES (?,?,?,?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (ProcessLineage processLineage : processLineages){
+                pstmt.setInt(1,processLineage.getProjectId());
+                pstmt.setInt(2,processLineage.getProcessDefinitionId());
+                pstmt.setString(3,processLineage.getTaskName());
+                pstmt.setInt(4,processLineage.getDependProcessDefinitionId());
+                pstmt.setString(5,processLineage.getDependTasks());
+                pstmt.setTimestamp(6,new Timestamp(processLineage.getCreateTime().getTime()));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
     /**
      * updateProcessDefinitionJson
      * @param conn jdbc connection
@@ -73,15 +173,14 @@ public class ProcessDefinitionDao {
     public void updateProcessDefinitionJson(Connection conn,Map<Integer,String> processDefinitionJsonMap){
         String sql = "UPDATE t_ds_process_definition SET process_definition_json=? where id=?";
         try {
+            List<ProcessDefinition> processDefinitions = new ArrayList<>(processDefinitionJsonMap.size());
             for (Map.Entry<Integer, String> entry : processDefinitionJsonMap.entrySet()){
-                try(PreparedStatement pstmt= conn.prepareStatement(sql)) {
-                    pstmt.setString(1,entry.getValue());
-                    pstmt.setInt(2,entry.getKey());
-                    pstmt.executeUpdate();
-                }
-
+                ProcessDefinition processDefinition = new ProcessDefinition();
+                processDefinition.setId(entry.getKey());
+                processDefinition.setProcessDefinitionJson(entry.getValue());
+                processDefinitions.add(processDefinition);
             }
-
+            batchUpdateProcessDefinitionJson(conn, processDefinitions);
         } catch (Exception e) {
             logger.error(e.getMessage(),e);
             throw new RuntimeException("sql: " + sql, e);
@@ -89,4 +188,22 @@ public class ProcessDefinitionDao {
             ConnectionUtils.releaseResource(conn);
         }
     }
+
+    /**
+     * update the json of process definitions with a jdbc batch
+     * @param conn jdbc connection, it is not released
+     * @param processDefinitions process definitions with id and json
+     * @throws SQLException if the update fails
+     */
+    void batchUpdateProcessDefinitionJson(Connection conn, List<ProcessDefinition> processDefinitions) throws SQLException {
+        String sql = "UPDATE t_ds_process_definition SET process_definition_json=? where id=?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (ProcessDefinition processDefinition : processDefinitions) {
+                pstmt.setString(1, processDefinition.getProcessDefinitionJson());
+                pstmt.setInt(2, processDefinition.getId());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.upgrade;
+
+import org.apache.dolphinscheduler.common.process.ResourceInfo;
+import org.apache.dolphinscheduler.common.utils.CollectionUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * conversions of the process definition json between versions
+ */
+public class ProcessDefinitionJsonConverter {
+
+    private static final String TASKS = "tasks";
+
+    private ProcessDefinitionJsonConverter() {
+        throw new UnsupportedOperationException("Construct ProcessDefinitionJsonConverter");
+    }
+
+    /**
+     * ds-1.3.0 replace the worker group id of the tasks with the worker group name
+     *
+     * @param processDefinitionJson process definition json
+     * @param oldWorkerGroupMap worker group id -> name
+     * @return converted json
+     */
+    public static String convertWorkerGroup(String processDefinitionJson, Map<Integer, String> oldWorkerGroupMap) {
+        ObjectNode jsonObject = JSONUtils.parseObject(processDefinitionJson);
+        ArrayNode tasks = tasks(jsonObject);
+        for (JsonNode taskNode : tasks) {
+            ObjectNode task = (ObjectNode) taskNode;
+            // the id is a number or a numeric string in the old json
+            int workerGroupId = task.path("workerGroupId").asInt(-1);
+            if (workerGroupId == -1) {
+                task.put("workerGroup", "default");
+            } else {
+                task.put("workerGroup", oldWorkerGroupMap.get(workerGroupId));
+            }
+        }
+        return jsonObject.toString();
+    }
+
+    /**
+     * ds-1.3.2 fill the id of the resources referred to by name in the tasks
+     *
+     * @param processDefinitionJson process definition json
+     * @param resourcesMap resource full name -> id
+     * @return converted json
+     */
+    public static String convertResourceList(String processDefinitionJson, Map<String, Integer> resourcesMap) {
+        ObjectNode jsonObject = JSONUtils.parseObject(processDefinitionJson);
+        ArrayNode tasks = tasks(jsonObject);
+        for (JsonNode task : tasks) {
+            JsonNode paramNode = task.get("params");
+            if (paramNode == null || !paramNode.isObject()) {
+                continue;
+            }
+            ObjectNode param = (ObjectNode) paramNode;
+
+            JsonNode mainJarNode = param.get("mainJar");
+            if (mainJarNode != null && mainJarNode.isObject()) {
+                ResourceInfo mainJar = JSONUtils.parseObject(mainJarNode.toString(), ResourceInfo.class);
+                if (mainJar != null && fillResourceId(mainJar, resourcesMap)) {
+                    param.set("mainJar", JSONUtils.toJsonNode(mainJar));
+                }
+            }
+
+            JsonNode resourceListNode = param.get("resourceList");
+            if (resourceListNode != null && resourceListNode.isArray()) {
+                List<ResourceInfo> resourceList = JSONUtils.toList(resourceListNode.toString(), ResourceInfo.class);
+                if (CollectionUtils.isNotEmpty(resourceList)) {
+                    for (ResourceInfo resourceInfo : resourceList) {
+                        fillResourceId(resourceInfo, resourcesMap);
+                    }
+                    param.set("resourceList", JSONUtils.toJsonNode(resourceList));
+                }
+            }
+        }
+        return jsonObject.toString();
+    }
+
+    private static boolean fillResourceId(ResourceInfo resourceInfo, Map<String, Integer> resourcesMap) {
+        if (resourceInfo.getId() != 0 || resourceInfo.getRes() == null) {
+            return false;
+        }
+        String fullName = resourceInfo.getRes().startsWith("/") ? resourceInfo.getRes() : String.format("/%s", resourceInfo.getRes());
+        Integer id = resourcesMap.get(fullName);
+        if (id == null) {
+            return false;
+        }
+        resourceInfo.setId(id);
+        return true;
+    }
+
+    private static ArrayNode tasks(ObjectNode jsonObject) {
+        JsonNode tasks = jsonObject.get(TASKS);
+        return tasks != null && tasks.isArray() ? (ArrayNode) tasks : JSONUtils.createArrayNode();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.upgrade;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.dao.upgrade.MigrationCheckpointDao.Checkpoint;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * migrate the process definitions page by page.
+ * a page is read after the id of the previous one, its definitions are transformed in parallel and the
+ * results are written with jdbc batches in one transaction together with the checkpoint, so a failed
+ * migration resumes after the last committed page.
+ */
+public class ProcessDefinitionMigrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessDefinitionMigrator.class);
+
+    private final DataSource dataSource;
+
+    private final int pageSize;
+
+    private final int parallelism;
+
+    private final ProcessDefinitionDao processDefinitionDao = new ProcessDefinitionDao();
+
+    private final MigrationCheckpointDao checkpointDao = new MigrationCheckpointDao();
+
+    /**
+     * write the results of a page
+     *
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    public interface BatchWriter<T> {
+
+        /**
+         * write the results, the connection is committed by the migrator
+         *
+         * @param conn jdbc connection
+         * @param results results of the transformed definitions of a page
+         * @throws SQLException if the write fails
+         */
+        void write(Connection conn, List<T> results) throws SQLException;
+    }
+
+    public ProcessDefinitionMigrator(DataSource dataSource, int pageSize, int parallelism) {
+        this.dataSource = dataSource;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * run a migration, or resume it after its checkpoint
+     *
+     * @param name migration name
+     * @param transformer transform a process definition, null if nothing is written for it
+     * @param writer write the results of a page
+     * @param <T> result type
+     * @return number of process definitions migrated in this run
+     */
+    public <T> long migrate(String name, Function<ProcessDefinition, T> transformer, BatchWriter<T> writer) {
+        ExecutorService executor = ThreadUtils.newDaemonFixedThreadExecutor("Upgrade-Migration-Thread-%d", parallelism);
+        long startTime = System.currentTimeMillis();
+        long migrated = 0;
+        long written = 0;
+        int lastId = 0;
+        try (Connection conn = dataSource.getConnection()) {
+            checkpointDao.createTableIfAbsent(conn);
+            Checkpoint checkpoint = checkpointDao.queryCheckpoint(conn, name);
+            if (checkpoint != null && checkpoint.isFinished()) {
+                logger.info("migration {} has finished, skip it", name);
+                return 0;
+            }
+            long processed = 0;
+            if (checkpoint != null) {
+                lastId = checkpoint.getLastId();
+                processed = checkpoint.getProcessed();
+                logger.info("resume migration {} after process definition {}, {} process definitions migrated before",
+                        name, lastId, processed);
+            }
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                if (checkpoint == null) {
+                    // recorded as started before the first page, so a failure of it is resumed as well
+                    checkpointDao.saveCheckpoint(conn, new Checkpoint(name, 0, 0, false));
+                    conn.commit();
+                }
+                List<ProcessDefinition> page;
+                do {
+                    page = processDefinitionDao.queryProcessDefinitionPage(conn, lastId, pageSize);
+                    List<T> results = transform(executor, page, transformer);
+                    if (!results.isEmpty()) {
+                        writer.write(conn, results);
+                    }
+                    if (!page.isEmpty()) {
+                        lastId = page.get(page.size() - 1).getId();
+                    }
+                    migrated += page.size();
+                    written += results.size();
+                    checkpointDao.saveCheckpoint(conn, new Checkpoint(name, lastId, processed + migrated, page.size() < pageSize));
+                    conn.commit();
+                    logger.info("migration {}: {} process definitions migrated, {} written, last id {}, {} per second",
+                            name, migrated, written, lastId, throughput(migrated, startTime));
+                } while (page.size() == pageSize);
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (Exception e) {
+            logger.error("migration {} error, it resumes after process definition {} in the next upgrade", name, lastId, e);
+            throw new RuntimeException("migration " + name + " error", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("migration {} finished, {} process definitions migrated and {} written in {} ms",
+                name, migrated, written, System.currentTimeMillis() - startTime);
+        return migrated;
+    }
+
+    private static <T> List<T> transform(ExecutorService executor,
+                                         List<ProcessDefinition> page,
+                                         Function<ProcessDefinition, T> transformer) throws InterruptedException {
+        List<Future<T>> futures = new ArrayList<>(page.size());
+        for (ProcessDefinition processDefinition : page) {
+            futures.add(executor.submit(() -> transformer.apply(processDefinition)));
+        }
+        List<T> results = new ArrayList<>(page.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                T result = futures.get(i).get();
+                if (result != null) {
+                    results.add(result);
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("migrate process definition " + page.get(i).getId() + " error", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private static long throughput(long migrated, long startTime) {
+        long costMillis = Math.max(System.currentTimeMillis() - startTime, 1);
+        return migrated * 1000 / costMillis;
+    }
+}
@@ -16,13 +16,12 @@
  */
 package org.apache.dolphinscheduler.dao.upgrade;
 
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.dolphinscheduler.common.enums.DbType;
-import org.apache.dolphinscheduler.common.process.ResourceInfo;
 import org.apache.dolphinscheduler.common.utils.*;
 import org.apache.dolphinscheduler.dao.AbstractBaseDao;
 import org.apache.dolphinscheduler.dao.datasource.ConnectionFactory;
+import org.apache.dolphinscheduler.dao.entity.ProcessLineage;
+import org.apache.dolphinscheduler.dao.utils.ProcessLineageUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,7 +32,6 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.MessageFormat;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -47,6 +45,21 @@ public abstract class UpgradeDao extends AbstractBaseDao {
     protected static final DataSource dataSource = getDataSource();
     private static final DbType dbType = getCurrentDbType();
 
+    /**
+     * number of process definitions read and written at a time by a data migration
+     */
+    private static final int MIGRATION_PAGE_SIZE = Integer.getInteger("upgrade.migration.page.size", 500);
+
+    /**
+     * number of threads transforming the process definitions of a page
+     */
+    private static final int MIGRATION_PARALLELISM = Integer.getInteger("upgrade.migration.parallelism",
+            Runtime.getRuntime().availableProcessors());
+
+    private static final String WORKER_GROUP_MIGRATION = "1.3.0_worker_group";
+    private static final String RESOURCE_LIST_MIGRATION = "1.3.2_resource_list";
+    private static final String PROCESS_LINEAGE_MIGRATION = "1.4.0_process_lineage";
+
 
     @Override
     protected void init() {
@@ -286,47 +299,79 @@ public abstract class UpgradeDao extends AbstractBaseDao {
         updateProcessDefinitionJsonResourceList();
     }
 
+    /**
+     * upgrade DolphinScheduler process lineage
+     * ds-1.4.0 build the lineage edges from the dependent tasks of process definition json
+     */
+    public void upgradeDolphinSchedulerProcessLineage() {
+        ProcessDefinitionDao processDefinitionDao = new ProcessDefinitionDao();
+        createProcessDefinitionMigrator().migrate(PROCESS_LINEAGE_MIGRATION,
+                processDefinition -> {
+                    List<ProcessLineage> processLineages = ProcessLineageUtils.parseProcessLineage(processDefinition.getProjectId(),
+                            processDefinition.getId(), processDefinition.getProcessDefinitionJson());
+                    return processLineages.isEmpty() ? null : processLineages;
+                },
+                (conn, results) -> processDefinitionDao.batchInsertProcessLineage(conn,
+                        results.stream().flatMap(List::stream).collect(Collectors.toList())));
+    }
+
+    /**
+     * resume the data migrations that did not finish in the previous upgrade, their schema version
+     * is already updated so they are not run again by the version upgrade
+     */
+    public void resumeUnfinishedMigrations() {
+        List<String> unfinishedMigrations;
+        Connection conn = null;
+        try {
+            conn = dataSource.getConnection();
+            MigrationCheckpointDao checkpointDao = new MigrationCheckpointDao();
+            checkpointDao.createTableIfAbsent(conn);
+            unfinishedMigrations = checkpointDao.queryUnfinishedMigrations(conn);
+        } catch (SQLException e) {
+            logger.error(e.getMessage(), e);
+            throw new RuntimeException("query unfinished migrations error", e);
+        } finally {
+            ConnectionUtils.releaseResource(conn);
+        }
+
+        for (String migration : unfinishedMigrations) {
+            switch (migration) {
+                case WORKER_GROUP_MIGRATION:
+                    updateProcessDefinitionJsonWorkerGroup();
+                    break;
+                case RESOURCE_LIST_MIGRATION:
+                    updateProcessDefinitionJsonResourceList();
+                    break;
+                case PROCESS_LINEAGE_MIGRATION:
+                    upgradeDolphinSchedulerProcessLineage();
+                    break;
+                default:
+                    logger.warn("unknown migration: {}, skip it", migration);
+                    break;
+            }
+        }
+    }
+
     /**
      * updateProcessDefinitionJsonWorkerGroup
      */
     protected void updateProcessDefinitionJsonWorkerGroup() {
         WorkerGroupDao workerGroupDao = new WorkerGroupDao();
         ProcessDefinitionDao processDefinitionDao = new ProcessDefinitionDao();
-        Map<Integer, String> replaceProcessDefinitionMap = new HashMap<>();
+        Map<Integer, String> oldWorkerGroupMap;
         try {
-            Map<Integer, String> oldWorkerGroupMap = workerGroupDao.queryAllOldWorkerGroup(dataSource.getConnection());
-            Map<Integer, String> processDefinitionJsonMap = processDefinitionDao.queryAllProcessDefinition(dataSource.getConnection());
-
-            for (Map.Entry<Integer, String> entry : processDefinitionJsonMap.entrySet()) {
-                ObjectNode jsonObject = JSONUtils.parseObject(entry.getValue());
-                ArrayNode tasks = JSONUtils.parseArray(jsonObject.get("tasks").toString());
-
-                for (int i = 0; i < tasks.size(); i++) {
-                    ObjectNode task = (ObjectNode) tasks.path(i);
-                    ObjectNode workerGroupNode = (ObjectNode) task.path("workerGroupId");
-                    Integer workerGroupId = -1;
-                    if (workerGroupNode != null && workerGroupNode.canConvertToInt()) {
-                        workerGroupId = workerGroupNode.asInt(-1);
-                    }
-                    if (workerGroupId == -1) {
-                        task.put("workerGroup", "default");
-                    } else {
-                        task.put("workerGroup", oldWorkerGroupMap.get(workerGroupId));
-                    }
-                }
-
-                jsonObject.remove("task");
-
-                jsonObject.put("tasks", tasks);
-
-                replaceProcessDefinitionMap.put(entry.getKey(), jsonObject.toString());
-            }
-            if (replaceProcessDefinitionMap.size() > 0) {
-                processDefinitionDao.updateProcessDefinitionJson(dataSource.getConnection(), replaceProcessDefinitionMap);
-            }
-        } catch (Exception e) {
-            logger.error("update process definition json workergroup error", e);
+            oldWorkerGroupMap = workerGroupDao.queryAllOldWorkerGroup(dataSource.getConnection());
+        } catch (SQLException e) {
+            logger.error(e.getMessage(), e);
+            throw new RuntimeException("query old worker group error", e);
         }
+        createProcessDefinitionMigrator().migrate(WORKER_GROUP_MIGRATION,
+                processDefinition -> {
+                    processDefinition.setProcessDefinitionJson(ProcessDefinitionJsonConverter.convertWorkerGroup(
+                            processDefinition.getProcessDefinitionJson(), oldWorkerGroupMap));
+                    return processDefinition;
+                },
+                processDefinitionDao::batchUpdateProcessDefinitionJson);
     }
 
     /**
@@ -335,58 +380,24 @@ public abstract class UpgradeDao extends AbstractBaseDao {
     protected void updateProcessDefinitionJsonResourceList() {
         ResourceDao resourceDao = new ResourceDao();
         ProcessDefinitionDao processDefinitionDao = new ProcessDefinitionDao();
-        Map<Integer, String> replaceProcessDefinitionMap = new HashMap<>();
+        Map<String, Integer> resourcesMap;
         try {
-            Map<String, Integer> resourcesMap = resourceDao.listAllResources(dataSource.getConnection());
-            Map<Integer, String> processDefinitionJsonMap = processDefinitionDao.queryAllProcessDefinition(dataSource.getConnection());
-
-            for (Map.Entry<Integer, String> entry : processDefinitionJsonMap.entrySet()) {
-                ObjectNode jsonObject = JSONUtils.parseObject(entry.getValue());
-                ArrayNode tasks = JSONUtils.parseArray(jsonObject.get("tasks").toString());
-
-                for (int i = 0; i < tasks.size(); i++) {
-                    ObjectNode task = (ObjectNode) tasks.get(i);
-                    ObjectNode param = (ObjectNode) task.get("params");
-                    if (param != null) {
-
-                        List<ResourceInfo> resourceList = JSONUtils.toList(param.get("resourceList").toString(), ResourceInfo.class);
-                        ResourceInfo mainJar = JSONUtils.parseObject(param.get("mainJar").toString(), ResourceInfo.class);
-                        if (mainJar != null && mainJar.getId() == 0) {
-                            String fullName = mainJar.getRes().startsWith("/") ? mainJar.getRes() : String.format("/%s", mainJar.getRes());
-                            if (resourcesMap.containsKey(fullName)) {
-                                mainJar.setId(resourcesMap.get(fullName));
-                                param.put("mainJar", JSONUtils.parseObject(JSONUtils.toJsonString(mainJar)));
-                            }
-                        }
-
-                        if (CollectionUtils.isNotEmpty(resourceList)) {
-                            List<ResourceInfo> newResourceList = resourceList.stream().map(resInfo -> {
-                                String fullName = resInfo.getRes().startsWith("/") ? resInfo.getRes() : String.format("/%s", resInfo.getRes());
-                                if (resInfo.getId() == 0 && resourcesMap.containsKey(fullName)) {
-                                    resInfo.setId(resourcesMap.get(fullName));
-                                }
-                                return resInfo;
-                            }).collect(Collectors.toList());
-                            param.put("resourceList", JSONUtils.parseObject(JSONUtils.toJsonString(newResourceList)));
-                        }
-                    }
-                    task.put("params", param);
-
-                }
-
-                jsonObject.remove("tasks");
-
-                jsonObject.put("tasks", tasks);
-
-                replaceProcessDefinitionMap.put(entry.getKey(), jsonObject.toString());
-            }
-            if (replaceProcessDefinitionMap.size() > 0) {
-                processDefinitionDao.updateProcessDefinitionJson(dataSource.getConnection(), replaceProcessDefinitionMap);
-            }
-        } catch (Exception e) {
-            logger.error("update process definition json resource list error", e);
+            resourcesMap = resourceDao.listAllResources(dataSource.getConnection());
+        } catch (SQLException e) {
+            logger.error(e.getMessage(), e);
+            throw new RuntimeException("list all resources error", e);
         }
+        createProcessDefinitionMigrator().migrate(RESOURCE_LIST_MIGRATION,
+                processDefinition -> {
+                    processDefinition.setProcessDefinitionJson(ProcessDefinitionJsonConverter.convertResourceList(
+                            processDefinition.getProcessDefinitionJson(), resourcesMap));
+                    return processDefinition;
+                },
+                processDefinitionDao::batchUpdateProcessDefinitionJson);
+    }
 
+    private ProcessDefinitionMigrator createProcessDefinitionMigrator() {
+        return new ProcessDefinitionMigrator(dataSource, MIGRATION_PAGE_SIZE, MIGRATION_PARALLELISM);
     }
 
     /**
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.utils;
+
+import org.apache.dolphinscheduler.common.enums.TaskType;
+import org.apache.dolphinscheduler.common.model.DependentItem;
+import org.apache.dolphinscheduler.common.model.DependentTaskModel;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.task.dependent.DependentParameters;
+import org.apache.dolphinscheduler.common.utils.CollectionUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.common.utils.StringUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessData;
+import org.apache.dolphinscheduler.dao.entity.ProcessLineage;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * process lineage utils
+ */
+public class ProcessLineageUtils {
+
+    private ProcessLineageUtils() {
+        throw new UnsupportedOperationException("Construct ProcessLineageUtils");
+    }
+
+    /**
+     * parse the lineage edges from the dependent tasks of the process definition json
+     *
+     * @param projectId project id
+     * @param processDefinitionId process definition id
+     * @param processDefinitionJson process definition json
+     * @return lineage edge list, one edge for each dependent item
+     */
+    public static List<ProcessLineage> parseProcessLineage(int projectId, int processDefinitionId, String processDefinitionJson) {
+        List<ProcessLineage> processLineages = new ArrayList<>();
+        if (StringUtils.isEmpty(processDefinitionJson)) {
+            return processLineages;
+        }
+        ProcessData processData = JSONUtils.parseObject(processDefinitionJson, ProcessData.class);
+        if (processData == null || CollectionUtils.isEmpty(processData.getTasks())) {
+            return processLineages;
+        }
+        Date now = new Date();
+        for (TaskNode taskNode : processData.getTasks()) {
+            if (!TaskType.DEPENDENT.toString().equalsIgnoreCase(taskNode.getType())
+                    || StringUtils.isEmpty(taskNode.getDependence())) {
+                continue;
+            }
+            DependentParameters dependentParameters = JSONUtils.parseObject(taskNode.getDependence(), DependentParameters.class);
+            if (dependentParameters == null || CollectionUtils.isEmpty(dependentParameters.getDependTaskList())) {
+                continue;
+            }
+            for (DependentTaskModel dependentTaskModel : dependentParameters.getDependTaskList()) {
+                if (CollectionUtils.isEmpty(dependentTaskModel.getDependItemList())) {
+                    continue;
+                }
+                for (DependentItem dependentItem : dependentTaskModel.getDependItemList()) {
+                    ProcessLineage processLineage = new ProcessLineage();
+                    processLineage.setProjectId(projectId);
+                    processLineage.setProcessDefinitionId(processDefinitionId);
+                    processLineage.setTaskName(taskNode.getName());
+                    processLineage.setDependProcessDefinitionId(dependentItem.getDefinitionId());
+                    processLineage.setDependTasks(dependentItem.getDepTasks());
+                    processLineage.setCreateTime(now);
+                    processLineages.add(processLineage);
+                }
+            }
+        }
+        return processLineages;
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.dolphinscheduler.common.enums.AlertStatus;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.dao.entity.Alert;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -126,6 +127,52 @@ public class AlertMapperTest {
         }
     }
 
+    /**
+     * test batch update alert status
+     */
+    @Test
+    public void testBatchUpdateAlertStatus() {
+        Alert successAlert = createAlert();
+        successAlert.setAlertStatus(AlertStatus.EXECUTION_SUCCESS);
+        successAlert.setLog("success");
+        Alert failedAlert = createAlert();
+        failedAlert.setAlertStatus(AlertStatus.EXECUTION_FAILURE);
+        failedAlert.setLog("error");
+
+        int count = alertMapper.batchUpdateAlertStatus(Arrays.asList(successAlert, failedAlert), DateUtils.getCurrentDate());
+        assertEquals(2, count);
+
+        Alert actualSuccessAlert = alertMapper.selectById(successAlert.getId());
+        assertEquals(AlertStatus.EXECUTION_SUCCESS, actualSuccessAlert.getAlertStatus());
+        assertEquals("success", actualSuccessAlert.getLog());
+        Alert actualFailedAlert = alertMapper.selectById(failedAlert.getId());
+        assertEquals(AlertStatus.EXECUTION_FAILURE, actualFailedAlert.getAlertStatus());
+        assertEquals("error", actualFailedAlert.getLog());
+    }
+
+    @Test
+    public void testBatchInsert() {
+        Alert alert1 = new Alert();
+        alert1.setTitle("batch alert 1");
+        alert1.setContent("[]");
+        alert1.setAlertStatus(AlertStatus.WAIT_EXECUTION);
+        alert1.setAlertGroupId(1);
+        alert1.setCreateTime(DateUtils.getCurrentDate());
+        alert1.setUpdateTime(DateUtils.getCurrentDate());
+        Alert alert2 = new Alert();
+        alert2.setTitle("batch alert 2");
+        alert2.setContent("[]");
+        alert2.setAlertStatus(AlertStatus.WAIT_EXECUTION);
+        alert2.setAlertGroupId(1);
+        alert2.setCreateTime(DateUtils.getCurrentDate());
+        alert2.setUpdateTime(DateUtils.getCurrentDate());
+
+        int count = alertMapper.batchInsert(Arrays.asList(alert1, alert2));
+        assertEquals(2, count);
+        assertEquals(2, alertMapper.listAlertByStatus(AlertStatus.WAIT_EXECUTION).stream()
+                .filter(alert -> alert.getTitle().startsWith("batch alert")).count());
+    }
+
     /**
      * create alert map
      *
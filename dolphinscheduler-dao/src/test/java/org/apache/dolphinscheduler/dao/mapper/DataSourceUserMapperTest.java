@@ -27,6 +27,7 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -110,4 +111,24 @@ public class DataSourceUserMapperTest {
         int delete = dataSourceUserMapper.deleteByDatasourceId(dataSourceUser.getDatasourceId());
         Assert.assertNotEquals(delete, 0);
     }
-}
\ No newline at end of file
+
+    /**
+     * test batch insert, query and delete by user id and datasource ids
+     */
+    @Test
+    public void testBatchInsertAndDeleteByUserIdAndDatasourceIds() {
+        DatasourceUser dataSourceUser = new DatasourceUser();
+        dataSourceUser.setUserId(5);
+        dataSourceUser.setDatasourceId(1011);
+        dataSourceUser.setPerm(7);
+        dataSourceUser.setUpdateTime(new Date());
+        dataSourceUser.setCreateTime(new Date());
+        int insert = dataSourceUserMapper.batchInsert(Collections.singletonList(dataSourceUser));
+        Assert.assertEquals(1, insert);
+        Assert.assertEquals(Collections.singletonList(1011), dataSourceUserMapper.queryDatasourceIdsByUserId(5));
+
+        int delete = dataSourceUserMapper.deleteByUserIdAndDatasourceIds(5, Collections.singletonList(1011));
+        Assert.assertEquals(1, delete);
+        Assert.assertTrue(dataSourceUserMapper.queryDatasourceIdsByUserId(5).isEmpty());
+    }
+}
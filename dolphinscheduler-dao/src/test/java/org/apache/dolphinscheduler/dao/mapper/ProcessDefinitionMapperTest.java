@@ -26,6 +26,7 @@ import org.apache.dolphinscheduler.dao.entity.Queue;
 import org.apache.dolphinscheduler.dao.entity.Tenant;
 import org.apache.dolphinscheduler.dao.entity.User;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -308,6 +309,21 @@ public class ProcessDefinitionMapperTest {
 
     }
 
+    /**
+     * test query version by id list
+     */
+    @Test
+    public void testQueryVersionByIdList() {
+
+        ProcessDefinition processDefinition = insertOne();
+        ProcessDefinition processDefinition1 = insertTwo();
+
+        List<ProcessDefinition> processDefinitions = processDefinitionMapper.queryVersionByIdList(
+                Arrays.asList(processDefinition.getId(), processDefinition1.getId()));
+        Assert.assertEquals(2, processDefinitions.size());
+        Assert.assertNull(processDefinitions.get(0).getProcessDefinitionJson());
+    }
+
     /**
      * test count process definition group by user
      */
@@ -374,4 +390,32 @@ public class ProcessDefinitionMapperTest {
         Assert.assertNotNull(projectIds);
     }
 
+    @Test
+    public void testQueryDefineNameListByProjectId() {
+        ProcessDefinition processDefinition = insertOne();
+        List<String> names = processDefinitionMapper.queryDefineNameListByProjectId(processDefinition.getProjectId());
+        Assert.assertTrue(names.contains(processDefinition.getName()));
+    }
+
+    @Test
+    public void testBatchInsert() {
+        ProcessDefinition processDefinition1 = new ProcessDefinition();
+        processDefinition1.setName("def 1");
+        processDefinition1.setProjectId(1010);
+        processDefinition1.setReleaseState(ReleaseState.OFFLINE);
+        processDefinition1.setCreateTime(new Date());
+        processDefinition1.setUpdateTime(new Date());
+        ProcessDefinition processDefinition2 = new ProcessDefinition();
+        processDefinition2.setName("def 2");
+        processDefinition2.setProjectId(1010);
+        processDefinition2.setReleaseState(ReleaseState.OFFLINE);
+        processDefinition2.setCreateTime(new Date());
+        processDefinition2.setUpdateTime(new Date());
+
+        int count = processDefinitionMapper.batchInsert(Arrays.asList(processDefinition1, processDefinition2));
+        Assert.assertEquals(2, count);
+        Assert.assertNotEquals(0, processDefinition1.getId());
+        Assert.assertEquals("def 2", processDefinitionMapper.selectById(processDefinition2.getId()).getName());
+    }
+
 }
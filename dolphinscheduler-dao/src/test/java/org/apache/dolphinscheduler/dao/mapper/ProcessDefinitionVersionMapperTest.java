@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.dao.mapper;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinitionVersion;
 
+import java.util.Arrays;
 import java.util.Date;
 
 import org.junit.Assert;
@@ -165,4 +166,20 @@ public class ProcessDefinitionVersionMapperTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testBatchInsert() {
+        ProcessDefinitionVersion processDefinitionVersion1 = new ProcessDefinitionVersion();
+        processDefinitionVersion1.setProcessDefinitionId(66);
+        processDefinitionVersion1.setVersion(1);
+        processDefinitionVersion1.setCreateTime(new Date());
+        ProcessDefinitionVersion processDefinitionVersion2 = new ProcessDefinitionVersion();
+        processDefinitionVersion2.setProcessDefinitionId(67);
+        processDefinitionVersion2.setVersion(1);
+        processDefinitionVersion2.setCreateTime(new Date());
+
+        int count = processDefinitionVersionMapper.batchInsert(Arrays.asList(processDefinitionVersion1, processDefinitionVersion2));
+        Assert.assertEquals(2, count);
+        Assert.assertEquals(Long.valueOf(1), processDefinitionVersionMapper.queryMaxVersionByProcessDefinitionId(67));
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.mapper;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessJsonSnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * process json snapshot mapper test
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+@Rollback(true)
+public class ProcessJsonSnapshotMapperTest {
+
+    @Autowired
+    ProcessJsonSnapshotMapper processJsonSnapshotMapper;
+
+    private ProcessJsonSnapshot createSnapshot(String hash, String json) {
+        ProcessJsonSnapshot snapshot = new ProcessJsonSnapshot();
+        snapshot.setHash(hash);
+        snapshot.setCompressed(false);
+        snapshot.setContent(json.getBytes(StandardCharsets.UTF_8));
+        snapshot.setCreateTime(new Date());
+        return snapshot;
+    }
+
+    /**
+     * test insert if absent
+     */
+    @Test
+    public void testInsertIfAbsent() {
+        String hash = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+        Assert.assertEquals(1, processJsonSnapshotMapper.insertIfAbsent(createSnapshot(hash, "{}")));
+        // the same content is stored once
+        processJsonSnapshotMapper.insertIfAbsent(createSnapshot(hash, "{}"));
+
+        ProcessJsonSnapshot snapshot = processJsonSnapshotMapper.selectById(hash);
+        Assert.assertNotNull(snapshot);
+        Assert.assertFalse(snapshot.isCompressed());
+        Assert.assertEquals("{}", new String(snapshot.getContent(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.mapper;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessLineage;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+@Rollback(true)
+public class ProcessLineageMapperTest {
+
+    @Autowired
+    private ProcessLineageMapper processLineageMapper;
+
+    /**
+     * insert lineage edges of a process definition
+     *
+     * @param processDefinitionId process definition id
+     * @return lineage edge list
+     */
+    private List<ProcessLineage> insertProcessLineages(int processDefinitionId) {
+        List<ProcessLineage> processLineages = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            ProcessLineage processLineage = new ProcessLineage();
+            processLineage.setProjectId(1);
+            processLineage.setProcessDefinitionId(processDefinitionId);
+            processLineage.setTaskName("dependent");
+            processLineage.setDependProcessDefinitionId(processDefinitionId + i);
+            processLineage.setDependTasks("ALL");
+            processLineage.setCreateTime(new Date());
+            processLineages.add(processLineage);
+        }
+        processLineageMapper.batchInsert(processLineages);
+        return processLineages;
+    }
+
+    @Test
+    public void testBatchInsert() {
+        insertProcessLineages(100);
+        List<ProcessLineage> processLineages = processLineageMapper.queryByProcessDefinitionId(100);
+        Assert.assertEquals(2, processLineages.size());
+        Assert.assertEquals("dependent", processLineages.get(0).getTaskName());
+    }
+
+    @Test
+    public void testDeleteByProcessDefinitionId() {
+        insertProcessLineages(100);
+        insertProcessLineages(200);
+        Assert.assertEquals(2, processLineageMapper.deleteByProcessDefinitionId(100));
+        Assert.assertTrue(processLineageMapper.queryByProcessDefinitionId(100).isEmpty());
+        Assert.assertEquals(2, processLineageMapper.queryByProcessDefinitionId(200).size());
+    }
+}
@@ -27,6 +27,8 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -115,4 +117,42 @@ public class ProjectUserMapperTest {
         Assert.assertNotEquals(projectUser1, null);
 
     }
-}
\ No newline at end of file
+
+    /**
+     * test query project relation by user id
+     */
+    @Test
+    public void testQueryProjectRelationByUserId() {
+        ProjectUser projectUser = insertOne();
+        List<ProjectUser> projectUsers = projectUserMapper.queryProjectRelationByUserId(projectUser.getUserId());
+        Assert.assertEquals(1, projectUsers.size());
+        Assert.assertEquals(projectUser.getProjectId(), projectUsers.get(0).getProjectId());
+    }
+
+    /**
+     * test batch insert and delete project relations
+     */
+    @Test
+    public void testBatchInsertAndDeleteProjectRelations() {
+        ProjectUser projectUser = new ProjectUser();
+        projectUser.setProjectId(1011);
+        projectUser.setUserId(112);
+        projectUser.setPerm(7);
+        projectUser.setCreateTime(new Date());
+        projectUser.setUpdateTime(new Date());
+        ProjectUser projectUser1 = new ProjectUser();
+        projectUser1.setProjectId(1012);
+        projectUser1.setUserId(112);
+        projectUser1.setPerm(7);
+        projectUser1.setCreateTime(new Date());
+        projectUser1.setUpdateTime(new Date());
+        int insert = projectUserMapper.batchInsert(Arrays.asList(projectUser, projectUser1));
+        Assert.assertEquals(2, insert);
+
+        int delete = projectUserMapper.deleteProjectRelations(112, Collections.singletonList(1011));
+        Assert.assertEquals(1, delete);
+        List<ProjectUser> projectUsers = projectUserMapper.queryProjectRelationByUserId(112);
+        Assert.assertEquals(1, projectUsers.size());
+        Assert.assertEquals(1012, projectUsers.get(0).getProjectId());
+    }
+}
@@ -28,6 +28,7 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -118,4 +119,22 @@ public class ResourceUserMapperTest {
                 resourceIdArray);
         Assert.assertNotEquals(delete, 0);
     }
-}
\ No newline at end of file
+
+    /**
+     * test batch insert and query resource ids by user id
+     */
+    @Test
+    public void testBatchInsertAndQueryResourceIdsByUserId() {
+        ResourcesUser resourcesUser = new ResourcesUser();
+        resourcesUser.setCreateTime(new Date());
+        resourcesUser.setUpdateTime(new Date());
+        resourcesUser.setUserId(11112);
+        resourcesUser.setResourcesId(1111);
+        resourcesUser.setPerm(Constants.AUTHORIZE_WRITABLE_PERM);
+        int insert = resourceUserMapper.batchInsert(Collections.singletonList(resourcesUser));
+        Assert.assertEquals(1, insert);
+
+        List<Integer> resourceIds = resourceUserMapper.queryResourceIdsByUserId(11112);
+        Assert.assertEquals(Collections.singletonList(1111), resourceIds);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.mapper;
+
+import org.apache.dolphinscheduler.dao.entity.ScheduleTriggerState;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * schedule trigger state mapper test
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+@Rollback(true)
+public class ScheduleTriggerStateMapperTest {
+
+    @Autowired
+    ScheduleTriggerStateMapper scheduleTriggerStateMapper;
+
+    /**
+     * test batch upsert
+     */
+    @Test
+    public void testBatchUpsert() {
+        Date first = new Date(1600000000000L);
+        Date second = new Date(1600000060000L);
+        scheduleTriggerStateMapper.batchUpsert(Arrays.asList(
+                new ScheduleTriggerState(1, first, first), new ScheduleTriggerState(2, first, first)));
+        // the state of a fired schedule is updated
+        scheduleTriggerStateMapper.batchUpsert(Collections.singletonList(new ScheduleTriggerState(2, second, second)));
+
+        List<ScheduleTriggerState> states = scheduleTriggerStateMapper.queryByScheduleIds(Arrays.asList(1, 2, 3));
+        Assert.assertEquals(2, states.size());
+        for (ScheduleTriggerState state : states) {
+            Assert.assertEquals(state.getScheduleId() == 1 ? first : second, state.getLastFireTime());
+        }
+        Assert.assertEquals(1, scheduleTriggerStateMapper.queryByScheduleIdsForUpdate(Collections.singletonList(2)).size());
+    }
+}
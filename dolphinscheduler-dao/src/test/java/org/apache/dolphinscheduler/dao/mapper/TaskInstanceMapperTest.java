@@ -28,6 +28,9 @@ import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -115,6 +118,32 @@ public class TaskInstanceMapperTest {
         Assert.assertEquals(1, delete);
     }
 
+    /**
+     * test batch insert
+     */
+    @Test
+    public void testBatchInsert() {
+        List<TaskInstance> taskInstances = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            TaskInstance taskInstance = new TaskInstance();
+            taskInstance.setFlag(Flag.YES);
+            taskInstance.setName("batch task" + i);
+            taskInstance.setState(ExecutionStatus.SUBMITTED_SUCCESS);
+            taskInstance.setSubmitTime(new Date());
+            taskInstance.setTaskJson("{}");
+            taskInstance.setProcessInstanceId(1);
+            taskInstance.setTaskType(TaskType.SHELL.toString());
+            taskInstances.add(taskInstance);
+        }
+        int insert = taskInstanceMapper.batchInsert(taskInstances);
+        Assert.assertEquals(2, insert);
+        for (TaskInstance taskInstance : taskInstances) {
+            Assert.assertNotEquals(0, taskInstance.getId());
+            Assert.assertEquals(taskInstance.getName(), taskInstanceMapper.selectById(taskInstance.getId()).getName());
+            taskInstanceMapper.deleteById(taskInstance.getId());
+        }
+    }
+
     /**
      * test query
      */
@@ -171,6 +200,24 @@ public class TaskInstanceMapperTest {
         Assert.assertNotEquals(taskInstances1.size(), 0);
     }
 
+    /**
+     * test find valid task list by process instance ids
+     */
+    @Test
+    public void testFindValidTaskListByProcessIds() {
+        TaskInstance task = insertOne("task1", 110, ExecutionStatus.SUCCESS, TaskType.SHELL.toString());
+        TaskInstance task2 = insertOne("task2", 111, ExecutionStatus.SUCCESS, TaskType.SHELL.toString());
+        TaskInstance task3 = insertOne("task3", 111, ExecutionStatus.SUCCESS, TaskType.SHELL.toString());
+        task3.setFlag(Flag.NO);
+        taskInstanceMapper.updateById(task3);
+        insertOne("task4", 112, ExecutionStatus.SUCCESS, TaskType.SHELL.toString());
+
+        List<TaskInstance> taskInstances = taskInstanceMapper.findValidTaskListByProcessIds(Arrays.asList(110, 111));
+        Assert.assertEquals(2, taskInstances.size());
+        Assert.assertEquals(task.getId(), taskInstances.get(0).getId());
+        Assert.assertEquals(task2.getId(), taskInstances.get(1).getId());
+    }
+
     /**
      * test query by host and status
      */
@@ -205,6 +252,23 @@ public class TaskInstanceMapperTest {
         Assert.assertNotEquals(setResult, 0);
     }
 
+    /**
+     * test update state by ids
+     */
+    @Test
+    public void testUpdateStateByIds() {
+        TaskInstance task = insertOne();
+
+        int updateResult = taskInstanceMapper.updateStateByIds(
+                Collections.singletonList(task.getId()),
+                ExecutionStatus.NEED_FAULT_TOLERANCE
+        );
+        TaskInstance taskInstance = taskInstanceMapper.selectById(task.getId());
+        taskInstanceMapper.deleteById(task.getId());
+        Assert.assertEquals(1, updateResult);
+        Assert.assertEquals(ExecutionStatus.NEED_FAULT_TOLERANCE, taskInstance.getState());
+    }
+
     /**
      * test query by task instance id and name
      */
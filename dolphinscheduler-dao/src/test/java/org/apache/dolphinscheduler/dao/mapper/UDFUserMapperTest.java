@@ -31,6 +31,7 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -190,4 +191,26 @@ public class UDFUserMapperTest {
         int delete = udfUserMapper.deleteByUdfFuncId(udfFunc.getId());
         Assert.assertEquals(delete, 1);
     }
-}
\ No newline at end of file
+
+    /**
+     * test batch insert, query and delete by user id and udf ids
+     */
+    @Test
+    public void testBatchInsertAndDeleteByUserIdAndUdfIds() {
+        User user = insertOneUser();
+        UdfFunc udfFunc = insertOneUdfFunc();
+        UDFUser udfUser = new UDFUser();
+        udfUser.setUdfId(udfFunc.getId());
+        udfUser.setUserId(user.getId());
+        udfUser.setPerm(7);
+        udfUser.setCreateTime(new Date());
+        udfUser.setUpdateTime(new Date());
+        int insert = udfUserMapper.batchInsert(Collections.singletonList(udfUser));
+        Assert.assertEquals(1, insert);
+        Assert.assertEquals(Collections.singletonList(udfFunc.getId()), udfUserMapper.queryUdfIdsByUserId(user.getId()));
+
+        int delete = udfUserMapper.deleteByUserIdAndUdfIds(user.getId(), Collections.singletonList(udfFunc.getId()));
+        Assert.assertEquals(1, delete);
+        Assert.assertTrue(udfUserMapper.queryUdfIdsByUserId(user.getId()).isEmpty());
+    }
+}
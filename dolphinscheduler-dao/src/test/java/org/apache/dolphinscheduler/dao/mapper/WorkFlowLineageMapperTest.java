@@ -16,6 +16,7 @@
  */
 package org.apache.dolphinscheduler.dao.mapper;
 
+import org.apache.dolphinscheduler.dao.entity.ProcessLineage;
 import org.apache.dolphinscheduler.dao.entity.WorkFlowLineage;
 import org.apache.dolphinscheduler.dao.entity.WorkFlowRelation;
 import org.junit.Assert;
@@ -27,6 +28,7 @@ import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -39,6 +41,9 @@ public class WorkFlowLineageMapperTest {
     @Autowired
     private WorkFlowLineageMapper workFlowLineageMapper;
 
+    @Autowired
+    private ProcessLineageMapper processLineageMapper;
+
     @Test
     public void testQueryByName() {
         List<WorkFlowLineage> workFlowLineages = workFlowLineageMapper.queryByName("test",1);
@@ -55,8 +60,18 @@ public class WorkFlowLineageMapperTest {
     }
 
     @Test
-    public void testQuerySourceTarget() {
-        List<WorkFlowRelation> workFlowRelations = workFlowLineageMapper.querySourceTarget(1);
-        Assert.assertNotEquals(workFlowRelations.size(), 0);
+    public void testQueryWorkFlowRelations() {
+        ProcessLineage processLineage = new ProcessLineage();
+        processLineage.setProjectId(1);
+        processLineage.setProcessDefinitionId(2);
+        processLineage.setTaskName("dependent");
+        processLineage.setDependProcessDefinitionId(1);
+        processLineage.setDependTasks("ALL");
+        processLineage.setCreateTime(new Date());
+        processLineageMapper.insert(processLineage);
+
+        List<WorkFlowRelation> workFlowRelations = workFlowLineageMapper.queryWorkFlowRelations();
+        Assert.assertTrue(workFlowRelations.stream().anyMatch(relation -> relation.getSourceWorkFlowId() == 1
+                && relation.getTargetWorkFlowId() == 2));
     }
 }
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.upgrade;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * process definition json converter test
+ */
+public class ProcessDefinitionJsonConverterTest {
+
+    @Test
+    public void testConvertWorkerGroup() {
+        String json = "{\"tasks\":[{\"name\":\"a\",\"workerGroupId\":\"3\"},{\"name\":\"b\",\"workerGroupId\":-1},{\"name\":\"c\"}]}";
+
+        JsonNode tasks = JSONUtils.parseObject(ProcessDefinitionJsonConverter.convertWorkerGroup(json,
+                Collections.singletonMap(3, "gpu"))).get("tasks");
+
+        Assert.assertEquals("gpu", tasks.get(0).get("workerGroup").asText());
+        Assert.assertEquals("default", tasks.get(1).get("workerGroup").asText());
+        Assert.assertEquals("default", tasks.get(2).get("workerGroup").asText());
+    }
+
+    @Test
+    public void testConvertResourceList() {
+        String json = "{\"tasks\":["
+                + "{\"name\":\"shell\",\"params\":{\"rawScript\":\"echo 1\",\"resourceList\":[{\"res\":\"a.sh\"},{\"id\":8,\"res\":\"b.sh\"},{\"res\":\"c.sh\"}]}},"
+                + "{\"name\":\"spark\",\"params\":{\"mainJar\":{\"res\":\"/spark.jar\"}}},"
+                + "{\"name\":\"dependent\"}]}";
+        Map<String, Integer> resourcesMap = new HashMap<>();
+        resourcesMap.put("/a.sh", 1);
+        resourcesMap.put("/b.sh", 2);
+        resourcesMap.put("/spark.jar", 3);
+
+        JsonNode tasks = JSONUtils.parseObject(ProcessDefinitionJsonConverter.convertResourceList(json, resourcesMap)).get("tasks");
+
+        JsonNode resourceList = tasks.get(0).get("params").get("resourceList");
+        Assert.assertEquals(1, resourceList.get(0).get("id").asInt());
+        // an id that is set is kept
+        Assert.assertEquals(8, resourceList.get(1).get("id").asInt());
+        // an unknown resource is kept as it is
+        Assert.assertEquals(0, resourceList.get(2).get("id").asInt());
+        Assert.assertEquals("c.sh", resourceList.get(2).get("res").asText());
+        Assert.assertEquals("echo 1", tasks.get(0).get("params").get("rawScript").asText());
+        Assert.assertEquals(3, tasks.get(1).get("params").get("mainJar").get("id").asInt());
+        Assert.assertNull(tasks.get(2).get("params"));
+    }
+}
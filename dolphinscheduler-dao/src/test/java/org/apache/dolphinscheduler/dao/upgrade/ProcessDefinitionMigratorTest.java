@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.upgrade;
+
+import org.apache.dolphinscheduler.dao.upgrade.MigrationCheckpointDao.Checkpoint;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * process definition migrator test, it runs on an in-memory database
+ */
+public class ProcessDefinitionMigratorTest {
+
+    private static final String MIGRATION = "test_migration";
+
+    private final ProcessDefinitionDao processDefinitionDao = new ProcessDefinitionDao();
+
+    private JdbcDataSource dataSource;
+
+    private Connection keepAlive;
+
+    @Before
+    public void before() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:process_definition_migrator_test");
+        keepAlive = dataSource.getConnection();
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("CREATE TABLE t_ds_process_definition (id int PRIMARY KEY, project_id int, process_definition_json text)");
+            for (int id = 1; id <= 7; id++) {
+                stmt.execute("INSERT INTO t_ds_process_definition VALUES (" + id + ", 1, 'json-" + id + "')");
+            }
+        }
+    }
+
+    @After
+    public void after() throws SQLException {
+        keepAlive.close();
+    }
+
+    @Test
+    public void testMigrate() throws SQLException {
+        ProcessDefinitionMigrator migrator = new ProcessDefinitionMigrator(dataSource, 3, 2);
+
+        long migrated = migrator.migrate(MIGRATION,
+                processDefinition -> {
+                    if (processDefinition.getId() == 4) {
+                        return null;
+                    }
+                    processDefinition.setProcessDefinitionJson(processDefinition.getProcessDefinitionJson().toUpperCase());
+                    return processDefinition;
+                },
+                processDefinitionDao::batchUpdateProcessDefinitionJson);
+
+        Assert.assertEquals(7, migrated);
+        Assert.assertEquals("JSON-1", queryJson(1));
+        Assert.assertEquals("json-4", queryJson(4));
+        Assert.assertEquals("JSON-7", queryJson(7));
+        Checkpoint checkpoint = queryCheckpoint();
+        Assert.assertTrue(checkpoint.isFinished());
+        Assert.assertEquals(7, checkpoint.getLastId());
+        Assert.assertEquals(7, checkpoint.getProcessed());
+
+        // a finished migration is not run again
+        Assert.assertEquals(0, migrator.migrate(MIGRATION, processDefinition -> processDefinition,
+                processDefinitionDao::batchUpdateProcessDefinitionJson));
+    }
+
+    @Test
+    public void testResume() throws SQLException {
+        ProcessDefinitionMigrator migrator = new ProcessDefinitionMigrator(dataSource, 3, 2);
+
+        try {
+            migrator.migrate(MIGRATION,
+                    processDefinition -> {
+                        if (processDefinition.getId() == 2) {
+                            throw new IllegalArgumentException("invalid json");
+                        }
+                        return processDefinition;
+                    },
+                    processDefinitionDao::batchUpdateProcessDefinitionJson);
+            Assert.fail("migration should fail");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains(MIGRATION));
+        }
+        // the migration failed in the first page is recorded as started
+        Checkpoint started = queryCheckpoint();
+        Assert.assertFalse(started.isFinished());
+        Assert.assertEquals(0, started.getLastId());
+        Assert.assertEquals(0, started.getProcessed());
+        try (Connection conn = dataSource.getConnection()) {
+            Assert.assertEquals(Collections.singletonList(MIGRATION), new MigrationCheckpointDao().queryUnfinishedMigrations(conn));
+        }
+
+        try {
+            migrator.migrate(MIGRATION,
+                    processDefinition -> {
+                        if (processDefinition.getId() == 5) {
+                            throw new IllegalArgumentException("invalid json");
+                        }
+                        processDefinition.setProcessDefinitionJson(processDefinition.getProcessDefinitionJson().toUpperCase());
+                        return processDefinition;
+                    },
+                    processDefinitionDao::batchUpdateProcessDefinitionJson);
+            Assert.fail("migration should fail");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains(MIGRATION));
+        }
+        // the first page is committed, the failed page is rolled back
+        Assert.assertEquals("JSON-3", queryJson(3));
+        Assert.assertEquals("json-4", queryJson(4));
+        Checkpoint checkpoint = queryCheckpoint();
+        Assert.assertFalse(checkpoint.isFinished());
+        Assert.assertEquals(3, checkpoint.getLastId());
+        try (Connection conn = dataSource.getConnection()) {
+            Assert.assertEquals(Collections.singletonList(MIGRATION), new MigrationCheckpointDao().queryUnfinishedMigrations(conn));
+        }
+
+        long migrated = migrator.migrate(MIGRATION,
+                processDefinition -> {
+                    processDefinition.setProcessDefinitionJson(processDefinition.getProcessDefinitionJson() + "-resumed");
+                    return processDefinition;
+                },
+                processDefinitionDao::batchUpdateProcessDefinitionJson);
+
+        Assert.assertEquals(4, migrated);
+        Assert.assertEquals("JSON-3", queryJson(3));
+        Assert.assertEquals("json-4-resumed", queryJson(4));
+        checkpoint = queryCheckpoint();
+        Assert.assertTrue(checkpoint.isFinished());
+        Assert.assertEquals(7, checkpoint.getProcessed());
+    }
+
+    private String queryJson(int id) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT process_definition_json FROM t_ds_process_definition WHERE id = ?")) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                Assert.assertTrue(rs.next());
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private Checkpoint queryCheckpoint() throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return new MigrationCheckpointDao().queryCheckpoint(conn, MIGRATION);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.dao.utils;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessLineage;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * process lineage utils test
+ */
+public class ProcessLineageUtilsTest {
+
+    @Test
+    public void testParseProcessLineage() {
+        String processDefinitionJson = "{\"globalParams\":[],\"tasks\":["
+                + "{\"type\":\"SHELL\",\"id\":\"tasks-1\",\"name\":\"shell\",\"params\":{\"rawScript\":\"echo 1\"},\"dependence\":{}},"
+                + "{\"type\":\"DEPENDENT\",\"id\":\"tasks-2\",\"name\":\"dependent\",\"params\":{},"
+                + "\"dependence\":{\"relation\":\"AND\",\"dependTaskList\":[{\"relation\":\"AND\",\"dependItemList\":["
+                + "{\"projectId\":1,\"definitionId\":10,\"depTasks\":\"ALL\",\"cycle\":\"day\",\"dateValue\":\"today\"},"
+                + "{\"projectId\":2,\"definitionId\":20,\"depTasks\":\"task_a\",\"cycle\":\"day\",\"dateValue\":\"today\"}]}]}}"
+                + "],\"tenantId\":1,\"timeout\":0}";
+
+        List<ProcessLineage> processLineages = ProcessLineageUtils.parseProcessLineage(1, 30, processDefinitionJson);
+        Assert.assertEquals(2, processLineages.size());
+        Assert.assertEquals(30, processLineages.get(0).getProcessDefinitionId());
+        Assert.assertEquals("dependent", processLineages.get(0).getTaskName());
+        Assert.assertEquals(10, processLineages.get(0).getDependProcessDefinitionId());
+        Assert.assertEquals("ALL", processLineages.get(0).getDependTasks());
+        Assert.assertEquals(20, processLineages.get(1).getDependProcessDefinitionId());
+        Assert.assertEquals("task_a", processLineages.get(1).getDependTasks());
+
+        Assert.assertTrue(ProcessLineageUtils.parseProcessLineage(1, 30, "").isEmpty());
+    }
+}
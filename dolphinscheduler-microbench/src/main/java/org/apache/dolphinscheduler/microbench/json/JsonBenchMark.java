@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.json;
+
+import static com.fasterxml.jackson.databind.DeserializationFeature.ACCEPT_EMPTY_ARRAY_AS_NULL_OBJECT;
+import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
+import static com.fasterxml.jackson.databind.DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_AS_NULL;
+import static com.fasterxml.jackson.databind.MapperFeature.REQUIRE_SETTERS_FOR_GETTERS;
+
+import org.apache.dolphinscheduler.common.enums.DataType;
+import org.apache.dolphinscheduler.common.enums.Direct;
+import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.common.enums.Priority;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.process.Property;
+import org.apache.dolphinscheduler.common.process.ResourceInfo;
+import org.apache.dolphinscheduler.common.task.shell.ShellParameters;
+import org.apache.dolphinscheduler.common.task.sql.SqlParameters;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.common.utils.TaskParametersUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessData;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
+import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * json hot path JMH test, each legacy benchmark reproduces how the payload was handled
+ * before the readers and writers of JSONUtils were cached and the byte array apis skipped the strings
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchMark extends AbstractBaseBenchmark {
+
+    /**
+     * configured as JSONUtils, used through readValue and writeValueAsString as JSONUtils did
+     */
+    private static final ObjectMapper legacyMapper = new ObjectMapper()
+            .configure(FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(ACCEPT_EMPTY_ARRAY_AS_NULL_OBJECT, true)
+            .configure(READ_UNKNOWN_ENUM_VALUES_AS_NULL, true)
+            .configure(REQUIRE_SETTERS_FOR_GETTERS, true)
+            .setTimeZone(TimeZone.getDefault());
+
+    /**
+     * number of tasks of the process definition and number of rows of the sql task result
+     */
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private String processDefinitionJson;
+
+    private TaskExecutionContext taskExecutionContext;
+
+    private byte[] taskExecuteRequestBody;
+
+    private String sqlTaskNodeJson;
+
+    private List<Map<String, Object>> sqlResult;
+
+    @Setup
+    public void setup() throws IOException {
+        List<TaskNode> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(shellTaskNode(i));
+        }
+        List<Property> globalParams = new ArrayList<>();
+        globalParams.add(new Property("bizdate", Direct.IN, DataType.VARCHAR, "${system.biz.date}"));
+        processDefinitionJson = JSONUtils.toJsonString(new ProcessData(tasks, globalParams));
+
+        TaskNode sqlTaskNode = sqlTaskNode();
+        sqlTaskNodeJson = JSONUtils.toJsonString(sqlTaskNode);
+
+        taskExecutionContext = taskExecutionContext(sqlTaskNode);
+        taskExecuteRequestBody = new TaskExecuteRequestCommand(JSONUtils.toJsonString(taskExecutionContext))
+                .convert2Command().getBody();
+
+        sqlResult = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", i);
+            row.put("name", "user-" + i);
+            row.put("amount", i * 1.5d);
+            row.put("create_time", "2020-12-01 00:00:00");
+            sqlResult.add(row);
+        }
+    }
+
+    @Benchmark
+    public ProcessData parseProcessDefinition() {
+        return JSONUtils.parseObject(processDefinitionJson, ProcessData.class);
+    }
+
+    @Benchmark
+    public ProcessData legacyParseProcessDefinition() throws IOException {
+        return legacyMapper.readValue(processDefinitionJson, ProcessData.class);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskExecuteRequest() {
+        return new TaskExecuteRequestCommand(JSONUtils.toJsonString(taskExecutionContext)).convert2Command().getBody();
+    }
+
+    @Benchmark
+    public byte[] legacySerializeTaskExecuteRequest() throws IOException {
+        TaskExecuteRequestCommand command = new TaskExecuteRequestCommand(legacyMapper.writeValueAsString(taskExecutionContext));
+        return legacyMapper.writeValueAsString(command).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public TaskExecutionContext parseTaskExecuteRequest() {
+        TaskExecuteRequestCommand command = JSONUtils.parseObject(taskExecuteRequestBody, TaskExecuteRequestCommand.class);
+        return JSONUtils.parseObject(command.getTaskExecutionContext(), TaskExecutionContext.class);
+    }
+
+    @Benchmark
+    public TaskExecutionContext legacyParseTaskExecuteRequest() throws IOException {
+        String json = new String(taskExecuteRequestBody, StandardCharsets.UTF_8);
+        TaskExecuteRequestCommand command = legacyMapper.readValue(json, TaskExecuteRequestCommand.class);
+        return legacyMapper.readValue(command.getTaskExecutionContext(), TaskExecutionContext.class);
+    }
+
+    /**
+     * the master reads the resources and the datasource of a sql task from its params
+     */
+    @Benchmark
+    public SqlParameters parseTaskNodeParams() {
+        TaskNode taskNode = JSONUtils.parseObject(sqlTaskNodeJson, TaskNode.class);
+        taskNode.getTaskParameters();
+        return taskNode.getTaskParameters(SqlParameters.class);
+    }
+
+    @Benchmark
+    public SqlParameters legacyParseTaskNodeParams() throws IOException {
+        TaskNode taskNode = legacyMapper.readValue(sqlTaskNodeJson, TaskNode.class);
+        TaskParametersUtils.getParameters(taskNode.getType(), taskNode.getParams());
+        return legacyMapper.readValue(taskNode.getParams(), SqlParameters.class);
+    }
+
+    @Benchmark
+    public String serializeSqlResult() {
+        return JSONUtils.toJsonString(sqlResult);
+    }
+
+    @Benchmark
+    public String legacySerializeSqlResult() throws IOException {
+        return legacyMapper.writeValueAsString(sqlResult);
+    }
+
+    private static TaskNode shellTaskNode(int i) throws IOException {
+        ShellParameters shellParameters = new ShellParameters();
+        shellParameters.setRawScript("#!/bin/bash\necho \"task " + i + " of ${bizdate}\"\nsleep 1");
+        shellParameters.setLocalParams(Collections.singletonList(new Property("index", Direct.IN, DataType.INTEGER, String.valueOf(i))));
+        ResourceInfo resourceInfo = new ResourceInfo();
+        resourceInfo.setId(i);
+        resourceInfo.setRes("/scripts/task-" + i + ".sh");
+        shellParameters.setResourceList(Collections.singletonList(resourceInfo));
+
+        TaskNode taskNode = taskNode("tasks-" + i, "task-" + i, "SHELL", JSONUtils.toJsonString(shellParameters));
+        taskNode.setPreTasks(i == 0 ? "[]" : "[\"task-" + (i - 1) + "\"]");
+        return taskNode;
+    }
+
+    private static TaskNode sqlTaskNode() throws IOException {
+        SqlParameters sqlParameters = new SqlParameters();
+        sqlParameters.setType("MYSQL");
+        sqlParameters.setDatasource(1);
+        sqlParameters.setSql("select id, name, amount, create_time from t_order where create_time >= '${bizdate}'");
+        sqlParameters.setSqlType(0);
+        sqlParameters.setShowType("TABLE,ATTACHMENT");
+        sqlParameters.setTitle("orders");
+        sqlParameters.setPreStatements(Collections.singletonList("set names utf8"));
+        sqlParameters.setPostStatements(Collections.emptyList());
+
+        TaskNode taskNode = taskNode("tasks-sql", "sql", "SQL", JSONUtils.toJsonString(sqlParameters));
+        taskNode.setPreTasks("[]");
+        return taskNode;
+    }
+
+    private static TaskNode taskNode(String id, String name, String type, String params) {
+        TaskNode taskNode = new TaskNode();
+        taskNode.setId(id);
+        taskNode.setName(name);
+        taskNode.setType(type);
+        taskNode.setParams(params);
+        taskNode.setRunFlag("NORMAL");
+        taskNode.setMaxRetryTimes(1);
+        taskNode.setRetryInterval(1);
+        taskNode.setTaskInstancePriority(Priority.MEDIUM);
+        taskNode.setTimeout("{\"enable\":false,\"strategy\":\"\"}");
+        taskNode.setDependence("{}");
+        taskNode.setConditionResult("{\"successNode\":[\"\"],\"failedNode\":[\"\"]}");
+        taskNode.setWorkerGroup("default");
+        return taskNode;
+    }
+
+    private static TaskExecutionContext taskExecutionContext(TaskNode taskNode) {
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(1);
+        taskExecutionContext.setTaskName(taskNode.getName());
+        taskExecutionContext.setFirstSubmitTime(new Date());
+        taskExecutionContext.setStartTime(new Date());
+        taskExecutionContext.setTaskType(taskNode.getType());
+        taskExecutionContext.setHost("192.168.1.1:1234");
+        taskExecutionContext.setExecutePath("/tmp/dolphinscheduler/exec/process/1/2/3/4");
+        taskExecutionContext.setLogPath("/opt/dolphinscheduler/logs/1/2/3.log");
+        taskExecutionContext.setTaskJson(JSONUtils.toJsonString(taskNode));
+        taskExecutionContext.setProcessId(0);
+        taskExecutionContext.setProcessInstanceId(2);
+        taskExecutionContext.setScheduleTime(new Date());
+        taskExecutionContext.setGlobalParams("[{\"prop\":\"bizdate\",\"direct\":\"IN\",\"type\":\"VARCHAR\",\"value\":\"20201201\"}]");
+        taskExecutionContext.setExecutorId(1);
+        taskExecutionContext.setTenantCode("tenant");
+        taskExecutionContext.setQueue("default");
+        taskExecutionContext.setProcessDefineId(3);
+        taskExecutionContext.setProjectId(4);
+        taskExecutionContext.setTaskParams(taskNode.getParams());
+        taskExecutionContext.setTaskAppId("3_2_1");
+        taskExecutionContext.setWorkerGroup("default");
+        taskExecutionContext.setCurrentExecutionStatus(ExecutionStatus.SUBMITTED_SUCCESS);
+        Map<String, String> definedParams = new HashMap<>();
+        definedParams.put("bizdate", "20201201");
+        taskExecutionContext.setDefinedParams(definedParams);
+        taskExecutionContext.setResources(Collections.singletonMap("/scripts/init.sql", "tenant"));
+        return taskExecutionContext;
+    }
+}
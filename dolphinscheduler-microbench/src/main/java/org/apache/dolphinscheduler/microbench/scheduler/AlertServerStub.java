@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.scheduler;
+
+import org.apache.dolphinscheduler.remote.NettyRemotingServer;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseCommand;
+import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseResult;
+import org.apache.dolphinscheduler.remote.config.NettyServerConfig;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * alert server answering every alert as sent
+ */
+public class AlertServerStub {
+
+    private final int port;
+
+    private final AtomicInteger received = new AtomicInteger();
+
+    private NettyRemotingServer nettyRemotingServer;
+
+    public AlertServerStub(int port) {
+        this.port = port;
+    }
+
+    public void start() {
+        NettyServerConfig serverConfig = new NettyServerConfig();
+        serverConfig.setListenPort(port);
+        this.nettyRemotingServer = new NettyRemotingServer(serverConfig);
+        this.nettyRemotingServer.registerProcessor(CommandType.ALERT_SEND_REQUEST, (channel, command) -> {
+            received.incrementAndGet();
+            AlertSendResponseCommand responseCommand = new AlertSendResponseCommand(true,
+                    Collections.singletonList(new AlertSendResponseResult(true, "sent by the alert server stub")));
+            channel.writeAndFlush(responseCommand.convert2Command(command.getOpaque()));
+        });
+        this.nettyRemotingServer.start();
+    }
+
+    public int getReceived() {
+        return received.get();
+    }
+
+    public void stop() {
+        if (nettyRemotingServer != null) {
+            nettyRemotingServer.close();
+        }
+    }
+}
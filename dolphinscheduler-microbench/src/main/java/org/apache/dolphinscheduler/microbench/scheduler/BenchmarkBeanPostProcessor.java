@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.scheduler;
+
+import java.util.Properties;
+
+import org.apache.ibatis.mapping.DatabaseIdProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import com.alibaba.druid.pool.DruidDataSource;
+
+/**
+ * points the master at the embedded database: the datasource built from datasource.properties is redirected
+ * and counted, and the embedded database runs the mysql statements of the mappers.
+ * it is added to the bean factory directly, a component would be picked up by the component scan of the servers
+ */
+public class BenchmarkBeanPostProcessor implements BeanPostProcessor {
+
+    private final BenchmarkDatabase database;
+
+    private final StatementCountFilter statementCountFilter;
+
+    public BenchmarkBeanPostProcessor(BenchmarkDatabase database, StatementCountFilter statementCountFilter) {
+        this.database = database;
+        this.statementCountFilter = statementCountFilter;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof DruidDataSource) {
+            database.redirect((DruidDataSource) bean, statementCountFilter);
+        } else if (bean instanceof DatabaseIdProvider) {
+            Properties properties = new Properties();
+            properties.setProperty("MySQL", "mysql");
+            properties.setProperty("PostgreSQL", "pg");
+            properties.setProperty("H2", "mysql");
+            ((DatabaseIdProvider) bean).setProperties(properties);
+        }
+        return bean;
+    }
+}
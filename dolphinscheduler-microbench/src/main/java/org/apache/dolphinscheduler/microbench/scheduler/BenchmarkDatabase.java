@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.scheduler;
+
+import static org.apache.dolphinscheduler.common.Constants.CMDPARAM_COMPLEMENT_DATA_END_DATE;
+import static org.apache.dolphinscheduler.common.Constants.CMDPARAM_COMPLEMENT_DATA_START_DATE;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.CommandType;
+import org.apache.dolphinscheduler.common.enums.FailureStrategy;
+import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.common.enums.Priority;
+import org.apache.dolphinscheduler.common.enums.ReleaseState;
+import org.apache.dolphinscheduler.common.enums.TaskDependType;
+import org.apache.dolphinscheduler.common.enums.WarningType;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.alibaba.druid.pool.DruidDataSource;
+
+/**
+ * embedded h2 database in mysql mode holding the dolphinscheduler schema.
+ * the harness prepares and watches the benchmark through its own connection,
+ * the statements of the master go through the counted datasource
+ */
+public class BenchmarkDatabase implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkDatabase.class);
+
+    private static final String DRIVER_CLASS_NAME = "org.h2.Driver";
+
+    private static final String USER = "sa";
+
+    private static final String PASSWORD = "";
+
+    /**
+     * key of the command param telling the benchmark command an instance was created from
+     */
+    static final String BENCHMARK_COMMAND_ID = "benchmarkCommandId";
+
+    private static final String SCHEMA_FILE = "sql/dolphinscheduler_mysql.sql";
+
+    private static final int ADMIN_USER_ID = 1;
+
+    private static final int DEFAULT_QUEUE_ID = 1;
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("^CREATE TABLE `(\\w+)`");
+
+    private static final int COMMAND_BATCH_SIZE = 500;
+
+    private final String url;
+
+    private Connection connection;
+
+    public BenchmarkDatabase(String name) {
+        this.url = String.format("jdbc:h2:mem:%s;MODE=MySQL;DB_CLOSE_DELAY=-1", name);
+    }
+
+    /**
+     * create the schema, the connection of the harness keeps the in-memory database alive
+     *
+     * @param schemaFile mysql schema file
+     * @throws IOException if the schema can not be read
+     * @throws SQLException if a table can not be created
+     */
+    public void init(File schemaFile) throws IOException, SQLException {
+        this.connection = DriverManager.getConnection(url, USER, PASSWORD);
+        String schema = new String(Files.readAllBytes(schemaFile.toPath()), StandardCharsets.UTF_8);
+        schema = schema.replaceAll("(?s)/\\*.*?\\*/", "").replaceAll("(?m)^\\s*--.*$", "");
+        int tables = 0;
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : schema.split(";\\s*(\n|$)")) {
+                sql = sql.trim();
+                // quartz keeps its own tables, the benchmark runs the sharded trigger engine
+                if (sql.isEmpty() || sql.startsWith("SET ") || sql.contains("QRTZ")) {
+                    continue;
+                }
+                Matcher matcher = CREATE_TABLE.matcher(sql);
+                if (matcher.find()) {
+                    // index names are global in h2
+                    stmt.execute(sql.replaceAll("KEY `(\\w+)`", "KEY `" + matcher.group(1) + "_$1`").replace("USING BTREE", ""));
+                    tables++;
+                    continue;
+                }
+                try {
+                    stmt.execute(sql);
+                } catch (SQLException e) {
+                    logger.warn("skip statement of the schema : {}, {}", sql.split("\n")[0], e.getMessage());
+                }
+            }
+        }
+        logger.info("embedded database {} created {} tables", url, tables);
+    }
+
+    /**
+     * point a datasource not initialized yet at the embedded database
+     *
+     * @param dataSource datasource
+     * @param statementCountFilter filter counting the statements of the datasource
+     */
+    public void redirect(DruidDataSource dataSource, StatementCountFilter statementCountFilter) {
+        dataSource.setDriverClassName(DRIVER_CLASS_NAME);
+        dataSource.setUrl(url);
+        dataSource.setUsername(USER);
+        dataSource.setPassword(PASSWORD);
+        dataSource.getProxyFilters().add(statementCountFilter);
+    }
+
+    /**
+     * find the mysql schema of the source tree from the working directory
+     *
+     * @return schema file
+     */
+    public static File findSchemaFile() {
+        String schemaFile = System.getProperty("schemaFile");
+        if (schemaFile != null) {
+            return new File(schemaFile);
+        }
+        for (File dir = new File(System.getProperty("user.dir")).getAbsoluteFile(); dir != null; dir = dir.getParentFile()) {
+            File file = new File(dir, SCHEMA_FILE);
+            if (file.isFile()) {
+                return file;
+            }
+        }
+        throw new IllegalStateException(String.format("can not find %s, set -DschemaFile", SCHEMA_FILE));
+    }
+
+    /**
+     * create the tenant, the project and the online process definition the benchmark commands start
+     *
+     * @param name process definition name
+     * @param tasks tasks of the process definition
+     * @return process definition id
+     * @throws SQLException if the rows can not be inserted
+     */
+    public int createProcessDefinition(String name, List<TaskNode> tasks) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int tenantId = insert("INSERT INTO t_ds_tenant (tenant_code, description, queue_id, create_time, update_time) VALUES (?, ?, ?, ?, ?)",
+                "benchmark", "scheduler benchmark", DEFAULT_QUEUE_ID, now, now);
+        int projectId = insert("INSERT INTO t_ds_project (name, description, user_id, flag, create_time, update_time) VALUES (?, ?, ?, ?, ?, ?)",
+                "benchmark", "scheduler benchmark", ADMIN_USER_ID, Flag.YES.getCode(), now, now);
+
+        ProcessData processData = new ProcessData(tasks, new ArrayList<>());
+        processData.setTenantId(tenantId);
+        return insert("INSERT INTO t_ds_process_definition (name, version, release_state, project_id, user_id, process_definition_json, "
+                        + "global_params, flag, locations, connects, create_time, timeout, tenant_id, update_time, resource_ids) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                name, 1, ReleaseState.ONLINE.getCode(), projectId, ADMIN_USER_ID, JSONUtils.toJsonString(processData),
+                "[]", Flag.YES.getCode(), "{}", "[]", now, 0, tenantId, now, "");
+    }
+
+    /**
+     * insert commands the way the api server does, a batch is visible to the master once it is committed
+     *
+     * @param commandType command type
+     * @param processDefinitionId process definition id
+     * @param fromId first benchmark command id
+     * @param count number of commands
+     * @param days number of days a complement command runs
+     * @param warningType warning type of the process instances
+     * @param createTimes benchmark command id -> time the command is committed
+     * @throws SQLException if the commands can not be inserted
+     */
+    public void insertCommands(CommandType commandType, int processDefinitionId, int fromId, int count, int days,
+                               WarningType warningType, long[] createTimes) throws SQLException {
+        String sql = "INSERT INTO t_ds_command (command_type, process_definition_id, command_param, task_depend_type, failure_strategy, "
+                + "warning_type, warning_group_id, schedule_time, start_time, executor_id, update_time, process_instance_priority, worker_group) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Date today = DateUtils.getStartOfDay(new Date());
+        Date complementStart = DateUtils.getSomeDay(today, -days);
+        Date complementEnd = DateUtils.getSomeDay(today, -1);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int batchFrom = fromId;
+            for (int id = fromId; id < fromId + count; id++) {
+                Map<String, String> cmdParam = new HashMap<>();
+                cmdParam.put(BENCHMARK_COMMAND_ID, String.valueOf(id));
+                if (commandType == CommandType.COMPLEMENT_DATA) {
+                    cmdParam.put(CMDPARAM_COMPLEMENT_DATA_START_DATE, DateUtils.dateToString(complementStart));
+                    cmdParam.put(CMDPARAM_COMPLEMENT_DATA_END_DATE, DateUtils.dateToString(complementEnd));
+                }
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                pstmt.setInt(1, commandType.getCode());
+                pstmt.setInt(2, processDefinitionId);
+                pstmt.setString(3, JSONUtils.toJsonString(cmdParam));
+                pstmt.setInt(4, TaskDependType.TASK_POST.getCode());
+                pstmt.setInt(5, FailureStrategy.END.getCode());
+                pstmt.setInt(6, warningType.getCode());
+                pstmt.setInt(7, 0);
+                pstmt.setTimestamp(8, null);
+                pstmt.setTimestamp(9, now);
+                pstmt.setInt(10, ADMIN_USER_ID);
+                pstmt.setTimestamp(11, now);
+                pstmt.setInt(12, Priority.MEDIUM.getCode());
+                pstmt.setString(13, Constants.DEFAULT_WORKER_GROUP);
+                pstmt.addBatch();
+                if (id - batchFrom + 1 == COMMAND_BATCH_SIZE || id == fromId + count - 1) {
+                    pstmt.executeBatch();
+                    connection.commit();
+                    long committed = System.currentTimeMillis();
+                    for (int i = batchFrom; i <= id; i++) {
+                        createTimes[i] = committed;
+                    }
+                    batchFrom = id + 1;
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * query the process instances of the benchmark
+     *
+     * @return process instances
+     * @throws SQLException if the query fails
+     */
+    public List<Instance> queryInstances() throws SQLException {
+        List<Instance> instances = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, state, command_param FROM t_ds_process_instance")) {
+            while (rs.next()) {
+                Map<String, String> cmdParam = JSONUtils.toMap(rs.getString(3));
+                String commandId = cmdParam == null ? null : cmdParam.get(BENCHMARK_COMMAND_ID);
+                instances.add(new Instance(rs.getInt(1), rs.getInt(2), commandId == null ? -1 : Integer.parseInt(commandId)));
+            }
+        }
+        return instances;
+    }
+
+    /**
+     * count the rows of a table
+     *
+     * @param table table name
+     * @return rows
+     * @throws SQLException if the query fails
+     */
+    public int count(String table) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT count(*) FROM " + table)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private int insert(String sql, Object... params) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            pstmt.executeUpdate();
+            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                if (!rs.next()) {
+                    throw new SQLException("no generated key of " + sql);
+                }
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * process instance of the benchmark
+     */
+    public static class Instance {
+
+        private final int id;
+
+        private final int state;
+
+        private final int commandId;
+
+        Instance(int id, int state, int commandId) {
+            this.id = id;
+            this.state = state;
+            this.commandId = commandId;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getState() {
+            return state;
+        }
+
+        /**
+         * @return benchmark command id, -1 if the instance is not created by the benchmark
+         */
+        public int getCommandId() {
+            return commandId;
+        }
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.scheduler;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.common.enums.WarningType;
+import org.apache.dolphinscheduler.dao.datasource.ConnectionFactory;
+import org.apache.dolphinscheduler.microbench.scheduler.BenchmarkDatabase.Instance;
+import org.apache.dolphinscheduler.microbench.scheduler.TaskEventRecorder.TaskEvent;
+import org.apache.dolphinscheduler.server.master.MasterServer;
+import org.apache.dolphinscheduler.server.registry.ZookeeperNodeManager;
+import org.apache.dolphinscheduler.server.registry.ZookeeperRegistryCenter;
+import org.apache.dolphinscheduler.service.zk.ZKServer;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.alibaba.druid.pool.DruidDataSource;
+
+/**
+ * end to end scheduler benchmark: a master, simulated workers and an alert server stub run in process
+ * on an embedded zookeeper and an embedded database, the commands of a synthetic workload are inserted
+ * at once and the benchmark reports the throughput, the latency from a command to the start of its first task,
+ * the latency from a task result to the start of the next task and the database statements per workflow.
+ *
+ * the master keeps static state, a run measures one workload, e.g.
+ * java -Dworkload=FAN_OUT -Dworkflows=10 -Dtasks=100 -Dworkers=3 -DtaskLatencyMs=10 -DwarningType=NONE \
+ *   -cp benchmarks.jar org.apache.dolphinscheduler.microbench.scheduler.SchedulerBenchmark
+ */
+public class SchedulerBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerBenchmark.class);
+
+    private static final String ZK_DATA_PREFIX = "scheduler_benchmark";
+
+    private static final long STARTUP_TIMEOUT_MILLIS = 60000L;
+
+    private static final long POLL_INTERVAL_MILLIS = 200L;
+
+    private final Workload workload;
+
+    private final int workflows;
+
+    private final int tasks;
+
+    private final int days;
+
+    private final int workerNum;
+
+    private final int workerSlots;
+
+    private final long taskLatencyMillis;
+
+    private final long timeoutMillis;
+
+    private WarningType warningType = WarningType.NONE;
+
+    private final TaskEventRecorder recorder = new TaskEventRecorder();
+
+    private final StatementCountFilter statementCountFilter = new StatementCountFilter();
+
+    private final BenchmarkDatabase database = new BenchmarkDatabase("scheduler_benchmark");
+
+    private final List<SimulatedWorker> workers = new ArrayList<>();
+
+    private ZKServer zkServer;
+
+    private AlertServerStub alertServerStub;
+
+    private ConfigurableApplicationContext masterContext;
+
+    public SchedulerBenchmark(Workload workload, int workflows, int tasks, int days, int workerNum, int workerSlots,
+                              long taskLatencyMillis, long timeoutMillis) {
+        this.workload = workload;
+        this.workflows = workflows;
+        this.tasks = tasks;
+        this.days = days;
+        this.workerNum = workerNum;
+        this.workerSlots = workerSlots;
+        this.taskLatencyMillis = taskLatencyMillis;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public void setWarningType(WarningType warningType) {
+        this.warningType = warningType;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Workload workload = Workload.valueOf(System.getProperty("workload", Workload.CHAIN.name()).toUpperCase());
+        SchedulerBenchmark benchmark = new SchedulerBenchmark(workload,
+                getInt("workflows", workload.getDefaultWorkflows()),
+                getInt("tasks", workload.getDefaultTasks()),
+                workload == Workload.COMPLEMENT ? getInt("days", 7) : 1,
+                getInt("workers", 3),
+                getInt("workerSlots", 100),
+                getInt("taskLatencyMs", 10),
+                TimeUnit.SECONDS.toMillis(getInt("timeoutSeconds", 600)));
+        // the master stores an alert for every finished process instance unless the warning type is NONE
+        benchmark.setWarningType(WarningType.valueOf(System.getProperty("warningType", WarningType.NONE.name()).toUpperCase()));
+        int exitCode = 0;
+        try {
+            benchmark.start();
+            if (!benchmark.run()) {
+                exitCode = 1;
+            }
+        } catch (Exception e) {
+            logger.error("scheduler benchmark failed", e);
+            exitCode = 1;
+        } finally {
+            benchmark.stop();
+        }
+        // the master leaves non daemon threads behind
+        System.exit(exitCode);
+    }
+
+    /**
+     * start zookeeper, the database, the master, the workers and the alert server stub
+     *
+     * @throws Exception if a part can not be started
+     */
+    public void start() throws Exception {
+        int zkPort = freePort();
+        FileUtils.deleteDirectory(zkDataDir());
+        zkServer = new ZKServer(zkPort, ZK_DATA_PREFIX);
+        Thread zkThread = new Thread(zkServer::start, "BenchmarkZKServer");
+        zkThread.setDaemon(true);
+        zkThread.start();
+        waitFor("zookeeper", () -> isListening(zkPort));
+
+        database.init(BenchmarkDatabase.findSchemaFile());
+        // the daos out of spring, e.g. the alert dao, share a datasource of their own which connects lazily
+        database.redirect((DruidDataSource) ConnectionFactory.getInstance().getDataSource(), statementCountFilter);
+
+        System.setProperty("zookeeper.quorum", "127.0.0.1:" + zkPort);
+        System.setProperty("master.listen.port", String.valueOf(freePort()));
+        System.setProperty("master.schedule.trigger.engine", "sharded");
+        // the simulated load of the benchmark should not make the master refuse commands
+        System.setProperty("master.max.cpuload.avg", String.valueOf(Integer.MAX_VALUE));
+        System.setProperty("master.reserved.memory", "0");
+        masterContext = new SpringApplicationBuilder(MasterServer.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(
+                        new BenchmarkBeanPostProcessor(database, statementCountFilter)))
+                .run();
+
+        ZookeeperRegistryCenter registryCenter = masterContext.getBean(ZookeeperRegistryCenter.class);
+        for (int i = 0; i < workerNum; i++) {
+            SimulatedWorker worker = new SimulatedWorker(freePort(), workerSlots, taskLatencyMillis, recorder);
+            worker.start(registryCenter);
+            workers.add(worker);
+        }
+        ZookeeperNodeManager nodeManager = masterContext.getBean(ZookeeperNodeManager.class);
+        // a worker is selected once the master has its heartbeat
+        waitFor("workers", () -> workers.stream().allMatch(worker -> nodeManager.getWorkerHeartBeat(worker.getAddress()) != null));
+
+        try {
+            alertServerStub = new AlertServerStub(Constants.ALERT_RPC_PORT);
+            alertServerStub.start();
+        } catch (Exception e) {
+            logger.warn("alert server stub can not listen on {}, the alerts are not answered", Constants.ALERT_RPC_PORT, e);
+            alertServerStub = null;
+        }
+    }
+
+    /**
+     * insert the commands of the workload, wait for the workflows to finish and report
+     *
+     * @return false if the workload does not finish in time or a workflow fails
+     * @throws Exception if the database can not be queried
+     */
+    public boolean run() throws Exception {
+        int processDefinitionId = database.createProcessDefinition("benchmark_" + workload.name().toLowerCase(),
+                workload.buildTasks(tasks));
+        long[] createTimes = new long[workflows];
+        // every day of a complement is a process instance of its own
+        int expectedInstances = workflows * days;
+        int expectedTasks = expectedInstances * tasks;
+
+        statementCountFilter.reset();
+        long begin = System.currentTimeMillis();
+        database.insertCommands(workload.getCommandType(), processDefinitionId, 0, workflows, days, warningType, createTimes);
+
+        List<Instance> instances = new ArrayList<>();
+        boolean finished = false;
+        while (System.currentTimeMillis() - begin < timeoutMillis) {
+            if (recorder.getFinished() >= expectedTasks) {
+                instances = database.queryInstances();
+                if (countFinished(instances) >= expectedInstances) {
+                    finished = true;
+                    break;
+                }
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        long elapsed = System.currentTimeMillis() - begin;
+        if (!finished) {
+            instances = database.queryInstances();
+            logger.error("workload {} does not finish in {} ms, {}/{} tasks finished", workload, timeoutMillis,
+                    recorder.getFinished(), expectedTasks);
+        }
+        long reads = statementCountFilter.getReads();
+        long writes = statementCountFilter.getWrites();
+
+        report(instances, createTimes, elapsed, reads, writes);
+        return finished && countSucceeded(instances) == expectedInstances;
+    }
+
+    private void report(List<Instance> instances, long[] createTimes, long elapsed, long reads, long writes) throws Exception {
+        // the process instances of a command are one run of the workflow
+        Map<Integer, List<TaskEvent>> eventMap = recorder.eventsByProcessInstance();
+        Map<Integer, List<TaskEvent>> commandEventMap = new HashMap<>();
+        for (Instance instance : instances) {
+            List<TaskEvent> events = eventMap.get(instance.getId());
+            if (instance.getCommandId() >= 0 && events != null) {
+                commandEventMap.computeIfAbsent(instance.getCommandId(), id -> new ArrayList<>()).addAll(events);
+            }
+        }
+        List<Long> firstTaskLatencies = new ArrayList<>();
+        List<Long> stepLatencies = new ArrayList<>();
+        for (Map.Entry<Integer, List<TaskEvent>> entry : commandEventMap.entrySet()) {
+            List<TaskEvent> events = entry.getValue();
+            events.sort(Comparator.comparingLong(TaskEvent::getTime));
+            long lastFinish = -1;
+            boolean firstStart = true;
+            for (TaskEvent event : events) {
+                if (!event.isStart()) {
+                    lastFinish = event.getTime();
+                } else if (firstStart) {
+                    firstTaskLatencies.add(event.getTime() - createTimes[entry.getKey()]);
+                    firstStart = false;
+                } else if (lastFinish >= 0) {
+                    stepLatencies.add(event.getTime() - lastFinish);
+                }
+            }
+        }
+        double seconds = Math.max(elapsed, 1) / 1000.0;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%nscheduler benchmark %s: %d workflows x %d tasks x %d days, %d workers, task latency %d ms%n",
+                workload, workflows, tasks, days, workerNum, taskLatencyMillis));
+        report.append(String.format("  elapsed              : %d ms%n", elapsed));
+        report.append(String.format("  process instances    : %d succeeded, %d finished, %d created%n",
+                countSucceeded(instances), countFinished(instances), instances.size()));
+        report.append(String.format("  tasks                : %d started, %d finished, %d dispatched again%n",
+                recorder.getStarted(), recorder.getFinished(), recorder.getRedispatched()));
+        report.append(String.format("  throughput           : %.2f workflows/s, %.2f tasks/s%n",
+                workflows / seconds, recorder.getFinished() / seconds));
+        report.append(String.format("  command -> 1st task  : %s%n", latency(firstTaskLatencies)));
+        report.append(String.format("  task result -> next  : %s%n", latency(stepLatencies)));
+        report.append(String.format("  db statements        : %d reads, %d writes, %.1f per workflow, %.1f per task%n",
+                reads, writes, (reads + writes) / (double) workflows,
+                (reads + writes) / (double) Math.max(recorder.getFinished(), 1)));
+        report.append(String.format("  alerts               : %d stored, %d sent to the stub%n",
+                database.count("t_ds_alert"), alertServerStub == null ? 0 : alertServerStub.getReceived()));
+        logger.info(report.toString());
+    }
+
+    /**
+     * stop everything started, whatever was started
+     */
+    public void stop() {
+        for (SimulatedWorker worker : workers) {
+            worker.stop();
+        }
+        if (alertServerStub != null) {
+            alertServerStub.stop();
+        }
+        if (masterContext != null) {
+            masterContext.getBean(MasterServer.class).close("scheduler benchmark finished");
+            masterContext.close();
+        }
+        try {
+            database.close();
+        } catch (Exception e) {
+            logger.warn("close embedded database error", e);
+        }
+        if (zkServer != null) {
+            zkServer.stop();
+            FileUtils.deleteQuietly(zkDataDir());
+        }
+    }
+
+    private static File zkDataDir() {
+        return new File(System.getProperty("user.dir"), ZK_DATA_PREFIX);
+    }
+
+    private static int countFinished(List<Instance> instances) {
+        int count = 0;
+        for (Instance instance : instances) {
+            if (ExecutionStatus.of(instance.getState()).typeIsFinished()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int countSucceeded(List<Instance> instances) {
+        int count = 0;
+        for (Instance instance : instances) {
+            if (ExecutionStatus.of(instance.getState()).typeIsSuccess()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * p50, p99 and max of latencies
+     *
+     * @param latencies latencies in milliseconds
+     * @return readable latencies
+     */
+    static String latency(List<Long> latencies) {
+        if (latencies.isEmpty()) {
+            return "n/a";
+        }
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return String.format("p50 %d ms, p99 %d ms, max %d ms (%d samples)",
+                percentile(sorted, 0.5), percentile(sorted, 0.99), sorted[sorted.length - 1], sorted.length);
+    }
+
+    /**
+     * nearest rank percentile
+     *
+     * @param sorted sorted values
+     * @param quantile quantile between 0 and 1
+     * @return percentile
+     */
+    static long percentile(long[] sorted, double quantile) {
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private void waitFor(String what, BooleanSupplier condition) throws InterruptedException {
+        long begin = System.currentTimeMillis();
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() - begin > STARTUP_TIMEOUT_MILLIS) {
+                throw new IllegalStateException(String.format("%s not ready in %d ms", what, STARTUP_TIMEOUT_MILLIS));
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        logger.info("{} ready in {} ms", what, System.currentTimeMillis() - begin);
+    }
+
+    private static boolean isListening(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("127.0.0.1", port), 1000);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            return serverSocket.getLocalPort();
+        }
+    }
+
+    private static int getInt(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        return null != value ? Integer.parseInt(value) : defaultValue;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.scheduler;
+
+import static org.apache.dolphinscheduler.common.Constants.COLON;
+import static org.apache.dolphinscheduler.common.Constants.DEFAULT_WORKER_GROUP;
+import static org.apache.dolphinscheduler.common.Constants.SLASH;
+
+import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.common.utils.NetUtils;
+import org.apache.dolphinscheduler.remote.NettyRemotingServer;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.config.NettyServerConfig;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
+import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.registry.HeartBeatTask;
+import org.apache.dolphinscheduler.server.registry.ZookeeperRegistryCenter;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.Channel;
+
+/**
+ * worker registered like a real one which does not run the tasks:
+ * a task is acked when it is received and succeeds after the configured latency
+ */
+public class SimulatedWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedWorker.class);
+
+    private static final int HEARTBEAT_INTERVAL_SECONDS = 1;
+
+    private static final int WEIGHT = 100;
+
+    private final int port;
+
+    private final int slots;
+
+    private final long taskLatencyMillis;
+
+    private final TaskEventRecorder recorder;
+
+    private final String address;
+
+    private final AtomicInteger runningTasks = new AtomicInteger();
+
+    private NettyRemotingServer nettyRemotingServer;
+
+    private ScheduledExecutorService executor;
+
+    private ZookeeperRegistryCenter zookeeperRegistryCenter;
+
+    private String workerZkPath;
+
+    /**
+     * @param port listen port
+     * @param slots task slots published in the heartbeat
+     * @param taskLatencyMillis time from the ack to the result of a task
+     * @param recorder task event recorder
+     */
+    public SimulatedWorker(int port, int slots, long taskLatencyMillis, TaskEventRecorder recorder) {
+        this.port = port;
+        this.slots = slots;
+        this.taskLatencyMillis = taskLatencyMillis;
+        this.recorder = recorder;
+        this.address = NetUtils.getAddr(port);
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * listen to the master and register to zookeeper in the default worker group
+     *
+     * @param zookeeperRegistryCenter registry center
+     */
+    public void start(ZookeeperRegistryCenter zookeeperRegistryCenter) {
+        this.zookeeperRegistryCenter = zookeeperRegistryCenter;
+        this.executor = Executors.newScheduledThreadPool(2, new NamedThreadFactory("SimulatedWorker-" + port));
+
+        NettyServerConfig serverConfig = new NettyServerConfig();
+        serverConfig.setListenPort(port);
+        this.nettyRemotingServer = new NettyRemotingServer(serverConfig);
+        this.nettyRemotingServer.registerProcessor(CommandType.TASK_EXECUTE_REQUEST, this::execute);
+        // the tasks are acked at once, nothing waits in the worker to be reclaimed or killed
+        this.nettyRemotingServer.registerProcessor(CommandType.TASK_KILL_REQUEST, (channel, command) -> { });
+        this.nettyRemotingServer.registerProcessor(CommandType.TASK_RECLAIM_REQUEST, (channel, command) -> { });
+        this.nettyRemotingServer.registerProcessor(CommandType.DB_TASK_ACK, (channel, command) -> { });
+        this.nettyRemotingServer.registerProcessor(CommandType.DB_TASK_RESPONSE, (channel, command) -> { });
+        this.nettyRemotingServer.start();
+
+        this.workerZkPath = zookeeperRegistryCenter.getWorkerPath() + SLASH + DEFAULT_WORKER_GROUP + SLASH
+                + address + COLON + WEIGHT + COLON + System.currentTimeMillis();
+        zookeeperRegistryCenter.getZookeeperCachedOperator().persistEphemeral(workerZkPath, "");
+        HeartBeatTask heartBeatTask = new HeartBeatTask(DateUtils.dateToString(new Date()),
+                0,
+                Double.MAX_VALUE,
+                Collections.singleton(workerZkPath),
+                zookeeperRegistryCenter,
+                slots,
+                runningTasks::get);
+        this.executor.scheduleAtFixedRate(heartBeatTask, 0, HEARTBEAT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        logger.info("simulated worker {} registry to ZK {}", address, workerZkPath);
+    }
+
+    private void execute(Channel channel, Command command) {
+        TaskExecuteRequestCommand requestCommand = JSONUtils.parseObject(command.getBody(), TaskExecuteRequestCommand.class);
+        TaskExecutionContext context = JSONUtils.parseObject(requestCommand.getTaskExecutionContext(), TaskExecutionContext.class);
+        boolean firstDispatch = recorder.started(context.getProcessInstanceId(), context.getTaskInstanceId());
+        runningTasks.incrementAndGet();
+
+        TaskExecuteAckCommand ackCommand = new TaskExecuteAckCommand();
+        ackCommand.setTaskInstanceId(context.getTaskInstanceId());
+        ackCommand.setStartTime(new Date());
+        ackCommand.setHost(address);
+        ackCommand.setStatus(ExecutionStatus.RUNNING_EXECUTION.getCode());
+        ackCommand.setLogPath(context.getLogPath());
+        ackCommand.setExecutePath(context.getExecutePath());
+        channel.writeAndFlush(ackCommand.convert2Command());
+
+        executor.schedule(() -> {
+            TaskExecuteResponseCommand responseCommand = new TaskExecuteResponseCommand(context.getTaskInstanceId());
+            responseCommand.setStatus(ExecutionStatus.SUCCESS.getCode());
+            responseCommand.setEndTime(new Date());
+            runningTasks.decrementAndGet();
+            if (firstDispatch) {
+                recorder.finished(context.getProcessInstanceId());
+            }
+            channel.writeAndFlush(responseCommand.convert2Command());
+        }, taskLatencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * unregister from zookeeper and stop listening
+     */
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (zookeeperRegistryCenter != null) {
+            zookeeperRegistryCenter.getZookeeperCachedOperator().remove(workerZkPath);
+        }
+        if (nettyRemotingServer != null) {
+            nettyRemotingServer.close();
+        }
+    }
+}
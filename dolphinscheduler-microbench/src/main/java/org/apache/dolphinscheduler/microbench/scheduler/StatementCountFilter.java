@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.druid.filter.FilterEventAdapter;
+import com.alibaba.druid.proxy.jdbc.StatementProxy;
+
+/**
+ * druid filter counting the statements the scheduler executes,
+ * mybatis runs every statement through execute so reads are told apart from writes by the sql
+ */
+public class StatementCountFilter extends FilterEventAdapter {
+
+    private final AtomicLong reads = new AtomicLong();
+
+    private final AtomicLong writes = new AtomicLong();
+
+    @Override
+    protected void statementExecuteBefore(StatementProxy statement, String sql) {
+        count(sql);
+    }
+
+    @Override
+    protected void statementExecuteQueryBefore(StatementProxy statement, String sql) {
+        count(sql);
+    }
+
+    @Override
+    protected void statementExecuteUpdateBefore(StatementProxy statement, String sql) {
+        count(sql);
+    }
+
+    @Override
+    protected void statementExecuteBatchBefore(StatementProxy statement) {
+        writes.incrementAndGet();
+    }
+
+    private void count(String sql) {
+        if (sql != null && sql.trim().regionMatches(true, 0, "select", 0, 6)) {
+            reads.incrementAndGet();
+        } else {
+            writes.incrementAndGet();
+        }
+    }
+
+    public long getReads() {
+        return reads.get();
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    /**
+     * forget the statements counted so far, e.g. the ones of the master startup
+     */
+    public void reset() {
+        reads.set(0);
+        writes.set(0);
+    }
+}
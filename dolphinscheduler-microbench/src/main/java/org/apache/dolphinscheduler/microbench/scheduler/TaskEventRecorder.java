@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * task starts and finishes seen by the simulated workers
+ */
+public class TaskEventRecorder {
+
+    private final Queue<TaskEvent> events = new ConcurrentLinkedQueue<>();
+
+    private final Set<Integer> startedTasks = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger finished = new AtomicInteger();
+
+    private final AtomicInteger redispatched = new AtomicInteger();
+
+    /**
+     * a worker receives a task, a task dispatched again is only counted
+     *
+     * @param processInstanceId process instance id
+     * @param taskInstanceId task instance id
+     * @return false if the task was started before
+     */
+    public boolean started(int processInstanceId, int taskInstanceId) {
+        if (!startedTasks.add(taskInstanceId)) {
+            redispatched.incrementAndGet();
+            return false;
+        }
+        events.add(new TaskEvent(processInstanceId, true, System.currentTimeMillis()));
+        return true;
+    }
+
+    /**
+     * a worker responds the result of a task
+     *
+     * @param processInstanceId process instance id
+     */
+    public void finished(int processInstanceId) {
+        events.add(new TaskEvent(processInstanceId, false, System.currentTimeMillis()));
+        finished.incrementAndGet();
+    }
+
+    public int getStarted() {
+        return startedTasks.size();
+    }
+
+    public int getFinished() {
+        return finished.get();
+    }
+
+    public int getRedispatched() {
+        return redispatched.get();
+    }
+
+    /**
+     * events grouped by process instance
+     *
+     * @return process instance id -> events
+     */
+    public Map<Integer, List<TaskEvent>> eventsByProcessInstance() {
+        Map<Integer, List<TaskEvent>> eventMap = new HashMap<>();
+        for (TaskEvent event : events) {
+            eventMap.computeIfAbsent(event.getProcessInstanceId(), id -> new ArrayList<>()).add(event);
+        }
+        return eventMap;
+    }
+
+    /**
+     * task start or finish
+     */
+    public static class TaskEvent {
+
+        private final int processInstanceId;
+
+        private final boolean start;
+
+        private final long time;
+
+        TaskEvent(int processInstanceId, boolean start, long time) {
+            this.processInstanceId = processInstanceId;
+            this.start = start;
+            this.time = time;
+        }
+
+        public int getProcessInstanceId() {
+            return processInstanceId;
+        }
+
+        public boolean isStart() {
+            return start;
+        }
+
+        public long getTime() {
+            return time;
+        }
+    }
+}
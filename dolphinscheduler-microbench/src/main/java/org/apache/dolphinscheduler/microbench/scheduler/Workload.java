@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.scheduler;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.CommandType;
+import org.apache.dolphinscheduler.common.enums.Priority;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.task.TaskTimeoutParameter;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * synthetic workloads of the scheduler benchmark
+ */
+public enum Workload {
+
+    /**
+     * one root task followed by all the other tasks in parallel
+     */
+    FAN_OUT(CommandType.START_PROCESS, 10, 100) {
+        @Override
+        List<String> preTasks(int index) {
+            return index == 0 ? Collections.emptyList() : Collections.singletonList(taskName(0));
+        }
+    },
+
+    /**
+     * tasks depending on each other one after another
+     */
+    CHAIN(CommandType.START_PROCESS, 10, 50) {
+        @Override
+        List<String> preTasks(int index) {
+            return index == 0 ? Collections.emptyList() : Collections.singletonList(taskName(index - 1));
+        }
+    },
+
+    /**
+     * many workflows of a single task
+     */
+    TINY(CommandType.START_PROCESS, 2000, 1) {
+        @Override
+        List<String> preTasks(int index) {
+            return Collections.emptyList();
+        }
+    },
+
+    /**
+     * complement of a short chain over several days, the days of a workflow run one after another
+     */
+    COMPLEMENT(CommandType.COMPLEMENT_DATA, 10, 5) {
+        @Override
+        List<String> preTasks(int index) {
+            return CHAIN.preTasks(index);
+        }
+    };
+
+    private final CommandType commandType;
+
+    private final int defaultWorkflows;
+
+    private final int defaultTasks;
+
+    Workload(CommandType commandType, int defaultWorkflows, int defaultTasks) {
+        this.commandType = commandType;
+        this.defaultWorkflows = defaultWorkflows;
+        this.defaultTasks = defaultTasks;
+    }
+
+    public CommandType getCommandType() {
+        return commandType;
+    }
+
+    public int getDefaultWorkflows() {
+        return defaultWorkflows;
+    }
+
+    public int getDefaultTasks() {
+        return defaultTasks;
+    }
+
+    /**
+     * names of the upstream tasks of a task
+     *
+     * @param index task index
+     * @return upstream task names
+     */
+    abstract List<String> preTasks(int index);
+
+    /**
+     * build the task nodes of a workflow
+     *
+     * @param taskNum number of tasks
+     * @return task nodes
+     * @throws JsonProcessingException if the upstream tasks can not be serialized
+     */
+    public List<TaskNode> buildTasks(int taskNum) throws JsonProcessingException {
+        List<TaskNode> tasks = new ArrayList<>(taskNum);
+        for (int i = 0; i < taskNum; i++) {
+            TaskNode taskNode = new TaskNode();
+            taskNode.setId("tasks-" + i);
+            taskNode.setName(taskName(i));
+            taskNode.setType("SHELL");
+            taskNode.setRunFlag("NORMAL");
+            taskNode.setParams("{\"rawScript\":\"echo " + i + "\",\"localParams\":[],\"resourceList\":[]}");
+            taskNode.setTimeout(JSONUtils.toJsonString(new TaskTimeoutParameter(false)));
+            taskNode.setTaskInstancePriority(Priority.MEDIUM);
+            taskNode.setWorkerGroup(Constants.DEFAULT_WORKER_GROUP);
+            taskNode.setDepList(preTasks(i));
+            tasks.add(taskNode);
+        }
+        return tasks;
+    }
+
+    static String taskName(int index) {
+        return "task_" + index;
+    }
+}
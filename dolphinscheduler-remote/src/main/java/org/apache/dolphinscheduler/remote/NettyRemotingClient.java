@@ -55,6 +55,7 @@ import org.slf4j.LoggerFactory;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
@@ -309,6 +310,21 @@ public class NettyRemotingClient {
         }
     }
 
+    /**
+     * send task without waiting for the write to complete
+     *
+     * @param host host
+     * @param command command
+     * @param listener notified when the write completes or fails
+     */
+    public void send(final Host host, final Command command, final ChannelFutureListener listener) throws RemotingException {
+        Channel channel = getChannel(host);
+        if (channel == null) {
+            throw new RemotingException(String.format("connect to : %s fail", host));
+        }
+        channel.writeAndFlush(command).addListener(listener);
+    }
+
     /**
      * register processor
      *
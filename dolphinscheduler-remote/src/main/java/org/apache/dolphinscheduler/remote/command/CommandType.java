@@ -121,5 +121,20 @@ public enum CommandType {
     /**
      *  alert send response
      */
-    ALERT_SEND_RESPONSE;
+    ALERT_SEND_RESPONSE,
+
+    /**
+     *  task execute rejected by a busy worker
+     */
+    TASK_EXECUTE_REJECT,
+
+    /**
+     *  reclaim a task queued on a worker
+     */
+    TASK_RECLAIM_REQUEST,
+
+    /**
+     *  reclaim task response
+     */
+    TASK_RECLAIM_RESPONSE;
 }
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.remote.command;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+
+import java.io.Serializable;
+
+/**
+ *  reclaim task response command
+ */
+public class TaskReclaimResponseCommand implements Serializable {
+
+    /**
+     *  task id
+     */
+    private int taskInstanceId;
+
+    /**
+     *  whether the task is given back, false if it has started or is unknown to the worker
+     */
+    private boolean reclaimed;
+
+    public TaskReclaimResponseCommand() {
+    }
+
+    public TaskReclaimResponseCommand(int taskInstanceId, boolean reclaimed) {
+        this.taskInstanceId = taskInstanceId;
+        this.reclaimed = reclaimed;
+    }
+
+    public int getTaskInstanceId() {
+        return taskInstanceId;
+    }
+
+    public void setTaskInstanceId(int taskInstanceId) {
+        this.taskInstanceId = taskInstanceId;
+    }
+
+    public boolean isReclaimed() {
+        return reclaimed;
+    }
+
+    public void setReclaimed(boolean reclaimed) {
+        this.reclaimed = reclaimed;
+    }
+
+    /**
+     *  package response command
+     *
+     * @param opaque request unique identification
+     * @return command
+     */
+    public Command convert2Command(long opaque) {
+        Command command = new Command(opaque);
+        command.setType(CommandType.TASK_RECLAIM_RESPONSE);
+        byte[] body = JSONUtils.toJsonByteArray(this);
+        command.setBody(body);
+        return command;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskReclaimResponseCommand{"
+                + "taskInstanceId=" + taskInstanceId
+                + ", reclaimed=" + reclaimed
+                + '}';
+    }
+}
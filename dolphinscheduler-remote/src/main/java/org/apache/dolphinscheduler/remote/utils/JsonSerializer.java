@@ -18,13 +18,16 @@
 package org.apache.dolphinscheduler.remote.utils;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * json serialize or deserialize
@@ -33,26 +36,50 @@ public class JsonSerializer {
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final Logger logger = LoggerFactory.getLogger(JsonSerializer.class);
 
+    /**
+     * readers and writers are thread safe, cache them per class to skip the serializer lookup of each command
+     */
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
     private JsonSerializer() {
 
     }
 
+    private static ObjectReader reader(Class<?> clazz) {
+        ObjectReader reader = readers.get(clazz);
+        if (reader == null) {
+            reader = readers.computeIfAbsent(clazz, objectMapper::readerFor);
+        }
+        return reader;
+    }
+
+    private static ObjectWriter writer(Object obj) {
+        if (obj == null) {
+            return objectMapper.writer();
+        }
+        ObjectWriter writer = writers.get(obj.getClass());
+        if (writer == null) {
+            writer = writers.computeIfAbsent(obj.getClass(), objectMapper::writerFor);
+        }
+        return writer;
+    }
+
     /**
-     * serialize to byte
+     * serialize to utf-8 bytes
      *
      * @param obj object
      * @param <T> object type
      * @return byte array
      */
     public static <T> byte[] serialize(T obj) {
-        String json = "";
         try {
-            json = objectMapper.writeValueAsString(obj);
+            return writer(obj).writeValueAsBytes(obj);
         } catch (JsonProcessingException e) {
             logger.error("serializeToString exception!", e);
         }
 
-        return json.getBytes(Constants.UTF8);
+        return new byte[0];
     }
 
     /**
@@ -65,7 +92,7 @@ public class JsonSerializer {
     public static <T> String serializeToString(T obj) {
         String json = "";
         try {
-            json = objectMapper.writeValueAsString(obj);
+            json = writer(obj).writeValueAsString(obj);
         } catch (JsonProcessingException e) {
             logger.error("serializeToString exception!", e);
         }
@@ -74,7 +101,7 @@ public class JsonSerializer {
     }
 
     /**
-     * deserialize
+     * deserialize utf-8 bytes
      *
      * @param src byte array
      * @param clazz class
@@ -82,10 +109,8 @@ public class JsonSerializer {
      * @return deserialize type
      */
     public static <T> T deserialize(byte[] src, Class<T> clazz) {
-
-        String json = new String(src, StandardCharsets.UTF_8);
         try {
-            return objectMapper.readValue(json, clazz);
+            return reader(clazz).readValue(src);
         } catch (IOException e) {
             logger.error("deserialize exception!", e);
             return null;
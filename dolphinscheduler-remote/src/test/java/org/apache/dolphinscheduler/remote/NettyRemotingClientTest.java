@@ -32,6 +32,8 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -108,4 +110,40 @@ public class NettyRemotingClientTest {
         server.close();
         client.close();
     }
+
+    /**
+     *  test send with write listener
+     */
+    @Test
+    public void testSendWithListener() throws Exception {
+        NettyServerConfig serverConfig = new NettyServerConfig();
+        serverConfig.setListenPort(12347);
+
+        NettyRemotingServer server = new NettyRemotingServer(serverConfig);
+        CountDownLatch received = new CountDownLatch(1);
+        server.registerProcessor(CommandType.PING, new NettyRequestProcessor() {
+            @Override
+            public void process(Channel channel, Command command) {
+                received.countDown();
+            }
+        });
+        server.start();
+        //
+        final NettyClientConfig clientConfig = new NettyClientConfig();
+        NettyRemotingClient client = new NettyRemotingClient(clientConfig);
+        CountDownLatch written = new CountDownLatch(1);
+        AtomicBoolean success = new AtomicBoolean(false);
+        try {
+            client.send(new Host("127.0.0.1", serverConfig.getListenPort()), Ping.create(), future -> {
+                success.set(future.isSuccess());
+                written.countDown();
+            });
+            Assert.assertTrue(written.await(2, TimeUnit.SECONDS));
+            Assert.assertTrue(success.get());
+            Assert.assertTrue(received.await(2, TimeUnit.SECONDS));
+        } finally {
+            server.close();
+            client.close();
+        }
+    }
 }
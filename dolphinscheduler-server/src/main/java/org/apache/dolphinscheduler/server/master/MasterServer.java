@@ -27,11 +27,10 @@ import org.apache.dolphinscheduler.server.master.processor.TaskKillResponseProce
 import org.apache.dolphinscheduler.server.master.processor.TaskResponseProcessor;
 import org.apache.dolphinscheduler.server.master.registry.MasterRegistry;
 import org.apache.dolphinscheduler.server.master.runner.MasterSchedulerService;
+import org.apache.dolphinscheduler.server.master.trigger.ScheduleTriggerEngine;
 import org.apache.dolphinscheduler.server.worker.WorkerServer;
 import org.apache.dolphinscheduler.server.zk.ZKMasterClient;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
-import org.apache.dolphinscheduler.service.quartz.QuartzExecutors;
-import org.quartz.SchedulerException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -91,6 +90,12 @@ public class MasterServer {
     @Autowired
     private MasterSchedulerService masterSchedulerService;
 
+    /**
+     * schedule trigger engine
+     */
+    @Autowired
+    private ScheduleTriggerEngine scheduleTriggerEngine;
+
     /**
      * master server startup
      *
@@ -126,19 +131,8 @@ public class MasterServer {
         // scheduler start
         this.masterSchedulerService.start();
 
-        // start QuartzExecutors
-        // what system should do if exception
-        try {
-            logger.info("start Quartz server...");
-            QuartzExecutors.getInstance().start();
-        } catch (Exception e) {
-            try {
-                QuartzExecutors.getInstance().shutdown();
-            } catch (SchedulerException e1) {
-                logger.error("QuartzExecutors shutdown failed : " + e1.getMessage(), e1);
-            }
-            logger.error("start Quartz failed", e);
-        }
+        // start schedule trigger engine
+        this.scheduleTriggerEngine.start();
 
         /**
          *  register hooks, which are called before the process exits
@@ -180,13 +174,8 @@ public class MasterServer {
             this.nettyRemotingServer.close();
             this.masterRegistry.unRegistry();
             this.zkMasterClient.close();
-            //close quartz
-            try{
-                QuartzExecutors.getInstance().shutdown();
-                logger.info("Quartz service stopped");
-            }catch (Exception e){
-                logger.warn("Quartz service stopped exception:{}",e.getMessage());
-            }
+            //close schedule trigger engine
+            this.scheduleTriggerEngine.close();
         } catch (Exception e) {
             logger.error("master server stop exception ", e);
             System.exit(-1);
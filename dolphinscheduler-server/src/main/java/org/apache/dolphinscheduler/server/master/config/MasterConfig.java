@@ -55,6 +55,39 @@ public class MasterConfig {
     @Value("${master.listen.port:5678}")
     private int listenPort;
 
+    @Value("${master.failover.batch.size:100}")
+    private int masterFailoverBatchSize;
+
+    @Value("${master.failover.kill.threads:10}")
+    private int masterFailoverKillThreads;
+
+    @Value("${master.dispatch.inflight.window:100}")
+    private int masterDispatchInflightWindow;
+
+    @Value("${master.dispatch.sender.threads:4}")
+    private int masterDispatchSenderThreads;
+
+    @Value("${master.alert.coalesce.window:60}")
+    private int masterAlertCoalesceWindow;
+
+    @Value("${master.alert.coalesce.top.n:10}")
+    private int masterAlertCoalesceTopN;
+
+    @Value("${master.sub.process.local.launch:true}")
+    private boolean masterSubProcessLocalLaunch;
+
+    @Value("${master.schedule.trigger.engine:quartz}")
+    private String masterScheduleTriggerEngine;
+
+    @Value("${master.schedule.trigger.refresh.interval:60}")
+    private int masterScheduleTriggerRefreshInterval;
+
+    @Value("${master.schedule.trigger.batch.size:500}")
+    private int masterScheduleTriggerBatchSize;
+
+    @Value("${master.schedule.trigger.catch.up.window:3600}")
+    private int masterScheduleTriggerCatchUpWindow;
+
     public int getListenPort() {
         return listenPort;
     }
@@ -137,4 +170,92 @@ public class MasterConfig {
     public void setMasterDispatchTaskNumber(int masterDispatchTaskNumber) {
         this.masterDispatchTaskNumber = masterDispatchTaskNumber;
     }
-}
\ No newline at end of file
+
+    public int getMasterFailoverBatchSize() {
+        return masterFailoverBatchSize;
+    }
+
+    public void setMasterFailoverBatchSize(int masterFailoverBatchSize) {
+        this.masterFailoverBatchSize = masterFailoverBatchSize;
+    }
+
+    public int getMasterFailoverKillThreads() {
+        return masterFailoverKillThreads;
+    }
+
+    public void setMasterFailoverKillThreads(int masterFailoverKillThreads) {
+        this.masterFailoverKillThreads = masterFailoverKillThreads;
+    }
+
+    public int getMasterDispatchInflightWindow() {
+        return masterDispatchInflightWindow;
+    }
+
+    public void setMasterDispatchInflightWindow(int masterDispatchInflightWindow) {
+        this.masterDispatchInflightWindow = masterDispatchInflightWindow;
+    }
+
+    public int getMasterDispatchSenderThreads() {
+        return masterDispatchSenderThreads;
+    }
+
+    public void setMasterDispatchSenderThreads(int masterDispatchSenderThreads) {
+        this.masterDispatchSenderThreads = masterDispatchSenderThreads;
+    }
+
+    public int getMasterAlertCoalesceWindow() {
+        return masterAlertCoalesceWindow;
+    }
+
+    public void setMasterAlertCoalesceWindow(int masterAlertCoalesceWindow) {
+        this.masterAlertCoalesceWindow = masterAlertCoalesceWindow;
+    }
+
+    public int getMasterAlertCoalesceTopN() {
+        return masterAlertCoalesceTopN;
+    }
+
+    public void setMasterAlertCoalesceTopN(int masterAlertCoalesceTopN) {
+        this.masterAlertCoalesceTopN = masterAlertCoalesceTopN;
+    }
+
+    public boolean isMasterSubProcessLocalLaunch() {
+        return masterSubProcessLocalLaunch;
+    }
+
+    public void setMasterSubProcessLocalLaunch(boolean masterSubProcessLocalLaunch) {
+        this.masterSubProcessLocalLaunch = masterSubProcessLocalLaunch;
+    }
+
+    public String getMasterScheduleTriggerEngine() {
+        return masterScheduleTriggerEngine;
+    }
+
+    public void setMasterScheduleTriggerEngine(String masterScheduleTriggerEngine) {
+        this.masterScheduleTriggerEngine = masterScheduleTriggerEngine;
+    }
+
+    public int getMasterScheduleTriggerRefreshInterval() {
+        return masterScheduleTriggerRefreshInterval;
+    }
+
+    public void setMasterScheduleTriggerRefreshInterval(int masterScheduleTriggerRefreshInterval) {
+        this.masterScheduleTriggerRefreshInterval = masterScheduleTriggerRefreshInterval;
+    }
+
+    public int getMasterScheduleTriggerBatchSize() {
+        return masterScheduleTriggerBatchSize;
+    }
+
+    public void setMasterScheduleTriggerBatchSize(int masterScheduleTriggerBatchSize) {
+        this.masterScheduleTriggerBatchSize = masterScheduleTriggerBatchSize;
+    }
+
+    public int getMasterScheduleTriggerCatchUpWindow() {
+        return masterScheduleTriggerCatchUpWindow;
+    }
+
+    public void setMasterScheduleTriggerCatchUpWindow(int masterScheduleTriggerCatchUpWindow) {
+        this.masterScheduleTriggerCatchUpWindow = masterScheduleTriggerCatchUpWindow;
+    }
+}
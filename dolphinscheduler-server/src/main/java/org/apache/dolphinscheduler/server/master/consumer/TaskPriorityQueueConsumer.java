@@ -33,13 +33,14 @@ import org.apache.dolphinscheduler.common.task.sqoop.SqoopParameters;
 import org.apache.dolphinscheduler.common.task.sqoop.sources.SourceMysqlParameter;
 import org.apache.dolphinscheduler.common.task.sqoop.targets.TargetMysqlParameter;
 import org.apache.dolphinscheduler.common.thread.Stopper;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.common.utils.EnumUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
-import org.apache.dolphinscheduler.common.utils.TaskParametersUtils;
 import org.apache.dolphinscheduler.dao.entity.DataSource;
 import org.apache.dolphinscheduler.dao.entity.Resource;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.Tenant;
 import org.apache.dolphinscheduler.dao.entity.UdfFunc;
@@ -54,15 +55,19 @@ import org.apache.dolphinscheduler.server.master.dispatch.ExecutorDispatcher;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
+import org.apache.dolphinscheduler.server.master.dispatch.executor.ExecuteCallback;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.queue.TaskPriority;
 import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -110,30 +115,42 @@ public class TaskPriorityQueueConsumer extends Thread {
     @Autowired
     private MasterConfig masterConfig;
 
+    /**
+     * tasks to dispatch again, whose asynchronous send failed on every node or which are given back by workers,
+     * put back to the queue by the consumer thread
+     */
+    private final ConcurrentLinkedQueue<TaskPriority> redispatchTasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * loads the tasks to dispatch again, the workers give tasks back on netty threads which must not query the db
+     */
+    private ExecutorService redispatchExecutor;
+
     @PostConstruct
     public void init() {
+        this.redispatchExecutor = ThreadUtils.newDaemonSingleThreadExecutor("Master-Redispatch-Thread");
         super.setName("TaskUpdateQueueConsumerThread");
         super.start();
     }
 
     @Override
     public void run() {
-        List<TaskPriority> failedDispatchTasks = new ArrayList<>();
+        List<TaskPriority> fetchedTasks = new ArrayList<>();
         while (Stopper.isRunning()) {
             try {
                 int fetchTaskNum = masterConfig.getMasterDispatchTaskNumber();
-                failedDispatchTasks.clear();
-                for (int i = 0; i < fetchTaskNum; i++) {
-                    if (taskPriorityQueue.size() <= 0) {
-                        Thread.sleep(Constants.SLEEP_TIME_MILLIS);
-                        continue;
-                    }
-                    // if not task , blocking here
-                    TaskPriority taskPriority = taskPriorityQueue.take();
-                    boolean dispatchResult = dispatch(taskPriority);
-                    if (!dispatchResult) {
-                        failedDispatchTasks.add(taskPriority);
-                    }
+                fetchedTasks.clear();
+                for (int i = 0; i < fetchTaskNum && taskPriorityQueue.size() > 0; i++) {
+                    fetchedTasks.add(taskPriorityQueue.take());
+                }
+                List<TaskPriority> failedDispatchTasks = fetchedTasks.isEmpty() ? new ArrayList<>() : dispatch(fetchedTasks);
+                TaskPriority redispatchTask;
+                while ((redispatchTask = redispatchTasks.poll()) != null) {
+                    failedDispatchTasks.add(redispatchTask);
+                }
+                if (fetchedTasks.isEmpty() && failedDispatchTasks.isEmpty()) {
+                    Thread.sleep(Constants.SLEEP_TIME_MILLIS);
+                    continue;
                 }
                 if (!failedDispatchTasks.isEmpty()) {
                     for (TaskPriority dispatchFailedTask : failedDispatchTasks) {
@@ -159,22 +176,112 @@ public class TaskPriorityQueueConsumer extends Thread {
      * @return result
      */
     protected boolean dispatch(TaskPriority taskPriority) {
-        boolean result = false;
+        return dispatch(Collections.singletonList(taskPriority)).isEmpty();
+    }
+
+    /**
+     * dispatch tasks, the task instances of all tasks are loaded at once and the commands are sent asynchronously.
+     * a task whose send fails on every node is put back to the queue later
+     *
+     * @param taskPriorities taskPriorities
+     * @return tasks that can not be dispatched now
+     */
+    protected List<TaskPriority> dispatch(List<TaskPriority> taskPriorities) {
+        List<Integer> taskInstanceIds = taskPriorities.stream().map(TaskPriority::getTaskId).collect(Collectors.toList());
+        Map<Integer, TaskInstance> taskInstances;
         try {
-            int taskInstanceId = taskPriority.getTaskId();
-            TaskExecutionContext context = getTaskExecutionContext(taskInstanceId);
-            ExecutionContext executionContext = new ExecutionContext(context.toCommand(), ExecutorType.WORKER, context.getWorkerGroup());
+            taskInstances = processService.getTaskInstanceDetailByTaskIds(taskInstanceIds)
+                .stream().collect(Collectors.toMap(TaskInstance::getId, taskInstance -> taskInstance));
+        } catch (Exception e) {
+            logger.error("query task instances {} error", taskInstanceIds, e);
+            return new ArrayList<>(taskPriorities);
+        }
+
+        List<TaskPriority> failedDispatchTasks = new ArrayList<>();
+        for (TaskPriority taskPriority : taskPriorities) {
+            if (!dispatch(taskPriority, taskInstances.get(taskPriority.getTaskId()))) {
+                failedDispatchTasks.add(taskPriority);
+            }
+        }
+        return failedDispatchTasks;
+    }
 
-            if (taskInstanceIsFinalState(taskInstanceId)) {
-                // when task finish, ignore this task, there is no need to dispatch anymore
+    private boolean dispatch(TaskPriority taskPriority, TaskInstance taskInstance) {
+        if (taskInstance == null) {
+            logger.warn("task instance {} not exists, ignore dispatch", taskPriority.getTaskId());
+            return true;
+        }
+        if (taskInstance.getState().typeIsFinished()) {
+            // when task finish, ignore this task, there is no need to dispatch anymore
+            return true;
+        }
+        try {
+            TaskExecutionContext context = getTaskExecutionContext(taskInstance);
+            if (context == null) {
+                // the task has been failed
                 return true;
-            } else {
-                result = dispatcher.dispatch(executionContext);
             }
+            ExecutionContext executionContext = new ExecutionContext(context.toCommand(), ExecutorType.WORKER, context.getWorkerGroup());
+            executionContext.setTaskInstanceId(taskInstance.getId());
+            dispatcher.dispatchAsync(executionContext, new ExecuteCallback() {
+                @Override
+                public void onSuccess(ExecutionContext executionContext) {
+                    logger.debug("dispatch task {} to {}", taskInstance.getId(), executionContext.getHost());
+                }
+
+                @Override
+                public void onFailure(ExecutionContext executionContext, Throwable cause) {
+                    logger.error("send task {} failed on every node, dispatch again", taskInstance.getId());
+                    redispatchTasks.offer(taskPriority);
+                }
+            });
+            return true;
         } catch (ExecuteException e) {
             logger.error("dispatch error", e);
+            return false;
+        } catch (Exception e) {
+            logger.error("dispatch task {} error", taskInstance.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * dispatch a task again that was dispatched before but is rejected or reclaimed by the worker
+     *
+     * @param taskInstanceId taskInstanceId
+     */
+    public void redispatch(int taskInstanceId) {
+        redispatchExecutor.execute(() -> {
+            try {
+                TaskPriority taskPriority = getRedispatchTask(taskInstanceId);
+                if (taskPriority != null) {
+                    redispatchTasks.offer(taskPriority);
+                }
+            } catch (Exception e) {
+                logger.error("redispatch task {} error", taskInstanceId, e);
+            }
+        });
+    }
+
+    /**
+     * get the task to dispatch again
+     *
+     * @param taskInstanceId taskInstanceId
+     * @return task priority, null if the task instance or its process instance does not exist
+     */
+    protected TaskPriority getRedispatchTask(int taskInstanceId) {
+        TaskInstance taskInstance = processService.findTaskInstanceById(taskInstanceId);
+        ProcessInstance processInstance = taskInstance == null ? null
+            : processService.findProcessInstanceById(taskInstance.getProcessInstanceId());
+        if (processInstance == null) {
+            logger.warn("task instance {} or its process instance not exists, ignore redispatch", taskInstanceId);
+            return null;
         }
-        return result;
+        return new TaskPriority(processInstance.getProcessInstancePriority().getCode(),
+            processInstance.getId(),
+            taskInstance.getProcessInstancePriority().getCode(),
+            taskInstanceId,
+            taskInstance.getWorkerGroup());
     }
 
     /**
@@ -196,8 +303,16 @@ public class TaskPriorityQueueConsumer extends Thread {
      * @return TaskExecutionContext
      */
     protected TaskExecutionContext getTaskExecutionContext(int taskInstanceId) {
-        TaskInstance taskInstance = processService.getTaskInstanceDetailByTaskId(taskInstanceId);
+        return getTaskExecutionContext(processService.getTaskInstanceDetailByTaskId(taskInstanceId));
+    }
 
+    /**
+     * get TaskExecutionContext
+     *
+     * @param taskInstance task instance with its process instance and process definition
+     * @return TaskExecutionContext, null if the tenant does not exist and the task is failed
+     */
+    private TaskExecutionContext getTaskExecutionContext(TaskInstance taskInstance) {
         // task type
         TaskType taskType = TaskType.valueOf(taskInstance.getTaskType());
 
@@ -265,7 +380,7 @@ public class TaskPriorityQueueConsumer extends Thread {
      * @param taskNode                      taskNode
      */
     private void setProcedureTaskRelation(ProcedureTaskExecutionContext procedureTaskExecutionContext, TaskNode taskNode) {
-        ProcedureParameters procedureParameters = JSONUtils.parseObject(taskNode.getParams(), ProcedureParameters.class);
+        ProcedureParameters procedureParameters = taskNode.getTaskParameters(ProcedureParameters.class);
         int datasourceId = procedureParameters.getDatasource();
         DataSource datasource = processService.findDataSourceById(datasourceId);
         procedureTaskExecutionContext.setConnectionParams(datasource.getConnectionParams());
@@ -278,7 +393,7 @@ public class TaskPriorityQueueConsumer extends Thread {
      * @param taskNode                  taskNode
      */
     protected void setDataxTaskRelation(DataxTaskExecutionContext dataxTaskExecutionContext, TaskNode taskNode) {
-        DataxParameters dataxParameters = JSONUtils.parseObject(taskNode.getParams(), DataxParameters.class);
+        DataxParameters dataxParameters = taskNode.getTaskParameters(DataxParameters.class);
 
         DataSource dbSource = processService.findDataSourceById(dataxParameters.getDataSource());
         DataSource dbTarget = processService.findDataSourceById(dataxParameters.getDataTarget());
@@ -303,7 +418,7 @@ public class TaskPriorityQueueConsumer extends Thread {
      * @param taskNode                  taskNode
      */
     private void setSqoopTaskRelation(SqoopTaskExecutionContext sqoopTaskExecutionContext, TaskNode taskNode) {
-        SqoopParameters sqoopParameters = JSONUtils.parseObject(taskNode.getParams(), SqoopParameters.class);
+        SqoopParameters sqoopParameters = taskNode.getTaskParameters(SqoopParameters.class);
 
         // sqoop job type is template set task relation
         if (sqoopParameters.getJobType().equals(SqoopJobType.TEMPLATE.getDescp())) {
@@ -334,7 +449,7 @@ public class TaskPriorityQueueConsumer extends Thread {
      * @param taskNode                taskNode
      */
     private void setSQLTaskRelation(SQLTaskExecutionContext sqlTaskExecutionContext, TaskNode taskNode) {
-        SqlParameters sqlParameters = JSONUtils.parseObject(taskNode.getParams(), SqlParameters.class);
+        SqlParameters sqlParameters = taskNode.getTaskParameters(SqlParameters.class);
         int datasourceId = sqlParameters.getDatasource();
         DataSource datasource = processService.findDataSourceById(datasourceId);
         sqlTaskExecutionContext.setConnectionParams(datasource.getConnectionParams());
@@ -383,7 +498,7 @@ public class TaskPriorityQueueConsumer extends Thread {
      */
     protected Map<String, String> getResourceFullNames(TaskNode taskNode) {
         Map<String, String> resourcesMap = new HashMap<>();
-        AbstractParameters baseParam = TaskParametersUtils.getParameters(taskNode.getType(), taskNode.getParams());
+        AbstractParameters baseParam = taskNode.getTaskParameters();
 
         if (baseParam != null) {
             List<ResourceInfo> projectResourceFiles = baseParam.getResourceFilesList();
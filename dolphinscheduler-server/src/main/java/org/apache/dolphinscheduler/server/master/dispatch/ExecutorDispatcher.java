@@ -23,9 +23,13 @@ import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
+import org.apache.dolphinscheduler.server.master.dispatch.executor.ExecuteCallback;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.ExecutorManager;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
 import org.apache.dolphinscheduler.server.master.dispatch.host.HostManager;
+import org.apache.dolphinscheduler.server.master.dispatch.host.WorkerSlotManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -38,6 +42,8 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class ExecutorDispatcher implements InitializingBean {
 
+    private final Logger logger = LoggerFactory.getLogger(ExecutorDispatcher.class);
+
     /**
      * netty executor manager
      */
@@ -50,6 +56,12 @@ public class ExecutorDispatcher implements InitializingBean {
     @Autowired
     private HostManager hostManager;
 
+    /**
+     * worker slot manager
+     */
+    @Autowired
+    private WorkerSlotManager workerSlotManager;
+
     /**
      * executor manager
      */
@@ -89,14 +101,92 @@ public class ExecutorDispatcher implements InitializingBean {
                     context.getCommand(),context.getWorkerGroup()));
         }
         context.setHost(host);
+        int taskInstanceId = context.getTaskInstanceId();
+        if (taskInstanceId > 0) {
+            workerSlotManager.occupy(host.getAddress(), taskInstanceId);
+        }
         executorManager.beforeExecute(context);
+        boolean success = false;
         try {
             /**
              * task execute
              */
-            return executorManager.execute(context);
+            success = executorManager.execute(context);
+            return success;
         } finally {
+            if (taskInstanceId > 0) {
+                if (success) {
+                    // the executor may retry on another worker
+                    workerSlotManager.occupy(context.getHost().getAddress(), taskInstanceId);
+                } else {
+                    workerSlotManager.release(taskInstanceId);
+                }
+            }
+            executorManager.afterExecute(context);
+        }
+    }
+
+    /**
+     * task dispatch without waiting for the send,
+     * the worker slot is occupied once the host is selected and released if the send fails
+     *
+     * @param context context
+     * @param callback callback notified once the command is sent or failed on every node
+     * @throws ExecuteException if the task can not be dispatched now
+     */
+    public void dispatchAsync(final ExecutionContext context, final ExecuteCallback callback) throws ExecuteException {
+        ExecutorManager<Boolean> executorManager = this.executorManagers.get(context.getExecutorType());
+        if (executorManager == null) {
+            throw new ExecuteException("no ExecutorManager for type : " + context.getExecutorType());
+        }
+
+        Host host = hostManager.select(context);
+        if (StringUtils.isEmpty(host.getAddress())) {
+            throw new ExecuteException(String.format("fail to execute : %s due to no suitable worker , "
+                            + "current task need to %s worker group execute",
+                    context.getCommand(), context.getWorkerGroup()));
+        }
+        context.setHost(host);
+        int taskInstanceId = context.getTaskInstanceId();
+        if (taskInstanceId > 0) {
+            workerSlotManager.occupy(host.getAddress(), taskInstanceId);
+        }
+        executorManager.beforeExecute(context);
+        try {
+            executorManager.executeAsync(context, new ExecuteCallback() {
+                @Override
+                public void onSuccess(ExecutionContext context) {
+                    if (taskInstanceId > 0) {
+                        // the executor may send to another worker
+                        workerSlotManager.occupy(context.getHost().getAddress(), taskInstanceId);
+                    }
+                    afterExecute(executorManager, context);
+                    callback.onSuccess(context);
+                }
+
+                @Override
+                public void onFailure(ExecutionContext context, Throwable cause) {
+                    if (taskInstanceId > 0) {
+                        workerSlotManager.release(taskInstanceId);
+                    }
+                    afterExecute(executorManager, context);
+                    callback.onFailure(context, cause);
+                }
+            });
+        } catch (ExecuteException e) {
+            if (taskInstanceId > 0) {
+                workerSlotManager.release(taskInstanceId);
+            }
+            executorManager.afterExecute(context);
+            throw e;
+        }
+    }
+
+    private void afterExecute(ExecutorManager<Boolean> executorManager, ExecutionContext context) {
+        try {
             executorManager.afterExecute(context);
+        } catch (ExecuteException e) {
+            logger.error("after execute error", e);
         }
     }
 
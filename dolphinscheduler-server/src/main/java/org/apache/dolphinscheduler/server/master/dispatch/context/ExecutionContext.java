@@ -48,6 +48,11 @@ public class ExecutionContext {
      */
     private String workerGroup;
 
+    /**
+     *  task instance id
+     */
+    private int taskInstanceId;
+
 
     public ExecutionContext(Command command, ExecutorType executorType) {
         this(command, executorType, DEFAULT_WORKER_GROUP);
@@ -83,4 +88,12 @@ public class ExecutionContext {
     public void setHost(Host host) {
         this.host = host;
     }
+
+    public int getTaskInstanceId() {
+        return taskInstanceId;
+    }
+
+    public void setTaskInstanceId(int taskInstanceId) {
+        this.taskInstanceId = taskInstanceId;
+    }
 }
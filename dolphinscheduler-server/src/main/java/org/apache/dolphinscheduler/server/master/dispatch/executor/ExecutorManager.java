@@ -41,6 +41,15 @@ public interface ExecutorManager<T> {
      */
     T execute(ExecutionContext context) throws ExecuteException;
 
+    /**
+     * execute task asynchronously, the callback is notified once the command is written
+     * or could not be written to any node
+     * @param context context
+     * @param callback callback
+     * @throws ExecuteException if the task can not be sent now
+     */
+    void executeAsync(ExecutionContext context, ExecuteCallback callback) throws ExecuteException;
+
     /**
      * execute task directly without retry
      * @param context context
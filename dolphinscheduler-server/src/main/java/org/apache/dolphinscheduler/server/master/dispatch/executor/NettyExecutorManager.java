@@ -23,13 +23,17 @@ import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskReclaimRequestCommand;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 import org.apache.dolphinscheduler.server.master.processor.TaskAckProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskKillResponseProcessor;
+import org.apache.dolphinscheduler.server.master.processor.TaskReclaimResponseProcessor;
+import org.apache.dolphinscheduler.server.master.processor.TaskRejectProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskResponseProcessor;
 import org.apache.dolphinscheduler.server.registry.ZookeeperNodeManager;
 
@@ -41,6 +45,16 @@ import org.springframework.stereotype.Service;
 import javax.annotation.PostConstruct;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+
+import io.netty.channel.Channel;
 
 /**
  *  netty executor manager
@@ -50,12 +64,59 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean>{
 
     private final Logger logger = LoggerFactory.getLogger(NettyExecutorManager.class);
 
+    /**
+     * a worker replies a reject right after the task is sent, so a dispatch is not kept longer than this
+     */
+    private static final long PENDING_DISPATCH_EXPIRE_SECONDS = 60;
+
+    /**
+     * a task command holds its permit of the inflight window until the worker acks or rejects it, at most this long
+     */
+    private static final long INFLIGHT_ACK_TIMEOUT_SECONDS = 30;
+
     /**
      * zookeeper node manager
      */
     @Autowired
     private ZookeeperNodeManager zookeeperNodeManager;
 
+    /**
+     * master config
+     */
+    @Autowired
+    private MasterConfig masterConfig;
+
+    /**
+     * worker address -> permits of the commands sent to the worker and not answered yet
+     */
+    private final ConcurrentHashMap<String, Semaphore> inflightWindows = new ConcurrentHashMap<>();
+
+    /**
+     * task instance id -> worker address whose permit the task command holds,
+     * the permit is released when the entry is removed: on ack, reject, ack timeout or channel close
+     */
+    private final Cache<Integer, String> inflightTasks = CacheBuilder.newBuilder()
+            .expireAfterWrite(INFLIGHT_ACK_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .removalListener((RemovalListener<Integer, String>) notification -> releaseInflight(notification.getValue()))
+            .build();
+
+    /**
+     * channels whose close releases the permits of their unanswered task commands
+     */
+    private final Set<Channel> watchedChannels = ConcurrentHashMap.newKeySet();
+
+    /**
+     * task instance id -> dispatch sent recently, kept to send the task to another node if the worker rejects it
+     */
+    private final Cache<Integer, PendingDispatch> pendingDispatches = CacheBuilder.newBuilder()
+            .expireAfterWrite(PENDING_DISPATCH_EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    /**
+     * sends task commands and handles send failures, so that a slow worker does not hold up the dispatch
+     */
+    private ExecutorService senderExecutor;
+
     /**
      * netty remote client
      */
@@ -78,6 +139,10 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean>{
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_RESPONSE, new TaskResponseProcessor());
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_ACK, new TaskAckProcessor());
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_KILL_RESPONSE, new TaskKillResponseProcessor());
+        this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_REJECT, new TaskRejectProcessor(this));
+        this.nettyRemotingClient.registerProcessor(CommandType.TASK_RECLAIM_RESPONSE, new TaskReclaimResponseProcessor());
+        this.senderExecutor = ThreadUtils.newDaemonFixedThreadExecutor("Master-Dispatch-Sender",
+                Math.max(1, masterConfig.getMasterDispatchSenderThreads()));
     }
 
     /**
@@ -135,6 +200,178 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean>{
         return success;
     }
 
+    /**
+     * execute logic without waiting for the send.
+     * the host of the context is used if its inflight window has room, otherwise another node of the worker group,
+     * a failed send is retried on the remaining nodes
+     * @param context context
+     * @param callback callback
+     * @throws ExecuteException if the inflight window of every node is full
+     */
+    @Override
+    public void executeAsync(ExecutionContext context, ExecuteCallback callback) throws ExecuteException {
+        Set<String> allNodes = getAllNodes(context);
+        Set<String> failNodeSet = new HashSet<>();
+        Host host = acquireInflight(context.getHost(), allNodes, failNodeSet);
+        if (host == null) {
+            throw new ExecuteException(String.format("fail to execute : %s due to inflight window of all nodes is full",
+                    context.getCommand()));
+        }
+        context.setHost(host);
+        senderExecutor.execute(() -> sendAsync(context, allNodes, failNodeSet, callback));
+    }
+
+    private void sendAsync(ExecutionContext context, Set<String> allNodes, Set<String> failNodeSet, ExecuteCallback callback) {
+        Host host = context.getHost();
+        int taskInstanceId = context.getTaskInstanceId();
+        // tracked before the send, the ack may arrive before the write completes
+        if (taskInstanceId > 0) {
+            pendingDispatches.put(taskInstanceId, new PendingDispatch(context, allNodes, failNodeSet, callback));
+            inflightTasks.put(taskInstanceId, host.getAddress());
+        }
+        try {
+            nettyRemotingClient.send(host, context.getCommand(), future -> {
+                if (future.isSuccess()) {
+                    if (taskInstanceId > 0) {
+                        watchChannel(future.channel(), host.getAddress());
+                    } else {
+                        releaseInflight(host.getAddress());
+                    }
+                    callback.onSuccess(context);
+                } else {
+                    untrack(taskInstanceId, host);
+                    senderExecutor.execute(() -> failover(context, allNodes, failNodeSet, callback, future.cause()));
+                }
+            });
+        } catch (Exception ex) {
+            untrack(taskInstanceId, host);
+            failover(context, allNodes, failNodeSet, callback, ex);
+        }
+    }
+
+    /**
+     * release the permit of a command not sent
+     */
+    private void untrack(int taskInstanceId, Host host) {
+        if (taskInstanceId > 0) {
+            pendingDispatches.invalidate(taskInstanceId);
+            inflightTasks.invalidate(taskInstanceId);
+        } else {
+            releaseInflight(host.getAddress());
+        }
+    }
+
+    /**
+     * release the permits of the unanswered task commands of a worker once its channel is closed
+     */
+    private void watchChannel(Channel channel, String address) {
+        if (channel == null || !watchedChannels.add(channel)) {
+            return;
+        }
+        channel.closeFuture().addListener(future -> {
+            watchedChannels.remove(channel);
+            inflightTasks.asMap().values().removeIf(address::equals);
+        });
+    }
+
+    /**
+     * the worker acked the task, its permit of the inflight window is released
+     * @param taskInstanceId task instance id
+     */
+    public void ack(int taskInstanceId) {
+        inflightTasks.invalidate(taskInstanceId);
+    }
+
+    private void failover(ExecutionContext context, Set<String> allNodes, Set<String> failNodeSet,
+                          ExecuteCallback callback, Throwable cause) {
+        logger.error(String.format("send command : %s to %s error", context.getCommand(), context.getHost()), cause);
+        failNodeSet.add(context.getHost().getAddress());
+        Host host = acquireInflight(null, allNodes, failNodeSet);
+        if (host == null) {
+            callback.onFailure(context, cause);
+            return;
+        }
+        logger.error("retry execute command : {} host : {}", context.getCommand(), host);
+        context.setHost(host);
+        sendAsync(context, allNodes, failNodeSet, callback);
+    }
+
+    /**
+     * send a task rejected by a busy worker to another node of the worker group
+     * @param taskInstanceId task instance id
+     * @param rejectedAddress address of the worker rejecting the task
+     * @return false if the dispatch of the task is unknown, the caller has to dispatch the task again
+     */
+    public boolean redispatch(int taskInstanceId, String rejectedAddress) {
+        inflightTasks.invalidate(taskInstanceId);
+        PendingDispatch pendingDispatch = pendingDispatches.asMap().remove(taskInstanceId);
+        if (pendingDispatch == null) {
+            return false;
+        }
+        ExecutionContext context = pendingDispatch.context;
+        pendingDispatch.failNodeSet.add(rejectedAddress);
+        Host host = acquireInflight(null, pendingDispatch.allNodes, pendingDispatch.failNodeSet);
+        if (host == null) {
+            pendingDispatch.callback.onFailure(context,
+                new ExecuteException(String.format("task %s rejected by all nodes", taskInstanceId)));
+            return true;
+        }
+        logger.warn("task {} rejected by {}, retry execute command host : {}", taskInstanceId, rejectedAddress, host);
+        context.setHost(host);
+        senderExecutor.execute(() -> sendAsync(context, pendingDispatch.allNodes, pendingDispatch.failNodeSet, pendingDispatch.callback));
+        return true;
+    }
+
+    /**
+     * ask the worker to give back a task not started yet, the worker replies a reclaim response
+     * @param host worker host
+     * @param taskInstanceId task instance id
+     */
+    public void reclaim(Host host, int taskInstanceId) {
+        Command command = new TaskReclaimRequestCommand(taskInstanceId).convert2Command();
+        senderExecutor.execute(() -> {
+            try {
+                nettyRemotingClient.send(host, command);
+            } catch (Exception ex) {
+                logger.error(String.format("send command : %s to %s error", command, host), ex);
+            }
+        });
+    }
+
+    /**
+     * acquire a permit of the inflight window, of the preferred host first and then of the other nodes
+     * @param preferred preferred host, may be null
+     * @param allNodes all nodes
+     * @param failNodeSet nodes failed to send
+     * @return host whose permit is acquired, null if the window of every node is full
+     */
+    private Host acquireInflight(Host preferred, Set<String> allNodes, Set<String> failNodeSet) {
+        // release the permits of the commands whose ack timed out
+        inflightTasks.cleanUp();
+        if (preferred != null && !failNodeSet.contains(preferred.getAddress())
+                && getInflightWindow(preferred.getAddress()).tryAcquire()) {
+            return preferred;
+        }
+        for (String node : allNodes) {
+            if (failNodeSet.contains(node) || (preferred != null && node.equals(preferred.getAddress()))) {
+                continue;
+            }
+            if (getInflightWindow(node).tryAcquire()) {
+                return Host.of(node);
+            }
+        }
+        return null;
+    }
+
+    private void releaseInflight(String address) {
+        getInflightWindow(address).release();
+    }
+
+    private Semaphore getInflightWindow(String address) {
+        return inflightWindows.computeIfAbsent(address,
+            key -> new Semaphore(Math.max(1, masterConfig.getMasterDispatchInflightWindow())));
+    }
+
     @Override
     public void executeDirectly(ExecutionContext context) throws ExecuteException {
         Host host = context.getHost();
@@ -196,4 +433,25 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean>{
     public NettyRemotingClient getNettyRemotingClient() {
         return nettyRemotingClient;
     }
+
+    /**
+     * dispatch sent to a worker, with the nodes it can still be sent to
+     */
+    private static class PendingDispatch {
+
+        private final ExecutionContext context;
+
+        private final Set<String> allNodes;
+
+        private final Set<String> failNodeSet;
+
+        private final ExecuteCallback callback;
+
+        PendingDispatch(ExecutionContext context, Set<String> allNodes, Set<String> failNodeSet, ExecuteCallback callback) {
+            this.context = context;
+            this.allNodes = allNodes;
+            this.failNodeSet = failNodeSet;
+            this.callback = callback;
+        }
+    }
 }
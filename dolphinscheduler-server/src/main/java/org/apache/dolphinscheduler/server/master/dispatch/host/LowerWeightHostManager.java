@@ -17,84 +17,62 @@
 
 package org.apache.dolphinscheduler.server.master.dispatch.host;
 
-import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.model.HeartBeat;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
-import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.remote.utils.Host;
-import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWeight;
-import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightRoundRobin;
-import org.apache.dolphinscheduler.server.registry.ZookeeperRegistryCenter;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.PowerOfTwoChoicesSelector;
+import org.apache.dolphinscheduler.server.registry.WorkerHeartBeatListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.annotation.PostConstruct;
-import javax.annotation.PreDestroy;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-
-import static org.apache.dolphinscheduler.common.Constants.COMMA;
 
 
 /**
- *  round robin host manager
+ *  lower weight host manager
+ *  <p>
+ *  selects among the workers with free execute slots, preferring the lower loaded and less occupied one.
+ *  worker weights are updated when zookeeper pushes a heartbeat instead of polling the registry
  */
-public class LowerWeightHostManager extends CommonHostManager {
+public class LowerWeightHostManager extends CommonHostManager implements WorkerHeartBeatListener {
 
     private final Logger logger = LoggerFactory.getLogger(LowerWeightHostManager.class);
 
     /**
-     * zookeeper registry center
+     * worker slot manager
      */
     @Autowired
-    private ZookeeperRegistryCenter registryCenter;
+    private WorkerSlotManager workerSlotManager;
 
     /**
-     * round robin host manager
+     * weight of the slot usage in the host load, one fully occupied worker outweighs the resource weight
      */
-    private RoundRobinHostManager roundRobinHostManager;
+    private static final double SLOT_USAGE_FACTOR = 100;
 
     /**
      * selector
      */
-    private LowerWeightRoundRobin selector;
-
-    /**
-     * worker host weights
-     */
-    private ConcurrentHashMap<String, Set<HostWeight>> workerHostWeightsMap;
-
-    /**
-     * worker group host lock
-     */
-    private Lock lock;
+    private PowerOfTwoChoicesSelector<HostWeight> selector;
 
     /**
-     * executor service
+     * worker address -> host weight, only normal workers are kept
      */
-    private ScheduledExecutorService executorService;
+    private ConcurrentHashMap<String, HostWeight> workerHostWeights;
 
     @PostConstruct
     public void init(){
-        this.selector = new LowerWeightRoundRobin();
-        this.workerHostWeightsMap = new ConcurrentHashMap<>();
-        this.lock = new ReentrantLock();
-        this.executorService = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("LowerWeightHostManagerExecutor"));
-        this.executorService.scheduleWithFixedDelay(new RefreshResourceTask(),0, 5, TimeUnit.SECONDS);
-        this.roundRobinHostManager = new RoundRobinHostManager();
-        this.roundRobinHostManager.setZookeeperNodeManager(getZookeeperNodeManager());
-    }
-
-    @PreDestroy
-    public void close(){
-        this.executorService.shutdownNow();
+        this.selector = new PowerOfTwoChoicesSelector<>(hostWeight ->
+                hostWeight.getWeight() + SLOT_USAGE_FACTOR * workerSlotManager.getSlotUsage(hostWeight.getHost().getAddress()));
+        this.workerHostWeights = new ConcurrentHashMap<>();
+        this.zookeeperNodeManager.addWorkerHeartBeatListener(this);
     }
 
     /**
@@ -104,11 +82,23 @@ public class LowerWeightHostManager extends CommonHostManager {
      */
     @Override
     public Host select(ExecutionContext context){
-        Set<HostWeight> workerHostWeights = getWorkerHostWeights(context.getWorkerGroup());
-        if(CollectionUtils.isNotEmpty(workerHostWeights)){
-            return selector.select(workerHostWeights).getHost();
+        Set<String> nodes = zookeeperNodeManager.getWorkerGroupNodes(context.getWorkerGroup());
+        if(CollectionUtils.isEmpty(nodes)){
+            return new Host();
         }
-        return new Host();
+        List<HostWeight> freeHostWeights = new ArrayList<>(nodes.size());
+        for(String node : nodes){
+            String address = Host.of(node).getAddress();
+            HostWeight hostWeight = workerHostWeights.get(address);
+            if(hostWeight != null && workerSlotManager.hasFreeSlot(address)){
+                freeHostWeights.add(hostWeight);
+            }
+        }
+        if(freeHostWeights.isEmpty()){
+            logger.warn("all workers of worker group {} are abnormal or have no free slot", context.getWorkerGroup());
+            return new Host();
+        }
+        return selector.select(freeHostWeights).getHost();
     }
 
     @Override
@@ -116,65 +106,24 @@ public class LowerWeightHostManager extends CommonHostManager {
         throw new UnsupportedOperationException("not support");
     }
 
-    private void syncWorkerHostWeight(Map<String, Set<HostWeight>> workerHostWeights){
-        lock.lock();
-        try {
-            workerHostWeightsMap.clear();
-            workerHostWeightsMap.putAll(workerHostWeights);
-        } finally {
-            lock.unlock();
-        }
-    }
-
-    private Set<HostWeight> getWorkerHostWeights(String workerGroup){
-        lock.lock();
-        try {
-            return workerHostWeightsMap.get(workerGroup);
-        } finally {
-            lock.unlock();
+    @Override
+    public void onHeartBeat(String address, HeartBeat heartBeat) {
+        workerSlotManager.reconcile(address, heartBeat.getWorkerExecThreads(), heartBeat.getWorkerExecTaskCount());
+        if (!heartBeat.isNormal()){
+            logger.warn("load is too high or availablePhysicalMemorySize(G) is too low, it's availablePhysicalMemorySize(G):{},loadAvg:{}",
+                    heartBeat.getAvailablePhysicalMemorySize(), heartBeat.getLoadAverage());
+            workerHostWeights.remove(address);
+            return;
         }
+        Host host = Host.of(address);
+        host.setStartTime(heartBeat.getStartupTime());
+        workerHostWeights.put(address, new HostWeight(host, heartBeat.getCpuUsage(), heartBeat.getMemoryUsage(), heartBeat.getLoadAverage()));
     }
 
-    class RefreshResourceTask implements Runnable{
-
-        @Override
-        public void run() {
-            try {
-                Map<String, Set<String>> workerGroupNodes = zookeeperNodeManager.getWorkerGroupNodes();
-                Set<Map.Entry<String, Set<String>>> entries = workerGroupNodes.entrySet();
-                Map<String, Set<HostWeight>> workerHostWeights = new HashMap<>();
-                for(Map.Entry<String, Set<String>> entry : entries){
-                    String workerGroup = entry.getKey();
-                    Set<String> nodes = entry.getValue();
-                    String workerGroupPath = registryCenter.getWorkerGroupPath(workerGroup);
-                    Set<HostWeight> hostWeights = new HashSet<>(nodes.size());
-                    for(String node : nodes){
-                        String heartbeat = registryCenter.getZookeeperCachedOperator().get(workerGroupPath + "/" + node);
-                        if(StringUtils.isNotEmpty(heartbeat)
-                                && heartbeat.split(COMMA).length == Constants.HEARTBEAT_FOR_ZOOKEEPER_INFO_LENGTH){
-                            String[] parts = heartbeat.split(COMMA);
-
-                            int status = Integer.parseInt(parts[8]);
-                            if (status == Constants.ABNORMAL_NODE_STATUS){
-                                logger.warn("load is too high or availablePhysicalMemorySize(G) is too low, it's availablePhysicalMemorySize(G):{},loadAvg:{}",
-                                        Double.parseDouble(parts[3]) , Double.parseDouble(parts[2]));
-                                continue;
-                            }
-
-                            double cpu = Double.parseDouble(parts[0]);
-                            double memory = Double.parseDouble(parts[1]);
-                            double loadAverage = Double.parseDouble(parts[2]);
-                            HostWeight hostWeight = new HostWeight(Host.of(node), cpu, memory, loadAverage);
-                            hostWeights.add(hostWeight);
-                        }
-                    }
-                    workerHostWeights.put(workerGroup, hostWeights);
-                }
-                syncWorkerHostWeight(workerHostWeights);
-            } catch (Throwable ex){
-                logger.error("RefreshResourceTask error", ex);
-            }
-        }
+    @Override
+    public void onRemoved(String address) {
+        workerHostWeights.remove(address);
+        workerSlotManager.remove(address);
     }
 
 }
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.host;
+
+import org.apache.dolphinscheduler.common.model.HeartBeat;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
+import org.apache.dolphinscheduler.server.registry.WorkerHeartBeatListener;
+import org.apache.dolphinscheduler.server.registry.ZookeeperNodeManager;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * queued task reclaimer
+ * <p>
+ * when a worker reports tasks waiting in its admission queue while other workers of its groups have free slots,
+ * the tasks this master dispatched to the worker last are reclaimed, so that they are dispatched to the free workers.
+ */
+@Component
+public class QueuedTaskReclaimer implements WorkerHeartBeatListener {
+
+    private final Logger logger = LoggerFactory.getLogger(QueuedTaskReclaimer.class);
+
+    /**
+     * a task is not reclaimed again before the worker replies or this expires
+     */
+    private static final long RECLAIMING_EXPIRE_SECONDS = 60;
+
+    @Autowired
+    private ZookeeperNodeManager zookeeperNodeManager;
+
+    @Autowired
+    private WorkerSlotManager workerSlotManager;
+
+    @Autowired
+    private NettyExecutorManager nettyExecutorManager;
+
+    /**
+     * task instance ids being reclaimed
+     */
+    private final Cache<Integer, Boolean> reclaimingTasks = CacheBuilder.newBuilder()
+            .expireAfterWrite(RECLAIMING_EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    @PostConstruct
+    public void init() {
+        this.zookeeperNodeManager.addWorkerHeartBeatListener(this);
+    }
+
+    @Override
+    public void onHeartBeat(String address, HeartBeat heartBeat) {
+        int waiting = heartBeat.getWorkerWaitingTaskCount();
+        if (waiting <= 0) {
+            return;
+        }
+        int reclaimCount = Math.min(waiting, getPeerFreeSlots(address));
+        if (reclaimCount <= 0) {
+            return;
+        }
+        Host host = Host.of(address);
+        for (Integer taskInstanceId : workerSlotManager.getLatestTasks(address, reclaimCount)) {
+            if (reclaimingTasks.asMap().putIfAbsent(taskInstanceId, Boolean.TRUE) == null) {
+                logger.info("reclaim task {} queued on worker {}", taskInstanceId, address);
+                nettyExecutorManager.reclaim(host, taskInstanceId);
+            }
+        }
+    }
+
+    @Override
+    public void onRemoved(String address) {
+        // tasks of a dead worker are failed over
+    }
+
+    /**
+     * get the free slots of the other normal workers sharing a worker group with the worker
+     *
+     * @param address worker address
+     * @return free slots
+     */
+    private int getPeerFreeSlots(String address) {
+        int freeSlots = 0;
+        for (String peer : zookeeperNodeManager.getWorkerPeers(address)) {
+            HeartBeat peerHeartBeat = zookeeperNodeManager.getWorkerHeartBeat(peer);
+            if (peerHeartBeat == null || !peerHeartBeat.isNormal()) {
+                continue;
+            }
+            freeSlots += Math.min(peerHeartBeat.getWorkerFreeSlots(), workerSlotManager.getFreeSlots(peer));
+        }
+        return freeSlots;
+    }
+}
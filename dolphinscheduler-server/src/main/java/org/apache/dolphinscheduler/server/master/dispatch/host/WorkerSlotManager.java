@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.dispatch.host;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * worker slot manager
+ * <p>
+ * dispatcher side view of the execution slots of every worker.
+ * a slot is occupied when a task is dispatched, moved when the task is acked by another worker,
+ * released when the task result arrives, and reconciled with the worker heartbeat periodically.
+ */
+@Component
+public class WorkerSlotManager {
+
+    /**
+     * worker address -> worker slot
+     */
+    private final ConcurrentHashMap<String, WorkerSlot> workerSlots = new ConcurrentHashMap<>();
+
+    /**
+     * task instance id -> worker address
+     */
+    private final ConcurrentHashMap<Integer, String> taskWorkers = new ConcurrentHashMap<>();
+
+    /**
+     * occupy a slot of the worker for the task,
+     * the slot previously occupied by the task on another worker is released
+     *
+     * @param address worker address
+     * @param taskInstanceId task instance id
+     */
+    public void occupy(String address, int taskInstanceId) {
+        String previous = taskWorkers.put(taskInstanceId, address);
+        if (address.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            getWorkerSlot(previous).release(taskInstanceId);
+        }
+        getWorkerSlot(address).occupy(taskInstanceId);
+    }
+
+    /**
+     * the task is acked by the worker
+     *
+     * @param taskInstanceId task instance id
+     * @param address worker address
+     */
+    public void ack(int taskInstanceId, String address) {
+        String dispatched = taskWorkers.get(taskInstanceId);
+        if (dispatched == null) {
+            // not dispatched by this master
+            return;
+        }
+        if (!dispatched.equals(address)) {
+            occupy(address, taskInstanceId);
+        }
+        getWorkerSlot(address).ack(taskInstanceId);
+    }
+
+    /**
+     * release the slot occupied by the task
+     *
+     * @param taskInstanceId task instance id
+     */
+    public void release(int taskInstanceId) {
+        String address = taskWorkers.remove(taskInstanceId);
+        if (address != null) {
+            getWorkerSlot(address).release(taskInstanceId);
+        }
+    }
+
+    /**
+     * reconcile the worker slot with the worker heartbeat
+     *
+     * @param address worker address
+     * @param slots worker execute slots, 0 if unknown
+     * @param taskCount tasks the worker holds
+     */
+    public void reconcile(String address, int slots, int taskCount) {
+        getWorkerSlot(address).reconcile(slots, taskCount);
+    }
+
+    /**
+     * drop the slots of a dead worker
+     *
+     * @param address worker address
+     */
+    public void remove(String address) {
+        workerSlots.remove(address);
+        taskWorkers.values().removeIf(address::equals);
+    }
+
+    /**
+     * whether the worker has a free slot, a worker whose slots are unknown is treated as free
+     *
+     * @param address worker address
+     * @return true if the worker has a free slot
+     */
+    public boolean hasFreeSlot(String address) {
+        WorkerSlot workerSlot = workerSlots.get(address);
+        return workerSlot == null || workerSlot.getFreeSlots() > 0;
+    }
+
+    /**
+     * get the slot usage of the worker
+     *
+     * @param address worker address
+     * @return used slots / slots, 0 if unknown
+     */
+    public double getSlotUsage(String address) {
+        WorkerSlot workerSlot = workerSlots.get(address);
+        return workerSlot == null ? 0 : workerSlot.getUsage();
+    }
+
+    /**
+     * get the free slots of the worker
+     *
+     * @param address worker address
+     * @return free slots, Integer.MAX_VALUE if unknown
+     */
+    public int getFreeSlots(String address) {
+        WorkerSlot workerSlot = workerSlots.get(address);
+        return workerSlot == null ? Integer.MAX_VALUE : workerSlot.getFreeSlots();
+    }
+
+    /**
+     * get the tasks acked by the worker, the latest dispatched first
+     *
+     * @param address worker address
+     * @param limit max number of tasks
+     * @return task instance ids
+     */
+    public List<Integer> getLatestTasks(String address, int limit) {
+        WorkerSlot workerSlot = workerSlots.get(address);
+        return workerSlot == null ? Collections.emptyList() : workerSlot.getLatestTasks(limit);
+    }
+
+    private WorkerSlot getWorkerSlot(String address) {
+        return workerSlots.computeIfAbsent(address, key -> new WorkerSlot());
+    }
+
+    /**
+     * slots of one worker
+     */
+    static class WorkerSlot {
+
+        /**
+         * execute slots of the worker, 0 if unknown
+         */
+        private int slots;
+
+        /**
+         * used slots
+         */
+        private int used;
+
+        /**
+         * tasks dispatched to the worker but not acked yet, not counted by the worker heartbeat
+         */
+        private final Set<Integer> unacked = new HashSet<>();
+
+        /**
+         * tasks dispatched to the worker, in dispatch order
+         */
+        private final Set<Integer> tasks = new LinkedHashSet<>();
+
+        /**
+         * tasks whose slot is counted by this master and given back on release,
+         * the other tasks of the worker are counted by the last heartbeat
+         */
+        private final Set<Integer> counted = new HashSet<>();
+
+        synchronized void occupy(int taskInstanceId) {
+            unacked.add(taskInstanceId);
+            if (counted.add(taskInstanceId)) {
+                used++;
+            }
+            tasks.add(taskInstanceId);
+        }
+
+        synchronized void ack(int taskInstanceId) {
+            unacked.remove(taskInstanceId);
+        }
+
+        synchronized void release(int taskInstanceId) {
+            unacked.remove(taskInstanceId);
+            tasks.remove(taskInstanceId);
+            // a task counted by the heartbeat may already be missing from it, its slot is given back by the next one
+            if (counted.remove(taskInstanceId)) {
+                used = Math.max(0, used - 1);
+            }
+        }
+
+        synchronized void reconcile(int slots, int taskCount) {
+            this.slots = slots;
+            this.used = taskCount + unacked.size();
+            counted.retainAll(unacked);
+        }
+
+        synchronized int getFreeSlots() {
+            return slots <= 0 ? Integer.MAX_VALUE : slots - used;
+        }
+
+        synchronized double getUsage() {
+            return slots <= 0 ? 0 : (double) used / slots;
+        }
+
+        synchronized List<Integer> getLatestTasks(int limit) {
+            List<Integer> acked = new ArrayList<>(tasks);
+            acked.removeAll(unacked);
+            Collections.reverse(acked);
+            return acked.size() > limit ? new ArrayList<>(acked.subList(0, limit)) : acked;
+        }
+    }
+}
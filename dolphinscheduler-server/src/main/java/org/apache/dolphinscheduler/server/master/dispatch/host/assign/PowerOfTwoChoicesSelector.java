@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.dispatch.host.assign;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * power of two choices selector
+ * <p>
+ * picks two random candidates and returns the less loaded one,
+ * which keeps concurrent dispatchers from herding onto the same lowest loaded host
+ */
+public class PowerOfTwoChoicesSelector<T> extends AbstractSelector<T> {
+
+    /**
+     * load function, lower is better
+     */
+    private final ToDoubleFunction<T> loadFunction;
+
+    public PowerOfTwoChoicesSelector(ToDoubleFunction<T> loadFunction) {
+        this.loadFunction = loadFunction;
+    }
+
+    @Override
+    protected T doSelect(Collection<T> source) {
+        List<T> candidates = new ArrayList<>(source);
+        int size = candidates.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        T firstCandidate = candidates.get(first);
+        T secondCandidate = candidates.get(second);
+        return loadFunction.applyAsDouble(secondCandidate) < loadFunction.applyAsDouble(firstCandidate)
+                ? secondCandidate : firstCandidate;
+    }
+}
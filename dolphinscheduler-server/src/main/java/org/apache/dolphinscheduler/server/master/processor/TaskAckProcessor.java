@@ -27,6 +27,8 @@ import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
 import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
 import org.apache.dolphinscheduler.server.master.cache.TaskInstanceCacheManager;
 import org.apache.dolphinscheduler.server.master.cache.impl.TaskInstanceCacheManagerImpl;
+import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
+import org.apache.dolphinscheduler.server.master.dispatch.host.WorkerSlotManager;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskResponseEvent;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskResponseService;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
@@ -53,9 +55,15 @@ public class TaskAckProcessor implements NettyRequestProcessor {
      */
     private final TaskInstanceCacheManager taskInstanceCacheManager;
 
+    /**
+     * worker slot manager
+     */
+    private final WorkerSlotManager workerSlotManager;
+
     public TaskAckProcessor(){
         this.taskResponseService = SpringApplicationContext.getBean(TaskResponseService.class);
         this.taskInstanceCacheManager = SpringApplicationContext.getBean(TaskInstanceCacheManagerImpl.class);
+        this.workerSlotManager = SpringApplicationContext.getBean(WorkerSlotManager.class);
     }
 
     /**
@@ -73,6 +81,11 @@ public class TaskAckProcessor implements NettyRequestProcessor {
 
         String workerAddress = ChannelUtils.toAddress(channel).getAddress();
 
+        workerSlotManager.ack(taskAckCommand.getTaskInstanceId(), workerAddress);
+
+        // the ack may come through the master server or through the dispatch client
+        SpringApplicationContext.getBean(NettyExecutorManager.class).ack(taskAckCommand.getTaskInstanceId());
+
         ExecutionStatus ackStatus = ExecutionStatus.of(taskAckCommand.getStatus());
 
         // TaskResponseEvent
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.common.utils.Preconditions;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskReclaimResponseCommand;
+import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.server.master.consumer.TaskPriorityQueueConsumer;
+import org.apache.dolphinscheduler.server.master.dispatch.host.WorkerSlotManager;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.Channel;
+
+/**
+ *  task reclaim response processor, dispatches a task given back by a worker again
+ */
+public class TaskReclaimResponseProcessor implements NettyRequestProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskReclaimResponseProcessor.class);
+
+    /**
+     * worker slot manager
+     */
+    private final WorkerSlotManager workerSlotManager;
+
+    public TaskReclaimResponseProcessor() {
+        this.workerSlotManager = SpringApplicationContext.getBean(WorkerSlotManager.class);
+    }
+
+    /**
+     * task reclaim response process
+     * @param channel channel channel
+     * @param command command TaskReclaimResponseCommand
+     */
+    @Override
+    public void process(Channel channel, Command command) {
+        Preconditions.checkArgument(CommandType.TASK_RECLAIM_RESPONSE == command.getType(), String.format("invalid command type : %s", command.getType()));
+        TaskReclaimResponseCommand reclaimResponseCommand = JSONUtils.parseObject(command.getBody(), TaskReclaimResponseCommand.class);
+        logger.info("task reclaim response command : {}", reclaimResponseCommand);
+
+        if (reclaimResponseCommand.isReclaimed()) {
+            workerSlotManager.release(reclaimResponseCommand.getTaskInstanceId());
+            SpringApplicationContext.getBean(TaskPriorityQueueConsumer.class).redispatch(reclaimResponseCommand.getTaskInstanceId());
+        }
+    }
+}
@@ -95,6 +95,11 @@ public class MasterBaseTaskExecThread implements Callable<Boolean> {
      */
     protected TaskTimeoutParameter taskTimeoutParameter;
 
+    /**
+     * whether the task instance is already saved to db and put into the task queue by the process instance
+     */
+    private boolean submitted = false;
+
     /**
      * constructor of MasterBaseTaskExecThread
      *
@@ -139,6 +144,15 @@ public class MasterBaseTaskExecThread implements Callable<Boolean> {
         return this.taskInstance;
     }
 
+    /**
+     * set whether the task instance is already submitted
+     *
+     * @param submitted submitted
+     */
+    public void setSubmitted(boolean submitted) {
+        this.submitted = submitted;
+    }
+
     /**
      * kill master base task exec thread
      */
@@ -146,12 +160,24 @@ public class MasterBaseTaskExecThread implements Callable<Boolean> {
         this.cancel = true;
     }
 
+    /**
+     * submit the task instance to db
+     *
+     * @return task instance
+     */
+    protected TaskInstance submitTaskToDB() {
+        return processService.submitTask(taskInstance);
+    }
+
     /**
      * submit master base task exec thread
      *
      * @return TaskInstance
      */
     protected TaskInstance submit() {
+        if (submitted) {
+            return taskInstance;
+        }
         Integer commitRetryTimes = masterConfig.getMasterTaskCommitRetryTimes();
         Integer commitRetryInterval = masterConfig.getMasterTaskCommitInterval();
 
@@ -163,7 +189,7 @@ public class MasterBaseTaskExecThread implements Callable<Boolean> {
             try {
                 if (!submitDB) {
                     // submit task to db
-                    task = processService.submitTask(taskInstance);
+                    task = submitTaskToDB();
                     if (task != null && task.getId() != 0) {
                         submitDB = true;
                     }
@@ -54,9 +54,13 @@ import org.apache.dolphinscheduler.dao.utils.DagHelper;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.utils.AlertManager;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.quartz.cron.CronUtils;
 import org.apache.dolphinscheduler.service.queue.PeerTaskInstancePriorityQueue;
+import org.apache.dolphinscheduler.service.queue.TaskPriority;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueueImpl;
 
 import org.apache.commons.io.FileUtils;
 
@@ -66,6 +70,7 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -121,6 +126,26 @@ public class MasterExecThread implements Runnable {
      */
     private Map<String, TaskInstance> completeTaskList = new ConcurrentHashMap<>();
 
+    /**
+     * count of complete tasks by state, maintained with completeTaskList
+     */
+    private Map<ExecutionStatus, Integer> completeTaskStateCount = new ConcurrentHashMap<>();
+
+    /**
+     * state of each complete task when it was counted
+     */
+    private Map<String, ExecutionStatus> completeTaskStates = new ConcurrentHashMap<>();
+
+    /**
+     * names of the failed tasks waiting for retry in readyToSubmitTaskQueue
+     */
+    private Set<String> standByRetryTasks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * valid task instances of the process instance by name
+     */
+    private Map<String, TaskInstance> taskInstanceMap = new ConcurrentHashMap<>();
+
     /**
      * ready to submit task queue
      */
@@ -177,6 +202,11 @@ public class MasterExecThread implements Runnable {
      */
     private Map<String, Object> propToValue = new ConcurrentHashMap<String, Object>();
 
+    /**
+     * task priority queue
+     */
+    private TaskPriorityQueue<TaskPriority> taskUpdateQueue;
+
     /**
      * constructor of MasterExecThread
      *
@@ -198,6 +228,7 @@ public class MasterExecThread implements Runnable {
                 masterTaskExecNum);
         this.nettyRemotingClient = nettyRemotingClient;
         this.alertManager = alertManager;
+        this.taskUpdateQueue = SpringApplicationContext.getBean(TaskPriorityQueueImpl.class);
     }
 
     @Override
@@ -384,11 +415,12 @@ public class MasterExecThread implements Runnable {
     private void buildFlowDag() throws Exception {
         recoverNodeIdList = getStartTaskInstanceList(processInstance.getCommandParam());
 
-        forbiddenTaskList = DagHelper.getForbiddenTaskNodeMaps(processInstance.getProcessInstanceJson());
+        String processInstanceJson = processService.getProcessInstanceJson(processInstance);
+        forbiddenTaskList = DagHelper.getForbiddenTaskNodeMaps(processInstanceJson);
         // generate process to get DAG info
         List<String> recoveryNameList = getRecoveryNodeNameList();
         List<String> startNodeNameList = parseStartNodeName(processInstance.getCommandParam());
-        ProcessDag processDag = generateFlowDag(processInstance.getProcessInstanceJson(),
+        ProcessDag processDag = generateFlowDag(processInstanceJson,
                 startNodeNameList, recoveryNameList, processInstance.getTaskDependType());
         if (processDag == null) {
             logger.error("processDag is null");
@@ -407,11 +439,15 @@ public class MasterExecThread implements Runnable {
         activeTaskNode.clear();
         dependFailedTask.clear();
         completeTaskList.clear();
+        completeTaskStateCount.clear();
+        completeTaskStates.clear();
         errorTaskList.clear();
+        taskInstanceMap.clear();
         List<TaskInstance> taskInstanceList = processService.findValidTaskListByProcessId(processInstance.getId());
         for (TaskInstance task : taskInstanceList) {
+            taskInstanceMap.put(task.getName(), task);
             if (task.isTaskComplete()) {
-                completeTaskList.put(task.getName(), task);
+                putCompleteTask(task);
             }
             if (task.isConditionsTask() || DagHelper.haveConditionsAfterNode(task.getName(), dag)) {
                 continue;
@@ -450,6 +486,18 @@ public class MasterExecThread implements Runnable {
      * @return TaskInstance
      */
     private TaskInstance submitTaskExec(TaskInstance taskInstance) {
+        return submitTaskExec(taskInstance, false);
+    }
+
+    /**
+     * submit task to execute
+     *
+     * @param taskInstance task instance
+     * @param submitted    whether the task instance is already saved to db and put into the task queue
+     * @return TaskInstance
+     */
+    private TaskInstance submitTaskExec(TaskInstance taskInstance, boolean submitted) {
+        taskInstanceMap.put(taskInstance.getName(), taskInstance);
         MasterBaseTaskExecThread abstractExecThread = null;
         if (taskInstance.isSubProcess()) {
             abstractExecThread = new SubProcessTaskExecThread(taskInstance);
@@ -460,26 +508,83 @@ public class MasterExecThread implements Runnable {
         } else {
             abstractExecThread = new MasterTaskExecThread(taskInstance);
         }
+        abstractExecThread.setSubmitted(submitted);
         Future<Boolean> future = taskExecService.submit(abstractExecThread);
         activeTaskNode.putIfAbsent(abstractExecThread, future);
         return abstractExecThread.getTaskInstance();
     }
 
     /**
-     * find task instance in db.
+     * submit tasks to execute, new common tasks are saved to db and put into the task queue in one batch,
+     * the others are submitted by their exec threads one by one
+     *
+     * @param taskInstances task instances
+     */
+    private void submitTaskExec(List<TaskInstance> taskInstances) {
+        List<TaskInstance> newTaskInstances = new ArrayList<>();
+        for (TaskInstance taskInstance : taskInstances) {
+            if (taskInstance.getId() == 0
+                    && !taskInstance.isSubProcess()
+                    && !taskInstance.isDependTask()
+                    && !taskInstance.isConditionsTask()) {
+                newTaskInstances.add(taskInstance);
+            } else {
+                submitTaskExec(taskInstance);
+            }
+        }
+        if (newTaskInstances.isEmpty()) {
+            return;
+        }
+        List<TaskInstance> submittedTaskInstances = Collections.emptyList();
+        try {
+            submittedTaskInstances = processService.submitNewTaskInstances(newTaskInstances);
+        } catch (Exception e) {
+            logger.error("batch submit {} tasks to db failed, submit them one by one", newTaskInstances.size(), e);
+        }
+        if (submittedTaskInstances.isEmpty()) {
+            for (TaskInstance taskInstance : newTaskInstances) {
+                taskInstance.setId(0);
+                submitTaskExec(taskInstance);
+            }
+            return;
+        }
+        for (TaskInstance taskInstance : submittedTaskInstances) {
+            submitTaskExec(taskInstance, putTaskToQueue(taskInstance));
+        }
+    }
+
+    /**
+     * put the submitted task into the task queue
+     *
+     * @param taskInstance task instance
+     * @return true if the task need not or has been put into the queue
+     */
+    private boolean putTaskToQueue(TaskInstance taskInstance) {
+        if (taskInstance.getState().typeIsFinished()) {
+            return true;
+        }
+        try {
+            taskUpdateQueue.put(new TaskPriority(processInstance.getProcessInstancePriority().getCode(),
+                    processInstance.getId(),
+                    taskInstance.getProcessInstancePriority().getCode(),
+                    taskInstance.getId(),
+                    DEFAULT_WORKER_GROUP));
+            return true;
+        } catch (Exception e) {
+            logger.error("put task {} into task queue failed", taskInstance.getName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * find valid task instance of the process instance.
      * in case submit more than one same name task in the same time.
      *
      * @param taskName task name
      * @return TaskInstance
      */
     private TaskInstance findTaskIfExists(String taskName) {
-        List<TaskInstance> taskInstanceList = processService.findValidTaskListByProcessId(this.processInstance.getId());
-        for (TaskInstance taskInstance : taskInstanceList) {
-            if (taskInstance.getName().equals(taskName)) {
-                return taskInstance;
-            }
-        }
-        return null;
+        return taskInstanceMap.get(taskName);
     }
 
     /**
@@ -642,19 +747,31 @@ public class MasterExecThread implements Runnable {
     }
 
     /**
-     * query task instance by complete state
+     * put the task into complete task list, and count it by its current state
      *
-     * @param state state
-     * @return task instance list
+     * @param taskInstance task instance
      */
-    private List<TaskInstance> getCompleteTaskByState(ExecutionStatus state) {
-        List<TaskInstance> resultList = new ArrayList<>();
-        for (Map.Entry<String, TaskInstance> entry : completeTaskList.entrySet()) {
-            if (entry.getValue().getState() == state) {
-                resultList.add(entry.getValue());
-            }
+    private void putCompleteTask(TaskInstance taskInstance) {
+        completeTaskList.put(taskInstance.getName(), taskInstance);
+        ExecutionStatus state = taskInstance.getState();
+        ExecutionStatus countedState = completeTaskStates.put(taskInstance.getName(), state);
+        if (countedState == state) {
+            return;
+        }
+        if (countedState != null) {
+            completeTaskStateCount.computeIfPresent(countedState, (key, count) -> count > 1 ? count - 1 : null);
         }
-        return resultList;
+        completeTaskStateCount.merge(state, 1, Integer::sum);
+    }
+
+    /**
+     * count complete task by state
+     *
+     * @param state state
+     * @return count of complete tasks in the state
+     */
+    private int getCompleteTaskCountByState(ExecutionStatus state) {
+        return completeTaskStateCount.getOrDefault(state, 0);
     }
 
     /**
@@ -714,8 +831,7 @@ public class MasterExecThread implements Runnable {
      * @return Boolean whether has waiting thread task
      */
     private boolean hasWaitingThreadTask() {
-        List<TaskInstance> waitingList = getCompleteTaskByState(ExecutionStatus.WAITTING_THREAD);
-        return CollectionUtils.isNotEmpty(waitingList);
+        return getCompleteTaskCountByState(ExecutionStatus.WAITTING_THREAD) > 0;
     }
 
     /**
@@ -731,8 +847,7 @@ public class MasterExecThread implements Runnable {
             return ExecutionStatus.FAILURE;
         }
 
-        List<TaskInstance> pauseList = getCompleteTaskByState(ExecutionStatus.PAUSE);
-        if (CollectionUtils.isNotEmpty(pauseList)
+        if (getCompleteTaskCountByState(ExecutionStatus.PAUSE) > 0
                 || !isComplementEnd()
                 || readyToSubmitTaskQueue.size() > 0) {
             return ExecutionStatus.PAUSE;
@@ -744,10 +859,10 @@ public class MasterExecThread implements Runnable {
     /**
      * generate the latest process instance status by the tasks state
      *
+     * @param instance the latest process instance in db
      * @return process instance execution status
      */
-    private ExecutionStatus getProcessInstanceState() {
-        ProcessInstance instance = processService.findProcessInstanceById(processInstance.getId());
+    private ExecutionStatus getProcessInstanceState(ProcessInstance instance) {
         ExecutionStatus state = instance.getState();
 
         if (activeTaskNode.size() > 0 || hasRetryTaskInStandBy()) {
@@ -771,10 +886,8 @@ public class MasterExecThread implements Runnable {
 
         // stop
         if (state == ExecutionStatus.READY_STOP) {
-            List<TaskInstance> stopList = getCompleteTaskByState(ExecutionStatus.STOP);
-            List<TaskInstance> killList = getCompleteTaskByState(ExecutionStatus.KILL);
-            if (CollectionUtils.isNotEmpty(stopList)
-                    || CollectionUtils.isNotEmpty(killList)
+            if (getCompleteTaskCountByState(ExecutionStatus.STOP) > 0
+                    || getCompleteTaskCountByState(ExecutionStatus.KILL) > 0
                     || !isComplementEnd()) {
                 return ExecutionStatus.STOP;
             } else {
@@ -784,11 +897,10 @@ public class MasterExecThread implements Runnable {
 
         // success
         if (state == ExecutionStatus.RUNNING_EXECUTION) {
-            List<TaskInstance> killTasks = getCompleteTaskByState(ExecutionStatus.KILL);
             if (readyToSubmitTaskQueue.size() > 0) {
                 //tasks currently pending submission, no retries, indicating that depend is waiting to complete
                 return ExecutionStatus.RUNNING_EXECUTION;
-            } else if (CollectionUtils.isNotEmpty(killTasks)) {
+            } else if (getCompleteTaskCountByState(ExecutionStatus.KILL) > 0) {
                 // tasks maybe killed manually
                 return ExecutionStatus.FAILURE;
             } else {
@@ -800,23 +912,6 @@ public class MasterExecThread implements Runnable {
         return state;
     }
 
-    /**
-     * whether standby task list have retry tasks
-     */
-    private boolean retryTaskExists() {
-
-        boolean result = false;
-
-        for (Iterator<TaskInstance> iter = readyToSubmitTaskQueue.iterator(); iter.hasNext(); ) {
-            TaskInstance task = iter.next();
-            if (task.getState().typeIsFailure()) {
-                result = true;
-                break;
-            }
-        }
-        return result;
-    }
-
     /**
      * whether complement end
      *
@@ -842,7 +937,8 @@ public class MasterExecThread implements Runnable {
      * after each batch of tasks is executed, the status of the process instance is updated
      */
     private void updateProcessInstanceState() {
-        ExecutionStatus state = getProcessInstanceState();
+        ProcessInstance instance = processService.findProcessInstanceById(processInstance.getId());
+        ExecutionStatus state = getProcessInstanceState(instance);
         if (processInstance.getState() != state) {
             logger.info(
                     "work flow process instance [id: {}, name:{}], state change from {} to {}, cmd type: {}",
@@ -850,7 +946,6 @@ public class MasterExecThread implements Runnable {
                     processInstance.getState(), state,
                     processInstance.getCommandType());
 
-            ProcessInstance instance = processService.findProcessInstanceById(processInstance.getId());
             instance.setState(state);
             instance.setProcessDefinition(processInstance.getProcessDefinition());
             processService.updateProcessInstance(instance);
@@ -877,6 +972,9 @@ public class MasterExecThread implements Runnable {
         logger.info("add task to stand by list: {}", taskInstance.getName());
         try {
             readyToSubmitTaskQueue.put(taskInstance);
+            if (taskInstance.getState().typeIsFailure()) {
+                standByRetryTasks.add(taskInstance.getName());
+            }
         } catch (Exception e) {
             logger.error("add task instance to readyToSubmitTaskQueue error");
         }
@@ -891,6 +989,7 @@ public class MasterExecThread implements Runnable {
         logger.info("remove task from stand by list: {}", taskInstance.getName());
         try {
             readyToSubmitTaskQueue.remove(taskInstance);
+            standByRetryTasks.remove(taskInstance.getName());
         } catch (Exception e) {
             logger.error("remove task instance from readyToSubmitTaskQueue error");
         }
@@ -902,12 +1001,7 @@ public class MasterExecThread implements Runnable {
      * @return Boolean whether has retry task in standby
      */
     private boolean hasRetryTaskInStandBy() {
-        for (Iterator<TaskInstance> iter = readyToSubmitTaskQueue.iterator(); iter.hasNext(); ) {
-            if (iter.next().getState().typeIsFailure()) {
-                return true;
-            }
-        }
-        return false;
+        return !standByRetryTasks.isEmpty();
     }
 
     /**
@@ -941,6 +1035,7 @@ public class MasterExecThread implements Runnable {
                     activeTaskNode.remove(entry.getKey());
                     continue;
                 }
+                taskInstanceMap.put(task.getName(), task);
 
                 // node monitor thread complete
                 if (task.getState().typeIsFinished()) {
@@ -953,7 +1048,7 @@ public class MasterExecThread implements Runnable {
                 if (task.getState() == ExecutionStatus.SUCCESS) {
                     processInstance.setVarPool(task.getVarPool());
                     processService.updateProcessInstance(processInstance);
-                    completeTaskList.put(task.getName(), task);
+                    putCompleteTask(task);
                     submitPostNode(task.getName());
                     continue;
                 }
@@ -965,7 +1060,7 @@ public class MasterExecThread implements Runnable {
                     if (task.taskCanRetry()) {
                         addTaskToStandByList(task);
                     } else {
-                        completeTaskList.put(task.getName(), task);
+                        putCompleteTask(task);
                         if (task.isConditionsTask()
                                 || DagHelper.haveConditionsAfterNode(task.getName(), dag)) {
                             submitPostNode(task.getName());
@@ -979,7 +1074,7 @@ public class MasterExecThread implements Runnable {
                     continue;
                 }
                 // other status stop/pause
-                completeTaskList.put(task.getName(), task);
+                putCompleteTask(task);
             }
             // send alert
             if (CollectionUtils.isNotEmpty(this.recoverToleranceFaultTaskList)) {
@@ -991,30 +1086,16 @@ public class MasterExecThread implements Runnable {
             // if a task fails, other suspended tasks need to be reset kill
             // check if there exists forced success nodes in errorTaskList
             if (errorTaskList.size() > 0) {
-                for (Map.Entry<String, TaskInstance> entry : completeTaskList.entrySet()) {
-                    TaskInstance completeTask = entry.getValue();
-                    if (completeTask.getState() == ExecutionStatus.PAUSE) {
-                        completeTask.setState(ExecutionStatus.KILL);
-                        completeTaskList.put(entry.getKey(), completeTask);
-                        processService.updateTaskInstance(completeTask);
-                    }
-                }
-                for (Map.Entry<String, TaskInstance> entry : errorTaskList.entrySet()) {
-                    TaskInstance errorTask = entry.getValue();
-                    TaskInstance currentTask = processService.findTaskInstanceById(errorTask.getId());
-                    if (currentTask == null) {
-                        continue;
-                    }
-                    // for nodes that have been forced success
-                    if (errorTask.getState().typeIsFailure() && currentTask.getState().equals(ExecutionStatus.FORCED_SUCCESS)) {
-                        // update state in this thread and remove from errorTaskList
-                        errorTask.setState(currentTask.getState());
-                        logger.info("task: {} has been forced success, remove it from error task list", errorTask.getName());
-                        errorTaskList.remove(errorTask.getName());
-                        // submit post nodes
-                        submitPostNode(errorTask.getName());
+                if (getCompleteTaskCountByState(ExecutionStatus.PAUSE) > 0) {
+                    for (TaskInstance completeTask : completeTaskList.values()) {
+                        if (completeTask.getState() == ExecutionStatus.PAUSE) {
+                            completeTask.setState(ExecutionStatus.KILL);
+                            putCompleteTask(completeTask);
+                            processService.updateTaskInstance(completeTask);
+                        }
                     }
                 }
+                checkForcedSuccessTasks();
             }
             if (canSubmitTaskToQueue()) {
                 submitStandByTask();
@@ -1031,6 +1112,31 @@ public class MasterExecThread implements Runnable {
         logger.info("process:{} end, state :{}", processInstance.getId(), processInstance.getState());
     }
 
+    /**
+     * check whether the error tasks have been forced success, in one query for all error tasks
+     */
+    private void checkForcedSuccessTasks() {
+        List<Integer> errorTaskIds = new ArrayList<>(errorTaskList.size());
+        for (TaskInstance errorTask : errorTaskList.values()) {
+            errorTaskIds.add(errorTask.getId());
+        }
+        for (TaskInstance currentTask : processService.findTaskInstanceByIdList(errorTaskIds)) {
+            TaskInstance errorTask = errorTaskList.get(currentTask.getName());
+            // for nodes that have been forced success
+            if (errorTask != null
+                    && errorTask.getState().typeIsFailure()
+                    && currentTask.getState().equals(ExecutionStatus.FORCED_SUCCESS)) {
+                // update state in this thread and remove from errorTaskList
+                errorTask.setState(currentTask.getState());
+                putCompleteTask(errorTask);
+                logger.info("task: {} has been forced success, remove it from error task list", errorTask.getName());
+                errorTaskList.remove(errorTask.getName());
+                // submit post nodes
+                submitPostNode(errorTask.getName());
+            }
+        }
+    }
+
     /**
      * whether check process time out
      *
@@ -1111,6 +1217,7 @@ public class MasterExecThread implements Runnable {
      * handling the list of tasks to be submitted
      */
     private void submitStandByTask() {
+        List<TaskInstance> submitTasks = new ArrayList<>();
         try {
             int length = readyToSubmitTaskQueue.size();
             for (int i = 0; i < length; i++) {
@@ -1122,7 +1229,7 @@ public class MasterExecThread implements Runnable {
                         task.setState(retryTask.getState());
                         logger.info("task: {} has been forced success, put it into complete task list and stop retrying", task.getName());
                         removeTaskFromStandbyList(task);
-                        completeTaskList.put(task.getName(), task);
+                        putCompleteTask(task);
                         submitPostNode(task.getName());
                         continue;
                     }
@@ -1130,7 +1237,7 @@ public class MasterExecThread implements Runnable {
                 DependResult dependResult = getDependResultForTask(task);
                 if (DependResult.SUCCESS == dependResult) {
                     if (retryTaskIntervalOverTime(task)) {
-                        submitTaskExec(task);
+                        submitTasks.add(task);
                         removeTaskFromStandbyList(task);
                     }
                 } else if (DependResult.FAILED == dependResult) {
@@ -1143,6 +1250,7 @@ public class MasterExecThread implements Runnable {
         } catch (Exception e) {
             logger.error("submit standby task error", e);
         }
+        submitTaskExec(submitTasks);
     }
 
     /**
@@ -36,16 +36,17 @@ import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.utils.AlertManager;
 import org.apache.dolphinscheduler.server.zk.ZKMasterClient;
 import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.apache.dolphinscheduler.service.process.SubProcessLauncher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 /**
- *  master scheduler thread
+ *  master scheduler thread, it also launches the sub process instances of the processes running on this master
  */
 @Service
-public class MasterSchedulerService extends Thread {
+public class MasterSchedulerService extends Thread implements SubProcessLauncher {
 
     /**
      * logger of MasterSchedulerService
@@ -73,7 +74,7 @@ public class MasterSchedulerService extends Thread {
     /**
      * alert manager
      */
-    private AlertManager alertManager = new AlertManager();
+    private AlertManager alertManager;
 
     /**
      *  netty remoting client
@@ -85,6 +86,21 @@ public class MasterSchedulerService extends Thread {
      */
     private ThreadPoolExecutor masterExecService;
 
+    /**
+     * number of threads reserved by the command scan and by the sub process instances not yet put into master exec service
+     */
+    private int reservedThreadNum;
+
+    /**
+     * lock of the thread reservation
+     */
+    private final Object reserveLock = new Object();
+
+    /**
+     * notifier of the process instances finished on this master
+     */
+    private final ProcessInstanceFinishNotifier finishNotifier = new ProcessInstanceFinishNotifier();
+
 
     /**
      * constructor of MasterSchedulerService
@@ -92,6 +108,7 @@ public class MasterSchedulerService extends Thread {
     @PostConstruct
     public void init(){
         this.masterExecService = (ThreadPoolExecutor)ThreadUtils.newDaemonFixedThreadExecutor("Master-Exec-Thread", masterConfig.getMasterExecThreads());
+        this.alertManager = new AlertManager(masterConfig.getMasterAlertCoalesceWindow(), masterConfig.getMasterAlertCoalesceTopN());
         NettyClientConfig clientConfig = new NettyClientConfig();
         this.nettyRemotingClient = new NettyRemotingClient(clientConfig);
     }
@@ -114,6 +131,7 @@ public class MasterSchedulerService extends Thread {
             logger.warn("masterExecService shutdown without terminated, increase await time");
         }
         nettyRemotingClient.close();
+        alertManager.close();
         logger.info("master schedule service stopped...");
     }
 
@@ -144,30 +162,28 @@ public class MasterSchedulerService extends Thread {
         try {
             mutex = zkMasterClient.blockAcquireMutex();
 
-            int activeCount = masterExecService.getActiveCount();
             // make sure to scan and delete command  table in one transaction
             Command command = processService.findOneCommand();
             if (command != null) {
                 logger.info("find one command: id: {}, type: {}", command.getId(),command.getCommandType());
 
+                // the valid threads are reserved until the process instance is put into master exec service,
+                // so sub processes launched meanwhile do not take them
+                int validThreadNum = reserveValidThreads();
                 try {
 
                     ProcessInstance processInstance = processService.handleCommand(logger,
                             getLocalAddress(),
-                            this.masterConfig.getMasterExecThreads() - activeCount, command);
+                            validThreadNum, command);
                     if (processInstance != null) {
                         logger.info("start master exec thread , split DAG ...");
-                        masterExecService.execute(
-                                new MasterExecThread(
-                                        processInstance
-                                        , processService
-                                        , nettyRemotingClient
-                                        , alertManager
-                                        , masterConfig));
+                        execute(processInstance);
                     }
                 } catch (Exception e) {
                     logger.error("scan command error ", e);
                     processService.moveToErrorCommand(command, e.toString());
+                } finally {
+                    release(validThreadNum);
                 }
             } else {
                 //indicate that no command ,sleep for 1s
@@ -181,4 +197,107 @@ public class MasterSchedulerService extends Thread {
     private String getLocalAddress() {
         return NetUtils.getAddr(masterConfig.getListenPort());
     }
+
+    /**
+     * run a process instance in master exec service, the watchers of the instance are notified when it ends
+     *
+     * @param processInstance process instance
+     */
+    private void execute(ProcessInstance processInstance) {
+        MasterExecThread masterExecThread = new MasterExecThread(
+                processInstance
+                , processService
+                , nettyRemotingClient
+                , alertManager
+                , masterConfig);
+        masterExecService.execute(() -> {
+            try {
+                masterExecThread.run();
+            } finally {
+                finishNotifier.notifyFinished(processInstance.getId());
+            }
+        });
+    }
+
+    /**
+     * number of threads of master exec service that are not taken by running, queued or reserved process instances
+     *
+     * @return valid thread num
+     */
+    private int getValidThreadNum() {
+        synchronized (reserveLock) {
+            return masterConfig.getMasterExecThreads() - masterExecService.getActiveCount()
+                    - masterExecService.getQueue().size() - reservedThreadNum;
+        }
+    }
+
+    /**
+     * reserve all valid threads
+     *
+     * @return number of threads reserved
+     */
+    private int reserveValidThreads() {
+        synchronized (reserveLock) {
+            int validThreadNum = Math.max(0, getValidThreadNum());
+            reservedThreadNum += validThreadNum;
+            return validThreadNum;
+        }
+    }
+
+    private void release(int threadNum) {
+        synchronized (reserveLock) {
+            reservedThreadNum -= threadNum;
+        }
+    }
+
+    /**
+     * get the sub process launcher of this master
+     *
+     * @return null if sub processes are always submitted as command
+     */
+    public SubProcessLauncher getSubProcessLauncher() {
+        return masterConfig.isMasterSubProcessLocalLaunch() ? this : null;
+    }
+
+    /**
+     * get the notifier of the process instances finished on this master
+     *
+     * @return finish notifier
+     */
+    public ProcessInstanceFinishNotifier getFinishNotifier() {
+        return finishNotifier;
+    }
+
+    @Override
+    public String getHost() {
+        return getLocalAddress();
+    }
+
+    @Override
+    public boolean reserve(int threadNum) {
+        synchronized (reserveLock) {
+            if (!Stopper.isRunning() || getValidThreadNum() < threadNum) {
+                return false;
+            }
+            reservedThreadNum += threadNum;
+            return true;
+        }
+    }
+
+    @Override
+    public void launch(ProcessInstance subProcessInstance, int threadNum) {
+        try {
+            logger.info("launch sub process instance {} in place", subProcessInstance.getId());
+            execute(subProcessInstance);
+        } catch (Exception e) {
+            logger.error("launch sub process instance {} error, it is recovered by failover", subProcessInstance.getId(), e);
+        } finally {
+            release(threadNum);
+        }
+    }
+
+    @Override
+    public void cancel(int threadNum) {
+        release(threadNum);
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * in memory notification of the process instances executed by this master,
+ * a sub process task watching its sub process instance wakes up when it finishes instead of at the next poll
+ */
+public class ProcessInstanceFinishNotifier {
+
+    /**
+     * process instance id -> latch released when its exec thread ends
+     */
+    private final Map<Integer, CountDownLatch> watchers = new ConcurrentHashMap<>();
+
+    /**
+     * watch a process instance, the latch is released when the exec thread of the instance ends on this master.
+     * a released latch is not watched anymore, the next watch returns a new latch
+     *
+     * @param processInstanceId process instance id
+     * @return latch
+     */
+    public CountDownLatch watch(int processInstanceId) {
+        return watchers.computeIfAbsent(processInstanceId, id -> new CountDownLatch(1));
+    }
+
+    /**
+     * stop watching a process instance
+     *
+     * @param processInstanceId process instance id
+     */
+    public void unwatch(int processInstanceId) {
+        watchers.remove(processInstanceId);
+    }
+
+    /**
+     * notify that the exec thread of a process instance ends
+     *
+     * @param processInstanceId process instance id
+     */
+    public void notifyFinished(int processInstanceId) {
+        CountDownLatch latch = watchers.remove(processInstanceId);
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    /**
+     * number of watched process instances
+     *
+     * @return size
+     */
+    int size() {
+        return watchers.size();
+    }
+}
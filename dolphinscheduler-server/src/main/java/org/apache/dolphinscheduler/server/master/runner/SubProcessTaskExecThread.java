@@ -21,8 +21,12 @@ import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.common.thread.Stopper;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
+import org.apache.dolphinscheduler.service.process.SubProcessLauncher;
 
 import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  *  subflow task exec thread
@@ -34,12 +38,35 @@ public class SubProcessTaskExecThread extends MasterBaseTaskExecThread {
      */
     private ProcessInstance subProcessInstance;
 
+    /**
+     * launcher of the sub process on this master, null if the sub process is submitted as command
+     */
+    private SubProcessLauncher subProcessLauncher;
+
+    /**
+     * notifier of the process instances finished on this master
+     */
+    private ProcessInstanceFinishNotifier finishNotifier;
+
     /**
      * sub process task exec thread
      * @param taskInstance      task instance
      */
     public SubProcessTaskExecThread(TaskInstance taskInstance){
         super(taskInstance);
+        MasterSchedulerService masterSchedulerService = SpringApplicationContext.getBean(MasterSchedulerService.class);
+        if (masterSchedulerService != null) {
+            this.subProcessLauncher = masterSchedulerService.getSubProcessLauncher();
+            this.finishNotifier = masterSchedulerService.getFinishNotifier();
+        }
+    }
+
+    @Override
+    protected TaskInstance submitTaskToDB() {
+        if (subProcessLauncher == null) {
+            return super.submitTaskToDB();
+        }
+        return processService.submitTask(taskInstance, subProcessLauncher);
     }
 
     @Override
@@ -127,34 +154,59 @@ public class SubProcessTaskExecThread extends MasterBaseTaskExecThread {
                     this.processInstance.getState());
             return;
         }
-        while (Stopper.isRunning()) {
-            // waiting for subflow process instance establishment
-            if (subProcessInstance == null) {
-                Thread.sleep(Constants.SLEEP_TIME_MILLIS);
-                if(!setTaskInstanceState()){
-                    continue;
+        try {
+            while (Stopper.isRunning()) {
+                // waiting for subflow process instance establishment
+                if (subProcessInstance == null) {
+                    Thread.sleep(Constants.SLEEP_TIME_MILLIS);
+                    if (!setTaskInstanceState()) {
+                        continue;
+                    }
+                }
+                // watch before reading the state, so that a sub process finishing in between is not missed
+                CountDownLatch finished = watchSubProcess();
+                subProcessInstance = processService.findProcessInstanceById(subProcessInstance.getId());
+                if (checkTaskTimeout()) {
+                    this.checkTimeoutFlag = !alertTimeout();
+                    handleTimeoutFailed();
+                }
+                updateParentProcessState();
+                if (subProcessInstance.getState().typeIsFinished()) {
+                    break;
+                }
+                if (this.processInstance.getState() == ExecutionStatus.READY_PAUSE) {
+                    // parent process "ready to pause" , child process "pause"
+                    pauseSubProcess();
+                } else if (this.cancel || this.processInstance.getState() == ExecutionStatus.READY_STOP) {
+                    // parent Process "Ready to Cancel" , subflow "Cancel"
+                    stopSubProcess();
+                }
+                if (finished == null) {
+                    Thread.sleep(Constants.SLEEP_TIME_MILLIS);
+                } else {
+                    // a sub process running on this master wakes the task up when it finishes
+                    finished.await(Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
                 }
             }
-            subProcessInstance = processService.findProcessInstanceById(subProcessInstance.getId());
-            if (checkTaskTimeout()) {
-                this.checkTimeoutFlag = !alertTimeout();
-                handleTimeoutFailed();
-            }
-            updateParentProcessState();
-            if (subProcessInstance.getState().typeIsFinished()){
-                break;
-            }
-            if(this.processInstance.getState() == ExecutionStatus.READY_PAUSE){
-                // parent process "ready to pause" , child process "pause"
-                pauseSubProcess();
-            }else if(this.cancel || this.processInstance.getState() == ExecutionStatus.READY_STOP){
-                // parent Process "Ready to Cancel" , subflow "Cancel"
-                stopSubProcess();
+        } finally {
+            if (finishNotifier != null && subProcessInstance != null) {
+                finishNotifier.unwatch(subProcessInstance.getId());
             }
-            Thread.sleep(Constants.SLEEP_TIME_MILLIS);
         }
     }
 
+    /**
+     * watch the sub process instance on this master
+     *
+     * @return latch released when the sub process finishes on this master, null if it is not watched
+     */
+    private CountDownLatch watchSubProcess() {
+        if (finishNotifier == null) {
+            return null;
+        }
+        return finishNotifier.watch(subProcessInstance.getId());
+    }
+
     /**
      * stop sub process
      */
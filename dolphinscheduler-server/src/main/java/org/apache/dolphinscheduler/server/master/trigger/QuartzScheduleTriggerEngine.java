@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.trigger;
+
+import org.apache.dolphinscheduler.service.quartz.QuartzExecutors;
+
+import org.quartz.SchedulerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * quartz schedule trigger engine, the schedules are jobs in the clustered jdbc job store
+ * and every master acquires the triggers under the quartz database locks
+ */
+public class QuartzScheduleTriggerEngine implements ScheduleTriggerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuartzScheduleTriggerEngine.class);
+
+    @Override
+    public void start() {
+        // what system should do if exception
+        try {
+            logger.info("start Quartz server...");
+            QuartzExecutors.getInstance().start();
+        } catch (Exception e) {
+            try {
+                QuartzExecutors.getInstance().shutdown();
+            } catch (SchedulerException e1) {
+                logger.error("QuartzExecutors shutdown failed : " + e1.getMessage(), e1);
+            }
+            logger.error("start Quartz failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            QuartzExecutors.getInstance().shutdown();
+            logger.info("Quartz service stopped");
+        } catch (Exception e) {
+            logger.warn("Quartz service stopped exception:{}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.trigger;
+
+import org.apache.dolphinscheduler.dao.entity.Schedule;
+
+import java.util.Date;
+import java.util.Objects;
+
+import org.quartz.CronExpression;
+
+/**
+ * trigger of a schedule owned by this master
+ */
+public class ScheduleTrigger {
+
+    /**
+     * schedule
+     */
+    private final Schedule schedule;
+
+    /**
+     * cron expression of the schedule
+     */
+    private final CronExpression cronExpression;
+
+    /**
+     * scheduled time of the last fire, null if it is not known
+     */
+    private Date lastFireTime;
+
+    /**
+     * scheduled time of the next fire, null if the schedule does not fire anymore
+     */
+    private Date nextFireTime;
+
+    public ScheduleTrigger(Schedule schedule, CronExpression cronExpression) {
+        this.schedule = schedule;
+        this.cronExpression = cronExpression;
+    }
+
+    /**
+     * compute the first fire time after a time, within the start and end time of the schedule
+     *
+     * @param after time
+     * @return fire time, null if there is no fire after the time
+     */
+    public Date computeFireTimeAfter(Date after) {
+        Date from = after;
+        if (schedule.getStartTime() != null && schedule.getStartTime().after(from)) {
+            // the start time itself may fire
+            from = new Date(schedule.getStartTime().getTime() - 1);
+        }
+        Date fireTime = cronExpression.getNextValidTimeAfter(from);
+        if (fireTime == null || (schedule.getEndTime() != null && fireTime.after(schedule.getEndTime()))) {
+            return null;
+        }
+        return fireTime;
+    }
+
+    /**
+     * whether the schedule fires as the given one
+     *
+     * @param other schedule
+     * @return true if the cron, start time and end time are the same and the schedule is not updated
+     */
+    public boolean isSameSchedule(Schedule other) {
+        return Objects.equals(schedule.getUpdateTime(), other.getUpdateTime())
+                && Objects.equals(schedule.getCrontab(), other.getCrontab())
+                && Objects.equals(schedule.getStartTime(), other.getStartTime())
+                && Objects.equals(schedule.getEndTime(), other.getEndTime());
+    }
+
+    public int getScheduleId() {
+        return schedule.getId();
+    }
+
+    public Schedule getSchedule() {
+        return schedule;
+    }
+
+    public Date getLastFireTime() {
+        return lastFireTime;
+    }
+
+    public void setLastFireTime(Date lastFireTime) {
+        this.lastFireTime = lastFireTime;
+    }
+
+    public Date getNextFireTime() {
+        return nextFireTime;
+    }
+
+    public void setNextFireTime(Date nextFireTime) {
+        this.nextFireTime = nextFireTime;
+    }
+}
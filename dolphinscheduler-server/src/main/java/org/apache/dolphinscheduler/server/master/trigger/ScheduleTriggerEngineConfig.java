@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.trigger;
+
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * schedule trigger engine config
+ */
+@Configuration
+public class ScheduleTriggerEngineConfig {
+
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    @Autowired
+    public ScheduleTriggerEngineConfig(AutowireCapableBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Bean
+    public ScheduleTriggerEngine scheduleTriggerEngine() {
+        String engine = masterConfig.getMasterScheduleTriggerEngine();
+        ScheduleTriggerEngine scheduleTriggerEngine;
+        switch (ScheduleTriggerEngineType.of(engine)) {
+            case QUARTZ:
+                scheduleTriggerEngine = new QuartzScheduleTriggerEngine();
+                break;
+            case SHARDED:
+                scheduleTriggerEngine = new ShardedScheduleTriggerEngine();
+                break;
+            default:
+                throw new IllegalArgumentException("unSupport schedule trigger engine " + engine);
+        }
+        beanFactory.autowireBean(scheduleTriggerEngine);
+        return scheduleTriggerEngine;
+    }
+}
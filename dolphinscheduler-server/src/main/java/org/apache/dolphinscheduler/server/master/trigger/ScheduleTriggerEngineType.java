@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.trigger;
+
+/**
+ * schedule trigger engine type
+ */
+public enum ScheduleTriggerEngineType {
+
+    /**
+     * schedules are quartz jobs in the clustered jdbc job store
+     */
+    QUARTZ,
+
+    /**
+     * schedules are sharded across the masters and triggered from memory
+     */
+    SHARDED;
+
+    public static ScheduleTriggerEngineType of(String engine) {
+        for (ScheduleTriggerEngineType type : values()) {
+            if (type.name().equalsIgnoreCase(engine)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("invalid schedule trigger engine : " + engine);
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.trigger;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.thread.Stopper;
+import org.apache.dolphinscheduler.common.utils.NetUtils;
+import org.apache.dolphinscheduler.dao.entity.Schedule;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.registry.ZookeeperNodeManager;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.apache.dolphinscheduler.service.quartz.cron.CronUtils;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * sharded schedule trigger engine.
+ * the online schedules are sharded across the masters by consistent hashing of the schedule id over the masters in zookeeper,
+ * each master keeps the next fire times of its schedules in a heap and fires the due schedules in batches,
+ * one transaction inserts the commands of a batch and records the fires.
+ * a master taking over a schedule, when a master joins or leaves, catches up the fires after the recorded one within the catch up window
+ */
+public class ShardedScheduleTriggerEngine implements ScheduleTriggerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedScheduleTriggerEngine.class);
+
+    /**
+     * max time to wait for the next fire, the master membership is checked at least at this interval
+     */
+    private static final long MAX_WAIT_MILLIS = 1000L;
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private ZookeeperNodeManager zookeeperNodeManager;
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    /**
+     * schedule id -> trigger of the schedules owned by this master
+     */
+    private Map<Integer, ScheduleTrigger> triggers = new HashMap<>();
+
+    /**
+     * triggers by next fire time
+     */
+    private PriorityQueue<ScheduleTrigger> triggerQueue = newTriggerQueue();
+
+    /**
+     * ring of the masters the schedules are sharded across
+     */
+    private ConsistentHashRing ring = new ConsistentHashRing(new HashSet<>());
+
+    /**
+     * time of the next schedule reload
+     */
+    private long nextRefreshTime;
+
+    private volatile boolean running;
+
+    private Thread triggerThread;
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        triggerThread = new Thread(this::run, "ShardedScheduleTriggerEngine");
+        triggerThread.setDaemon(true);
+        triggerThread.start();
+        logger.info("sharded schedule trigger engine started");
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        triggerThread.interrupt();
+        try {
+            triggerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("sharded schedule trigger engine stopped");
+    }
+
+    /**
+     * trigger loop, all the triggers are only accessed from this thread
+     */
+    private void run() {
+        while (running && Stopper.isRunning()) {
+            try {
+                long now = System.currentTimeMillis();
+                if (now >= nextRefreshTime || isMembershipChanged()) {
+                    refresh(new Date(now));
+                    nextRefreshTime = now + TimeUnit.SECONDS.toMillis(masterConfig.getMasterScheduleTriggerRefreshInterval());
+                }
+                if (fireDueTriggers(new Date(now)) > 0) {
+                    continue;
+                }
+                ScheduleTrigger head = triggerQueue.peek();
+                long wait = Math.min(nextRefreshTime, head == null ? Long.MAX_VALUE : head.getNextFireTime().getTime()) - now;
+                Thread.sleep(Math.max(1L, Math.min(wait, MAX_WAIT_MILLIS)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("schedule trigger engine error, retry later", e);
+                try {
+                    Thread.sleep(Constants.SLEEP_TIME_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * whether the masters in zookeeper differ from the masters of the ring
+     *
+     * @return true if a master joined or left
+     */
+    private boolean isMembershipChanged() {
+        return !ring.getNodes().equals(new HashSet<>(zookeeperNodeManager.getMasterNodes()));
+    }
+
+    /**
+     * reload the online schedules and keep the ones owned by this master.
+     * an unchanged schedule keeps its trigger, a changed one fires from now on,
+     * a schedule taken over from another master catches up from its last recorded fire
+     *
+     * @param now current time
+     */
+    void refresh(Date now) {
+        Set<String> masters = new HashSet<>(zookeeperNodeManager.getMasterNodes());
+        if (!masters.equals(ring.getNodes())) {
+            logger.info("masters changed from {} to {}, reshard schedules", ring.getNodes(), masters);
+            ring = new ConsistentHashRing(masters);
+        }
+        String localAddress = NetUtils.getAddr(masterConfig.getListenPort());
+        if (!masters.contains(localAddress)) {
+            logger.warn("master {} is not registered in {}, no schedule is triggered", localAddress, masters);
+        }
+
+        Map<Integer, ScheduleTrigger> ownedTriggers = new HashMap<>();
+        List<ScheduleTrigger> takenOver = new ArrayList<>();
+        for (Schedule schedule : processService.queryOnlineSchedules()) {
+            if (!localAddress.equals(ring.getNode(String.valueOf(schedule.getId())))) {
+                continue;
+            }
+            ScheduleTrigger trigger = triggers.get(schedule.getId());
+            if (trigger != null && trigger.isSameSchedule(schedule)) {
+                ownedTriggers.put(schedule.getId(), trigger);
+                continue;
+            }
+            ScheduleTrigger newTrigger;
+            try {
+                newTrigger = new ScheduleTrigger(schedule, CronUtils.parse2CronExpression(schedule.getCrontab()));
+            } catch (ParseException e) {
+                logger.error("invalid crontab {} of schedule {}", schedule.getCrontab(), schedule.getId(), e);
+                continue;
+            }
+            if (trigger == null) {
+                takenOver.add(newTrigger);
+            } else {
+                newTrigger.setLastFireTime(trigger.getLastFireTime());
+                newTrigger.setNextFireTime(newTrigger.computeFireTimeAfter(now));
+            }
+            ownedTriggers.put(schedule.getId(), newTrigger);
+        }
+
+        if (!takenOver.isEmpty()) {
+            List<Integer> scheduleIds = new ArrayList<>(takenOver.size());
+            for (ScheduleTrigger trigger : takenOver) {
+                scheduleIds.add(trigger.getScheduleId());
+            }
+            Map<Integer, Date> lastFireTimes = processService.queryScheduleLastFireTimes(scheduleIds);
+            Date catchUpFrom = new Date(now.getTime() - TimeUnit.SECONDS.toMillis(masterConfig.getMasterScheduleTriggerCatchUpWindow()));
+            for (ScheduleTrigger trigger : takenOver) {
+                Date lastFireTime = lastFireTimes.get(trigger.getScheduleId());
+                trigger.setLastFireTime(lastFireTime);
+                // a schedule never fired by the engine starts from now, otherwise the fires missed within the window
+                // and after the last update of the schedule, which is when it was put online, are caught up
+                Date from = now;
+                if (lastFireTime != null) {
+                    from = latest(lastFireTime, catchUpFrom, trigger.getSchedule().getUpdateTime());
+                }
+                trigger.setNextFireTime(trigger.computeFireTimeAfter(from));
+            }
+        }
+
+        PriorityQueue<ScheduleTrigger> queue = newTriggerQueue();
+        for (ScheduleTrigger trigger : ownedTriggers.values()) {
+            if (trigger.getNextFireTime() != null) {
+                queue.add(trigger);
+            }
+        }
+        triggers = ownedTriggers;
+        triggerQueue = queue;
+        logger.info("master {} owns {} schedules, {} taken over", localAddress, ownedTriggers.size(), takenOver.size());
+    }
+
+    /**
+     * fire the due triggers, at most one batch
+     *
+     * @param now current time
+     * @return number of due triggers
+     */
+    int fireDueTriggers(Date now) {
+        List<ScheduleTrigger> dueTriggers = new ArrayList<>();
+        while (!triggerQueue.isEmpty()
+                && !triggerQueue.peek().getNextFireTime().after(now)
+                && dueTriggers.size() < masterConfig.getMasterScheduleTriggerBatchSize()) {
+            dueTriggers.add(triggerQueue.poll());
+        }
+        if (dueTriggers.isEmpty()) {
+            return 0;
+        }
+
+        // the triggers are polled by fire time, the first one is the most delayed
+        long maxDelay = now.getTime() - dueTriggers.get(0).getNextFireTime().getTime();
+        Map<Integer, Date> scheduledFireTimes = new HashMap<>(dueTriggers.size());
+        for (ScheduleTrigger trigger : dueTriggers) {
+            scheduledFireTimes.put(trigger.getScheduleId(), trigger.getNextFireTime());
+        }
+        Map<Integer, Date> lastFireTimes;
+        try {
+            lastFireTimes = processService.fireSchedules(scheduledFireTimes, now);
+        } catch (RuntimeException e) {
+            // the fires are retried
+            triggerQueue.addAll(dueTriggers);
+            throw e;
+        }
+
+        for (ScheduleTrigger trigger : dueTriggers) {
+            Date lastFireTime = lastFireTimes.get(trigger.getScheduleId());
+            if (lastFireTime == null) {
+                logger.info("schedule {} or its process definition is offline, stop triggering it", trigger.getScheduleId());
+                triggers.remove(trigger.getScheduleId());
+                continue;
+            }
+            trigger.setLastFireTime(lastFireTime);
+            trigger.setNextFireTime(trigger.computeFireTimeAfter(lastFireTime));
+            if (trigger.getNextFireTime() == null) {
+                logger.info("schedule {} reaches its end time, stop triggering it", trigger.getScheduleId());
+                triggers.remove(trigger.getScheduleId());
+            } else {
+                triggerQueue.add(trigger);
+            }
+        }
+        logger.info("fired {} schedules, max delay {} ms", lastFireTimes.size(), maxDelay);
+        return dueTriggers.size();
+    }
+
+    /**
+     * number of the schedules owned by this master
+     *
+     * @return size
+     */
+    int size() {
+        return triggers.size();
+    }
+
+    private static Date latest(Date... dates) {
+        Date latest = null;
+        for (Date date : dates) {
+            if (date != null && (latest == null || date.after(latest))) {
+                latest = date;
+            }
+        }
+        return latest;
+    }
+
+    private static PriorityQueue<ScheduleTrigger> newTriggerQueue() {
+        return new PriorityQueue<>(Comparator.comparing(ScheduleTrigger::getNextFireTime));
+    }
+}
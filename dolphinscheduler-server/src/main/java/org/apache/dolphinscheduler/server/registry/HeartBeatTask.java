@@ -17,14 +17,17 @@
 
 package org.apache.dolphinscheduler.server.registry;
 
-import static org.apache.dolphinscheduler.remote.utils.Constants.COMMA;
-
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.model.HeartBeat;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.OSUtils;
 
-import java.util.Date;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
 import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,56 +36,127 @@ public class HeartBeatTask extends Thread {
 
     private final Logger logger = LoggerFactory.getLogger(HeartBeatTask.class);
 
-    private String startTime;
+    private static final long MB = 1024 * 1024L;
+
+    private long startupTime;
     private double reservedMemory;
     private double maxCpuloadAvg;
     private Set<String> heartBeatPaths;
     private ZookeeperRegistryCenter zookeeperRegistryCenter;
+    private int serverSlots;
+    private IntSupplier taskCountSupplier;
+    private LongSupplier admittedCountSupplier;
+    private LongSupplier rejectedCountSupplier;
+
+    /**
+     * accumulated gc time reported by the previous heartbeat
+     */
+    private long lastGcTimeMillis;
 
     public HeartBeatTask(String startTime,
                          double reservedMemory,
                          double maxCpuloadAvg,
                          Set<String> heartBeatPaths,
                          ZookeeperRegistryCenter zookeeperRegistryCenter) {
-        this.startTime = startTime;
+        this(startTime, reservedMemory, maxCpuloadAvg, heartBeatPaths, zookeeperRegistryCenter, 0, () -> 0);
+    }
+
+    public HeartBeatTask(String startTime,
+                         double reservedMemory,
+                         double maxCpuloadAvg,
+                         Set<String> heartBeatPaths,
+                         ZookeeperRegistryCenter zookeeperRegistryCenter,
+                         int serverSlots,
+                         IntSupplier taskCountSupplier) {
+        this(startTime, reservedMemory, maxCpuloadAvg, heartBeatPaths, zookeeperRegistryCenter, serverSlots, taskCountSupplier,
+            () -> 0L, () -> 0L);
+    }
+
+    public HeartBeatTask(String startTime,
+                         double reservedMemory,
+                         double maxCpuloadAvg,
+                         Set<String> heartBeatPaths,
+                         ZookeeperRegistryCenter zookeeperRegistryCenter,
+                         int serverSlots,
+                         IntSupplier taskCountSupplier,
+                         LongSupplier admittedCountSupplier,
+                         LongSupplier rejectedCountSupplier) {
+        this.startupTime = DateUtils.stringToDate(startTime).getTime();
         this.reservedMemory = reservedMemory;
         this.maxCpuloadAvg = maxCpuloadAvg;
         this.heartBeatPaths = heartBeatPaths;
         this.zookeeperRegistryCenter = zookeeperRegistryCenter;
+        this.serverSlots = serverSlots;
+        this.taskCountSupplier = taskCountSupplier;
+        this.admittedCountSupplier = admittedCountSupplier;
+        this.rejectedCountSupplier = rejectedCountSupplier;
+        this.lastGcTimeMillis = getGcTimeMillis();
     }
 
     @Override
     public void run() {
         try {
-            double availablePhysicalMemorySize = OSUtils.availablePhysicalMemorySize();
-            double loadAverage = OSUtils.loadAverage();
-
-            int status = Constants.NORMAL_NODE_STATUS;
-
-            if (availablePhysicalMemorySize < reservedMemory
-                    || loadAverage > maxCpuloadAvg) {
-                logger.warn("load is too high or availablePhysicalMemorySize(G) is too low, it's availablePhysicalMemorySize(G):{},loadAvg:{}", availablePhysicalMemorySize, loadAverage);
-                status = Constants.ABNORMAL_NODE_STATUS;
-            }
-
-            StringBuilder builder = new StringBuilder(100);
-            builder.append(OSUtils.cpuUsage()).append(COMMA);
-            builder.append(OSUtils.memoryUsage()).append(COMMA);
-            builder.append(OSUtils.loadAverage()).append(COMMA);
-            builder.append(OSUtils.availablePhysicalMemorySize()).append(Constants.COMMA);
-            builder.append(maxCpuloadAvg).append(Constants.COMMA);
-            builder.append(reservedMemory).append(Constants.COMMA);
-            builder.append(startTime).append(Constants.COMMA);
-            builder.append(DateUtils.dateToString(new Date())).append(Constants.COMMA);
-            builder.append(status).append(COMMA);
-            //save process id
-            builder.append(OSUtils.getProcessID());
-
+            String heartBeatInfo = getHeartBeat().encodeHeartBeat();
             for (String heartBeatPath : heartBeatPaths) {
-                zookeeperRegistryCenter.getZookeeperCachedOperator().update(heartBeatPath, builder.toString());
+                zookeeperRegistryCenter.getZookeeperCachedOperator().update(heartBeatPath, heartBeatInfo);
             }
         } catch (Throwable ex) {
             logger.error("error write heartbeat info", ex);
         }
     }
+
+    /**
+     * collect the heartbeat of this server
+     *
+     * @return heartbeat
+     */
+    public HeartBeat getHeartBeat() {
+        double availablePhysicalMemorySize = OSUtils.availablePhysicalMemorySize();
+        double loadAverage = OSUtils.loadAverage();
+
+        int status = Constants.NORMAL_NODE_STATUS;
+
+        if (availablePhysicalMemorySize < reservedMemory
+                || loadAverage > maxCpuloadAvg) {
+            logger.warn("load is too high or availablePhysicalMemorySize(G) is too low, it's availablePhysicalMemorySize(G):{},loadAvg:{}", availablePhysicalMemorySize, loadAverage);
+            status = Constants.ABNORMAL_NODE_STATUS;
+        }
+
+        HeartBeat heartBeat = new HeartBeat();
+        heartBeat.setStartupTime(startupTime);
+        heartBeat.setReportTime(System.currentTimeMillis());
+        heartBeat.setCpuUsage(OSUtils.cpuUsage());
+        heartBeat.setMemoryUsage(OSUtils.memoryUsage());
+        heartBeat.setLoadAverage(loadAverage);
+        heartBeat.setAvailablePhysicalMemorySize(availablePhysicalMemorySize);
+        heartBeat.setMaxCpuloadAvg(maxCpuloadAvg);
+        heartBeat.setReservedMemory(reservedMemory);
+        heartBeat.setServerStatus(status);
+        //save process id
+        heartBeat.setProcessId(OSUtils.getProcessID());
+
+        //save execute slots and held tasks
+        int taskCount = taskCountSupplier.getAsInt();
+        heartBeat.setWorkerExecThreads(serverSlots);
+        heartBeat.setWorkerExecTaskCount(taskCount);
+        heartBeat.setWorkerWaitingTaskCount(Math.max(0, taskCount - serverSlots));
+        heartBeat.setWorkerAdmittedTaskCount(admittedCountSupplier.getAsLong());
+        heartBeat.setWorkerRejectedTaskCount(rejectedCountSupplier.getAsLong());
+
+        MemoryUsage heapMemoryUsage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        heartBeat.setHeapUsed(heapMemoryUsage.getUsed() / MB);
+        heartBeat.setHeapMax(heapMemoryUsage.getMax() / MB);
+        long gcTimeMillis = getGcTimeMillis();
+        heartBeat.setGcPauseMillis(gcTimeMillis - lastGcTimeMillis);
+        lastGcTimeMillis = gcTimeMillis;
+        return heartBeat;
+    }
+
+    private static long getGcTimeMillis() {
+        long gcTimeMillis = 0;
+        for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcTimeMillis += Math.max(0, garbageCollector.getCollectionTime());
+        }
+        return gcTimeMillis;
+    }
 }
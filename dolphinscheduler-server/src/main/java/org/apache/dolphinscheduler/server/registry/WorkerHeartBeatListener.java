@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.registry;
+
+import org.apache.dolphinscheduler.common.model.HeartBeat;
+
+/**
+ * worker heartbeat listener, notified by the zookeeper node manager on the zookeeper event thread
+ */
+public interface WorkerHeartBeatListener {
+
+    /**
+     * a worker reported a heartbeat
+     *
+     * @param address worker address, ip:port
+     * @param heartBeat heartbeat
+     */
+    void onHeartBeat(String address, HeartBeat heartBeat);
+
+    /**
+     * a worker is removed from all worker groups
+     *
+     * @param address worker address, ip:port
+     */
+    void onRemoved(String address);
+}
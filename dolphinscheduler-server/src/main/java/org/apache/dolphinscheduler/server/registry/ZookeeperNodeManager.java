@@ -21,8 +21,10 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.curator.framework.CuratorFramework;
 
 import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.dolphinscheduler.common.model.HeartBeat;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.dao.AlertDao;
+import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.service.zk.AbstractListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,11 +32,14 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -68,6 +73,16 @@ public class ZookeeperNodeManager implements InitializingBean {
      */
     private final Set<String> masterNodes = new HashSet<>();
 
+    /**
+     *  worker address -> latest worker heartbeat, decoded once when zookeeper pushes the change
+     */
+    private final ConcurrentHashMap<String, HeartBeat> workerHeartBeats = new ConcurrentHashMap<>();
+
+    /**
+     *  worker heartbeat listeners
+     */
+    private final List<WorkerHeartBeatListener> workerHeartBeatListeners = new CopyOnWriteArrayList<>();
+
     /**
      * zookeeper registry center
      */
@@ -115,7 +130,12 @@ public class ZookeeperNodeManager implements InitializingBean {
          */
         Set<String> workerGroups = registryCenter.getWorkerGroupDirectly();
         for(String workerGroup : workerGroups){
-            syncWorkerGroupNodes(workerGroup, registryCenter.getWorkerGroupNodesDirectly(workerGroup));
+            Set<String> nodes = registryCenter.getWorkerGroupNodesDirectly(workerGroup);
+            syncWorkerGroupNodes(workerGroup, nodes);
+            String workerGroupPath = registryCenter.getWorkerGroupPath(workerGroup);
+            for(String node : nodes){
+                syncWorkerHeartBeat(node, registryCenter.getZookeeperCachedOperator().get(workerGroupPath + "/" + node));
+            }
         }
     }
 
@@ -134,11 +154,17 @@ public class ZookeeperNodeManager implements InitializingBean {
                         Set<String> currentNodes = registryCenter.getWorkerGroupNodesDirectly(group);
                         logger.info("currentNodes : {}", currentNodes);
                         syncWorkerGroupNodes(group, currentNodes);
+                        syncWorkerHeartBeat(parseNode(path), event.getData().getData());
+                    } else if (event.getType() == TreeCacheEvent.Type.NODE_UPDATED) {
+                        // only worker nodes carry heartbeat, worker group paths are rejected here
+                        parseGroup(path);
+                        syncWorkerHeartBeat(parseNode(path), event.getData().getData());
                     } else if (event.getType() == TreeCacheEvent.Type.NODE_REMOVED) {
                         logger.info("worker group node : {} down.", path);
                         String group = parseGroup(path);
                         Set<String> currentNodes = registryCenter.getWorkerGroupNodesDirectly(group);
                         syncWorkerGroupNodes(group, currentNodes);
+                        removeWorkerHeartBeat(parseNode(path));
                         alertDao.sendServerStopedAlert(1, path, "WORKER");
                     }
                 } catch (IllegalArgumentException ignore) {
@@ -157,6 +183,10 @@ public class ZookeeperNodeManager implements InitializingBean {
             String group = parts[parts.length - 2];
             return group;
         }
+
+        private String parseNode(String path){
+            return path.substring(path.lastIndexOf('/') + 1);
+        }
     }
 
 
@@ -231,6 +261,115 @@ public class ZookeeperNodeManager implements InitializingBean {
         }
     }
 
+    /**
+     * sync worker heartbeat
+     * @param node worker node
+     * @param data heartbeat data
+     */
+    private void syncWorkerHeartBeat(String node, byte[] data){
+        syncWorkerHeartBeat(node, data == null ? null : new String(data, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * sync worker heartbeat, listeners are notified only when the heartbeat is decoded
+     * @param node worker node
+     * @param heartBeatInfo heartbeat info
+     */
+    private void syncWorkerHeartBeat(String node, String heartBeatInfo){
+        HeartBeat heartBeat = HeartBeat.decodeHeartBeat(heartBeatInfo);
+        if(heartBeat == null){
+            return;
+        }
+        String address = Host.of(node).getAddress();
+        HeartBeat previous = workerHeartBeats.put(address, heartBeat);
+        // a worker in several groups writes the same heartbeat to each group node
+        if(previous != null && previous.getReportTime() == heartBeat.getReportTime()){
+            return;
+        }
+        for(WorkerHeartBeatListener listener : workerHeartBeatListeners){
+            try {
+                listener.onHeartBeat(address, heartBeat);
+            } catch (Exception ex){
+                logger.error("worker heartbeat listener error, worker : {}", address, ex);
+            }
+        }
+    }
+
+    /**
+     * remove worker heartbeat when the worker is down in all worker groups
+     * @param node worker node
+     */
+    private void removeWorkerHeartBeat(String node){
+        String address = Host.of(node).getAddress();
+        workerGroupLock.lock();
+        try {
+            for(Set<String> nodes : workerGroupNodes.values()){
+                for(String groupNode : nodes){
+                    if(Host.of(groupNode).getAddress().equals(address)){
+                        return;
+                    }
+                }
+            }
+        } finally {
+            workerGroupLock.unlock();
+        }
+        if(workerHeartBeats.remove(address) == null){
+            return;
+        }
+        for(WorkerHeartBeatListener listener : workerHeartBeatListeners){
+            try {
+                listener.onRemoved(address);
+            } catch (Exception ex){
+                logger.error("worker heartbeat listener error, worker : {}", address, ex);
+            }
+        }
+    }
+
+    /**
+     * add worker heartbeat listener, the listener is notified with the known heartbeats at once
+     * @param listener listener
+     */
+    public void addWorkerHeartBeatListener(WorkerHeartBeatListener listener){
+        workerHeartBeatListeners.add(listener);
+        for(Map.Entry<String, HeartBeat> entry : workerHeartBeats.entrySet()){
+            listener.onHeartBeat(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * get the latest heartbeat of the worker
+     * @param address worker address, ip:port
+     * @return heartbeat, null if unknown
+     */
+    public HeartBeat getWorkerHeartBeat(String address){
+        return workerHeartBeats.get(address);
+    }
+
+    /**
+     * get the workers sharing a worker group with the worker
+     * @param address worker address, ip:port
+     * @return worker addresses, without the worker itself
+     */
+    public Set<String> getWorkerPeers(String address){
+        Set<String> peers = new HashSet<>();
+        workerGroupLock.lock();
+        try {
+            for(Set<String> nodes : workerGroupNodes.values()){
+                Set<String> groupAddresses = new HashSet<>();
+                for(String node : nodes){
+                    groupAddresses.add(Host.of(node).getAddress());
+                }
+                if(groupAddresses.contains(address)){
+                    peers.addAll(groupAddresses);
+                }
+            }
+        } finally {
+            workerGroupLock.unlock();
+        }
+        peers.remove(address);
+        return peers;
+    }
+
     public Map<String, Set<String>> getWorkerGroupNodes(){
         return Collections.unmodifiableMap(workerGroupNodes);
     }
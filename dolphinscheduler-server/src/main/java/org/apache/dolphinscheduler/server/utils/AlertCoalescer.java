@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.utils;
+
+import org.apache.dolphinscheduler.common.enums.AlertStatus;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.dao.AlertDao;
+import org.apache.dolphinscheduler.dao.entity.Alert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * coalesce the alerts of an alert storm.
+ * <p>
+ * the first alert of a key (alert group, title, project) is saved at once and opens a window, the alerts of the same
+ * key within the window are held back and saved as one digest alert when the window ends, with the count and the
+ * details of the first of them. alerts are saved in batches.
+ * <p>
+ * a held back alert is saved as waiting to be coalesced and marked as sent once its digest is saved, so the held back
+ * alerts of a master that stops before the window ends are coalesced by the next flush of the master claiming them.
+ */
+public class AlertCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertCoalescer.class);
+
+    /**
+     * interval of saving alerts and closing windows, in millis
+     */
+    static final long FLUSH_INTERVAL = 1000;
+
+    /**
+     * max alerts inserted by one statement
+     */
+    private static final int INSERT_BATCH_SIZE = 100;
+
+    /**
+     * max length of the alert title column
+     */
+    private static final int MAX_TITLE_LENGTH = 64;
+
+    private final AlertDao alertDao;
+
+    private final long windowMillis;
+
+    private final int topN;
+
+    /**
+     * key -> window of the key
+     */
+    private final Map<AlertKey, Window> windows = new HashMap<>();
+
+    /**
+     * alerts to save
+     */
+    private final ConcurrentLinkedQueue<Alert> pendingAlerts = new ConcurrentLinkedQueue<>();
+
+    /**
+     * digests whose held back alerts are not marked as coalesced yet, used by the flush only
+     */
+    private final List<Digest> pendingDigests = new ArrayList<>();
+
+    /**
+     * last time of coalescing the alerts held back by stopped masters
+     */
+    private long lastRecoverTime;
+
+    private final ScheduledExecutorService flushExecutor;
+
+    /**
+     * @param alertDao alert dao
+     * @param windowMillis coalescing window, alerts are not coalesced if it is not positive
+     * @param topN max details kept in a digest alert
+     */
+    public AlertCoalescer(AlertDao alertDao, long windowMillis, int topN) {
+        this.alertDao = alertDao;
+        this.windowMillis = windowMillis;
+        this.topN = Math.max(1, topN);
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("Alert-Coalesce-Thread")
+                .build());
+        this.flushExecutor.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * add an alert
+     *
+     * @param alert alert whose content is a json array of details
+     * @param projectId project of the alert, 0 if unknown
+     */
+    public void add(Alert alert, int projectId) {
+        if (windowMillis <= 0) {
+            pendingAlerts.offer(alert);
+            return;
+        }
+        AlertKey key = new AlertKey(alert.getAlertGroupId(), alert.getTitle(), projectId);
+        long now = System.currentTimeMillis();
+        synchronized (windows) {
+            Window window = windows.get(key);
+            if (window == null || window.isEnded(now) && window.count == 0) {
+                windows.put(key, new Window(now + windowMillis));
+                pendingAlerts.offer(alert);
+                return;
+            }
+            alert.setAlertStatus(AlertStatus.WAIT_COALESCE);
+            window.add(alert, topN);
+            pendingAlerts.offer(alert);
+        }
+    }
+
+    /**
+     * close the ended windows and save the alerts
+     */
+    synchronized void flush() {
+        saveAlerts();
+        closeWindows(false);
+        recoverHeldAlerts();
+        saveDigests();
+    }
+
+    /**
+     * save all alerts, including the digests of open windows
+     */
+    public void close() {
+        flushExecutor.shutdownNow();
+        synchronized (this) {
+            saveAlerts();
+            closeWindows(true);
+            saveDigests();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("flush alerts error", e);
+        }
+    }
+
+    private void closeWindows(boolean all) {
+        long now = System.currentTimeMillis();
+        synchronized (windows) {
+            Iterator<Map.Entry<AlertKey, Window>> iterator = windows.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<AlertKey, Window> entry = iterator.next();
+                Window window = entry.getValue();
+                if (!all && !window.isEnded(now)) {
+                    continue;
+                }
+                if (window.count == 0) {
+                    iterator.remove();
+                    continue;
+                }
+                pendingDigests.add(new Digest(digest(entry.getKey(), window), window.heldAlerts));
+                // the storm may go on, so a new window is opened instead of letting the next alert through
+                entry.setValue(new Window(now + windowMillis));
+            }
+        }
+    }
+
+    private void saveAlerts() {
+        Alert alert;
+        while (true) {
+            List<Alert> alerts = new ArrayList<>();
+            while (alerts.size() < INSERT_BATCH_SIZE && (alert = pendingAlerts.poll()) != null) {
+                alerts.add(alert);
+            }
+            if (alerts.isEmpty()) {
+                return;
+            }
+            try {
+                alertDao.addAlerts(alerts);
+            } catch (Exception e) {
+                logger.error("save {} alerts error, retry later", alerts.size(), e);
+                pendingAlerts.addAll(alerts);
+                return;
+            }
+        }
+    }
+
+    /**
+     * save the digests, then mark their held back alerts as coalesced
+     */
+    private void saveDigests() {
+        Iterator<Digest> iterator = pendingDigests.iterator();
+        while (iterator.hasNext()) {
+            Digest digest = iterator.next();
+            try {
+                if (!digest.saved) {
+                    alertDao.addAlerts(Collections.singletonList(digest.alert));
+                    digest.saved = true;
+                }
+                List<Alert> savedAlerts = new ArrayList<>();
+                for (Alert alert : digest.heldAlerts) {
+                    alert.setAlertStatus(AlertStatus.EXECUTION_SUCCESS);
+                    alert.setLog("coalesced into alert " + digest.alert.getId());
+                    // an alert not saved yet is saved as coalesced
+                    if (alert.getId() != 0) {
+                        savedAlerts.add(alert);
+                    }
+                }
+                for (List<Alert> alerts : Lists.partition(savedAlerts, INSERT_BATCH_SIZE)) {
+                    alertDao.updateAlerts(alerts);
+                }
+            } catch (Exception e) {
+                logger.error("save digest alert {} error, retry later", digest.alert.getTitle(), e);
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    /**
+     * coalesce the alerts held back by a master that stopped before their window ended
+     */
+    private void recoverHeldAlerts() {
+        long now = System.currentTimeMillis();
+        if (windowMillis <= 0 || now - lastRecoverTime < windowMillis) {
+            return;
+        }
+        lastRecoverTime = now;
+        List<Alert> heldAlerts;
+        try {
+            heldAlerts = alertDao.listWaitCoalesceAlert();
+        } catch (Exception e) {
+            logger.error("list held back alerts error", e);
+            return;
+        }
+        if (heldAlerts == null || heldAlerts.isEmpty()) {
+            return;
+        }
+        // a running master coalesces an alert within a window after holding it back
+        long expireTime = now - 2 * windowMillis;
+        Map<Integer, Alert> expiredAlerts = new LinkedHashMap<>();
+        for (Alert alert : heldAlerts) {
+            if (alert.getCreateTime() == null || alert.getCreateTime().getTime() <= expireTime) {
+                expiredAlerts.put(alert.getId(), alert);
+            }
+        }
+        Map<AlertKey, Window> recovered = new LinkedHashMap<>();
+        for (List<Integer> ids : Lists.partition(new ArrayList<>(expiredAlerts.keySet()), INSERT_BATCH_SIZE)) {
+            List<Integer> claimedIds;
+            try {
+                // every master finds the alerts, only the ones claimed are coalesced so that a single digest is sent
+                claimedIds = alertDao.claimAlerts(ids, AlertStatus.WAIT_COALESCE, AlertStatus.EXECUTION_SUCCESS);
+            } catch (Exception e) {
+                logger.error("claim held back alerts error", e);
+                break;
+            }
+            for (Integer id : claimedIds) {
+                Alert alert = expiredAlerts.get(id);
+                recovered.computeIfAbsent(new AlertKey(alert.getAlertGroupId(), alert.getTitle(), 0), key -> new Window(now))
+                        .add(alert, topN);
+            }
+        }
+        for (Map.Entry<AlertKey, Window> entry : recovered.entrySet()) {
+            logger.info("coalesce {} alerts held back by a stopped master", entry.getValue().count);
+            pendingDigests.add(new Digest(digest(entry.getKey(), entry.getValue()), entry.getValue().heldAlerts));
+        }
+    }
+
+    private Alert digest(AlertKey key, Window window) {
+        String suffix = String.format(" (%d alerts in %ds)", window.count, TimeUnit.MILLISECONDS.toSeconds(windowMillis));
+        String title = key.title == null ? "" : key.title;
+        if (title.length() + suffix.length() > MAX_TITLE_LENGTH) {
+            title = title.substring(0, Math.max(0, MAX_TITLE_LENGTH - suffix.length()));
+        }
+
+        List<Object> details = new ArrayList<>(window.details);
+        if (window.count > window.details.size()) {
+            Map<String, Object> omitted = new LinkedHashMap<>();
+            omitted.put("omitted alerts", window.count - window.details.size());
+            details.add(omitted);
+        }
+
+        Date now = new Date();
+        Alert alert = new Alert();
+        alert.setTitle(title + suffix);
+        alert.setContent(JSONUtils.toJsonString(details));
+        alert.setAlertGroupId(key.alertGroupId);
+        alert.setCreateTime(now);
+        alert.setUpdateTime(now);
+        logger.info("coalesce {} alerts of {}", window.count, key);
+        return alert;
+    }
+
+    /**
+     * alerts of a key within a window
+     */
+    private static class Window {
+
+        private final long endTime;
+
+        private int count;
+
+        private final List<JsonNode> details = new ArrayList<>();
+
+        private final List<Alert> heldAlerts = new ArrayList<>();
+
+        Window(long endTime) {
+            this.endTime = endTime;
+        }
+
+        boolean isEnded(long now) {
+            return now >= endTime;
+        }
+
+        void add(Alert alert, int topN) {
+            count++;
+            heldAlerts.add(alert);
+            if (details.size() >= topN || alert.getContent() == null) {
+                return;
+            }
+            JsonNode content = JSONUtils.parseObject(alert.getContent(), JsonNode.class);
+            if (content instanceof ArrayNode) {
+                for (JsonNode detail : content) {
+                    if (details.size() >= topN) {
+                        return;
+                    }
+                    details.add(detail);
+                }
+            } else if (content != null) {
+                details.add(content);
+            }
+        }
+    }
+
+    /**
+     * digest alert of a window and the alerts it coalesces
+     */
+    private static class Digest {
+
+        private final Alert alert;
+
+        private final List<Alert> heldAlerts;
+
+        private boolean saved;
+
+        Digest(Alert alert, List<Alert> heldAlerts) {
+            this.alert = alert;
+            this.heldAlerts = heldAlerts;
+        }
+    }
+
+    /**
+     * alerts of the same key are coalesced
+     */
+    private static class AlertKey {
+
+        private final int alertGroupId;
+
+        private final String title;
+
+        private final int projectId;
+
+        AlertKey(int alertGroupId, String title, int projectId) {
+            this.alertGroupId = alertGroupId;
+            this.title = title;
+            this.projectId = projectId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            AlertKey alertKey = (AlertKey) o;
+            return alertGroupId == alertKey.alertGroupId
+                    && projectId == alertKey.projectId
+                    && Objects.equals(title, alertKey.title);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(alertGroupId, title, projectId);
+        }
+
+        @Override
+        public String toString() {
+            return "alert group " + alertGroupId + ", title " + title + ", project " + projectId;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +53,26 @@ public class AlertManager {
      */
     private final AlertDao alertDao = DaoFactory.getDaoInstance(AlertDao.class);
 
+    /**
+     * alert coalescer, null if alerts are saved at once
+     */
+    private final AlertCoalescer alertCoalescer;
+
+    public AlertManager() {
+        this.alertCoalescer = null;
+    }
+
+    /**
+     * @param coalesceWindowSeconds window in which alerts of the same group, title and project are coalesced,
+     *                              alerts are saved at once if it is not positive
+     * @param coalesceTopN max details kept in a coalesced alert
+     */
+    public AlertManager(int coalesceWindowSeconds, int coalesceTopN) {
+        this.alertCoalescer = coalesceWindowSeconds > 0
+                ? new AlertCoalescer(alertDao, TimeUnit.SECONDS.toMillis(coalesceWindowSeconds), coalesceTopN)
+                : null;
+    }
+
     /**
      * command type convert chinese
      *
@@ -182,7 +203,8 @@ public class AlertManager {
             alert.setContent(content);
             alert.setCreateTime(new Date());
             alert.setAlertGroupId(processInstance.getWarningGroupId() == null ? 1 : processInstance.getWarningGroupId());
-            alertDao.addAlert(alert);
+            ProcessDefinition processDefinition = processInstance.getProcessDefinition();
+            addAlert(alert, processDefinition == null ? 0 : processDefinition.getProjectId());
             logger.info("add alert to db , alert : {}", alert.toString());
 
         } catch (Exception e) {
@@ -236,7 +258,7 @@ public class AlertManager {
         alert.setContent(content);
         alert.setAlertGroupId(processInstance.getWarningGroupId());
         alert.setCreateTime(new Date());
-        alertDao.addAlert(alert);
+        addAlert(alert, projectUser.getProjectId());
         logger.info("add alert to db , alert: {}", alert.toString());
     }
 
@@ -247,6 +269,27 @@ public class AlertManager {
      * @param processDefinition process definition
      */
     public void sendProcessTimeoutAlert(ProcessInstance processInstance, ProcessDefinition processDefinition) {
-        alertDao.sendProcessTimeoutAlert(processInstance, processDefinition);
+        if (alertCoalescer == null) {
+            alertDao.sendProcessTimeoutAlert(processInstance, processDefinition);
+            return;
+        }
+        alertCoalescer.add(alertDao.createProcessTimeoutAlert(processInstance, processDefinition), processDefinition.getProjectId());
+    }
+
+    /**
+     * save the alerts held back by the coalescer
+     */
+    public void close() {
+        if (alertCoalescer != null) {
+            alertCoalescer.close();
+        }
+    }
+
+    private void addAlert(Alert alert, int projectId) {
+        if (alertCoalescer == null) {
+            alertDao.addAlert(alert);
+        } else {
+            alertCoalescer.add(alert, projectId);
+        }
     }
 }
@@ -53,4 +53,11 @@ public interface TaskExecutionContextCacheManager {
      * @return status
      */
     boolean updateTaskExecutionContext(TaskExecutionContext taskExecutionContext);
+
+    /**
+     * get the count of cached taskInstance, which is the count of tasks the worker holds
+     *
+     * @return count
+     */
+    int size();
 }
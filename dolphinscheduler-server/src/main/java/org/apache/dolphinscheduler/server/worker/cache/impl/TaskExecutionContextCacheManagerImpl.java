@@ -73,4 +73,9 @@ public class TaskExecutionContextCacheManagerImpl implements TaskExecutionContex
         taskExecutionContextCache.computeIfPresent(taskExecutionContext.getTaskInstanceId(), (k, v) -> taskExecutionContext);
         return taskExecutionContextCache.containsKey(taskExecutionContext.getTaskInstanceId());
     }
+
+    @Override
+    public int size() {
+        return taskExecutionContextCache.size();
+    }
 }
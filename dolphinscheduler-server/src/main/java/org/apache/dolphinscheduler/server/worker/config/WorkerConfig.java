@@ -32,6 +32,9 @@ public class WorkerConfig {
     @Value("${worker.exec.threads:100}")
     private int workerExecThreads;
 
+    @Value("${worker.exec.queue.size:100}")
+    private int workerExecQueueSize;
+
     @Value("${worker.heartbeat.interval:10}")
     private int workerHeartbeatInterval;
 
@@ -80,6 +83,14 @@ public class WorkerConfig {
         this.workerExecThreads = workerExecThreads;
     }
 
+    public int getWorkerExecQueueSize() {
+        return workerExecQueueSize;
+    }
+
+    public void setWorkerExecQueueSize(int workerExecQueueSize) {
+        this.workerExecQueueSize = workerExecQueueSize;
+    }
+
     public int getWorkerHeartbeatInterval() {
         return workerHeartbeatInterval;
     }
@@ -20,7 +20,6 @@ package org.apache.dolphinscheduler.server.worker.processor;
 import org.apache.dolphinscheduler.common.enums.Event;
 import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.common.enums.TaskType;
-import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.common.utils.FileUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.LoggerUtils;
@@ -29,6 +28,7 @@ import org.apache.dolphinscheduler.common.utils.Preconditions;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRejectCommand;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
@@ -37,13 +37,13 @@ import org.apache.dolphinscheduler.server.worker.cache.ResponceCache;
 import org.apache.dolphinscheduler.server.worker.cache.TaskExecutionContextCacheManager;
 import org.apache.dolphinscheduler.server.worker.cache.impl.TaskExecutionContextCacheManagerImpl;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.runner.TaskAdmissionQueue;
 import org.apache.dolphinscheduler.server.worker.runner.TaskExecuteThread;
 import org.apache.dolphinscheduler.service.alert.AlertClientService;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 
 import java.util.Date;
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,9 +58,9 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
     private static final Logger logger = LoggerFactory.getLogger(TaskExecuteProcessor.class);
 
     /**
-     * thread executor service
+     * task admission queue
      */
-    private final ExecutorService workerExecService;
+    private final TaskAdmissionQueue taskAdmissionQueue;
 
     /**
      * worker config
@@ -85,7 +85,7 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
     public TaskExecuteProcessor() {
         this.taskCallbackService = SpringApplicationContext.getBean(TaskCallbackService.class);
         this.workerConfig = SpringApplicationContext.getBean(WorkerConfig.class);
-        this.workerExecService = ThreadUtils.newDaemonFixedThreadExecutor("Worker-Execute-Thread", workerConfig.getWorkerExecThreads());
+        this.taskAdmissionQueue = SpringApplicationContext.getBean(TaskAdmissionQueue.class);
         this.taskExecutionContextCacheManager = SpringApplicationContext.getBean(TaskExecutionContextCacheManagerImpl.class);
     }
 
@@ -103,7 +103,7 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
     public TaskExecuteProcessor(AlertClientService alertClientService) {
         this.taskCallbackService = SpringApplicationContext.getBean(TaskCallbackService.class);
         this.workerConfig = SpringApplicationContext.getBean(WorkerConfig.class);
-        this.workerExecService = ThreadUtils.newDaemonFixedThreadExecutor("Worker-Execute-Thread", workerConfig.getWorkerExecThreads());
+        this.taskAdmissionQueue = SpringApplicationContext.getBean(TaskAdmissionQueue.class);
         this.taskExecutionContextCacheManager = SpringApplicationContext.getBean(TaskExecutionContextCacheManagerImpl.class);
 
         this.alertClientService = alertClientService;
@@ -132,6 +132,23 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
             return;
         }
 
+        if (!taskAdmissionQueue.tryAdmit()) {
+            // busy, the master dispatches the task to another worker
+            logger.warn("task instance {} rejected due to worker admission queue is full", taskExecutionContext.getTaskInstanceId());
+            TaskExecuteRejectCommand rejectCommand = new TaskExecuteRejectCommand(taskExecutionContext.getTaskInstanceId());
+            channel.writeAndFlush(rejectCommand.convert2Command(command.getOpaque()));
+            return;
+        }
+
+        try {
+            admit(channel, command, taskExecutionContext);
+        } catch (RuntimeException e) {
+            taskAdmissionQueue.cancel();
+            throw e;
+        }
+    }
+
+    private void admit(Channel channel, Command command, TaskExecutionContext taskExecutionContext) {
         setTaskCache(taskExecutionContext);
         // custom logger
         Logger taskLogger = LoggerFactory.getLogger(LoggerUtils.buildTaskId(LoggerUtils.TASK_LOGGER_INFO_PREFIX,
@@ -166,7 +183,8 @@ public class TaskExecuteProcessor implements NettyRequestProcessor {
         this.doAck(taskExecutionContext);
 
         // submit task
-        workerExecService.submit(new TaskExecuteThread(taskExecutionContext, taskCallbackService, taskLogger, alertClientService));
+        taskAdmissionQueue.submit(taskExecutionContext.getTaskInstanceId(),
+            new TaskExecuteThread(taskExecutionContext, taskCallbackService, taskLogger, alertClientService));
     }
 
     private void doAck(TaskExecutionContext taskExecutionContext) {
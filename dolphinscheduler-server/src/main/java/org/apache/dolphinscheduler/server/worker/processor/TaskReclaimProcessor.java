@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.worker.processor;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.common.utils.Preconditions;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskReclaimRequestCommand;
+import org.apache.dolphinscheduler.remote.command.TaskReclaimResponseCommand;
+import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.server.worker.cache.ResponceCache;
+import org.apache.dolphinscheduler.server.worker.cache.TaskExecutionContextCacheManager;
+import org.apache.dolphinscheduler.server.worker.cache.impl.TaskExecutionContextCacheManagerImpl;
+import org.apache.dolphinscheduler.server.worker.runner.TaskAdmissionQueue;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.Channel;
+
+/**
+ * task reclaim processor, gives a task not started yet back to the master
+ */
+public class TaskReclaimProcessor implements NettyRequestProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskReclaimProcessor.class);
+
+    /**
+     * task admission queue
+     */
+    private final TaskAdmissionQueue taskAdmissionQueue;
+
+    /**
+     * task callback service
+     */
+    private final TaskCallbackService taskCallbackService;
+
+    /**
+     * taskExecutionContextCacheManager
+     */
+    private final TaskExecutionContextCacheManager taskExecutionContextCacheManager;
+
+    public TaskReclaimProcessor() {
+        this.taskAdmissionQueue = SpringApplicationContext.getBean(TaskAdmissionQueue.class);
+        this.taskCallbackService = SpringApplicationContext.getBean(TaskCallbackService.class);
+        this.taskExecutionContextCacheManager = SpringApplicationContext.getBean(TaskExecutionContextCacheManagerImpl.class);
+    }
+
+    /**
+     * task reclaim process
+     *
+     * @param channel channel channel
+     * @param command command command
+     */
+    @Override
+    public void process(Channel channel, Command command) {
+        Preconditions.checkArgument(CommandType.TASK_RECLAIM_REQUEST == command.getType(),
+            String.format("invalid command type : %s", command.getType()));
+        TaskReclaimRequestCommand reclaimRequestCommand = JSONUtils.parseObject(command.getBody(), TaskReclaimRequestCommand.class);
+        if (reclaimRequestCommand == null) {
+            logger.error("task reclaim request command is null");
+            return;
+        }
+        int taskInstanceId = reclaimRequestCommand.getTaskInstanceId();
+        boolean reclaimed = taskAdmissionQueue.reclaim(taskInstanceId);
+        if (reclaimed) {
+            taskExecutionContextCacheManager.removeByTaskInstanceId(taskInstanceId);
+            taskCallbackService.remove(taskInstanceId);
+            ResponceCache.get().removeAckCache(taskInstanceId);
+        }
+        logger.info("task instance {} reclaimed : {}", taskInstanceId, reclaimed);
+
+        TaskReclaimResponseCommand reclaimResponseCommand = new TaskReclaimResponseCommand(taskInstanceId, reclaimed);
+        channel.writeAndFlush(reclaimResponseCommand.convert2Command(command.getOpaque()));
+    }
+}
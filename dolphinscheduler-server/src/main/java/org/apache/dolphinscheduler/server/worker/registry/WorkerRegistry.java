@@ -27,7 +27,9 @@ import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
 import org.apache.dolphinscheduler.server.registry.HeartBeatTask;
 import org.apache.dolphinscheduler.server.registry.ZookeeperRegistryCenter;
+import org.apache.dolphinscheduler.server.worker.cache.impl.TaskExecutionContextCacheManagerImpl;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.runner.TaskAdmissionQueue;
 
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.state.ConnectionState;
@@ -69,6 +71,18 @@ public class WorkerRegistry {
     @Autowired
     private WorkerConfig workerConfig;
 
+    /**
+     * task execution context cache manager
+     */
+    @Autowired
+    private TaskExecutionContextCacheManagerImpl taskExecutionContextCacheManager;
+
+    /**
+     * task admission queue
+     */
+    @Autowired
+    private TaskAdmissionQueue taskAdmissionQueue;
+
     /**
      * heartbeat executor
      */
@@ -119,7 +133,11 @@ public class WorkerRegistry {
             this.workerConfig.getWorkerReservedMemory(),
             this.workerConfig.getWorkerMaxCpuloadAvg(),
             workerZkPaths,
-            this.zookeeperRegistryCenter);
+            this.zookeeperRegistryCenter,
+            this.workerConfig.getWorkerExecThreads(),
+            this.taskExecutionContextCacheManager::size,
+            this.taskAdmissionQueue::getAdmittedCount,
+            this.taskAdmissionQueue::getRejectedCount);
 
         this.heartBeatExecutor.scheduleAtFixedRate(heartBeatTask, workerHeartbeatInterval, workerHeartbeatInterval, TimeUnit.SECONDS);
         logger.info("worker node : {} heartbeat interval {} s", address, workerHeartbeatInterval);
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.runner;
+
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * task admission queue
+ * <p>
+ * bounds the tasks a worker takes to its execute threads plus a waiting queue,
+ * a task beyond the bound is rejected so that the master dispatches it to another worker,
+ * and a task still waiting can be reclaimed by the master.
+ */
+@Component
+public class TaskAdmissionQueue {
+
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    /**
+     * thread executor service
+     */
+    private ExecutorService workerExecService;
+
+    /**
+     * permits of the tasks admitted and not finished
+     */
+    private Semaphore admissionPermits;
+
+    /**
+     * task instance id -> task admitted and not started
+     */
+    private final ConcurrentHashMap<Integer, AdmittedTask> queuedTasks = new ConcurrentHashMap<>();
+
+    private final AtomicLong admittedCount = new AtomicLong();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private final AtomicLong reclaimedCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        init(workerConfig.getWorkerExecThreads(), workerConfig.getWorkerExecQueueSize());
+    }
+
+    void init(int execThreads, int queueSize) {
+        this.workerExecService = ThreadUtils.newDaemonFixedThreadExecutor("Worker-Execute-Thread", execThreads);
+        this.admissionPermits = new Semaphore(execThreads + Math.max(0, queueSize));
+    }
+
+    /**
+     * try to admit a task, an admitted task must be submitted or cancelled
+     *
+     * @return true if admitted, false if the queue is full
+     */
+    public boolean tryAdmit() {
+        if (admissionPermits.tryAcquire()) {
+            admittedCount.incrementAndGet();
+            return true;
+        }
+        rejectedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * give back the admission of a task that is not submitted
+     */
+    public void cancel() {
+        admissionPermits.release();
+    }
+
+    /**
+     * submit an admitted task
+     *
+     * @param taskInstanceId task instance id
+     * @param task task
+     */
+    public void submit(int taskInstanceId, Runnable task) {
+        AdmittedTask admittedTask = new AdmittedTask(taskInstanceId, task);
+        queuedTasks.put(taskInstanceId, admittedTask);
+        workerExecService.execute(admittedTask);
+    }
+
+    /**
+     * reclaim a task that is admitted but not started
+     *
+     * @param taskInstanceId task instance id
+     * @return true if the task will not run on this worker
+     */
+    public boolean reclaim(int taskInstanceId) {
+        AdmittedTask admittedTask = queuedTasks.remove(taskInstanceId);
+        if (admittedTask == null || !admittedTask.claim()) {
+            return false;
+        }
+        admissionPermits.release();
+        reclaimedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * @return tasks admitted and not started
+     */
+    public int getQueuedCount() {
+        return queuedTasks.size();
+    }
+
+    /**
+     * @return tasks admitted since the worker started
+     */
+    public long getAdmittedCount() {
+        return admittedCount.get();
+    }
+
+    /**
+     * @return tasks rejected since the worker started
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * @return tasks reclaimed by masters since the worker started
+     */
+    public long getReclaimedCount() {
+        return reclaimedCount.get();
+    }
+
+    /**
+     * a task either runs or is reclaimed, whichever claims it first
+     */
+    private class AdmittedTask implements Runnable {
+
+        private final int taskInstanceId;
+
+        private final Runnable task;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        AdmittedTask(int taskInstanceId, Runnable task) {
+            this.taskInstanceId = taskInstanceId;
+            this.task = task;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public void run() {
+            if (!claim()) {
+                // reclaimed
+                return;
+            }
+            queuedTasks.remove(taskInstanceId, this);
+            try {
+                task.run();
+            } finally {
+                admissionPermits.release();
+            }
+        }
+    }
+}
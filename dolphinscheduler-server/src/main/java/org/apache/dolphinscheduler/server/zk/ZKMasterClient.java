@@ -31,6 +31,7 @@ import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.server.builder.TaskExecutionContextBuilder;
 import org.apache.dolphinscheduler.server.entity.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.utils.ProcessUtils;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.zk.AbstractZKClient;
@@ -40,8 +41,17 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import static org.apache.dolphinscheduler.common.Constants.SLEEP_TIME_MILLIS;
 
@@ -65,8 +75,31 @@ public class ZKMasterClient extends AbstractZKClient {
     @Autowired
     private ProcessService processService;
 
+    /**
+     * master config
+     */
+    @Autowired
+    private MasterConfig masterConfig;
+
+    /**
+     * kill yarn jobs of failover tasks in parallel
+     */
+    private ExecutorService failoverKillExecutor;
+
+    /**
+     * failover statistics
+     */
+    private final AtomicLong failoverCount = new AtomicLong();
+
+    private final AtomicLong failoverCostMillis = new AtomicLong();
+
+    private volatile long lastFailoverCostMillis;
+
     public void start() {
 
+        failoverKillExecutor = ThreadUtils.newDaemonFixedThreadExecutor("Failover-Kill-Thread",
+                Math.max(1, masterConfig.getMasterFailoverKillThreads()));
+
         InterProcessMutex mutex = null;
         try {
             // create distributed lock with the root node path of the lock space as /dolphinscheduler/lock/failover/master
@@ -86,6 +119,8 @@ public class ZKMasterClient extends AbstractZKClient {
                 removeZKNodePath(null, ZKNodeType.MASTER, true);
                 removeZKNodePath(null, ZKNodeType.WORKER, true);
             }
+            // retry the failovers that failed before this master started
+            resumeFailoverClaims(null);
             registerListener();
         } catch (Exception e) {
             logger.error("master start up exception", e);
@@ -96,6 +131,9 @@ public class ZKMasterClient extends AbstractZKClient {
 
     @Override
     public void close() {
+        if (failoverKillExecutor != null) {
+            failoverKillExecutor.shutdownNow();
+        }
         super.close();
     }
 
@@ -126,35 +164,177 @@ public class ZKMasterClient extends AbstractZKClient {
      */
     private void removeZKNodePath(String path, ZKNodeType zkNodeType, boolean failover) {
         logger.info("{} node deleted : {}", zkNodeType.toString(), path);
+        String serverHost = null;
+        if (StringUtils.isNotEmpty(path)) {
+            serverHost = getHostByEventDataPath(path);
+            if (StringUtils.isEmpty(serverHost)) {
+                logger.error("server down error: unknown path: {}", path);
+                return;
+            }
+        }
+        failoverWithClaim(path, serverHost, zkNodeType, failover);
+    }
+
+    /**
+     * claim the failover of a dead server and then do the failover without holding the failover lock
+     *
+     * @param path       zookeeper node path, null when resuming a claim
+     * @param serverHost server host
+     * @param zkNodeType zookeeper node type
+     * @param failover   is failover
+     */
+    private void failoverWithClaim(String path, String serverHost, ZKNodeType zkNodeType, boolean failover) {
+        if (!claimFailover(path, serverHost, zkNodeType)) {
+            return;
+        }
+        boolean finished = false;
+        try {
+            //failover server
+            if (failover) {
+                failoverServerWhenDown(serverHost, zkNodeType);
+            }
+            finished = true;
+        } catch (Exception e) {
+            logger.error("{} server failover failed.", zkNodeType.toString());
+            logger.error("failover exception ", e);
+        } finally {
+            if (finished) {
+                releaseFailoverClaim(serverHost, zkNodeType);
+            } else {
+                markFailoverClaimRetryable(serverHost, zkNodeType);
+            }
+        }
+        if (!finished) {
+            return;
+        }
+
+        // the dead master may have left failovers half done, failed failovers are retried as well
+        resumeFailoverClaims(zkNodeType == ZKNodeType.MASTER ? serverHost : null);
+    }
+
+    /**
+     * claim the failover of a dead server, the failover lock is only held while claiming.
+     * a claim owned by a living master is left alone, a claim owned by a dead master is taken over.
+     *
+     * @param path       zookeeper node path
+     * @param serverHost server host
+     * @param zkNodeType zookeeper node type
+     * @return true if this master should do the failover
+     */
+    private boolean claimFailover(String path, String serverHost, ZKNodeType zkNodeType) {
         InterProcessMutex mutex = null;
         try {
-            String failoverPath = getFailoverLockPath(zkNodeType);
             // create a distributed lock
-            mutex = new InterProcessMutex(getZkClient(), failoverPath);
+            mutex = new InterProcessMutex(getZkClient(), getFailoverLockPath(zkNodeType));
             mutex.acquire();
 
-            String serverHost = null;
-            if(StringUtils.isNotEmpty(path)){
-                serverHost = getHostByEventDataPath(path);
-                if(StringUtils.isEmpty(serverHost)){
-                    logger.error("server down error: unknown path: {}", path);
-                    return;
-                }
+            if (StringUtils.isNotEmpty(path)) {
                 // handle dead server
                 handleDeadServer(path, zkNodeType, Constants.ADD_ZK_OP);
             }
-            //failover server
-            if (failover) {
-                failoverServerWhenDown(serverHost, zkNodeType);
+            if (StringUtils.isEmpty(serverHost)) {
+                return true;
+            }
+            String claimPath = getFailoverClaimPath(serverHost, zkNodeType);
+            String localAddress = getLocalAddress();
+            if (isExisted(claimPath)) {
+                String owner = get(claimPath);
+                if (StringUtils.isNotEmpty(owner) && !owner.equals(localAddress)
+                        && checkZKNodeExists(owner, ZKNodeType.MASTER)) {
+                    logger.info("{} server {} failover is claimed by master {}", zkNodeType, serverHost, owner);
+                    return false;
+                }
             }
+            persist(claimPath, localAddress);
+            return true;
         } catch (Exception e) {
-            logger.error("{} server failover failed.", zkNodeType.toString());
-            logger.error("failover exception ", e);
+            logger.error("{} server {} failover claim failed", zkNodeType, serverHost, e);
+            return false;
         } finally {
             releaseMutex(mutex);
         }
     }
 
+    /**
+     * release the failover claim once the failover is done
+     *
+     * @param serverHost server host
+     * @param zkNodeType zookeeper node type
+     */
+    private void releaseFailoverClaim(String serverHost, ZKNodeType zkNodeType) {
+        if (StringUtils.isEmpty(serverHost)) {
+            return;
+        }
+        remove(getFailoverClaimPath(serverHost, zkNodeType));
+    }
+
+    /**
+     * keep the claim of a failed failover without an owner, so that the failover is retried
+     *
+     * @param serverHost server host
+     * @param zkNodeType zookeeper node type
+     */
+    private void markFailoverClaimRetryable(String serverHost, ZKNodeType zkNodeType) {
+        if (StringUtils.isEmpty(serverHost)) {
+            return;
+        }
+        try {
+            persist(getFailoverClaimPath(serverHost, zkNodeType), "");
+        } catch (Exception e) {
+            logger.error("{} server {} failover claim can not be marked retryable", zkNodeType, serverHost, e);
+        }
+    }
+
+    /**
+     * resume the failovers claimed by a dead master and retry the failed failovers.
+     * every failover batch is committed on its own, so only the remaining work is done again.
+     *
+     * @param deadMasterHost dead master host, null if only failed failovers are retried
+     */
+    private void resumeFailoverClaims(String deadMasterHost) {
+        String claimParentPath = getFailoverClaimParentPath();
+        if (!isExisted(claimParentPath)) {
+            return;
+        }
+        for (String claim : getChildrenKeys(claimParentPath)) {
+            String claimPath = claimParentPath + Constants.SINGLE_SLASH + claim;
+            int index = claim.indexOf(Constants.UNDERLINE);
+            if (index <= 0 || !isExisted(claimPath)) {
+                continue;
+            }
+            String owner = get(claimPath);
+            if (StringUtils.isNotEmpty(owner) && !owner.equals(deadMasterHost)) {
+                continue;
+            }
+            ZKNodeType zkNodeType = Constants.MASTER_PREFIX.equals(claim.substring(0, index)) ? ZKNodeType.MASTER : ZKNodeType.WORKER;
+            String serverHost = claim.substring(index + 1);
+            logger.info("resume {} server {} failover left by {}", zkNodeType, serverHost,
+                    StringUtils.isEmpty(owner) ? "a failed failover" : "dead master " + owner);
+            failoverWithClaim(null, serverHost, zkNodeType, true);
+        }
+    }
+
+    /**
+     * get failover claim path
+     *
+     * @param serverHost server host
+     * @param zkNodeType zookeeper node type
+     * @return failover claim path
+     */
+    private String getFailoverClaimPath(String serverHost, ZKNodeType zkNodeType) {
+        String type = (zkNodeType == ZKNodeType.MASTER) ? Constants.MASTER_PREFIX : Constants.WORKER_PREFIX;
+        return getFailoverClaimParentPath() + Constants.SINGLE_SLASH + type + Constants.UNDERLINE + serverHost;
+    }
+
+    /**
+     * get local address, the same as the master node registered in zookeeper
+     *
+     * @return local address
+     */
+    private String getLocalAddress() {
+        return NetUtils.getAddr(masterConfig.getListenPort());
+    }
+
     /**
      * failover server when server down
      *
@@ -238,67 +418,47 @@ public class ZKMasterClient extends AbstractZKClient {
     /**
      * task needs failover if task start before worker starts
      *
-     * @param taskInstance task instance
+     * @param taskInstance     task instance
+     * @param workerStartDates worker address -> worker server start date
      * @return true if task instance need fail over
      */
-    private boolean checkTaskInstanceNeedFailover(TaskInstance taskInstance) throws Exception {
-
-        boolean taskNeedFailover = true;
-
+    private boolean checkTaskInstanceNeedFailover(TaskInstance taskInstance, Map<String, Date> workerStartDates) {
         //now no host will execute this task instance,so no need to failover the task
         if (taskInstance.getHost() == null) {
             return false;
         }
-
         // if the worker node exists in zookeeper, we must check the task starts after the worker
-        if (checkZKNodeExists(taskInstance.getHost(), ZKNodeType.WORKER)) {
-            //if task start after worker starts, there is no need to failover the task.
-            if (checkTaskAfterWorkerStart(taskInstance)) {
-                taskNeedFailover = false;
-            }
-        }
-        return taskNeedFailover;
+        //if task start after worker starts, there is no need to failover the task.
+        Date workerServerStartDate = workerStartDates.get(taskInstance.getHost());
+        return workerServerStartDate == null
+                || taskInstance.getStartTime() == null
+                || !taskInstance.getStartTime().after(workerServerStartDate);
     }
 
     /**
-     * check task start after the worker server starts.
+     * get the start date of all living workers
      *
-     * @param taskInstance task instance
-     * @return true if task instance start time after worker server start date
+     * @return worker address -> worker server start date
      */
-    private boolean checkTaskAfterWorkerStart(TaskInstance taskInstance) {
-        if (StringUtils.isEmpty(taskInstance.getHost())) {
-            return false;
-        }
-        Date workerServerStartDate = null;
-        List<Server> workerServers = getServersList(ZKNodeType.WORKER);
-        for (Server workerServer : workerServers) {
-            if (taskInstance.getHost().equals(workerServer.getHost() + Constants.COLON + workerServer.getPort())) {
-                workerServerStartDate = workerServer.getCreateTime();
-                break;
+    private Map<String, Date> getWorkerServerStartDates() {
+        Map<String, Date> workerStartDates = new HashMap<>();
+        for (Server workerServer : getServersList(ZKNodeType.WORKER)) {
+            if (workerServer.getCreateTime() != null) {
+                workerStartDates.put(workerServer.getHost() + Constants.COLON + workerServer.getPort(), workerServer.getCreateTime());
             }
         }
-        if (workerServerStartDate != null) {
-            return taskInstance.getStartTime().after(workerServerStartDate);
-        }
-        return false;
+        return workerStartDates;
     }
 
-    /**
-     * failover worker tasks
-     *
-     * 1. kill yarn job if there are yarn jobs in tasks.
-     * 2. change task state from running to need failover.
-     * 3. failover all tasks when workerHost is null
-     * @param workerHost worker host
-     */
-
     /**
      * failover worker tasks
      * <p>
      * 1. kill yarn job if there are yarn jobs in tasks.
      * 2. change task state from running to need failover.
      * 3. failover all tasks when workerHost is null
+     * <p>
+     * tasks are failed over in batches, the yarn jobs of a batch are killed in parallel
+     * and each batch is committed on its own, so an interrupted failover can be resumed.
      *
      * @param workerHost           worker host
      * @param needCheckWorkerAlive need check worker alive
@@ -306,31 +466,68 @@ public class ZKMasterClient extends AbstractZKClient {
      */
     private void failoverWorker(String workerHost, boolean needCheckWorkerAlive) throws Exception {
         logger.info("start worker[{}] failover ...", workerHost);
+        long startTime = System.currentTimeMillis();
 
         List<TaskInstance> needFailoverTaskInstanceList = processService.queryNeedFailoverTaskInstances(workerHost);
-        for (TaskInstance taskInstance : needFailoverTaskInstanceList) {
-            if (needCheckWorkerAlive) {
-                if (!checkTaskInstanceNeedFailover(taskInstance)) {
-                    continue;
-                }
-            }
+        if (needCheckWorkerAlive) {
+            Map<String, Date> workerStartDates = getWorkerServerStartDates();
+            needFailoverTaskInstanceList = needFailoverTaskInstanceList.stream()
+                    .filter(taskInstance -> checkTaskInstanceNeedFailover(taskInstance, workerStartDates))
+                    .collect(Collectors.toList());
+        }
+
+        int total = needFailoverTaskInstanceList.size();
+        int batchSize = Math.max(1, masterConfig.getMasterFailoverBatchSize());
+        for (int from = 0; from < total; from += batchSize) {
+            int to = Math.min(from + batchSize, total);
+            failoverTaskInstances(needFailoverTaskInstanceList.subList(from, to));
+            logger.info("worker[{}] failover progress : {}/{}", workerHost, to, total);
+        }
 
-            ProcessInstance processInstance = processService.findProcessInstanceDetailById(taskInstance.getProcessInstanceId());
+        long cost = recordFailover(startTime);
+        logger.info("end worker[{}] failover, task instance size:{}, cost:{}ms", workerHost, total, cost);
+    }
+
+    /**
+     * failover a batch of task instances
+     *
+     * @param taskInstances task instances
+     * @throws InterruptedException interrupted while waiting for yarn kills
+     */
+    private void failoverTaskInstances(List<TaskInstance> taskInstances) throws InterruptedException {
+        Set<Integer> processInstanceIds = taskInstances.stream()
+                .map(TaskInstance::getProcessInstanceId)
+                .collect(Collectors.toSet());
+        Map<Integer, ProcessInstance> processInstanceMap = processService.findProcessInstanceDetailByIds(processInstanceIds);
+
+        List<Integer> taskInstanceIds = new ArrayList<>(taskInstances.size());
+        List<Future<?>> killFutures = new ArrayList<>(taskInstances.size());
+        for (TaskInstance taskInstance : taskInstances) {
+            taskInstanceIds.add(taskInstance.getId());
+
+            TaskExecutionContextBuilder builder = TaskExecutionContextBuilder.get()
+                    .buildTaskInstanceRelatedInfo(taskInstance);
+            ProcessInstance processInstance = processInstanceMap.get(taskInstance.getProcessInstanceId());
             if (processInstance != null) {
                 taskInstance.setProcessInstance(processInstance);
+                builder.buildProcessInstanceRelatedInfo(processInstance);
             }
-
-            TaskExecutionContext taskExecutionContext = TaskExecutionContextBuilder.get()
-                    .buildTaskInstanceRelatedInfo(taskInstance)
-                    .buildProcessInstanceRelatedInfo(processInstance)
-                    .create();
+            TaskExecutionContext taskExecutionContext = builder.create();
             // only kill yarn job if exists , the local thread has exited
-            ProcessUtils.killYarnJob(taskExecutionContext);
+            killFutures.add(failoverKillExecutor.submit(() -> ProcessUtils.killYarnJob(taskExecutionContext)));
+        }
+        for (Future<?> killFuture : killFutures) {
+            try {
+                killFuture.get();
+            } catch (ExecutionException e) {
+                logger.error("kill yarn job failure", e);
+            }
+        }
 
+        processService.updateTaskInstanceState(taskInstanceIds, ExecutionStatus.NEED_FAULT_TOLERANCE);
+        for (TaskInstance taskInstance : taskInstances) {
             taskInstance.setState(ExecutionStatus.NEED_FAULT_TOLERANCE);
-            processService.saveTaskInstance(taskInstance);
         }
-        logger.info("end worker[{}] failover ...", workerHost);
     }
 
     /**
@@ -340,21 +537,60 @@ public class ZKMasterClient extends AbstractZKClient {
      */
     private void failoverMaster(String masterHost) {
         logger.info("start master failover ...");
+        long startTime = System.currentTimeMillis();
 
-        List<ProcessInstance> needFailoverProcessInstanceList = processService.queryNeedFailoverProcessInstances(masterHost);
+        List<ProcessInstance> needFailoverProcessInstanceList = processService.queryNeedFailoverProcessInstances(masterHost)
+                .stream()
+                .filter(processInstance -> !Constants.NULL.equals(processInstance.getHost()))
+                .collect(Collectors.toList());
 
-        logger.info("failover process list size:{} ", needFailoverProcessInstanceList.size());
+        int total = needFailoverProcessInstanceList.size();
+        logger.info("failover process list size:{} ", total);
         //updateProcessInstance host is null and insert into command
-        for (ProcessInstance processInstance : needFailoverProcessInstanceList) {
-            logger.info("failover process instance id: {} host:{}",
-                    processInstance.getId(), processInstance.getHost());
-            if (Constants.NULL.equals(processInstance.getHost())) {
-                continue;
-            }
-            processService.processNeedFailoverProcessInstances(processInstance);
+        int batchSize = Math.max(1, masterConfig.getMasterFailoverBatchSize());
+        for (int from = 0; from < total; from += batchSize) {
+            int to = Math.min(from + batchSize, total);
+            processService.processNeedFailoverProcessInstances(needFailoverProcessInstanceList.subList(from, to));
+            logger.info("master[{}] failover progress : {}/{}", masterHost, to, total);
         }
 
-        logger.info("master failover end");
+        long cost = recordFailover(startTime);
+        logger.info("master failover end, cost:{}ms", cost);
+    }
+
+    /**
+     * record a finished failover
+     *
+     * @param startTime failover start time
+     * @return failover cost in milliseconds
+     */
+    private long recordFailover(long startTime) {
+        long cost = System.currentTimeMillis() - startTime;
+        failoverCount.incrementAndGet();
+        failoverCostMillis.addAndGet(cost);
+        lastFailoverCostMillis = cost;
+        return cost;
+    }
+
+    /**
+     * @return number of finished failovers
+     */
+    public long getFailoverCount() {
+        return failoverCount.get();
+    }
+
+    /**
+     * @return total cost in milliseconds of finished failovers
+     */
+    public long getFailoverCostMillis() {
+        return failoverCostMillis.get();
+    }
+
+    /**
+     * @return cost in milliseconds of the last finished failover
+     */
+    public long getLastFailoverCostMillis() {
+        return lastFailoverCostMillis;
     }
 
     public InterProcessMutex blockAcquireMutex() throws Exception {
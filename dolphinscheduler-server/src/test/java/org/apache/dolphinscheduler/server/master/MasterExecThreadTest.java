@@ -38,7 +38,9 @@ import org.apache.dolphinscheduler.dao.entity.Schedule;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.runner.MasterExecThread;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueueImpl;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -86,6 +88,9 @@ public class MasterExecThreadTest {
         config = new MasterConfig();
         config.setMasterExecTaskNum(1);
         Mockito.when(applicationContext.getBean(MasterConfig.class)).thenReturn(config);
+        Mockito.when(applicationContext.getBean(TaskPriorityQueueImpl.class)).thenReturn(new TaskPriorityQueueImpl());
+        SpringApplicationContext springApplicationContext = new SpringApplicationContext();
+        springApplicationContext.setApplicationContext(applicationContext);
 
         processInstance = mock(ProcessInstance.class);
         Mockito.when(processInstance.getProcessDefinitionId()).thenReturn(processDefinitionId);
@@ -212,6 +217,32 @@ public class MasterExecThreadTest {
         }
     }
 
+    @Test
+    public void testGetProcessInstanceState() {
+        try {
+            ProcessInstance instance = new ProcessInstance();
+            instance.setState(ExecutionStatus.RUNNING_EXECUTION);
+            TaskInstance taskInstance = new TaskInstance();
+            taskInstance.setName("task1");
+            taskInstance.setState(ExecutionStatus.KILL);
+            Class<MasterExecThread> masterExecThreadClass = MasterExecThread.class;
+            Method putCompleteTask = masterExecThreadClass.getDeclaredMethod("putCompleteTask", TaskInstance.class);
+            putCompleteTask.setAccessible(true);
+            Method getProcessInstanceState = masterExecThreadClass.getDeclaredMethod("getProcessInstanceState", ProcessInstance.class);
+            getProcessInstanceState.setAccessible(true);
+
+            putCompleteTask.invoke(masterExecThread, taskInstance);
+            Assert.assertEquals(ExecutionStatus.FAILURE, getProcessInstanceState.invoke(masterExecThread, instance));
+
+            // the counted state moves with the task when it is put again
+            taskInstance.setState(ExecutionStatus.SUCCESS);
+            putCompleteTask.invoke(masterExecThread, taskInstance);
+            Assert.assertEquals(ExecutionStatus.SUCCESS, getProcessInstanceState.invoke(masterExecThread, instance));
+        } catch (Exception e) {
+            Assert.fail();
+        }
+    }
+
     private List<Schedule> zeroSchedulerList() {
         return Collections.EMPTY_LIST;
     }
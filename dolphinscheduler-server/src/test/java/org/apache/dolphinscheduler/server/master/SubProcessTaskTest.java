@@ -25,9 +25,14 @@ import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.runner.MasterSchedulerService;
+import org.apache.dolphinscheduler.server.master.runner.ProcessInstanceFinishNotifier;
 import org.apache.dolphinscheduler.server.master.runner.SubProcessTaskExecThread;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.apache.dolphinscheduler.service.process.SubProcessLauncher;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -54,9 +59,11 @@ public class SubProcessTaskTest {
 
     private ProcessInstance processInstance;
 
+    private ApplicationContext applicationContext;
+
     @Before
     public void before() {
-        ApplicationContext applicationContext = Mockito.mock(ApplicationContext.class);
+        applicationContext = Mockito.mock(ApplicationContext.class);
         SpringApplicationContext springApplicationContext = new SpringApplicationContext();
         springApplicationContext.setApplicationContext(applicationContext);
 
@@ -118,6 +125,44 @@ public class SubProcessTaskTest {
         Assert.assertEquals(ExecutionStatus.FAILURE, taskExecThread.getTaskInstance().getState());
     }
 
+    @Test
+    public void testLocalLaunch() throws Exception {
+        SubProcessLauncher launcher = Mockito.mock(SubProcessLauncher.class);
+        ProcessInstanceFinishNotifier finishNotifier = new ProcessInstanceFinishNotifier();
+        MasterSchedulerService masterSchedulerService = Mockito.mock(MasterSchedulerService.class);
+        Mockito.when(masterSchedulerService.getSubProcessLauncher()).thenReturn(launcher);
+        Mockito.when(masterSchedulerService.getFinishNotifier()).thenReturn(finishNotifier);
+        Mockito.when(applicationContext.getBean(MasterSchedulerService.class)).thenReturn(masterSchedulerService);
+        Mockito.when(processService.submitTask(Mockito.any(), Mockito.eq(launcher))).thenAnswer(t -> t.getArgument(0));
+
+        TaskInstance taskInstance = getTaskInstance(getTaskNode(), processInstance);
+        ProcessInstance subProcessInstance = getSubProcessInstance(ExecutionStatus.RUNNING_EXECUTION);
+        Mockito.when(processService
+                .findSubProcessInstance(processInstance.getId(), taskInstance.getId()))
+                .thenReturn(subProcessInstance);
+        // the sub process finishes right after the first poll, the exec thread of the sub process notifies it
+        AtomicInteger polls = new AtomicInteger();
+        Mockito.when(processService
+                .findProcessInstanceById(subProcessInstance.getId()))
+                .thenAnswer(t -> {
+                    if (polls.incrementAndGet() == 1) {
+                        finishNotifier.notifyFinished(subProcessInstance.getId());
+                    } else {
+                        subProcessInstance.setState(ExecutionStatus.SUCCESS);
+                    }
+                    return subProcessInstance;
+                });
+
+        SubProcessTaskExecThread taskExecThread = new SubProcessTaskExecThread(taskInstance);
+        long start = System.currentTimeMillis();
+        taskExecThread.call();
+
+        Assert.assertEquals(ExecutionStatus.SUCCESS, taskExecThread.getTaskInstance().getState());
+        Assert.assertEquals(2, polls.get());
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+        Mockito.verify(processService).submitTask(Mockito.any(), Mockito.eq(launcher));
+    }
+
     private TaskNode getTaskNode() {
         TaskNode taskNode = new TaskNode();
         taskNode.setId("tasks-10");
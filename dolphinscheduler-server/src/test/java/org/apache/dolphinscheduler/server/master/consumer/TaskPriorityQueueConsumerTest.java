@@ -49,10 +49,13 @@ import org.apache.dolphinscheduler.service.zk.ZookeeperCachedOperator;
 import org.apache.dolphinscheduler.service.zk.ZookeeperConfig;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -143,6 +146,7 @@ public class TaskPriorityQueueConsumerTest {
         taskInstance.setProcessDefine(processDefinition);
 
         Mockito.doReturn(taskInstance).when(processService).getTaskInstanceDetailByTaskId(1);
+        Mockito.doReturn(Collections.singletonList(taskInstance)).when(processService).getTaskInstanceDetailByTaskIds(Collections.singletonList(1));
         TaskPriority taskPriority = new TaskPriority(2, 1, 2, 1, "default");
         taskPriorityQueue.put(taskPriority);
 
@@ -180,6 +184,7 @@ public class TaskPriorityQueueConsumerTest {
         processDefinition.setProjectId(1);
         taskInstance.setProcessDefine(processDefinition);
         Mockito.doReturn(taskInstance).when(processService).getTaskInstanceDetailByTaskId(1);
+        Mockito.doReturn(Collections.singletonList(taskInstance)).when(processService).getTaskInstanceDetailByTaskIds(Collections.singletonList(1));
         TaskPriority taskPriority = new TaskPriority(2, 1, 2, 1, "default");
         taskPriorityQueue.put(taskPriority);
 
@@ -244,6 +249,7 @@ public class TaskPriorityQueueConsumerTest {
         processDefinition.setProjectId(1);
         taskInstance.setProcessDefine(processDefinition);
         Mockito.doReturn(taskInstance).when(processService).getTaskInstanceDetailByTaskId(1);
+        Mockito.doReturn(Collections.singletonList(taskInstance)).when(processService).getTaskInstanceDetailByTaskIds(Collections.singletonList(1));
         TaskPriority taskPriority = new TaskPriority(2, 1, 2, 1, "default");
         taskPriorityQueue.put(taskPriority);
 
@@ -312,6 +318,7 @@ public class TaskPriorityQueueConsumerTest {
         processDefinition.setProjectId(1);
         taskInstance.setProcessDefine(processDefinition);
         Mockito.doReturn(taskInstance).when(processService).getTaskInstanceDetailByTaskId(1);
+        Mockito.doReturn(Collections.singletonList(taskInstance)).when(processService).getTaskInstanceDetailByTaskIds(Collections.singletonList(1));
         TaskPriority taskPriority = new TaskPriority(2, 1, 2, 1, "default");
         taskPriorityQueue.put(taskPriority);
 
@@ -403,6 +410,7 @@ public class TaskPriorityQueueConsumerTest {
         taskInstance.setProcessDefine(processDefinition);
 
         Mockito.doReturn(taskInstance).when(processService).getTaskInstanceDetailByTaskId(1);
+        Mockito.doReturn(Collections.singletonList(taskInstance)).when(processService).getTaskInstanceDetailByTaskIds(Collections.singletonList(1));
         Mockito.doReturn(taskInstance).when(processService).findTaskInstanceById(1);
 
         TaskPriority taskPriority = new TaskPriority(2, 1, 2, 1, "NoWorkGroup");
@@ -457,6 +465,7 @@ public class TaskPriorityQueueConsumerTest {
         taskInstance.setProcessDefine(processDefinition);
 
         Mockito.doReturn(taskInstance).when(processService).getTaskInstanceDetailByTaskId(1);
+        Mockito.doReturn(Collections.singletonList(taskInstance)).when(processService).getTaskInstanceDetailByTaskIds(Collections.singletonList(1));
         Mockito.doReturn(taskInstance).when(processService).findTaskInstanceById(1);
 
         TaskPriority taskPriority = new TaskPriority();
@@ -510,6 +519,7 @@ public class TaskPriorityQueueConsumerTest {
         taskInstance.setProcessDefine(processDefinition);
 
         Mockito.doReturn(taskInstance).when(processService).getTaskInstanceDetailByTaskId(1);
+        Mockito.doReturn(Collections.singletonList(taskInstance)).when(processService).getTaskInstanceDetailByTaskIds(Collections.singletonList(1));
         Mockito.doReturn(taskInstance).when(processService).findTaskInstanceById(1);
 
         TaskExecutionContext taskExecutionContext  = taskPriorityQueueConsumer.getTaskExecutionContext(1);
@@ -609,6 +619,57 @@ public class TaskPriorityQueueConsumerTest {
         Assert.assertEquals(1,dataxTaskExecutionContext.getDataSourceId());
         Assert.assertEquals(1,dataxTaskExecutionContext.getDataTargetId());
     }
+    @Test
+    public void testDispatchBatch() {
+        TaskInstance finishedTaskInstance = new TaskInstance();
+        finishedTaskInstance.setId(3);
+        finishedTaskInstance.setState(ExecutionStatus.SUCCESS);
+        Mockito.doReturn(Collections.singletonList(finishedTaskInstance)).when(processService)
+                .getTaskInstanceDetailByTaskIds(Arrays.asList(3, 4));
+
+        TaskPriority finishedTask = new TaskPriority();
+        finishedTask.setTaskId(3);
+        TaskPriority notExistTask = new TaskPriority();
+        notExistTask.setTaskId(4);
+
+        // finished and not exist tasks are not dispatched again
+        List<TaskPriority> failedDispatchTasks = taskPriorityQueueConsumer.dispatch(Arrays.asList(finishedTask, notExistTask));
+        Assert.assertTrue(failedDispatchTasks.isEmpty());
+        Mockito.verify(processService, Mockito.never()).getTaskInstanceDetailByTaskId(3);
+    }
+
+    @Test
+    public void testRedispatch() {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(5);
+        taskInstance.setProcessInstanceId(6);
+        taskInstance.setProcessInstancePriority(Priority.HIGH);
+        taskInstance.setWorkerGroup("spark");
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(6);
+        processInstance.setProcessInstancePriority(Priority.LOW);
+        Mockito.doReturn(taskInstance).when(processService).findTaskInstanceById(5);
+        Mockito.doReturn(processInstance).when(processService).findProcessInstanceById(6);
+
+        // a task given back by a worker keeps its worker group
+        TaskPriority taskPriority = taskPriorityQueueConsumer.getRedispatchTask(5);
+        Assert.assertEquals(5, taskPriority.getTaskId());
+        Assert.assertEquals(6, taskPriority.getProcessInstanceId());
+        Assert.assertEquals("spark", taskPriority.getGroupName());
+        Assert.assertEquals(Priority.HIGH.getCode(), taskPriority.getTaskInstancePriority());
+        Assert.assertEquals(Priority.LOW.getCode(), taskPriority.getProcessInstancePriority());
+        Assert.assertNull(taskPriorityQueueConsumer.getRedispatchTask(7));
+
+        // the task instance is loaded on the redispatch thread rather than the calling netty thread
+        AtomicReference<Thread> lookupThread = new AtomicReference<>();
+        Mockito.doAnswer(invocation -> {
+            lookupThread.set(Thread.currentThread());
+            return null;
+        }).when(processService).findTaskInstanceById(8);
+        taskPriorityQueueConsumer.redispatch(8);
+        Mockito.verify(processService, Mockito.timeout(5000)).findTaskInstanceById(8);
+        Assert.assertNotEquals(Thread.currentThread(), lookupThread.get());
+    }
 
     @Test
     public void testRun() throws Exception {
@@ -653,6 +714,7 @@ public class TaskPriorityQueueConsumerTest {
         taskInstance.setProcessDefine(processDefinition);
 
         Mockito.doReturn(taskInstance).when(processService).getTaskInstanceDetailByTaskId(1);
+        Mockito.doReturn(Collections.singletonList(taskInstance)).when(processService).getTaskInstanceDetailByTaskIds(Collections.singletonList(1));
         Mockito.doReturn(taskInstance).when(processService).findTaskInstanceById(1);
 
         TaskPriority taskPriority = new TaskPriority(2, 1, 2, 1, "NoWorkGroup");
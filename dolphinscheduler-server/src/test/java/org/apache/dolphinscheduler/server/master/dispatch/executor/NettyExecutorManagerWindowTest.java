@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.executor;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.utils.NetUtils;
+import org.apache.dolphinscheduler.remote.NettyRemotingServer;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.config.NettyServerConfig;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
+import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
+import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
+import org.apache.dolphinscheduler.server.registry.ZookeeperNodeManager;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+/**
+ * netty executor manager inflight window and asynchronous send test
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({SpringApplicationContext.class})
+@PowerMockIgnore({"javax.management.*", "io.netty.*"})
+public class NettyExecutorManagerWindowTest {
+
+    private static final int WORKER_PORT = 30010;
+
+    private static final String WORKER = NetUtils.getAddr(WORKER_PORT);
+
+    private static final String DEAD_WORKER = NetUtils.getAddr(4444);
+
+    @InjectMocks
+    private NettyExecutorManager nettyExecutorManager;
+
+    @Mock
+    private ZookeeperNodeManager zookeeperNodeManager;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    private NettyRemotingServer workerServer;
+
+    /**
+     * commands received by the worker, the worker never acks
+     */
+    private final BlockingQueue<Command> receivedCommands = new LinkedBlockingQueue<>();
+
+    /**
+     * contexts of the finished sends, the host is null if the send failed
+     */
+    private final BlockingQueue<ExecutionContext> sentContexts = new LinkedBlockingQueue<>();
+
+    private final ExecuteCallback callback = new ExecuteCallback() {
+        @Override
+        public void onSuccess(ExecutionContext context) {
+            sentContexts.offer(context);
+        }
+
+        @Override
+        public void onFailure(ExecutionContext context, Throwable cause) {
+            context.setHost(null);
+            sentContexts.offer(context);
+        }
+    };
+
+    @Before
+    public void before() {
+        PowerMockito.mockStatic(SpringApplicationContext.class);
+        Mockito.when(masterConfig.getMasterDispatchInflightWindow()).thenReturn(2);
+        Mockito.when(masterConfig.getMasterDispatchSenderThreads()).thenReturn(1);
+        nettyExecutorManager.init();
+
+        NettyServerConfig serverConfig = new NettyServerConfig();
+        serverConfig.setListenPort(WORKER_PORT);
+        workerServer = new NettyRemotingServer(serverConfig);
+        workerServer.registerProcessor(CommandType.TASK_EXECUTE_REQUEST, (channel, command) -> receivedCommands.offer(command));
+        workerServer.start();
+    }
+
+    @After
+    public void after() {
+        nettyExecutorManager.getNettyRemotingClient().close();
+        workerServer.close();
+    }
+
+    @Test
+    public void testInflightWindowReleasedOnAck() throws Exception {
+        Mockito.when(zookeeperNodeManager.getWorkerGroupNodes(Constants.DEFAULT_WORKER_GROUP))
+                .thenReturn(new HashSet<>(Arrays.asList(WORKER)));
+
+        nettyExecutorManager.executeAsync(newContext(1, WORKER), callback);
+        nettyExecutorManager.executeAsync(newContext(2, WORKER), callback);
+        Assert.assertEquals(WORKER, takeSent().getHost().getAddress());
+        Assert.assertEquals(WORKER, takeSent().getHost().getAddress());
+        Assert.assertNotNull(receivedCommands.poll(10, TimeUnit.SECONDS));
+        Assert.assertNotNull(receivedCommands.poll(10, TimeUnit.SECONDS));
+
+        // the commands are written but not acked, so the window stays full
+        try {
+            nettyExecutorManager.executeAsync(newContext(3, WORKER), callback);
+            Assert.fail("the inflight window is full");
+        } catch (ExecuteException expected) {
+            // expected
+        }
+
+        nettyExecutorManager.ack(1);
+        nettyExecutorManager.executeAsync(newContext(3, WORKER), callback);
+        Assert.assertEquals(WORKER, takeSent().getHost().getAddress());
+    }
+
+    @Test
+    public void testFailoverToAnotherNode() throws Exception {
+        Mockito.when(zookeeperNodeManager.getWorkerGroupNodes(Constants.DEFAULT_WORKER_GROUP))
+                .thenReturn(new HashSet<>(Arrays.asList(DEAD_WORKER, WORKER)));
+
+        nettyExecutorManager.executeAsync(newContext(1, DEAD_WORKER), callback);
+        Assert.assertEquals(WORKER, takeSent().getHost().getAddress());
+        Assert.assertNotNull(receivedCommands.poll(10, TimeUnit.SECONDS));
+
+        // the permit of the dead worker is given back after the failed send
+        nettyExecutorManager.executeAsync(newContext(2, DEAD_WORKER), callback);
+        Assert.assertEquals(WORKER, takeSent().getHost().getAddress());
+        nettyExecutorManager.executeAsync(newContext(3, DEAD_WORKER), callback);
+        Assert.assertNull(takeSent().getHost());
+    }
+
+    private ExecutionContext takeSent() throws InterruptedException {
+        ExecutionContext context = sentContexts.poll(10, TimeUnit.SECONDS);
+        Assert.assertNotNull(context);
+        return context;
+    }
+
+    private ExecutionContext newContext(int taskInstanceId, String host) {
+        Command command = new Command();
+        command.setType(CommandType.TASK_EXECUTE_REQUEST);
+        command.setBody("{}".getBytes(StandardCharsets.UTF_8));
+        ExecutionContext context = new ExecutionContext(command, ExecutorType.WORKER, Constants.DEFAULT_WORKER_GROUP);
+        context.setTaskInstanceId(taskInstanceId);
+        context.setHost(Host.of(host));
+        return context;
+    }
+}
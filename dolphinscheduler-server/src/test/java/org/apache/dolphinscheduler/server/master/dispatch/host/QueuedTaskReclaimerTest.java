@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.host;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.model.HeartBeat;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
+import org.apache.dolphinscheduler.server.registry.ZookeeperNodeManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * queued task reclaimer test
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class QueuedTaskReclaimerTest {
+
+    private static final String WORKER_1 = "192.168.1.1:1234";
+
+    private static final String WORKER_2 = "192.168.1.2:1234";
+
+    @InjectMocks
+    private QueuedTaskReclaimer queuedTaskReclaimer;
+
+    @Mock
+    private ZookeeperNodeManager zookeeperNodeManager;
+
+    @Spy
+    private WorkerSlotManager workerSlotManager = new WorkerSlotManager();
+
+    @Mock
+    private NettyExecutorManager nettyExecutorManager;
+
+    @Before
+    public void before() {
+        for (int taskInstanceId = 1; taskInstanceId <= 3; taskInstanceId++) {
+            workerSlotManager.occupy(WORKER_1, taskInstanceId);
+            workerSlotManager.ack(taskInstanceId, WORKER_1);
+        }
+    }
+
+    @Test
+    public void testReclaimToFreePeer() {
+        Mockito.when(zookeeperNodeManager.getWorkerPeers(WORKER_1)).thenReturn(Collections.singleton(WORKER_2));
+        Mockito.when(zookeeperNodeManager.getWorkerHeartBeat(WORKER_2)).thenReturn(heartBeat(4, 3));
+
+        queuedTaskReclaimer.onHeartBeat(WORKER_1, heartBeat(1, 3));
+        // the free slot of the peer bounds the tasks reclaimed
+        Mockito.verify(nettyExecutorManager).reclaim(Host.of(WORKER_1), 3);
+        Mockito.verify(nettyExecutorManager, Mockito.times(1)).reclaim(ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+
+        // a task being reclaimed is not reclaimed again
+        queuedTaskReclaimer.onHeartBeat(WORKER_1, heartBeat(1, 3));
+        Mockito.verify(nettyExecutorManager, Mockito.times(1)).reclaim(ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+    }
+
+    @Test
+    public void testNoReclaim() {
+        Mockito.when(zookeeperNodeManager.getWorkerPeers(WORKER_1)).thenReturn(Collections.singleton(WORKER_2));
+        Mockito.when(zookeeperNodeManager.getWorkerHeartBeat(WORKER_2)).thenReturn(heartBeat(2, 2));
+
+        // no free peer
+        queuedTaskReclaimer.onHeartBeat(WORKER_1, heartBeat(1, 3));
+        // nothing queued
+        queuedTaskReclaimer.onHeartBeat(WORKER_1, heartBeat(3, 3));
+        Mockito.verify(nettyExecutorManager, Mockito.never()).reclaim(ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+    }
+
+    private static HeartBeat heartBeat(int execThreads, int taskCount) {
+        HeartBeat heartBeat = new HeartBeat();
+        heartBeat.setServerStatus(Constants.NORMAL_NODE_STATUS);
+        heartBeat.setWorkerExecThreads(execThreads);
+        heartBeat.setWorkerExecTaskCount(taskCount);
+        heartBeat.setWorkerWaitingTaskCount(Math.max(0, taskCount - execThreads));
+        return heartBeat;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.dispatch.host;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * worker slot manager test
+ */
+public class WorkerSlotManagerTest {
+
+    private static final String WORKER_1 = "192.168.1.1:1234";
+
+    private static final String WORKER_2 = "192.168.1.2:1234";
+
+    @Test
+    public void testUnknownWorker() {
+        WorkerSlotManager workerSlotManager = new WorkerSlotManager();
+        Assert.assertTrue(workerSlotManager.hasFreeSlot(WORKER_1));
+        Assert.assertEquals(0, workerSlotManager.getSlotUsage(WORKER_1), 0);
+
+        // slots unknown until the first heartbeat
+        workerSlotManager.occupy(WORKER_1, 1);
+        Assert.assertTrue(workerSlotManager.hasFreeSlot(WORKER_1));
+    }
+
+    @Test
+    public void testOccupyAndRelease() {
+        WorkerSlotManager workerSlotManager = new WorkerSlotManager();
+        workerSlotManager.reconcile(WORKER_1, 2, 0);
+
+        workerSlotManager.occupy(WORKER_1, 1);
+        Assert.assertEquals(1, workerSlotManager.getFreeSlots(WORKER_1));
+        workerSlotManager.occupy(WORKER_1, 1);
+        Assert.assertEquals(1, workerSlotManager.getFreeSlots(WORKER_1));
+        workerSlotManager.occupy(WORKER_1, 2);
+        Assert.assertFalse(workerSlotManager.hasFreeSlot(WORKER_1));
+        Assert.assertEquals(1, workerSlotManager.getSlotUsage(WORKER_1), 0);
+
+        workerSlotManager.release(1);
+        Assert.assertEquals(1, workerSlotManager.getFreeSlots(WORKER_1));
+        workerSlotManager.release(1);
+        Assert.assertEquals(1, workerSlotManager.getFreeSlots(WORKER_1));
+    }
+
+    @Test
+    public void testAckByAnotherWorker() {
+        WorkerSlotManager workerSlotManager = new WorkerSlotManager();
+        workerSlotManager.reconcile(WORKER_1, 1, 0);
+        workerSlotManager.reconcile(WORKER_2, 1, 0);
+
+        workerSlotManager.occupy(WORKER_1, 1);
+        workerSlotManager.ack(1, WORKER_2);
+        Assert.assertTrue(workerSlotManager.hasFreeSlot(WORKER_1));
+        Assert.assertFalse(workerSlotManager.hasFreeSlot(WORKER_2));
+
+        // a task not dispatched by this master is ignored
+        workerSlotManager.ack(2, WORKER_1);
+        Assert.assertTrue(workerSlotManager.hasFreeSlot(WORKER_1));
+    }
+
+    @Test
+    public void testReconcile() {
+        WorkerSlotManager workerSlotManager = new WorkerSlotManager();
+        workerSlotManager.reconcile(WORKER_1, 4, 0);
+        workerSlotManager.occupy(WORKER_1, 1);
+        workerSlotManager.occupy(WORKER_1, 2);
+        workerSlotManager.ack(1, WORKER_1);
+
+        // the acked task is counted by the heartbeat, the unacked one is kept
+        workerSlotManager.reconcile(WORKER_1, 4, 3);
+        Assert.assertEquals(0, workerSlotManager.getFreeSlots(WORKER_1));
+
+        workerSlotManager.remove(WORKER_1);
+        Assert.assertTrue(workerSlotManager.hasFreeSlot(WORKER_1));
+        Assert.assertEquals(Integer.MAX_VALUE, workerSlotManager.getFreeSlots(WORKER_1));
+    }
+
+    @Test
+    public void testReleaseAfterReconcile() {
+        WorkerSlotManager workerSlotManager = new WorkerSlotManager();
+        workerSlotManager.reconcile(WORKER_1, 4, 0);
+        workerSlotManager.occupy(WORKER_1, 1);
+        workerSlotManager.occupy(WORKER_1, 2);
+        workerSlotManager.occupy(WORKER_1, 3);
+        workerSlotManager.ack(1, WORKER_1);
+        workerSlotManager.ack(2, WORKER_1);
+
+        // task 1 finished before the heartbeat, task 2 is still running and task 3 is not acked yet
+        workerSlotManager.reconcile(WORKER_1, 4, 1);
+        Assert.assertEquals(2, workerSlotManager.getFreeSlots(WORKER_1));
+
+        // the result of task 1 must not give back the slot of task 2
+        workerSlotManager.release(1);
+        Assert.assertEquals(2, workerSlotManager.getFreeSlots(WORKER_1));
+
+        workerSlotManager.release(3);
+        Assert.assertEquals(3, workerSlotManager.getFreeSlots(WORKER_1));
+        workerSlotManager.release(3);
+        Assert.assertEquals(3, workerSlotManager.getFreeSlots(WORKER_1));
+
+        // task 2 is given back by the next heartbeat
+        workerSlotManager.release(2);
+        workerSlotManager.reconcile(WORKER_1, 4, 0);
+        Assert.assertEquals(4, workerSlotManager.getFreeSlots(WORKER_1));
+    }
+
+    @Test
+    public void testGetLatestTasks() {
+        WorkerSlotManager workerSlotManager = new WorkerSlotManager();
+        Assert.assertEquals(Collections.emptyList(), workerSlotManager.getLatestTasks(WORKER_1, 2));
+
+        workerSlotManager.occupy(WORKER_1, 1);
+        workerSlotManager.occupy(WORKER_1, 2);
+        workerSlotManager.occupy(WORKER_1, 3);
+        workerSlotManager.occupy(WORKER_1, 4);
+        workerSlotManager.ack(1, WORKER_1);
+        workerSlotManager.ack(2, WORKER_1);
+        workerSlotManager.ack(3, WORKER_1);
+        workerSlotManager.release(2);
+
+        // unacked tasks are not on the worker yet
+        Assert.assertEquals(Arrays.asList(3, 1), workerSlotManager.getLatestTasks(WORKER_1, 2));
+        Assert.assertEquals(Collections.singletonList(3), workerSlotManager.getLatestTasks(WORKER_1, 1));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.dispatch.host.assign;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PowerOfTwoChoicesSelectorTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectWithIllegalArgumentException() {
+        PowerOfTwoChoicesSelector<Integer> selector = new PowerOfTwoChoicesSelector<>(Integer::doubleValue);
+        selector.select(Collections.emptyList());
+    }
+
+    @Test
+    public void testSelect() {
+        PowerOfTwoChoicesSelector<Integer> selector = new PowerOfTwoChoicesSelector<>(Integer::doubleValue);
+        Assert.assertEquals(3, selector.select(Collections.singletonList(3)).intValue());
+
+        // of two candidates the lower loaded one is always chosen
+        Collection<Integer> two = Arrays.asList(5, 1);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(1, selector.select(two).intValue());
+        }
+
+        // the highest loaded candidate never wins a comparison
+        Collection<Integer> source = Arrays.asList(1, 2, 3, 4);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertNotEquals(4, selector.select(source).intValue());
+        }
+    }
+}
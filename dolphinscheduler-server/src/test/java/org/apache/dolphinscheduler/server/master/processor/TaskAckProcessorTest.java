@@ -22,6 +22,7 @@ import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteAckCommand;
 import org.apache.dolphinscheduler.server.master.cache.impl.TaskInstanceCacheManagerImpl;
+import org.apache.dolphinscheduler.server.master.dispatch.host.WorkerSlotManager;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskResponseEvent;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskResponseService;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
@@ -51,6 +52,7 @@ public class TaskAckProcessorTest {
     private TaskAckProcessor taskAckProcessor;
     private TaskResponseService taskResponseService;
     private TaskInstanceCacheManagerImpl taskInstanceCacheManager;
+    private WorkerSlotManager workerSlotManager;
     private ProcessService processService;
     private TaskExecuteAckCommand taskExecuteAckCommand;
     private TaskResponseEvent taskResponseEvent;
@@ -66,6 +68,9 @@ public class TaskAckProcessorTest {
         taskInstanceCacheManager = PowerMockito.mock(TaskInstanceCacheManagerImpl.class);
         PowerMockito.when(SpringApplicationContext.getBean(TaskInstanceCacheManagerImpl.class)).thenReturn(taskInstanceCacheManager);
 
+        workerSlotManager = PowerMockito.mock(WorkerSlotManager.class);
+        PowerMockito.when(SpringApplicationContext.getBean(WorkerSlotManager.class)).thenReturn(workerSlotManager);
+
         processService = PowerMockito.mock(ProcessService.class);
         PowerMockito.when(SpringApplicationContext.getBean(ProcessService.class)).thenReturn(processService);
 
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRejectCommand;
+import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
+import org.apache.dolphinscheduler.server.master.consumer.TaskPriorityQueueConsumer;
+import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
+import org.apache.dolphinscheduler.server.master.dispatch.host.WorkerSlotManager;
+import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
+
+import java.net.InetSocketAddress;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import io.netty.channel.Channel;
+
+/**
+ *  task reject processor test
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({SpringApplicationContext.class})
+public class TaskRejectProcessorTest {
+
+    private NettyExecutorManager nettyExecutorManager;
+
+    private WorkerSlotManager workerSlotManager;
+
+    private TaskPriorityQueueConsumer taskPriorityQueueConsumer;
+
+    private TaskRejectProcessor taskRejectProcessor;
+
+    private Channel channel;
+
+    private Command command;
+
+    private String workerAddress;
+
+    @Before
+    public void before() {
+        nettyExecutorManager = PowerMockito.mock(NettyExecutorManager.class);
+        workerSlotManager = PowerMockito.mock(WorkerSlotManager.class);
+        taskPriorityQueueConsumer = PowerMockito.mock(TaskPriorityQueueConsumer.class);
+        PowerMockito.mockStatic(SpringApplicationContext.class);
+        PowerMockito.when(SpringApplicationContext.getBean(WorkerSlotManager.class)).thenReturn(workerSlotManager);
+        PowerMockito.when(SpringApplicationContext.getBean(TaskPriorityQueueConsumer.class)).thenReturn(taskPriorityQueueConsumer);
+        taskRejectProcessor = new TaskRejectProcessor(nettyExecutorManager);
+
+        channel = PowerMockito.mock(Channel.class);
+        PowerMockito.when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 1234));
+        workerAddress = ChannelUtils.toAddress(channel).getAddress();
+        command = new TaskExecuteRejectCommand(1).convert2Command(1L);
+    }
+
+    @Test
+    public void testRejectRedispatchedToAnotherWorker() {
+        PowerMockito.when(nettyExecutorManager.redispatch(1, workerAddress)).thenReturn(true);
+        taskRejectProcessor.process(channel, command);
+
+        Mockito.verify(workerSlotManager, Mockito.never()).release(1);
+        Mockito.verify(taskPriorityQueueConsumer, Mockito.never()).redispatch(1);
+    }
+
+    @Test
+    public void testRejectRedispatchedThroughQueue() {
+        PowerMockito.when(nettyExecutorManager.redispatch(1, workerAddress)).thenReturn(false);
+        taskRejectProcessor.process(channel, command);
+
+        Mockito.verify(workerSlotManager).release(1);
+        Mockito.verify(taskPriorityQueueConsumer).redispatch(1);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.dao.DaoFactory;
+import org.apache.dolphinscheduler.dao.entity.Command;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.zk.ZKMasterClient;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.slf4j.Logger;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * master scheduler service thread reservation test
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({DaoFactory.class})
+@PowerMockIgnore({"javax.management.*", "io.netty.*"})
+public class MasterSchedulerServiceTest {
+
+    @InjectMocks
+    private MasterSchedulerService masterSchedulerService;
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private ZKMasterClient zkMasterClient;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Before
+    public void before() {
+        PowerMockito.mockStatic(DaoFactory.class);
+        Mockito.when(masterConfig.getMasterExecThreads()).thenReturn(4);
+        masterSchedulerService.init();
+    }
+
+    @After
+    public void after() {
+        masterSchedulerService.close();
+    }
+
+    @Test
+    public void testReserve() {
+        Assert.assertTrue(masterSchedulerService.reserve(3));
+        // the reservation takes all the threads it asks for
+        Assert.assertFalse(masterSchedulerService.reserve(2));
+        Assert.assertTrue(masterSchedulerService.reserve(1));
+        Assert.assertFalse(masterSchedulerService.reserve(1));
+
+        masterSchedulerService.cancel(3);
+        Assert.assertTrue(masterSchedulerService.reserve(3));
+        masterSchedulerService.cancel(3);
+        masterSchedulerService.cancel(1);
+        Assert.assertTrue(masterSchedulerService.reserve(4));
+    }
+
+    @Test
+    public void testReserveWhileHandlingCommand() throws Exception {
+        Mockito.when(processService.findOneCommand()).thenReturn(new Command());
+        AtomicInteger validThreadNum = new AtomicInteger();
+        AtomicBoolean reservedWhileHandling = new AtomicBoolean(true);
+        Mockito.when(processService.handleCommand(Mockito.any(Logger.class), Mockito.anyString(), Mockito.anyInt(), Mockito.any(Command.class)))
+                .thenAnswer(invocation -> {
+                    validThreadNum.set(invocation.getArgument(2));
+                    // the threads the command scan checked can not be taken by a sub process meanwhile
+                    reservedWhileHandling.set(masterSchedulerService.reserve(1));
+                    return null;
+                });
+        Assert.assertTrue(masterSchedulerService.reserve(1));
+
+        Method scheduleProcess = ReflectionUtils.findMethod(MasterSchedulerService.class, "scheduleProcess");
+        Assert.assertNotNull(scheduleProcess);
+        scheduleProcess.setAccessible(true);
+        scheduleProcess.invoke(masterSchedulerService);
+
+        Assert.assertEquals(3, validThreadNum.get());
+        Assert.assertFalse(reservedWhileHandling.get());
+        // released after the command is handled
+        masterSchedulerService.cancel(1);
+        Assert.assertTrue(masterSchedulerService.reserve(4));
+    }
+}
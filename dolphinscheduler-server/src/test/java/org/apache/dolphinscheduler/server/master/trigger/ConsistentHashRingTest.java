@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.trigger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * consistent hash ring test
+ */
+public class ConsistentHashRingTest {
+
+    @Test
+    public void testGetNode() {
+        Assert.assertNull(new ConsistentHashRing(Arrays.asList()).getNode("1"));
+
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("192.168.1.1:5678", "192.168.1.2:5678", "192.168.1.3:5678"));
+        Map<String, Integer> shares = new HashMap<>();
+        for (int i = 0; i < 30000; i++) {
+            shares.merge(ring.getNode(String.valueOf(i)), 1, Integer::sum);
+        }
+        Assert.assertEquals(3, shares.size());
+        for (int share : shares.values()) {
+            Assert.assertTrue("unbalanced share " + share, share > 7000 && share < 13000);
+        }
+        // the same on every master
+        Assert.assertEquals(ring.getNode("42"),
+                new ConsistentHashRing(Arrays.asList("192.168.1.3:5678", "192.168.1.2:5678", "192.168.1.1:5678")).getNode("42"));
+    }
+
+    @Test
+    public void testNodeJoin() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("192.168.1.1:5678", "192.168.1.2:5678", "192.168.1.3:5678"));
+        ConsistentHashRing joined = new ConsistentHashRing(Arrays.asList("192.168.1.1:5678", "192.168.1.2:5678", "192.168.1.3:5678", "192.168.1.4:5678"));
+
+        int moved = 0;
+        for (int i = 0; i < 30000; i++) {
+            String key = String.valueOf(i);
+            String node = joined.getNode(key);
+            if (!node.equals(ring.getNode(key))) {
+                // only the keys of the new node move
+                Assert.assertEquals("192.168.1.4:5678", node);
+                moved++;
+            }
+        }
+        Assert.assertTrue("moved " + moved, moved > 4500 && moved < 10500);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.trigger;
+
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.common.utils.NetUtils;
+import org.apache.dolphinscheduler.dao.entity.Schedule;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.registry.ZookeeperNodeManager;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * sharded schedule trigger engine test
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ShardedScheduleTriggerEngineTest {
+
+    private static final String EVERY_MINUTE = "0 * * * * ? *";
+
+    @InjectMocks
+    private ShardedScheduleTriggerEngine engine;
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private ZookeeperNodeManager zookeeperNodeManager;
+
+    @Spy
+    private MasterConfig masterConfig = new MasterConfig();
+
+    private final Date now = DateUtils.stringToDate("2026-10-19 12:00:30");
+
+    private String localAddress;
+
+    @Before
+    public void before() {
+        masterConfig.setListenPort(5678);
+        masterConfig.setMasterScheduleTriggerBatchSize(500);
+        masterConfig.setMasterScheduleTriggerCatchUpWindow(3600);
+        localAddress = NetUtils.getAddr(5678);
+    }
+
+    @Test
+    public void testShardAndCatchUp() {
+        Set<String> masters = new HashSet<>(Arrays.asList(localAddress, "192.168.255.1:5678"));
+        Mockito.when(zookeeperNodeManager.getMasterNodes()).thenReturn(masters);
+        List<Schedule> schedules = new ArrayList<>();
+        Map<Integer, Date> lastFireTimes = new HashMap<>();
+        for (int id = 1; id <= 40; id++) {
+            schedules.add(createSchedule(id));
+            lastFireTimes.put(id, DateUtils.stringToDate("2026-10-19 11:58:00"));
+        }
+        Mockito.when(processService.queryOnlineSchedules()).thenReturn(schedules);
+        Mockito.when(processService.queryScheduleLastFireTimes(Mockito.anyList())).thenReturn(lastFireTimes);
+        Mockito.when(processService.fireSchedules(Mockito.anyMap(), Mockito.eq(now))).thenAnswer(t -> new HashMap<>(t.getArgument(0)));
+
+        engine.refresh(now);
+
+        ConsistentHashRing ring = new ConsistentHashRing(masters);
+        int owned = 0;
+        for (int id = 1; id <= 40; id++) {
+            if (localAddress.equals(ring.getNode(String.valueOf(id)))) {
+                owned++;
+            }
+        }
+        Assert.assertTrue(owned > 0 && owned < 40);
+        Assert.assertEquals(owned, engine.size());
+
+        // the fires missed since the last one are caught up, one batch for each fire time
+        Assert.assertEquals(owned, engine.fireDueTriggers(now));
+        Assert.assertEquals(owned, engine.fireDueTriggers(now));
+        Assert.assertEquals(0, engine.fireDueTriggers(now));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Integer, Date>> fires = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(processService, Mockito.times(2)).fireSchedules(fires.capture(), Mockito.eq(now));
+        Assert.assertEquals(owned, fires.getAllValues().get(0).size());
+        Assert.assertTrue(fires.getAllValues().get(0).values().stream()
+                .allMatch(DateUtils.stringToDate("2026-10-19 11:59:00")::equals));
+        Assert.assertTrue(fires.getAllValues().get(1).values().stream()
+                .allMatch(DateUtils.stringToDate("2026-10-19 12:00:00")::equals));
+    }
+
+    @Test
+    public void testCatchUpWindow() {
+        Mockito.when(zookeeperNodeManager.getMasterNodes()).thenReturn(Collections.singleton(localAddress));
+        masterConfig.setMasterScheduleTriggerCatchUpWindow(600);
+        Mockito.when(processService.queryOnlineSchedules()).thenReturn(Arrays.asList(createSchedule(1), createSchedule(2)));
+        // schedule 1 is never fired, schedule 2 is fired two hours ago
+        Mockito.when(processService.queryScheduleLastFireTimes(Mockito.anyList()))
+                .thenReturn(Collections.singletonMap(2, DateUtils.stringToDate("2026-10-19 10:00:00")));
+        Mockito.when(processService.fireSchedules(Mockito.anyMap(), Mockito.eq(now))).thenAnswer(t -> new HashMap<>(t.getArgument(0)));
+
+        engine.refresh(now);
+
+        int fires = 0;
+        while (engine.fireDueTriggers(now) > 0) {
+            fires++;
+        }
+        // 11:51 to 12:00 within the window
+        Assert.assertEquals(10, fires);
+        Mockito.verify(processService).fireSchedules(Collections.singletonMap(2, DateUtils.stringToDate("2026-10-19 11:51:00")), now);
+        Mockito.verify(processService, Mockito.never()).fireSchedules(Mockito.argThat(m -> m.containsKey(1)), Mockito.any());
+    }
+
+    @Test
+    public void testOfflineAndFiredElsewhere() {
+        Mockito.when(zookeeperNodeManager.getMasterNodes()).thenReturn(Collections.singleton(localAddress));
+        Mockito.when(processService.queryOnlineSchedules()).thenReturn(Arrays.asList(createSchedule(1), createSchedule(2)));
+        Map<Integer, Date> lastFireTimes = new HashMap<>();
+        lastFireTimes.put(1, DateUtils.stringToDate("2026-10-19 11:59:00"));
+        lastFireTimes.put(2, DateUtils.stringToDate("2026-10-19 11:59:00"));
+        Mockito.when(processService.queryScheduleLastFireTimes(Mockito.anyList())).thenReturn(lastFireTimes);
+        // schedule 1 is offline, schedule 2 is fired at 12:00 by another master
+        Mockito.when(processService.fireSchedules(Mockito.anyMap(), Mockito.any()))
+                .thenReturn(Collections.singletonMap(2, DateUtils.stringToDate("2026-10-19 12:00:00")));
+
+        engine.refresh(now);
+        Assert.assertEquals(2, engine.fireDueTriggers(now));
+
+        Assert.assertEquals(1, engine.size());
+        Assert.assertEquals(0, engine.fireDueTriggers(now));
+        Assert.assertEquals(1, engine.fireDueTriggers(DateUtils.stringToDate("2026-10-19 12:01:00")));
+    }
+
+    @Test
+    public void testFireFailure() {
+        Mockito.when(zookeeperNodeManager.getMasterNodes()).thenReturn(Collections.singleton(localAddress));
+        Mockito.when(processService.queryOnlineSchedules()).thenReturn(Collections.singletonList(createSchedule(1)));
+        Mockito.when(processService.queryScheduleLastFireTimes(Mockito.anyList()))
+                .thenReturn(Collections.singletonMap(1, DateUtils.stringToDate("2026-10-19 11:59:00")));
+        Mockito.when(processService.fireSchedules(Mockito.anyMap(), Mockito.eq(now)))
+                .thenThrow(new RuntimeException("database is down"))
+                .thenAnswer(t -> new HashMap<>(t.getArgument(0)));
+
+        engine.refresh(now);
+        try {
+            engine.fireDueTriggers(now);
+            Assert.fail("fire should fail");
+        } catch (RuntimeException e) {
+            Assert.assertEquals("database is down", e.getMessage());
+        }
+        // the fire is retried
+        Assert.assertEquals(1, engine.fireDueTriggers(now));
+        Mockito.verify(processService, Mockito.times(2))
+                .fireSchedules(Collections.singletonMap(1, DateUtils.stringToDate("2026-10-19 12:00:00")), now);
+    }
+
+    private Schedule createSchedule(int id) {
+        Schedule schedule = new Schedule();
+        schedule.setId(id);
+        schedule.setProcessDefinitionId(id);
+        schedule.setCrontab(EVERY_MINUTE);
+        schedule.setStartTime(DateUtils.stringToDate("2026-10-18 00:00:00"));
+        schedule.setEndTime(DateUtils.stringToDate("2026-10-20 00:00:00"));
+        schedule.setUpdateTime(DateUtils.stringToDate("2026-10-18 00:00:00"));
+        return schedule;
+    }
+}
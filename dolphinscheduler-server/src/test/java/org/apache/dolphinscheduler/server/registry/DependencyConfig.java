@@ -28,9 +28,12 @@ import org.apache.dolphinscheduler.dao.mapper.PluginDefineMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapper;
+import org.apache.dolphinscheduler.dao.mapper.ProcessJsonSnapshotMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
+import org.apache.dolphinscheduler.dao.mapper.ProjectUserMapper;
 import org.apache.dolphinscheduler.dao.mapper.ResourceMapper;
 import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
+import org.apache.dolphinscheduler.dao.mapper.ScheduleTriggerStateMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UdfFuncMapper;
@@ -39,8 +42,12 @@ import org.apache.dolphinscheduler.server.master.cache.impl.TaskInstanceCacheMan
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.host.HostManager;
 import org.apache.dolphinscheduler.server.master.dispatch.host.RandomHostManager;
+import org.apache.dolphinscheduler.server.master.dispatch.host.WorkerSlotManager;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskResponseService;
+import org.apache.dolphinscheduler.server.worker.cache.impl.TaskExecutionContextCacheManagerImpl;
 import org.apache.dolphinscheduler.server.worker.processor.TaskCallbackService;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
+import org.apache.dolphinscheduler.service.process.ProcessJsonSnapshotStore;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
 import org.apache.dolphinscheduler.service.queue.TaskPriorityQueueImpl;
@@ -145,6 +152,11 @@ public class DependencyConfig {
         return Mockito.mock(ProjectMapper.class);
     }
 
+    @Bean
+    public ProjectUserMapper projectUserMapper() {
+        return Mockito.mock(ProjectUserMapper.class);
+    }
+
     @Bean
     public TaskCallbackService taskCallbackService() {
         return Mockito.mock(TaskCallbackService.class);
@@ -155,6 +167,16 @@ public class DependencyConfig {
         return new RandomHostManager();
     }
 
+    @Bean
+    public WorkerSlotManager workerSlotManager() {
+        return new WorkerSlotManager();
+    }
+
+    @Bean
+    public TaskExecutionContextCacheManagerImpl taskExecutionContextCacheManagerImpl() {
+        return new TaskExecutionContextCacheManagerImpl();
+    }
+
     @Bean
     public TaskResponseService taskResponseService() {
         return Mockito.mock(TaskResponseService.class);
@@ -180,4 +202,24 @@ public class DependencyConfig {
         return Mockito.mock(PluginDefineMapper.class);
     }
 
+    @Bean
+    public AuthorizationCache authorizationCache() {
+        return Mockito.mock(AuthorizationCache.class);
+    }
+
+    @Bean
+    public ProcessJsonSnapshotMapper processJsonSnapshotMapper() {
+        return Mockito.mock(ProcessJsonSnapshotMapper.class);
+    }
+
+    @Bean
+    public ProcessJsonSnapshotStore processJsonSnapshotStore() {
+        return Mockito.mock(ProcessJsonSnapshotStore.class);
+    }
+
+    @Bean
+    public ScheduleTriggerStateMapper scheduleTriggerStateMapper() {
+        return Mockito.mock(ScheduleTriggerStateMapper.class);
+    }
+
 }
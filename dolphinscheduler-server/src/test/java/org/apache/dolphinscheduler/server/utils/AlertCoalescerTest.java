@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.utils;
+
+import org.apache.dolphinscheduler.common.enums.AlertStatus;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.dao.AlertDao;
+import org.apache.dolphinscheduler.dao.entity.Alert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * alert coalescer test
+ */
+public class AlertCoalescerTest {
+
+    private AlertDao alertDao;
+
+    /**
+     * alerts saved to be sent
+     */
+    private final List<Alert> savedAlerts = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * alerts saved as held back
+     */
+    private final List<Alert> heldAlerts = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<Alert> updatedAlerts = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicInteger alertId = new AtomicInteger();
+
+    private AlertCoalescer alertCoalescer;
+
+    @BeforeClass
+    public static void warmUp() {
+        // the first json parsing loads jackson, which may take longer than the short windows of the tests
+        JSONUtils.parseArray("[{\"processId\":0}]");
+    }
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void before() {
+        alertDao = Mockito.mock(AlertDao.class);
+        mockAddAlerts();
+        Mockito.when(alertDao.updateAlerts(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Alert> alerts = invocation.getArgument(0);
+            updatedAlerts.addAll(alerts);
+            return alerts.size();
+        });
+    }
+
+    private void mockAddAlerts() {
+        Mockito.when(alertDao.addAlerts(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Alert> alerts = invocation.getArgument(0);
+            for (Alert alert : alerts) {
+                alert.setId(alertId.incrementAndGet());
+                if (alert.getAlertStatus() == AlertStatus.WAIT_COALESCE) {
+                    heldAlerts.add(alert);
+                } else {
+                    savedAlerts.add(alert);
+                }
+            }
+            return alerts.size();
+        });
+    }
+
+    @After
+    public void after() {
+        if (alertCoalescer != null) {
+            alertCoalescer.close();
+        }
+    }
+
+    @Test
+    public void testFirstAlertNotDelayed() {
+        alertCoalescer = new AlertCoalescer(alertDao, 60000, 10);
+        alertCoalescer.add(alert(1, "start process failed", 1), 1);
+        alertCoalescer.add(alert(1, "start process failed", 2), 2);
+        alertCoalescer.add(alert(2, "start process failed", 3), 1);
+        alertCoalescer.flush();
+
+        // different project and group are not coalesced
+        Assert.assertEquals(3, savedAlerts.size());
+    }
+
+    @Test
+    public void testCoalesce() throws InterruptedException {
+        alertCoalescer = new AlertCoalescer(alertDao, 200, 3);
+        for (int i = 0; i < 20; i++) {
+            alertCoalescer.add(alert(1, "start process failed", i), 1);
+        }
+        alertCoalescer.flush();
+        Assert.assertEquals(1, savedAlerts.size());
+        Assert.assertEquals(19, heldAlerts.size());
+
+        Thread.sleep(300);
+        alertCoalescer.flush();
+        Assert.assertEquals(2, savedAlerts.size());
+        Assert.assertEquals(19, updatedAlerts.size());
+        for (Alert alert : updatedAlerts) {
+            Assert.assertEquals(AlertStatus.EXECUTION_SUCCESS, alert.getAlertStatus());
+            Assert.assertEquals("coalesced into alert " + savedAlerts.get(1).getId(), alert.getLog());
+        }
+
+        Alert digest = savedAlerts.get(1);
+        Assert.assertEquals("start process failed (19 alerts in 0s)", digest.getTitle());
+        Assert.assertEquals(1, digest.getAlertGroupId());
+        ArrayNode details = JSONUtils.parseArray(digest.getContent());
+        Assert.assertEquals(4, details.size());
+        Assert.assertEquals(1, details.get(0).get("processId").asInt());
+        Assert.assertEquals(16, details.get(3).get("omitted alerts").asInt());
+
+        // the window is reopened, so the alert during the storm is held back as well
+        alertCoalescer.add(alert(1, "start process failed", 21), 1);
+        alertCoalescer.flush();
+        Assert.assertEquals(2, savedAlerts.size());
+        alertCoalescer.close();
+        Assert.assertEquals(3, savedAlerts.size());
+    }
+
+    @Test
+    public void testBatch() {
+        alertCoalescer = new AlertCoalescer(alertDao, 60000, 10);
+        for (int i = 0; i < 250; i++) {
+            alertCoalescer.add(alert(1, "title " + i, i), 1);
+        }
+        alertCoalescer.flush();
+        Assert.assertEquals(250, savedAlerts.size());
+        Mockito.verify(alertDao, Mockito.times(3)).addAlerts(Mockito.anyList());
+    }
+
+    @Test
+    public void testDisabled() {
+        alertCoalescer = new AlertCoalescer(alertDao, 0, 10);
+        for (int i = 0; i < 5; i++) {
+            alertCoalescer.add(alert(1, "start process failed", i), 1);
+        }
+        alertCoalescer.flush();
+        Assert.assertEquals(5, savedAlerts.size());
+    }
+
+    @Test
+    public void testSaveFailed() {
+        Mockito.when(alertDao.addAlerts(Mockito.anyList())).thenThrow(new RuntimeException("db down"));
+        alertCoalescer = new AlertCoalescer(alertDao, 60000, 10);
+        alertCoalescer.add(alert(1, "start process failed", 1), 1);
+        alertCoalescer.flush();
+
+        Mockito.reset(alertDao);
+        mockAddAlerts();
+        alertCoalescer.flush();
+        Assert.assertEquals(1, savedAlerts.size());
+    }
+
+    @Test
+    public void testHeldAlertsOfStoppedMaster() {
+        alertCoalescer = new AlertCoalescer(alertDao, 60000, 10);
+        for (int i = 0; i < 5; i++) {
+            alertCoalescer.add(alert(1, "start process failed", i), 1);
+        }
+        alertCoalescer.flush();
+        Assert.assertEquals(1, savedAlerts.size());
+        Assert.assertEquals(4, heldAlerts.size());
+
+        // the master stops before the window ends, another master finds the held back alerts
+        Date expired = new Date(System.currentTimeMillis() - 3 * 60000);
+        List<Alert> savedHeldAlerts = new ArrayList<>();
+        for (Alert alert : heldAlerts) {
+            Alert saved = alert(alert.getAlertGroupId(), alert.getTitle(), 0);
+            saved.setId(alert.getId());
+            saved.setContent(alert.getContent());
+            saved.setAlertStatus(AlertStatus.WAIT_COALESCE);
+            saved.setCreateTime(expired);
+            savedHeldAlerts.add(saved);
+        }
+        Alert recent = alert(1, "start process failed", 9);
+        recent.setId(100);
+        recent.setAlertStatus(AlertStatus.WAIT_COALESCE);
+        recent.setCreateTime(new Date());
+        savedHeldAlerts.add(recent);
+        Mockito.when(alertDao.listWaitCoalesceAlert()).thenReturn(savedHeldAlerts);
+        // one of them is claimed by a third master meanwhile
+        int claimedByOther = heldAlerts.get(0).getId();
+        Mockito.when(alertDao.claimAlerts(Mockito.anyList(), Mockito.eq(AlertStatus.WAIT_COALESCE), Mockito.eq(AlertStatus.EXECUTION_SUCCESS)))
+                .thenAnswer(invocation -> {
+                    List<Integer> ids = new ArrayList<>(invocation.getArgument(0));
+                    ids.remove(Integer.valueOf(claimedByOther));
+                    return ids;
+                });
+
+        AlertCoalescer another = new AlertCoalescer(alertDao, 60000, 10);
+        try {
+            another.flush();
+        } finally {
+            another.close();
+        }
+        // the alert held back recently may still be in the window of a running master
+        Mockito.verify(alertDao).claimAlerts(Mockito.argThat(ids -> ids.size() == 4 && !ids.contains(100)),
+                Mockito.eq(AlertStatus.WAIT_COALESCE), Mockito.eq(AlertStatus.EXECUTION_SUCCESS));
+        Assert.assertEquals(2, savedAlerts.size());
+        Alert digest = savedAlerts.get(1);
+        Assert.assertEquals("start process failed (3 alerts in 60s)", digest.getTitle());
+        Assert.assertEquals(3, JSONUtils.parseArray(digest.getContent()).size());
+        Assert.assertEquals(3, updatedAlerts.size());
+        for (Alert alert : updatedAlerts) {
+            Assert.assertNotEquals(claimedByOther, alert.getId());
+            Assert.assertEquals(AlertStatus.EXECUTION_SUCCESS, alert.getAlertStatus());
+        }
+    }
+
+    private static Alert alert(int alertGroupId, String title, int processId) {
+        Alert alert = new Alert();
+        alert.setAlertGroupId(alertGroupId);
+        alert.setTitle(title);
+        alert.setContent("[{\"processId\":" + processId + "}]");
+        return alert;
+    }
+}
@@ -28,7 +28,9 @@ import org.apache.dolphinscheduler.dao.mapper.PluginDefineMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapper;
+import org.apache.dolphinscheduler.dao.mapper.ProcessJsonSnapshotMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
+import org.apache.dolphinscheduler.dao.mapper.ProjectUserMapper;
 import org.apache.dolphinscheduler.dao.mapper.ResourceMapper;
 import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
@@ -36,6 +38,8 @@ import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UdfFuncMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
 import org.apache.dolphinscheduler.server.master.cache.impl.TaskInstanceCacheManagerImpl;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
+import org.apache.dolphinscheduler.service.process.ProcessJsonSnapshotStore;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
 import org.mockito.Mockito;
@@ -148,4 +152,24 @@ public class TaskCallbackServiceTestConfig {
         return Mockito.mock(PluginDefineMapper.class);
     }
 
+    @Bean
+    public ProjectUserMapper projectUserMapper() {
+        return Mockito.mock(ProjectUserMapper.class);
+    }
+
+    @Bean
+    public AuthorizationCache authorizationCache() {
+        return Mockito.mock(AuthorizationCache.class);
+    }
+
+    @Bean
+    public ProcessJsonSnapshotMapper processJsonSnapshotMapper() {
+        return Mockito.mock(ProcessJsonSnapshotMapper.class);
+    }
+
+    @Bean
+    public ProcessJsonSnapshotStore processJsonSnapshotStore() {
+        return Mockito.mock(ProcessJsonSnapshotStore.class);
+    }
+
 }
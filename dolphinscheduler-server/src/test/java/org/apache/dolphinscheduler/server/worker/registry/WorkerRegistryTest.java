@@ -29,7 +29,9 @@ import org.apache.curator.framework.state.ConnectionStateListener;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.common.utils.StringUtils;
 import org.apache.dolphinscheduler.server.registry.ZookeeperRegistryCenter;
+import org.apache.dolphinscheduler.server.worker.cache.impl.TaskExecutionContextCacheManagerImpl;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.runner.TaskAdmissionQueue;
 import org.apache.dolphinscheduler.service.zk.ZookeeperCachedOperator;
 import org.junit.Assert;
 import org.junit.Before;
@@ -69,6 +71,12 @@ public class WorkerRegistryTest {
     @Mock
     private WorkerConfig workerConfig;
 
+    @Mock
+    private TaskExecutionContextCacheManagerImpl taskExecutionContextCacheManager;
+
+    @Mock
+    private TaskAdmissionQueue taskAdmissionQueue;
+
     @Before
     public void before() {
         Set<String> workerGroups = Sets.newHashSet(DEFAULT_WORKER_GROUP, TEST_WORKER_GROUP);
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.runner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * task admission queue test
+ */
+public class TaskAdmissionQueueTest {
+
+    @Test
+    public void testAdmitAndReject() throws InterruptedException {
+        TaskAdmissionQueue taskAdmissionQueue = new TaskAdmissionQueue();
+        taskAdmissionQueue.init(1, 1);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        Assert.assertTrue(taskAdmissionQueue.tryAdmit());
+        taskAdmissionQueue.submit(1, () -> {
+            started.countDown();
+            awaitQuietly(blocker);
+            finished.countDown();
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(taskAdmissionQueue.tryAdmit());
+        taskAdmissionQueue.submit(2, finished::countDown);
+
+        // one running and one queued
+        Assert.assertFalse(taskAdmissionQueue.tryAdmit());
+        Assert.assertEquals(1, taskAdmissionQueue.getQueuedCount());
+
+        blocker.countDown();
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, taskAdmissionQueue.getAdmittedCount());
+        Assert.assertEquals(1, taskAdmissionQueue.getRejectedCount());
+    }
+
+    @Test
+    public void testReclaim() throws InterruptedException {
+        TaskAdmissionQueue taskAdmissionQueue = new TaskAdmissionQueue();
+        taskAdmissionQueue.init(1, 1);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        AtomicBoolean queuedTaskRun = new AtomicBoolean();
+        Assert.assertTrue(taskAdmissionQueue.tryAdmit());
+        taskAdmissionQueue.submit(1, () -> {
+            started.countDown();
+            awaitQuietly(blocker);
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(taskAdmissionQueue.tryAdmit());
+        taskAdmissionQueue.submit(2, () -> queuedTaskRun.set(true));
+
+        // the running task can not be reclaimed
+        Assert.assertFalse(taskAdmissionQueue.reclaim(1));
+        Assert.assertTrue(taskAdmissionQueue.reclaim(2));
+        Assert.assertFalse(taskAdmissionQueue.reclaim(2));
+        Assert.assertEquals(0, taskAdmissionQueue.getQueuedCount());
+        Assert.assertEquals(1, taskAdmissionQueue.getReclaimedCount());
+
+        // the permit of the reclaimed task is given back
+        Assert.assertTrue(taskAdmissionQueue.tryAdmit());
+        taskAdmissionQueue.cancel();
+
+        CountDownLatch finished = new CountDownLatch(1);
+        blocker.countDown();
+        Assert.assertTrue(taskAdmissionQueue.tryAdmit());
+        taskAdmissionQueue.submit(3, finished::countDown);
+        Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(queuedTaskRun.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
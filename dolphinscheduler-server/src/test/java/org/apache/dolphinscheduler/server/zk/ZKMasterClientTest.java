@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.zk;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.ZKNodeType;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.apache.dolphinscheduler.service.zk.ZookeeperConfig;
+
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * zookeeper master client failover test
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ZKMasterClientTest {
+
+    private static final SpringZKServer ZK_SERVER = new SpringZKServer();
+
+    private static final String DEAD_WORKER = "127.0.0.2:1234";
+
+    private static final String OTHER_DEAD_WORKER = "127.0.0.5:1234";
+
+    private static final String LIVING_MASTER = "127.0.0.3:5678";
+
+    private static final String DEAD_MASTER = "127.0.0.4:5678";
+
+    @InjectMocks
+    private ZKMasterClient zkMasterClient;
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Spy
+    private ZookeeperConfig zookeeperConfig = zookeeperConfig();
+
+    private static ZookeeperConfig zookeeperConfig() {
+        ZookeeperConfig zookeeperConfig = new ZookeeperConfig();
+        zookeeperConfig.setServerList(SpringZKServer.DEFAULT_ZK_STR);
+        zookeeperConfig.setBaseSleepTimeMs(100);
+        zookeeperConfig.setMaxSleepMs(30000);
+        zookeeperConfig.setMaxRetries(10);
+        zookeeperConfig.setDsRoot("/dolphinscheduler");
+        return zookeeperConfig;
+    }
+
+    private static boolean zkServerStarted;
+
+    @BeforeClass
+    public static void startZookeeper() {
+        // the server may already be started by a cached spring test context
+        if (!SpringZKServer.isStarted()) {
+            ZK_SERVER.start();
+            zkServerStarted = true;
+        }
+    }
+
+    @AfterClass
+    public static void stopZookeeper() {
+        if (zkServerStarted) {
+            ZK_SERVER.stop();
+        }
+    }
+
+    @Before
+    public void before() throws Exception {
+        zkMasterClient.afterPropertiesSet();
+        zkMasterClient.persist(zkMasterClient.getZNodeParentPath(ZKNodeType.MASTER), "");
+        zkMasterClient.persist(zkMasterClient.getZNodeParentPath(ZKNodeType.WORKER), "");
+        zkMasterClient.persist(zkMasterClient.getZNodeParentPath(ZKNodeType.DEAD_SERVER), "");
+        zkMasterClient.persist(zkMasterClient.getFailoverClaimParentPath(), "");
+    }
+
+    @After
+    public void after() {
+        zkMasterClient.remove(zkMasterClient.getFailoverClaimParentPath());
+        zkMasterClient.remove(zkMasterClient.getZNodeParentPath(ZKNodeType.MASTER));
+        zkMasterClient.remove(zkMasterClient.getZNodeParentPath(ZKNodeType.DEAD_SERVER));
+        zkMasterClient.close();
+    }
+
+    @Test
+    public void testFailoverReleasesClaim() {
+        workerRemoved(DEAD_WORKER);
+
+        Mockito.verify(processService).queryNeedFailoverTaskInstances(DEAD_WORKER);
+        Assert.assertFalse(zkMasterClient.isExisted(workerClaimPath(DEAD_WORKER)));
+    }
+
+    @Test
+    public void testFailoverClaimedByLivingMaster() {
+        zkMasterClient.persistEphemeral(zkMasterClient.getZNodeParentPath(ZKNodeType.MASTER) + Constants.SINGLE_SLASH + LIVING_MASTER, "");
+        zkMasterClient.persist(workerClaimPath(DEAD_WORKER), LIVING_MASTER);
+
+        workerRemoved(DEAD_WORKER);
+
+        Mockito.verify(processService, Mockito.never()).queryNeedFailoverTaskInstances(DEAD_WORKER);
+        Assert.assertEquals(LIVING_MASTER, zkMasterClient.get(workerClaimPath(DEAD_WORKER)));
+    }
+
+    @Test
+    public void testResumeFailoverOfDeadMaster() {
+        // the dead master claimed the worker failover but did not finish it
+        zkMasterClient.persist(workerClaimPath(DEAD_WORKER), DEAD_MASTER);
+
+        zkMasterClient.handleMasterEvent(new TreeCacheEvent(TreeCacheEvent.Type.NODE_REMOVED, null),
+                zkMasterClient.getZNodeParentPath(ZKNodeType.MASTER) + Constants.SINGLE_SLASH + DEAD_MASTER);
+
+        Mockito.verify(processService).queryNeedFailoverProcessInstances(DEAD_MASTER);
+        Mockito.verify(processService).queryNeedFailoverTaskInstances(DEAD_WORKER);
+        Assert.assertFalse(zkMasterClient.isExisted(workerClaimPath(DEAD_WORKER)));
+    }
+
+    @Test
+    public void testFailoverExceptionKeepsClaimRetryable() {
+        Mockito.when(processService.queryNeedFailoverTaskInstances(DEAD_WORKER)).thenThrow(new RuntimeException("db down"));
+
+        workerRemoved(DEAD_WORKER);
+
+        Assert.assertTrue(zkMasterClient.isExisted(workerClaimPath(DEAD_WORKER)));
+        Assert.assertEquals("", zkMasterClient.get(workerClaimPath(DEAD_WORKER)));
+
+        // the next failover retries the failed one
+        Mockito.reset(processService);
+        Mockito.when(processService.queryNeedFailoverTaskInstances(Mockito.anyString())).thenReturn(Collections.emptyList());
+        workerRemoved(OTHER_DEAD_WORKER);
+
+        Mockito.verify(processService).queryNeedFailoverTaskInstances(OTHER_DEAD_WORKER);
+        Mockito.verify(processService).queryNeedFailoverTaskInstances(DEAD_WORKER);
+        Assert.assertFalse(zkMasterClient.isExisted(workerClaimPath(DEAD_WORKER)));
+        Assert.assertFalse(zkMasterClient.isExisted(workerClaimPath(OTHER_DEAD_WORKER)));
+    }
+
+    private void workerRemoved(String worker) {
+        zkMasterClient.handleWorkerEvent(new TreeCacheEvent(TreeCacheEvent.Type.NODE_REMOVED, null),
+                zkMasterClient.getZNodeParentPath(ZKNodeType.WORKER) + Constants.SINGLE_SLASH + Constants.DEFAULT_WORKER_GROUP
+                        + Constants.SINGLE_SLASH + worker);
+    }
+
+    private String workerClaimPath(String worker) {
+        return zkMasterClient.getFailoverClaimParentPath() + Constants.SINGLE_SLASH + Constants.WORKER_PREFIX + Constants.UNDERLINE + worker;
+    }
+}
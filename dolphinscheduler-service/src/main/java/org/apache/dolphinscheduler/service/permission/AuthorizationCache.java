@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.permission;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.ResourceType;
+import org.apache.dolphinscheduler.dao.entity.DataSource;
+import org.apache.dolphinscheduler.dao.entity.Project;
+import org.apache.dolphinscheduler.dao.entity.ProjectUser;
+import org.apache.dolphinscheduler.dao.entity.Resource;
+import org.apache.dolphinscheduler.dao.entity.UdfFunc;
+import org.apache.dolphinscheduler.dao.mapper.DataSourceMapper;
+import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
+import org.apache.dolphinscheduler.dao.mapper.ProjectUserMapper;
+import org.apache.dolphinscheduler.dao.mapper.ResourceMapper;
+import org.apache.dolphinscheduler.dao.mapper.UdfFuncMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * cache of the projects, resources, data sources and udf functions each user is authorized to.
+ * an index is loaded the first time a user is checked; grants and revokes invalidate the index of
+ * the user, deletions and renames invalidate every index. indexes also expire after a short time
+ * so that writes done by another server become visible.
+ */
+@Component
+public class AuthorizationCache {
+
+    /**
+     * expire time of a cached index
+     */
+    private static final long EXPIRE_SECONDS = 60;
+
+    /**
+     * max number of cached indexes
+     */
+    private static final long MAXIMUM_SIZE = 10000;
+
+    /**
+     * the generation is part of the key, so that an index loaded before invalidateAll is never served after it
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Cache<String, UserAuthorization> cache = CacheBuilder.newBuilder()
+            .expireAfterWrite(EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    @Autowired
+    private ProjectMapper projectMapper;
+
+    @Autowired
+    private ProjectUserMapper projectUserMapper;
+
+    @Autowired
+    private ResourceMapper resourceMapper;
+
+    @Autowired
+    private DataSourceMapper dataSourceMapper;
+
+    @Autowired
+    private UdfFuncMapper udfFuncMapper;
+
+    /**
+     * get the authorization index of a user, loading it if absent
+     *
+     * @param userId user id
+     * @return authorization index
+     */
+    public UserAuthorization getUserAuthorization(int userId) {
+        try {
+            return cache.get(key(generation.get(), userId), () -> load(userId));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("load authorization of user " + userId + " error", e.getCause());
+        }
+    }
+
+    private static String key(long generation, int userId) {
+        return generation + "_" + userId;
+    }
+
+    private UserAuthorization load(int userId) {
+        Map<Integer, Integer> projectPerms = new TreeMap<>();
+        for (ProjectUser projectUser : nullToEmpty(projectUserMapper.queryProjectRelationByUserId(userId))) {
+            projectPerms.merge(projectUser.getProjectId(), projectUser.getPerm(), (a, b) -> a | b);
+        }
+        for (Project project : nullToEmpty(projectMapper.queryProjectCreatedByUser(userId))) {
+            projectPerms.put(project.getId(), Constants.ALL_PERMISSIONS);
+        }
+
+        List<Resource> resources = nullToEmpty(resourceMapper.listAuthorizedResourceById(userId, null));
+        List<String> fileNames = new ArrayList<>();
+        int[] resourceIds = new int[resources.size()];
+        for (int i = 0; i < resources.size(); i++) {
+            Resource resource = resources.get(i);
+            resourceIds[i] = resource.getId();
+            if (resource.getType() == ResourceType.FILE) {
+                fileNames.add(resource.getFullName());
+            }
+        }
+
+        List<DataSource> dataSources = nullToEmpty(dataSourceMapper.listAuthorizedDataSource(userId, null));
+        List<UdfFunc> udfFuncs = nullToEmpty(udfFuncMapper.listAuthorizedUdfFunc(userId, null));
+
+        return new UserAuthorization(projectPerms,
+                resourceIds,
+                fileNames.toArray(new String[0]),
+                dataSources.stream().mapToInt(DataSource::getId).toArray(),
+                udfFuncs.stream().mapToInt(UdfFunc::getId).toArray());
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list == null ? new ArrayList<>() : list;
+    }
+
+    /**
+     * invalidate the index of a user, and again after the current transaction commits
+     * so that an index loaded before the commit is not kept
+     *
+     * @param userId user id
+     */
+    public void invalidateUser(int userId) {
+        Runnable invalidate = () -> cache.invalidate(key(generation.get(), userId));
+        invalidate.run();
+        afterCommit(invalidate);
+    }
+
+    /**
+     * invalidate the indexes of all users, and again after the current transaction commits
+     */
+    public void invalidateAll() {
+        Runnable invalidate = () -> {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        };
+        invalidate.run();
+        afterCommit(invalidate);
+    }
+
+    private static void afterCommit(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * authorization index of a user, ids are kept in sorted arrays so that checks are binary searches
+     */
+    public static class UserAuthorization {
+
+        /**
+         * authorized project ids, sorted
+         */
+        private final int[] projectIds;
+
+        /**
+         * permission of each project in projectIds
+         */
+        private final int[] projectPerms;
+
+        /**
+         * resource ids the user owns or has all permissions of, sorted
+         */
+        private final int[] resourceIds;
+
+        /**
+         * full names of the files in resourceIds, sorted
+         */
+        private final String[] fileNames;
+
+        /**
+         * authorized data source ids, sorted
+         */
+        private final int[] dataSourceIds;
+
+        /**
+         * authorized udf function ids, sorted
+         */
+        private final int[] udfFuncIds;
+
+        public UserAuthorization(Map<Integer, Integer> projectPerms,
+                                 int[] resourceIds,
+                                 String[] fileNames,
+                                 int[] dataSourceIds,
+                                 int[] udfFuncIds) {
+            Map<Integer, Integer> sortedProjectPerms = new TreeMap<>(projectPerms);
+            this.projectIds = new int[sortedProjectPerms.size()];
+            this.projectPerms = new int[sortedProjectPerms.size()];
+            int i = 0;
+            for (Map.Entry<Integer, Integer> entry : sortedProjectPerms.entrySet()) {
+                this.projectIds[i] = entry.getKey();
+                this.projectPerms[i] = entry.getValue();
+                i++;
+            }
+            this.resourceIds = sorted(resourceIds);
+            this.fileNames = fileNames.clone();
+            Arrays.sort(this.fileNames);
+            this.dataSourceIds = sorted(dataSourceIds);
+            this.udfFuncIds = sorted(udfFuncIds);
+        }
+
+        private static int[] sorted(int[] ids) {
+            int[] copy = ids.clone();
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        /**
+         * ids of the projects the user created or is granted
+         *
+         * @return project ids
+         */
+        public List<Integer> getProjectIds() {
+            List<Integer> ids = new ArrayList<>(projectIds.length);
+            for (int projectId : projectIds) {
+                ids.add(projectId);
+            }
+            return ids;
+        }
+
+        /**
+         * permission of the user on a project
+         *
+         * @param projectId project id
+         * @return permission, 0 if the project is not authorized
+         */
+        public int getProjectPerm(int projectId) {
+            int index = Arrays.binarySearch(projectIds, projectId);
+            return index < 0 ? 0 : projectPerms[index];
+        }
+
+        public boolean hasResource(int resourceId) {
+            return Arrays.binarySearch(resourceIds, resourceId) >= 0;
+        }
+
+        public boolean hasFile(String fullName) {
+            return fullName != null && Arrays.binarySearch(fileNames, fullName) >= 0;
+        }
+
+        public boolean hasDataSource(int dataSourceId) {
+            return Arrays.binarySearch(dataSourceIds, dataSourceId) >= 0;
+        }
+
+        public boolean hasUdfFunc(int udfFuncId) {
+            return Arrays.binarySearch(udfFuncIds, udfFuncId) >= 0;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.process;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.utils.PropertyUtils;
+import org.apache.dolphinscheduler.dao.entity.ProcessJsonSnapshot;
+import org.apache.dolphinscheduler.dao.mapper.ProcessJsonSnapshotMapper;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * content addressed store of process definition json snapshots.
+ * a json is written once per distinct content and referenced by its sha-256 hash, snapshots are
+ * immutable so the contents read or written recently are kept in memory.
+ */
+@Component
+public class ProcessJsonSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessJsonSnapshotStore.class);
+
+    /**
+     * max number of json chars kept in memory
+     */
+    private static final long MAXIMUM_CONTENT_WEIGHT = 32L * 1024 * 1024;
+
+    /**
+     * max number of hashes known to be stored
+     */
+    private static final long MAXIMUM_STORED_HASHES = 10000;
+
+    /**
+     * hash -> json
+     */
+    private final Cache<String, String> contents = CacheBuilder.newBuilder()
+            .maximumWeight(MAXIMUM_CONTENT_WEIGHT)
+            .weigher((String hash, String json) -> json.length())
+            .build();
+
+    /**
+     * hashes whose snapshot is committed, so that they are not written again
+     */
+    private final Cache<String, Boolean> storedHashes = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_STORED_HASHES)
+            .build();
+
+    private final boolean compress = PropertyUtils.getBoolean(Constants.PROCESS_JSON_SNAPSHOT_COMPRESS, false);
+
+    @Autowired
+    private ProcessJsonSnapshotMapper processJsonSnapshotMapper;
+
+    /**
+     * save a json unless a snapshot of the same content exists
+     *
+     * @param json json
+     * @param currentHash hash the caller currently refers to, the json is not hashed again if it is unchanged
+     * @return hash of the json, null if the json is null
+     */
+    public String save(String json, String currentHash) {
+        if (json == null) {
+            return null;
+        }
+        if (currentHash != null && json.equals(contents.getIfPresent(currentHash))) {
+            return currentHash;
+        }
+        String hash = DigestUtils.sha256Hex(json);
+        if (storedHashes.getIfPresent(hash) != null) {
+            contents.put(hash, json);
+            return hash;
+        }
+        ProcessJsonSnapshot snapshot = new ProcessJsonSnapshot();
+        snapshot.setHash(hash);
+        snapshot.setCompressed(compress);
+        snapshot.setContent(encode(json, compress));
+        snapshot.setCreateTime(new Date());
+        processJsonSnapshotMapper.insertIfAbsent(snapshot);
+        // a snapshot rolled back with the transaction must neither be skipped nor served from memory
+        afterCommit(() -> {
+            storedHashes.put(hash, Boolean.TRUE);
+            contents.put(hash, json);
+        });
+        return hash;
+    }
+
+    /**
+     * load the json of a snapshot
+     *
+     * @param hash hash
+     * @return json, null if the hash is null or the snapshot does not exist
+     */
+    public String load(String hash) {
+        if (hash == null) {
+            return null;
+        }
+        String json = contents.getIfPresent(hash);
+        if (json != null) {
+            return json;
+        }
+        ProcessJsonSnapshot snapshot = processJsonSnapshotMapper.selectById(hash);
+        if (snapshot == null) {
+            logger.error("process json snapshot {} not exists", hash);
+            return null;
+        }
+        json = decode(snapshot.getContent(), snapshot.isCompressed());
+        contents.put(hash, json);
+        storedHashes.put(hash, Boolean.TRUE);
+        return json;
+    }
+
+    private static void afterCommit(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        } else {
+            runnable.run();
+        }
+    }
+
+    static byte[] encode(String json, boolean compress) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        if (!compress) {
+            return bytes;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("compress process json error", e);
+        }
+        return out.toByteArray();
+    }
+
+    static String decode(byte[] content, boolean compressed) {
+        if (content == null) {
+            return null;
+        }
+        if (!compressed) {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length * 4);
+        byte[] buffer = new byte[8192];
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("decompress process json error", e);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
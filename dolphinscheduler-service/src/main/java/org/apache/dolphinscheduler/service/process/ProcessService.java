@@ -26,8 +26,6 @@ import static org.apache.dolphinscheduler.common.Constants.CMD_PARAM_SUB_PROCESS
 import static org.apache.dolphinscheduler.common.Constants.CMD_PARAM_SUB_PROCESS_PARENT_INSTANCE_ID;
 import static org.apache.dolphinscheduler.common.Constants.YYYY_MM_DD_HH_MM_SS;
 
-import static java.util.stream.Collectors.toSet;
-
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.enums.AuthorizationType;
 import org.apache.dolphinscheduler.common.enums.CommandType;
@@ -43,7 +41,6 @@ import org.apache.dolphinscheduler.common.model.DateInterval;
 import org.apache.dolphinscheduler.common.model.TaskNode;
 import org.apache.dolphinscheduler.common.process.Property;
 import org.apache.dolphinscheduler.common.task.conditions.ConditionsParameters;
-import org.apache.dolphinscheduler.common.task.subprocess.SubProcessParameters;
 import org.apache.dolphinscheduler.common.utils.CollectionUtils;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
@@ -61,6 +58,7 @@ import org.apache.dolphinscheduler.dao.entity.Project;
 import org.apache.dolphinscheduler.dao.entity.ProjectUser;
 import org.apache.dolphinscheduler.dao.entity.Resource;
 import org.apache.dolphinscheduler.dao.entity.Schedule;
+import org.apache.dolphinscheduler.dao.entity.ScheduleTriggerState;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.Tenant;
 import org.apache.dolphinscheduler.dao.entity.UdfFunc;
@@ -74,17 +72,23 @@ import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.ResourceMapper;
 import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
+import org.apache.dolphinscheduler.dao.mapper.ScheduleTriggerStateMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UdfFuncMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.service.log.LogClientService;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache.UserAuthorization;
+import org.apache.dolphinscheduler.service.quartz.ProcessScheduleJob;
 import org.apache.dolphinscheduler.service.quartz.cron.CronUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -93,6 +97,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.quartz.CronExpression;
@@ -101,8 +107,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.cronutils.model.Cron;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -119,6 +129,11 @@ public class ProcessService {
             ExecutionStatus.READY_PAUSE.ordinal(),
             ExecutionStatus.READY_STOP.ordinal()};
 
+    /**
+     * max number of schedule ids in one query
+     */
+    private static final int SCHEDULE_ID_BATCH_SIZE = 1000;
+
     @Autowired
     private UserMapper userMapper;
 
@@ -158,6 +173,20 @@ public class ProcessService {
     @Autowired
     private ProjectMapper projectMapper;
 
+    @Autowired
+    private AuthorizationCache authorizationCache;
+
+    @Autowired
+    private ProcessJsonSnapshotStore processJsonSnapshotStore;
+
+    @Autowired
+    private ScheduleTriggerStateMapper scheduleTriggerStateMapper;
+
+    /**
+     * sub process closure cache, process definition id -> closure
+     */
+    private final Map<Integer, SubProcessClosure> subProcessClosureCache = new ConcurrentHashMap<>();
+
     /**
      * handle Command (construct ProcessInstance from Command) , wrapped in transaction
      *
@@ -297,6 +326,54 @@ public class ProcessService {
         return processInstanceMapper.queryDetailById(processId);
     }
 
+    /**
+     * get the json of a process instance, loading it from its snapshot if it is not loaded yet.
+     * only instances created before snapshots existed are queried with their json,
+     * so this must be used wherever the json is needed
+     *
+     * @param processInstance process instance
+     * @return process instance json
+     */
+    public String getProcessInstanceJson(ProcessInstance processInstance) {
+        if (processInstance.getProcessInstanceJson() == null) {
+            processInstance.setProcessInstanceJson(processJsonSnapshotStore.load(processInstance.getProcessInstanceJsonHash()));
+        }
+        return processInstance.getProcessInstanceJson();
+    }
+
+    /**
+     * save the json of a process instance as a snapshot and refer to it by hash,
+     * the json itself is never written to t_ds_process_instance
+     *
+     * @param processInstance process instance
+     */
+    private void saveProcessInstanceJson(ProcessInstance processInstance) {
+        String processInstanceJson = processInstance.getProcessInstanceJson();
+        if (processInstanceJson != null) {
+            processInstance.setProcessInstanceJsonHash(
+                    processJsonSnapshotStore.save(processInstanceJson, processInstance.getProcessInstanceJsonHash()));
+        }
+    }
+
+    /**
+     * update a process instance, saving its json as a snapshot first.
+     * an instance created before snapshots existed has its json column cleared in the same statement,
+     * it would otherwise be queried instead of the snapshot and hide the edits of the instance
+     *
+     * @param processInstance process instance
+     * @return update result
+     */
+    private int updateProcessInstanceWithJson(ProcessInstance processInstance) {
+        boolean legacyJson = processInstance.getProcessInstanceJsonHash() == null && processInstance.getProcessInstanceJson() != null;
+        saveProcessInstanceJson(processInstance);
+        if (legacyJson) {
+            return processInstanceMapper.update(processInstance, new UpdateWrapper<ProcessInstance>()
+                    .setSql("process_instance_json = null")
+                    .eq("id", processInstance.getId()));
+        }
+        return processInstanceMapper.updateById(processInstance);
+    }
+
     /**
      * get task node list by definitionId
      */
@@ -416,9 +493,7 @@ public class ProcessService {
      * @return process thread num count
      */
     private Integer workProcessThreadNumCount(Integer processDefinitionId) {
-        List<Integer> ids = new ArrayList<>();
-        recurseFindSubProcessId(processDefinitionId, ids);
-        return ids.size() + 1;
+        return getSubProcessClosure(processDefinitionId).getThreadNum();
     }
 
     /**
@@ -428,26 +503,129 @@ public class ProcessService {
      * @param ids ids
      */
     public void recurseFindSubProcessId(int parentId, List<Integer> ids) {
-        ProcessDefinition processDefinition = processDefineMapper.selectById(parentId);
-        String processDefinitionJson = processDefinition.getProcessDefinitionJson();
+        ids.addAll(getSubProcessClosure(parentId).getSubProcessIds());
+    }
 
-        ProcessData processData = JSONUtils.parseObject(processDefinitionJson, ProcessData.class);
+    /**
+     * get the sub process closure of a process definition.
+     * the cached closure is only checked against the id and version of the definitions it was
+     * built from, the definition json is parsed again only when one of them has changed.
+     *
+     * @param processDefinitionId process definition id
+     * @return sub process closure
+     */
+    public SubProcessClosure getSubProcessClosure(int processDefinitionId) {
+        SubProcessClosure closure = subProcessClosureCache.get(processDefinitionId);
+        if (closure != null
+                && closure.isUpToDate(processDefineMapper.queryVersionByIdList(closure.getDefinitionVersions().keySet()))) {
+            return closure;
+        }
+        closure = buildSubProcessClosure(processDefinitionId, null);
+        if (closure.getDefinitionVersions().isEmpty()) {
+            subProcessClosureCache.remove(processDefinitionId);
+        } else {
+            subProcessClosureCache.put(processDefinitionId, closure);
+        }
+        return closure;
+    }
 
-        List<TaskNode> taskNodeList = processData.getTasks();
+    /**
+     * build the sub process closure of a process definition.
+     *
+     * @param processDefinitionId process definition id
+     * @param processData process data of the root definition, loaded from the database if null
+     * @return sub process closure
+     */
+    public SubProcessClosure buildSubProcessClosure(int processDefinitionId, ProcessData processData) {
+        Map<Integer, Long> definitionVersions = new HashMap<>();
+        Map<Integer, List<Integer>> subProcessIdsCache = new HashMap<>();
+        if (processData != null) {
+            subProcessIdsCache.put(processDefinitionId, findSubProcessIds(processData));
+        }
+        List<Integer> subProcessIds = new ArrayList<>();
+        boolean cyclic = collectSubProcessIds(processDefinitionId, new HashSet<>(),
+                subProcessIds, definitionVersions, subProcessIdsCache);
+        return new SubProcessClosure(processDefinitionId, subProcessIds, definitionVersions, cyclic);
+    }
 
-        if (taskNodeList != null && !taskNodeList.isEmpty()) {
+    /**
+     * depth first collect sub process ids, a sub process referring to one of its ancestors is skipped
+     *
+     * @param parentId parent process definition id
+     * @param path process definition ids on the current path
+     * @param subProcessIds collected sub process ids
+     * @param definitionVersions versions of the loaded definitions
+     * @param subProcessIdsCache direct sub process ids of the loaded definitions
+     * @return true if a cycle is found
+     */
+    private boolean collectSubProcessIds(int parentId,
+                                         Set<Integer> path,
+                                         List<Integer> subProcessIds,
+                                         Map<Integer, Long> definitionVersions,
+                                         Map<Integer, List<Integer>> subProcessIdsCache) {
+        boolean cyclic = false;
+        path.add(parentId);
+        for (Integer subProcessId : loadSubProcessIds(parentId, definitionVersions, subProcessIdsCache)) {
+            if (path.contains(subProcessId)) {
+                logger.warn("process definition {} refers to its ancestor {} as sub process", parentId, subProcessId);
+                cyclic = true;
+                continue;
+            }
+            subProcessIds.add(subProcessId);
+            cyclic |= collectSubProcessIds(subProcessId, path, subProcessIds, definitionVersions, subProcessIdsCache);
+        }
+        path.remove(parentId);
+        return cyclic;
+    }
 
-            for (TaskNode taskNode : taskNodeList) {
-                String parameter = taskNode.getParams();
-                ObjectNode parameterJson = JSONUtils.parseObject(parameter);
-                if (parameterJson.get(CMD_PARAM_SUB_PROCESS_DEFINE_ID) != null) {
-                    SubProcessParameters subProcessParam = JSONUtils.parseObject(parameter, SubProcessParameters.class);
-                    ids.add(subProcessParam.getProcessDefinitionId());
-                    recurseFindSubProcessId(subProcessParam.getProcessDefinitionId(), ids);
-                }
+    /**
+     * load the direct sub process ids of a process definition, each definition is loaded once
+     *
+     * @param processDefinitionId process definition id
+     * @param definitionVersions versions of the loaded definitions
+     * @param subProcessIdsCache direct sub process ids of the loaded definitions
+     * @return direct sub process ids
+     */
+    private List<Integer> loadSubProcessIds(int processDefinitionId,
+                                            Map<Integer, Long> definitionVersions,
+                                            Map<Integer, List<Integer>> subProcessIdsCache) {
+        List<Integer> subProcessIds = subProcessIdsCache.get(processDefinitionId);
+        if (subProcessIds != null) {
+            return subProcessIds;
+        }
+        ProcessDefinition processDefinition = processDefineMapper.selectById(processDefinitionId);
+        if (processDefinition == null) {
+            logger.warn("sub process definition {} not exists", processDefinitionId);
+            subProcessIds = Collections.emptyList();
+        } else {
+            definitionVersions.put(processDefinitionId, processDefinition.getVersion());
+            subProcessIds = findSubProcessIds(JSONUtils.parseObject(processDefinition.getProcessDefinitionJson(), ProcessData.class));
+        }
+        subProcessIdsCache.put(processDefinitionId, subProcessIds);
+        return subProcessIds;
+    }
 
+    /**
+     * find the direct sub process ids of a process
+     *
+     * @param processData process data
+     * @return direct sub process ids
+     */
+    private List<Integer> findSubProcessIds(ProcessData processData) {
+        List<Integer> subProcessIds = new ArrayList<>();
+        if (processData == null || CollectionUtils.isEmpty(processData.getTasks())) {
+            return subProcessIds;
+        }
+        for (TaskNode taskNode : processData.getTasks()) {
+            if (StringUtils.isEmpty(taskNode.getParams())) {
+                continue;
+            }
+            JsonNode subProcessDefineId = JSONUtils.parseObject(taskNode.getParams()).get(CMD_PARAM_SUB_PROCESS_DEFINE_ID);
+            if (subProcessDefineId != null) {
+                subProcessIds.add(subProcessDefineId.asInt());
             }
         }
+        return subProcessIds;
     }
 
     /**
@@ -939,6 +1117,19 @@ public class ProcessService {
      */
     @Transactional(rollbackFor = Exception.class)
     public TaskInstance submitTask(TaskInstance taskInstance) {
+        return submitTask(taskInstance, null);
+    }
+
+    /**
+     * submit task to db
+     * submit sub process to the launcher, or to command when the launcher is null or has no capacity
+     *
+     * @param taskInstance taskInstance
+     * @param subProcessLauncher sub process launcher of the current master, may be null
+     * @return task instance
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public TaskInstance submitTask(TaskInstance taskInstance, SubProcessLauncher subProcessLauncher) {
         ProcessInstance processInstance = this.findProcessInstanceDetailById(taskInstance.getProcessInstanceId());
         logger.info("start submit task : {}, instance id:{}, state: {}",
                 taskInstance.getName(), taskInstance.getProcessInstanceId(), processInstance.getState());
@@ -950,7 +1141,7 @@ public class ProcessService {
             return task;
         }
         if (!task.getState().typeIsFinished()) {
-            createSubWorkProcess(processInstance, task);
+            createSubWorkProcess(processInstance, task, subProcessLauncher);
         }
 
         logger.info("end submit task to db successfully:{} state:{} complete, instance id:{} state: {}  ",
@@ -1023,6 +1214,17 @@ public class ProcessService {
      * @param task task
      */
     public void createSubWorkProcess(ProcessInstance parentProcessInstance, TaskInstance task) {
+        createSubWorkProcess(parentProcessInstance, task, null);
+    }
+
+    /**
+     * create sub work process, it is launched in place when the launcher has capacity, otherwise a command is created
+     *
+     * @param parentProcessInstance parentProcessInstance
+     * @param task task
+     * @param subProcessLauncher sub process launcher, may be null
+     */
+    public void createSubWorkProcess(ProcessInstance parentProcessInstance, TaskInstance task, SubProcessLauncher subProcessLauncher) {
         if (!task.isSubProcess()) {
             return;
         }
@@ -1040,10 +1242,74 @@ public class ProcessService {
         Command subProcessCommand = createSubProcessCommand(parentProcessInstance, childInstance, instanceMap, task);
         updateSubProcessDefinitionByParent(parentProcessInstance, subProcessCommand.getProcessDefinitionId());
         initSubInstanceState(childInstance);
+        if (subProcessLauncher != null && launchSubProcess(subProcessCommand, subProcessLauncher)) {
+            return;
+        }
         createCommand(subProcessCommand);
         logger.info("sub process command created: {} ", subProcessCommand);
     }
 
+    /**
+     * construct the sub process instance of a command in place, the command is not saved.
+     * the instance is started by the launcher after the transaction commits
+     *
+     * @param subProcessCommand sub process command
+     * @param subProcessLauncher sub process launcher
+     * @return false if the launcher has no capacity or the instance can not be constructed
+     */
+    private boolean launchSubProcess(Command subProcessCommand, SubProcessLauncher subProcessLauncher) {
+        int threadNum = workProcessThreadNumCount(subProcessCommand.getProcessDefinitionId());
+        if (!subProcessLauncher.reserve(threadNum)) {
+            logger.info("no thread to launch sub process of definition {} on {}, submit it as command",
+                    subProcessCommand.getProcessDefinitionId(), subProcessLauncher.getHost());
+            return false;
+        }
+        boolean launched = false;
+        try {
+            ProcessInstance subProcessInstance = constructProcessInstance(subProcessCommand, subProcessLauncher.getHost());
+            if (subProcessInstance == null) {
+                return false;
+            }
+            subProcessInstance.setCommandType(subProcessCommand.getCommandType());
+            subProcessInstance.addHistoryCmd(subProcessCommand.getCommandType());
+            saveProcessInstance(subProcessInstance);
+            setSubProcessParam(subProcessInstance);
+            afterCompletion(committed -> {
+                if (committed) {
+                    subProcessLauncher.launch(subProcessInstance, threadNum);
+                } else {
+                    subProcessLauncher.cancel(threadNum);
+                }
+            });
+            launched = true;
+            logger.info("sub process instance {} of definition {} launched on {}",
+                    subProcessInstance.getId(), subProcessCommand.getProcessDefinitionId(), subProcessLauncher.getHost());
+            return true;
+        } finally {
+            if (!launched) {
+                subProcessLauncher.cancel(threadNum);
+            }
+        }
+    }
+
+    /**
+     * run an action when the current transaction completes, or right now when there is no transaction
+     *
+     * @param action action receiving whether the transaction is committed
+     */
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            action.accept(true);
+        }
+    }
+
     /**
      * complement data needs transform parent parameter to child.
      */
@@ -1179,6 +1445,50 @@ public class ProcessService {
         return taskInstance;
     }
 
+    /**
+     * submit new task instances of one process instance to db in one batch,
+     * the process instance and its failure strategy are read once for the whole batch.
+     * retried or existing task instances should be submitted by submitTask
+     *
+     * @param taskInstances new task instances of the same process instance
+     * @return submitted task instances with ids, empty if nothing submitted
+     */
+    @Transactional(rollbackFor = RuntimeException.class)
+    public List<TaskInstance> submitNewTaskInstances(List<TaskInstance> taskInstances) {
+        if (CollectionUtils.isEmpty(taskInstances)) {
+            return Collections.emptyList();
+        }
+        ProcessInstance processInstance = this.findProcessInstanceById(taskInstances.get(0).getProcessInstanceId());
+        if (processInstance == null) {
+            return Collections.emptyList();
+        }
+        ExecutionStatus processInstanceState = processInstance.getState();
+        // new task instances are neither running nor killed, so they share one submit state
+        ExecutionStatus submitState;
+        if (processInstanceState == ExecutionStatus.READY_PAUSE) {
+            submitState = ExecutionStatus.PAUSE;
+        } else if (processInstanceState == ExecutionStatus.READY_STOP
+                || !checkProcessStrategy(processInstance)) {
+            submitState = ExecutionStatus.KILL;
+        } else {
+            submitState = ExecutionStatus.SUBMITTED_SUCCESS;
+        }
+        Date submitTime = new Date();
+        for (TaskInstance taskInstance : taskInstances) {
+            taskInstance.setExecutorId(processInstance.getExecutorId());
+            taskInstance.setProcessInstancePriority(processInstance.getProcessInstancePriority());
+            taskInstance.setState(submitState);
+            if (taskInstance.getSubmitTime() == null) {
+                taskInstance.setSubmitTime(submitTime);
+            }
+            if (taskInstance.getFirstSubmitTime() == null) {
+                taskInstance.setFirstSubmitTime(taskInstance.getSubmitTime());
+            }
+        }
+        taskInstanceMapper.batchInsert(taskInstances);
+        return taskInstances;
+    }
+
     /**
      * get submit task instance state by the work process state
      * cannot modify the task state when running/kill/submit success, or this
@@ -1223,12 +1533,21 @@ public class ProcessService {
      * @return check strategy result
      */
     private boolean checkProcessStrategy(TaskInstance taskInstance) {
-        ProcessInstance processInstance = this.findProcessInstanceById(taskInstance.getProcessInstanceId());
+        return checkProcessStrategy(this.findProcessInstanceById(taskInstance.getProcessInstanceId()));
+    }
+
+    /**
+     * check process instance strategy
+     *
+     * @param processInstance processInstance
+     * @return check strategy result
+     */
+    private boolean checkProcessStrategy(ProcessInstance processInstance) {
         FailureStrategy failureStrategy = processInstance.getFailureStrategy();
         if (failureStrategy == FailureStrategy.CONTINUE) {
             return true;
         }
-        List<TaskInstance> taskInstances = this.findValidTaskListByProcessId(taskInstance.getProcessInstanceId());
+        List<TaskInstance> taskInstances = this.findValidTaskListByProcessId(processInstance.getId());
 
         for (TaskInstance task : taskInstances) {
             if (task.getState() == ExecutionStatus.FAILURE) {
@@ -1246,6 +1565,7 @@ public class ProcessService {
     public void createProcessInstance(ProcessInstance processInstance) {
 
         if (processInstance != null) {
+            saveProcessInstanceJson(processInstance);
             processInstanceMapper.insert(processInstance);
         }
     }
@@ -1262,7 +1582,7 @@ public class ProcessService {
             return;
         }
         if (processInstance.getId() != 0) {
-            processInstanceMapper.updateById(processInstance);
+            updateProcessInstanceWithJson(processInstance);
         } else {
             createProcessInstance(processInstance);
         }
@@ -1337,6 +1657,19 @@ public class ProcessService {
         return taskInstanceMapper.selectById(taskId);
     }
 
+    /**
+     * find task instance list by id list
+     *
+     * @param idList task id list
+     * @return task instance list
+     */
+    public List<TaskInstance> findTaskInstanceByIdList(List<Integer> idList) {
+        if (CollectionUtils.isEmpty(idList)) {
+            return new ArrayList<>();
+        }
+        return taskInstanceMapper.selectBatchIds(idList);
+    }
+
     /**
      * package task instance，associate processInstance and processDefine
      *
@@ -1359,6 +1692,39 @@ public class ProcessService {
         return taskInstance;
     }
 
+    /**
+     * package task instances，associate processInstance and processDefine,
+     * with one query for the task instances, process instances and process definitions each
+     *
+     * @param taskInstIds task instance id list
+     * @return task instance list, task instances that do not exist are absent
+     */
+    public List<TaskInstance> getTaskInstanceDetailByTaskIds(Collection<Integer> taskInstIds) {
+        if (CollectionUtils.isEmpty(taskInstIds)) {
+            return new ArrayList<>();
+        }
+        List<TaskInstance> taskInstances = taskInstanceMapper.selectBatchIds(taskInstIds);
+        if (CollectionUtils.isEmpty(taskInstances)) {
+            return new ArrayList<>();
+        }
+        Set<Integer> processInstanceIds = new HashSet<>();
+        Set<Integer> processDefinitionIds = new HashSet<>();
+        for (TaskInstance taskInstance : taskInstances) {
+            processInstanceIds.add(taskInstance.getProcessInstanceId());
+            processDefinitionIds.add(taskInstance.getProcessDefinitionId());
+        }
+        Map<Integer, ProcessInstance> processInstances = processInstanceMapper.selectBatchIds(processInstanceIds)
+                .stream().collect(Collectors.toMap(ProcessInstance::getId, processInstance -> processInstance));
+        Map<Integer, ProcessDefinition> processDefines = processDefineMapper.selectBatchIds(processDefinitionIds)
+                .stream().collect(Collectors.toMap(ProcessDefinition::getId, processDefine -> processDefine));
+
+        for (TaskInstance taskInstance : taskInstances) {
+            taskInstance.setProcessInstance(processInstances.get(taskInstance.getProcessInstanceId()));
+            taskInstance.setProcessDefine(processDefines.get(taskInstance.getProcessDefinitionId()));
+        }
+        return taskInstances;
+    }
+
     /**
      * get id list by task state
      *
@@ -1498,7 +1864,7 @@ public class ProcessService {
      * @return update process instance result
      */
     public int updateProcessInstance(ProcessInstance processInstance) {
-        return processInstanceMapper.updateById(processInstance);
+        return updateProcessInstanceWithJson(processInstance);
     }
 
     /**
@@ -1523,7 +1889,7 @@ public class ProcessService {
             processInstance.setScheduleTime(scheduleTime);
             processInstance.setLocations(locations);
             processInstance.setConnects(connects);
-            return processInstanceMapper.updateById(processInstance);
+            return updateProcessInstanceWithJson(processInstance);
         }
         return 0;
     }
@@ -1577,6 +1943,75 @@ public class ProcessService {
         return scheduleMapper.selectById(id);
     }
 
+    /**
+     * query online schedules of online process definitions
+     *
+     * @return schedule list
+     */
+    public List<Schedule> queryOnlineSchedules() {
+        return scheduleMapper.queryOnlineSchedules(null);
+    }
+
+    /**
+     * query the scheduled time of the last fire of schedules
+     *
+     * @param scheduleIds schedule ids
+     * @return schedule id -> last fire time, schedules never fired are absent
+     */
+    public Map<Integer, Date> queryScheduleLastFireTimes(List<Integer> scheduleIds) {
+        Map<Integer, Date> lastFireTimes = new HashMap<>(scheduleIds.size());
+        for (int from = 0; from < scheduleIds.size(); from += SCHEDULE_ID_BATCH_SIZE) {
+            List<Integer> batch = scheduleIds.subList(from, Math.min(from + SCHEDULE_ID_BATCH_SIZE, scheduleIds.size()));
+            for (ScheduleTriggerState state : scheduleTriggerStateMapper.queryByScheduleIds(batch)) {
+                lastFireTimes.put(state.getScheduleId(), state.getLastFireTime());
+            }
+        }
+        return lastFireTimes;
+    }
+
+    /**
+     * fire schedules, the commands of all the schedules are inserted in one statement
+     * and the fires are recorded in the same transaction, a master taking over the schedules catches up from there.
+     * the schedules are locked first, their trigger states do not exist before the first fire.
+     * a schedule which is offline now is not fired, nor is a schedule another master fired at or after the time
+     *
+     * @param scheduledFireTimes schedule id -> scheduled fire time
+     * @param fireTime actual fire time
+     * @return schedule id -> last fire time of the schedules still online
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public Map<Integer, Date> fireSchedules(Map<Integer, Date> scheduledFireTimes, Date fireTime) {
+        Map<Integer, Date> lastFireTimes = new HashMap<>(scheduledFireTimes.size());
+        if (scheduledFireTimes.isEmpty()) {
+            return lastFireTimes;
+        }
+        scheduleMapper.lockSchedules(scheduledFireTimes.keySet());
+        Map<Integer, Date> firedTimes = new HashMap<>(scheduledFireTimes.size());
+        for (ScheduleTriggerState state : scheduleTriggerStateMapper.queryByScheduleIdsForUpdate(scheduledFireTimes.keySet())) {
+            firedTimes.put(state.getScheduleId(), state.getLastFireTime());
+        }
+        List<Schedule> schedules = scheduleMapper.queryOnlineSchedules(scheduledFireTimes.keySet());
+        List<Command> commands = new ArrayList<>(schedules.size());
+        List<ScheduleTriggerState> states = new ArrayList<>(schedules.size());
+        for (Schedule schedule : schedules) {
+            Date scheduledFireTime = scheduledFireTimes.get(schedule.getId());
+            Date firedTime = firedTimes.get(schedule.getId());
+            if (firedTime != null && !firedTime.before(scheduledFireTime)) {
+                logger.info("schedule {} is fired at {} already, skip fire time {}", schedule.getId(), firedTime, scheduledFireTime);
+                lastFireTimes.put(schedule.getId(), firedTime);
+                continue;
+            }
+            commands.add(ProcessScheduleJob.buildScheduleCommand(schedule, scheduledFireTime, fireTime));
+            states.add(new ScheduleTriggerState(schedule.getId(), scheduledFireTime, fireTime));
+            lastFireTimes.put(schedule.getId(), scheduledFireTime);
+        }
+        if (!commands.isEmpty()) {
+            commandMapper.batchInsert(commands);
+            scheduleTriggerStateMapper.batchUpsert(states);
+        }
+        return lastFireTimes;
+    }
+
     /**
      * query Schedule by processDefinitionId
      *
@@ -1617,6 +2052,36 @@ public class ProcessService {
         createCommand(cmd);
     }
 
+    /**
+     * process a batch of need failover process instances in one transaction
+     *
+     * @param processInstances processInstances
+     */
+    @Transactional(rollbackFor = RuntimeException.class)
+    public void processNeedFailoverProcessInstances(List<ProcessInstance> processInstances) {
+        if (CollectionUtils.isEmpty(processInstances)) {
+            return;
+        }
+        //1 update processInstance host is null
+        List<Integer> ids = new ArrayList<>(processInstances.size());
+        List<Command> commands = new ArrayList<>(processInstances.size());
+        for (ProcessInstance processInstance : processInstances) {
+            processInstance.setHost(Constants.NULL);
+            ids.add(processInstance.getId());
+
+            Command cmd = new Command();
+            cmd.setProcessDefinitionId(processInstance.getProcessDefinitionId());
+            cmd.setCommandParam(String.format("{\"%s\":%d}", Constants.CMD_PARAM_RECOVER_PROCESS_ID_STRING, processInstance.getId()));
+            cmd.setExecutorId(processInstance.getExecutorId());
+            cmd.setCommandType(CommandType.RECOVER_TOLERANCE_FAULT_PROCESS);
+            commands.add(cmd);
+        }
+        processInstanceMapper.updateHostByIds(ids, Constants.NULL);
+
+        //2 insert into recover commands
+        commandMapper.batchInsert(commands);
+    }
+
     /**
      * query all need failover task instances by host
      *
@@ -1628,6 +2093,34 @@ public class ProcessService {
                 stateArray);
     }
 
+    /**
+     * change the state of a batch of task instances
+     *
+     * @param taskInstanceIds task instance ids
+     * @param state state
+     * @return update count
+     */
+    public int updateTaskInstanceState(List<Integer> taskInstanceIds, ExecutionStatus state) {
+        if (CollectionUtils.isEmpty(taskInstanceIds)) {
+            return 0;
+        }
+        return taskInstanceMapper.updateStateByIds(taskInstanceIds, state);
+    }
+
+    /**
+     * find process instance details by ids
+     *
+     * @param processInstanceIds process instance ids
+     * @return process instance id -> process instance
+     */
+    public Map<Integer, ProcessInstance> findProcessInstanceDetailByIds(Collection<Integer> processInstanceIds) {
+        if (CollectionUtils.isEmpty(processInstanceIds)) {
+            return new HashMap<>();
+        }
+        return processInstanceMapper.selectBatchIds(processInstanceIds).stream()
+                .collect(Collectors.toMap(ProcessInstance::getId, processInstance -> processInstance));
+    }
+
     /**
      * find data source by id
      *
@@ -1904,12 +2397,7 @@ public class ProcessService {
      * @return project ids
      */
     public List<Integer> getProjectIdListHavePerm(int userId) {
-
-        List<Integer> projectIdList = new ArrayList<>();
-        for (Project project : getProjectListHavePerm(userId)) {
-            projectIdList.add(project.getId());
-        }
-        return projectIdList;
+        return authorizationCache.getUserAuthorization(userId).getProjectIds();
     }
 
     /**
@@ -1924,24 +2412,21 @@ public class ProcessService {
 
         if (Objects.nonNull(needChecks) && needChecks.length > 0) {
             Set<T> originResSet = new HashSet<>(Arrays.asList(needChecks));
+            UserAuthorization authorization = authorizationCache.getUserAuthorization(userId);
 
             switch (authorizationType) {
                 case RESOURCE_FILE_ID:
                 case UDF_FILE:
-                    Set<Integer> authorizedResourceFiles = resourceMapper.listAuthorizedResourceById(userId, needChecks).stream().map(Resource::getId).collect(toSet());
-                    originResSet.removeAll(authorizedResourceFiles);
+                    originResSet.removeIf(resId -> authorization.hasResource((Integer) resId));
                     break;
                 case RESOURCE_FILE_NAME:
-                    Set<String> authorizedResources = resourceMapper.listAuthorizedResource(userId, needChecks).stream().map(Resource::getFullName).collect(toSet());
-                    originResSet.removeAll(authorizedResources);
+                    originResSet.removeIf(resName -> authorization.hasFile((String) resName));
                     break;
                 case DATASOURCE:
-                    Set<Integer> authorizedDatasources = dataSourceMapper.listAuthorizedDataSource(userId, needChecks).stream().map(DataSource::getId).collect(toSet());
-                    originResSet.removeAll(authorizedDatasources);
+                    originResSet.removeIf(dataSourceId -> authorization.hasDataSource((Integer) dataSourceId));
                     break;
                 case UDF:
-                    Set<Integer> authorizedUdfs = udfFuncMapper.listAuthorizedUdfFunc(userId, needChecks).stream().map(UdfFunc::getId).collect(toSet());
-                    originResSet.removeAll(authorizedUdfs);
+                    originResSet.removeIf(udfId -> authorization.hasUdfFunc((Integer) udfId));
                     break;
                 default:
                     break;
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.process;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * sub process closure of a process definition.
+ * holds every sub process definition id reachable from the root definition (one entry
+ * per sub process instance that will be started) and the version of every definition
+ * the closure was built from, so that it can be validated cheaply against the database.
+ */
+public class SubProcessClosure {
+
+    /**
+     * root process definition id
+     */
+    private final int processDefinitionId;
+
+    /**
+     * reachable sub process definition ids, one entry per sub process node
+     */
+    private final List<Integer> subProcessIds;
+
+    /**
+     * process definition id -> version, root included
+     */
+    private final Map<Integer, Long> definitionVersions;
+
+    /**
+     * whether a sub process node refers back to one of its ancestors
+     */
+    private final boolean cyclic;
+
+    public SubProcessClosure(int processDefinitionId,
+                             List<Integer> subProcessIds,
+                             Map<Integer, Long> definitionVersions,
+                             boolean cyclic) {
+        this.processDefinitionId = processDefinitionId;
+        this.subProcessIds = Collections.unmodifiableList(subProcessIds);
+        this.definitionVersions = Collections.unmodifiableMap(definitionVersions);
+        this.cyclic = cyclic;
+    }
+
+    public int getProcessDefinitionId() {
+        return processDefinitionId;
+    }
+
+    public List<Integer> getSubProcessIds() {
+        return subProcessIds;
+    }
+
+    public Map<Integer, Long> getDefinitionVersions() {
+        return definitionVersions;
+    }
+
+    public boolean isCyclic() {
+        return cyclic;
+    }
+
+    /**
+     * number of master exec threads a process instance of the root definition needs
+     *
+     * @return thread num
+     */
+    public int getThreadNum() {
+        return subProcessIds.size() + 1;
+    }
+
+    /**
+     * check whether the closure is still up to date
+     *
+     * @param currentVersions id and version of the definitions the closure was built from
+     * @return true if every definition still exists with the same version
+     */
+    public boolean isUpToDate(List<ProcessDefinition> currentVersions) {
+        if (currentVersions == null || currentVersions.size() != definitionVersions.size()) {
+            return false;
+        }
+        for (ProcessDefinition definition : currentVersions) {
+            Long version = definitionVersions.get(definition.getId());
+            if (version == null || version != definition.getVersion()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
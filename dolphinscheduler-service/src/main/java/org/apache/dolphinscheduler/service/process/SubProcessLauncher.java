@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.process;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+
+/**
+ * launcher of sub process instances on the master running their parent,
+ * a sub process is submitted as a command only when the launcher has no capacity for it
+ */
+public interface SubProcessLauncher {
+
+    /**
+     * host of the master the sub process instances are launched on
+     *
+     * @return host
+     */
+    String getHost();
+
+    /**
+     * reserve the threads of a sub process instance
+     *
+     * @param threadNum number of threads the sub process and its own sub processes need
+     * @return false if the master has no capacity for it
+     */
+    boolean reserve(int threadNum);
+
+    /**
+     * start a sub process instance and release its reservation, called once the instance is committed
+     *
+     * @param subProcessInstance sub process instance
+     * @param threadNum number of threads reserved for it
+     */
+    void launch(ProcessInstance subProcessInstance, int threadNum);
+
+    /**
+     * release a reservation whose sub process instance is not launched
+     *
+     * @param threadNum number of threads reserved
+     */
+    void cancel(int threadNum);
+}
@@ -89,6 +89,18 @@ public class ProcessScheduleJob implements Job {
             return;
         }
 
+        getProcessService().createCommand(buildScheduleCommand(schedule, scheduledFireTime, fireTime));
+    }
+
+    /**
+     * build the command of a schedule fire
+     *
+     * @param schedule schedule
+     * @param scheduledFireTime scheduled fire time
+     * @param fireTime actual fire time
+     * @return command
+     */
+    public static Command buildScheduleCommand(Schedule schedule, Date scheduledFireTime, Date fireTime) {
         Command command = new Command();
         command.setCommandType(CommandType.SCHEDULER);
         command.setExecutorId(schedule.getUserId());
@@ -101,8 +113,7 @@ public class ProcessScheduleJob implements Job {
         command.setWorkerGroup(workerGroup);
         command.setWarningType(schedule.getWarningType());
         command.setProcessInstancePriority(schedule.getProcessInstancePriority());
-
-        getProcessService().createCommand(command);
+        return command;
     }
 
     /**
@@ -275,6 +275,13 @@ public abstract class AbstractZKClient extends ZookeeperCachedOperator {
         return getZookeeperConfig().getDsRoot() + Constants.ZOOKEEPER_DOLPHINSCHEDULER_LOCK_FAILOVER_WORKERS;
     }
 
+    /**
+     * @return get failover claim parent path
+     */
+    public String getFailoverClaimParentPath() {
+        return getZookeeperConfig().getDsRoot() + Constants.ZOOKEEPER_DOLPHINSCHEDULER_FAILOVER_CLAIMS;
+    }
+
     /**
      * release mutex
      *
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.permission;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.ResourceType;
+import org.apache.dolphinscheduler.dao.entity.DataSource;
+import org.apache.dolphinscheduler.dao.entity.Project;
+import org.apache.dolphinscheduler.dao.entity.ProjectUser;
+import org.apache.dolphinscheduler.dao.entity.Resource;
+import org.apache.dolphinscheduler.dao.entity.UdfFunc;
+import org.apache.dolphinscheduler.dao.mapper.DataSourceMapper;
+import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
+import org.apache.dolphinscheduler.dao.mapper.ProjectUserMapper;
+import org.apache.dolphinscheduler.dao.mapper.ResourceMapper;
+import org.apache.dolphinscheduler.dao.mapper.UdfFuncMapper;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache.UserAuthorization;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * authorization cache test
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AuthorizationCacheTest {
+
+    @InjectMocks
+    private AuthorizationCache authorizationCache;
+
+    @Mock
+    private ProjectMapper projectMapper;
+
+    @Mock
+    private ProjectUserMapper projectUserMapper;
+
+    @Mock
+    private ResourceMapper resourceMapper;
+
+    @Mock
+    private DataSourceMapper dataSourceMapper;
+
+    @Mock
+    private UdfFuncMapper udfFuncMapper;
+
+    @Before
+    public void before() {
+        ProjectUser projectUser = new ProjectUser();
+        projectUser.setProjectId(3);
+        projectUser.setPerm(Constants.READ_PERMISSION);
+        Mockito.when(projectUserMapper.queryProjectRelationByUserId(1)).thenReturn(Collections.singletonList(projectUser));
+        Project project = new Project();
+        project.setId(2);
+        Mockito.when(projectMapper.queryProjectCreatedByUser(1)).thenReturn(Collections.singletonList(project));
+
+        Resource file = new Resource(11, -1, "a.sh", "/a.sh", false);
+        file.setType(ResourceType.FILE);
+        Resource udfFile = new Resource(12, -1, "a.jar", "/a.jar", false);
+        udfFile.setType(ResourceType.UDF);
+        Mockito.when(resourceMapper.listAuthorizedResourceById(1, null)).thenReturn(Arrays.asList(udfFile, file));
+
+        DataSource dataSource = new DataSource();
+        dataSource.setId(21);
+        Mockito.when(dataSourceMapper.listAuthorizedDataSource(1, null)).thenReturn(Collections.singletonList(dataSource));
+        UdfFunc udfFunc = new UdfFunc();
+        udfFunc.setId(31);
+        Mockito.when(udfFuncMapper.listAuthorizedUdfFunc(1, null)).thenReturn(Collections.singletonList(udfFunc));
+    }
+
+    @Test
+    public void testGetUserAuthorization() {
+        UserAuthorization authorization = authorizationCache.getUserAuthorization(1);
+
+        Assert.assertEquals(Arrays.asList(2, 3), authorization.getProjectIds());
+        Assert.assertEquals(Constants.ALL_PERMISSIONS, authorization.getProjectPerm(2));
+        Assert.assertEquals(Constants.READ_PERMISSION, authorization.getProjectPerm(3));
+        Assert.assertEquals(0, authorization.getProjectPerm(4));
+
+        Assert.assertTrue(authorization.hasResource(11));
+        Assert.assertTrue(authorization.hasResource(12));
+        Assert.assertFalse(authorization.hasResource(13));
+        Assert.assertTrue(authorization.hasFile("/a.sh"));
+        Assert.assertFalse(authorization.hasFile("/a.jar"));
+        Assert.assertFalse(authorization.hasFile(null));
+
+        Assert.assertTrue(authorization.hasDataSource(21));
+        Assert.assertFalse(authorization.hasDataSource(22));
+        Assert.assertTrue(authorization.hasUdfFunc(31));
+        Assert.assertFalse(authorization.hasUdfFunc(32));
+
+        // loaded once
+        Assert.assertSame(authorization, authorizationCache.getUserAuthorization(1));
+        Mockito.verify(projectUserMapper, Mockito.times(1)).queryProjectRelationByUserId(1);
+    }
+
+    @Test
+    public void testInvalidate() {
+        UserAuthorization authorization = authorizationCache.getUserAuthorization(1);
+
+        authorizationCache.invalidateUser(1);
+        UserAuthorization reloaded = authorizationCache.getUserAuthorization(1);
+        Assert.assertNotSame(authorization, reloaded);
+
+        authorizationCache.invalidateAll();
+        Assert.assertNotSame(reloaded, authorizationCache.getUserAuthorization(1));
+        Mockito.verify(projectUserMapper, Mockito.times(3)).queryProjectRelationByUserId(1);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.process;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessJsonSnapshot;
+import org.apache.dolphinscheduler.dao.mapper.ProcessJsonSnapshotMapper;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * process json snapshot store test
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessJsonSnapshotStoreTest {
+
+    private static final String JSON = "{\"globalParams\":[],\"tasks\":[{\"id\":\"tasks-1\",\"type\":\"SHELL\"}]}";
+
+    @InjectMocks
+    private ProcessJsonSnapshotStore processJsonSnapshotStore;
+
+    @Mock
+    private ProcessJsonSnapshotMapper processJsonSnapshotMapper;
+
+    @Test
+    public void testEncodeAndDecode() {
+        byte[] plain = ProcessJsonSnapshotStore.encode(JSON, false);
+        Assert.assertEquals(JSON, ProcessJsonSnapshotStore.decode(plain, false));
+
+        byte[] compressed = ProcessJsonSnapshotStore.encode(JSON, true);
+        Assert.assertEquals(JSON, ProcessJsonSnapshotStore.decode(compressed, true));
+        Assert.assertNull(ProcessJsonSnapshotStore.decode(null, true));
+    }
+
+    @Test
+    public void testSave() {
+        String hash = processJsonSnapshotStore.save(JSON, null);
+        Assert.assertEquals(DigestUtils.sha256Hex(JSON), hash);
+        Assert.assertNull(processJsonSnapshotStore.save(null, hash));
+
+        // the same content is written once
+        Assert.assertEquals(hash, processJsonSnapshotStore.save(JSON, null));
+        Assert.assertEquals(hash, processJsonSnapshotStore.save(JSON, hash));
+        Mockito.verify(processJsonSnapshotMapper, Mockito.times(1)).insertIfAbsent(Mockito.any(ProcessJsonSnapshot.class));
+
+        // saved content is read from memory
+        Assert.assertEquals(JSON, processJsonSnapshotStore.load(hash));
+        Mockito.verify(processJsonSnapshotMapper, Mockito.never()).selectById(hash);
+    }
+
+    @Test
+    public void testSaveRolledBack() {
+        String hash;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            hash = processJsonSnapshotStore.save(JSON, null);
+        } finally {
+            // rolled back, the synchronizations are dropped without afterCommit
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // the snapshot is written again and not served from memory
+        Assert.assertEquals(hash, processJsonSnapshotStore.save(JSON, hash));
+        Mockito.verify(processJsonSnapshotMapper, Mockito.times(2)).insertIfAbsent(Mockito.any(ProcessJsonSnapshot.class));
+        Assert.assertEquals(JSON, processJsonSnapshotStore.load(hash));
+        Mockito.verify(processJsonSnapshotMapper, Mockito.never()).selectById(hash);
+    }
+
+    @Test
+    public void testLoad() {
+        String hash = DigestUtils.sha256Hex(JSON);
+        ProcessJsonSnapshot snapshot = new ProcessJsonSnapshot();
+        snapshot.setHash(hash);
+        snapshot.setCompressed(true);
+        snapshot.setContent(ProcessJsonSnapshotStore.encode(JSON, true));
+        Mockito.when(processJsonSnapshotMapper.selectById(hash)).thenReturn(snapshot);
+
+        Assert.assertNull(processJsonSnapshotStore.load(null));
+        Assert.assertNull(processJsonSnapshotStore.load("absent"));
+        Assert.assertEquals(JSON, processJsonSnapshotStore.load(hash));
+        Assert.assertEquals(JSON, processJsonSnapshotStore.load(hash));
+        Mockito.verify(processJsonSnapshotMapper, Mockito.times(1)).selectById(hash);
+
+        // a loaded snapshot is known to be stored
+        Assert.assertEquals(hash, processJsonSnapshotStore.save(JSON, null));
+        Mockito.verify(processJsonSnapshotMapper, Mockito.never()).insertIfAbsent(Mockito.any(ProcessJsonSnapshot.class));
+    }
+}
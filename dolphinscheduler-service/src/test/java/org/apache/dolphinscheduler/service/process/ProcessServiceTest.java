@@ -22,8 +22,12 @@ import static org.apache.dolphinscheduler.common.Constants.CMD_PARAM_START_PARAM
 import static org.apache.dolphinscheduler.common.Constants.CMD_PARAM_SUB_PROCESS_DEFINE_ID;
 
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.enums.AuthorizationType;
 import org.apache.dolphinscheduler.common.enums.CommandType;
+import org.apache.dolphinscheduler.common.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.common.enums.FailureStrategy;
 import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.common.enums.Priority;
 import org.apache.dolphinscheduler.common.enums.WarningType;
 import org.apache.dolphinscheduler.common.model.TaskNode;
 import org.apache.dolphinscheduler.common.task.conditions.ConditionsParameters;
@@ -34,17 +38,26 @@ import org.apache.dolphinscheduler.dao.entity.ProcessData;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstanceMap;
+import org.apache.dolphinscheduler.dao.entity.Schedule;
+import org.apache.dolphinscheduler.dao.entity.ScheduleTriggerState;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.CommandMapper;
 import org.apache.dolphinscheduler.dao.mapper.ErrorCommandMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessDefinitionMapper;
+import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProcessInstanceMapper;
+import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
+import org.apache.dolphinscheduler.dao.mapper.ScheduleTriggerStateMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache;
+import org.apache.dolphinscheduler.service.permission.AuthorizationCache.UserAuthorization;
 import org.apache.dolphinscheduler.service.quartz.cron.CronUtilsTest;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -53,13 +66,16 @@ import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.fasterxml.jackson.databind.JsonNode;
 
 /**
@@ -89,6 +105,16 @@ public class ProcessServiceTest {
     private UserMapper userMapper;
     @Mock
     TaskInstanceMapper taskInstanceMapper;
+    @Mock
+    private AuthorizationCache authorizationCache;
+    @Mock
+    private ProcessJsonSnapshotStore processJsonSnapshotStore;
+    @Mock
+    private ProcessInstanceMapMapper processInstanceMapMapper;
+    @Mock
+    private ScheduleMapper scheduleMapper;
+    @Mock
+    private ScheduleTriggerStateMapper scheduleTriggerStateMapper;
 
     @Test
     public void testCreateSubCommand() {
@@ -283,6 +309,60 @@ public class ProcessServiceTest {
         Assert.assertTrue(processInstance1.getGlobalParams().contains("\"testStartParam1\""));
     }
 
+    @Test
+    public void testProcessNeedFailoverProcessInstances() {
+        List<ProcessInstance> processInstances = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            ProcessInstance processInstance = new ProcessInstance();
+            processInstance.setId(i);
+            processInstance.setProcessDefinitionId(10 + i);
+            processInstance.setHost("127.0.0.1:5678");
+            processInstances.add(processInstance);
+        }
+        processService.processNeedFailoverProcessInstances(processInstances);
+
+        Mockito.verify(processInstanceMapper).updateHostByIds(Arrays.asList(1, 2, 3), Constants.NULL);
+        Mockito.verify(commandMapper).batchInsert(Mockito.argThat(commands -> commands.size() == 3
+                && commands.stream().allMatch(command -> command.getCommandType() == CommandType.RECOVER_TOLERANCE_FAULT_PROCESS)));
+        Assert.assertEquals(Constants.NULL, processInstances.get(0).getHost());
+    }
+
+    @Test
+    public void testSubmitNewTaskInstances() {
+        Assert.assertTrue(processService.submitNewTaskInstances(new ArrayList<>()).isEmpty());
+
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(1);
+        processInstance.setState(ExecutionStatus.RUNNING_EXECUTION);
+        processInstance.setExecutorId(2);
+        processInstance.setProcessInstancePriority(Priority.HIGH);
+        processInstance.setFailureStrategy(FailureStrategy.CONTINUE);
+        Mockito.when(processInstanceMapper.selectById(1)).thenReturn(processInstance);
+
+        List<TaskInstance> taskInstances = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TaskInstance taskInstance = new TaskInstance();
+            taskInstance.setName("task" + i);
+            taskInstance.setProcessInstanceId(1);
+            taskInstance.setState(ExecutionStatus.SUBMITTED_SUCCESS);
+            taskInstances.add(taskInstance);
+        }
+        List<TaskInstance> submitted = processService.submitNewTaskInstances(taskInstances);
+        Assert.assertEquals(3, submitted.size());
+        Mockito.verify(taskInstanceMapper).batchInsert(taskInstances);
+        for (TaskInstance taskInstance : submitted) {
+            Assert.assertEquals(ExecutionStatus.SUBMITTED_SUCCESS, taskInstance.getState());
+            Assert.assertEquals(2, taskInstance.getExecutorId());
+            Assert.assertEquals(Priority.HIGH, taskInstance.getProcessInstancePriority());
+            Assert.assertNotNull(taskInstance.getSubmitTime());
+            Assert.assertEquals(taskInstance.getSubmitTime(), taskInstance.getFirstSubmitTime());
+        }
+
+        processInstance.setState(ExecutionStatus.READY_PAUSE);
+        submitted = processService.submitNewTaskInstances(taskInstances);
+        Assert.assertEquals(ExecutionStatus.PAUSE, submitted.get(0).getState());
+    }
+
     @Test
     public void testGetUserById() {
         User user = new User();
@@ -336,7 +416,62 @@ public class ProcessServiceTest {
         Mockito.when(processDefineMapper.selectById(parentId)).thenReturn(processDefinition);
         Mockito.when(processDefineMapper.selectById(222)).thenReturn(processDefinition2);
         processService.recurseFindSubProcessId(parentId, ids);
+        Assert.assertEquals(Collections.singletonList(222), ids);
+    }
 
+    @Test
+    public void testGetSubProcessClosure() {
+        ProcessDefinition parent = getSubProcessDefinition(1, 1, 2, 2);
+        ProcessDefinition child = getSubProcessDefinition(2, 1);
+        Mockito.when(processDefineMapper.selectById(1)).thenReturn(parent);
+        Mockito.when(processDefineMapper.selectById(2)).thenReturn(child);
+
+        SubProcessClosure closure = processService.getSubProcessClosure(1);
+        Assert.assertEquals(Arrays.asList(2, 2), closure.getSubProcessIds());
+        Assert.assertEquals(3, closure.getThreadNum());
+        Assert.assertFalse(closure.isCyclic());
+
+        // unchanged versions, served from cache
+        Mockito.when(processDefineMapper.queryVersionByIdList(Mockito.anyCollection()))
+                .thenReturn(Arrays.asList(getSubProcessDefinition(1, 1), getSubProcessDefinition(2, 1)));
+        Assert.assertSame(closure, processService.getSubProcessClosure(1));
+        Mockito.verify(processDefineMapper, Mockito.times(1)).selectById(1);
+
+        // sub process changed, rebuild
+        Mockito.when(processDefineMapper.queryVersionByIdList(Mockito.anyCollection()))
+                .thenReturn(Arrays.asList(getSubProcessDefinition(1, 1), getSubProcessDefinition(2, 2)));
+        Mockito.when(processDefineMapper.selectById(2)).thenReturn(getSubProcessDefinition(2, 2, 3));
+        closure = processService.getSubProcessClosure(1);
+        Assert.assertEquals(Arrays.asList(2, 3, 2, 3), closure.getSubProcessIds());
+        Assert.assertEquals(5, closure.getThreadNum());
+    }
+
+    @Test
+    public void testBuildSubProcessClosureWithCycle() {
+        Mockito.when(processDefineMapper.selectById(2)).thenReturn(getSubProcessDefinition(2, 1, 3));
+        Mockito.when(processDefineMapper.selectById(3)).thenReturn(getSubProcessDefinition(3, 1, 1));
+
+        ProcessData processData = JSONUtils.parseObject(getSubProcessDefinition(1, 1, 2).getProcessDefinitionJson(), ProcessData.class);
+        SubProcessClosure closure = processService.buildSubProcessClosure(1, processData);
+        Assert.assertTrue(closure.isCyclic());
+        Assert.assertEquals(Arrays.asList(2, 3), closure.getSubProcessIds());
+    }
+
+    private ProcessDefinition getSubProcessDefinition(int id, long version, int... subProcessIds) {
+        StringBuilder tasks = new StringBuilder();
+        for (int i = 0; i < subProcessIds.length; i++) {
+            if (i > 0) {
+                tasks.append(",");
+            }
+            tasks.append("{\"id\":\"tasks-").append(i).append("\",\"name\":\"sub").append(i)
+                    .append("\",\"type\":\"SUB_PROCESS\",\"params\":{\"processDefinitionId\":")
+                    .append(subProcessIds[i]).append("},\"preTasks\":[]}");
+        }
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        processDefinition.setId(id);
+        processDefinition.setVersion(version);
+        processDefinition.setProcessDefinitionJson("{\"globalParams\":[],\"tasks\":[" + tasks + "],\"tenantId\":1,\"timeout\":0}");
+        return processDefinition;
     }
 
     @Test
@@ -442,4 +577,209 @@ public class ProcessServiceTest {
         Assert.assertEquals(expect, processService.changeJson(newProcessData,oldJson));
 
     }
+
+    @Test
+    public void testListUnauthorized() {
+        UserAuthorization authorization = new UserAuthorization(Collections.singletonMap(1, 7),
+                new int[]{3, 1}, new String[]{"/a.sh"}, new int[]{5}, new int[]{6});
+        Mockito.when(authorizationCache.getUserAuthorization(1)).thenReturn(authorization);
+
+        Assert.assertEquals(Collections.singletonList(2),
+                processService.listUnauthorized(1, new Integer[]{1, 2, 3}, AuthorizationType.RESOURCE_FILE_ID));
+        Assert.assertEquals(Collections.singletonList("/b.sh"),
+                processService.listUnauthorized(1, new String[]{"/a.sh", "/b.sh"}, AuthorizationType.RESOURCE_FILE_NAME));
+        Assert.assertTrue(processService.listUnauthorized(1, new Integer[]{5}, AuthorizationType.DATASOURCE).isEmpty());
+        Assert.assertEquals(Collections.singletonList(5),
+                processService.listUnauthorized(1, new Integer[]{5, 6}, AuthorizationType.UDF));
+        Assert.assertEquals(Collections.singletonList(1), processService.getProjectIdListHavePerm(1));
+    }
+
+    @Test
+    public void testProcessInstanceJsonSnapshot() {
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(1);
+        processInstance.setProcessInstanceJson("{}");
+        processInstance.setProcessInstanceJsonHash("old");
+        Mockito.when(processJsonSnapshotStore.save("{}", "old")).thenReturn("hash");
+        Mockito.when(processInstanceMapper.updateById(processInstance)).thenReturn(1);
+
+        Assert.assertEquals(1, processService.updateProcessInstance(processInstance));
+        Assert.assertEquals("hash", processInstance.getProcessInstanceJsonHash());
+
+        ProcessInstance queried = new ProcessInstance();
+        queried.setProcessInstanceJsonHash("hash");
+        Mockito.when(processJsonSnapshotStore.load("hash")).thenReturn("{}");
+        Assert.assertEquals("{}", processService.getProcessInstanceJson(queried));
+        Assert.assertEquals("{}", processService.getProcessInstanceJson(queried));
+        Mockito.verify(processJsonSnapshotStore, Mockito.times(1)).load("hash");
+    }
+
+    @Test
+    public void testUpdateLegacyProcessInstanceJson() {
+        // created before snapshots existed, the json is queried from t_ds_process_instance
+        ProcessInstance legacy = new ProcessInstance();
+        legacy.setId(1);
+        legacy.setProcessInstanceJson("{\"tasks\":[]}");
+        Mockito.when(processInstanceMapper.queryDetailById(1)).thenReturn(legacy);
+        Mockito.when(processJsonSnapshotStore.save("{}", null)).thenReturn("hash");
+        ArgumentCaptor<UpdateWrapper<ProcessInstance>> wrapper = ArgumentCaptor.forClass(UpdateWrapper.class);
+        Mockito.when(processInstanceMapper.update(Mockito.eq(legacy), wrapper.capture())).thenReturn(1);
+
+        Assert.assertEquals(1, processService.updateProcessInstance(1, "{}", "[]", null, Flag.NO, null, null));
+        Assert.assertEquals("process_instance_json = null", wrapper.getValue().getSqlSet());
+        Mockito.verify(processInstanceMapper, Mockito.never()).updateById(Mockito.any(ProcessInstance.class));
+
+        // read back, the edit is loaded from the snapshot
+        ProcessInstance queried = new ProcessInstance();
+        queried.setId(1);
+        queried.setProcessInstanceJsonHash(legacy.getProcessInstanceJsonHash());
+        Mockito.when(processJsonSnapshotStore.load("hash")).thenReturn("{}");
+        Assert.assertEquals("{}", processService.getProcessInstanceJson(queried));
+    }
+
+    @Test
+    public void testGetTaskInstanceDetailByTaskIds() {
+        TaskInstance taskInstance1 = new TaskInstance();
+        taskInstance1.setId(1);
+        taskInstance1.setProcessInstanceId(11);
+        taskInstance1.setProcessDefinitionId(21);
+        TaskInstance taskInstance2 = new TaskInstance();
+        taskInstance2.setId(2);
+        taskInstance2.setProcessInstanceId(11);
+        taskInstance2.setProcessDefinitionId(21);
+        Mockito.when(taskInstanceMapper.selectBatchIds(Arrays.asList(1, 2, 3))).thenReturn(Arrays.asList(taskInstance1, taskInstance2));
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(11);
+        Mockito.when(processInstanceMapper.selectBatchIds(Collections.singleton(11))).thenReturn(Collections.singletonList(processInstance));
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        processDefinition.setId(21);
+        Mockito.when(processDefineMapper.selectBatchIds(Collections.singleton(21))).thenReturn(Collections.singletonList(processDefinition));
+
+        List<TaskInstance> taskInstances = processService.getTaskInstanceDetailByTaskIds(Arrays.asList(1, 2, 3));
+        Assert.assertEquals(2, taskInstances.size());
+        Assert.assertSame(processInstance, taskInstances.get(1).getProcessInstance());
+        Assert.assertSame(processDefinition, taskInstances.get(1).getProcessDefine());
+        Assert.assertTrue(processService.getTaskInstanceDetailByTaskIds(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void testCreateSubWorkProcessLaunched() {
+        ProcessInstance parentInstance = getSubProcessParent();
+        TaskInstance task = getSubProcessTask();
+        Mockito.when(processDefineMapper.selectById(100)).thenReturn(getProcessDefinition(100));
+        Mockito.when(processInstanceMapper.queryDetailById(1)).thenReturn(parentInstance);
+        Mockito.doAnswer(invocation -> {
+            ProcessInstance processInstance = invocation.getArgument(0);
+            processInstance.setId(2);
+            return 1;
+        }).when(processInstanceMapper).insert(Mockito.any(ProcessInstance.class));
+        SubProcessLauncher launcher = Mockito.mock(SubProcessLauncher.class);
+        Mockito.when(launcher.getHost()).thenReturn("127.0.0.1:5678");
+        Mockito.when(launcher.reserve(1)).thenReturn(true);
+
+        processService.createSubWorkProcess(parentInstance, task, launcher);
+
+        ArgumentCaptor<ProcessInstance> launched = ArgumentCaptor.forClass(ProcessInstance.class);
+        Mockito.verify(launcher).launch(launched.capture(), Mockito.eq(1));
+        Mockito.verify(launcher, Mockito.never()).cancel(Mockito.anyInt());
+        Mockito.verify(commandMapper, Mockito.never()).insert(Mockito.any(Command.class));
+        ProcessInstance subProcessInstance = launched.getValue();
+        Assert.assertEquals(2, subProcessInstance.getId());
+        Assert.assertEquals(100, subProcessInstance.getProcessDefinitionId());
+        Assert.assertEquals("127.0.0.1:5678", subProcessInstance.getHost());
+        Assert.assertEquals(Flag.YES, subProcessInstance.getIsSubProcess());
+        Assert.assertEquals("2", JSONUtils.toMap(subProcessInstance.getCommandParam()).get(Constants.CMD_PARAM_SUB_PROCESS));
+        ArgumentCaptor<ProcessInstanceMap> instanceMap = ArgumentCaptor.forClass(ProcessInstanceMap.class);
+        Mockito.verify(processInstanceMapMapper).updateById(instanceMap.capture());
+        Assert.assertEquals(2, instanceMap.getValue().getProcessInstanceId());
+    }
+
+    @Test
+    public void testCreateSubWorkProcessWithoutCapacity() {
+        ProcessInstance parentInstance = getSubProcessParent();
+        TaskInstance task = getSubProcessTask();
+        Mockito.when(processDefineMapper.selectById(100)).thenReturn(getProcessDefinition(100));
+        SubProcessLauncher launcher = Mockito.mock(SubProcessLauncher.class);
+        Mockito.when(launcher.reserve(1)).thenReturn(false);
+
+        processService.createSubWorkProcess(parentInstance, task, launcher);
+
+        Mockito.verify(launcher, Mockito.never()).launch(Mockito.any(), Mockito.anyInt());
+        Mockito.verify(processInstanceMapper, Mockito.never()).insert(Mockito.any(ProcessInstance.class));
+        ArgumentCaptor<Command> command = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(commandMapper).insert(command.capture());
+        Assert.assertEquals(100, command.getValue().getProcessDefinitionId());
+        Assert.assertEquals(CommandType.START_PROCESS, command.getValue().getCommandType());
+    }
+
+    @Test
+    public void testFireSchedules() {
+        Date fireTime = DateUtils.stringToDate("2026-10-19 12:00:05");
+        Date scheduledFireTime = DateUtils.stringToDate("2026-10-19 12:00:00");
+        Map<Integer, Date> scheduledFireTimes = new HashMap<>();
+        scheduledFireTimes.put(1, scheduledFireTime);
+        scheduledFireTimes.put(2, scheduledFireTime);
+        scheduledFireTimes.put(3, scheduledFireTime);
+        // schedule 2 is fired by another master, schedule 3 is offline
+        Mockito.when(scheduleTriggerStateMapper.queryByScheduleIdsForUpdate(scheduledFireTimes.keySet()))
+                .thenReturn(Collections.singletonList(new ScheduleTriggerState(2, scheduledFireTime, fireTime)));
+        Schedule schedule1 = new Schedule();
+        schedule1.setId(1);
+        schedule1.setProcessDefinitionId(11);
+        schedule1.setUserId(5);
+        Schedule schedule2 = new Schedule();
+        schedule2.setId(2);
+        schedule2.setProcessDefinitionId(12);
+        Mockito.when(scheduleMapper.queryOnlineSchedules(scheduledFireTimes.keySet())).thenReturn(Arrays.asList(schedule1, schedule2));
+
+        Map<Integer, Date> lastFireTimes = processService.fireSchedules(scheduledFireTimes, fireTime);
+
+        Assert.assertEquals(2, lastFireTimes.size());
+        Assert.assertEquals(scheduledFireTime, lastFireTimes.get(1));
+        Assert.assertEquals(scheduledFireTime, lastFireTimes.get(2));
+        Mockito.verify(commandMapper).batchInsert(Mockito.argThat(commands -> commands.size() == 1
+                && commands.get(0).getProcessDefinitionId() == 11
+                && commands.get(0).getCommandType() == CommandType.SCHEDULER
+                && commands.get(0).getExecutorId() == 5
+                && scheduledFireTime.equals(commands.get(0).getScheduleTime())
+                && fireTime.equals(commands.get(0).getStartTime())
+                && Constants.DEFAULT_WORKER_GROUP.equals(commands.get(0).getWorkerGroup())));
+        Mockito.verify(scheduleTriggerStateMapper).batchUpsert(Mockito.argThat(states -> states.size() == 1
+                && states.get(0).getScheduleId() == 1 && scheduledFireTime.equals(states.get(0).getLastFireTime())));
+        // schedule 1 was never fired, it has no trigger state to lock
+        InOrder inOrder = Mockito.inOrder(scheduleMapper, scheduleTriggerStateMapper, commandMapper);
+        inOrder.verify(scheduleMapper).lockSchedules(scheduledFireTimes.keySet());
+        inOrder.verify(scheduleTriggerStateMapper).queryByScheduleIdsForUpdate(scheduledFireTimes.keySet());
+        inOrder.verify(commandMapper).batchInsert(Mockito.anyList());
+    }
+
+    private ProcessInstance getSubProcessParent() {
+        ProcessInstance parentInstance = new ProcessInstance();
+        parentInstance.setId(1);
+        parentInstance.setProcessDefinitionId(1);
+        parentInstance.setWarningType(WarningType.NONE);
+        parentInstance.setWarningGroupId(0);
+        parentInstance.setHistoryCmd("START_PROCESS");
+        parentInstance.setCommandType(CommandType.START_PROCESS);
+        parentInstance.setGlobalParams("[]");
+        return parentInstance;
+    }
+
+    private TaskInstance getSubProcessTask() {
+        TaskInstance task = new TaskInstance();
+        task.setId(10);
+        task.setProcessInstanceId(1);
+        task.setTaskType("SUB_PROCESS");
+        task.setTaskJson("{\"params\":{\"processDefinitionId\":100}}");
+        return task;
+    }
+
+    private ProcessDefinition getProcessDefinition(int id) {
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        processDefinition.setId(id);
+        processDefinition.setVersion(1);
+        processDefinition.setProcessDefinitionJson("{\"globalParams\":[],\"tasks\":[{\"id\":\"tasks-1\",\"name\":\"shell\","
+                + "\"type\":\"SHELL\",\"params\":{\"rawScript\":\"echo 1\"},\"preTasks\":[]}],\"tenantId\":1,\"timeout\":0}");
+        return processDefinition;
+    }
 }
@@ -19,10 +19,20 @@ package org.apache.dolphinscheduler.spi.alert;
 
 /**
  * alert channel interface .
+ * <p>
+ * a channel is created once for each alert plugin instance and used by concurrent deliveries, so the clients
+ * it holds, such as http connections, tokens and smtp transports, are kept for the later messages.
  *
  * @author gaojun
  */
 public interface AlertChannel {
 
     AlertResult process(AlertInfo info);
+
+    /**
+     * release the clients held by the channel, called when the params of the plugin instance change
+     * or the alert server stops, once the messages being sent through the channel are done
+     */
+    default void close() {
+    }
 }
@@ -321,6 +321,7 @@ CREATE TABLE t_ds_process_definition_version (
   process_definition_id int NOT NULL  ,
   version int DEFAULT NULL ,
   process_definition_json text ,
+  process_definition_json_hash char(64) DEFAULT NULL ,
   description text ,
   global_params text ,
   locations text ,
@@ -360,6 +361,7 @@ CREATE TABLE t_ds_process_instance (
   command_start_time timestamp DEFAULT NULL ,
   global_params text ,
   process_instance_json text ,
+  process_instance_json_hash char(64) DEFAULT NULL ,
   flag int DEFAULT '1' ,
   update_time timestamp NULL ,
   is_sub_process int DEFAULT '0' ,
@@ -806,4 +808,44 @@ CREATE TABLE t_ds_alert_plugin_instance (
 	update_time timestamp NULL,
 	instance_name varchar(200) NULL,
 	CONSTRAINT t_ds_alert_plugin_instance_pk PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+--
+-- Table structure for table t_ds_process_lineage
+--
+DROP TABLE IF EXISTS t_ds_process_lineage;
+CREATE TABLE t_ds_process_lineage (
+  id serial NOT NULL,
+  project_id int NOT NULL,
+  process_definition_id int NOT NULL,
+  task_name varchar(255) DEFAULT NULL,
+  depend_process_definition_id int NOT NULL,
+  depend_tasks varchar(255) DEFAULT NULL,
+  create_time timestamp DEFAULT NULL,
+  PRIMARY KEY (id)
+);
+create index process_lineage_process_definition_id_index on t_ds_process_lineage (process_definition_id);
+create index process_lineage_depend_process_definition_id_index on t_ds_process_lineage (depend_process_definition_id);
+
+--
+-- Table structure for table t_ds_process_json_snapshot
+--
+DROP TABLE IF EXISTS t_ds_process_json_snapshot;
+CREATE TABLE t_ds_process_json_snapshot (
+  hash char(64) NOT NULL,
+  compressed boolean NOT NULL DEFAULT false,
+  content bytea,
+  create_time timestamp DEFAULT NULL,
+  PRIMARY KEY (hash)
+);
+
+--
+-- Table structure for table t_ds_schedule_trigger_state
+--
+DROP TABLE IF EXISTS t_ds_schedule_trigger_state;
+CREATE TABLE t_ds_schedule_trigger_state (
+  schedule_id int NOT NULL,
+  last_fire_time timestamp NOT NULL,
+  update_time timestamp DEFAULT NULL,
+  PRIMARY KEY (schedule_id)
+);
@@ -280,7 +280,7 @@ CREATE TABLE `t_ds_alert` (
   `id` int(11) NOT NULL AUTO_INCREMENT COMMENT 'key',
   `title` varchar(64) DEFAULT NULL COMMENT 'title',
   `content` text COMMENT 'Message content (can be email, can be SMS. Mail is stored in JSON map, and SMS is string)',
-  `alert_status` tinyint(4) DEFAULT '0' COMMENT '0:wait running,1:success,2:failed',
+  `alert_status` tinyint(4) DEFAULT '0' COMMENT '0:wait running,1:success,2:failed,3:wait coalesce',
   `log` text COMMENT 'log',
   `alertgroup_id` int(11) DEFAULT NULL COMMENT 'alert group id',
   `create_time` datetime DEFAULT NULL COMMENT 'create time',
@@ -428,6 +428,7 @@ CREATE TABLE `t_ds_process_definition_version` (
   `process_definition_id` int(11) NOT NULL COMMENT 'process definition id',
   `version` int(11) DEFAULT NULL COMMENT 'process definition version',
   `process_definition_json` longtext COMMENT 'process definition json content',
+  `process_definition_json_hash` char(64) DEFAULT NULL COMMENT 'hash of the process definition json snapshot',
   `description` text,
   `global_params` text COMMENT 'global parameters',
   `locations` text COMMENT 'Node location information',
@@ -470,6 +471,7 @@ CREATE TABLE `t_ds_process_instance` (
   `command_start_time` datetime DEFAULT NULL COMMENT 'command start time',
   `global_params` text COMMENT 'global parameters',
   `process_instance_json` longtext COMMENT 'process instance json(copy的process definition 的json)',
+  `process_instance_json_hash` char(64) DEFAULT NULL COMMENT 'hash of the process instance json snapshot',
   `flag` tinyint(4) DEFAULT '1' COMMENT 'flag',
   `update_time` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   `is_sub_process` int(11) DEFAULT '0' COMMENT 'flag, whether the process is sub process',
@@ -851,4 +853,44 @@ CREATE TABLE `t_ds_alert_plugin_instance` (
   `update_time` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   `instance_name` varchar(200) DEFAULT NULL COMMENT 'alert instance name',
   PRIMARY KEY (`id`)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8;
\ No newline at end of file
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_process_lineage
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_process_lineage`;
+CREATE TABLE `t_ds_process_lineage` (
+  `id` int(11) NOT NULL AUTO_INCREMENT COMMENT 'key',
+  `project_id` int(11) NOT NULL COMMENT 'project id of the process definition',
+  `process_definition_id` int(11) NOT NULL COMMENT 'process definition id',
+  `task_name` varchar(255) DEFAULT NULL COMMENT 'dependent task name',
+  `depend_process_definition_id` int(11) NOT NULL COMMENT 'depended process definition id',
+  `depend_tasks` varchar(255) DEFAULT NULL COMMENT 'depended tasks, ALL or task name',
+  `create_time` datetime DEFAULT NULL COMMENT 'create time',
+  PRIMARY KEY (`id`),
+  KEY `process_definition_id_index` (`process_definition_id`),
+  KEY `depend_process_definition_id_index` (`depend_process_definition_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_process_json_snapshot
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_process_json_snapshot`;
+CREATE TABLE `t_ds_process_json_snapshot` (
+  `hash` char(64) NOT NULL COMMENT 'sha-256 hex of the json',
+  `compressed` tinyint(1) NOT NULL DEFAULT '0' COMMENT 'whether content is gzip compressed',
+  `content` longblob COMMENT 'utf-8 json, gzip compressed if compressed is 1',
+  `create_time` datetime DEFAULT NULL COMMENT 'create time',
+  PRIMARY KEY (`hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_schedule_trigger_state
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_schedule_trigger_state`;
+CREATE TABLE `t_ds_schedule_trigger_state` (
+  `schedule_id` int(11) NOT NULL COMMENT 'schedule id',
+  `last_fire_time` datetime NOT NULL COMMENT 'scheduled time of the last fire',
+  `update_time` datetime DEFAULT NULL COMMENT 'update time',
+  PRIMARY KEY (`schedule_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
@@ -54,6 +54,46 @@ CREATE TABLE `t_ds_alert_plugin_instance` (
 -- Records of t_ds_alert_plugin_instance
 -- ----------------------------
 
+-- ----------------------------
+-- Table structure for t_ds_process_lineage
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_process_lineage`;
+CREATE TABLE `t_ds_process_lineage` (
+  `id` int(11) NOT NULL AUTO_INCREMENT COMMENT 'key',
+  `project_id` int(11) NOT NULL COMMENT 'project id of the process definition',
+  `process_definition_id` int(11) NOT NULL COMMENT 'process definition id',
+  `task_name` varchar(255) DEFAULT NULL COMMENT 'dependent task name',
+  `depend_process_definition_id` int(11) NOT NULL COMMENT 'depended process definition id',
+  `depend_tasks` varchar(255) DEFAULT NULL COMMENT 'depended tasks, ALL or task name',
+  `create_time` datetime DEFAULT NULL COMMENT 'create time',
+  PRIMARY KEY (`id`),
+  KEY `process_definition_id_index` (`process_definition_id`),
+  KEY `depend_process_definition_id_index` (`depend_process_definition_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_process_json_snapshot
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_process_json_snapshot`;
+CREATE TABLE `t_ds_process_json_snapshot` (
+  `hash` char(64) NOT NULL COMMENT 'sha-256 hex of the json',
+  `compressed` tinyint(1) NOT NULL DEFAULT '0' COMMENT 'whether content is gzip compressed',
+  `content` longblob COMMENT 'utf-8 json, gzip compressed if compressed is 1',
+  `create_time` datetime DEFAULT NULL COMMENT 'create time',
+  PRIMARY KEY (`hash`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for t_ds_schedule_trigger_state
+-- ----------------------------
+DROP TABLE IF EXISTS `t_ds_schedule_trigger_state`;
+CREATE TABLE `t_ds_schedule_trigger_state` (
+  `schedule_id` int(11) NOT NULL COMMENT 'schedule id',
+  `last_fire_time` datetime NOT NULL COMMENT 'scheduled time of the last fire',
+  `update_time` datetime DEFAULT NULL COMMENT 'update time',
+  PRIMARY KEY (`schedule_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
+
 -- uc_dolphin_T_t_ds_process_definition_A_warning_group_id
 drop PROCEDURE if EXISTS uc_dolphin_T_t_ds_process_definition_A_warning_group_id;
 delimiter d//
@@ -134,6 +174,46 @@ delimiter ;
 CALL uc_dolphin_T_t_ds_alertgroup_A_create_user_id();
 DROP PROCEDURE uc_dolphin_T_t_ds_alertgroup_A_create_user_id;
 
+-- uc_dolphin_T_t_ds_process_instance_A_process_instance_json_hash
+drop PROCEDURE if EXISTS uc_dolphin_T_t_ds_process_instance_A_process_instance_json_hash;
+delimiter d//
+CREATE PROCEDURE uc_dolphin_T_t_ds_process_instance_A_process_instance_json_hash()
+   BEGIN
+       IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+           WHERE TABLE_NAME='t_ds_process_instance'
+           AND TABLE_SCHEMA=(SELECT DATABASE())
+           AND COLUMN_NAME ='process_instance_json_hash')
+   THEN
+         ALTER TABLE t_ds_process_instance ADD COLUMN `process_instance_json_hash` char(64) DEFAULT NULL COMMENT 'hash of the process instance json snapshot' AFTER `process_instance_json`;
+       END IF;
+ END;
+
+d//
+
+delimiter ;
+CALL uc_dolphin_T_t_ds_process_instance_A_process_instance_json_hash();
+DROP PROCEDURE uc_dolphin_T_t_ds_process_instance_A_process_instance_json_hash;
+
+-- uc_dolphin_T_t_ds_process_definition_version_A_process_definition_json_hash
+drop PROCEDURE if EXISTS uc_dolphin_T_t_ds_process_definition_version_A_process_definition_json_hash;
+delimiter d//
+CREATE PROCEDURE uc_dolphin_T_t_ds_process_definition_version_A_process_definition_json_hash()
+   BEGIN
+       IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+           WHERE TABLE_NAME='t_ds_process_definition_version'
+           AND TABLE_SCHEMA=(SELECT DATABASE())
+           AND COLUMN_NAME ='process_definition_json_hash')
+   THEN
+         ALTER TABLE t_ds_process_definition_version ADD COLUMN `process_definition_json_hash` char(64) DEFAULT NULL COMMENT 'hash of the process definition json snapshot' AFTER `process_definition_json`;
+       END IF;
+ END;
+
+d//
+
+delimiter ;
+CALL uc_dolphin_T_t_ds_process_definition_version_A_process_definition_json_hash();
+DROP PROCEDURE uc_dolphin_T_t_ds_process_definition_version_A_process_definition_json_hash;
+
 -- ----------------------------
 -- These columns will not be used in the new version,if you determine that the historical data is useless, you can delete it using the sql below
 -- ----------------------------
@@ -44,6 +44,46 @@ CREATE TABLE t_ds_alert_plugin_instance (
                                             CONSTRAINT t_ds_alert_plugin_instance_pk PRIMARY KEY (id)
 );
 
+-- ----------------------------
+-- Table structure for t_ds_process_lineage
+-- ----------------------------
+DROP TABLE IF EXISTS t_ds_process_lineage;
+CREATE TABLE t_ds_process_lineage (
+  id serial NOT NULL,
+  project_id int NOT NULL,
+  process_definition_id int NOT NULL,
+  task_name varchar(255) DEFAULT NULL,
+  depend_process_definition_id int NOT NULL,
+  depend_tasks varchar(255) DEFAULT NULL,
+  create_time timestamp DEFAULT NULL,
+  PRIMARY KEY (id)
+);
+create index process_lineage_process_definition_id_index on t_ds_process_lineage (process_definition_id);
+create index process_lineage_depend_process_definition_id_index on t_ds_process_lineage (depend_process_definition_id);
+
+-- ----------------------------
+-- Table structure for t_ds_process_json_snapshot
+-- ----------------------------
+DROP TABLE IF EXISTS t_ds_process_json_snapshot;
+CREATE TABLE t_ds_process_json_snapshot (
+  hash char(64) NOT NULL,
+  compressed boolean NOT NULL DEFAULT false,
+  content bytea,
+  create_time timestamp DEFAULT NULL,
+  PRIMARY KEY (hash)
+);
+
+-- ----------------------------
+-- Table structure for t_ds_schedule_trigger_state
+-- ----------------------------
+DROP TABLE IF EXISTS t_ds_schedule_trigger_state;
+CREATE TABLE t_ds_schedule_trigger_state (
+  schedule_id int NOT NULL,
+  last_fire_time timestamp NOT NULL,
+  update_time timestamp DEFAULT NULL,
+  PRIMARY KEY (schedule_id)
+);
+
 -- uc_dolphin_T_t_ds_process_definition_A_warning_group_id
 delimiter d//
 CREATE OR REPLACE FUNCTION uc_dolphin_T_t_ds_process_definition_A_warning_group_id() RETURNS void AS $$
@@ -120,6 +160,44 @@ delimiter ;
 SELECT uc_dolphin_T_t_ds_alertgroup_A_create_user_id();
 DROP FUNCTION IF EXISTS uc_dolphin_T_t_ds_alertgroup_A_create_user_id();
 
+-- uc_dolphin_T_t_ds_process_instance_A_process_instance_json_hash
+delimiter d//
+CREATE OR REPLACE FUNCTION uc_dolphin_T_t_ds_process_instance_A_process_instance_json_hash() RETURNS void AS $$
+BEGIN
+       IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+          WHERE TABLE_NAME='t_ds_process_instance'
+                            AND COLUMN_NAME ='process_instance_json_hash')
+      THEN
+         ALTER TABLE t_ds_process_instance ADD COLUMN process_instance_json_hash char(64) DEFAULT NULL;
+         COMMENT ON COLUMN t_ds_process_instance.process_instance_json_hash IS 'hash of the process instance json snapshot';
+       END IF;
+END;
+$$ LANGUAGE plpgsql;
+d//
+
+delimiter ;
+SELECT uc_dolphin_T_t_ds_process_instance_A_process_instance_json_hash();
+DROP FUNCTION IF EXISTS uc_dolphin_T_t_ds_process_instance_A_process_instance_json_hash();
+
+-- uc_dolphin_T_t_ds_process_definition_version_A_process_definition_json_hash
+delimiter d//
+CREATE OR REPLACE FUNCTION uc_dolphin_T_t_ds_process_definition_version_A_process_definition_json_hash() RETURNS void AS $$
+BEGIN
+       IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+          WHERE TABLE_NAME='t_ds_process_definition_version'
+                            AND COLUMN_NAME ='process_definition_json_hash')
+      THEN
+         ALTER TABLE t_ds_process_definition_version ADD COLUMN process_definition_json_hash char(64) DEFAULT NULL;
+         COMMENT ON COLUMN t_ds_process_definition_version.process_definition_json_hash IS 'hash of the process definition json snapshot';
+       END IF;
+END;
+$$ LANGUAGE plpgsql;
+d//
+
+delimiter ;
+SELECT uc_dolphin_T_t_ds_process_definition_version_A_process_definition_json_hash();
+DROP FUNCTION IF EXISTS uc_dolphin_T_t_ds_process_definition_version_A_process_definition_json_hash();
+
 -- ----------------------------
 -- These columns will not be used in the new version,if you determine that the historical data is useless, you can delete it using the sql below
 -- ----------------------------